@@ -22,11 +22,15 @@ import java.io.FileInputStream;
 import java.util.Date;
 import java.util.Properties;
 
-import vanetsim.gui.Renderer;
+import vanetsim.gui.helpers.AsyncLogPipeline;
+import vanetsim.gui.helpers.PrivacyLogWriter;
 import vanetsim.localization.Messages;
 import vanetsim.map.Map;
 import vanetsim.scenario.Scenario;
+import vanetsim.simulation.Checkpoint;
 import vanetsim.simulation.SimulationMaster;
+import vanetsim.simulation.StepBarrier;
+import vanetsim.simulation.SimulationEngine;
 
 /**
  * This is the main class for the VANet-Simulator which starts the GUI and all other components.
@@ -45,6 +49,12 @@ public final class ConsoleStart implements Runnable {
 	/** Simulation time */
 	private static int simulationTime_ = 0;
 	
+	/** Checkpoint to restore after loading the scenario (<code>null</code> for none) */
+	private static File restoreFile_ = null;
+	
+	/** Checkpoint to save when the simulation time is reached (<code>null</code> for none) */
+	private static File checkpointFile_ = null;
+	
 
 	/**
 	 * Starts the simulator in console mode
@@ -54,20 +64,35 @@ public final class ConsoleStart implements Runnable {
 	 * @param simulationTime	the simulation time in milliseconds
 	 */	
 	public ConsoleStart(String mapFile, String scenarioFile, String simulationTime){
+		this(mapFile, scenarioFile, simulationTime, null, null);
+	}
+
+	/**
+	 * Starts the simulator in console mode and optionally continues a simulation from a checkpoint.
+	 * 
+	 * @param mapFile			path of the used map
+	 * @param scenarioFile		path of the used scenario
+	 * @param simulationTime	the simulation time in milliseconds at which the simulation stops
+	 * @param restoreFile		path of a checkpoint to restore after loading the scenario (<code>null</code> or "-" for none)
+	 * @param checkpointFile	path of a checkpoint to save when the simulation stops (<code>null</code> for none)
+	 */	
+	public ConsoleStart(String mapFile, String scenarioFile, String simulationTime, String restoreFile, String checkpointFile){
 		readconfig("./config.txt");
 		
 		mapFile_ = new File(mapFile);
 		scenarioFile_ = new File(scenarioFile);
 		simulationTime_ = Integer.parseInt(simulationTime);
+		if(restoreFile != null && !restoreFile.equals("-")) restoreFile_ = new File(restoreFile); //$NON-NLS-1$
+		if(checkpointFile != null) checkpointFile_ = new File(checkpointFile);
 	}
 
 	/**
-	 * Thread which creates the GUI.
+	 * Loads the map and the scenario and starts the simulation. Called on the main thread.
 	 * 
 	 * @see java.lang.Runnable#run()
 	 */
 	public void run() {
-		Renderer.getInstance().setConsoleStart(true);
+		SimulationEngine.getInstance().setConsoleStart(true);
 
 		System.out.println("Time:" + new Date());
 
@@ -87,6 +112,13 @@ public final class ConsoleStart implements Runnable {
 		Scenario.getInstance().load(scenarioFile_, false);
 		System.out.println(Messages.getString("ConsoleStart.ScenarioLoaded"));
 		
+		if(restoreFile_ != null){
+			System.out.println(Messages.getString("ConsoleStart.CheckpointRestore"));
+			if(!Checkpoint.restore(restoreFile_, simulationMaster_)) System.exit(1);
+			System.out.println(Messages.getString("ConsoleStart.CheckpointRestored"));
+		}
+		simulationMaster_.setCheckpointFile(checkpointFile_);
+		
 		System.out.println(Messages.getString("ConsoleStart.SetSimTime"));
 		ConsoleStart.getSimulationMaster().jumpToTime(simulationTime_);
 		System.out.println(Messages.getString("ConsoleStart.SimTimeSet"));
@@ -125,7 +157,7 @@ public final class ConsoleStart implements Runnable {
 				try {
 					
 				} catch (Exception e) {
-					ErrorLog.log(Messages.getString("StartGUI.substanceThemeError"), 3, VanetSimStart.class.getName(), "readconfig", e); //$NON-NLS-1$ //$NON-NLS-2$
+					ErrorLog.log(Messages.getString("StartGUI.substanceThemeError"), 3, ConsoleStart.class.getName(), "readconfig", e); //$NON-NLS-1$ //$NON-NLS-2$
 				}
 			}
 			// read parameters for logfile
@@ -143,15 +175,21 @@ public final class ConsoleStart implements Runnable {
 
 			if (loggerTrashtime < 0 || loggerTrashtime > 365000) {
 				loggerTrashtime = (long) 365000;
-				ErrorLog.log("", 4, VanetSimStart.class.getName(), "readconfig", null); //$NON-NLS-1$ //$NON-NLS-2$
+				ErrorLog.log("", 4, ConsoleStart.class.getName(), "readconfig", null); //$NON-NLS-1$ //$NON-NLS-2$
 			}
 			ErrorLog.deleteOld(loggerTrashtime, loggerDir);
 
-			if (loggerFormatError) ErrorLog.log(Messages.getString("StartGUI.wrongLogformat"), 4, VanetSimStart.class.getName(), "readconfig", null); //$NON-NLS-1$ //$NON-NLS-2$
-			if (loggerLevel < 1 || loggerLevel > 7) ErrorLog.log(Messages.getString("StartGUI.wrongLoglevel"), 4, VanetSimStart.class.getName(), "readconfig", null); //$NON-NLS-1$ //$NON-NLS-2$
+			if (loggerFormatError) ErrorLog.log(Messages.getString("StartGUI.wrongLogformat"), 4, ConsoleStart.class.getName(), "readconfig", null); //$NON-NLS-1$ //$NON-NLS-2$
+			if (loggerLevel < 1 || loggerLevel > 7) ErrorLog.log(Messages.getString("StartGUI.wrongLoglevel"), 4, ConsoleStart.class.getName(), "readconfig", null); //$NON-NLS-1$ //$NON-NLS-2$
+			
+			StepBarrier.setSpinBarrierEnabled(Boolean.parseBoolean(configFile.getProperty("spin_barrier", "false"))); //$NON-NLS-1$ //$NON-NLS-2$
+			SimulationMaster.setDeterministicMode(Boolean.parseBoolean(configFile.getProperty("deterministic_mode", "false"))); //$NON-NLS-1$ //$NON-NLS-2$
+			AsyncLogPipeline.setBinaryFormat(Boolean.parseBoolean(configFile.getProperty("binary_logs", "false"))); //$NON-NLS-1$ //$NON-NLS-2$
+			AsyncLogPipeline.setCompressedFormat(Boolean.parseBoolean(configFile.getProperty("compressed_logs", "false"))); //$NON-NLS-1$ //$NON-NLS-2$
+			PrivacyLogWriter.setOnlineAnalysis(Boolean.parseBoolean(configFile.getProperty("online_privacy_analysis", "false"))); //$NON-NLS-1$ //$NON-NLS-2$
 		
 		} catch (Exception e) {
-			ErrorLog.log(Messages.getString("StartGUI.whileConfigreading"), 7, VanetSimStart.class.getName(), "readconfig",  e); //$NON-NLS-1$ //$NON-NLS-2$
+			ErrorLog.log(Messages.getString("StartGUI.whileConfigreading"), 7, ConsoleStart.class.getName(), "readconfig",  e); //$NON-NLS-1$ //$NON-NLS-2$
 			System.exit(1);
 		}
 	}
@@ -25,9 +25,8 @@ import java.util.logging.SimpleFormatter;
 import java.util.logging.XMLFormatter;
 import java.util.logging.Logger;
 
-import javax.swing.JOptionPane;
-
 import vanetsim.localization.Messages;
+import vanetsim.simulation.SimulationEngine;
 
 /**
  * Helper Class for error logging.
@@ -142,8 +141,8 @@ public final class ErrorLog {
 					logger.logp(Level.SEVERE, errClass, errMethod, message);
 				}
 			}
-			if(severity == 7) JOptionPane.showMessageDialog(VanetSimStart.getMainFrame(), Messages.getString("ErrorLog.error") + message + (e!=null?"\n" + Messages.getString("ErrorLog.seeErrorlog"):""), Messages.getString("ErrorLog.errorWindowTitle"), JOptionPane.ERROR_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
-			else if(severity == 6) JOptionPane.showMessageDialog(VanetSimStart.getMainFrame(), Messages.getString("ErrorLog.warning") + message + (e!=null?"\n" + Messages.getString("ErrorLog.seeErrorlog"):""), Messages.getString("ErrorLog.warningWindowTitle"), JOptionPane.WARNING_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			// the GUI shows warnings and errors in a dialog
+			if(severity >= 6) SimulationEngine.getInstance().fireErrorLogged(message, severity, e);
 		} catch (Exception new_e) {
 			System.out.println(Messages.getString("ErrorLog.whileLogging") + message + ":" + e.getLocalizedMessage() + ")! " + new_e.getLocalizedMessage()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			new_e.printStackTrace();
@@ -37,12 +37,17 @@ import com.apple.eawt.Application;
 import vanetsim.gui.DrawingArea;
 import vanetsim.gui.Renderer;
 import vanetsim.gui.controlpanels.MainControlPanel;
+import vanetsim.gui.helpers.AsyncLogPipeline;
 import vanetsim.gui.helpers.MouseClickManager;
+import vanetsim.gui.helpers.PrivacyLogWriter;
 import vanetsim.gui.helpers.ProgressOverlay;
 import vanetsim.gui.helpers.ReRenderManager;
+import vanetsim.gui.helpers.SimulationGuiListener;
 import vanetsim.localization.Messages;
 import vanetsim.map.Map;
+import vanetsim.simulation.SimulationEngine;
 import vanetsim.simulation.SimulationMaster;
+import vanetsim.simulation.StepBarrier;
 
 
 /**
@@ -84,14 +89,14 @@ public final class VanetSimStart implements Runnable {
 		mainFrame_.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
 		progressBar_ = new ProgressOverlay();
+		DrawingArea drawarea = addComponentsToPane(mainFrame_.getContentPane());
+		SimulationEngine.getInstance().addSimulationListener(new SimulationGuiListener());	// shows the warnings logged from here on
 		if(Runtime.getRuntime().maxMemory() < 120000000) ErrorLog.log(Messages.getString("StartGUI.detectedLowMemory"), 6, VanetSimStart.class.getName(), "run", null); //$NON-NLS-1$ //$NON-NLS-2$
 		URL appicon = ClassLoader.getSystemResource("vanetsim/images/logo.png"); //$NON-NLS-1$
 		if (appicon != null){
 			mainFrame_.setIconImage(Toolkit.getDefaultToolkit().getImage(appicon));
 		} else ErrorLog.log(Messages.getString("StartGUI.noAppIcon"), 6, VanetSimStart.class.getName(), "run", null); //$NON-NLS-1$ //$NON-NLS-2$
 
-		DrawingArea drawarea = addComponentsToPane(mainFrame_.getContentPane());
-
 		Rectangle bounds = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds(); 
 		
 		String osName = System.getProperty("os.name").toLowerCase();
@@ -237,6 +242,12 @@ public final class VanetSimStart implements Runnable {
 
 			if (loggerFormatError) ErrorLog.log(Messages.getString("StartGUI.wrongLogformat"), 4, VanetSimStart.class.getName(), "readconfig", null); //$NON-NLS-1$ //$NON-NLS-2$
 			if (loggerLevel < 1 || loggerLevel > 7) ErrorLog.log(Messages.getString("StartGUI.wrongLoglevel"), 4, VanetSimStart.class.getName(), "readconfig", null); //$NON-NLS-1$ //$NON-NLS-2$
+			
+			StepBarrier.setSpinBarrierEnabled(Boolean.parseBoolean(configFile.getProperty("spin_barrier", "false"))); //$NON-NLS-1$ //$NON-NLS-2$
+			SimulationMaster.setDeterministicMode(Boolean.parseBoolean(configFile.getProperty("deterministic_mode", "false"))); //$NON-NLS-1$ //$NON-NLS-2$
+			AsyncLogPipeline.setBinaryFormat(Boolean.parseBoolean(configFile.getProperty("binary_logs", "false"))); //$NON-NLS-1$ //$NON-NLS-2$
+			AsyncLogPipeline.setCompressedFormat(Boolean.parseBoolean(configFile.getProperty("compressed_logs", "false"))); //$NON-NLS-1$ //$NON-NLS-2$
+			PrivacyLogWriter.setOnlineAnalysis(Boolean.parseBoolean(configFile.getProperty("online_privacy_analysis", "false"))); //$NON-NLS-1$ //$NON-NLS-2$
 		
 			useDoubleBuffering_ = Boolean.parseBoolean(configFile.getProperty("double_buffer", "true")); //$NON-NLS-1$ //$NON-NLS-2$
 			drawManualBuffered_ = Boolean.parseBoolean(configFile.getProperty("draw_manual_buffered", "false")); //$NON-NLS-1$ //$NON-NLS-2$
@@ -29,11 +29,12 @@ public class VanetSimStarter {
 	 * 
 	 * @param args	command line arguments. No argument is given the simulator will start in GUI-Mode.
 	 * if 3 arguments are given the simulator will start without GUI in console mode. args[0] = map path; args[1] = scenario path args[2] = time until the simulation stops 
+	 * optional: args[3] = checkpoint to restore after loading the scenario ("-" for none); args[4] = checkpoint to save when the simulation stops
 	 * example for console mode: java -jar VanetSimStarter.jar /Users/Max_Mustermann/rgb-1.xml /Users/Max_Mustermann/rgb-1_scen.xml 50000 
 	 */
 	public static void main(String[] args) {
 		if(args.length < 3) SwingUtilities.invokeLater(new VanetSimStart());
-		else SwingUtilities.invokeLater(new ConsoleStart(args[0], args[1], args[2]));
+		else new ConsoleStart(args[0], args[1], args[2], (args.length > 3 ? args[3] : null), (args.length > 4 ? args[4] : null)).run();	// on the main thread so that Swing isn't loaded
 	}
 
 	public static void restartWithLanguage(String language){
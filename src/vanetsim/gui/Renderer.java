@@ -61,6 +61,7 @@ import vanetsim.scenario.events.EventList;
 import vanetsim.scenario.events.EventSpot;
 import vanetsim.scenario.events.EventSpotList;
 import vanetsim.scenario.events.StartBlocking;
+import vanetsim.simulation.SimulationEngine;
 
 /**
  * This class performs all rendering tasks.
@@ -118,8 +119,8 @@ public final class Renderer{
 	/** If a simulation thread is currently running. */
 	private boolean simulationRunning_ = false;
 
-	/** Used to display how long the relative time in milliseconds since the simulation started. */
-	private int timePassed_ = 0;
+	/** The simulation engine holding the clock and the marked vehicles. */
+	private final SimulationEngine engine_ = SimulationEngine.getInstance();
 
 	/** A boolean indicating if a new full render (=rendering of static objects) is needed. */
 	private boolean scheduleFullRender_ = false;
@@ -193,15 +194,6 @@ public final class Renderer{
 	/** A street which is to be drawn marked (selected by user). */
 	private Street markedStreet_ = null;	
 
-	/** A vehicle which is to be drawn marked (selected by user). */
-	private Vehicle markedVehicle_ = null;
-	
-	/** A vehicle which is to be drawn as attacker (selected by user). */
-	private Vehicle attackerVehicle_ = null;
-	
-	/** A vehicle which is to be drawn as attacked vehicle (selected by user). */
-	private Vehicle attackedVehicle_ = null;
-	
 	/** If circles shall be displayed to indicate communication distances. */
 	private boolean highlightCommunication_ = false;
 
@@ -232,9 +224,6 @@ public final class Renderer{
 	/** If attacker and attacked vehicle should be displayed*/
 	private boolean showAttackers_ = false;
 	
-	/** If a mix zone should be added at each street corner */
-	private boolean autoAddMixZones_ = false;
-	
 	/** The minimum x coordinate which is checked during beacon monitoring. */
 	private int beaconMonitorMinX_ = -1;
 	
@@ -268,9 +257,6 @@ public final class Renderer{
 	/** A scaled instance of the <code>slipperyImage_</code>. Is updated on every zoom change. */
 	private BufferedImage scaledSlipperyImage_;
 	
-	/** flag for console start*/
-	private boolean consoleStart = false;
-
 	/** the marked junction*/
 	private Junction markedJunction_ = null;
 
@@ -361,6 +347,9 @@ public final class Renderer{
 			int i, j, k, size;
 			Vehicle vehicle;
 			Vehicle[] vehicles;
+			Vehicle markedVehicle = engine_.getMarkedVehicle();
+			Vehicle attackerVehicle = engine_.getAttackerVehicle();
+			Vehicle attackedVehicle = engine_.getAttackedVehicle();
 
 			// A small fix because the substance theme engine sometimes causes unwanted shifts
 			AffineTransform g2dAffine = g2d.getTransform();	//cache to save some calls
@@ -510,7 +499,7 @@ public final class Renderer{
 									if(highlightCommunication_){
 										if(vehicle.isWiFiEnabled() && (!vehicle.isInMixZone() || Vehicle.getMixZonesFallbackEnabled())){
 											g2d.setPaint(Color.blue);
-											if(vehicle != markedVehicle_) g2d.drawOval(vehicle.getX()-vehicle.getMaxCommDistance(), vehicle.getY()-vehicle.getMaxCommDistance(),vehicle.getMaxCommDistance()*2,vehicle.getMaxCommDistance()*2);
+											if(vehicle != markedVehicle) g2d.drawOval(vehicle.getX()-vehicle.getMaxCommDistance(), vehicle.getY()-vehicle.getMaxCommDistance(),vehicle.getMaxCommDistance()*2,vehicle.getMaxCommDistance()*2);
 										} else g2d.setPaint(Color.black);
 									}
 									g2d.fillOval(vehicle.getX()-VEHICLE_SIZE/2, vehicle.getY()-VEHICLE_SIZE/2,VEHICLE_SIZE,VEHICLE_SIZE);
@@ -607,23 +596,23 @@ public final class Renderer{
 					} catch (Exception e){e.printStackTrace();}
 				}
 				// draw vehicle marked by user
-				if(markedVehicle_ != null){
+				if(markedVehicle != null){
 					g2d.setPaint(Color.RED);
-					g2d.fillOval(markedVehicle_.getX()-VEHICLE_SIZE/2+35, markedVehicle_.getY()-VEHICLE_SIZE/2+35,VEHICLE_SIZE-70,VEHICLE_SIZE-70);
-					if(markedVehicle_.isWiFiEnabled() && (!markedVehicle_.isInMixZone() || Vehicle.getMixZonesFallbackEnabled())) g2d.drawOval(markedVehicle_.getX()-markedVehicle_.getMaxCommDistance(), markedVehicle_.getY()-markedVehicle_.getMaxCommDistance(),markedVehicle_.getMaxCommDistance()*2,markedVehicle_.getMaxCommDistance()*2);
-					WayPoint nextDestination = markedVehicle_.getDestinations().peekFirst();
+					g2d.fillOval(markedVehicle.getX()-VEHICLE_SIZE/2+35, markedVehicle.getY()-VEHICLE_SIZE/2+35,VEHICLE_SIZE-70,VEHICLE_SIZE-70);
+					if(markedVehicle.isWiFiEnabled() && (!markedVehicle.isInMixZone() || Vehicle.getMixZonesFallbackEnabled())) g2d.drawOval(markedVehicle.getX()-markedVehicle.getMaxCommDistance(), markedVehicle.getY()-markedVehicle.getMaxCommDistance(),markedVehicle.getMaxCommDistance()*2,markedVehicle.getMaxCommDistance()*2);
+					WayPoint nextDestination = markedVehicle.getDestinations().peekFirst();
 					if(nextDestination != null){
-						g2d.drawLine(markedVehicle_.getX(), markedVehicle_.getY(), nextDestination.getX(), nextDestination.getY());
+						g2d.drawLine(markedVehicle.getX(), markedVehicle.getY(), nextDestination.getX(), nextDestination.getY());
 						g2d.fillOval(nextDestination.getX()-VEHICLE_SIZE, nextDestination.getY()-VEHICLE_SIZE,VEHICLE_SIZE*2,VEHICLE_SIZE*2);
-						Street[] routestreets = markedVehicle_.getRouteStreets();
+						Street[] routestreets = markedVehicle.getRouteStreets();
 						if(routestreets.length > 1){
 							g2d.setPaint(Color.blue);
-							if(markedVehicle_.getCurDirection()) g2d.drawLine(markedVehicle_.getX(), markedVehicle_.getY(), markedVehicle_.getCurStreet().getEndNode().getX(), markedVehicle_.getCurStreet().getEndNode().getY());
-							else g2d.drawLine(markedVehicle_.getX(), markedVehicle_.getY(), markedVehicle_.getCurStreet().getStartNode().getX(), markedVehicle_.getCurStreet().getStartNode().getY());
-							for(i = markedVehicle_.getRoutePosition()+1; i < routestreets.length-1; ++i){
+							if(markedVehicle.getCurDirection()) g2d.drawLine(markedVehicle.getX(), markedVehicle.getY(), markedVehicle.getCurStreet().getEndNode().getX(), markedVehicle.getCurStreet().getEndNode().getY());
+							else g2d.drawLine(markedVehicle.getX(), markedVehicle.getY(), markedVehicle.getCurStreet().getStartNode().getX(), markedVehicle.getCurStreet().getStartNode().getY());
+							for(i = markedVehicle.getRoutePosition()+1; i < routestreets.length-1; ++i){
 								g2d.drawLine(routestreets[i].getStartNode().getX(), routestreets[i].getStartNode().getY(), routestreets[i].getEndNode().getX(), routestreets[i].getEndNode().getY());
 							}
-							if(!markedVehicle_.getRouteDirections()[routestreets.length-1]){
+							if(!markedVehicle.getRouteDirections()[routestreets.length-1]){
 								g2d.drawLine(nextDestination.getX(), nextDestination.getY(), routestreets[routestreets.length-1].getEndNode().getX(), routestreets[routestreets.length-1].getEndNode().getY());
 							} else {
 								g2d.drawLine(nextDestination.getX(), nextDestination.getY(), routestreets[routestreets.length-1].getStartNode().getX(), routestreets[routestreets.length-1].getStartNode().getY());
@@ -634,7 +623,7 @@ public final class Renderer{
 					//added to display more than 2 Waypoints for one vehicle (only used in vehicle edit mode, so no need to improve the performance)
 					if(isShowVehicles()){
 						
-						ArrayDeque<WayPoint> tmpDestinations = markedVehicle_.getDestinations();
+						ArrayDeque<WayPoint> tmpDestinations = markedVehicle.getDestinations();
 						
 							WayPoint oldDestination = null;
 							for(WayPoint destination : tmpDestinations){	
@@ -654,14 +643,14 @@ public final class Renderer{
 				}
 				if(showAttackers_ || simulationRunning_){
 					// draw attacker vehicle
-					if(attackerVehicle_ != null){
+					if(attackerVehicle != null){
 						g2d.setPaint(Color.LIGHT_GRAY);
-						g2d.fillOval(attackerVehicle_.getX()-VEHICLE_SIZE/2+35, attackerVehicle_.getY()-VEHICLE_SIZE/2+35,VEHICLE_SIZE-70,VEHICLE_SIZE-70);
+						g2d.fillOval(attackerVehicle.getX()-VEHICLE_SIZE/2+35, attackerVehicle.getY()-VEHICLE_SIZE/2+35,VEHICLE_SIZE-70,VEHICLE_SIZE-70);
 					}
 					// draw attacked vehicle
-					if(attackedVehicle_ != null){
+					if(attackedVehicle != null){
 						g2d.setPaint(Color.GREEN);
-						g2d.fillOval(attackedVehicle_.getX()-VEHICLE_SIZE/2+35, attackedVehicle_.getY()-VEHICLE_SIZE/2+35,VEHICLE_SIZE-70,VEHICLE_SIZE-70);
+						g2d.fillOval(attackedVehicle.getX()-VEHICLE_SIZE/2+35, attackedVehicle.getY()-VEHICLE_SIZE/2+35,VEHICLE_SIZE-70,VEHICLE_SIZE-70);
 					}
 				}
 			}
@@ -698,10 +687,10 @@ public final class Renderer{
 			g2d.setPaint(Color.black);
 			g2d.setFont(timeFont_);
 			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,RenderingHints.VALUE_ANTIALIAS_OFF);
-			g2d.drawString(FORMATTER.format(timePassed_) + " ms", 5 ,10 ); //$NON-NLS-1$
+			g2d.drawString(FORMATTER.format(engine_.getTimePassed()) + " ms", 5 ,10 ); //$NON-NLS-1$
 
 			//draw silent period sign
-			if(Vehicle.isSilent_period()){
+			if(engine_.isSilentPeriod()){
 				// display time
 				g2d.setPaint(Color.red);
 				g2d.setFont(silentPeriodFont_);
@@ -1534,7 +1523,7 @@ public final class Renderer{
 	 * @return the time passed in milliseconds
 	 */
 	public int getTimePassed(){
-		return timePassed_;
+		return engine_.getTimePassed();
 	}
 
 
@@ -1570,16 +1559,16 @@ public final class Renderer{
 	 * 
 	 * @param markedVehicle the vehicle to mark
 	 */
-	public synchronized void setMarkedVehicle(Vehicle markedVehicle){
-		markedVehicle_ = markedVehicle;
+	public void setMarkedVehicle(Vehicle markedVehicle){
+		engine_.setMarkedVehicle(markedVehicle);
 	}
 
 	/**
 	 * Gets a marked vehicle.
 	 *
 	 */
-	public synchronized Vehicle getMarkedVehicle(){
-		return markedVehicle_;
+	public Vehicle getMarkedVehicle(){
+		return engine_.getMarkedVehicle();
 	}
 	
 	/**
@@ -1587,16 +1576,16 @@ public final class Renderer{
 	 * 
 	 * @param attackerVehicle the attacker vehicle
 	 */
-	public synchronized void setAttackerVehicle(Vehicle attackerVehicle){
-		attackerVehicle_ = attackerVehicle;
+	public void setAttackerVehicle(Vehicle attackerVehicle){
+		engine_.setAttackerVehicle(attackerVehicle);
 	}
 
 	/**
 	 * Gets the attacker vehicle.
 	 *
 	 */
-	public synchronized Vehicle getAttackerVehicle(){
-		return attackerVehicle_;
+	public Vehicle getAttackerVehicle(){
+		return engine_.getAttackerVehicle();
 	}
 	
 	/**
@@ -1644,7 +1633,7 @@ public final class Renderer{
 	 * @param timePassed the new time in milliseconds
 	 */
 	public void setTimePassed(int timePassed){
-		timePassed_ = timePassed;
+		engine_.setTimePassed(timePassed);
 	}
 
 	/**
@@ -1768,7 +1757,7 @@ public final class Renderer{
 	 * @param autoAddMixZones <code>true</code> if you want to add mix zones to all street corners automatically else <code>false</code>
 	 */
 	public void setAutoAddMixZones(boolean autoAddMixZones) {
-		autoAddMixZones_ = autoAddMixZones;
+		engine_.setAutoAddMixZones(autoAddMixZones);
 	}
 
 	/**
@@ -1777,7 +1766,7 @@ public final class Renderer{
 	 * @return true if mix zones are added automatically
 	 */
 	public boolean isAutoAddMixZones() {
-		return autoAddMixZones_;
+		return engine_.isAutoAddMixZones();
 	}
 
 	/**
@@ -1799,11 +1788,11 @@ public final class Renderer{
 	}
 	
 	public Vehicle getAttackedVehicle() {
-		return attackedVehicle_;
+		return engine_.getAttackedVehicle();
 	}
 
 	public void setAttackedVehicle(Vehicle attackedVehicle_) {
-		this.attackedVehicle_ = attackedVehicle_;
+		engine_.setAttackedVehicle(attackedVehicle_);
 	}
 
 	public boolean isShowAttackers() {
@@ -1815,11 +1804,11 @@ public final class Renderer{
 	}
 
 	public boolean isConsoleStart() {
-		return consoleStart;
+		return engine_.isConsoleStart();
 	}
 
 	public void setConsoleStart(boolean consoleStart) {
-		this.consoleStart = consoleStart;
+		engine_.setConsoleStart(consoleStart);
 	}
 
 	/**
@@ -25,6 +25,7 @@ import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
 import java.text.NumberFormat;
 
 import javax.swing.ButtonGroup;
@@ -33,6 +34,7 @@ import javax.swing.JCheckBox;
 import javax.swing.JColorChooser;
 import javax.swing.JComboBox;
 import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JFormattedTextField;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -484,6 +486,26 @@ public final class EditStreetControlPanel extends JPanel implements ActionListen
 		return deletePanel;
 	}
 	
+	/**
+	 * Lets the user choose a file to save the trimmed map and loads it again from there.
+	 */
+	private void saveReloadMap(){
+		VanetSimStart.getMainControlPanel().changeFileChooser(false, true, false);
+		final JFileChooser filechooser = VanetSimStart.getMainControlPanel().getFileChooser();
+		int returnVal = filechooser.showSaveDialog(VanetSimStart.getMainFrame());
+		if (returnVal == JFileChooser.APPROVE_OPTION) {
+			Runnable job = new Runnable() {
+				public void run() {
+					File file = filechooser.getSelectedFile();
+					if(filechooser.getAcceptAllFileFilter() != filechooser.getFileFilter() && !file.getName().toLowerCase().endsWith(".xml")) file = new File(file.getAbsolutePath() + ".xml"); //$NON-NLS-1$ //$NON-NLS-2$
+					Map.getInstance().save(file, false);
+					Map.getInstance().load(file, false);
+				}
+			};
+			new Thread(job).start();
+		}
+	}
+	
 	/**
 	 * Receives a mouse event.
 	 * 
@@ -538,6 +560,7 @@ public final class EditStreetControlPanel extends JPanel implements ActionListen
 					maxY = y;
 					selectArea = false;
 					Map.getInstance().autoTrimMap(minX,minY,maxX,maxY);
+					saveReloadMap();
 				}
 			}
 			//edit streets
@@ -621,6 +644,7 @@ public final class EditStreetControlPanel extends JPanel implements ActionListen
 			int respons = JOptionPane.showOptionDialog(null, Messages.getString("EditStreetControlPanel.WarningMsgBoxAuto"), "Information", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE, null, null, "");
 			if(respons == 0){
 				Map.getInstance().autoTrimMap(-1,-1,-1,-1);
+				saveReloadMap();
 			}
 		} else if ("trimMap".equals(command)){ //$NON-NLS-1$
 			int respons = JOptionPane.showOptionDialog(null, Messages.getString("EditStreetControlPanel.WarningMsgBox"), "Information", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE, null, null, "");
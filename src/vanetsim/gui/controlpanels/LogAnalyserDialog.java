@@ -355,7 +355,7 @@ public final class LogAnalyserDialog extends JDialog implements ActionListener{
 		tuneTimeLabel_ = new JLabel(Messages.getString("LogAnalyserDialog.tuneTime"));
 		add(tuneTimeLabel_, c); //$NON-NLS-1$
 		c.gridx = 1;
-		tuneTime_.setValue(new Double(2.2));
+		tuneTime_.setValue(new Double(LogAnalyser.DEFAULT_TUNE_TIME));
 		add(tuneTime_, c);
 
 		c.gridx = 0;
@@ -363,7 +363,7 @@ public final class LogAnalyserDialog extends JDialog implements ActionListener{
 		timeBufferLabel_ = new JLabel(Messages.getString("LogAnalyserDialog.timeBuffer"));
 		add(timeBufferLabel_, c); //$NON-NLS-1$
 		c.gridx = 1;
-		timeBuffer_.setValue(new Double(0));
+		timeBuffer_.setValue(new Double(LogAnalyser.DEFAULT_TIME_BUFFER));
 		add(timeBuffer_, c);
 
 		c.gridx = 0;		
@@ -372,7 +372,7 @@ public final class LogAnalyserDialog extends JDialog implements ActionListener{
 		add(limitToAngleLabel_, c); //$NON-NLS-1$
 		
 		c.gridx = 1;
-		limitToAngle_.setValue(new Double(170));
+		limitToAngle_.setValue(new Double(LogAnalyser.DEFAULT_LIMIT_TO_ANGLE));
 		limitToAngleLabel_.setVisible(false);
 		limitToAngle_.setVisible(false);
 		add(limitToAngle_, c);
@@ -419,14 +419,14 @@ public final class LogAnalyserDialog extends JDialog implements ActionListener{
 		bigStreetLabel_ = new JLabel(Messages.getString("LogAnalyserDialog.bigStreet"));
 		add(bigStreetLabel_, c); //$NON-NLS-1$
 		c.gridx = 1;
-		bigStreet_.setValue(new Double(0.9));
+		bigStreet_.setValue(new Double(LogAnalyser.DEFAULT_BIGGER_STREET));
 		add(bigStreet_, c);
 		
 		c.gridx = 0;
 		maxSlowSearchTimeLabel_ = new JLabel(Messages.getString("LogAnalyserDialog.maxSlowSearchTimeLabel"));
 		add(maxSlowSearchTimeLabel_, c); //$NON-NLS-1$
 		c.gridx = 1;
-		maxSlowSearchTime_.setValue(10000);
+		maxSlowSearchTime_.setValue(LogAnalyser.DEFAULT_MAX_SLOW_SEARCH_TIME);
 		add(maxSlowSearchTime_, c);
 		c.gridx = 0;
 		maxSlowSearchTimeLabel_.setVisible(false);
@@ -436,7 +436,7 @@ public final class LogAnalyserDialog extends JDialog implements ActionListener{
 		smallStreetLabel_ = new JLabel(Messages.getString("LogAnalyserDialog.smallStreet"));
 		add(smallStreetLabel_, c); //$NON-NLS-1$
 		c.gridx = 1;
-		smallStreet_.setValue(new Double(0.85));
+		smallStreet_.setValue(new Double(LogAnalyser.DEFAULT_SMALLER_STREET));
 		add(smallStreet_, c);
 		c.gridx = 0;
 		
@@ -444,7 +444,7 @@ public final class LogAnalyserDialog extends JDialog implements ActionListener{
 		staysOnStreetLabel_ = new JLabel(Messages.getString("LogAnalyserDialog.staysOnStreet"));
 		add(staysOnStreetLabel_, c); //$NON-NLS-1$
 		c.gridx = 1;
-		staysOnStreet_.setValue(new Double(0.9));
+		staysOnStreet_.setValue(new Double(LogAnalyser.DEFAULT_DRIVES_STRAIGHT));
 		add(staysOnStreet_, c);
 		c.gridx = 0;
 		
@@ -452,7 +452,7 @@ public final class LogAnalyserDialog extends JDialog implements ActionListener{
 		leavesStreetLabel_ = new JLabel(Messages.getString("LogAnalyserDialog.leavesStreet"));
 		add(leavesStreetLabel_, c); //$NON-NLS-1$
 		c.gridx = 1;
-		leavesStreet_.setValue(new Double(0.9));
+		leavesStreet_.setValue(new Double(LogAnalyser.DEFAULT_TURNS));
 		add(leavesStreet_, c);
 		c.gridx = 0;
 		
@@ -460,7 +460,7 @@ public final class LogAnalyserDialog extends JDialog implements ActionListener{
 		makesUTurnLabel_ = new JLabel(Messages.getString("LogAnalyserDialog.makesUTurn"));
 		add(makesUTurnLabel_, c); //$NON-NLS-1$
 		c.gridx = 1;
-		makesUTurn_.setValue(new Double(0.1));
+		makesUTurn_.setValue(new Double(LogAnalyser.DEFAULT_MAKES_U_TURN));
 		add(makesUTurn_, c);
 		c.gridx = 0;
 		
@@ -54,6 +54,7 @@ import javax.swing.filechooser.FileFilter;
 import vanetsim.VanetSimStart;
 import vanetsim.gui.Renderer;
 import vanetsim.gui.helpers.ButtonCreator;
+import vanetsim.gui.helpers.ResultAccumulator;
 import vanetsim.localization.Messages;
 import vanetsim.map.Map;
 import vanetsim.map.Node;
@@ -1072,73 +1073,16 @@ public final class ReportingControlPanel extends JPanel implements ActionListene
 		 * @return values for simple analysis
 		 */
 		public float[] accumulateSimpleMixFiles(ArrayList<File> files){
-			float[] returnValue = new float[10];
-			float[] values =  new float[10];
-			
-		    for(File file:files){					
-		        BufferedReader reader;
-		        try{
-		            reader = new BufferedReader(new FileReader(file));
-		            String line = reader.readLine();    
-		            while(line != null){	
-		            	if(line.substring(0,5).equals("Total")){
-		            		String[] values2 = line.split(" ");
-		            		
-		            		for(int i = 2; i < values2.length; i++) values[i-2] += Float.valueOf(values2[i]);
-		            	}
-		            	line = reader.readLine();
-		            }
-		           
-				} catch (FileNotFoundException e) {
-				    System.err.println("FileNotFoundException: " + e.getMessage());
-				} catch (IOException e) {
-				    System.err.println("Caught IOException: " + e.getMessage());
-				}
-		    }
-
-		    for(int j = 0; j < values.length; j++) returnValue[j] = (float)values[j]/files.size();	
-		    
-		    return returnValue;
+			return new ResultAccumulator(Runtime.getRuntime().availableProcessors()).accumulateSimpleMixFiles(files);
 		}
 	
-		
-	
 		/**
 		 * Accumulates different versions of a scenario for a simple silent-period analysis
 		 * @param files the different versions of a scenario analysis
 		 * @return values for simple analysis
 		 */
 		public float[] accumulateSimpleSilentPeriodFiles(ArrayList<File> files){
-			float[] values =  new float[10];
-			float[] returnValue = new float[10];
-			
-		    for(File file:files){					
-		        BufferedReader reader;
-		        try{
-		            reader = new BufferedReader(new FileReader(file));
-		            String line = reader.readLine();    
-		            while(line != null){	
-		            	if(!line.substring(0,1).equals("#")){
-		            		String[] values2 = line.split(" ");
-		            		System.out.println(file.getAbsolutePath());
-		            		for(int i = 1; i < values2.length; i++) {
-		            			System.out.println("+ " + values2[i]);
-		            			values[i-1] += Float.valueOf(values2[i]);
-		            		}
-		            	}
-		            	line = reader.readLine();
-		            }
-		           
-				} catch (FileNotFoundException e) {
-				    System.err.println("FileNotFoundException: " + e.getMessage());
-				} catch (IOException e) {
-				    System.err.println("Caught IOException: " + e.getMessage());
-				}
-		    }
-
-		    for(int j = 0; j < values.length; j++) if(values[j] != 0) returnValue[j] = (float)values[j]/files.size();
-		    
-		    return returnValue;
+			return new ResultAccumulator(Runtime.getRuntime().availableProcessors()).accumulateSimpleSilentPeriodFiles(files);
 		}
 
 		
@@ -1148,38 +1092,7 @@ public final class ReportingControlPanel extends JPanel implements ActionListene
 	 * @return values for a detailed analysis
 	 */
 	public float[] accumulateDetailFiles(ArrayList<File> files){
-		float[] values =  new float[200];
-		int counter = 0;
-
-	    for(File file:files){		
-	    	System.out.println(file.getName());
-	    	counter = 0;
-	        BufferedReader reader;
-	        try{
-	            reader = new BufferedReader(new FileReader(file));
-	            String line = reader.readLine();    
-	            while(line != null){	
-	            	if(!line.substring(0,1).equals("#")){
-	            		String[] values2 = line.split(" ");
-	            		values[counter] += Float.valueOf(values2[values2.length-1]);
-		            	counter++;
-	            	}
-	            	line = reader.readLine();
-	            }
-	           
-			} catch (FileNotFoundException e) {
-			    System.err.println("FileNotFoundException: " + e.getMessage());
-			} catch (IOException e) {
-			    System.err.println("Caught IOException: " + e.getMessage());
-			}
-	    }
-
-	    float[] returnValues = new float[counter];
-	    
-	    for(int j = 0; j < returnValues.length; j++) 	returnValues[j] =  ((float)values[j]/files.size());
-	
-	    
-     	return returnValues;
+		return new ResultAccumulator(Runtime.getRuntime().availableProcessors()).accumulateDetailFiles(files);
 	}
 	
 	/**
@@ -1315,12 +1228,6 @@ public final class ReportingControlPanel extends JPanel implements ActionListene
 	 * Opens log files and calculates data for diagram. More than one file can be opened. If there is more than one version (same scenario with new random vehicles) of the file opening one version is enough. The script will look for version1, version2, version3...
 	 */
 	public void accumulateDetailedLogFiles(){
-		String filter2 = "_advanced_detail_analyzed";
-		String filter1 = "_standard_detail_analyzed";
-
-		ArrayList<File> files1 = new ArrayList<File>();
-		ArrayList<File> files2 = new ArrayList<File>();
-		
 		//begin with creation of new file
 		JFileChooser fc = new JFileChooser();
 		
@@ -1332,104 +1239,18 @@ public final class ReportingControlPanel extends JPanel implements ActionListene
 		int status = fc.showDialog(this, Messages.getString("EditLogControlPanel.approveButton"));
 		
 		if(status == JFileChooser.APPROVE_OPTION){
-			File[] tmpFiles = fc.getSelectedFiles();
-			//sort the files
-			ArrayList<File> sortedFiles = new ArrayList<File>();
-			
-	
-			for(int i = 0; i < tmpFiles.length; i++){
-				if(sortedFiles.size() == 0) sortedFiles.add(tmpFiles[i]);
-				else{
-					boolean sorted = false;
-					for(File f:sortedFiles){
-						if(compare(tmpFiles[i].getName().split("_"),f.getName().split("_")) < 0) {
-							sorted = true;
-							sortedFiles.add(sortedFiles.indexOf(f), tmpFiles[i]);
-							break;
-						}
+			final File[] tmpFiles = fc.getSelectedFiles();
+			//the files are read in the background so that the GUI doesn't block
+			Runnable job = new Runnable() {
+				public void run() {
+					try {
+						new ResultAccumulator(Runtime.getRuntime().availableProcessors()).accumulateDetailedLogFiles(tmpFiles);
+					} catch (Exception e) {
+					    e.printStackTrace();
 					}
-					if(!sorted) sortedFiles.add(tmpFiles[i]);
 				}
-			}
-			
-			FileWriter fstream1;
-			FileWriter fstream2;
-			try {
-				if(!(new File(tmpFiles[0].getParent() + "/diagramms/")).exists()) (new File(tmpFiles[0].getParent() + "/diagramms/")).mkdir();
-				fstream1 = new FileWriter(tmpFiles[0].getParent() + "/diagramms/standardAttackedDetailedDiagramm.txt", false);
-				BufferedWriter out1 = new BufferedWriter(fstream1);
-				
-				fstream2 = new FileWriter(tmpFiles[0].getParent() + "/diagramms/advancedAttackedDetailedDiagramm.txt", false);
-				BufferedWriter out2 = new BufferedWriter(fstream2);
-				
-				
-				float[][] standardArray = new float[200][200];
-				float[][] advancedArray = new float[200][200];
-				
-				for(int i = 0; i < standardArray.length; i++){
-					for(int j = 0; j < standardArray[0].length; j++){
-						standardArray[i][j] = -1;
-						advancedArray[i][j] = -1;
-					}
-				}
-				
-				int counter = 0;
-				for(File file:sortedFiles){
-					//get log names
-					ArrayList<File> files = getFileList(file);
-				
-					files1 = new ArrayList<File>();
-					files2 = new ArrayList<File>();
-
-					
-					for(File f:files){
-						if(f.getName().contains(filter1)) files1.add(f);
-						else if(f.getName().contains(filter2)) files2.add(f);
-					}
-					
-					float [] accu1 = accumulateDetailFiles(files1);
-					float [] accu2 = accumulateDetailFiles(files2);
-					
-					for(int i = 0; i < accu1.length; i++){
-						standardArray[i][counter] = accu1[i];
-					}
-					
-					for(int i = 0; i < accu2.length; i++){
-						advancedArray[i][counter] = accu2[i];
-					}
-					
-					counter++;
-				}
-				
-				for(int j = 0; j < tmpFiles.length; j++) {
-					out1.write("1 ");
-					out2.write("1 ");
-				}
-				out1.write("\n");
-				out2.write("\n");
-				for(int i = 1; i < standardArray.length; i++) {
-					if(standardArray[i][0] == -1) break;
-					for(int j = 0; j < tmpFiles.length; j++){
-						if(standardArray[i][j] == -1) out1.write("0 ");
-						else out1.write(standardArray[i][j] + " ");
-					}
-					out1.write("\n");
-				}
-				for(int i = 1; i < advancedArray.length; i++) {
-					if(advancedArray[i][0] == -1) break;
-					for(int j = 0; j < tmpFiles.length; j++){
-						if(advancedArray[i][j] == -1) out2.write("0 ");
-						else out2.write(advancedArray[i][j] + " ");
-					}
-					out2.write("\n");
-				}
-
-				out1.close();
-				out2.close();
-			} catch (Exception e) {
-			    e.printStackTrace();
-			}
-			
+			};
+			new Thread(job).start();
 		}
 	}					
 	
@@ -1462,13 +1283,7 @@ public final class ReportingControlPanel extends JPanel implements ActionListene
 	/**
 	 * Opens log files and calculates data for diagram. More than one file can be opened. If there is more than one version (same scenario with new random vehicles) of the file opening one version is enough. The script will look for version1, version2, version3...
 	 */
-	public void accumulateSimpleLogFiles(String mode){
-		String filter2 = "_advanced_simple_analyzed";
-		String filter1 = "_standard_simple_analyzed";
-
-		ArrayList<File> files1 = new ArrayList<File>();
-		ArrayList<File> files2 = new ArrayList<File>();
-		
+	public void accumulateSimpleLogFiles(final String mode){
 		//begin with creation of new file
 		JFileChooser fc = new JFileChooser();
 		
@@ -1480,88 +1295,25 @@ public final class ReportingControlPanel extends JPanel implements ActionListene
 		int status = fc.showDialog(this, Messages.getString("EditLogControlPanel.approveButton"));
 		
 		if(status == JFileChooser.APPROVE_OPTION){
-			File[] tmpFiles = fc.getSelectedFiles();
-			//sort the files
-			ArrayList<File> sortedFiles = new ArrayList<File>();
-			
-	
-			for(int i = 0; i < tmpFiles.length; i++){
-				if(sortedFiles.size() == 0) sortedFiles.add(tmpFiles[i]);
-				else{
-					boolean sorted = false;
-					for(File f:sortedFiles){
-						if(compare(tmpFiles[i].getName().split("_"),f.getName().split("_")) < 0) {
-							sorted = true;
-							sortedFiles.add(sortedFiles.indexOf(f), tmpFiles[i]);
-							break;
-						}
+			final File[] tmpFiles = fc.getSelectedFiles();
+			//the files are read in the background so that the GUI doesn't block
+			Runnable job = new Runnable() {
+				public void run() {
+					try {
+						new ResultAccumulator(Runtime.getRuntime().availableProcessors()).accumulateSimpleLogFiles(tmpFiles, mode);
+					} catch (Exception e) {
+					    e.printStackTrace();
 					}
-					if(!sorted) sortedFiles.add(tmpFiles[i]);
 				}
-			}
-			
-			FileWriter fstream1;
-			try {
-				if(!(new File(tmpFiles[0].getParent() + "/diagramms/")).exists()) (new File(tmpFiles[0].getParent() + "/diagramms/")).mkdir();
-				fstream1 = new FileWriter(tmpFiles[0].getParent() + "/diagramms/simpleDiagramm.txt", false);
-				BufferedWriter out = new BufferedWriter(fstream1);
-
-				for(File file:sortedFiles){
-					//get log names
-					ArrayList<File> files = getFileList(file);
-				
-					files1 = new ArrayList<File>();
-					files2 = new ArrayList<File>();
-
-					
-					for(File f:files){
-						if(f.getName().contains(filter1)) files1.add(f);
-						else if(f.getName().contains(filter2)) files2.add(f);
-					}
-					
-					float [] accu1;
-					float [] accu2;
-					
-					if(mode.equals("SP")){
-						accu1 = accumulateSimpleSilentPeriodFiles(files1);
-						accu2 = accumulateSimpleSilentPeriodFiles(files2);
-					}
-					else{
-						accu1 = accumulateSimpleMixFiles(files1);
-						accu2 = accumulateSimpleMixFiles(files2);
-					}
-					
-					out.write("" + accu1[0]);
-
-					
-					for(int i = 0; i < accu2.length; i++){
-						if(accu2[i] != 0)out.write(" " + accu2[i]);
-					}
-					out.write("\n");
-					
-					out.write("#");
-					for(int i = 0; i < accu1.length; i++){
-						if(accu1[i] != 0)out.write(" " + accu1[i]);
-					}
-					out.write("\n");
-				}				
-
-				out.close();
-			} catch (Exception e) {
-			    e.printStackTrace();
-			}
-			
+			};
+			new Thread(job).start();
 		}
 	}					
 	
 	/**
 	 * Opens log files and calculates data for diagram. More than one file can be opened. If there is more than one version (same scenario with new random vehicles) of the file opening one version is enough. The script will look for version1, version2, version3...
 	 */
-	public void accumulateSimpleLogFilesForSlow(String mode){
-		String filter1 = "_standard_simple_analyzed";
-
-		ArrayList<File> files1 = new ArrayList<File>();
-		
+	public void accumulateSimpleLogFilesForSlow(final String mode){
 		//begin with creation of new file
 		JFileChooser fc = new JFileChooser();
 		
@@ -1573,65 +1325,18 @@ public final class ReportingControlPanel extends JPanel implements ActionListene
 		int status = fc.showDialog(this, Messages.getString("EditLogControlPanel.approveButton"));
 		
 		if(status == JFileChooser.APPROVE_OPTION){
-			File[] tmpFiles = fc.getSelectedFiles();
-			//sort the files
-			ArrayList<File> sortedFiles = new ArrayList<File>();
-			
-	
-			for(int i = 0; i < tmpFiles.length; i++){
-				if(sortedFiles.size() == 0) sortedFiles.add(tmpFiles[i]);
-				else{
-					boolean sorted = false;
-					for(File f:sortedFiles){
-						if(compare(tmpFiles[i].getName().split("_"),f.getName().split("_")) < 0) {
-							sorted = true;
-							sortedFiles.add(sortedFiles.indexOf(f), tmpFiles[i]);
-							break;
-						}
+			final File[] tmpFiles = fc.getSelectedFiles();
+			//the files are read in the background so that the GUI doesn't block
+			Runnable job = new Runnable() {
+				public void run() {
+					try {
+						new ResultAccumulator(Runtime.getRuntime().availableProcessors()).accumulateSimpleLogFilesForSlow(tmpFiles, mode);
+					} catch (Exception e) {
+					    e.printStackTrace();
 					}
-					if(!sorted) sortedFiles.add(tmpFiles[i]);
 				}
-			}
-			
-			FileWriter fstream1;
-			try {
-				if(!(new File(tmpFiles[0].getParent() + "/diagramms/")).exists()) (new File(tmpFiles[0].getParent() + "/diagramms/")).mkdir();
-				fstream1 = new FileWriter(tmpFiles[0].getParent() + "/diagramms/simpleDiagramm.txt", false);
-				BufferedWriter out = new BufferedWriter(fstream1);
-
-				for(File file:sortedFiles){
-					//get log names
-					ArrayList<File> files = getFileList(file);
-				
-					files1 = new ArrayList<File>();
-
-					
-					for(File f:files){
-						if(f.getName().contains(filter1)) files1.add(f);
-					}
-					
-					float [] accu1;
-	
-					
-					if(mode.equals("SP")){
-						accu1 = accumulateSimpleSilentPeriodFiles(files1);
-					}
-					else{
-						accu1 = accumulateSimpleMixFiles(files1);
-					}
-
-					out.write("" + accu1[0]);
-					for(int i = 1; i < accu1.length; i++){
-						if(accu1[i] != 0)out.write(" " + accu1[i]);
-					}
-					out.write("\n");
-				}				
-
-				out.close();
-			} catch (Exception e) {
-			    e.printStackTrace();
-			}
-			
+			};
+			new Thread(job).start();
 		}
 	}	
 	
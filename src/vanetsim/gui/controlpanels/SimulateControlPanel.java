@@ -51,10 +51,12 @@ import vanetsim.VanetSimStart;
 import vanetsim.VanetSimStarter;
 import vanetsim.gui.Renderer;
 import vanetsim.gui.helpers.ButtonCreator;
+import vanetsim.gui.helpers.MouseClickManager;
 import vanetsim.gui.helpers.ReRenderManager;
 import vanetsim.localization.Messages;
 import vanetsim.map.Map;
 import vanetsim.scenario.Scenario;
+import vanetsim.simulation.Checkpoint;
 import vanetsim.simulation.SimulationMaster;
 
 /**
@@ -245,6 +247,18 @@ public final class SimulateControlPanel extends JPanel implements ActionListener
 		tmpPanel.add(targetStepTimeApplyButton_);
 		++c.gridy;		
 		add(tmpPanel, c);
+		
+		tmpPanel = new JPanel();
+		JButton checkpointButton = new JButton(Messages.getString("SimulateControlPanel.saveCheckpoint")); //$NON-NLS-1$
+		checkpointButton.setActionCommand("saveCheckpoint"); //$NON-NLS-1$
+		checkpointButton.addActionListener(this);
+		tmpPanel.add(checkpointButton);
+		checkpointButton = new JButton(Messages.getString("SimulateControlPanel.loadCheckpoint")); //$NON-NLS-1$
+		checkpointButton.setActionCommand("loadCheckpoint"); //$NON-NLS-1$
+		checkpointButton.addActionListener(this);
+		tmpPanel.add(checkpointButton);
+		++c.gridy;		
+		add(tmpPanel, c);
 		c.insets = new Insets(5,5,5,5);
 		
 		// information display checkboxes
@@ -420,6 +434,38 @@ public final class SimulateControlPanel extends JPanel implements ActionListener
 				if(target <= Renderer.getInstance().getTimePassed()) ErrorLog.log(Messages.getString("SimulateControlPanel.jumpingBackwardsNotPossible"), 6, this.getName(), "jumpToTime", null);  //$NON-NLS-1$//$NON-NLS-2$
 				else VanetSimStart.getSimulationMaster().jumpToTime(target);
 			}	
+		} else if("saveCheckpoint".equals(command)){ //$NON-NLS-1$
+			VanetSimStart.getMainControlPanel().changeFileChooser(true, true, false);
+			int returnVal = VanetSimStart.getMainControlPanel().getFileChooser().showSaveDialog(VanetSimStart.getMainFrame());
+			if (returnVal == JFileChooser.APPROVE_OPTION) {
+				CardLayout cl = (CardLayout)(startStopJPanel_.getLayout());
+				cl.show(startStopJPanel_, "start"); //$NON-NLS-1$
+				Runnable job = new Runnable() {
+					public void run() {
+						Checkpoint.save(VanetSimStart.getMainControlPanel().getFileChooser().getSelectedFile(), VanetSimStart.getSimulationMaster());
+					}
+				};
+				new Thread(job).start();
+			}
+		} else if("loadCheckpoint".equals(command)){ //$NON-NLS-1$
+			if(VanetSimStart.getMainControlPanel().getEditPanel().getEditMode() == true) ErrorLog.log(Messages.getString("SimulateControlPanel.simulationNotPossibleInEditMode"), 6, this.getName(), "loadCheckpoint", null); //$NON-NLS-1$ //$NON-NLS-2$
+			else{
+				VanetSimStart.getMainControlPanel().changeFileChooser(true, true, false);
+				int returnVal = VanetSimStart.getMainControlPanel().getFileChooser().showOpenDialog(VanetSimStart.getMainFrame());
+				if (returnVal == JFileChooser.APPROVE_OPTION) {
+					CardLayout cl = (CardLayout)(startStopJPanel_.getLayout());
+					cl.show(startStopJPanel_, "start"); //$NON-NLS-1$
+					// the marked objects belong to the replaced regions
+					MouseClickManager.getInstance().cleanMarkings();
+					Renderer.getInstance().setMarkedStreet(null);
+					Runnable job = new Runnable() {
+						public void run() {
+							Checkpoint.restore(VanetSimStart.getMainControlPanel().getFileChooser().getSelectedFile(), VanetSimStart.getSimulationMaster());
+						}
+					};
+					new Thread(job).start();
+				}
+			}
 		} else if("targetStepTimeApply".equals(command)){ //$NON-NLS-1$
 				int tmp = ((Number)targetStepTime_.getValue()).intValue();
 				if(tmp < 0){
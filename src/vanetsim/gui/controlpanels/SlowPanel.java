@@ -33,7 +33,6 @@ import javax.swing.JLabel;
 
 import javax.swing.JPanel;
 
-import vanetsim.gui.helpers.PrivacyLogWriter;
 import vanetsim.localization.Messages;
 import vanetsim.scenario.Vehicle;
 
@@ -153,10 +152,6 @@ public class SlowPanel extends JPanel implements ActionListener, FocusListener{
 		
 	}
 	
-	public static void writeSlowHeader(){
-		PrivacyLogWriter.log("Slow speed limit:" + Vehicle.getSLOW_SPEED_LIMIT() + ":Time to pseudonym change:" + Vehicle.getTIME_TO_PSEUDONYM_CHANGE());
-	}
-
 	@Override
 	public void focusGained(FocusEvent arg0) {
 		// TODO Auto-generated method stub
@@ -0,0 +1,400 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.XMLFormatter;
+import java.util.zip.Deflater;
+
+import vanetsim.localization.Messages;
+
+/**
+ * A log file which is written by the {@link AsyncLogPipeline}. The records are formatted and collected in a large buffer 
+ * by the writer thread of the pipeline and written to the file through a <code>FileChannel</code>. Except for 
+ * {@link #close()}, the methods of this class are only called by the writer thread. Files in the <code>bin</code> format 
+ * contain the records in the layout of {@link BinaryLogFormat}. Files in the <code>clog</code> format contain the text 
+ * lines in compressed chunks which can be read independently (see {@link ChunkedLogReader}). Such a file only writes 
+ * complete chunks and the last partial chunk when it is closed. Privacy logs in the <code>online</code> format write no file 
+ * at all but hand the records to an {@link OnlinePrivacyAnalyser} which writes its results when the log is closed.
+ */
+public final class AsyncLogFile {
+	
+	/** The line separator appended to every record in the text format. */
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator"); //$NON-NLS-1$
+	
+	/** The size of the buffer in bytes. */
+	private static final int BUFFER_SIZE = 262144;
+	
+	/** The size of the uncompressed text of a chunk in bytes. */
+	private static final int CHUNK_SIZE = 1048576;
+	
+	/** The charset used to encode the records (the same as the one used by a <code>FileHandler</code> by default). */
+	private static final Charset CHARSET = Charset.defaultCharset();
+	
+	/** The path of the file. */
+	private final String path_;
+	
+	/** The stream of the file. */
+	private final FileOutputStream stream_;
+	
+	/** The channel used for writing. */
+	private final FileChannel channel_;
+	
+	/** The buffer collecting the encoded records. */
+	private final ByteBuffer buffer_;
+	
+	/** The formatter for the xml format or <code>null</code> if records are written as plain lines. */
+	private final Formatter formatter_;
+	
+	/** <code>true</code> if the records are written in the binary layout. */
+	private final boolean binary_;
+	
+	/** <code>true</code> if the records are written in compressed chunks. */
+	private final boolean chunked_;
+	
+	/** The compressor for the chunks. */
+	private final Deflater deflater_;
+	
+	/** Buffer for the compressed data of a chunk. */
+	private byte[] compressed_;
+	
+	/** The smallest keys of the records in the current chunk (see {@link BinaryLogFormat#getKey(int, int, long[], int)}). */
+	private final long[] minKeys_ = new long[BinaryLogFormat.KEY_COUNT];
+	
+	/** The largest keys of the records in the current chunk. */
+	private final long[] maxKeys_ = new long[BinaryLogFormat.KEY_COUNT];
+	
+	/** A bit mask of the mix zone node IDs (modulo 64) of the records in the current chunk. */
+	private long nodeMask_;
+	
+	/** <code>true</code> if the current chunk contains text records which don't have keys. */
+	private boolean unindexed_;
+	
+	/** The amount of records in the current chunk. */
+	private int recordCount_;
+	
+	/** The ids of the strings already defined in a binary file. */
+	private final HashMap<String, Integer> stringIDs_;
+	
+	/** Used to format the records as text. */
+	private final StringBuilder line_ = new StringBuilder(256);
+	
+	/** The analyser which gets the records of an <code>online</code> log or <code>null</code> for a file. */
+	private final OnlinePrivacyAnalyser analyser_;
+	
+	/** <code>true</code> if this file was closed or writing failed. */
+	private boolean closed_ = false;
+	
+	/**
+	 * Opens a log file. New records are appended if the file already exists.
+	 * 
+	 * @param path		the path of the file
+	 * @param format	the format of the file (<code>log</code> or <code>txt</code> for one record per line, <code>xml</code> for the 
+	 * 					format of a <code>java.util.logging.XMLFormatter</code>, <code>bin</code> for binary records, <code>clog</code> 
+	 * 					for compressed chunks of lines, <code>online</code> to analyse privacy records while the simulation is running)
+	 * 
+	 * @throws IOException if the file can't be opened
+	 */
+	public AsyncLogFile(String path, String format) throws IOException{
+		path_ = path;
+		if(format.equals("xml")) formatter_ = new XMLFormatter(); //$NON-NLS-1$
+		else formatter_ = null;
+		binary_ = format.equals("bin"); //$NON-NLS-1$
+		if(binary_) stringIDs_ = new HashMap<String, Integer>();
+		else stringIDs_ = null;
+		chunked_ = format.equals("clog"); //$NON-NLS-1$
+		if(format.equals("online")){ //$NON-NLS-1$
+			analyser_ = new OnlinePrivacyAnalyser(path);
+			buffer_ = null;
+			deflater_ = null;
+			stream_ = null;
+			channel_ = null;
+			return;
+		}
+		analyser_ = null;
+		if(chunked_){
+			buffer_ = ByteBuffer.allocate(CHUNK_SIZE);
+			deflater_ = new Deflater(Deflater.BEST_SPEED);
+			compressed_ = new byte[CHUNK_SIZE / 2];
+			resetChunk();
+		} else {
+			buffer_ = ByteBuffer.allocate(BUFFER_SIZE);
+			deflater_ = null;
+		}
+		stream_ = new FileOutputStream(path, true);
+		channel_ = stream_.getChannel();
+		if(formatter_ != null) append(formatter_.getHead(null));
+		if(binary_ && channel_.size() == 0){	// don't repeat the header when appending
+			buffer_.putInt(BinaryLogFormat.MAGIC);
+			buffer_.putInt(BinaryLogFormat.VERSION);
+		}
+		if(chunked_ && channel_.size() == 0){
+			ByteBuffer header = ByteBuffer.allocate(8);
+			header.putInt(ChunkedLogReader.MAGIC);
+			header.putInt(ChunkedLogReader.VERSION);
+			header.flip();
+			writeFully(header);
+		}
+	}
+	
+	/**
+	 * Formats a record and adds it to the buffer. If the buffer is full, it is written to the file.
+	 * 
+	 * @param type		the record type (see {@link BinaryLogFormat})
+	 * @param ref		the string reference of the record (the message for text records)
+	 * @param values	the array with the values of the record
+	 * @param offset	the position of the first value in <code>values</code>
+	 */
+	synchronized void write(int type, Object ref, long[] values, int offset){
+		if(closed_) return;
+		if(analyser_ != null) analyser_.add(type, ref, values, offset);
+		else if(binary_){
+			if(type == BinaryLogFormat.TEXT) appendString(BinaryLogFormat.TEXT, -1, String.valueOf(ref));
+			else {
+				int stringID = -1;
+				if(BinaryLogFormat.hasString(type) && ref != null) stringID = getStringID((String)ref);
+				if(BinaryLogFormat.getRecordSize(type) > buffer_.remaining()) flush();
+				BinaryLogFormat.write(buffer_, type, values, offset, stringID);
+			}
+		} else if(chunked_){
+			line_.setLength(0);
+			BinaryLogFormat.format(line_, type, ref, values, offset);
+			byte[] bytes = line_.append(LINE_SEPARATOR).toString().getBytes(CHARSET);
+			if(bytes.length > buffer_.remaining()) writeChunk();
+			addKeys(type, values, offset);
+			if(bytes.length > buffer_.capacity()) writeChunk(ByteBuffer.wrap(bytes));
+			else buffer_.put(bytes);
+		} else {
+			line_.setLength(0);
+			BinaryLogFormat.format(line_, type, ref, values, offset);
+			if(formatter_ == null) append(line_.append(LINE_SEPARATOR).toString());
+			else append(formatter_.format(new LogRecord(Level.FINEST, line_.toString())));
+		}
+	}
+	
+	/**
+	 * Adds the keys of a record to the ranges of the current chunk.
+	 * 
+	 * @param type		the record type
+	 * @param values	the array with the values of the record
+	 * @param offset	the position of the first value in <code>values</code>
+	 */
+	private void addKeys(int type, long[] values, int offset){
+		++recordCount_;
+		if(type == BinaryLogFormat.TEXT) unindexed_ = true;
+		else {
+			for(int i = 0; i < BinaryLogFormat.KEY_COUNT; ++i){
+				long key = BinaryLogFormat.getKey(i, type, values, offset);
+				if(key != Long.MIN_VALUE){
+					if(key < minKeys_[i]) minKeys_[i] = key;
+					if(key > maxKeys_[i]) maxKeys_[i] = key;
+					if(i == BinaryLogFormat.KEY_NODE_ID) nodeMask_ |= 1L << (key & 63);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Resets the key ranges for a new chunk.
+	 */
+	private void resetChunk(){
+		for(int i = 0; i < BinaryLogFormat.KEY_COUNT; ++i){
+			minKeys_[i] = Long.MAX_VALUE;
+			maxKeys_[i] = Long.MIN_VALUE;
+		}
+		nodeMask_ = 0;
+		unindexed_ = false;
+		recordCount_ = 0;
+	}
+	
+	/**
+	 * Writes the buffer as a compressed chunk to the file.
+	 */
+	private void writeChunk(){
+		if(buffer_.position() == 0) return;
+		buffer_.flip();
+		writeChunk(buffer_);
+		buffer_.clear();
+	}
+	
+	/**
+	 * Compresses text and writes it as a chunk with the current key ranges to the file.
+	 * 
+	 * @param text	the buffer with the encoded text
+	 */
+	private void writeChunk(ByteBuffer text){
+		int length = text.remaining();
+		deflater_.reset();
+		deflater_.setInput(text.array(), text.arrayOffset() + text.position(), length);
+		deflater_.finish();
+		int compressedLength = 0;
+		while(!deflater_.finished()){
+			if(compressedLength == compressed_.length){
+				byte[] newArray = new byte[compressed_.length * 2];
+				System.arraycopy(compressed_, 0, newArray, 0, compressedLength);
+				compressed_ = newArray;
+			}
+			compressedLength += deflater_.deflate(compressed_, compressedLength, compressed_.length - compressedLength);
+		}
+		text.position(text.limit());
+		ByteBuffer header = ByteBuffer.allocate(ChunkedLogReader.CHUNK_HEADER_SIZE);
+		header.putInt(length);
+		header.putInt(compressedLength);
+		header.putInt(recordCount_);
+		for(int i = 0; i < BinaryLogFormat.KEY_COUNT; ++i){
+			header.putLong(minKeys_[i]);
+			header.putLong(maxKeys_[i]);
+		}
+		header.putLong(nodeMask_);
+		if(unindexed_) header.put((byte)1);
+		else header.put((byte)0);
+		header.flip();
+		writeFully(header);
+		if(!closed_) writeFully(ByteBuffer.wrap(compressed_, 0, compressedLength));
+		resetChunk();
+	}
+	
+	/**
+	 * Gets the id of a string in a binary file. If the string is used for the first time, it is defined.
+	 * 
+	 * @param text	the string
+	 * 
+	 * @return the id
+	 */
+	private int getStringID(String text){
+		Integer id = stringIDs_.get(text);
+		if(id == null){
+			id = Integer.valueOf(stringIDs_.size());
+			stringIDs_.put(text, id);
+			appendString(BinaryLogFormat.STRING, id.intValue(), text);
+		}
+		return id.intValue();
+	}
+	
+	/**
+	 * Adds a {@link BinaryLogFormat#TEXT} or {@link BinaryLogFormat#STRING} record to the buffer.
+	 * 
+	 * @param type	the record type
+	 * @param id	the id of the string (only used for string records)
+	 * @param text	the text
+	 */
+	private void appendString(int type, int id, String text){
+		byte[] bytes = text.getBytes(BinaryLogFormat.UTF8);
+		ByteBuffer record = ByteBuffer.allocate(bytes.length + 9);
+		record.put((byte)type);
+		if(type == BinaryLogFormat.STRING) record.putInt(id);
+		record.putInt(bytes.length);
+		record.put(bytes);
+		record.flip();
+		if(record.remaining() > buffer_.remaining()){
+			flush();
+			if(record.remaining() > buffer_.capacity()){
+				writeFully(record);
+				return;
+			}
+		}
+		buffer_.put(record);
+	}
+	
+	/**
+	 * Encodes a string and adds it to the buffer.
+	 * 
+	 * @param text	the text
+	 */
+	private void append(String text){
+		byte[] bytes = text.getBytes(CHARSET);
+		if(bytes.length > buffer_.remaining()){
+			flush();
+			if(bytes.length > buffer_.capacity()){
+				writeFully(ByteBuffer.wrap(bytes));
+				return;
+			}
+		}
+		buffer_.put(bytes);
+	}
+	
+	/**
+	 * Writes the buffer to the file. Files with compressed chunks only write complete chunks so this does nothing for them.
+	 */
+	synchronized void flush(){
+		if(closed_ || chunked_ || analyser_ != null || buffer_.position() == 0) return;
+		buffer_.flip();
+		writeFully(buffer_);
+		buffer_.clear();
+	}
+	
+	/**
+	 * Writes a buffer completely to the channel. If writing fails, the file is closed.
+	 * 
+	 * @param buffer	the buffer
+	 */
+	private void writeFully(ByteBuffer buffer){
+		try{
+			while(buffer.hasRemaining()) channel_.write(buffer);
+		} catch (IOException e){
+			System.out.println(Messages.getString("ErrorLog.whileLogging") + path_ + ")! " + e.getLocalizedMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+			closeChannel();
+		}
+	}
+	
+	/**
+	 * Writes the remaining data and closes the file. Should only be called through {@link AsyncLogPipeline#close(AsyncLogFile)} 
+	 * so that all records which have been logged before are written.
+	 */
+	synchronized void close(){
+		if(closed_) return;
+		if(analyser_ != null){
+			closed_ = true;
+			analyser_.finish();
+			return;
+		}
+		if(formatter_ != null) append(formatter_.getTail(null));
+		if(chunked_){
+			writeChunk();
+			deflater_.end();
+		} else flush();
+		closeChannel();
+	}
+	
+	/**
+	 * Closes the channel without writing anything.
+	 */
+	private void closeChannel(){
+		closed_ = true;
+		try{
+			stream_.close();
+		} catch (IOException e){}
+	}
+	
+	/**
+	 * Gets the path of this file.
+	 * 
+	 * @return the path
+	 */
+	public String getPath(){
+		return path_;
+	}
+}
@@ -0,0 +1,515 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import java.util.ArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous pipeline for the log writers. Every thread which logs gets its own ring buffer so that logging only needs a 
+ * few memory writes and no lock. Besides plain text, the ring buffers take the typed records of {@link BinaryLogFormat} 
+ * as primitive values so that the hot paths don't need to build strings. A single writer thread drains the ring buffers, 
+ * formats the records and writes them to the {@link AsyncLogFile}s in large blocks. The <code>SimulationMaster</code> calls {@link #flush()} after each step so 
+ * that all records of a step have been written when the step is finished.
+ * <p>
+ * If a ring buffer is full, the logging thread waits for the writer thread by default. This can be changed with 
+ * {@link #setDropWhenFull(boolean)} so that records are dropped instead (useful if logging may not slow down the simulation).
+ */
+public final class AsyncLogPipeline {
+	
+	/** The amount of records one ring buffer can take. Must be a power of two. */
+	private static final int RING_SIZE = 4096;
+	
+	/** The time in nanoseconds the writer thread sleeps if there's nothing to do. */
+	private static final long IDLE_NANOS = 2000000L;
+	
+	/** The ring buffer of the current thread. */
+	private static final ThreadLocal<Ring> ring_ = new ThreadLocal<Ring>();
+	
+	/** All ring buffers. Replaced completely on changes so that the writer can iterate without locking. */
+	private static volatile Ring[] rings_ = new Ring[0];
+	
+	/** The files which are currently open. */
+	private static final ArrayList<AsyncLogFile> openFiles_ = new ArrayList<AsyncLogFile>();
+	
+	/** Lock for waiting on the writer thread in {@link #flush()}. */
+	private static final Object flushLock_ = new Object();
+	
+	/** The number of the last flush which was requested. */
+	private static volatile long flushRequested_ = 0;
+	
+	/** The number of the last flush which was finished by the writer thread. */
+	private static volatile long flushCompleted_ = 0;
+	
+	/** <code>true</code> if the writer thread has written everything it drained from the ring buffers. */
+	private static volatile boolean writerIdle_ = true;
+	
+	/** The dropped records of ring buffers which have already been removed. */
+	private static volatile long retiredDropped_ = 0;
+	
+	/** The blocked log calls of ring buffers which have already been removed. */
+	private static volatile long retiredBlocked_ = 0;
+	
+	/** <code>true</code> if new log files are written in the binary format. */
+	private static volatile boolean binaryFormat_ = false;
+	
+	/** <code>true</code> if new log files are written in compressed chunks. */
+	private static volatile boolean compressedFormat_ = false;
+	
+	/** <code>true</code> to drop records if a ring buffer is full instead of waiting. */
+	private static volatile boolean dropWhenFull_ = false;
+	
+	/** The writer thread or <code>null</code> if it hasn't been started yet. */
+	private static volatile Thread writer_ = null;
+	
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private AsyncLogPipeline(){
+	}
+	
+	/**
+	 * Opens a log file which is written through this pipeline. The writer thread is started if necessary.
+	 * 
+	 * @param path		the path of the file
+	 * @param format	the format (<code>log</code>, <code>txt</code> or <code>xml</code>)
+	 * 
+	 * @return the file
+	 * 
+	 * @throws Exception if the file can't be opened
+	 */
+	public static synchronized AsyncLogFile open(String path, String format) throws Exception{
+		AsyncLogFile file = new AsyncLogFile(path, format);
+		synchronized(openFiles_){
+			openFiles_.add(file);
+		}
+		if(writer_ == null){
+			writer_ = new Thread(){
+				public void run(){
+					writeLoop();
+				}
+			};
+			writer_.setName("LogWriter"); //$NON-NLS-1$
+			writer_.setDaemon(true);
+			writer_.start();
+			Runtime.getRuntime().addShutdownHook(new Thread(){
+				public void run(){
+					closeAll();
+				}
+			});
+		}
+		return file;
+	}
+	
+	/**
+	 * Closes a log file after all records which have been logged to it before have been written.
+	 * 
+	 * @param file	the file
+	 */
+	public static void close(AsyncLogFile file){
+		flush();
+		synchronized(openFiles_){
+			openFiles_.remove(file);
+		}
+		file.close();
+	}
+	
+	/**
+	 * Closes all open files. Used when the program exits.
+	 */
+	private static void closeAll(){
+		flush();
+		synchronized(openFiles_){
+			for(int i = 0; i < openFiles_.size(); ++i) openFiles_.get(i).close();
+			openFiles_.clear();
+		}
+	}
+	
+	/**
+	 * Logs a message. The message is only put into the ring buffer of the current thread and written later by the writer 
+	 * thread.
+	 * 
+	 * @param file		the file to log to. If <code>null</code>, the message is ignored.
+	 * @param message	the message
+	 */
+	public static void log(AsyncLogFile file, String message){
+		if(file == null) return;
+		Ring ring = ring_.get();
+		if(ring == null) ring = createRing();
+		long slot = claim(ring);
+		if(slot < 0) return;
+		int index = (int)slot & (RING_SIZE - 1);
+		ring.files_[index] = file;
+		ring.types_[index] = BinaryLogFormat.TEXT;
+		ring.refs_[index] = message;
+		ring.tail_ = slot + 1;	// publishes the record to the writer thread
+	}
+	
+	/**
+	 * Logs a typed record without creating any objects. Unused values should be 0.
+	 * 
+	 * @param file	the file to log to. If <code>null</code>, the record is ignored.
+	 * @param type	the record type (see {@link BinaryLogFormat})
+	 * @param ref	the string reference of the record or <code>null</code>
+	 * @param v0	the first value
+	 * @param v1	the second value
+	 * @param v2	the third value
+	 * @param v3	the fourth value
+	 * @param v4	the fifth value
+	 * @param v5	the sixth value
+	 * @param v6	the seventh value
+	 * @param v7	the eighth value
+	 * @param v8	the ninth value
+	 * @param v9	the tenth value
+	 * @param v10	the eleventh value
+	 */
+	static void log(AsyncLogFile file, int type, Object ref, long v0, long v1, long v2, long v3, long v4, long v5, long v6, long v7, long v8, long v9, long v10){
+		if(file == null) return;
+		Ring ring = ring_.get();
+		if(ring == null) ring = createRing();
+		long slot = claim(ring);
+		if(slot < 0) return;
+		int index = (int)slot & (RING_SIZE - 1);
+		ring.files_[index] = file;
+		ring.types_[index] = type;
+		ring.refs_[index] = ref;
+		long[] values = ring.values_;
+		int i = index * BinaryLogFormat.MAX_VALUES;
+		values[i] = v0;
+		values[i + 1] = v1;
+		values[i + 2] = v2;
+		values[i + 3] = v3;
+		values[i + 4] = v4;
+		values[i + 5] = v5;
+		values[i + 6] = v6;
+		values[i + 7] = v7;
+		values[i + 8] = v8;
+		values[i + 9] = v9;
+		values[i + 10] = v10;
+		ring.tail_ = slot + 1;	// publishes the record to the writer thread
+	}
+	
+	/**
+	 * Gets the position of a free slot in a ring buffer. If the ring buffer is full, this waits for the writer thread or 
+	 * drops the record. Only called by the owner of the ring buffer.
+	 * 
+	 * @param ring	the ring buffer
+	 * 
+	 * @return the position (to be published by setting <code>tail_</code> to the position + 1) or <code>-1</code> if the 
+	 * 			record should be dropped
+	 */
+	private static long claim(Ring ring){
+		long tail = ring.tail_;
+		if(tail - ring.head_ < RING_SIZE) return tail;
+		if(dropWhenFull_){
+			++ring.dropped_;
+			return -1;
+		}
+		++ring.blocked_;
+		LockSupport.unpark(writer_);
+		while(tail - ring.head_ >= RING_SIZE){
+			if(!writer_.isAlive()){
+				++ring.dropped_;
+				return -1;
+			}
+			LockSupport.parkNanos(100000L);
+		}
+		return tail;
+	}
+	
+	/**
+	 * Creates and registers the ring buffer for the current thread.
+	 * 
+	 * @return the ring buffer
+	 */
+	private static Ring createRing(){
+		Ring ring = new Ring(Thread.currentThread());
+		synchronized(flushLock_){
+			Ring[] rings = rings_;
+			Ring[] newRings = new Ring[rings.length + 1];
+			System.arraycopy (rings,0,newRings,0,rings.length);
+			newRings[rings.length] = ring;
+			rings_ = newRings;
+		}
+		ring_.set(ring);
+		return ring;
+	}
+	
+	/**
+	 * Waits until all records which have been logged before calling this have been written to their files (files with 
+	 * compressed chunks only write complete chunks). Returns immediately if there's nothing left to write.
+	 */
+	public static void flush(){
+		Thread writer = writer_;
+		if(writer == null || Thread.currentThread() == writer) return;
+		if(getQueueDepth() == 0 && writerIdle_) return;	// needs to be checked in this order
+		synchronized(flushLock_){
+			long request = ++flushRequested_;
+			LockSupport.unpark(writer);
+			while(flushCompleted_ < request && writer.isAlive()){
+				try{
+					flushLock_.wait(50);
+				} catch (InterruptedException e){
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * The main loop of the writer thread.
+	 */
+	private static void writeLoop(){
+		long request;
+		while(true){
+			request = flushRequested_;
+			if(drainAll() > 0) continue;
+			// everything visible at the time of the request has been drained, so write the buffers out
+			synchronized(openFiles_){
+				for(int i = 0; i < openFiles_.size(); ++i) openFiles_.get(i).flush();
+			}
+			writerIdle_ = true;
+			if(request > flushCompleted_){
+				synchronized(flushLock_){
+					flushCompleted_ = request;
+					flushLock_.notifyAll();
+				}
+			} else LockSupport.parkNanos(IDLE_NANOS);
+		}
+	}
+	
+	/**
+	 * Drains all ring buffers and removes the ones of threads which have died.
+	 * 
+	 * @return the amount of records drained
+	 */
+	private static int drainAll(){
+		Ring[] rings = rings_;
+		int count = 0;
+		boolean removeDead = false;
+		for(int i = 0; i < rings.length; ++i){
+			count += rings[i].drain();
+			if(!rings[i].owner_.isAlive() && rings[i].isEmpty()) removeDead = true;
+		}
+		if(removeDead){
+			synchronized(flushLock_){
+				rings = rings_;
+				ArrayList<Ring> alive = new ArrayList<Ring>(rings.length);
+				for(int i = 0; i < rings.length; ++i){
+					if(rings[i].owner_.isAlive() || !rings[i].isEmpty()) alive.add(rings[i]);
+					else {
+						retiredDropped_ += rings[i].dropped_;
+						retiredBlocked_ += rings[i].blocked_;
+					}
+				}
+				rings_ = alive.toArray(new Ring[alive.size()]);
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Gets the amount of records which have been logged but not yet taken by the writer thread.
+	 * 
+	 * @return the queue depth
+	 */
+	public static int getQueueDepth(){
+		Ring[] rings = rings_;
+		long depth = 0;
+		for(int i = 0; i < rings.length; ++i) depth += rings[i].size();
+		return (int)depth;
+	}
+	
+	/**
+	 * Gets the amount of records which were dropped because a ring buffer was full.
+	 * 
+	 * @return the amount of dropped records
+	 */
+	public static long getDroppedCount(){
+		Ring[] rings = rings_;
+		long dropped = retiredDropped_;
+		for(int i = 0; i < rings.length; ++i) dropped += rings[i].dropped_;
+		return dropped;
+	}
+	
+	/**
+	 * Gets how often a thread had to wait because its ring buffer was full.
+	 * 
+	 * @return the amount of blocked log calls
+	 */
+	public static long getBlockedCount(){
+		Ring[] rings = rings_;
+		long blocked = retiredBlocked_;
+		for(int i = 0; i < rings.length; ++i) blocked += rings[i].blocked_;
+		return blocked;
+	}
+	
+	/**
+	 * Sets if log files which are opened from now on are written in the binary format of {@link BinaryLogFormat}. Use 
+	 * {@link BinaryLogConverter} to get the text format.
+	 * 
+	 * @param binaryFormat	<code>true</code> for binary log files
+	 */
+	public static void setBinaryFormat(boolean binaryFormat){
+		binaryFormat_ = binaryFormat;
+	}
+	
+	/**
+	 * Gets if new log files are written in the binary format.
+	 * 
+	 * @return <code>true</code> for binary log files
+	 */
+	public static boolean isBinaryFormat(){
+		return binaryFormat_;
+	}
+	
+	/**
+	 * Sets if the privacy and IDS log files which are opened from now on are written in compressed chunks which can be 
+	 * read independently (see {@link ChunkedLogReader}). The binary format is used instead for the privacy log if both 
+	 * are enabled.
+	 * 
+	 * @param compressedFormat	<code>true</code> for compressed log files
+	 */
+	public static void setCompressedFormat(boolean compressedFormat){
+		compressedFormat_ = compressedFormat;
+	}
+	
+	/**
+	 * Gets if new log files are written in compressed chunks.
+	 * 
+	 * @return <code>true</code> for compressed log files
+	 */
+	public static boolean isCompressedFormat(){
+		return compressedFormat_;
+	}
+	
+	/**
+	 * Sets if records should be dropped if a ring buffer is full. If <code>false</code> (the default), the logging thread 
+	 * waits until the writer thread has made space.
+	 * 
+	 * @param dropWhenFull	<code>true</code> to drop records
+	 */
+	public static void setDropWhenFull(boolean dropWhenFull){
+		dropWhenFull_ = dropWhenFull;
+	}
+	
+	/**
+	 * Gets if records are dropped if a ring buffer is full.
+	 * 
+	 * @return <code>true</code> if records are dropped
+	 */
+	public static boolean isDropWhenFull(){
+		return dropWhenFull_;
+	}
+	
+	/**
+	 * Removes the extension from the path of a file. Works for extensions of any length (like <code>clog</code>) and 
+	 * ignores dots in the names of directories.
+	 * 
+	 * @param path	the path of a file
+	 * 
+	 * @return the path without the extension or the unchanged path if the file has no extension
+	 */
+	public static String removeExtension(String path){
+		int extension = path.lastIndexOf('.');
+		if(extension > path.lastIndexOf('/') && extension > path.lastIndexOf('\\')) return path.substring(0, extension);
+		else return path;
+	}
+	
+	/**
+	 * A ring buffer with one producer (the owning thread) and one consumer (the writer thread).
+	 */
+	private static final class Ring{
+		
+		/** The thread which logs into this ring buffer. */
+		private final Thread owner_;
+		
+		/** The files of the records. */
+		private final AsyncLogFile[] files_ = new AsyncLogFile[RING_SIZE];
+		
+		/** The types of the records. */
+		private final int[] types_ = new int[RING_SIZE];
+		
+		/** The string references of the records (the message of text records). */
+		private final Object[] refs_ = new Object[RING_SIZE];
+		
+		/** The values of the records (<code>BinaryLogFormat.MAX_VALUES</code> per record). */
+		private final long[] values_ = new long[RING_SIZE * BinaryLogFormat.MAX_VALUES];
+		
+		/** The position of the next record to take. Only written by the writer thread. */
+		private volatile long head_ = 0;
+		
+		/** The position of the next record to add. Only written by the owner. */
+		private volatile long tail_ = 0;
+		
+		/** The amount of dropped records. Only written by the owner. */
+		private volatile long dropped_ = 0;
+		
+		/** The amount of blocked log calls. Only written by the owner. */
+		private volatile long blocked_ = 0;
+		
+		/**
+		 * Instantiates a new ring buffer.
+		 * 
+		 * @param owner	the thread which logs into this ring buffer
+		 */
+		private Ring(Thread owner){
+			owner_ = owner;
+		}
+		
+		/**
+		 * Takes all records and writes them to their files. Only called by the writer thread.
+		 * 
+		 * @return the amount of records taken
+		 */
+		private int drain(){
+			long head = head_;
+			long tail = tail_;
+			if(head == tail) return 0;
+			writerIdle_ = false;	// needs to be set before head_ so that flush() can't miss the records
+			int index;
+			for(long i = head; i < tail; ++i){
+				index = (int)i & (RING_SIZE - 1);
+				files_[index].write(types_[index], refs_[index], values_, index * BinaryLogFormat.MAX_VALUES);
+				files_[index] = null;
+				refs_[index] = null;
+			}
+			head_ = tail;
+			return (int)(tail - head);
+		}
+		
+		/**
+		 * Gets the amount of records in this ring buffer.
+		 * 
+		 * @return the amount of records
+		 */
+		private long size(){
+			return tail_ - head_;
+		}
+		
+		/**
+		 * Checks if this ring buffer is empty.
+		 * 
+		 * @return <code>true</code> if empty
+		 */
+		private boolean isEmpty(){
+			return tail_ == head_;
+		}
+	}
+}
@@ -18,10 +18,6 @@
 package vanetsim.gui.helpers;
 
 import java.text.SimpleDateFormat;
-import java.util.logging.FileHandler;
-import java.util.logging.Level;
-import java.util.logging.XMLFormatter;
-import java.util.logging.Logger;
 
 
 import vanetsim.ErrorLog;
@@ -32,19 +28,6 @@ import vanetsim.localization.Messages;
  */
 public final class AttackLogWriter {
 
-	/** The <code>java.util.logging.Logger</code> instance. */
-	private static Logger logger = Logger.getLogger("attackerLog"); //$NON-NLS-1$
-	
-	/** Path of log */
-	private static String logPath = "";
-	
-	
-	/** Old path of log */
-	private static String logOldPath = "";
-	
-	/** file handler */
-	private static FileHandler handler = null;
-
 	/**
 	 * Sets the parameters for the static class.
 	 *
@@ -52,22 +35,16 @@ public final class AttackLogWriter {
 	 * @param format	the format of the log files (<code>txt</code> or <code>xml</code>)
 	 */
 	public static void setParameters(String dir, String format) {
-		logger.setLevel(Level.FINEST);
-		logPath = dir;
+		SimulationLogs.LogState log = SimulationLogs.getInstance().attackLog_;
+		log.path_ = dir;
 		
 		java.util.Date dt = new java.util.Date();
 		SimpleDateFormat df = new SimpleDateFormat("dd.MM.yyyy_HH.mm.ss"); //$NON-NLS-1$
 		try {
-			if(!dir.equals(logOldPath)){
-				if(handler != null)logger.removeHandler(handler);
-				handler = new FileHandler(dir + "log_" + df.format(dt) + "." + format, true);//$NON-NLS-1$ //$NON-NLS-2$
-				logOldPath = dir;
-				logger.setUseParentHandlers(false); // don't log to console
-				logger.addHandler(handler);
-				if (format.equals("txt")) //$NON-NLS-1$
-					handler.setFormatter(new LogFormatter());
-				else
-					handler.setFormatter(new XMLFormatter());
+			if(!dir.equals(log.oldPath_)){
+				if(log.file_ != null) AsyncLogPipeline.close(log.file_);
+				log.file_ = AsyncLogPipeline.open(dir + "log_" + df.format(dt) + "." + format, format);//$NON-NLS-1$ //$NON-NLS-2$
+				log.oldPath_ = dir;
 				}
 		} catch (Exception e) {
 			ErrorLog.log(Messages.getString("ErrorLog.whileSetting"), 7, ErrorLog.class.getName(), "setParameters",  e); //$NON-NLS-1$ //$NON-NLS-2$
@@ -80,22 +57,56 @@ public final class AttackLogWriter {
 	 *
 	 * @param message	data to log
 	 */
-	public static synchronized void log(String message) {
-		try {
-			logger.log(Level.FINEST, message);
-		} catch (Exception new_e) {
-			System.out.println(Messages.getString("ErrorLog.whileLogging") + message + ")! " + new_e.getLocalizedMessage()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			new_e.printStackTrace();
-		}
+	public static void log(String message) {
+		AsyncLogPipeline.log(state().file_, message);
+	}
+	
+	/**
+	 * Logs vehicle data received by the attacker or any other vehicle.
+	 * 
+	 * @param source	one of the <code>SOURCE</code> constants of <code>BinaryLogFormat</code>
+	 * @param time		the simulation time
+	 * @param sourceID	the ID of the receiving vehicle or attacker RSU
+	 * @param ID		the pseudonym of the vehicle
+	 * @param x			the x coordinate of the vehicle
+	 * @param y			the y coordinate of the vehicle
+	 * @param speed		the speed of the vehicle
+	 * @param encrypted	if the data was encrypted
+	 */
+	public static void logVehicleData(int source, int time, long sourceID, long ID, int x, int y, double speed, boolean encrypted) {
+		AsyncLogPipeline.log(state().file_, BinaryLogFormat.ATTACK_DATA, null, source, time, sourceID, ID, x, y, Double.doubleToRawLongBits(speed), encrypted ? 1 : 0, 0, 0, 0);
+	}
+	
+	/**
+	 * Logs vehicle data received by an RSU.
+	 * 
+	 * @param time		the simulation time
+	 * @param rsuID		the ID of the RSU
+	 * @param ID		the pseudonym of the vehicle
+	 * @param x			the x coordinate of the vehicle
+	 * @param y			the y coordinate of the vehicle
+	 * @param encrypted	if the data was encrypted
+	 */
+	public static void logRSUData(int time, long rsuID, long ID, int x, int y, boolean encrypted) {
+		AsyncLogPipeline.log(state().file_, BinaryLogFormat.RSU_DATA, null, time, rsuID, ID, x, y, encrypted ? 1 : 0, 0, 0, 0, 0, 0);
 	}
 	
 	
 	public static void setLogPath(String logPath) {
-		setParameters(logPath + "/", "txt");
-		AttackLogWriter.logPath = logPath;
+		setParameters(logPath + "/", AsyncLogPipeline.isBinaryFormat() ? "bin" : "txt");
+		state().path_ = logPath;
 	}
 
 	public static String getLogPath() {
-		return logPath;
+		return state().path_;
+	}
+	
+	/**
+	 * Gets the state of this log in the simulation context bound to the calling thread.
+	 * 
+	 * @return the state
+	 */
+	private static SimulationLogs.LogState state() {
+		return SimulationLogs.getInstance().attackLog_;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+/**
+ * The expected times, ways and scores with which the standard mix zone, silent period and SLOW attacks match the vehicles
+ * before and after a mix zone or period. The attacks on a log in {@link LogOperations} and the attacks while the simulation
+ * is running in {@link OnlinePrivacyAnalyser} both use this class. The parameters are taken from a {@link LogAnalyser}
+ * (the values of the log analyser dialog or of the job).
+ */
+final class AttackScoring {
+
+	/** The maximum driving speed of a vehicle in cm/s (used for the silent periods). */
+	private static final double MAX_DRIVING_SPEED = 6944.44444444444444444444444444444444444;
+
+	/** The factor used instead of a factor of 0 so that the time difference still counts. */
+	private static final double MIN_FACTOR = 0.0000000000000000000000000001;
+
+	/** The time buffer of the mix zone attack in ms. */
+	private final double timeBuffer_;
+
+	/** The value to tune the expected times and ways. */
+	private final double tuneTime_;
+
+	/** The factor if a vehicle leaves a mix zone on a bigger street. */
+	private final double biggerStreet_;
+
+	/** The factor if a vehicle leaves a mix zone on a smaller street. */
+	private final double smallerStreet_;
+
+	/** The factor if a vehicle drives straight through a mix zone. */
+	private final double drivesStraight_;
+
+	/** The factor if a vehicle turns in a mix zone. */
+	private final double turns_;
+
+	/** The factor if a vehicle makes a u-turn in a mix zone. */
+	private final double makesUTurn_;
+
+	/** The time in ms after the start of a SLOW period in which leaving vehicles are compared. */
+	private final double maxSlowSearchTime_;
+
+	/**
+	 * Creates the scoring with the parameters of a log analyser. The factors of the mix zone attack are the probabilities
+	 * subtracted from 1 (the smaller the factor, the more likely the vehicle).
+	 *
+	 * @param analyser	the log analyser
+	 */
+	AttackScoring(LogAnalyser analyser){
+		timeBuffer_ = analyser.getGuiElement("timeBufferValue"); //$NON-NLS-1$
+		tuneTime_ = analyser.getGuiElement("tuneTimeValue"); //$NON-NLS-1$
+		biggerStreet_ = 1 - analyser.getGuiElement("biggerStreetValue"); //$NON-NLS-1$
+		smallerStreet_ = 1 - analyser.getGuiElement("smallerStreetValue"); //$NON-NLS-1$
+		drivesStraight_ = 1 - analyser.getGuiElement("drivesStraigthValue"); //$NON-NLS-1$
+		turns_ = 1 - analyser.getGuiElement("turnsValue"); //$NON-NLS-1$
+		makesUTurn_ = 1 - analyser.getGuiElement("makesUTurnValue"); //$NON-NLS-1$
+		maxSlowSearchTime_ = analyser.getGuiElement("maxSlowSearchTime"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Gets the time buffer of the mix zone attack.
+	 *
+	 * @return the time buffer in ms
+	 */
+	double getTimeBuffer(){
+		return timeBuffer_;
+	}
+
+	/**
+	 * Gets the time after the start of a SLOW period in which leaving vehicles are compared.
+	 *
+	 * @return the time in ms
+	 */
+	double getMaxSlowSearchTime(){
+		return maxSlowSearchTime_;
+	}
+
+	/**
+	 * Gets the expected time of a vehicle to cross a mix zone.
+	 *
+	 * @param radius		the radius of the mix zone in cm
+	 * @param streetSpeed	the speed on the street on which the vehicle drove into the mix zone in cm/s
+	 *
+	 * @return the expected time in ms
+	 */
+	double getMixZoneExpectedTime(int radius, int streetSpeed){
+		return (((2*radius)/streetSpeed)*1000)*tuneTime_;
+	}
+
+	/**
+	 * Gets the factor of a vehicle leaving a mix zone for a vehicle which drove into it (the smaller the better).
+	 *
+	 * @param sameStreet		<code>true</code> if the vehicle leaves on the street on which the other vehicle drove in
+	 * @param samePort			<code>true</code> if the vehicle leaves at the port at which the other vehicle drove in
+	 * @param smallerStreet		<code>true</code> if the street of the leaving vehicle is slower
+	 * @param timeDifference	the difference between the expected time and the time at which the vehicle left
+	 *
+	 * @return the factor
+	 */
+	double getMixZoneFactor(boolean sameStreet, boolean samePort, boolean smallerStreet, double timeDifference){
+		double drivingFactor;
+		if(sameStreet){
+			if(samePort) drivingFactor = makesUTurn_;
+			else drivingFactor = drivesStraight_;
+		}
+		else drivingFactor = turns_;
+
+		double streetFactor;
+		if(smallerStreet) streetFactor = smallerStreet_;
+		else streetFactor = biggerStreet_;
+
+		if(drivingFactor == 0) drivingFactor = MIN_FACTOR;
+		if(streetFactor == 0) streetFactor = MIN_FACTOR;
+		return drivingFactor * streetFactor * Math.abs(timeDifference);
+	}
+
+	/**
+	 * Gets the distance a vehicle can drive at most during a silent period.
+	 *
+	 * @param silentPeriodTime	the duration of the silent period in ms
+	 *
+	 * @return the distance in cm
+	 */
+	static double getSilentPeriodMaxDistance(int silentPeriodTime){
+		return MAX_DRIVING_SPEED*(silentPeriodTime/1000);
+	}
+
+	/**
+	 * Gets the expected way of a vehicle during a silent period.
+	 *
+	 * @param silentPeriodTime	the duration of the silent period in ms
+	 * @param streetSpeed		the speed on the street of the vehicle in cm/s
+	 *
+	 * @return the expected way in cm
+	 */
+	double getSilentPeriodExpectedWay(int silentPeriodTime, int streetSpeed){
+		return silentPeriodTime/1000 * streetSpeed * tuneTime_;
+	}
+
+	/**
+	 * Gets the score of a vehicle after a silent period for a vehicle before it (the smaller the better).
+	 *
+	 * @param dx			the distance between the vehicles in x direction
+	 * @param dy			the distance between the vehicles in y direction
+	 * @param expectedWay	the expected way of the vehicle before the silent period
+	 *
+	 * @return the score
+	 */
+	static float getSilentPeriodScore(float dx, float dy, float expectedWay){
+		return Math.abs((expectedWay*expectedWay) - (dx*dx + dy*dy));
+	}
+
+	/**
+	 * Gets the distance a vehicle can drive at most while other vehicles leaving a SLOW period are compared.
+	 *
+	 * @param slowSpeed	the speed below which vehicles are in a SLOW period in cm/s
+	 *
+	 * @return the distance in cm
+	 */
+	double getSlowMaxDistance(int slowSpeed){
+		return slowSpeed*(maxSlowSearchTime_/1000);
+	}
+
+	/**
+	 * Gets the expected way of a vehicle in a SLOW period.
+	 *
+	 * @param timeDifference	the time between the start of the SLOW period and the time the other vehicle left in ms
+	 * @param speed				the speed of the vehicle in cm/s
+	 *
+	 * @return the expected way in cm
+	 */
+	double getSlowExpectedWay(int timeDifference, int speed){
+		return timeDifference/1000 * speed / tuneTime_;
+	}
+
+	/**
+	 * Gets the score of a vehicle leaving a SLOW period for a vehicle which started one (the smaller the better).
+	 *
+	 * @param dx			the distance between the vehicles in x direction
+	 * @param dy			the distance between the vehicles in y direction
+	 * @param expectedWay	the expected way of the vehicle which started the SLOW period
+	 *
+	 * @return the score
+	 */
+	static double getSlowScore(long dx, long dy, float expectedWay){
+		return Math.abs((dx*dx + dy*dy) - (expectedWay*expectedWay));
+	}
+}
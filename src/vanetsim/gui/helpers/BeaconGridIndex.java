@@ -0,0 +1,175 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import java.util.Arrays;
+
+/**
+ * A spatio-temporal index over the positions of beacons in a privacy log. The beacons are numbered in the order of the 
+ * log (and thus by time) and put into a uniform grid. Each cell of the grid keeps the numbers of its beacons in ascending 
+ * order, so a query returns the beacons in a circle which lie in a range of the log (a time window) without scanning 
+ * the other beacons. The attacks on silent periods and SLOW use it to compare a vehicle only to the vehicles which 
+ * can be reached instead of all vehicles of the time window.
+ */
+public final class BeaconGridIndex {
+	
+	/** The maximum amount of cells per beacon. */
+	private static final int MAX_CELLS_PER_BEACON = 4;
+	
+	/** The x coordinates of the beacons. */
+	private final int[] x_;
+	
+	/** The y coordinates of the beacons. */
+	private final int[] y_;
+	
+	/** The smallest x coordinate. */
+	private final long minX_;
+	
+	/** The smallest y coordinate. */
+	private final long minY_;
+	
+	/** The width and height of a cell. */
+	private final long cellSize_;
+	
+	/** The amount of columns of the grid. */
+	private final int columns_;
+	
+	/** The amount of rows of the grid. */
+	private final int rows_;
+	
+	/** The position of the first beacon of each cell in {@link #beacons_}. The last element is the amount of beacons. */
+	private final int[] cellStarts_;
+	
+	/** The numbers of the beacons sorted by cell and (inside a cell) ascending. */
+	private final int[] beacons_;
+	
+	/** The result of the last query. */
+	private int[] result_ = new int[16];
+	
+	/**
+	 * Creates an index over beacons.
+	 * 
+	 * @param x			the x coordinates of the beacons (in log order)
+	 * @param y			the y coordinates of the beacons (in log order)
+	 * @param count		the amount of beacons (the arrays may be larger)
+	 * @param cellSize	the preferred size of a cell (usually the radius of the queries). It is increased if the grid would 
+	 * 					get too large for the amount of beacons.
+	 */
+	public BeaconGridIndex(int[] x, int[] y, int count, long cellSize){
+		x_ = x;
+		y_ = y;
+		long minX = Long.MAX_VALUE, minY = Long.MAX_VALUE, maxX = Long.MIN_VALUE, maxY = Long.MIN_VALUE;
+		for(int i = 0; i < count; ++i){
+			if(x[i] < minX) minX = x[i];
+			if(x[i] > maxX) maxX = x[i];
+			if(y[i] < minY) minY = y[i];
+			if(y[i] > maxY) maxY = y[i];
+		}
+		if(count == 0){
+			minX = 0;
+			minY = 0;
+			maxX = 0;
+			maxY = 0;
+		}
+		minX_ = minX;
+		minY_ = minY;
+		
+		//limit the size of the grid to a few cells per beacon
+		long size = Math.max(1, cellSize);
+		long maxCells = (long)count * MAX_CELLS_PER_BEACON + 1;
+		while((double)((maxX - minX) / size + 1) * ((maxY - minY) / size + 1) > maxCells) size *= 2;
+		cellSize_ = size;
+		columns_ = (int)((maxX - minX) / size + 1);
+		rows_ = (int)((maxY - minY) / size + 1);
+		
+		//counting sort of the beacons by cell keeps the ascending order inside the cells
+		cellStarts_ = new int[columns_ * rows_ + 1];
+		int[] cells = new int[count];
+		for(int i = 0; i < count; ++i){
+			cells[i] = (int)((y[i] - minY_) / cellSize_) * columns_ + (int)((x[i] - minX_) / cellSize_);
+			++cellStarts_[cells[i] + 1];
+		}
+		for(int i = 1; i < cellStarts_.length; ++i) cellStarts_[i] += cellStarts_[i - 1];
+		int[] next = Arrays.copyOf(cellStarts_, cellStarts_.length - 1);
+		beacons_ = new int[count];
+		for(int i = 0; i < count; ++i) beacons_[next[cells[i]]++] = i;
+	}
+	
+	/**
+	 * Finds all beacons in a range of the log which are inside a circle. The beacons are returned in log order.
+	 * 
+	 * @param centerX	the x coordinate of the center of the circle
+	 * @param centerY	the y coordinate of the center of the circle
+	 * @param radius	the radius of the circle
+	 * @param from		the first beacon of the range
+	 * @param to		the end of the range (exclusive)
+	 * 
+	 * @return the amount of beacons found. The beacons are in {@link #getResult()}.
+	 */
+	public int query(double centerX, double centerY, double radius, int from, int to){
+		if(from >= to || beacons_.length == 0 || Double.isNaN(centerX) || Double.isNaN(centerY) || !(radius >= 0)) return 0;
+		int minColumn = clamp(Math.floor((centerX - radius - minX_) / cellSize_), columns_);
+		int maxColumn = clamp(Math.floor((centerX + radius - minX_) / cellSize_), columns_);
+		int minRow = clamp(Math.floor((centerY - radius - minY_) / cellSize_), rows_);
+		int maxRow = clamp(Math.floor((centerY + radius - minY_) / cellSize_), rows_);
+		double radiusSquared = radius * radius;
+		int found = 0;
+		for(int row = minRow; row <= maxRow; ++row){
+			for(int column = minColumn; column <= maxColumn; ++column){
+				int cell = row * columns_ + column;
+				int end = cellStarts_[cell + 1];
+				int i = Arrays.binarySearch(beacons_, cellStarts_[cell], end, from);
+				if(i < 0) i = -i - 1;
+				for(; i < end && beacons_[i] < to; ++i){
+					int beacon = beacons_[i];
+					double dx = centerX - x_[beacon];
+					double dy = centerY - y_[beacon];
+					if(dx * dx + dy * dy <= radiusSquared){
+						if(found == result_.length) result_ = Arrays.copyOf(result_, found * 2);
+						result_[found++] = beacon;
+					}
+				}
+			}
+		}
+		if(found > 1) Arrays.sort(result_, 0, found);
+		return found;
+	}
+	
+	/**
+	 * Gets the beacons found by the last query. Only the first elements (as returned by the query) are valid.
+	 * 
+	 * @return the numbers of the beacons
+	 */
+	public int[] getResult(){
+		return result_;
+	}
+	
+	/**
+	 * Limits a cell coordinate to the grid.
+	 * 
+	 * @param value	the coordinate
+	 * @param size	the amount of columns or rows
+	 * 
+	 * @return the coordinate inside the grid
+	 */
+	private static int clamp(double value, int size){
+		if(value < 0) return 0;
+		if(value >= size) return size - 1;
+		return (int)value;
+	}
+}
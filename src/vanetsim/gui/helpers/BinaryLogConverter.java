@@ -0,0 +1,211 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+
+import vanetsim.ErrorLog;
+import vanetsim.localization.Messages;
+
+/**
+ * Converts binary log files (see {@link BinaryLogFormat}) into the colon separated text format which the log writers 
+ * write in text mode, so that the <code>LogAnalyser</code> and external tools can read them. Compressed log files (see 
+ * {@link ChunkedLogReader}) can be decompressed the same way for external tools.
+ * <p>
+ * Usage: <code>java vanetsim.gui.helpers.BinaryLogConverter input.bin|input.clog [output.log]</code>
+ */
+public final class BinaryLogConverter {
+	
+	/** The line separator used in the text files (the same as in text mode). */
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator"); //$NON-NLS-1$
+	
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private BinaryLogConverter(){
+	}
+	
+	/**
+	 * Converts a binary log file given on the command line.
+	 * 
+	 * @param args	the binary file and optionally the text file to create
+	 */
+	public static void main(String[] args){
+		if(args.length < 1){
+			System.out.println("Usage: java vanetsim.gui.helpers.BinaryLogConverter input.bin|input.clog [output.log]"); //$NON-NLS-1$
+			return;
+		}
+		File input = new File(args[0]);
+		File output;
+		if(args.length > 1) output = new File(args[1]);
+		else output = getTextFile(input);
+		try{
+			if(ChunkedLogReader.isChunkedLog(input.getPath())){
+				long bytes = decompress(input, output);
+				System.out.println(bytes + " bytes written to " + output.getPath()); //$NON-NLS-1$
+			} else {
+				long records = convert(input, output);
+				System.out.println(records + " records written to " + output.getPath()); //$NON-NLS-1$
+			}
+		} catch (IOException e){
+			System.out.println(e.getLocalizedMessage());
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * Gets the path of a log file in text format. If the given file is a binary log file, it is converted to a text file 
+	 * next to it (unless a newer text file already exists) and the path of the text file is returned. Synchronized as jobs 
+	 * of the {@link LogAnalyserJobRunner} may use the same file at the same time.
+	 * 
+	 * @param path	the path of a log file
+	 * 
+	 * @return the path of the text file
+	 */
+	public static synchronized String toTextFile(String path){
+		if(!path.endsWith(".bin")) return path; //$NON-NLS-1$
+		File input = new File(path);
+		File output = getTextFile(input);
+		if(output.exists() && output.lastModified() >= input.lastModified()) return output.getPath();
+		try{
+			convert(input, output);
+		} catch (IOException e){
+			ErrorLog.log(Messages.getString("ErrorLog.whileLogging") + path + ")!", 6, BinaryLogConverter.class.getName(), "toTextFile", e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			return path;
+		}
+		return output.getPath();
+	}
+	
+	/**
+	 * Gets the default text file for a binary or compressed file (<code>.bin</code> or <code>.clog</code> replaced by 
+	 * <code>.log</code>).
+	 * 
+	 * @param input	the binary or compressed file
+	 * 
+	 * @return the text file
+	 */
+	private static File getTextFile(File input){
+		String path = input.getPath();
+		if(path.endsWith(".bin")) path = path.substring(0, path.length() - 4); //$NON-NLS-1$
+		else if(path.endsWith(".clog")) path = path.substring(0, path.length() - 5); //$NON-NLS-1$
+		return new File(path + ".log"); //$NON-NLS-1$
+	}
+	
+	/**
+	 * Converts a binary log file into a text file.
+	 * 
+	 * @param input		the binary file
+	 * @param output	the text file to create (overwritten if it exists)
+	 * 
+	 * @return the amount of records written
+	 * 
+	 * @throws IOException if reading or writing fails or the input isn't a binary log file
+	 */
+	public static long convert(File input, File output) throws IOException{
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(input), 65536));
+		Writer out = null;
+		long records = 0;
+		try{
+			if(in.readInt() != BinaryLogFormat.MAGIC) throw new IOException(input.getPath() + " is not a binary log file"); //$NON-NLS-1$
+			int version = in.readInt();
+			if(version != BinaryLogFormat.VERSION) throw new IOException(input.getPath() + " has the unsupported version " + version); //$NON-NLS-1$
+			out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(output)), 65536);
+			ArrayList<String> strings = new ArrayList<String>();
+			long[] values = new long[BinaryLogFormat.MAX_VALUES];
+			StringBuilder line = new StringBuilder(256);
+			int type, stringID;
+			String ref;
+			while(true){
+				try{
+					type = in.readUnsignedByte();
+				} catch (EOFException e){
+					break;
+				}
+				if(type == BinaryLogFormat.STRING){
+					stringID = in.readInt();
+					while(strings.size() <= stringID) strings.add(null);
+					strings.set(stringID, readString(in));
+					continue;
+				}
+				if(type == BinaryLogFormat.TEXT) ref = readString(in);
+				else if(type > BinaryLogFormat.PENALTY) throw new IOException(input.getPath() + " contains the unknown record type " + type); //$NON-NLS-1$
+				else {
+					stringID = BinaryLogFormat.read(in, type, values);
+					if(stringID < 0) ref = null;
+					else ref = strings.get(stringID);
+				}
+				line.setLength(0);
+				BinaryLogFormat.format(line, type, ref, values, 0);
+				out.write(line.append(LINE_SEPARATOR).toString());
+				++records;
+			}
+		} finally {
+			in.close();
+			if(out != null) out.close();
+		}
+		return records;
+	}
+	
+	/**
+	 * Decompresses a compressed log file into a text file.
+	 * 
+	 * @param input		the compressed file
+	 * @param output	the text file to create (overwritten if it exists)
+	 * 
+	 * @return the amount of bytes written
+	 * 
+	 * @throws IOException if reading or writing fails or the input isn't a compressed log file
+	 */
+	public static long decompress(File input, File output) throws IOException{
+		ChunkedLogReader reader = new ChunkedLogReader(input.getPath());
+		FileOutputStream out = null;
+		try{
+			out = new FileOutputStream(output);
+			for(int i = 0; i < reader.getChunkCount(); ++i) out.write(reader.readChunk(i));
+		} finally {
+			reader.close();
+			if(out != null) out.close();
+		}
+		return reader.getLength();
+	}
+	
+	/**
+	 * Reads a string which is stored as byte length and UTF-8 bytes.
+	 * 
+	 * @param in	the stream
+	 * 
+	 * @return the string
+	 * 
+	 * @throws IOException if reading fails
+	 */
+	private static String readString(DataInputStream in) throws IOException{
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, BinaryLogFormat.UTF8);
+	}
+}
@@ -0,0 +1,334 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Defines the typed log records and their binary layout. Records are handed to the {@link AsyncLogPipeline} as a type, 
+ * an optional string reference (for example a street name) and a fixed amount of <code>long</code> values, so logging 
+ * doesn't need to build any strings. The writer thread either formats them into the usual colon separated text lines 
+ * or writes them in the binary layout. {@link BinaryLogConverter} turns binary files back into text.
+ * <p>
+ * A binary file starts with {@link #MAGIC} and {@link #VERSION} (both <code>int</code>). Each record starts with its type 
+ * as one byte followed by its values as big-endian <code>int</code>s or <code>long</code>s (see {@link #getFieldSizes(int)}). 
+ * Records with a string reference end with the <code>int</code> id of the string, which is defined by a preceding 
+ * {@link #STRING} record (id, byte length and UTF-8 bytes). {@link #TEXT} records consist of the byte length and the UTF-8 bytes.
+ */
+public final class BinaryLogFormat {
+	
+	/** The first four bytes of a binary log file ("VSBL"). */
+	public static final int MAGIC = 0x5653424C;
+	
+	/** The version of the binary layout. */
+	public static final int VERSION = 1;
+	
+	/** The maximum amount of values of a record. */
+	public static final int MAX_VALUES = 11;
+	
+	/** The charset used for strings in binary files. */
+	public static final Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+	
+	/** A plain text line. The reference is the text. */
+	public static final int TEXT = 0;
+	
+	/** Defines a string used by later records (only found in binary files). */
+	public static final int STRING = 1;
+	
+	/** A vehicle entered or left a mix zone. Values: time, steady ID, pseudonym, traveled distance, traveled time, node ID, 
+	 * direction, street speed, vehicle speed, x, y. The reference is the street name. */
+	public static final int MIX_ZONE = 2;
+	
+	/** A silent period started or ended for a vehicle. Values: time, steady ID, pseudonym, traveled distance, traveled time, 
+	 * direction, x, y. */
+	public static final int SILENT_PERIOD = 3;
+	
+	/** A saved beacon of a vehicle (logged around silent periods and SLOW). Values: time, steady ID, pseudonym, traveled distance, 
+	 * traveled time, direction, street speed, vehicle speed, x, y, time in SLOW (<code>Long.MIN_VALUE</code> if not logged). 
+	 * The reference is the street name. */
+	public static final int SAVED_BEACON = 4;
+	
+	/** A vehicle reached its destination while SLOW is active. Values: steady ID, pseudonym. */
+	public static final int DESTINATION_REACHED = 5;
+	
+	/** Vehicle data received by an attacker. Values: source, time, source ID, vehicle ID, x, y, speed (as double bits), 
+	 * encrypted (1 or 0). */
+	public static final int ATTACK_DATA = 6;
+	
+	/** Vehicle data received by an RSU. Values: time, RSU ID, vehicle ID, x, y, encrypted (1 or 0). */
+	public static final int RSU_DATA = 7;
+	
+	/** A beacon sent by a vehicle. Values: pseudonym, x, y, speed (as double bits). */
+	public static final int BEACON = 8;
+	
+	/** A penalty received by a vehicle. Values: time, x, y, sender, receiver. The reference is the penalty type. */
+	public static final int PENALTY = 9;
+	
+	/** Direction into a mix zone, silent period or SLOW. */
+	public static final int DIRECTION_IN = 0;
+	
+	/** Direction out of a mix zone, silent period or SLOW. */
+	public static final int DIRECTION_OUT = 1;
+	
+	/** Direction not yet known (logged as placeholder). */
+	public static final int DIRECTION_UNKNOWN = 2;
+	
+	/** Data of the attacked vehicle received by an attacker RSU. */
+	public static final int SOURCE_ATTACKER_RSU_ATTACKED = 0;
+	
+	/** Data of another vehicle received by an attacker RSU. */
+	public static final int SOURCE_ATTACKER_RSU_OTHER = 1;
+	
+	/** Data of the attacked vehicle received by the attacker vehicle. */
+	public static final int SOURCE_ATTACKER_ATTACKED = 2;
+	
+	/** Data of another vehicle received by the attacker vehicle. */
+	public static final int SOURCE_ATTACKER_OTHER = 3;
+	
+	/** Data received by any vehicle. */
+	public static final int SOURCE_ANY = 4;
+	
+	/** Key for the simulation time of a record. */
+	public static final int KEY_TIME = 0;
+	
+	/** Key for the steady ID of the vehicle of a record. */
+	public static final int KEY_STEADY_ID = 1;
+	
+	/** Key for the mix zone node ID of a record. */
+	public static final int KEY_NODE_ID = 2;
+	
+	/** The amount of keys. */
+	public static final int KEY_COUNT = 3;
+	
+	/** The sizes of the values of each record type in bytes (<code>null</code> for the types with a special layout). */
+	private static final int[][] FIELD_SIZES = {
+		null,
+		null,
+		{4, 4, 8, 8, 4, 4, 4, 4, 4, 4, 4},
+		{4, 4, 8, 8, 4, 4, 4, 4},
+		{4, 4, 8, 8, 4, 4, 4, 4, 4, 4, 8},
+		{4, 8},
+		{4, 4, 8, 8, 4, 4, 8, 4},
+		{4, 8, 8, 4, 4, 4},
+		{8, 4, 4, 8},
+		{4, 4, 4, 8, 8}
+	};
+	
+	/** The positions of the keys (time, steady ID, node ID) in the values of each record type (<code>-1</code> if the type doesn't have the key). */
+	private static final int[][] KEY_POSITIONS = {
+		{-1, -1, -1},
+		{-1, -1, -1},
+		{0, 1, 5},
+		{0, 1, -1},
+		{0, 1, -1},
+		{-1, 0, -1},
+		{1, -1, -1},
+		{0, -1, -1},
+		{-1, -1, -1},
+		{0, -1, -1}
+	};
+	
+	/** If the record types end with a string id. */
+	private static final boolean[] HAS_STRING = {false, false, true, false, true, false, false, false, false, true};
+	
+	/** The texts of the directions. */
+	private static final String[] DIRECTIONS = {"IN", "OUT", "%0%aa%0%"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	
+	/** The texts of the attacker sources (before and after the source ID). */
+	private static final String[][] SOURCES = {
+		{":Source(Attacker-RSU):", ":Attacked-Vehicle Data:"}, //$NON-NLS-1$ //$NON-NLS-2$
+		{":Source(Attacker-RSU):", ":Other-Vehicle Data:"}, //$NON-NLS-1$ //$NON-NLS-2$
+		{":Source(Attacker):", ":Attacked-Vehicle-Data:"}, //$NON-NLS-1$ //$NON-NLS-2$
+		{":Source(Attacker):", ":Other-Vehicle-Data:"}, //$NON-NLS-1$ //$NON-NLS-2$
+		{":Any Communication:", ":Any-Vehicle Data:"} //$NON-NLS-1$ //$NON-NLS-2$
+	};
+	
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private BinaryLogFormat(){
+	}
+	
+	/**
+	 * Gets the sizes of the values of a record type.
+	 * 
+	 * @param type	the record type
+	 * 
+	 * @return the sizes in bytes (4 or 8) or <code>null</code> for {@link #TEXT} and {@link #STRING}
+	 */
+	public static int[] getFieldSizes(int type){
+		return FIELD_SIZES[type];
+	}
+	
+	/**
+	 * Checks if a record type refers to a string.
+	 * 
+	 * @param type	the record type
+	 * 
+	 * @return <code>true</code> if the record ends with a string id
+	 */
+	public static boolean hasString(int type){
+		return HAS_STRING[type];
+	}
+	
+	/**
+	 * Gets a key of a record.
+	 * 
+	 * @param key		one of the <code>KEY</code> constants
+	 * @param type		the record type
+	 * @param values	the array with the values
+	 * @param offset	the position of the first value in <code>values</code>
+	 * 
+	 * @return the key or <code>Long.MIN_VALUE</code> if the record type doesn't have this key
+	 */
+	public static long getKey(int key, int type, long[] values, int offset){
+		int position = KEY_POSITIONS[type][key];
+		if(position < 0) return Long.MIN_VALUE;
+		else return values[offset + position];
+	}
+	
+	/**
+	 * Gets the size of a record with a fixed layout in bytes (including the type).
+	 * 
+	 * @param type	the record type (not {@link #TEXT} or {@link #STRING})
+	 * 
+	 * @return the size
+	 */
+	public static int getRecordSize(int type){
+		int[] sizes = FIELD_SIZES[type];
+		int size = 1;
+		for(int i = 0; i < sizes.length; ++i) size += sizes[i];
+		if(HAS_STRING[type]) size += 4;
+		return size;
+	}
+	
+	/**
+	 * Writes the values of a record with a fixed layout. The buffer needs to have enough space.
+	 * 
+	 * @param buffer	the buffer
+	 * @param type		the record type (not {@link #TEXT} or {@link #STRING})
+	 * @param values	the array with the values
+	 * @param offset	the position of the first value in <code>values</code>
+	 * @param stringID	the id of the string reference (ignored if the type doesn't have one)
+	 */
+	public static void write(ByteBuffer buffer, int type, long[] values, int offset, int stringID){
+		int[] sizes = FIELD_SIZES[type];
+		buffer.put((byte)type);
+		for(int i = 0; i < sizes.length; ++i){
+			if(sizes[i] == 8) buffer.putLong(values[offset + i]);
+			else buffer.putInt((int)values[offset + i]);
+		}
+		if(HAS_STRING[type]) buffer.putInt(stringID);
+	}
+	
+	/**
+	 * Reads the values of a record with a fixed layout (after its type has been read).
+	 * 
+	 * @param in		the stream
+	 * @param type		the record type (not {@link #TEXT} or {@link #STRING})
+	 * @param values	the array to store the values in
+	 * 
+	 * @return the id of the string reference or <code>-1</code> if the type doesn't have one
+	 * 
+	 * @throws IOException if reading fails
+	 */
+	public static int read(DataInputStream in, int type, long[] values) throws IOException{
+		int[] sizes = FIELD_SIZES[type];
+		for(int i = 0; i < sizes.length; ++i){
+			if(sizes[i] == 8) values[i] = in.readLong();
+			else values[i] = in.readInt();
+		}
+		if(HAS_STRING[type]) return in.readInt();
+		else return -1;
+	}
+	
+	/**
+	 * Formats a record as the text line the log writers used to write (without line separator).
+	 * 
+	 * @param sb		the <code>StringBuilder</code> to append the line to
+	 * @param type		the record type (not {@link #STRING})
+	 * @param ref		the string reference of the record (the text for {@link #TEXT} records)
+	 * @param values	the array with the values
+	 * @param offset	the position of the first value in <code>values</code>
+	 */
+	public static void format(StringBuilder sb, int type, Object ref, long[] values, int offset){
+		long[] v = values;
+		int o = offset;
+		switch(type){
+			case TEXT:
+				sb.append(ref);
+				break;
+			case MIX_ZONE:
+				appendVehicle(sb, v, o);
+				sb.append(":Node ID:").append(v[o + 5]).append(":Direction:").append(DIRECTIONS[(int)v[o + 6]]); //$NON-NLS-1$ //$NON-NLS-2$
+				sb.append(":Street:").append(ref).append(":StreetSpeed:").append(v[o + 7]).append(":VehicleSpeed:").append(v[o + 8]); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				sb.append(":x:").append(v[o + 9]).append(":y:").append(v[o + 10]); //$NON-NLS-1$ //$NON-NLS-2$
+				break;
+			case SILENT_PERIOD:
+				appendVehicle(sb, v, o);
+				sb.append(":Node ID:none:Direction:").append(DIRECTIONS[(int)v[o + 5]]); //$NON-NLS-1$
+				sb.append(":x:").append(v[o + 6]).append(":y:").append(v[o + 7]); //$NON-NLS-1$ //$NON-NLS-2$
+				break;
+			case SAVED_BEACON:
+				appendVehicle(sb, v, o);
+				sb.append(":Node ID:None:Direction:").append(DIRECTIONS[(int)v[o + 5]]); //$NON-NLS-1$
+				sb.append(":Street:").append(ref).append(":StreetSpeed:").append(v[o + 6]).append(":VehicleSpeed:").append(v[o + 7]); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				sb.append(":x:").append(v[o + 8]).append(":y:").append(v[o + 9]); //$NON-NLS-1$ //$NON-NLS-2$
+				if(v[o + 10] != Long.MIN_VALUE) sb.append(":TimeInSlow:").append(v[o + 10]); //$NON-NLS-1$
+				break;
+			case DESTINATION_REACHED:
+				sb.append("VehicleReachedDestination:").append(v[o]).append(':').append(Long.toHexString(v[o + 1])); //$NON-NLS-1$
+				break;
+			case ATTACK_DATA:
+				String[] source = SOURCES[(int)v[o]];
+				sb.append(v[o + 1]).append(source[0]);
+				if(v[o] == SOURCE_ATTACKER_ATTACKED || v[o] == SOURCE_ATTACKER_OTHER) sb.append(Long.toHexString(v[o + 2]));
+				else sb.append(v[o + 2]);
+				sb.append(source[1]).append(Long.toHexString(v[o + 3])).append(':').append(v[o + 4]).append(':').append(v[o + 5]);
+				sb.append(':').append(Double.longBitsToDouble(v[o + 6])).append(':').append(v[o + 7] != 0);
+				break;
+			case RSU_DATA:
+				sb.append(v[o]).append(":Any RSU Communication:").append(v[o + 1]).append(":Any-Vehicle Data:").append(Long.toHexString(v[o + 2])); //$NON-NLS-1$ //$NON-NLS-2$
+				sb.append(':').append(v[o + 3]).append(':').append(v[o + 4]).append(':').append(v[o + 5] != 0);
+				break;
+			case BEACON:
+				sb.append(v[o]).append(':').append(v[o + 1]).append(':').append(v[o + 2]).append(':').append(Double.longBitsToDouble(v[o + 3]));
+				break;
+			case PENALTY:
+				sb.append(v[o]).append(',').append(ref).append(',').append(v[o + 1]).append(',').append(v[o + 2]).append(',').append(v[o + 3]).append(',').append(v[o + 4]);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown log record type " + type); //$NON-NLS-1$
+		}
+	}
+	
+	/**
+	 * Appends the vehicle part which is the same for all privacy records.
+	 * 
+	 * @param sb		the <code>StringBuilder</code>
+	 * @param v			the array with the values
+	 * @param o			the position of the first value in <code>v</code>
+	 */
+	private static void appendVehicle(StringBuilder sb, long[] v, int o){
+		sb.append(v[o]).append(":Steady ID:").append(v[o + 1]).append(":Pseudonym:").append(Long.toHexString(v[o + 2])); //$NON-NLS-1$ //$NON-NLS-2$
+		sb.append(":TraveledDistance:").append(v[o + 3]).append(":TraveledTime:").append(v[o + 4]); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
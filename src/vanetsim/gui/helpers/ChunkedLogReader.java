@@ -0,0 +1,312 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads log files in the <code>clog</code> format of the {@link AsyncLogFile}. Such a file starts with a header (magic 
+ * number and version) followed by chunks of compressed text lines. Each chunk starts with an uncompressed header 
+ * containing the length of the text, the length of the compressed data, the amount of records, the smallest and largest 
+ * time, steady ID and mix zone node ID of the records in the chunk, a bit mask of the node IDs (modulo 64) and a flag 
+ * if the chunk contains text records without these keys. The mask allows to skip most chunks when looking for the 
+ * records of a single mix zone even though the node IDs of the records in a chunk are mixed. The headers are read 
+ * when the file is opened so that only the chunks which are needed have to be decompressed. The text of all chunks 
+ * together is the same as the text of a log file in the <code>log</code> format.
+ * <br><br>
+ * Chunks are only skipped where a query is limited to a key: the {@link LogOperations} use this for the k-anonymity 
+ * of each mix zone. The attacks themselves need all records in the order of the log and decompress every chunk once. 
+ * The {@link ReverseLineReader} seeks to the chunk of a position without decompressing the chunks before it.
+ */
+public final class ChunkedLogReader {
+	
+	/** The magic number at the start of a chunked log file ("VSCL"). */
+	public static final int MAGIC = 0x5653434C;
+	
+	/** The version of the file format. */
+	public static final int VERSION = 1;
+	
+	/** The size of the header of a chunk in bytes. */
+	public static final int CHUNK_HEADER_SIZE = 12 + BinaryLogFormat.KEY_COUNT * 16 + 9;
+	
+	/** The extension of chunked log files. */
+	private static final String EXTENSION = ".clog"; //$NON-NLS-1$
+	
+	/** The file. */
+	private final RandomAccessFile file_;
+	
+	/** The amount of chunks. */
+	private int chunkCount_ = 0;
+	
+	/** The positions of the compressed data of the chunks in the file. */
+	private long[] positions_ = new long[64];
+	
+	/** The lengths of the compressed data of the chunks. */
+	private int[] compressedLengths_ = new int[64];
+	
+	/** The positions of the chunks in the text. The last element is the length of the text. */
+	private long[] starts_ = new long[65];
+	
+	/** The smallest keys of the chunks (<code>[key][chunk]</code>). */
+	private long[][] minKeys_ = new long[BinaryLogFormat.KEY_COUNT][64];
+	
+	/** The largest keys of the chunks (<code>[key][chunk]</code>). */
+	private long[][] maxKeys_ = new long[BinaryLogFormat.KEY_COUNT][64];
+	
+	/** The bit masks of the node IDs (modulo 64) of the chunks. */
+	private long[] nodeMasks_ = new long[64];
+	
+	/** <code>true</code> for chunks which contain text records without keys. */
+	private boolean[] unindexed_ = new boolean[64];
+	
+	/** The decompressor. */
+	private final Inflater inflater_ = new Inflater();
+	
+	/**
+	 * Opens a chunked log file and reads the headers of all chunks. An incomplete chunk at the end of the file (if 
+	 * the simulation was aborted while writing it) is ignored.
+	 * 
+	 * @param path	the path of the file
+	 * 
+	 * @throws IOException if the file can't be read or isn't a chunked log file
+	 */
+	public ChunkedLogReader(String path) throws IOException{
+		file_ = new RandomAccessFile(path, "r"); //$NON-NLS-1$
+		try{
+			long length = file_.length();
+			if(length < 8 || file_.readInt() != MAGIC) throw new IOException(path + " is not a chunked log file"); //$NON-NLS-1$
+			int version = file_.readInt();
+			if(version != VERSION) throw new IOException(path + " has the unsupported version " + version); //$NON-NLS-1$
+			long position = 8;
+			while(position + CHUNK_HEADER_SIZE <= length){
+				file_.seek(position);
+				int textLength = file_.readInt();
+				int compressedLength = file_.readInt();
+				file_.readInt();	// amount of records
+				position += CHUNK_HEADER_SIZE;
+				if(position + compressedLength > length) break;
+				if(chunkCount_ == positions_.length) grow();
+				for(int i = 0; i < BinaryLogFormat.KEY_COUNT; ++i){
+					minKeys_[i][chunkCount_] = file_.readLong();
+					maxKeys_[i][chunkCount_] = file_.readLong();
+				}
+				nodeMasks_[chunkCount_] = file_.readLong();
+				unindexed_[chunkCount_] = file_.readByte() != 0;
+				positions_[chunkCount_] = position;
+				compressedLengths_[chunkCount_] = compressedLength;
+				starts_[chunkCount_ + 1] = starts_[chunkCount_] + textLength;
+				++chunkCount_;
+				position += compressedLength;
+			}
+		} catch (IOException e){
+			file_.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Doubles the size of the arrays for the chunks.
+	 */
+	private void grow(){
+		int size = positions_.length * 2;
+		long[] newPositions = new long[size];
+		System.arraycopy(positions_, 0, newPositions, 0, chunkCount_);
+		positions_ = newPositions;
+		int[] newLengths = new int[size];
+		System.arraycopy(compressedLengths_, 0, newLengths, 0, chunkCount_);
+		compressedLengths_ = newLengths;
+		long[] newStarts = new long[size + 1];
+		System.arraycopy(starts_, 0, newStarts, 0, chunkCount_ + 1);
+		starts_ = newStarts;
+		for(int i = 0; i < BinaryLogFormat.KEY_COUNT; ++i){
+			long[] newKeys = new long[size];
+			System.arraycopy(minKeys_[i], 0, newKeys, 0, chunkCount_);
+			minKeys_[i] = newKeys;
+			newKeys = new long[size];
+			System.arraycopy(maxKeys_[i], 0, newKeys, 0, chunkCount_);
+			maxKeys_[i] = newKeys;
+		}
+		long[] newMasks = new long[size];
+		System.arraycopy(nodeMasks_, 0, newMasks, 0, chunkCount_);
+		nodeMasks_ = newMasks;
+		boolean[] newUnindexed = new boolean[size];
+		System.arraycopy(unindexed_, 0, newUnindexed, 0, chunkCount_);
+		unindexed_ = newUnindexed;
+	}
+	
+	/**
+	 * Checks if a path belongs to a chunked log file.
+	 * 
+	 * @param path	the path
+	 * 
+	 * @return <code>true</code> if the file has the extension of chunked log files
+	 */
+	public static boolean isChunkedLog(String path){
+		return path.endsWith(EXTENSION);
+	}
+	
+	/**
+	 * Gets the amount of chunks.
+	 * 
+	 * @return the amount of chunks
+	 */
+	public int getChunkCount(){
+		return chunkCount_;
+	}
+	
+	/**
+	 * Gets the length of the uncompressed text of all chunks.
+	 * 
+	 * @return the length in bytes
+	 */
+	public long getLength(){
+		return starts_[chunkCount_];
+	}
+	
+	/**
+	 * Gets the position of a chunk in the uncompressed text.
+	 * 
+	 * @param chunk	the index of the chunk
+	 * 
+	 * @return the position of the first byte of the chunk
+	 */
+	public long getChunkStart(int chunk){
+		return starts_[chunk];
+	}
+	
+	/**
+	 * Finds the chunk which contains a position of the uncompressed text.
+	 * 
+	 * @param position	the position in the text
+	 * 
+	 * @return the index of the chunk or <code>-1</code> if the position is outside of the text
+	 */
+	public int findChunk(long position){
+		if(position < 0 || position >= starts_[chunkCount_]) return -1;
+		int low = 0, high = chunkCount_ - 1, middle;
+		while(low < high){
+			middle = (low + high + 1) >>> 1;
+			if(starts_[middle] <= position) low = middle;
+			else high = middle - 1;
+		}
+		return low;
+	}
+	
+	/**
+	 * Checks if a chunk may contain records with a key in a range. Chunks with text records are always matching 
+	 * as their keys are unknown. For a single node ID, the bit mask of the chunk is checked as well.
+	 * 
+	 * @param chunk	the index of the chunk
+	 * @param key	one of the <code>KEY</code> constants of {@link BinaryLogFormat}
+	 * @param min	the smallest value of the key
+	 * @param max	the largest value of the key
+	 * 
+	 * @return <code>true</code> if the chunk needs to be read
+	 */
+	public boolean matches(int chunk, int key, long min, long max){
+		if(unindexed_[chunk]) return true;
+		if(minKeys_[key][chunk] > max || maxKeys_[key][chunk] < min) return false;
+		if(key == BinaryLogFormat.KEY_NODE_ID && min == max) return (nodeMasks_[chunk] & (1L << (min & 63))) != 0;
+		return true;
+	}
+	
+	/**
+	 * Reads and decompresses a chunk.
+	 * 
+	 * @param chunk	the index of the chunk
+	 * 
+	 * @return the encoded text of the chunk
+	 * 
+	 * @throws IOException if reading fails or the data is corrupt
+	 */
+	public synchronized byte[] readChunk(int chunk) throws IOException{
+		byte[] compressed = new byte[compressedLengths_[chunk]];
+		file_.seek(positions_[chunk]);
+		file_.readFully(compressed);
+		byte[] text = new byte[(int)(starts_[chunk + 1] - starts_[chunk])];
+		inflater_.reset();
+		inflater_.setInput(compressed);
+		try{
+			int length = 0;
+			while(length < text.length && !inflater_.finished()){
+				int read = inflater_.inflate(text, length, text.length - length);
+				if(read == 0 && inflater_.needsInput()) break;
+				length += read;
+			}
+			if(length != text.length) throw new IOException("Chunk " + chunk + " is incomplete"); //$NON-NLS-1$ //$NON-NLS-2$
+		} catch (DataFormatException e){
+			throw new IOException("Chunk " + chunk + " is corrupt: " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return text;
+	}
+	
+	/**
+	 * Reads the text of all chunks.
+	 * 
+	 * @return the text
+	 * 
+	 * @throws IOException if reading fails
+	 */
+	public String readText() throws IOException{
+		return readText(-1, 0, 0);
+	}
+	
+	/**
+	 * Reads the text of all chunks which may contain records with a key in a range (see 
+	 * {@link #matches(int, int, long, long)}). The text is decoded with the default charset like the text written by 
+	 * the log writers.
+	 * 
+	 * @param key	one of the <code>KEY</code> constants of {@link BinaryLogFormat} or <code>-1</code> to read all chunks
+	 * @param min	the smallest value of the key
+	 * @param max	the largest value of the key
+	 * 
+	 * @return the text of the chunks
+	 * 
+	 * @throws IOException if reading fails
+	 */
+	public String readText(int key, long min, long max) throws IOException{
+		long length = 0;
+		for(int i = 0; i < chunkCount_; ++i){
+			if(key < 0 || matches(i, key, min, max)) length += starts_[i + 1] - starts_[i];
+		}
+		if(length > Integer.MAX_VALUE) throw new IOException("The text is too large to be read at once"); //$NON-NLS-1$
+		byte[] data = new byte[(int)length];
+		int position = 0;
+		for(int i = 0; i < chunkCount_; ++i){
+			if(key < 0 || matches(i, key, min, max)){
+				byte[] text = readChunk(i);
+				System.arraycopy(text, 0, data, position, text.length);
+				position += text.length;
+			}
+		}
+		return new String(data);
+	}
+	
+	/**
+	 * Closes the file.
+	 * 
+	 * @throws IOException if closing fails
+	 */
+	public synchronized void close() throws IOException{
+		inflater_.end();
+		file_.close();
+	}
+}
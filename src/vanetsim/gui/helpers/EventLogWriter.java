@@ -18,11 +18,7 @@
 package vanetsim.gui.helpers;
 
 import java.text.SimpleDateFormat;
-import java.util.logging.FileHandler;
-import java.util.logging.Level;
-import java.util.logging.XMLFormatter;
 
-import java.util.logging.Logger;
 import vanetsim.ErrorLog;
 import vanetsim.localization.Messages;
 import vanetsim.scenario.Scenario;
@@ -32,18 +28,6 @@ import vanetsim.scenario.Scenario;
  */
 public final class EventLogWriter {
 
-	/** The <code>java.util.logging.Logger</code> instance. */
-	private static Logger logger = Logger.getLogger("EventLog"); //$NON-NLS-1$
-
-	/** Path of log */
-	private static String logPath = "";
-
-	/** Old path of log */
-	private static String logOldPath = "";
-
-	/** file handler */
-	private static FileHandler handler = null;
-
 	/**
 	 * Sets the parameters for the static class.
 	 * 
@@ -54,25 +38,18 @@ public final class EventLogWriter {
 	 *            <code>xml</code>)
 	 */
 	public static void setParameters(String dir, String format) {
-		logger.setLevel(Level.FINEST);
-		logPath = dir;
+		SimulationLogs.LogState log = SimulationLogs.getInstance().eventLog_;
+		log.path_ = dir;
 
 		java.util.Date dt = new java.util.Date();
 		SimpleDateFormat df = new SimpleDateFormat("dd.MM.yyyy_HH.mm.ss"); //$NON-NLS-1$
 		try {
-			if (!dir.equals(logOldPath)) {
-				if (handler != null)
-					logger.removeHandler(handler);
+			if (!dir.equals(log.oldPath_)) {
+				if(log.file_ != null) AsyncLogPipeline.close(log.file_);
 				String scenName = Scenario.getInstance().getScenarioName();
-				if(scenName != null && !scenName.equals("")) handler = new FileHandler(dir + "EventLog_" + scenName.substring(0, scenName.length()-4) + "_" + df.format(dt) + "." + format, true);//$NON-NLS-1$ //$NON-NLS-2$
-				else handler = new FileHandler(dir + "EventLog_" + df.format(dt) + "." + format, true);//$NON-NLS-1$ //$NON-NLS-2$
-				logOldPath = dir;
-				logger.setUseParentHandlers(false); // don't log to console
-				logger.addHandler(handler);
-				if (format.equals("log")) //$NON-NLS-1$
-					handler.setFormatter(new LogFormatter());
-				else
-					handler.setFormatter(new XMLFormatter());
+				if(scenName != null && !scenName.equals("")) log.file_ = AsyncLogPipeline.open(dir + "EventLog_" + AsyncLogPipeline.removeExtension(scenName) + "_" + df.format(dt) + "." + format, format);//$NON-NLS-1$ //$NON-NLS-2$
+				else log.file_ = AsyncLogPipeline.open(dir + "EventLog_" + df.format(dt) + "." + format, format);//$NON-NLS-1$ //$NON-NLS-2$
+				log.oldPath_ = dir;
 			}
 		} catch (Exception e) {
 			ErrorLog
@@ -89,14 +66,8 @@ public final class EventLogWriter {
 	 * @param mode log mode
 	 *            
 	 */
-	public static synchronized void log(String message, int mode) {
-		try {
-			logger.log(Level.FINEST, message);
-		} catch (Exception new_e) {
-			System.out
-					.println(Messages.getString("ErrorLog.whileLogging") + message + ")! " + new_e.getLocalizedMessage()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			new_e.printStackTrace();
-		}
+	public static void log(String message, int mode) {
+		AsyncLogPipeline.log(state().file_, message);
 	}
 
 	/**
@@ -105,24 +76,41 @@ public final class EventLogWriter {
 	 * @param message
 	 *            data to log
 	 */
-	public static synchronized void log(String message) {
-		try {
-			logger.log(Level.FINEST, message);
-		} catch (Exception new_e) {
-			System.out
-					.println(Messages.getString("ErrorLog.whileLogging") + message + ")! " + new_e.getLocalizedMessage()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			new_e.printStackTrace();
-		}
+	public static void log(String message) {
+		AsyncLogPipeline.log(state().file_, message);
+	}
+
+	/**
+	 * Logs a penalty received by a vehicle.
+	 * 
+	 * @param time			the simulation time
+	 * @param penaltyType	the type of the penalty
+	 * @param x				the x coordinate of the penalty
+	 * @param y				the y coordinate of the penalty
+	 * @param sender		the ID of the sender
+	 * @param receiver		the ID of the receiver
+	 */
+	public static void logPenalty(int time, String penaltyType, int x, int y, long sender, long receiver) {
+		AsyncLogPipeline.log(state().file_, BinaryLogFormat.PENALTY, penaltyType, time, x, y, sender, receiver, 0, 0, 0, 0, 0, 0);
 	}
 
 	public static void setLogPath(String logPath) {
 		setParameters(logPath + "/", "log");
-		EventLogWriter.logPath = logPath;
+		state().path_ = logPath;
 		
 		
 	}
 
 	public static String getLogPath() {
-		return logPath;
+		return state().path_;
+	}
+	
+	/**
+	 * Gets the state of this log in the simulation context bound to the calling thread.
+	 * 
+	 * @return the state
+	 */
+	private static SimulationLogs.LogState state() {
+		return SimulationLogs.getInstance().eventLog_;
 	}
 }
\ No newline at end of file
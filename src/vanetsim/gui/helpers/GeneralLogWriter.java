@@ -18,10 +18,6 @@
 package vanetsim.gui.helpers;
 
 import java.text.SimpleDateFormat;
-import java.util.logging.FileHandler;
-import java.util.logging.Level;
-import java.util.logging.XMLFormatter;
-import java.util.logging.Logger;
 
 import vanetsim.ErrorLog;
 import vanetsim.localization.Messages;
@@ -32,21 +28,6 @@ import vanetsim.scenario.Scenario;
  */
 public final class GeneralLogWriter {
 
-	/** The <code>java.util.logging.Logger</code> instance. */
-	private static Logger logger = Logger.getLogger("GeneralLog"); //$NON-NLS-1$
-
-	/** Path of log */
-	private static String logPath = "";
-
-	/** Old path of log */
-	private static String logOldPath = "";
-
-	/** file handler */
-	private static FileHandler handler = null;
-	
-	/** the complete filePath + name */
-	private static String file_ = "";
-
 	/**
 	 * Sets the parameters for the static class.
 	 * 
@@ -57,28 +38,22 @@ public final class GeneralLogWriter {
 	 *            <code>xml</code>)
 	 */
 	public static void setParameters(String dir, String format) {
-		logger.setLevel(Level.FINEST);
-		logPath = dir;
+		SimulationLogs logs = SimulationLogs.getInstance();
+		SimulationLogs.LogState log = logs.generalLog_;
+		log.path_ = dir;
 		
 		java.util.Date dt = new java.util.Date();
 		SimpleDateFormat df = new SimpleDateFormat("dd.MM.yyyy_HH.mm.ss"); //$NON-NLS-1$
 		try {
-			if (!dir.equals(logOldPath)) {
-				if (handler != null)
-					logger.removeHandler(handler);
+			if (!dir.equals(log.oldPath_)) {
+				if(log.file_ != null) AsyncLogPipeline.close(log.file_);
 				String scenName = Scenario.getInstance().getScenarioName();
 				
-				if(scenName != null && !scenName.equals("")) file_ = (dir + scenName.substring(0, scenName.length()-4) + "_" + df.format(dt) + "." + format);//$NON-NLS-1$ //$NON-NLS-2$
-				else file_ = (dir + "GeneralLog_" + df.format(dt) + "." + format);//$NON-NLS-1$ //$NON-NLS-2$
+				if(scenName != null && !scenName.equals("")) logs.generalFile_ = (dir + AsyncLogPipeline.removeExtension(scenName) + "_" + df.format(dt) + "." + format);//$NON-NLS-1$ //$NON-NLS-2$
+				else logs.generalFile_ = (dir + "GeneralLog_" + df.format(dt) + "." + format);//$NON-NLS-1$ //$NON-NLS-2$
 				
-				handler = new FileHandler(file_, true);//$NON-NLS-1$ //$NON-NLS-2$
-				logOldPath = dir;
-				logger.setUseParentHandlers(false); // don't log to console
-				logger.addHandler(handler);
-				if (format.equals("log")) //$NON-NLS-1$
-					handler.setFormatter(new LogFormatter());
-				else
-					handler.setFormatter(new XMLFormatter());
+				log.file_ = AsyncLogPipeline.open(logs.generalFile_, format);//$NON-NLS-1$ //$NON-NLS-2$
+				log.oldPath_ = dir;
 			
 			}
 		} catch (Exception e) {
@@ -96,14 +71,8 @@ public final class GeneralLogWriter {
 	 * @param mode log mode
 	 *            
 	 */
-	public static synchronized void log(String message, int mode) {
-		try {
-			logger.log(Level.FINEST, message);
-		} catch (Exception new_e) {
-			System.out
-					.println(Messages.getString("ErrorLog.whileLogging") + message + ")! " + new_e.getLocalizedMessage()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			new_e.printStackTrace();
-		}
+	public static void log(String message, int mode) {
+		AsyncLogPipeline.log(state().file_, message);
 	}
 
 	/**
@@ -112,29 +81,45 @@ public final class GeneralLogWriter {
 	 * @param message
 	 *            data to log
 	 */
-	public static synchronized void log(String message) {
-		try {
-			logger.log(Level.FINEST, message);
-		} catch (Exception new_e) {
-			System.out.println(Messages.getString("ErrorLog.whileLogging") + message + ")! " + new_e.getLocalizedMessage()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			new_e.printStackTrace();
-		}
+	public static void log(String message) {
+		AsyncLogPipeline.log(state().file_, message);
+	}
+
+	/**
+	 * Logs a beacon sent by a vehicle.
+	 * 
+	 * @param ID	the pseudonym of the vehicle
+	 * @param x		the x coordinate of the vehicle
+	 * @param y		the y coordinate of the vehicle
+	 * @param speed	the speed of the vehicle
+	 */
+	public static void logBeacon(long ID, int x, int y, double speed) {
+		AsyncLogPipeline.log(state().file_, BinaryLogFormat.BEACON, null, ID, x, y, Double.doubleToRawLongBits(speed), 0, 0, 0, 0, 0, 0, 0);
 	}
 
 	public static void setLogPath(String logPath) {
 		setParameters(logPath + "/", "log");
-		GeneralLogWriter.logPath = logPath;
+		state().path_ = logPath;
 	}
 
 	public static String getLogPath() {
-		return logPath;
+		return state().path_;
 	}
 
 	public static String getFile_() {
-		return file_;
+		return SimulationLogs.getInstance().generalFile_;
 	}
 
 	public static void setFile_(String file_) {
-		GeneralLogWriter.file_ = file_;
+		SimulationLogs.getInstance().generalFile_ = file_;
+	}
+	
+	/**
+	 * Gets the state of this log in the simulation context bound to the calling thread.
+	 * 
+	 * @return the state
+	 */
+	private static SimulationLogs.LogState state() {
+		return SimulationLogs.getInstance().generalLog_;
 	}
 }
\ No newline at end of file
@@ -31,9 +31,39 @@ import vanetsim.gui.controlpanels.LogAnalyserDialog;
 import vanetsim.localization.Messages;
 
 public class LogAnalyser {
+	/** default value of the time buffer (in ms) */
+	public static final double DEFAULT_TIME_BUFFER = 0;
+	
+	/** default value to tune the expected times and ways */
+	public static final double DEFAULT_TUNE_TIME = 2.2;
+	
+	/** default probability that a vehicle leaves a mix zone on a bigger street */
+	public static final double DEFAULT_BIGGER_STREET = 0.9;
+	
+	/** default probability that a vehicle leaves a mix zone on a smaller street */
+	public static final double DEFAULT_SMALLER_STREET = 0.85;
+	
+	/** default probability that a vehicle drives straight through a mix zone */
+	public static final double DEFAULT_DRIVES_STRAIGHT = 0.9;
+	
+	/** default probability that a vehicle turns in a mix zone */
+	public static final double DEFAULT_TURNS = 0.9;
+	
+	/** default probability that a vehicle makes a u-turn in a mix zone */
+	public static final double DEFAULT_MAKES_U_TURN = 0.1;
+	
+	/** default limit of the angle (in degrees) */
+	public static final double DEFAULT_LIMIT_TO_ANGLE = 170;
+	
+	/** default time (in ms) after the start of a SLOW period in which leaving vehicles are compared */
+	public static final int DEFAULT_MAX_SLOW_SEARCH_TIME = 10000;
+	
 	/** gui mode or console mode */
 	boolean guiMode = false;
 	
+	/** batch mode (one of many jobs running in parallel, no console output except the results) */
+	private boolean batchMode = false;
+	
 	/** GUI */
 	LogAnalyserDialog logDialog_;
 
@@ -71,15 +101,15 @@ public class LogAnalyser {
 	private String advancedFilePath_ = "";
 	
 	/** elements to control the simulation */
-	private double timeBufferValue = 0;
-	private double tuneTimeValue = 0;
-	private double biggerStreetValue = 0;
-	private double smallerStreetValue = 0;
-	private double drivesStraigthValue = 0;
-	private double turnsValue = 0;
-	private double makesUTurnValue = 0;
-	private double limitToAngle = 0;
-	private double maxSlowSearchTime = 0;
+	private double timeBufferValue = DEFAULT_TIME_BUFFER;
+	private double tuneTimeValue = DEFAULT_TUNE_TIME;
+	private double biggerStreetValue = DEFAULT_BIGGER_STREET;
+	private double smallerStreetValue = DEFAULT_SMALLER_STREET;
+	private double drivesStraigthValue = DEFAULT_DRIVES_STRAIGHT;
+	private double turnsValue = DEFAULT_TURNS;
+	private double makesUTurnValue = DEFAULT_MAKES_U_TURN;
+	private double limitToAngle = DEFAULT_LIMIT_TO_ANGLE;
+	private double maxSlowSearchTime = DEFAULT_MAX_SLOW_SEARCH_TIME;
 	private boolean useProbability = false;
 	
 	/**
@@ -91,8 +121,14 @@ public class LogAnalyser {
 		guiMode = true;
 	}
 	
+	/**
+	 * Starts the log analyser in console mode. If the amount of threads is given, the jobs are run in parallel by the 
+	 * {@link LogAnalyserJobRunner}.
+	 * @param args optional amount of threads
+	 */
 	public static void main(String[] args){
-		new LogAnalyser();
+		if(args.length > 0) LogAnalyserJobRunner.main(args);
+		else new LogAnalyser();
 	}
 	
 	/**
@@ -106,6 +142,19 @@ public class LogAnalyser {
 		startNextJob(true);
 	}
 	
+	/**
+	 * Constructor for one job of the {@link LogAnalyserJobRunner}. Nothing is printed to the console but the results are written to 
+	 * the files like in console mode. Without a job, the analyser can be used to read and document the jobs or to get the 
+	 * default values of the attacks.
+	 * @param job the job (same format as in jobs.txt) or <code>null</code>
+	 */
+	LogAnalyser(String job){
+		logDialog_ = null;
+		guiMode = false;
+		batchMode = true;
+		if(job != null) setJob(job);
+	}
+	
 	/**
 	 * Handles the control elements of the GUI
 	 * @param element
@@ -138,7 +187,7 @@ public class LogAnalyser {
 		if(guiMode){
 			logDialog_.getProgressBar().setValue(logDialog_.getProgressBar().getValue() + value);
 		}
-		else System.out.print(".");
+		else if(!batchMode) System.out.print(".");
 	}
 	
 	/**
@@ -191,29 +240,9 @@ public class LogAnalyser {
 			}
 			
 			//save job
-			actualJob = jobs.get(jobs.size()-1).split(":")[0];
-			
-			plainJob = jobs.get(jobs.size()-1);
+			setJob(jobs.get(jobs.size()-1));
 			updateInformationArea("\nNext job: " + plainJob + "\n");
 			
-			filePathChanged = true;
-			advancedFilePathChanged = true;
-			
-			//get parameters of the job
-			logType = plainJob.split(":")[1];
-			attackType = plainJob.split(":")[2];
-			timeBufferValue = Double.parseDouble(plainJob.split(":")[3]);
-			tuneTimeValue = Double.parseDouble(plainJob.split(":")[4]);
-			biggerStreetValue = Double.parseDouble(plainJob.split(":")[5]);
-			smallerStreetValue = Double.parseDouble(plainJob.split(":")[6]);
-			drivesStraigthValue = Double.parseDouble(plainJob.split(":")[7]);
-			turnsValue = Double.parseDouble(plainJob.split(":")[8]);
-			makesUTurnValue = Double.parseDouble(plainJob.split(":")[9]);
-			limitToAngle = Double.parseDouble(plainJob.split(":")[10]);
-			useProbability = Boolean.parseBoolean(plainJob.split(":")[11]);
-			advancedFilePath_ = plainJob.split(":")[12];
-			if(plainJob.length() > 13) 	maxSlowSearchTime = Double.parseDouble(plainJob.split(":")[13]);
-			
 			//Used to update job status on web. Deactivated in this version. Check your simulation status anywhere ;)
 			/*
 			URL url;
@@ -241,71 +270,94 @@ public class LogAnalyser {
 		guiControl("progressBar", true);
 		guiControl("startBtn", false);
 		guiControl("stopBtn", true);
-		logOutput_="";
 		
 		//now work the job ;-)
+		operation_ = createOperation();
+		if(operation_ != null) operation_.start();
+		else System.out.println("all jobs finished");
+		
+		
+		//check if there a new jobs in the queue which can be loaded
+		addNewJobs();
+		
+		System.out.println("Time:" + new Date());
+	}
+	
+	/**
+	 * Sets the parameters of a job
+	 * @param job the job (same format as in jobs.txt)
+	 */
+	public void setJob(String job){
+		actualJob = job.split(":")[0];
+		// binary logs are converted to text first, compressed logs are read directly
+		actualJob = BinaryLogConverter.toTextFile(actualJob);
+		
+		plainJob = job;
+		
+		filePathChanged = true;
+		advancedFilePathChanged = true;
+		
+		//get parameters of the job
+		logType = plainJob.split(":")[1];
+		attackType = plainJob.split(":")[2];
+		timeBufferValue = Double.parseDouble(plainJob.split(":")[3]);
+		tuneTimeValue = Double.parseDouble(plainJob.split(":")[4]);
+		biggerStreetValue = Double.parseDouble(plainJob.split(":")[5]);
+		smallerStreetValue = Double.parseDouble(plainJob.split(":")[6]);
+		drivesStraigthValue = Double.parseDouble(plainJob.split(":")[7]);
+		turnsValue = Double.parseDouble(plainJob.split(":")[8]);
+		makesUTurnValue = Double.parseDouble(plainJob.split(":")[9]);
+		limitToAngle = Double.parseDouble(plainJob.split(":")[10]);
+		useProbability = Boolean.parseBoolean(plainJob.split(":")[11]);
+		advancedFilePath_ = plainJob.split(":")[12];
+		if(plainJob.length() > 13) 	maxSlowSearchTime = Double.parseDouble(plainJob.split(":")[13]);
+	}
+	
+	/**
+	 * Creates the operation for the current job
+	 * @return the operation or <code>null</code> if the log type or attack type is unknown
+	 */
+	public LogOperations createOperation(){
+		logOutput_="";
+		
 		//check which analysis should be used
+		String operation = null;
 		if(logType.equals("mixzone")){
 			if(attackType.equals("standard")){
-				System.out.println("Starting standard mix attack...");
-				
-				logName = "standard";
-				operation_ = new LogOperations(this);
-				operation_.setOperation("MixStandard");
-				operation_.start();
+				if(!batchMode) System.out.println("Starting standard mix attack...");
+				operation = "MixStandard";
 			}
 			else if(attackType.equals("advanced")){
-				System.out.println("Starting advanced mix attack...");
-				
-				logName = "advanced";
-				operation_ = new LogOperations(this);
-				operation_.setOperation("MixAdvanced");
-				operation_.start();					
+				if(!batchMode) System.out.println("Starting advanced mix attack...");
+				operation = "MixAdvanced";
 			}		
 		}
 		else if(logType.equals("silentperiod")){
 			if(attackType.equals("standard")){
-				System.out.println("Starting standard silent period attack...");
-				
-				logName = "standard";
-				operation_ = new LogOperations(this);
-				operation_.setOperation("SilentStandard");
-				operation_.start();					
+				if(!batchMode) System.out.println("Starting standard silent period attack...");
+				operation = "SilentStandard";
 			}
 			else if(attackType.equals("advanced")){
-				System.out.println("Starting advanced silent period attack...");
-				
-				logName = "advanced";
-				operation_ = new LogOperations(this);
-				operation_.setOperation("SilentAdvanced");
-				operation_.start();					
+				if(!batchMode) System.out.println("Starting advanced silent period attack...");
+				operation = "SilentAdvanced";
 			}	
 		}
 		else if(logType.equals("slow")){
 			if(attackType.equals("standard")){
-				System.out.println("Starting standard slow attack...");
-				
-				logName = "standard";
-				operation_ = new LogOperations(this);
-				operation_.setOperation("SlowStandard");
-				operation_.start();					
+				if(!batchMode) System.out.println("Starting standard slow attack...");
+				operation = "SlowStandard";
 			}
 			else if(attackType.equals("advanced")){
-				System.out.println("Starting advanced slow attack...");
-				
-				logName = "advanced";
-				operation_ = new LogOperations(this);
-				operation_.setOperation("SlowAdvanced");
-				operation_.start();					
+				if(!batchMode) System.out.println("Starting advanced slow attack...");
+				operation = "SlowAdvanced";
 			}	
 		}
-		else System.out.println("all jobs finished");
+		if(operation == null) return null;
 		
-		
-		//check if there a new jobs in the queue which can be loaded
-		addNewJobs();
-		
-		System.out.println("Time:" + new Date());
+		logName = attackType;
+		LogOperations logOperations = new LogOperations(this);
+		logOperations.setOperation(operation);
+		return logOperations;
 	}
 	
 	/**
@@ -442,7 +494,7 @@ public class LogAnalyser {
 			}
 		}
 		else{
-			if(text != null){
+			if(text != null && !batchMode){
 				System.out.println(text);
 			}
 		}
@@ -460,7 +512,7 @@ public class LogAnalyser {
 		}
 		else{
 			if(text != null){
-				System.out.print(text);
+				if(!batchMode) System.out.print(text);
 				if(text != null && b)logOutput_ += text;
 			}
 		}
@@ -472,7 +524,7 @@ public class LogAnalyser {
 	 */
 	public void writeResultsToFile(String fileName){
 		try {
-			BufferedWriter out = new BufferedWriter(new FileWriter(actualJob.substring(0,actualJob.length()-4) + "_" + logName + "_" + fileName + "_analyzed.txt"));
+			BufferedWriter out = new BufferedWriter(new FileWriter(AsyncLogPipeline.removeExtension(actualJob) + "_" + logName + "_" + fileName + "_analyzed.txt"));
 			out.write(logOutput_);
 			out.close();
 			logOutput_ = "";
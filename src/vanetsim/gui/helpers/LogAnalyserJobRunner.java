@@ -0,0 +1,217 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the jobs of the <code>jobs.txt</code> file of the {@link LogAnalyser} in parallel. The jobs are independent log files so each 
+ * job gets its own <code>LogAnalyser</code> and {@link LogOperations} and writes its results with 
+ * {@link LogAnalyser#writeResultsToFile(String)} like in console mode. Finished jobs are documented in <code>jobs_done.txt</code> 
+ * and new jobs from <code>addJobs.txt</code> are added whenever a job is finished.
+ * <p>
+ * The mix zone and silent period attacks read the logs line by line, but the slow attack keeps all records of its log. A job 
+ * only starts if the estimated memory for its logs is available. This keeps the memory bounded even if many large logs are 
+ * analysed at the same time.
+ * <p>
+ * Usage: <code>java vanetsim.gui.helpers.LogAnalyserJobRunner [threads]</code> (default: the amount of processors)
+ */
+public final class LogAnalyserJobRunner {
+	
+	/** The estimated memory needed for each byte of a log file which is kept completely (lines and split lines). */
+	private static final int MEMORY_PER_BYTE = 8;
+	
+	/** The estimated memory in megabytes for a job which reads its logs line by line. */
+	private static final int STREAMING_MEMORY = 64;
+	
+	/** One megabyte. */
+	private static final long MEGABYTE = 1048576;
+	
+	/** The permits for the memory in megabytes. */
+	private final Semaphore memory_;
+	
+	/** The amount of permits of {@link #memory_}. */
+	private final int memoryPermits_;
+	
+	/** The amount of jobs running in parallel. */
+	private final int threads_;
+	
+	/**
+	 * Creates a job runner.
+	 * 
+	 * @param threads	the amount of jobs running in parallel
+	 */
+	public LogAnalyserJobRunner(int threads){
+		threads_ = Math.max(1, threads);
+		memoryPermits_ = (int)Math.max(1, Runtime.getRuntime().maxMemory() * 3 / 4 / MEGABYTE);
+		memory_ = new Semaphore(memoryPermits_, true);
+	}
+	
+	/**
+	 * Runs the jobs of <code>jobs.txt</code> in the working directory.
+	 * 
+	 * @param args	optional amount of threads
+	 */
+	public static void main(String[] args){
+		int threads = Runtime.getRuntime().availableProcessors();
+		if(args.length > 0){
+			try{
+				threads = Integer.parseInt(args[0]);
+			} catch (NumberFormatException e){
+				System.out.println("Usage: java vanetsim.gui.helpers.LogAnalyserJobRunner [threads]"); //$NON-NLS-1$
+				return;
+			}
+		}
+		new LogAnalyserJobRunner(threads).runJobs();
+	}
+	
+	/**
+	 * Runs the jobs of <code>jobs.txt</code> in the working directory and waits until all are finished. Like in the sequential 
+	 * console mode, the jobs are started from the end of the file and lines starting with <code>#</code> are skipped.
+	 * 
+	 * @return the amount of failed jobs
+	 */
+	public int runJobs(){
+		long start = System.currentTimeMillis();
+		System.out.println("Starting log analyser with " + threads_ + " threads..."); //$NON-NLS-1$
+		LogAnalyser jobList = new LogAnalyser((String)null);
+		jobList.readJobs();
+		
+		final AtomicInteger threadCounter = new AtomicInteger(0);
+		ExecutorService executor = Executors.newFixedThreadPool(threads_, new ThreadFactory(){
+			public Thread newThread(Runnable runnable){
+				Thread thread = new Thread(runnable, "LogAnalyserJob-" + threadCounter.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		CompletionService<String> completion = new ExecutorCompletionService<String>(executor);
+		int running = 0, finished = 0, failed = 0;
+		try{
+			while(true){
+				ArrayList<String> jobs = jobList.getJobs();
+				while(jobs.size() > 0){
+					String job = jobs.remove(jobs.size() - 1);
+					if(job.length() == 0 || job.startsWith("#")) continue; //$NON-NLS-1$
+					completion.submit(new Job(job));
+					++running;
+				}
+				if(running == 0) break;
+				String job = null;
+				try{
+					job = completion.take().get();
+				} catch (ExecutionException e){
+					e.getCause().printStackTrace();
+				}
+				--running;
+				if(job != null){
+					jobList.documentJobsToFile(job);
+					++finished;
+				} else ++failed;
+				
+				//check if there are new jobs in the queue which can be loaded
+				jobList.addNewJobs();
+			}
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+		System.out.println(finished + " jobs finished, " + failed + " failed in " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		return failed;
+	}
+	
+	/**
+	 * Estimates the memory needed for the logs of a job.
+	 * 
+	 * @param analyser	the analyser with the job
+	 * 
+	 * @return the memory in megabytes (at most the available permits)
+	 */
+	private int estimateMemory(LogAnalyser analyser){
+		if(!analyser.getLogType().equals("slow")) return Math.min(STREAMING_MEMORY, memoryPermits_); //$NON-NLS-1$
+		long bytes = new File(analyser.getActualJob()).length();
+		// compressed logs are much larger as text
+		if(ChunkedLogReader.isChunkedLog(analyser.getActualJob())) bytes *= 6;
+		long megabytes = bytes * MEMORY_PER_BYTE / MEGABYTE + 1;
+		return (int)Math.min(megabytes, memoryPermits_);
+	}
+	
+	/**
+	 * A job running in a thread of the executor.
+	 */
+	private final class Job implements Callable<String> {
+		
+		/** The job (same format as in jobs.txt). */
+		private final String job_;
+		
+		/**
+		 * Creates a job.
+		 * 
+		 * @param job	the job
+		 */
+		Job(String job){
+			job_ = job;
+		}
+		
+		/**
+		 * Runs the analysis of the job.
+		 * 
+		 * @return the job if it was finished, <code>null</code> if it failed
+		 */
+		public String call() throws InterruptedException{
+			LogAnalyser analyser;
+			LogOperations operation;
+			try{
+				analyser = new LogAnalyser(job_);
+				operation = analyser.createOperation();
+			} catch (RuntimeException e){
+				System.out.println("Invalid job " + job_ + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+				return null;
+			}
+			if(operation == null){
+				System.out.println("Unknown log or attack type in job " + job_); //$NON-NLS-1$
+				return null;
+			}
+			int memory = estimateMemory(analyser);
+			memory_.acquire(memory);
+			long start = System.currentTimeMillis();
+			try{
+				operation.analyse();
+			} catch (Throwable e){
+				System.out.println("Job " + job_ + " failed: " + e); //$NON-NLS-1$ //$NON-NLS-2$
+				e.printStackTrace();
+				return null;
+			} finally {
+				memory_.release(memory);
+			}
+			System.out.println("Finished job " + job_ + " in " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			return job_;
+		}
+	}
+}
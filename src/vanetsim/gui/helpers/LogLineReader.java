@@ -0,0 +1,269 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Reads the lines of a log file without loading the whole file. Text files are read in blocks, compressed log files
+ * (see {@link ChunkedLogReader}) chunk by chunk. For compressed files, the lines can be limited to the chunks which may
+ * contain records with a key in a range; the other chunks are neither read nor decompressed.
+ * <br><br>
+ * The position of the next line can be saved and restored to read lines again. Positions refer to the text which is
+ * read by this reader, so for a limited compressed file they are not the positions in the complete text. Lines end with
+ * a line feed, a carriage return or both and are decoded with the default charset like the text written by the log writers.
+ */
+public final class LogLineReader {
+
+	/** The line which separates the header of a cleaned log from the records. */
+	public static final String HEADER_SEPARATOR = "*******************"; //$NON-NLS-1$
+
+	/** The size of the blocks in which text files are read. */
+	private static final int BLOCK_SIZE = 1048576;
+
+	/** The text file or <code>null</code> for a compressed file. */
+	private final RandomAccessFile file_;
+
+	/** The compressed file or <code>null</code> for a text file. */
+	private final ChunkedLogReader chunkedReader_;
+
+	/** The chunks of the compressed file which are read. */
+	private final int[] chunks_;
+
+	/** The positions of the chunks in <code>chunks_</code> in the text read by this reader. The last element is the length of the text. */
+	private final long[] chunkStarts_;
+
+	/** The length of the text read by this reader. */
+	private final long length_;
+
+	/** The current block (a part of the text file or a decompressed chunk). */
+	private byte[] block_ = new byte[0];
+
+	/** The position of the current block in the text. */
+	private long blockStart_ = 0;
+
+	/** The amount of valid bytes in <code>block_</code>. */
+	private int blockLength_ = 0;
+
+	/** The position of the next byte in <code>block_</code>. */
+	private int offset_ = 0;
+
+	/** Collects the bytes of a line which spans two blocks. */
+	private byte[] line_ = new byte[256];
+
+	/**
+	 * Opens a log file to read all lines.
+	 *
+	 * @param path	the path of the text or compressed log file
+	 *
+	 * @throws IOException if the file can't be opened
+	 */
+	public LogLineReader(String path) throws IOException{
+		this(path, -1, 0, 0);
+	}
+
+	/**
+	 * Opens a log file. For compressed files, only the chunks which may contain records with a key in a range are read
+	 * (see {@link ChunkedLogReader#matches(int, int, long, long)}). Text files are always read completely.
+	 *
+	 * @param path	the path of the text or compressed log file
+	 * @param key	one of the <code>KEY</code> constants of {@link BinaryLogFormat} or <code>-1</code> to read all chunks
+	 * @param min	the smallest value of the key
+	 * @param max	the largest value of the key
+	 *
+	 * @throws IOException if the file can't be opened
+	 */
+	public LogLineReader(String path, int key, long min, long max) throws IOException{
+		if(ChunkedLogReader.isChunkedLog(path)){
+			file_ = null;
+			chunkedReader_ = new ChunkedLogReader(path);
+			int count = 0;
+			int[] chunks = new int[chunkedReader_.getChunkCount()];
+			long[] starts = new long[chunks.length + 1];
+			for(int i = 0; i < chunks.length; ++i){
+				if(key < 0 || chunkedReader_.matches(i, key, min, max)){
+					chunks[count] = i;
+					starts[count + 1] = starts[count] + chunkedReader_.getChunkStart(i + 1) - chunkedReader_.getChunkStart(i);
+					++count;
+				}
+			}
+			chunks_ = new int[count];
+			System.arraycopy(chunks, 0, chunks_, 0, count);
+			chunkStarts_ = new long[count + 1];
+			System.arraycopy(starts, 0, chunkStarts_, 0, count + 1);
+			length_ = chunkStarts_[count];
+		} else {
+			file_ = new RandomAccessFile(path, "r"); //$NON-NLS-1$
+			chunkedReader_ = null;
+			chunks_ = null;
+			chunkStarts_ = null;
+			length_ = file_.length();
+		}
+	}
+
+	/**
+	 * Reads the next line.
+	 *
+	 * @return the line without the line end or <code>null</code> if the end of the text is reached
+	 *
+	 * @throws IOException if reading fails
+	 */
+	public String readLine() throws IOException{
+		if(offset_ >= blockLength_ && !loadBlock(blockStart_ + blockLength_)) return null;
+		int lineLength = 0;
+		while(true){
+			int start = offset_, end = offset_;
+			byte b;
+			while(end < blockLength_ && (b = block_[end]) != '\n' && b != '\r') ++end;
+			if(end < blockLength_){
+				String line;
+				if(lineLength == 0) line = new String(block_, start, end - start);
+				else {
+					lineLength = appendToLine(lineLength, start, end);
+					line = new String(line_, 0, lineLength);
+				}
+				offset_ = end + 1;
+				if(block_[end] == '\r'){
+					// a line feed after the carriage return belongs to the same line end (it may be in the next block)
+					if(offset_ < blockLength_){
+						if(block_[offset_] == '\n') ++offset_;
+					} else if(loadBlock(blockStart_ + blockLength_) && blockLength_ > 0 && block_[0] == '\n') offset_ = 1;
+				}
+				return line;
+			}
+			lineLength = appendToLine(lineLength, start, end);
+			if(!loadBlock(blockStart_ + blockLength_)) return new String(line_, 0, lineLength);
+		}
+	}
+
+	/**
+	 * Reads the header of a cleaned log: all lines until the {@link #HEADER_SEPARATOR}. Afterwards, the next line is the
+	 * first line after the separator.
+	 *
+	 * @return the lines of the header, each followed by a line feed, or <code>null</code> if there is no separator
+	 *
+	 * @throws IOException if reading fails
+	 */
+	public String readHeader() throws IOException{
+		StringBuilder header = new StringBuilder();
+		String line;
+		while((line = readLine()) != null){
+			if(line.equals(HEADER_SEPARATOR)) return header.toString();
+			header.append(line).append('\n');
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the position of the next line.
+	 *
+	 * @return the position
+	 */
+	public long getPosition(){
+		return blockStart_ + offset_;
+	}
+
+	/**
+	 * Sets the position of the next line.
+	 *
+	 * @param position	a position returned by {@link #getPosition()}
+	 *
+	 * @throws IOException if reading fails
+	 */
+	public void setPosition(long position) throws IOException{
+		if(position >= blockStart_ && position < blockStart_ + blockLength_) offset_ = (int)(position - blockStart_);
+		else if(loadBlock(position)) offset_ = (int)(position - blockStart_);
+	}
+
+	/**
+	 * Gets the length of the text read by this reader.
+	 *
+	 * @return the length in bytes
+	 */
+	public long getLength(){
+		return length_;
+	}
+
+	/**
+	 * Closes the file.
+	 *
+	 * @throws IOException if closing fails
+	 */
+	public void close() throws IOException{
+		if(file_ != null) file_.close();
+		else chunkedReader_.close();
+	}
+
+	/**
+	 * Loads the block which contains a position of the text. Afterwards, the next byte is the first byte of the block.
+	 *
+	 * @param position	the position
+	 *
+	 * @return <code>true</code> if the block was loaded, <code>false</code> if the position is at the end of the text
+	 *
+	 * @throws IOException if reading fails
+	 */
+	private boolean loadBlock(long position) throws IOException{
+		if(position >= length_){
+			blockStart_ = length_;
+			blockLength_ = 0;
+			offset_ = 0;
+			return false;
+		}
+		if(file_ != null){
+			blockStart_ = position - position % BLOCK_SIZE;
+			blockLength_ = (int)Math.min(BLOCK_SIZE, length_ - blockStart_);
+			if(block_.length < blockLength_) block_ = new byte[BLOCK_SIZE];
+			file_.seek(blockStart_);
+			file_.readFully(block_, 0, blockLength_);
+		} else {
+			int low = 0, high = chunks_.length - 1, middle;
+			while(low < high){
+				middle = (low + high + 1) >>> 1;
+				if(chunkStarts_[middle] <= position) low = middle;
+				else high = middle - 1;
+			}
+			block_ = chunkedReader_.readChunk(chunks_[low]);
+			blockStart_ = chunkStarts_[low];
+			blockLength_ = block_.length;
+		}
+		offset_ = 0;
+		return true;
+	}
+
+	/**
+	 * Appends bytes of the current block to the line which spans two blocks.
+	 *
+	 * @param lineLength	the amount of bytes already in the line
+	 * @param start			the first byte of the block to append
+	 * @param end			the end (exclusive) of the bytes to append
+	 *
+	 * @return the new amount of bytes in the line
+	 */
+	private int appendToLine(int lineLength, int start, int end){
+		int length = lineLength + end - start;
+		if(length > line_.length){
+			byte[] newLine = new byte[Math.max(length, line_.length * 2)];
+			System.arraycopy(line_, 0, newLine, 0, lineLength);
+			line_ = newLine;
+		}
+		System.arraycopy(block_, start, line_, lineLength, end - start);
+		return length;
+	}
+}
@@ -25,11 +25,13 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.StringReader;
-import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 import javax.swing.JOptionPane;
 
@@ -43,14 +45,8 @@ public class LogOperations extends Thread {
 	/** type of operation */
 	private String operation_ = "";
 
-	/** variable to save loaded log */
-	private static String[] savedLog = new String[2];
-	
-	/** variable to save loaded advanced-log */
-	private static String[] savedAdvancedLog = new String[2];
-
 	/** variable to save silent period header */
-	private static String silentPeriodHeader;
+	private String silentPeriodHeader;
 	
 	/** variable to save to advanced location information */
 	private String locationInformation_ = "";
@@ -61,13 +57,7 @@ public class LogOperations extends Thread {
 	}
 	
 	public void run(){
-		//start analyzing (the attack type has to be set before)
-		if(operation_.equals("MixStandard")) standardAttackMixZones();
-		else if(operation_.equals("MixAdvanced")) advancedAttackMixZones();
-		else if(operation_.equals("SilentStandard")) standardAttackSilentPeriod();
-		else if(operation_.equals("SilentAdvanced")) advancedAttackSilentPeriod();
-		else if(operation_.equals("SlowStandard")) standardAttackSlow();
-		//else if(operation_.equals("SlowAdvanced")) advancedAttackSlow();
+		analyse();
 		
 		logAnalyser_.guiControl("startBtn", true);
 		logAnalyser_.guiControl("stopBtn", false);
@@ -80,6 +70,18 @@ public class LogOperations extends Thread {
 
 
 	
+	/**
+	 * Runs the analysis in the current thread without starting the next job (the attack type has to be set before)
+	 */
+	public void analyse(){
+		if(operation_.equals("MixStandard")) standardAttackMixZones();
+		else if(operation_.equals("MixAdvanced")) advancedAttackMixZones();
+		else if(operation_.equals("SilentStandard")) standardAttackSilentPeriod();
+		else if(operation_.equals("SilentAdvanced")) advancedAttackSilentPeriod();
+		else if(operation_.equals("SlowStandard")) standardAttackSlow();
+		//else if(operation_.equals("SlowAdvanced")) advancedAttackSlow();
+	}
+	
 	/**
 	 * Standard attack for mix-zones
 	 */
@@ -91,211 +93,34 @@ public class LogOperations extends Thread {
 		HashMap<String,String> successLog = new HashMap<String,String>();
 		
 		logAnalyser_.updateProgressBar(5);
-		//save and load data (analysis will be faster the second time, e.g. after changing variables)
-		if(logAnalyser_.isFilePathChanged()){
-			savedLog = readFileAndHeader(logAnalyser_.getActualJob());
-			logAnalyser_.setFilePathChanged(false);
-		}	
+		//only the header is loaded, the records are read from the file while attacking
+		String header = readHeader(logAnalyser_.getActualJob());
 		
 		logAnalyser_.updateProgressBar(10);
 		
 		//check if we have a correct log -> if yes quit analysis
-		if(savedLog[0] == null || savedLog[1] == null || !savedLog[0].substring(0, 8).equals("Mix-Zone")){
+		if(header == null || !header.startsWith("Mix-Zone")){
 			JOptionPane.showMessageDialog(null, Messages.getString("LogOperations.WrongLogType"), "Error", JOptionPane.ERROR_MESSAGE);
 			return;
 		}
 		
-		writeLocationInformationToFile(savedLog[0] + "******************\n", false);
+		writeLocationInformationToFile(header + "******************\n", false);
 		
-		String[] mixZoneHeaderArray = savedLog[0].split("\n");
+		String[] mixZoneHeaderArray = header.split("\n");
 		int numberOfMixZones  = mixZoneHeaderArray.length;
 		
 		//variables for statistics
 		int[] numberOfVehicles = new int[numberOfMixZones];
 		int[] numberOfCorrectVehicles = new int[numberOfMixZones];
-		int numberOfVehiclesTotal = 0;
-		int numberOfCorrectVehiclesTotal = 0;	
 		
 		System.out.println("file loaded...");
 		
-		//temp line variable
-		String line = "";
-		
-		//variable to save split line of log (":")
-		String[] logData;
-	
-		
-		//index of log data (useful if log structure changes)
-		int timestamp = 0;
-		int steadyID = 2;
-		int nodeID = 10;
-		int direction = 12;
-		int streetName = 14;
-		int streetSpeed = 16;
-		int port = 20;
-		
-		//values for variables set in GUI	
-		double timeBufferValue = logAnalyser_.getGuiElement("timeBufferValue");
-		double biggerStreetValue = 1-logAnalyser_.getGuiElement("biggerStreetValue");
-		double tuneTimeValue =  logAnalyser_.getGuiElement("tuneTimeValue");
-		double smallerStreetValue = 1-logAnalyser_.getGuiElement("smallerStreetValue");
-		double drivesStraigthValue = 1-logAnalyser_.getGuiElement("drivesStraigthValue");
-		double turnsValue = 1-logAnalyser_.getGuiElement("turnsValue");
-		double makesUTurnValue = 1-logAnalyser_.getGuiElement("makesUTurnValue");
-		
-		//initializing variables
-		int nodeRadius = 0;
-		double expectedTime = 0;
-		String savedSteadyID = "";
-		double savedFactor = 0;
-		
-		double streetFactor = 0;
-		double drivingFactor = 0;
-		
-		double factor = 0;
+		//attack all vehicles in one pass through the log
+		int[] totals = streamMixZoneAttack(false, logAnalyser_.getActualJob(), header, mixZoneHeaderArray, null, numberOfVehicles, numberOfCorrectVehicles, successLog);
+		if(totals == null) return;
+		int numberOfVehiclesTotal = totals[0];
+		int numberOfCorrectVehiclesTotal = totals[1];
 		
-		int numberTotal = 0;
-		int numberSuccessInRow = 0;
-
-		
-		//variables for the progressbar
-		long amountOfLines = savedLog[1].split("\n").length;
-		long updateEveryNLine = amountOfLines/80;
-		long counter = 0;
-		if(updateEveryNLine == 0) updateEveryNLine = 1;
-		
-		BufferedReader reader = new BufferedReader(new StringReader(savedLog[1]));        
-		try {
-			//read vehicle data line by line and check every vehicle
-			while ((line = reader.readLine()) != null) {  
-				counter++;
-				//update progressbar
-				if(counter%updateEveryNLine == 0) logAnalyser_.addToProgressBar(1);
-				
-				if (line.length() > 0){
-					//get log data of the vehicle we want to check now
-					logData = line.split(":");
-					
-					if(logData != null && logData.length > 18){
-						//only attack vehicles which drive into a mix zone
-						if(logData[direction].equals("IN")){
-							//counter for all vehicles
-							numberOfVehiclesTotal++;
-							
-							//update vehicle counter of the current mix zone
-							for(int i = 0; i < numberOfMixZones; i++){
-								if(logData[nodeID].equals(mixZoneHeaderArray[i].split(":")[2])) numberOfVehicles[i]++;
-							}
-							
-							
-							//returns to node radius of the mix zone
-							nodeRadius = getNodeRadius(logData[nodeID], savedLog[0]);
-							
-							//expected time to leave mix zone in ms (use tuneTimeValue to influence this time)
-							expectedTime = (((2*nodeRadius)/Integer.parseInt(logData[streetSpeed]))*1000)*tuneTimeValue;
-							
-							//now check every vehicle that left the mix zone in the time (expectedTime + buffer)
-							//set mark for reader (performance tweak, we can resume our buffer on this position later)
-							reader.mark(savedLog[1].length());
-							
-							//tmp variable to save steadyID and the factor
-							savedSteadyID = "";
-							savedFactor = 999999999;
-							
-							try {
-								//read vehicle data line by line
-								while ((line = reader.readLine()) != null) {   
-									String[] logData2 = line.split(":");
-									
-									//we only check vehicles until a selected time (performance tweak, calculated expected time + buffer)
-									if((Integer.parseInt(logData[timestamp]) + expectedTime + timeBufferValue) < Integer.parseInt(logData2[timestamp])){
-										break;
-									}
-									
-									//only check vehicles that leave the same mix-zone
-									if(logData[nodeID].equals(logData2[nodeID]) && logData2[direction].equals("OUT")){										
-										streetFactor = 0;
-										drivingFactor = 0;
-										
-										//calculate the right factors
-										if(logData[streetName].equals(logData2[streetName])){
-											if(logData[port].equals(logData2[port])){
-												drivingFactor = makesUTurnValue;
-											}
-											else drivingFactor = drivesStraigthValue;
-										}
-										else{
-											drivingFactor = turnsValue;
-										}
-										
-										
-										if(Integer.parseInt(logData[streetSpeed]) > Integer.parseInt(logData2[streetSpeed])){
-											streetFactor = smallerStreetValue;
-										}
-										else{
-											streetFactor = biggerStreetValue;
-										}
-										
-										//calculate factor:
-										if(drivingFactor == 0) drivingFactor = 0.0000000000000000000000000001;
-										if(streetFactor == 0) streetFactor = 0.0000000000000000000000000001;
-										factor = drivingFactor * streetFactor * Math.abs(((Integer.parseInt(logData[timestamp]) + expectedTime) - Integer.parseInt(logData2[timestamp])));
-
-										//always save the smallest vehicle with the smallest factor
-										if(factor < savedFactor){
-											savedFactor = factor;
-											savedSteadyID = logData2[steadyID];
-										}
-									}
-								}
-							} catch(IOException e) {
-								System.out.println("Error while doing standard attack");
-								e.printStackTrace();
-							}
-							
-							
-							//jump to mark
-							reader.reset();
-							
-							//update states to log the movement of vehicles through more mix-zones. Format: Number:Number:Boolean -> NumberOfPassedMixZones:NumerOfSuccessfulPassedZones(only in a row):BooleanValueToShowIfVehicleWasFollowedCorrectlyUntilNow
-							String[] successData = {"0","0","true"};
-							if(successLog.get(logData[steadyID]) != null) successData = successLog.get(logData[steadyID]).split(":");			
-							
-							numberTotal = Integer.parseInt(successData[0]);
-							numberSuccessInRow = Integer.parseInt(successData[1]);
-							if(savedSteadyID.equals(logData[steadyID])){
-								locationInformation_ += "true:" + logData[nodeID] + ":" + logData[port] + "\n";
-								successLog.remove(logData[steadyID]);
-								
-								if(successData[2].equals("true")) {
-									successLog.put(logData[steadyID], (numberTotal+1) + ":" + (numberSuccessInRow+1) + ":true");
-								}
-								else{
-									successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":false");
-								}
-								
-								for(int i = 0; i < numberOfMixZones; i++){
-									if(logData[nodeID].equals(mixZoneHeaderArray[i].split(":")[2]))numberOfCorrectVehicles[i]++;
-								}
-								numberOfCorrectVehiclesTotal++;
-
-							}
-							else{
-								locationInformation_ += "false:" + logData[nodeID] + ":" + logData[port] + "\n";
-								successLog.remove(logData[steadyID]);
-								successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":false");
-							}
-
-							//update status field in GUI
-							if(numberOfVehiclesTotal%10 == 0)logAnalyser_.updateInformationArea(numberOfVehiclesTotal, numberOfCorrectVehiclesTotal, false);
-						}
-					}
-				}
-			}
-		} catch(IOException e) {
-			System.out.println("Error while doing standard attack");
-			e.printStackTrace();
-		}
 		logAnalyser_.updateInformationArea(numberOfVehiclesTotal, numberOfCorrectVehiclesTotal, true);
 
 		int maxOfRow = 0;
@@ -326,8 +151,15 @@ public class LogOperations extends Thread {
 		float numberOfKAnoVeh = 0;
 		
 		float[] tmpKAno = null;
+		//the k-anonymity is calculated only once for the header lines of the same mix zone
+		HashMap<String,float[]> kAnonymityCache = new HashMap<String,float[]>();
 		for(int i = 0; i < mixZoneHeaderArray.length; i++){
-			tmpKAno = getKAnonymityInMix(mixZoneHeaderArray[i].split(":")[2],savedLog[1]);
+			String mixNodeID = mixZoneHeaderArray[i].split(":")[2];
+			tmpKAno = kAnonymityCache.get(mixNodeID);
+			if(tmpKAno == null){
+				tmpKAno = getKAnonymityInMix(mixNodeID, logAnalyser_.getActualJob());
+				kAnonymityCache.put(mixNodeID, tmpKAno);
+			}
 			kAnonymityValues[i] = tmpKAno[0];
 			
 			numberOfKAnoVehTotal += tmpKAno[1];
@@ -399,207 +231,55 @@ public class LogOperations extends Thread {
 		//analyse traffic first
 		logAnalyser_.updateProgressBar(5);
 		
-		//save and load data (analysis will be faster the second time, e.g. after changing variables)
-		if(logAnalyser_.isAdvancedFilePathChanged()){
-			savedAdvancedLog = readFileAndHeader(logAnalyser_.getAdvancedFilePath_());
-			logAnalyser_.setAdvancedFilePathChanged(false);
-		}	
+		//only the headers are loaded, the records are read from the files
+		String advancedHeader = readHeader(logAnalyser_.getAdvancedFilePath_());
 
 		//check if there is a correct header and log is cleaned
-		if(savedAdvancedLog.length < 2){
+		if(advancedHeader == null){
 			JOptionPane.showMessageDialog(null, Messages.getString("LogOperations.LogsNeedsCleaning"), "Error", JOptionPane.ERROR_MESSAGE);
 			return;
 		}
 		
 		//check if we have a correct log -> if yes quit analysis
-		if(savedAdvancedLog[0] == null || savedAdvancedLog[1] == null || !savedAdvancedLog[0].substring(0, 8).equals("Mix-Zone")){
+		if(!advancedHeader.startsWith("Mix-Zone")){
 			JOptionPane.showMessageDialog(null, Messages.getString("LogOperations.WrongLogType"), "Error", JOptionPane.ERROR_MESSAGE);
 			return;
 		}
 		logAnalyser_.updateProgressBar(10);
 		
-		//Hash Map for traffic data about the mix zones
-		HashMap<String,Object[]> trafficDataMap = new HashMap<String,Object[]>();
-		
-		//analyse all mix zones if second log
-		String tmpHeaders[] = savedAdvancedLog[0].split("\n");
-		for(int i = 0; i < tmpHeaders.length; i++){
-				String[] tmpHeader = tmpHeaders[i].split(":");
-				trafficDataMap.put(tmpHeader[2], getDataOfMixZoneLog(savedAdvancedLog, tmpHeader[2], tmpHeaders.length));
-		}
+		//Hash Map for traffic data about the mix zones (all mix zones are analysed in one pass through the second log)
+		HashMap<String,Object[]> trafficDataMap = getDataOfMixZoneLogs(advancedHeader, logAnalyser_.getAdvancedFilePath_());
+		if(trafficDataMap == null) return;
+		String tmpHeaders[] = advancedHeader.split("\n");
 		
 		Object[] tmpObject = null;
 
 		
-		if(logAnalyser_.isFilePathChanged()){
-			savedLog = readFileAndHeader(logAnalyser_.getActualJob());
-			logAnalyser_.setFilePathChanged(false);
-		}	
+		String header = readHeader(logAnalyser_.getActualJob());
 
 		//check if we have a correct log -> if yes quit analysis
-		if(savedLog[0] == null || savedLog[1] == null || !savedLog[0].substring(0, 8).equals("Mix-Zone")){
+		if(header == null || !header.startsWith("Mix-Zone")){
 			JOptionPane.showMessageDialog(null, Messages.getString("LogOperations.WrongLogType"), "Error", JOptionPane.ERROR_MESSAGE);
 			return;
 		}
 		
 		
-		writeLocationInformationToFile(savedLog[0] + "******************\n", false);
+		writeLocationInformationToFile(header + "******************\n", false);
 		
 		System.out.println("file loaded...");
 		
-		//tmp variable for read lines
-		String line = "";
-		//variable for split log line
-		String[] logData;
-		String[] logData2;
-		
 		//variables for statistics
-		String[] mixZoneHeaderArray = savedLog[0].split("\n");
+		String[] mixZoneHeaderArray = header.split("\n");
 		int numberOfMixZones  = mixZoneHeaderArray.length;
 		
 		int[] numberOfVehicles = new int[numberOfMixZones];
 		int[] numberOfCorrectVehicles = new int[numberOfMixZones];
-		int numberOfVehiclesTotal = 0;
-		int numberOfCorrectVehiclesTotal = 0;	
-		
-		//index of log data (useful if log structure changes)
-		int timestamp = 0;
-		int steadyID = 2;
-		int nodeID = 10;
-		int direction = 12;
-		int port = 20;
-
-		//values for variables set in gui	
-		double timeBufferValue = logAnalyser_.getGuiElement("timeBufferValue");
-
-		//variables
-		String savedSteadyID ="";
-		double savedFaktor = 0;
-		int maxExpectedTime = 0;
-		double factor = 1;
-		
-		//variables for the progressbar
-		long amountOfLines = savedLog[1].split("\n").length;
-		long updateEveryNLine = amountOfLines/50;
-		long counter = 0;
 		
-		BufferedReader reader = new BufferedReader(new StringReader(savedLog[1]));        
-		try {
-			//read vehicle data line by line
-			while ((line = reader.readLine()) != null) {
-				counter++;
-				//update progress bar
-				if(counter%updateEveryNLine ==0) logAnalyser_.addToProgressBar(1);
-				if (line.length() > 0){
-					logData = line.split(":");
-					
-					if(logData != null && logData.length > 18){
-						//only attack vehicles which drive into a mix zone
-						if(logData[direction].equals("IN")){
-							//counter for all vehicles
-							numberOfVehiclesTotal++;
-							for(int i = 0; i < numberOfMixZones; i++){
-								if(logData[nodeID].equals(mixZoneHeaderArray[i].split(":")[2])) numberOfVehicles[i]++;
-							}
-							
-							
-							tmpObject = trafficDataMap.get(logData[nodeID]);
-							//now check every vehicle that left the mix zone in the timespan (expectedTime + buffer)
-							//set mark for reader (performance tweak, we can resume our buffer on this position later)
-							reader.mark(savedLog[1].length());
-						
-							
-							savedSteadyID = "";
-							savedFaktor = 999999999;
-							
-							try {
-								//read vehicle data line by line
-								while ((line = reader.readLine()) != null) {   
-									logData2 = line.split(":");
-									
-									maxExpectedTime = 0;
-									//get max expected time (searches through all possible combinations of entrances and exits
-									for(int i = 0; i < ((int[][])tmpObject[0]).length; i++){
-										for(int j = 0; j< ((int[][])tmpObject[0]).length; j++){
-											if(maxExpectedTime < ((int[][])tmpObject[0])[i][j]) maxExpectedTime = ((int[][])tmpObject[0])[i][j];
-										}
-									}
-									
-									//we only check vehicles until a selected time (performance tweak, calculated expected time + buffer)
-									if((Integer.parseInt(logData[timestamp]) + maxExpectedTime + timeBufferValue) < Integer.parseInt(logData2[timestamp])){
-										break;
-									}
-									
-									//only check vehicles that leave the same mix-zone
-									if(logData2[direction].equals("OUT") && logData2[nodeID].equals(logData[nodeID])){										
-										//calculate the right factors
-										factor = 1;
-										
-										//if that in GUI use also the calculated probabilities for this mix zone
-										if(logAnalyser_.isProbabilitiesOn()){
-											factor = ((double)1- ((double[][])tmpObject[1])[Integer.parseInt(logData[port])-1][Integer.parseInt(logData2[port])-1]) * Math.abs(((Integer.parseInt(logData[timestamp]) + ((int[][])tmpObject[0])[Integer.parseInt(logData[port])-1][Integer.parseInt(logData2[port])-1]) - Integer.parseInt(logData2[timestamp]))) ;
-										}
-										
-										//use the expected path of this mix zone to calculate the factor (the smaller the better)
-										factor += Math.abs(((Integer.parseInt(logData[timestamp]) + ((int[][])tmpObject[0])[Integer.parseInt(logData[port])-1][Integer.parseInt(logData2[port])-1]) - Integer.parseInt(logData2[timestamp])));
-
-										//always save the smallest factor
-										if(factor < savedFaktor){
-											savedFaktor = factor;
-											savedSteadyID = logData2[steadyID];
-										}
-									}
-								}
-							} catch(IOException e) {
-								System.out.println("Error while doing advanced attack");
-								e.printStackTrace();
-							}
-							
-							
-							//jump to mark
-							reader.reset();
-							
-							//update states to log the movement of vehicles through more mix-zones. Format: Number:Number:Boolean -> NumberOfPassedMixZones:NumerOfSuccessfulPassedZones(only in a row):BooleanValueToShowIfVehicleWasFollowedCorrectlyUntilNow
-							String[] successData = {"0","0","true"};
-							if(successLog.get(logData[steadyID]) != null) successData = successLog.get(logData[steadyID]).split(":");			
-							
-							int numberTotal = Integer.parseInt(successData[0]);
-							int numberSuccessInRow = Integer.parseInt(successData[1]);
-							if(savedSteadyID.equals(logData[steadyID])){
-								locationInformation_ += "true:" + logData[nodeID] + ":" + logData[port] + "\n";
-
-								successLog.remove(logData[steadyID]);
-								
-								if(successData[2].equals("true")) {
-									successLog.put(logData[steadyID], (numberTotal+1) + ":" + (numberSuccessInRow+1) + ":true");
-								}
-								else{
-									successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":false");
-								}
-								
-								for(int i = 0; i < numberOfMixZones; i++){
-									if(logData[nodeID].equals(mixZoneHeaderArray[i].split(":")[2]))numberOfCorrectVehicles[i]++;
-								}
-								
-								numberOfCorrectVehiclesTotal++;
-							}
-							else{
-								locationInformation_ += "false:" + logData[nodeID] + ":" + logData[port] + "\n";
-
-								successLog.remove(logData[steadyID]);
-								successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":false");
-							}
-
-							//update status field in GUI
-							if(numberOfVehiclesTotal%10 == 0)logAnalyser_.updateInformationArea(numberOfVehiclesTotal, numberOfCorrectVehiclesTotal, false);
-						}
-					}
-				}
-			}
-		} catch(IOException e) {
-			System.out.println("Error while doing advanced attack");
-			e.printStackTrace();
-		}
+		//attack all vehicles in one pass through the log
+		int[] totals = streamMixZoneAttack(true, logAnalyser_.getActualJob(), header, mixZoneHeaderArray, trafficDataMap, numberOfVehicles, numberOfCorrectVehicles, successLog);
+		if(totals == null) return;
+		int numberOfVehiclesTotal = totals[0];
+		int numberOfCorrectVehiclesTotal = totals[1];
 		if(numberOfVehiclesTotal%10 == 0)logAnalyser_.updateInformationArea(numberOfVehiclesTotal, numberOfCorrectVehiclesTotal, false);
 
 		int maxOfRow = 0;
@@ -627,6 +307,8 @@ public class LogOperations extends Thread {
 		float numberOfKAnoVeh = 0;
 		float[] tmpKAno = null;
 		float[] kAnonymityValues = new float[numberOfMixZones];
+		//the k-anonymity is calculated only once for the header lines of the same mix zone
+		HashMap<String,float[]> kAnonymityCache = new HashMap<String,float[]>();
 		logAnalyser_.updateInformationArea("\n\n", false);
 		logAnalyser_.updateInformationArea("#GNU-Plot Data Simple\n", true);
 		logAnalyser_.updateInformationArea("Privacy TotalVehicles Probabilities k-Anonymity Entropy\n", true);
@@ -634,7 +316,12 @@ public class LogOperations extends Thread {
 			//k-Anonymity
 			String[] tmpHeader = tmpHeaders[i].split(":");
 			
-			tmpKAno = getKAnonymityInMix(mixZoneHeaderArray[i].split(":")[2],savedLog[1]);
+			String mixNodeID = mixZoneHeaderArray[i].split(":")[2];
+			tmpKAno = kAnonymityCache.get(mixNodeID);
+			if(tmpKAno == null){
+				tmpKAno = getKAnonymityInMix(mixNodeID, logAnalyser_.getActualJob());
+				kAnonymityCache.put(mixNodeID, tmpKAno);
+			}
 			kAnonymityValues[i] = tmpKAno[0];
 			
 			numberOfKAnoVehTotal += tmpKAno[1];
@@ -716,6 +403,310 @@ public class LogOperations extends Thread {
 	}
 
 	
+	/**
+	 * Runs the standard or advanced mix zone attack in one pass through the log. Every vehicle driving into a mix zone is kept in 
+	 * a window of its mix zone until the time in which it is expected to leave (plus the time buffer) is over. Every vehicle leaving 
+	 * a mix zone is compared with the vehicles in the window of this mix zone. The results are applied in the order of the log so 
+	 * that they are the same as if the log was searched from every vehicle driving into a mix zone. The records are read line by 
+	 * line from the file, so only the vehicles in the windows are kept in memory.
+	 * 
+	 * @param advanced					<code>true</code> for the advanced attack which uses the traffic data of the mix zones
+	 * @param filePath					the path of the log
+	 * @param header					the header of the log
+	 * @param mixZoneHeaderArray		the header lines of the mix zones
+	 * @param trafficDataMap			the traffic data of the mix zones (only used for the advanced attack)
+	 * @param numberOfVehicles			array to count the vehicles of each mix zone
+	 * @param numberOfCorrectVehicles	array to count the correctly followed vehicles of each mix zone
+	 * @param successLog				the map to follow vehicles through more mix zones
+	 * 
+	 * @return the total amount of vehicles and of correctly followed vehicles or <code>null</code> if the log can't be read
+	 */
+	private int[] streamMixZoneAttack(boolean advanced, String filePath, String header, String[] mixZoneHeaderArray, HashMap<String,Object[]> trafficDataMap, int[] numberOfVehicles, int[] numberOfCorrectVehicles, HashMap<String,String> successLog){
+		//index of log data (useful if log structure changes)
+		int timestamp = 0;
+		int steadyID = 2;
+		int nodeID = 10;
+		int direction = 12;
+		int streetName = 14;
+		int streetSpeed = 16;
+		int port = 20;
+		
+		//values for variables set in GUI	
+		AttackScoring scoring = new AttackScoring(logAnalyser_);
+		boolean probabilitiesOn = advanced && logAnalyser_.isProbabilitiesOn();
+		
+		//pre-parsed header: node id of every header line and the radius of the mix zones
+		String[] mixZoneNodeIDs = new String[mixZoneHeaderArray.length];
+		for(int i = 0; i < mixZoneHeaderArray.length; i++) mixZoneNodeIDs[i] = mixZoneHeaderArray[i].split(":")[2];
+		HashMap<String,Integer> nodeRadiusMap = new HashMap<String,Integer>();
+		HashMap<String,Integer> maxExpectedTimeMap = new HashMap<String,Integer>();
+		
+		//vehicles in the mix zones (by node id), vehicles sorted by the end of their window and vehicles in the order of the log
+		HashMap<String,ArrayList<MixZoneVehicle>> windows = new HashMap<String,ArrayList<MixZoneVehicle>>();
+		PriorityQueue<MixZoneVehicle> openVehicles = new PriorityQueue<MixZoneVehicle>(64, new Comparator<MixZoneVehicle>(){
+			public int compare(MixZoneVehicle a, MixZoneVehicle b){
+				return Double.compare(a.endTime_, b.endTime_);
+			}
+		});
+		ArrayDeque<MixZoneVehicle> pendingVehicles = new ArrayDeque<MixZoneVehicle>();
+		int[] totals = new int[2];
+		StringBuilder locationInformation = new StringBuilder();
+		
+		//variables for the progressbar
+		int progressSteps = advanced ? 50 : 80;
+		int progress = 0;
+		
+		String line;
+		String[] logData;
+		LogLineReader reader = null;
+		try {
+			reader = new LogLineReader(filePath);
+			reader.readHeader();
+			while ((line = reader.readLine()) != null) {  
+				//update progressbar
+				progress = updateProgress(reader, progressSteps, progress);
+				
+				if (line.length() == 0) continue;
+				logData = line.split(":");
+				if(logData.length <= 18) continue;
+				int time = Integer.parseInt(logData[timestamp]);
+				
+				//the windows of all vehicles which end before this line are closed
+				while(!openVehicles.isEmpty() && openVehicles.peek().endTime_ < time) openVehicles.poll().closed_ = true;
+				
+				if(logData[direction].equals("OUT")){
+					//only check vehicles that leave the same mix-zone
+					ArrayList<MixZoneVehicle> window = windows.get(logData[nodeID]);
+					if(window != null){
+						int size = 0;
+						for(int i = 0; i < window.size(); i++){
+							MixZoneVehicle vehicle = window.get(i);
+							if(vehicle.closed_) continue;
+							window.set(size++, vehicle);
+							String[] inData = vehicle.logData_;
+							double factor;
+							if(advanced){
+								int inPort = Integer.parseInt(inData[port])-1;
+								int outPort = Integer.parseInt(logData[port])-1;
+								int expectedTime = ((int[][])vehicle.trafficData_[0])[inPort][outPort];
+								factor = 1;
+								
+								//if that in GUI use also the calculated probabilities for this mix zone
+								if(probabilitiesOn){
+									factor = ((double)1- ((double[][])vehicle.trafficData_[1])[inPort][outPort]) * Math.abs(((vehicle.time_ + expectedTime) - time));
+								}
+								
+								//use the expected path of this mix zone to calculate the factor (the smaller the better)
+								factor += Math.abs(((vehicle.time_ + expectedTime) - time));
+							} else {
+								//calculate factor from the way through the mix zone, the streets and the time
+								factor = scoring.getMixZoneFactor(inData[streetName].equals(logData[streetName]), inData[port].equals(logData[port]), 
+										Integer.parseInt(inData[streetSpeed]) > Integer.parseInt(logData[streetSpeed]), (vehicle.time_ + vehicle.expectedTime_) - time);
+							}
+							
+							//always save the vehicle with the smallest factor
+							if(factor < vehicle.savedFactor_){
+								vehicle.savedFactor_ = factor;
+								vehicle.savedSteadyID_ = logData[steadyID];
+							}
+						}
+						while(window.size() > size) window.remove(window.size() - 1);
+					}
+				}
+				else if(logData[direction].equals("IN")){
+					//only attack vehicles which drive into a mix zone
+					for(int i = 0; i < mixZoneNodeIDs.length; i++){
+						if(logData[nodeID].equals(mixZoneNodeIDs[i])) numberOfVehicles[i]++;
+					}
+					
+					MixZoneVehicle vehicle;
+					if(advanced){
+						Object[] trafficData = trafficDataMap.get(logData[nodeID]);
+						Integer maxExpectedTime = maxExpectedTimeMap.get(logData[nodeID]);
+						if(maxExpectedTime == null){
+							//get max expected time (searches through all possible combinations of entrances and exits)
+							int max = 0;
+							for(int i = 0; i < ((int[][])trafficData[0]).length; i++){
+								for(int j = 0; j< ((int[][])trafficData[0]).length; j++){
+									if(max < ((int[][])trafficData[0])[i][j]) max = ((int[][])trafficData[0])[i][j];
+								}
+							}
+							maxExpectedTime = Integer.valueOf(max);
+							maxExpectedTimeMap.put(logData[nodeID], maxExpectedTime);
+						}
+						vehicle = new MixZoneVehicle(logData, time, 0, trafficData, (time + maxExpectedTime.intValue()) + scoring.getTimeBuffer());
+					} else {
+						//returns to node radius of the mix zone
+						Integer nodeRadius = nodeRadiusMap.get(logData[nodeID]);
+						if(nodeRadius == null){
+							nodeRadius = Integer.valueOf(getNodeRadius(logData[nodeID], header));
+							nodeRadiusMap.put(logData[nodeID], nodeRadius);
+						}
+						
+						//expected time to leave mix zone in ms (the tune time value influences this time)
+						double expectedTime = scoring.getMixZoneExpectedTime(nodeRadius.intValue(), Integer.parseInt(logData[streetSpeed]));
+						vehicle = new MixZoneVehicle(logData, time, expectedTime, null, time + expectedTime + scoring.getTimeBuffer());
+					}
+					ArrayList<MixZoneVehicle> window = windows.get(logData[nodeID]);
+					if(window == null){
+						window = new ArrayList<MixZoneVehicle>();
+						windows.put(logData[nodeID], window);
+					}
+					window.add(vehicle);
+					openVehicles.add(vehicle);
+					pendingVehicles.add(vehicle);
+				}
+				
+				//apply the results of all vehicles in the order of the log as soon as their windows are closed
+				while(!pendingVehicles.isEmpty() && pendingVehicles.peek().closed_){
+					finishMixZoneVehicle(pendingVehicles.poll(), mixZoneNodeIDs, numberOfCorrectVehicles, successLog, totals, locationInformation);
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			closeLog(reader);
+		}
+		
+		//the windows of the remaining vehicles end with the log
+		while(!pendingVehicles.isEmpty()){
+			finishMixZoneVehicle(pendingVehicles.poll(), mixZoneNodeIDs, numberOfCorrectVehicles, successLog, totals, locationInformation);
+		}
+		locationInformation_ += locationInformation.toString();
+		return totals;
+	}
+	
+	/**
+	 * Applies the result of the mix zone attack for one vehicle.
+	 * 
+	 * @param vehicle					the vehicle which drove into the mix zone
+	 * @param mixZoneNodeIDs			the node ids of the header lines of the mix zones
+	 * @param numberOfCorrectVehicles	array to count the correctly followed vehicles of each mix zone
+	 * @param successLog				the map to follow vehicles through more mix zones
+	 * @param totals					the total amount of vehicles and of correctly followed vehicles
+	 * @param locationInformation		collects the location information
+	 */
+	private void finishMixZoneVehicle(MixZoneVehicle vehicle, String[] mixZoneNodeIDs, int[] numberOfCorrectVehicles, HashMap<String,String> successLog, int[] totals, StringBuilder locationInformation){
+		//index of log data (useful if log structure changes)
+		int steadyID = 2;
+		int nodeID = 10;
+		int port = 20;
+		
+		String[] logData = vehicle.logData_;
+		//counter for all vehicles
+		totals[0]++;
+		
+		//update states to log the movement of vehicles through more mix-zones. Format: Number:Number:Boolean -> NumberOfPassedMixZones:NumerOfSuccessfulPassedZones(only in a row):BooleanValueToShowIfVehicleWasFollowedCorrectlyUntilNow
+		String[] successData = {"0","0","true"};
+		if(successLog.get(logData[steadyID]) != null) successData = successLog.get(logData[steadyID]).split(":");			
+		
+		int numberTotal = Integer.parseInt(successData[0]);
+		int numberSuccessInRow = Integer.parseInt(successData[1]);
+		if(vehicle.savedSteadyID_.equals(logData[steadyID])){
+			locationInformation.append("true:").append(logData[nodeID]).append(':').append(logData[port]).append('\n');
+			successLog.remove(logData[steadyID]);
+			
+			if(successData[2].equals("true")) {
+				successLog.put(logData[steadyID], (numberTotal+1) + ":" + (numberSuccessInRow+1) + ":true");
+			}
+			else{
+				successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":false");
+			}
+			
+			for(int i = 0; i < mixZoneNodeIDs.length; i++){
+				if(logData[nodeID].equals(mixZoneNodeIDs[i]))numberOfCorrectVehicles[i]++;
+			}
+			totals[1]++;
+		}
+		else{
+			locationInformation.append("false:").append(logData[nodeID]).append(':').append(logData[port]).append('\n');
+			successLog.remove(logData[steadyID]);
+			successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":false");
+		}
+		
+		//write the location information from time to time to keep the memory usage small
+		if(locationInformation.length() > 1000000){
+			locationInformation_ += locationInformation.toString();
+			locationInformation.setLength(0);
+			writeLocationInformationToFile(null, true);
+		}
+
+		//update status field in GUI
+		if(totals[0]%10 == 0)logAnalyser_.updateInformationArea(totals[0], totals[1], false);
+	}
+	
+	/**
+	 * Reads the header of a cleaned log (all lines before the line <code>*******************</code>).
+	 * 
+	 * @param filePath	the path of the log
+	 * 
+	 * @return the header lines, each followed by a line feed, or <code>null</code> if the log has no header or can't be read
+	 */
+	private String readHeader(String filePath){
+		LogLineReader reader = null;
+		try {
+			reader = new LogLineReader(filePath);
+			return reader.readHeader();
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			closeLog(reader);
+		}
+	}
+	
+	/**
+	 * Reads the first line of a log.
+	 * 
+	 * @param filePath	the path of the log
+	 * 
+	 * @return the line or <code>null</code> if the log is empty or can't be read
+	 */
+	private String readFirstLine(String filePath){
+		LogLineReader reader = null;
+		try {
+			reader = new LogLineReader(filePath);
+			return reader.readLine();
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			closeLog(reader);
+		}
+	}
+	
+	/**
+	 * Closes a log which was read.
+	 * 
+	 * @param reader	the reader of the log (may be <code>null</code>)
+	 */
+	private static void closeLog(LogLineReader reader){
+		if(reader != null){
+			try {
+				reader.close();
+			} catch (IOException e) {}
+		}
+	}
+	
+	/**
+	 * Advances the progress bar while a log is read.
+	 * 
+	 * @param reader	the reader of the log
+	 * @param steps		the amount of steps of the progress bar for the whole log
+	 * @param done		the amount of steps which were already added
+	 * 
+	 * @return the amount of steps which are added after this call
+	 */
+	private int updateProgress(LogLineReader reader, int steps, int done){
+		int progress = (int)(reader.getPosition() * steps / Math.max(1, reader.getLength()));
+		while(done < progress){
+			logAnalyser_.addToProgressBar(1);
+			++done;
+		}
+		return done;
+	}
+	
 	public void standardAttackSilentPeriod(){
 		logAnalyser_.updateProgressBar(1);
 
@@ -724,12 +715,6 @@ public class LogOperations extends Thread {
 		//hash map to follow vehicles through mix zones
 		HashMap<String,String> successLog = new HashMap<String,String>();
 		
-		//save and load data (analysis will be faster the second time, e.g. after changing variables)
-		if(logAnalyser_.isFilePathChanged()){
-			savedLog[0] = readFile(logAnalyser_.getActualJob());
-			logAnalyser_.setFilePathChanged(false);
-		}	
-	
 		logAnalyser_.updateProgressBar(1);
 
 		System.out.println("file loaded...");
@@ -751,9 +736,9 @@ public class LogOperations extends Thread {
 		int y = 22;
 
 		//values for variables set in GUI	
-		double tuneTimeValue =  logAnalyser_.getGuiElement("tuneTimeValue");
+		AttackScoring scoring = new AttackScoring(logAnalyser_);
 
-		String tmpString1 = "";
+		StringBuilder tmpString1 = new StringBuilder();
 		String tmpString2 = "";
 
 		int actualTime = 0;
@@ -784,15 +769,12 @@ public class LogOperations extends Thread {
 		int numberSuccessInRow = 0;
 		
 		boolean firstLine = true;
-		long amountOfLines = savedLog[0].split("\n").length;
-		long updateEveryNLine = amountOfLines/98;
-		long counter2 = 0;
+		int progress = 0;
 		
 		writeLocationInformationToFile("Silent Period\n******************\n", false);
 
 		//variables for kAnonymity und Entropy
 		//constant variable (max. driving speed of a vehicle)
-		double maxDrivingSpeed =  6944.44444444444444444444444444444444444;
 		double maxDistance = 0;
 		double maxDistanceSquared = 0;
 		long vehicleX = 0;
@@ -810,17 +792,24 @@ public class LogOperations extends Thread {
 		double distanceInTotal = 0;
 		ArrayList<Double> distances = new ArrayList<Double>();
 		
+		//index of the vehicles after a silent period
+		int candidates = 0;
+		int[] candidateX = null;
+		int[] candidateY = null;
+		String[] candidateIDs = null;
+		BeaconGridIndex index = null;
+		int found = 0;
 		
 		//if the file path has changed we have to read the log again
 		System.out.println("starting analysing...");
-		//read file into array separated by silent periods
-		BufferedReader reader = new BufferedReader(new StringReader(savedLog[0]));        
+		//read the log line by line and split it into the blocks between the silent periods
+		LogLineReader reader = null;
 		try {
+			reader = new LogLineReader(logAnalyser_.getActualJob());
 			//read vehicle data line by line
 			while ((line = reader.readLine()) != null) { 
-				counter2++;
 				//update progress bar
-				if(counter2%updateEveryNLine ==0) logAnalyser_.addToProgressBar(1);
+				progress = updateProgress(reader, 98, progress);
 				
 				//check if it's the correct log type
 				if(firstLine){
@@ -829,7 +818,7 @@ public class LogOperations extends Thread {
 					
 					silentPeriodTime = Integer.parseInt(silentPeriodHeader.split(":")[2]);
 					
-					maxDistance = maxDrivingSpeed*(double)(silentPeriodTime/1000);
+					maxDistance = AttackScoring.getSilentPeriodMaxDistance(silentPeriodTime);
 					maxDistanceSquared = maxDistance*maxDistance;
 					
 					if(!silentPeriodHeader.substring(0, 8).equals("Silent P")){
@@ -843,13 +832,26 @@ public class LogOperations extends Thread {
 					
 					if(oldTime != 0 && Math.abs(actualTime - oldTime) > 1000){
 						if(tmpString2.equals("")){
-							tmpString2 = tmpString1;
-							tmpString1 = "";
+							tmpString2 = tmpString1.toString();
+							tmpString1.setLength(0);
 						}
 						else{
 							//read the 2 beacon blocks
 							dataOne = tmpString2.split("\n");
-							dataTwo = tmpString1.split("\n");
+							dataTwo = tmpString1.toString().split("\n");
+							
+							//index the first beacons of the second block so that each vehicle is only compared to the vehicles it could have reached
+							candidates = dataTwo.length / 2;
+							candidateX = new int[candidates];
+							candidateY = new int[candidates];
+							candidateIDs = new String[candidates];
+							for(int k = 0; k < candidates; ++k){
+								logData2 = dataTwo[2*k].split(":");
+								candidateX[k] = Integer.parseInt(logData2[x]);
+								candidateY[k] = Integer.parseInt(logData2[y]);
+								candidateIDs[k] = logData2[steadyID];
+							}
+							index = new BeaconGridIndex(candidateX, candidateY, candidates, (long)maxDistance + 1);
 
 							steadyIDSave = "";
 							//iterate through the first block
@@ -863,25 +865,26 @@ public class LogOperations extends Thread {
 								x1 = Integer.parseInt(logData[x]);
 								y1 = Integer.parseInt(logData[y]);
 								//calculates how far the vehicle could drive at full speed
-								expectedWay = (float)((float)(silentPeriodTime/1000 * Integer.parseInt(logData[streetSpeed]))*tuneTimeValue);
+								expectedWay = (float)scoring.getSilentPeriodExpectedWay(silentPeriodTime, Integer.parseInt(logData[streetSpeed]));
 					
 								factor = 999999999;
 								
-								//now iterate through the second block 
-								for(int k = 0; k < dataTwo.length-1; k+=2){
-									//read first beacon
-									logData2= dataTwo[k].split(":");
+								//now check the second block. Vehicles with a factor above the initial factor are never chosen, so only vehicles up to this distance
+								//from the expected way are needed (with a margin for the rounding of the float values)
+								found = index.query(x1, y1, Math.sqrt((expectedWay*(double)expectedWay + factor) * 1.001) + 16, 0, candidates);
+								for(int i = 0; i < found; ++i){
+									int k = index.getResult()[i];
 									
-									dx = x1 - Integer.parseInt(logData2[x]);
-									dy = y1 - Integer.parseInt(logData2[y]);
+									dx = x1 - candidateX[k];
+									dy = y1 - candidateY[k];
 									
 									//calculate distance between estimated and real way (the smaller the better) 
-									tmpFactor = Math.abs((expectedWay*expectedWay) -(dx*dx + dy*dy));
+									tmpFactor = AttackScoring.getSilentPeriodScore(dx, dy, expectedWay);
 									
 									//save smallest factor
 									if(factor > tmpFactor) {
 										factor = tmpFactor;
-										steadyIDSave = logData2[steadyID];
+										steadyIDSave = candidateIDs[k];
 									}
 										
 								}
@@ -925,17 +928,18 @@ public class LogOperations extends Thread {
 								logData = dataOne[j+1].split(":");
 								
 								//calculate expected way using the street speed the silent period time and a gui element to tune the value
-								expectedWay2 = (double)((double)(silentPeriodTime/1000 * Integer.parseInt(logData[streetSpeed]))*tuneTimeValue);
+								expectedWay2 = scoring.getSilentPeriodExpectedWay(silentPeriodTime, Integer.parseInt(logData[streetSpeed]));
 								tmpDistance2 = maxDistance - expectedWay2;
 
 								vehicleX = Long.parseLong( logData[x]);
 								vehicleY = Long.parseLong( logData[y]);
 								
-								for(int k = 0; k < dataTwo.length-1; k+=2){
-									logData2= dataTwo[k].split(":");
+								found = index.query(vehicleX, vehicleY, maxDistance + 1, 0, candidates);
+								for(int i = 0; i < found; ++i){
+									int k = index.getResult()[i];
 									
-									dx2 = vehicleX - Long.parseLong(logData2[x]);
-									dy2 = vehicleY - Long.parseLong(logData2[y]);
+									dx2 = vehicleX - candidateX[k];
+									dy2 = vehicleY - candidateY[k];
 									
 									//count all vehicles which are inside the reach of the first vehicle (for anonymity set) and get the distances (to the expected way) to calculate the probabilities later
 									if((dx2*dx2 + dy2*dy2) <= maxDistanceSquared){
@@ -958,20 +962,22 @@ public class LogOperations extends Thread {
 							}
 							
 							
-							tmpString1 = "";
+							tmpString1.setLength(0);
 							tmpString2 = "";
 						}
 					}
-					tmpString1 += line + "\n";
+					tmpString1.append(line).append('\n');
 					
 					oldTime = actualTime;
 				}	
 			}
 			
-			tmpString1 = "";
+			tmpString1.setLength(0);
 			tmpString2 = "";
 		} catch(Exception e) {
 			e.printStackTrace();
+		} finally {
+			closeLog(reader);
 		}
 
 		
@@ -1054,12 +1060,6 @@ public class LogOperations extends Thread {
 		HashMap<String,String> successLog = new HashMap<String,String>();
 
 		
-		//save and load data (analysis will be faster the second time, e.g. after changing variables)
-		if(logAnalyser_.isFilePathChanged()){
-			savedLog[0] = readFile(logAnalyser_.getActualJob());
-			logAnalyser_.setFilePathChanged(false);
-		}	
-	
 		logAnalyser_.updateProgressBar(2);
 
 		writeLocationInformationToFile("Silent Period\n******************\n", false);
@@ -1086,11 +1086,11 @@ public class LogOperations extends Thread {
 
 		
 		//values for variables set in GUI			
-		double tuneTimeValue =  logAnalyser_.getGuiElement("tuneTimeValue");
+		AttackScoring scoring = new AttackScoring(logAnalyser_);
 		double limitToAngle = logAnalyser_.getGuiElement("limitToAngle");
 
 		
-		String tmpString1 = "";
+		StringBuilder tmpString1 = new StringBuilder();
 		String tmpString2 = "";
 		
 		//this arrays a just to save the beacons-blocks before and after the silent period
@@ -1136,7 +1136,6 @@ public class LogOperations extends Thread {
 		
 		//variables for kAnonymity and Entropy
 		//constant variable (max. driving speed of a vehicle)
-		double maxDrivingSpeed =  6944.44444444444444444444444444444444444;
 		double maxDistance = 0;
 		double maxDistanceSquared = 0;
 		long vehicleX = 0;
@@ -1153,18 +1152,26 @@ public class LogOperations extends Thread {
 		double entropiesAdded = 0;
 		float prob = 0;
 		
+		//index of the vehicles after a silent period
+		int candidates = 0;
+		int[] candidateX = null;
+		int[] candidateY = null;
+		int[] candidateX2 = null;
+		int[] candidateY2 = null;
+		String[] candidateIDs = null;
+		BeaconGridIndex index = null;
+		int found = 0;
+		
 		//variables for the progress bar
-		long amountOfLines = savedLog[0].split("\n").length;
-		long updateEveryNLine = amountOfLines/98;
-		long counter2 = 0;
+		int progress = 0;
 
-		//read file into array separated by silent periods
-		BufferedReader reader = new BufferedReader(new StringReader(savedLog[0]));        
+		//read the log line by line and split it into the blocks between the silent periods
+		LogLineReader reader = null;
 		try {
+			reader = new LogLineReader(logAnalyser_.getActualJob());
 			while ((line = reader.readLine()) != null) { 
-				counter2++;
 				//update progress bar
-				if(counter2%updateEveryNLine ==0) logAnalyser_.addToProgressBar(1);
+				progress = updateProgress(reader, 98, progress);
 				//check if it's the correct log type
 				if(firstLine){
 					firstLine = false;
@@ -1172,7 +1179,7 @@ public class LogOperations extends Thread {
 					
 					silentPeriodTime = Integer.parseInt(silentPeriodHeader.split(":")[2]);
 					
-					maxDistance = maxDrivingSpeed*(double)(silentPeriodTime/1000);
+					maxDistance = AttackScoring.getSilentPeriodMaxDistance(silentPeriodTime);
 					maxDistanceSquared = maxDistance*maxDistance;
 					
 					if(!silentPeriodHeader.substring(0, 8).equals("Silent P")){
@@ -1186,14 +1193,31 @@ public class LogOperations extends Thread {
 					
 					if(oldTime != 0 && Math.abs(actualTime - oldTime) > 1000){
 						if(tmpString2.equals("")){
-							tmpString2 = tmpString1;
-							tmpString1 = "";
+							tmpString2 = tmpString1.toString();
+							tmpString1.setLength(0);
 						}
 						else{
 							//read the 2 beacon blocks
 							dataOne = tmpString2.split("\n");
-							dataTwo = tmpString1.split("\n");
+							dataTwo = tmpString1.toString().split("\n");
 							
+							//index the first beacons of the second block so that each vehicle is only compared to the vehicles near its expected position
+							candidates = dataTwo.length / 2;
+							candidateX = new int[candidates];
+							candidateY = new int[candidates];
+							candidateX2 = new int[candidates];
+							candidateY2 = new int[candidates];
+							candidateIDs = new String[candidates];
+							for(int k = 0; k < candidates; ++k){
+								logData3 = dataTwo[2*k].split(":");
+								logData4 = dataTwo[2*k+1].split(":");
+								candidateX[k] = Integer.parseInt(logData3[x]);
+								candidateY[k] = Integer.parseInt(logData3[y]);
+								candidateX2[k] = Integer.parseInt(logData4[x]);
+								candidateY2[k] = Integer.parseInt(logData4[y]);
+								candidateIDs[k] = logData3[steadyID];
+							}
+							index = new BeaconGridIndex(candidateX, candidateY, candidates, (long)maxDistance + 1);
 						
 							String steadyIDSave = "";
 							//iterate through the first block
@@ -1211,7 +1235,7 @@ public class LogOperations extends Thread {
 								y2 = Integer.parseInt(logData2[y]);
 								
 								//calculates how far the vehicle could drive at full speed
-								expectedWay = (double)(silentPeriodTime/1000 * Integer.parseInt(logData2[streetSpeed]))*tuneTimeValue;
+								expectedWay = scoring.getSilentPeriodExpectedWay(silentPeriodTime, Integer.parseInt(logData2[streetSpeed]));
 									
 								//calculate vector
 								v1 = x2 - x1;
@@ -1224,20 +1248,19 @@ public class LogOperations extends Thread {
 												
 								factor = 999999999;
 								
-								//now iterate through the second block 
-								for(int k = 0; k < dataTwo.length-1; k+=2){
-									//first beacon and second beacon (needed to calculate a vector)
-									logData3= dataTwo[k].split(":");
-									logData4= dataTwo[k+1].split(":");
+								//now check the second block. Vehicles with a factor above the initial factor are never chosen, so only vehicles up to this distance
+								//from the expected position are needed (with a margin for the rounding of the float values)
+								found = index.query(v1, v2, Math.sqrt(factor * 1.001) + 16, 0, candidates);
+								for(int i = 0; i < found; ++i){
+									int k = index.getResult()[i];
 									
-									dx = v1 - Integer.parseInt(logData3[x]);
-									dy = v2 - Integer.parseInt(logData3[y]);
+									dx = v1 - candidateX[k];
+									dy = v2 - candidateY[k];
 									
-									
-									x3 = Integer.parseInt(logData3[x]);
-									x4 = Integer.parseInt(logData4[x]);
-									y3 = Integer.parseInt(logData3[y]);
-									y4 = Integer.parseInt(logData4[y]);
+									x3 = candidateX[k];
+									x4 = candidateX2[k];
+									y3 = candidateY[k];
+									y4 = candidateY2[k];
 									
 									//calculate 2. vector and get the angle (it's more likely that the vehicle won't change his vector. So we estimate that the vehicle drives straight ahead and is in this area)
 									vector1x = (x2 - x1);
@@ -1257,7 +1280,7 @@ public class LogOperations extends Thread {
 									//save smallest factor
 									if(factor > tmpFactor && Math.toDegrees(winkelBogenmass) < limitToAngle) {
 										factor = tmpFactor;
-										steadyIDSave = logData3[steadyID];
+										steadyIDSave = candidateIDs[k];
 									}
 								}
 								
@@ -1301,17 +1324,18 @@ public class LogOperations extends Thread {
 								logData = dataOne[j+1].split(":");
 								
 								//calculate expected way using the street speed the silent period time and a gui element to tune the value
-								expectedWay2 = (double)((double)(silentPeriodTime/1000 * Integer.parseInt(logData[streetSpeed]))*tuneTimeValue);
+								expectedWay2 = scoring.getSilentPeriodExpectedWay(silentPeriodTime, Integer.parseInt(logData[streetSpeed]));
 								tmpDistance2 = maxDistance - expectedWay2;
 
 								vehicleX = Long.parseLong( logData[x]);
 								vehicleY = Long.parseLong( logData[y]);
 								
-								for(int k = 0; k < dataTwo.length-1; k+=2){
-									logData2= dataTwo[k].split(":");
+								found = index.query(vehicleX, vehicleY, maxDistance + 1, 0, candidates);
+								for(int i = 0; i < found; ++i){
+									int k = index.getResult()[i];
 									
-									dx2 = vehicleX - Long.parseLong(logData2[x]);
-									dy2 = vehicleY - Long.parseLong(logData2[y]);
+									dx2 = vehicleX - candidateX[k];
+									dy2 = vehicleY - candidateY[k];
 									
 									//count all vehicles which are inside the reach of the first vehicle (for anonymity set) and get the distances (to the expected way) to calculate the probabilities later
 									if((dx2*dx2 + dy2*dy2) <= maxDistanceSquared){
@@ -1334,19 +1358,21 @@ public class LogOperations extends Thread {
 							}
 							
 							
-							tmpString1 = "";
+							tmpString1.setLength(0);
 							tmpString2 = "";
 						}
 					}
-					tmpString1 += line + "\n";
+					tmpString1.append(line).append('\n');
 					
 					oldTime = actualTime;						
 				}	
 			}
-			tmpString1 = "";
+			tmpString1.setLength(0);
 			tmpString2 = "";
 		} catch(Exception e) {
 			e.printStackTrace();
+		} finally {
+			closeLog(reader);
 		}
 
 		int maxOfRow = 0;
@@ -1450,25 +1476,20 @@ public class LogOperations extends Thread {
 		HashMap<String,String> successLog = new HashMap<String,String>();
 		
 		logAnalyser_.updateProgressBar(5);
-		String completeFile = "";
-		//save and load data (analysis will be faster the second time, e.g. after changing variables)
-		if(logAnalyser_.isFilePathChanged()){
-			completeFile = readFile(logAnalyser_.getActualJob());
-			savedLog = completeFile.split("\n");
-			logAnalyser_.setFilePathChanged(false);
-		}	
+		//only the header is read here, the records are read line by line further down
+		String header = readFirstLine(logAnalyser_.getActualJob());
 		
 		logAnalyser_.updateProgressBar(10);
 		
 		//check if we have a correct log -> if yes quit analysis
-		if(savedLog[0] == null || !savedLog[0].contains("Slow")){
+		if(header == null || !header.contains("Slow")){
 			JOptionPane.showMessageDialog(null, Messages.getString("LogOperations.WrongLogType"), "Error", JOptionPane.ERROR_MESSAGE);
 			return;
 		}
 		
 		writeLocationInformationToFile("Slow-Modell\n******************\n", false);
 		
-		String[] slowHeaderArray = savedLog[0].split(":");
+		String[] slowHeaderArray = header.split(":");
 		
 		//variables for statistics
 		int numberOfVehicles = 0;
@@ -1503,8 +1524,8 @@ public class LogOperations extends Thread {
 		int numberSuccessInRowLeftTooSoon = 0;
 		
 		//values for variables set in GUI	
-		double tuneTimeValue =  logAnalyser_.getGuiElement("tuneTimeValue");
-		double maxSlowSearchTime = logAnalyser_.getGuiElement("maxSlowSearchTime");
+		AttackScoring scoring = new AttackScoring(logAnalyser_);
+		double maxSlowSearchTime = scoring.getMaxSlowSearchTime();
 		double timeToChangePseudo = Double.parseDouble(slowHeaderArray[3]);
 
 		//initializing variables
@@ -1519,7 +1540,7 @@ public class LogOperations extends Thread {
 		
 		double score = 0;
 		
-		double maxDrivingDistance = Integer.parseInt(slowHeaderArray[1])*(maxSlowSearchTime/1000);
+		double maxDrivingDistance = scoring.getSlowMaxDistance(Integer.parseInt(slowHeaderArray[1]));
 
 		//double anoTotal = 0;
 		//double anoCounter = 0;
@@ -1527,336 +1548,233 @@ public class LogOperations extends Thread {
 
 		//int countertest = 0;
 		
-		
-		//int timeInSlowCounter = 0;
-		
-		//variables for the progressbar
-		long amountOfLines = savedLog.length;
-		long updateEveryNLine = amountOfLines/80;
-		long counter = 0;
-		if(updateEveryNLine == 0) updateEveryNLine = 1;
-		
-		//a ArrayList for all vehicles which reached destination.
-		ArrayList<String> vehiclesReachedGoalArray = new ArrayList<String>();
-		
-		//int tmpCounter = 0;
-		
-		BufferedReader reader = new BufferedReader(new StringReader(completeFile));     
-	/*
-		try {
-			//read vehicle data line by line and check every vehicle
-			while ((line = reader.readLine()) != null) {  			
-				//skip empty lines and header lines
-				if (line.length() > 8 && !line.substring(0, 4).equals("Slow")){
-					//in this loop we look for all vehicles which started a slow period. --> skip vehicles with OUT direction
-					logData = line.split(":");
-					
-					if(logData[0].equals("VehicleReachedDestination")){
-						vehiclesReachedGoalArray.add(logData[1]);
-					}
-					
-					if(logData.length == 25){
-						if(Integer.parseInt(logData[24]) <= 3000){
-							if(tmpCounter < 200){
-								System.out.println(line);
-								tmpCounter++;
-							}
-							timeInSlowCounter++;
-						}
-					}
-				}
-					
-			}
-		} catch(IOException e) {
-			System.out.println("Error while doing standard slow attack");
-			e.printStackTrace();
-		}
-		
-		System.out.println("*********");
-		*/
-		ArrayList<String> blacklist = new ArrayList<String>();
-
-		//reader = new BufferedReader(new StringReader(completeFile));  
-		try {
-			//read vehicle data line by line and check every vehicle
-			while ((line = reader.readLine()) != null) {  		
-				//skip empty lines and header lines
-				if (line.length() > 8 && !line.substring(0, 4).equals("Slow")){
-					//in this loop we look for all vehicles which started a slow period. --> skip vehicles with OUT direction
-					logData = line.split(":");
-					
-					if(logData[0].equals("VehicleReachedDestination")){
-						
-						vehiclesReachedGoalArray.add(logData[1] + ":" + logData[2]);
-						/*
-						System.out.println("suche:" + line);
-						//now reverse search the start of this slow
-						ReverseLineReader rlr = new ReverseLineReader(logAnalyser_.getActualJob(), tmpFile.length());
-
-						while((tmpLine = rlr.readPreviousLine()) != null){
-							tmpArray = tmpLine.split(":");
-							if(tmpArray != null && tmpArray.length > 6){
-								if(tmpArray[2].equals(logData[1])){
-									vehiclesReachedGoalArray.add(tmpLine);
-									System.out.println("finde:" + tmpLine);
-									break;
-								}
-							}
-						}
-						*/	
-					}
-					else if(logData[direction].equals("IN")){
-						//take the second beacon. It is more actual
-						line = reader.readLine();
-						logData = line.split(":");
-						
-						//numberOfVehicles++;
-													
-								
-						//now check every vehicle that left the mix zone in the time (expectedTime + buffer)
-						//set mark for reader (performance tweak, we can resume our buffer on this position later)
-						reader.mark(completeFile.length());							
-												
-						try {
-							//read vehicle data line by line
-							while ((line = reader.readLine()) != null) {   
-								logData2 = line.split(":");
-								
-								
-
-								if(logData2[0].equals("VehicleReachedDestination")){
-									
-								}
-								//we are looking for vehicles leaving the slow period, skip IN!
-								else if(logData2[direction].equals("IN")){
-									//always two beacons, skip 1 more
-									reader.readLine();
-								}
-								else{
-									reader.readLine();
-									if(logData[pseudonym].equals(logData2[pseudonym])) {
-										blacklist.add(line);
-										
-										break;
-									}
-									
-									//we only check vehicles until a selected time (performance tweak, calculated expected time + buffer)
-									if((Integer.parseInt(logData[timestamp]) + timeToChangePseudo) < Integer.parseInt(logData2[timestamp])){
-										break;
-									}
-								}
-							}
-						} catch(IOException e) {
-							System.out.println("Error while doing standard slow attack");
-							e.printStackTrace();
-						}
-
-						//jump to mark
-						reader.reset();	
+		
+		//int timeInSlowCounter = 0;
+		
+		//variables for the progressbar
+		long counter = 0;
+		
+		//a HashSet for all vehicles which reached destination.
+		HashSet<String> vehiclesReachedGoal = new HashSet<String>();
+		
+		//read all vehicles leaving a slow period (in the order of the log) and all vehicles starting one. Every IN and OUT is logged with two beacons.
+		ArrayList<String[]> outData = new ArrayList<String[]>();
+		ArrayList<String> outLines = new ArrayList<String>();
+		ArrayList<SlowVehicle> slowVehicles = new ArrayList<SlowVehicle>();
+		LogLineReader reader = null;
+		try {
+			reader = new LogLineReader(logAnalyser_.getActualJob());
+			while((line = reader.readLine()) != null){
+				//skip empty lines and header lines
+				if (line.length() > 8 && !line.substring(0, 4).equals("Slow")){
+					logData = line.split(":");
+					
+					if(logData[0].equals("VehicleReachedDestination")){
+						vehiclesReachedGoal.add(logData[1] + ":" + logData[2]);
+					}
+					else if(logData[direction].equals("IN")){
+						//take the second beacon. It is more actual
+						String secondBeacon = reader.readLine();
+						if(secondBeacon != null) slowVehicles.add(new SlowVehicle(logData, secondBeacon.split(":"), outData.size()));
+					}
+					else{
+						//always two beacons, skip 1 more
+						reader.readLine();
+						outData.add(logData);
+						outLines.add(line);
 					}
 				}
 			}
 		} catch(IOException e) {
 			System.out.println("Error while doing standard slow attack");
 			e.printStackTrace();
+			return;
+		} finally {
+			closeLog(reader);
 		}
 		
-		reader = new BufferedReader(new StringReader(completeFile));  
-		try {
-			//read vehicle data line by line and check every vehicle
-			while ((line = reader.readLine()) != null) {  
-				counter++;
-				//update progressbar
-				if(counter%updateEveryNLine == 0) logAnalyser_.addToProgressBar(1);
+		//index the vehicles leaving a slow period by position and time (their position in the log) so that each vehicle is only compared to the 
+		//vehicles which left in its time window and could be reached
+		int outCount = outData.size();
+		int[] outTime = new int[outCount];
+		int[] outX = new int[outCount];
+		int[] outY = new int[outCount];
+		boolean outSorted = true;
+		HashMap<String,ArrayList<Integer>> outsByPseudonym = new HashMap<String,ArrayList<Integer>>();
+		for(int o = 0; o < outCount; ++o){
+			logData2 = outData.get(o);
+			outTime[o] = Integer.parseInt(logData2[timestamp]);
+			outX[o] = Integer.parseInt(logData2[x]);
+			outY[o] = Integer.parseInt(logData2[y]);
+			if(o > 0 && outTime[o] < outTime[o-1]) outSorted = false;
+			
+			ArrayList<Integer> outs = outsByPseudonym.get(logData2[pseudonym]);
+			if(outs == null){
+				outs = new ArrayList<Integer>();
+				outsByPseudonym.put(logData2[pseudonym], outs);
+			}
+			outs.add(o);
+		}
+		BeaconGridIndex index = new BeaconGridIndex(outX, outY, outCount, (long)maxDrivingDistance + 1);
+		int found = 0;
+		int sameOut = 0;
+		int windowEnd = 0;
+		int inTime = 0;
+		int inX = 0;
+		int inY = 0;
+		int inSpeed = 0;
+		
+		//vehicles leaving with the pseudonym of a vehicle which started a slow period shortly before did not change their pseudonym. They are no candidates for other vehicles
+		HashSet<String> blacklist = new HashSet<String>();
+		for(SlowVehicle vehicle : slowVehicles){
+			logData = vehicle.logData_;
+			sameOut = findOutWithPseudonym(outsByPseudonym.get(logData[pseudonym]), vehicle.firstOut_);
+			if(sameOut != -1 && sameOut <= findSlowWindowEnd(outTime, vehicle.firstOut_, Integer.parseInt(logData[timestamp]) + timeToChangePseudo, outSorted)){
+				blacklist.add(outLines.get(sameOut));
+			}
+		}
+		
+		long updateEveryNVehicle = slowVehicles.size()/80;
+		if(updateEveryNVehicle == 0) updateEveryNVehicle = 1;
+		
+		//now check every vehicle which started a slow period
+		for(SlowVehicle vehicle : slowVehicles){
+			counter++;
+			//update progressbar
+			if(counter%updateEveryNVehicle == 0) logAnalyser_.addToProgressBar(1);
+			
+			if(vehiclesReachedGoal.contains(vehicle.firstBeacon_[steadyID] + ":" + vehicle.firstBeacon_[pseudonym])) continue;
+			logData = vehicle.logData_;
+			inTime = Integer.parseInt(logData[timestamp]);
+			
+			//tmp variable to save steadyID and the factor
+			savedSteadyID = "";
+			savedScore = 999999999;
+			
+			//we only check vehicles until a selected time (performance tweak, calculated expected time + buffer)
+			windowEnd = findSlowWindowEnd(outTime, vehicle.firstOut_, inTime + maxSlowSearchTime, outSorted);
+			
+			//check if vehicle was under the min time to chance pseudonym
+			sameOut = findOutWithPseudonym(outsByPseudonym.get(logData[pseudonym]), vehicle.firstOut_);
+			if(sameOut != -1 && sameOut < windowEnd){
+				savedSteadyID = outData.get(sameOut)[steadyID];
+				numberOfVehiclesLeftTooSoon++;
+				vehicleLeftTooSoon = true;
+			}
+			else{
+				inX = Integer.parseInt(logData[x]);
+				inY = Integer.parseInt(logData[y]);
+				inSpeed = Integer.parseInt(logData[vehicleSpeed]);
 				
-				//skip empty lines and header lines
-				if (line.length() > 8 && !line.substring(0, 4).equals("Slow")){
-					//in this loop we look for all vehicles which started a slow period. --> skip vehicles with OUT direction
-					logData = line.split(":");
+				found = index.query(inX, inY, maxDrivingDistance + 1, vehicle.firstOut_, windowEnd);
+				for(int i = 0; i < found; ++i){
+					int o = index.getResult()[i];
 					
-					if(logData[0].equals("VehicleReachedDestination")){
-						
-					}
-					else if(logData[direction].equals("OUT")){
-						
-					}
-					else if(logData[direction].equals("IN") && !vehiclesReachedGoalArray.contains(logData[steadyID] + ":" + logData[pseudonym])){
-	
-						//take the second beacon. It is more actual
-						line = reader.readLine();
-						logData = line.split(":");
-						
-						//numberOfVehicles++;
-													
-								
-						//now check every vehicle that left the mix zone in the time (expectedTime + buffer)
-						//set mark for reader (performance tweak, we can resume our buffer on this position later)
-						reader.mark(completeFile.length());
-								
-						//tmp variable to save steadyID and the factor
-						savedSteadyID = "";
-						savedScore = 999999999;
-							
-												
-						try {
-							//read vehicle data line by line
-							while ((line = reader.readLine()) != null) {   
-								logData2 = line.split(":");
-								
-							
-
-								if(logData2[0].equals("VehicleReachedDestination")){
-									
-								}
-								//we are looking for vehicles leaving the slow period, skip IN!
-								else if(logData2[direction].equals("IN")){
-									//always two beacons, skip 1 more
-									reader.readLine();
-								}
-								else{
-									reader.readLine();
-
-									//we only check vehicles until a selected time (performance tweak, calculated expected time + buffer)
-									if((Integer.parseInt(logData[timestamp]) + maxSlowSearchTime) < Integer.parseInt(logData2[timestamp])){
-										break;
-									}
-									
-									//check if vehicle was under the min time to chance pseudonym
-									if(logData[pseudonym].equals(logData2[pseudonym])){
-										savedSteadyID = logData2[steadyID];
-										numberOfVehiclesLeftTooSoon++;
-										vehicleLeftTooSoon = true;
-										
-										
-										break;
-									}
-									
-									if(!blacklist.contains(line)){
-										dx = Integer.parseInt(logData[x]) - Integer.parseInt(logData2[x]);
-										dy = Integer.parseInt(logData[y]) - Integer.parseInt(logData2[y]);
-
-										if((maxDrivingDistance*maxDrivingDistance) > (dx*dx + dy*dy)){
-											//anoTotal++;
-											//if(logData[steadyID].equals(logData2[steadyID]))anoCounter++;
-											
-	
-											expectedWay = (float) ((float)((Integer.parseInt(logData2[timestamp]) - Integer.parseInt(logData[timestamp]))/1000 * Integer.parseInt(logData[vehicleSpeed])) / tuneTimeValue);
+					if(!blacklist.contains(outLines.get(o))){
+						dx = inX - outX[o];
+						dy = inY - outY[o];
 
-											score = Math.abs((dx*dx + dy*dy) - (expectedWay*expectedWay));
-											
-											//always save the smallest vehicle with the smallest factor
-											
-											if(score < savedScore){
-												savedScore = score;
-												savedSteadyID = logData2[steadyID];
-											}
-		
-										}
-									}
-								}
-							}
-						} catch(IOException e) {
-							System.out.println("Error while doing standard slow attack");
-							e.printStackTrace();
-						}
-						
+						if((maxDrivingDistance*maxDrivingDistance) > (dx*dx + dy*dy)){
+							expectedWay = (float)scoring.getSlowExpectedWay(outTime[o] - inTime, inSpeed);
 
-						//update states to log the movement of vehicles through more slows. Format:
-						successData = successDataReset.clone();
-						if(successLog.get(logData[steadyID]) != null) successData = successLog.get(logData[steadyID]).split(":");			
-						
-						numberTotal = Integer.parseInt(successData[0]);
-						numberSuccessInRow = Integer.parseInt(successData[1]);
-						numberSuccessInRowLeftTooSoon = Integer.parseInt(successData[2]);
-						
-						numberOfVehicles++;
-						//Test ob in LeftTooSoon ein Fehler ist :
-						if(vehicleLeftTooSoon){ 
-							locationInformation_ += "slow:" + logData[x] + ":" + logData[y] + "\n";
-							numberOfCorrectVehicles++; 
-							
-							successLog.remove(logData[steadyID]);
-							
-							if(successData[3].equals("true")) {
-								successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":" + (numberSuccessInRowLeftTooSoon+1) + ":true");
-							}
-							else{
-								successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow  + ":" + numberSuccessInRowLeftTooSoon + ":false");
-							}
-							
-						}
-						else if(savedSteadyID.equals(logData[steadyID])){
-							locationInformation_ += "true:" + logData[x] + ":" + logData[y] + "\n";
-							successLog.remove(logData[steadyID]);
-							
-							if(successData[3].equals("true")) {
-								successLog.put(logData[steadyID], (numberTotal+1) + ":" + (numberSuccessInRow+1) + ":" + (numberSuccessInRowLeftTooSoon+1) + ":true");
-							}
-							else{
-								successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":" + numberSuccessInRowLeftTooSoon  + ":false");
-							}
-							
-							numberOfCorrectVehicles++;
-						}
-						else{
-							locationInformation_ += "false:" + logData[x] + ":" + logData[y] + "\n";
-							successLog.remove(logData[steadyID]);
-							successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":" + numberSuccessInRowLeftTooSoon + ":false");
-						}
-						//Sicherungskopie
-						/*
-						if(vehicleLeftTooSoon){ 
-							locationInformation_ += "slow:" + logData[x] + ":" + logData[y] + "\n";
-							numberOfCorrectVehicles++; 
-							
-							successLog.remove(logData[steadyID]);
-							
-							if(successData[3].equals("true")) {
-								successLog.put(logData[steadyID], (numberTotal+1) + ":" + (numberSuccessInRow+1) + ":" + (numberSuccessInRowLeftTooSoon+1) + ":true");
-							}
-							else{
-								successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow  + ":" + (numberSuccessInRowLeftTooSoon) + ":false");
-							}
-							
-						}
-						else if(savedSteadyID.equals(logData[steadyID])){
-							locationInformation_ += "true:" + logData[x] + ":" + logData[y] + "\n";
-							successLog.remove(logData[steadyID]);
+							score = AttackScoring.getSlowScore(dx, dy, expectedWay);
 							
-							if(successData[3].equals("true")) {
-								successLog.put(logData[steadyID], (numberTotal+1) + ":" + (numberSuccessInRow+1) + ":" + numberSuccessInRowLeftTooSoon + ":true");
-							}
-							else{
-								successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":" + numberSuccessInRowLeftTooSoon  + ":false");
+							//always save the smallest vehicle with the smallest factor
+							if(score < savedScore){
+								savedScore = score;
+								savedSteadyID = outData.get(o)[steadyID];
 							}
-							
-							numberOfCorrectVehicles++;
-						}
-						else{
-							locationInformation_ += "false:" + logData[x] + ":" + logData[y] + "\n";
-							successLog.remove(logData[steadyID]);
-							successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":" + numberSuccessInRowLeftTooSoon + ":false");
 						}
-						*/
-						
-						if(numberOfVehicles%10 == 0)logAnalyser_.updateInformationArea(numberOfVehicles, numberOfVehiclesLeftTooSoon, numberOfCorrectVehicles, false);
-						
-						writeLocationInformationToFile(null, true);
-						locationInformation_ = "";
-	
-						vehicleLeftTooSoon = false;	
-
-						
-						//jump to mark
-						reader.reset();	
 					}
 				}
-					
 			}
-		} catch(IOException e) {
-			System.out.println("Error while doing standard slow attack");
-			e.printStackTrace();
+			
+
+			//update states to log the movement of vehicles through more slows. Format:
+			successData = successDataReset.clone();
+			if(successLog.get(logData[steadyID]) != null) successData = successLog.get(logData[steadyID]).split(":");			
+			
+			numberTotal = Integer.parseInt(successData[0]);
+			numberSuccessInRow = Integer.parseInt(successData[1]);
+			numberSuccessInRowLeftTooSoon = Integer.parseInt(successData[2]);
+			
+			numberOfVehicles++;
+			//Test ob in LeftTooSoon ein Fehler ist :
+			if(vehicleLeftTooSoon){ 
+				locationInformation_ += "slow:" + logData[x] + ":" + logData[y] + "\n";
+				numberOfCorrectVehicles++; 
+				
+				successLog.remove(logData[steadyID]);
+				
+				if(successData[3].equals("true")) {
+					successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":" + (numberSuccessInRowLeftTooSoon+1) + ":true");
+				}
+				else{
+					successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow  + ":" + numberSuccessInRowLeftTooSoon + ":false");
+				}
+				
+			}
+			else if(savedSteadyID.equals(logData[steadyID])){
+				locationInformation_ += "true:" + logData[x] + ":" + logData[y] + "\n";
+				successLog.remove(logData[steadyID]);
+				
+				if(successData[3].equals("true")) {
+					successLog.put(logData[steadyID], (numberTotal+1) + ":" + (numberSuccessInRow+1) + ":" + (numberSuccessInRowLeftTooSoon+1) + ":true");
+				}
+				else{
+					successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":" + numberSuccessInRowLeftTooSoon  + ":false");
+				}
+				
+				numberOfCorrectVehicles++;
+			}
+			else{
+				locationInformation_ += "false:" + logData[x] + ":" + logData[y] + "\n";
+				successLog.remove(logData[steadyID]);
+				successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":" + numberSuccessInRowLeftTooSoon + ":false");
+			}
+			//Sicherungskopie
+			/*
+			if(vehicleLeftTooSoon){ 
+				locationInformation_ += "slow:" + logData[x] + ":" + logData[y] + "\n";
+				numberOfCorrectVehicles++; 
+				
+				successLog.remove(logData[steadyID]);
+				
+				if(successData[3].equals("true")) {
+					successLog.put(logData[steadyID], (numberTotal+1) + ":" + (numberSuccessInRow+1) + ":" + (numberSuccessInRowLeftTooSoon+1) + ":true");
+				}
+				else{
+					successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow  + ":" + (numberSuccessInRowLeftTooSoon) + ":false");
+				}
+				
+			}
+			else if(savedSteadyID.equals(logData[steadyID])){
+				locationInformation_ += "true:" + logData[x] + ":" + logData[y] + "\n";
+				successLog.remove(logData[steadyID]);
+				
+				if(successData[3].equals("true")) {
+					successLog.put(logData[steadyID], (numberTotal+1) + ":" + (numberSuccessInRow+1) + ":" + numberSuccessInRowLeftTooSoon + ":true");
+				}
+				else{
+					successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":" + numberSuccessInRowLeftTooSoon  + ":false");
+				}
+				
+				numberOfCorrectVehicles++;
+			}
+			else{
+				locationInformation_ += "false:" + logData[x] + ":" + logData[y] + "\n";
+				successLog.remove(logData[steadyID]);
+				successLog.put(logData[steadyID], (numberTotal+1) + ":" + numberSuccessInRow + ":" + numberSuccessInRowLeftTooSoon + ":false");
+			}
+			*/
+			
+			if(numberOfVehicles%10 == 0)logAnalyser_.updateInformationArea(numberOfVehicles, numberOfVehiclesLeftTooSoon, numberOfCorrectVehicles, false);
+			
+			if(numberOfVehicles%100 == 0) writeLocationInformationToFile(null, true);
+
+			vehicleLeftTooSoon = false;	
 		}
+		writeLocationInformationToFile(null, true);
 
 		logAnalyser_.updateInformationArea(numberOfVehicles, numberOfVehiclesLeftTooSoon, numberOfCorrectVehicles, true);
 /*
@@ -1930,11 +1848,55 @@ public class LogOperations extends Thread {
 		//write results to file
 		logAnalyser_.writeResultsToFile("withVehiclesLeftTooSoon");
 		
-		calculateAverageSlowTime(completeFile);
+		calculateAverageSlowTime(logAnalyser_.getActualJob());
 	}
 	
 
-	public void calculateAverageSlowTime(String file){
+	/**
+	 * Finds the end of the time window of a vehicle in a slow period.
+	 * 
+	 * @param outTime	the times of the vehicles leaving a slow period (in the order of the log)
+	 * @param from		the first vehicle which left after the vehicle
+	 * @param limit		the end of the time window
+	 * @param sorted	<code>true</code> if the times are in ascending order
+	 * 
+	 * @return the first vehicle from <code>from</code> on which left after the limit (the amount of vehicles if there is none)
+	 */
+	private static int findSlowWindowEnd(int[] outTime, int from, double limit, boolean sorted){
+		if(!sorted){
+			while(from < outTime.length && outTime[from] <= limit) ++from;
+			return from;
+		}
+		int to = outTime.length;
+		while(from < to){
+			int middle = (from + to) >>> 1;
+			if(outTime[middle] <= limit) from = middle + 1;
+			else to = middle;
+		}
+		return from;
+	}
+	
+	/**
+	 * Finds the first vehicle leaving a slow period with a pseudonym.
+	 * 
+	 * @param outs	the vehicles leaving with the pseudonym (ascending, may be <code>null</code>)
+	 * @param from	the first vehicle to check
+	 * 
+	 * @return the vehicle or <code>-1</code> if there is none
+	 */
+	private static int findOutWithPseudonym(ArrayList<Integer> outs, int from){
+		if(outs == null) return -1;
+		int low = 0, high = outs.size();
+		while(low < high){
+			int middle = (low + high) >>> 1;
+			if(outs.get(middle) < from) low = middle + 1;
+			else high = middle;
+		}
+		if(low == outs.size()) return -1;
+		return outs.get(low);
+	}
+	
+	public void calculateAverageSlowTime(String filePath){
 		String line = "";
 		String[] array;
 		
@@ -1942,8 +1904,9 @@ public class LogOperations extends Thread {
 		//double counter = 0;
 		//int moreThen10 = 0;
 		//int lessThen10 = 0;
-		BufferedReader reader = new BufferedReader(new StringReader(file));        
+		LogLineReader reader = null;
 		try {
+			reader = new LogLineReader(filePath);
 			//read vehicle data line by line and check every vehicle
 			while ((line = reader.readLine()) != null) { 
 				array = line.split(":");
@@ -1957,6 +1920,8 @@ public class LogOperations extends Thread {
 		} catch(IOException e) {
 			System.out.println("Error while doing standard slow attack");
 			e.printStackTrace();
+		} finally {
+			closeLog(reader);
 		}
 		
 	//System.out.print("Average:" + sumTotal / counter + " more than 10:" + moreThen10 + " less than 10:" + lessThen10);
@@ -2223,7 +2188,7 @@ public class LogOperations extends Thread {
 		
 		float[] tmpKAno = null;
 		for(int i = 0; i < mixZoneHeaderArray.length; i++){
-			tmpKAno = getKAnonymityInMix(mixZoneHeaderArray[i].split(":")[2],savedLog[1]);
+			tmpKAno = getKAnonymityInMix(mixZoneHeaderArray[i].split(":")[2], logAnalyser_.getActualJob());
 			kAnonymityValues[i] = tmpKAno[0];
 			
 			numberOfKAnoVehTotal += tmpKAno[1];
@@ -2265,9 +2230,10 @@ public class LogOperations extends Thread {
 	*/
 	
 	/**
-	 * return k-anonymity of a mix log (for a chosen node id)
+	 * return k-anonymity of a mix log (for a chosen node id). For compressed logs, only the chunks with records of the 
+	 * mix zone node are read.
 	 */
-	public float[] getKAnonymityInMix(String theNodeID, String log){
+	public float[] getKAnonymityInMix(String theNodeID, String filePath){
 		String line = "";
 		String[]logData;
 		String[]logData2;
@@ -2281,13 +2247,24 @@ public class LogOperations extends Thread {
 		int numberOfVehicles = 0;
 		int totalNumberOfVehicles = 0;
 		int tmpNumberOfVehicles = 0;
-		ArrayList<String> savedIDs = new ArrayList<String>();
-		ArrayList<String> savedInMixZone = new ArrayList<String>();
+		HashSet<String> savedIDs = new HashSet<String>();
+		//vehicles in the mix zone (a vehicle can be counted more than once)
+		HashMap<String,Integer> savedInMixZone = new HashMap<String,Integer>();
+		int savedInMixZoneSize = 0;
+		Integer count;
 		boolean endOfFile = true;
+		long mark;
 		
-		//iterate through beacons
-		BufferedReader reader = new BufferedReader(new StringReader(log));        
+		//iterate through beacons (the header lines are no beacons and are skipped like empty lines)
+		LogLineReader reader = null;
 		try {
+			long id;
+			try {
+				id = Long.parseLong(theNodeID);
+				reader = new LogLineReader(filePath, BinaryLogFormat.KEY_NODE_ID, id, id);
+			} catch (NumberFormatException e) {
+				reader = new LogLineReader(filePath);
+			}
 			//read vehicle data line by line
 			while ((line = reader.readLine()) != null) {  
 				if (line.length() > 0){
@@ -2298,36 +2275,35 @@ public class LogOperations extends Thread {
 						if(logData[direction].equals("IN") && logData[nodeID].equals(theNodeID)){
 							
 							//log all vehicles which drive into the mix-zone
-							savedInMixZone.add(logData[steadyID]);
-							//set mark for reader (performance tweak)
-							reader.mark(log.length());
+							count = savedInMixZone.get(logData[steadyID]);
+							savedInMixZone.put(logData[steadyID], Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+							savedInMixZoneSize++;
+							//remember the position (we resume reading there later)
+							mark = reader.getPosition();
 							numberOfVehicles++;
 							
-							try {
-								//read vehicle data line by line
-								while ((line = reader.readLine()) != null) {   
-									logData2 = line.split(":");
-									
-									//delete all vehicles which drive out of the mix-zone
-									if(logData2[direction].equals("OUT") && logData[nodeID].equals(theNodeID)) if(savedInMixZone.contains(logData2[steadyID])) savedInMixZone.remove(logData2[steadyID]);
-										
-									//vehicles leaves mix zone
-									if(logData[steadyID].equals(logData2[steadyID])){
-										if(logData2[direction].equals("OUT")) endOfFile = false;
-										break;
-									}
+							//read vehicle data line by line
+							while ((line = reader.readLine()) != null) {   
+								logData2 = line.split(":");
+								
+								//delete all vehicles which drive out of the mix-zone
+								if(logData2[direction].equals("OUT") && logData[nodeID].equals(theNodeID) && (count = savedInMixZone.get(logData2[steadyID])) != null){
+									if(count.intValue() == 1) savedInMixZone.remove(logData2[steadyID]);
+									else savedInMixZone.put(logData2[steadyID], Integer.valueOf(count.intValue() - 1));
+									savedInMixZoneSize--;
+								}
 									
-									//vehicle is still in mix zone
-									if(logData2[nodeID].equals(theNodeID)){
-										//a vehicle could enter and leave mix zone while the other vehicle is still in the zone. Saving logged vehicle IDs to avoid counting vehicles double
-										if(!savedIDs.contains(logData2[steadyID])){
-											savedIDs.add(logData2[steadyID]);
-											tmpNumberOfVehicles++;
-										}
-									}
+								//vehicles leaves mix zone
+								if(logData[steadyID].equals(logData2[steadyID])){
+									if(logData2[direction].equals("OUT")) endOfFile = false;
+									break;
+								}
+								
+								//vehicle is still in mix zone
+								if(logData2[nodeID].equals(theNodeID)){
+									//a vehicle could enter and leave mix zone while the other vehicle is still in the zone. Saving logged vehicle IDs to avoid counting vehicles double
+									if(savedIDs.add(logData2[steadyID])) tmpNumberOfVehicles++;
 								}
-							} catch(IOException e) {
-									e.printStackTrace();
 							}
 							
 							//only use the data if end of file has not been reached
@@ -2336,17 +2312,19 @@ public class LogOperations extends Thread {
 								tmpNumberOfVehicles = 0;
 							}
 							savedIDs.clear();
-							totalNumberOfVehicles += tmpNumberOfVehicles + savedInMixZone.size();
+							totalNumberOfVehicles += tmpNumberOfVehicles + savedInMixZoneSize;
 							tmpNumberOfVehicles = 0;
 							endOfFile = true;
-							//jump to mark
-							reader.reset();
+							//jump to the remembered position
+							reader.setPosition(mark);
 						}	
 					}
 				}
 			}
-		} catch(IOException e) {
+		} catch (IOException e) {
 			e.printStackTrace();
+		} finally {
+			closeLog(reader);
 		}
 		
 		float[] arr = {(float)totalNumberOfVehicles/numberOfVehicles, totalNumberOfVehicles, numberOfVehicles};
@@ -2354,55 +2332,6 @@ public class LogOperations extends Thread {
 	}
 	
 	
-	/**
-	 * Method to read a file
-	 */
-	public String readFile(String filePath){		
-		byte[] data = null;
-			try {
-				java.io.FileInputStream f1;
-				f1 = new java.io.FileInputStream(filePath);
-			    FileChannel fc = f1.getChannel();
-			    data = new byte[(int) fc.size()];
-			    MappedByteBuffer b = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
-			    
-			    b.get(data);
-			    b.clear();
-			    fc.close();
-			    f1.close();
-			} catch (Exception e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-
-		return new String(data);
-	}
-	
-	/**
-	 * Method to read a file. Reads a file and returns the header and the content split in an String array
-	 */
-	public String[] readFileAndHeader(String filePath){
-		byte[] data = null;
-		try {
-			java.io.FileInputStream f1;
-			f1 = new java.io.FileInputStream(filePath);
-		    FileChannel fc = f1.getChannel();
-		    data = new byte[(int) fc.size()];
-		    MappedByteBuffer b = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
-		    
-		    b.get(data);
-		    b.clear();
-		    fc.close();
-		    f1.close();
-		} catch (Exception e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		
-		return new String(data).split(java.util.regex.Pattern.quote("*******************"));
-	}
-	
-
 	/**
 	 * Method to read a file without the header of the log
 	 */
@@ -2434,19 +2363,28 @@ public class LogOperations extends Thread {
 	
 
 	/**
-	 * Analyze traffic data to get information for an attack (for a mix node
+	 * Analyze traffic data to get information for an attack (for a mix node)
 	 */
-	public Object[] getDataOfMixZoneLog(String[] file, String mixNodeID, int totalNumberOfAnalysedZones){		
-		//read log. Be careful with big logs!!!
-		String header = file[0];
-		String log = file[1];
-		
+	public Object[] getDataOfMixZoneLog(String header, String filePath, String mixNodeID, int totalNumberOfAnalysedZones){		
+		HashMap<String,Object[]> trafficDataMap = getDataOfMixZoneLogs(header, filePath);
+		if(trafficDataMap == null) return null;
+		return trafficDataMap.get(mixNodeID);
+	}
+	
+	/**
+	 * Analyze traffic data to get information for an attack for all mix zones in the header of the log. The log is read once: 
+	 * every vehicle driving into a mix zone waits until the same vehicle leaves the mix zone.
+	 * 
+	 * @param header	the header of the log
+	 * @param filePath	the path of the log
+	 * 
+	 * @return the traffic data (time and probability and frequency from port to port) by node id or <code>null</code> if the log can't be read
+	 */
+	public HashMap<String,Object[]> getDataOfMixZoneLogs(String header, String filePath){
 		//temp variables
 		String line = "";
 		String[] logData;
 	
-		//variables for statistics
-		
 		//index of log data (useful if log structure changes)
 		int timestamp = 0;
 		int steadyID = 2;
@@ -2454,95 +2392,102 @@ public class LogOperations extends Thread {
 		int direction = 12;
 		int port = 20;
 		
-		//mix Zone Information
-		String[] mixInfo;
-		int mixZonePorts = 0;
-		
-		//get amount of ports in mix zone
+		//get amount of ports of each mix zone
+		HashMap<String,Object[]> trafficDataMap = new HashMap<String,Object[]>();
+		HashMap<String,int[][]> lastEntries = new HashMap<String,int[][]>();
 		String[] headers = header.split("\n");
 		for(int i = 0; i < headers.length; i++){
 			String[] lineSplit = headers[i].split(":");
-			if(lineSplit[2].equals(mixNodeID)){
-				mixInfo = lineSplit;
-				mixZonePorts = mixInfo.length - 5;
-				break;
+			if(!trafficDataMap.containsKey(lineSplit[2])){
+				int mixZonePorts = lineSplit.length - 5;
+				Object[] trafficData = {new int[mixZonePorts][mixZonePorts], new double[mixZonePorts][mixZonePorts], new int[mixZonePorts][mixZonePorts]};
+				trafficDataMap.put(lineSplit[2], trafficData);
+				lastEntries.put(lineSplit[2], new int[mixZonePorts][mixZonePorts]);
 			}
 		}
 		
-		int portToPortSpeed[][] = new int[mixZonePorts][mixZonePorts];
-		double portToPortProbability[][] = new double[mixZonePorts][mixZonePorts];
-		int portToPortFrequency[][] = new int[mixZonePorts][mixZonePorts];
-
-		Object[] returnValue = {portToPortSpeed, portToPortProbability, portToPortFrequency};
+		//vehicles which drove into a mix zone and haven't left it yet (key: node id and steady id)
+		HashMap<String,ArrayList<String[]>> vehiclesInMixZones = new HashMap<String,ArrayList<String[]>>();
+		HashMap<String[],Integer> entryNumbers = new HashMap<String[],Integer>();
 
-		//variables for progress bar status
-		String[] tmpLines = log.split("\n");
-		long amountOfLines = tmpLines.length;
-		long updateEveryNLine = (amountOfLines/40)*totalNumberOfAnalysedZones;
+		//variables for progress bar status (the counter is the number of the line after the header)
 		long counter = 0;
+		int progress = 0;
 		
-		BufferedReader reader = new BufferedReader(new StringReader(log));        
+		LogLineReader reader = null;
 		try {
+			reader = new LogLineReader(filePath);
+			reader.readHeader();
 			//read vehicle data line by line
 			while ((line = reader.readLine()) != null) {         
 				counter++;
 				//Update progress bar
-				if(counter%updateEveryNLine ==0) logAnalyser_.addToProgressBar(1);
-					
+				progress = updateProgress(reader, 40, progress);
+				
 				if (line.length() > 0){
 					logData = line.split(":");
-					
-					if(logData != null && logData.length > 18){
-						//only attack vehicles which drive into a mix zone
-						if(logData[direction].equals("IN") && logData[nodeID].equals(mixNodeID)){
-							//counter for all vehicles
-							
-							//set mark for reader
-							reader.mark(log.length());
-							
-							try {
-								//read vehicle data line by line
-								while ((line = reader.readLine()) != null) {   
-									String[] logData2 = line.split(":");
-									
-									//only check vehicles that left the mix zone ("OUT") after our first vehicle went "IN". Also check if it's the same node.
-									if(logData2[direction].equals("OUT") && logData2[nodeID].equals(mixNodeID)){
-										//check if it's the same vehicle, if yes log the time to cross the mix zone.
-										if(logData[steadyID].equals(logData2[steadyID])){
-											portToPortSpeed[Integer.parseInt(logData[port])-1][Integer.parseInt(logData2[port])-1] = (int) (Long.parseLong(logData2[timestamp]) - Long.parseLong(logData[timestamp]));
-											portToPortFrequency[Integer.parseInt(logData[port])-1][Integer.parseInt(logData2[port])-1] += 1; 
-											
-											break;
-										}
+				
+					if(logData != null && logData.length > 18 && trafficDataMap.containsKey(logData[nodeID])){
+						String key = logData[nodeID] + ":" + logData[steadyID];
+						if(logData[direction].equals("IN")){
+							ArrayList<String[]> vehicles = vehiclesInMixZones.get(key);
+							if(vehicles == null){
+								vehicles = new ArrayList<String[]>(1);
+								vehiclesInMixZones.put(key, vehicles);
+							}
+							vehicles.add(logData);
+							entryNumbers.put(logData, Integer.valueOf((int)counter));
+						}
+						//the vehicle left the mix zone ("OUT"), log the time to cross the mix zone for all its entries
+						else if(logData[direction].equals("OUT")){
+							ArrayList<String[]> vehicles = vehiclesInMixZones.remove(key);
+							if(vehicles != null){
+								Object[] trafficData = trafficDataMap.get(logData[nodeID]);
+								int[][] portToPortSpeed = (int[][])trafficData[0];
+								int[][] portToPortFrequency = (int[][])trafficData[2];
+								int[][] lastEntry = lastEntries.get(logData[nodeID]);
+								for(int i = 0; i < vehicles.size(); i++){
+									String[] inData = vehicles.get(i);
+									int entryNumber = entryNumbers.remove(inData).intValue();
+									int inPort = Integer.parseInt(inData[port])-1;
+									int outPort = Integer.parseInt(logData[port])-1;
+									//the time of the latest entry in the log is used (like when searching from each entry)
+									if(entryNumber > lastEntry[inPort][outPort]){
+										portToPortSpeed[inPort][outPort] = (int) (Long.parseLong(logData[timestamp]) - Long.parseLong(inData[timestamp]));
+										lastEntry[inPort][outPort] = entryNumber;
 									}
+									portToPortFrequency[inPort][outPort] += 1; 
 								}
-							} catch(IOException e) {
-									e.printStackTrace();
-							}	
-							
-							//jump to mark
-							reader.reset();
+							}
 						}
 					}
 				}
 			}
-		} catch(IOException e) {
+		} catch (IOException e) {
 			e.printStackTrace();
+			return null;
+		} finally {
+			closeLog(reader);
 		}
 		
 		//calculate the probabilities 
-		for(int i = 0; i < mixZonePorts; i++){
-			int totalFrequenciesOfPort = 0;
-			for(int j = 0; j < mixZonePorts; j++){
-				totalFrequenciesOfPort += portToPortFrequency[i][j]; 
-			}
-			for(int k = 0; k < mixZonePorts; k++){
-				if(totalFrequenciesOfPort != 0)portToPortProbability[i][k] = (double)portToPortFrequency[i][k] / totalFrequenciesOfPort; 
-				else portToPortProbability[i][k] = 0;
+		for(Object[] trafficData : trafficDataMap.values()){
+			int[][] portToPortFrequency = (int[][])trafficData[2];
+			double[][] portToPortProbability = (double[][])trafficData[1];
+			int mixZonePorts = portToPortFrequency.length;
+			for(int i = 0; i < mixZonePorts; i++){
+				int totalFrequenciesOfPort = 0;
+				for(int j = 0; j < mixZonePorts; j++){
+					totalFrequenciesOfPort += portToPortFrequency[i][j]; 
+				}
+				for(int k = 0; k < mixZonePorts; k++){
+					if(totalFrequenciesOfPort != 0)portToPortProbability[i][k] = (double)portToPortFrequency[i][k] / totalFrequenciesOfPort; 
+					else portToPortProbability[i][k] = 0;
+				}
 			}
 		}
 		
-		return returnValue;
+		return trafficDataMap;
 	}
 	
 	public String getOperation() {
@@ -2558,7 +2503,7 @@ public class LogOperations extends Thread {
 	 */
 	public void writeLocationInformationToFile(String header, boolean append){
 		try {
-			BufferedWriter out = new BufferedWriter(new FileWriter(logAnalyser_.getActualJob().substring(0,logAnalyser_.getActualJob().length()-4) + "_" + logAnalyser_.getLogName() + "_locationInformation.log", append));
+			BufferedWriter out = new BufferedWriter(new FileWriter(AsyncLogPipeline.removeExtension(logAnalyser_.getActualJob()) + "_" + logAnalyser_.getLogName() + "_locationInformation.log", append));
 			if(header != null){
 				out.write(header);
 				out.close();
@@ -2575,4 +2520,78 @@ public class LogOperations extends Thread {
 		}
 	}
 	
+	/**
+	 * A vehicle which drove into a mix zone. The vehicles leaving the mix zone are compared with it until its window ends.
+	 */
+	private static final class MixZoneVehicle {
+		
+		/** The split log line of the vehicle driving into the mix zone. */
+		final String[] logData_;
+		
+		/** The time when the vehicle drove into the mix zone. */
+		final int time_;
+		
+		/** The expected time to cross the mix zone (standard attack). */
+		final double expectedTime_;
+		
+		/** The traffic data of the mix zone (advanced attack). */
+		final Object[] trafficData_;
+		
+		/** Vehicles leaving the mix zone after this time are not compared anymore. */
+		final double endTime_;
+		
+		/** The steady ID of the leaving vehicle with the smallest factor. */
+		String savedSteadyID_ = "";
+		
+		/** The smallest factor. */
+		double savedFactor_ = 999999999;
+		
+		/** <code>true</code> if the window has ended. */
+		boolean closed_ = false;
+		
+		/**
+		 * Instantiates a new vehicle in a mix zone.
+		 * 
+		 * @param logData		the split log line
+		 * @param time			the time when the vehicle drove into the mix zone
+		 * @param expectedTime	the expected time to cross the mix zone
+		 * @param trafficData	the traffic data of the mix zone
+		 * @param endTime		the end of the window
+		 */
+		MixZoneVehicle(String[] logData, int time, double expectedTime, Object[] trafficData, double endTime){
+			logData_ = logData;
+			time_ = time;
+			expectedTime_ = expectedTime;
+			trafficData_ = trafficData;
+			endTime_ = endTime;
+		}
+	}
+	
+	/**
+	 * A vehicle which started a slow period.
+	 */
+	private static final class SlowVehicle {
+		
+		/** The split first beacon of the vehicle. */
+		final String[] firstBeacon_;
+		
+		/** The split second beacon of the vehicle (it is more actual). */
+		final String[] logData_;
+		
+		/** The first vehicle leaving a slow period which was logged after this vehicle. */
+		final int firstOut_;
+		
+		/**
+		 * Instantiates a new vehicle in a slow period.
+		 * 
+		 * @param firstBeacon	the split first beacon
+		 * @param logData		the split second beacon
+		 * @param firstOut		the first vehicle leaving a slow period after this vehicle
+		 */
+		SlowVehicle(String[] firstBeacon, String[] logData, int firstOut){
+			firstBeacon_ = firstBeacon;
+			logData_ = logData;
+			firstOut_ = firstOut;
+		}
+	}
 }
@@ -0,0 +1,1259 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+
+/**
+ * Runs the standard mix zone, silent period and SLOW attacks of {@link LogOperations} while the simulation is running.
+ * It takes the place of the privacy log file (format <code>online</code> of {@link AsyncLogFile}): the writer thread of the
+ * {@link AsyncLogPipeline} hands it the privacy records in the order in which they would have been written to the log, and
+ * it only keeps the vehicles which are still being matched. When the log is closed, the results are written to the
+ * <code>_analyzed.txt</code> files the {@link LogAnalyser} writes for a log (with the name of the privacy model added to the
+ * file name). The attacks are scored with the {@link AttackScoring} of {@link LogOperations} and the default values of the
+ * {@link LogAnalyser}.
+ * <p>
+ * The coordinates of the mix zone records are mapped to the ports of the mix zones like
+ * <code>ReportingControlPanel.cleanLogFile()</code> does, so no cleaned log is needed. The advanced attacks need the traffic
+ * data of an earlier analysis and are only available offline, as are the location information files.
+ */
+public final class OnlinePrivacyAnalyser {
+	
+	/** The squared distance in cm within which a coordinate belongs to a port of a mix zone. */
+	private static final long PORT_DISTANCE_SQUARED = 500000;
+	
+	/** The path of the log without the extension. The result files are named after it. */
+	private final String basePath_;
+	
+	/** The scoring of the attacks with the default values of the log analyser. */
+	private final AttackScoring scoring_ = new AttackScoring(new LogAnalyser((String)null));
+	
+	/** The mix zone attack. */
+	private final MixZoneAttack mixZoneAttack_ = new MixZoneAttack(scoring_);
+	
+	/** The silent period attack or <code>null</code> if no silent period header has been logged. */
+	private SilentPeriodAttack silentPeriodAttack_ = null;
+	
+	/** The SLOW attack or <code>null</code> if no SLOW header has been logged. */
+	private SlowAttack slowAttack_ = null;
+	
+	/**
+	 * Creates an analyser.
+	 * 
+	 * @param path	the path the privacy log would have. The results are written next to it.
+	 */
+	public OnlinePrivacyAnalyser(String path){
+		basePath_ = AsyncLogPipeline.removeExtension(path);
+	}
+	
+	/**
+	 * Takes a privacy record. Called by the writer thread of the {@link AsyncLogPipeline} in the order of the log.
+	 * 
+	 * @param type		the record type (see {@link BinaryLogFormat})
+	 * @param ref		the string reference of the record (the message for text records)
+	 * @param values	the array with the values of the record
+	 * @param offset	the position of the first value in <code>values</code>
+	 */
+	void add(int type, Object ref, long[] values, int offset){
+		if(type == BinaryLogFormat.TEXT){
+			String text = String.valueOf(ref);
+			if(text.startsWith("Mix-Zone")) mixZoneAttack_.addHeaderLine(text); //$NON-NLS-1$
+			else if(silentPeriodAttack_ == null && text.startsWith("Silent P")) silentPeriodAttack_ = new SilentPeriodAttack(text, scoring_); //$NON-NLS-1$
+			else if(slowAttack_ == null && text.contains("Slow")) slowAttack_ = new SlowAttack(text, scoring_); //$NON-NLS-1$
+			else if(slowAttack_ != null) slowAttack_.add(type, values, offset);
+			return;
+		}
+		if(type == BinaryLogFormat.MIX_ZONE) mixZoneAttack_.add((String)ref, values, offset);
+		else if(type == BinaryLogFormat.SAVED_BEACON && silentPeriodAttack_ != null) silentPeriodAttack_.add(values, offset);
+		if(slowAttack_ != null) slowAttack_.add(type, values, offset);
+	}
+	
+	/**
+	 * Finishes the attacks and writes the results.
+	 */
+	void finish(){
+		if(mixZoneAttack_.hasData()) mixZoneAttack_.finish(this);
+		if(silentPeriodAttack_ != null) silentPeriodAttack_.finish(this);
+		if(slowAttack_ != null) slowAttack_.finish(this);
+	}
+	
+	/**
+	 * Writes a result file.
+	 * 
+	 * @param model	the privacy model (part of the file name)
+	 * @param name	the name of the result (<code>simple</code>, <code>detail</code> or <code>withVehiclesLeftTooSoon</code>)
+	 * @param text	the text of the file
+	 */
+	private void writeResult(String model, String name, String text){
+		try {
+			BufferedWriter out = new BufferedWriter(new FileWriter(basePath_ + "_" + model + "_standard_" + name + "_analyzed.txt")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			out.write(text);
+			out.close();
+		} catch (IOException e) {
+			System.out.println("Error while writing the online privacy analysis"); //$NON-NLS-1$
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Gets the detailed table of vehicles which crossed several mix zones, silent periods or SLOW periods.
+	 * 
+	 * @param title			the title line
+	 * @param successLog	the states of the vehicles (amount crossed first)
+	 * @param column		the column of the state with the amount of successful attacks in a row
+	 * 
+	 * @return the table
+	 */
+	private static String getDetail(String title, HashMap<Integer,int[]> successLog, int column){
+		int maxOfRow = 0;
+		for(int[] state : successLog.values()){
+			if(maxOfRow < state[0]) maxOfRow = state[0];
+		}
+		maxOfRow++;
+		int[][] dataCollection = new int[maxOfRow][maxOfRow];
+		for(int[] state : successLog.values()) dataCollection[state[0]][state[column]]++;
+		
+		StringBuilder text = new StringBuilder();
+		text.append(title).append("#Success/Crossed"); //$NON-NLS-1$
+		for(int i = 1; i < maxOfRow; i++) text.append(' ').append(i);
+		text.append(" VehiclesLeft"); //$NON-NLS-1$
+		for(int l = 0; l < maxOfRow; l++){
+			text.append('\n').append(l);
+			for(int m = 1; m < maxOfRow; m++) text.append(' ').append(dataCollection[m][l]);
+		}
+		return text.toString();
+	}
+	
+	/**
+	 * Updates the state of a vehicle after it crossed a mix zone or silent period. Format: crossed, successful attacks in a row,
+	 * 1 if all attacks were successful until now.
+	 * 
+	 * @param successLog	the states of the vehicles
+	 * @param steadyID		the steady ID of the vehicle
+	 * @param success		<code>true</code> if the attack was successful
+	 */
+	private static void updateSuccessLog(HashMap<Integer,int[]> successLog, int steadyID, boolean success){
+		Integer key = Integer.valueOf(steadyID);
+		int[] state = successLog.get(key);
+		if(state == null){
+			state = new int[]{0, 0, 1};
+			successLog.put(key, state);
+		}
+		state[0]++;
+		if(success && state[2] == 1) state[1]++;
+		else state[2] = 0;
+	}
+	
+	/**
+	 * The standard attack on mix zones. A vehicle leaving a mix zone is matched to the vehicle which drove in with the most
+	 * probable exit time, street and direction.
+	 */
+	private static final class MixZoneAttack {
+		
+		/** The scoring of the vehicles. */
+		private final AttackScoring scoring_;
+		
+		/** The header lines with the coordinates of the ports (two lines per mix zone). */
+		private final ArrayList<String> headerLines_ = new ArrayList<String>();
+		
+		/** <code>true</code> if the header is complete (after the first mix zone record). */
+		private boolean started_ = false;
+		
+		/** The node IDs of the mix zones (in the order of the cleaned header). */
+		private int[] nodeIDs_;
+		
+		/** The radius of the mix zones by node ID. */
+		private final HashMap<Integer,Integer> nodeRadius_ = new HashMap<Integer,Integer>();
+		
+		/** The x coordinates of the ports. */
+		private int[] portX_;
+		
+		/** The y coordinates of the ports. */
+		private int[] portY_;
+		
+		/** The numbers of the ports. */
+		private int[] ports_;
+		
+		/** The vehicles in the mix zones by node ID. */
+		private final HashMap<Integer,ArrayList<MixZoneVehicle>> windows_ = new HashMap<Integer,ArrayList<MixZoneVehicle>>();
+		
+		/** The vehicles sorted by the end of their window. */
+		private final PriorityQueue<MixZoneVehicle> openVehicles_ = new PriorityQueue<MixZoneVehicle>(64, new Comparator<MixZoneVehicle>(){
+			public int compare(MixZoneVehicle a, MixZoneVehicle b){
+				return Double.compare(a.endTime_, b.endTime_);
+			}
+		});
+		
+		/** The vehicles in the order of the log. */
+		private final ArrayDeque<MixZoneVehicle> pendingVehicles_ = new ArrayDeque<MixZoneVehicle>();
+		
+		/** The amount of vehicles which drove into each mix zone. */
+		private int[] numberOfVehicles_;
+		
+		/** The amount of correctly followed vehicles of each mix zone. */
+		private int[] numberOfCorrectVehicles_;
+		
+		/** The states of the vehicles to follow them through more mix zones. */
+		private final HashMap<Integer,int[]> successLog_ = new HashMap<Integer,int[]>();
+		
+		/** The counters for the anonymity sets by node ID. */
+		private final HashMap<Integer,MixZoneCounter> counters_ = new HashMap<Integer,MixZoneCounter>();
+		
+		/** The vehicles whose next record ends their visit of a mix zone, by steady ID. */
+		private final HashMap<Integer,MixZoneVisit> visits_ = new HashMap<Integer,MixZoneVisit>();
+		
+		/** The last count in which a vehicle was counted, by steady ID (to count each vehicle once). */
+		private int[] counted_ = new int[1024];
+		
+		/** The current count. */
+		private int count_ = 0;
+		
+		/**
+		 * Creates the attack.
+		 * 
+		 * @param scoring	the scoring of the vehicles
+		 */
+		MixZoneAttack(AttackScoring scoring){
+			scoring_ = scoring;
+		}
+		
+		/**
+		 * Adds a header line of the log.
+		 * 
+		 * @param line	the line
+		 */
+		void addHeaderLine(String line){
+			if(!started_) headerLines_.add(line);
+		}
+		
+		/**
+		 * Checks if there is anything to write.
+		 * 
+		 * @return <code>true</code> if the header contained mix zones
+		 */
+		boolean hasData(){
+			return !headerLines_.isEmpty();
+		}
+		
+		/**
+		 * Sorts the header by node ID like the cleaned log and collects the coordinates of the ports.
+		 */
+		private void start(){
+			started_ = true;
+			Collections.sort(headerLines_, new Comparator<String>(){
+				public int compare(String a, String b){
+					return Integer.valueOf(a.split(":")[2]).compareTo(Integer.valueOf(b.split(":")[2])); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			});
+			int zones = headerLines_.size() / 2;
+			nodeIDs_ = new int[zones];
+			numberOfVehicles_ = new int[zones];
+			numberOfCorrectVehicles_ = new int[zones];
+			ArrayList<int[]> ports = new ArrayList<int[]>();
+			for(int j = 0; j < zones; ++j){
+				String[] xArray = headerLines_.get(2*j).split(":"); //$NON-NLS-1$
+				String[] yArray = headerLines_.get(2*j + 1).split(":"); //$NON-NLS-1$
+				nodeIDs_[j] = Integer.parseInt(xArray[2]);
+				if(xArray.length > 4 && !nodeRadius_.containsKey(Integer.valueOf(nodeIDs_[j]))) nodeRadius_.put(Integer.valueOf(nodeIDs_[j]), Integer.valueOf(xArray[4]));
+				for(int i = 5; i < xArray.length; i++) ports.add(new int[]{Integer.parseInt(xArray[i]), Integer.parseInt(yArray[i]), i-4});
+			}
+			portX_ = new int[ports.size()];
+			portY_ = new int[ports.size()];
+			ports_ = new int[ports.size()];
+			for(int i = 0; i < ports.size(); ++i){
+				portX_[i] = ports.get(i)[0];
+				portY_[i] = ports.get(i)[1];
+				ports_[i] = ports.get(i)[2];
+			}
+		}
+		
+		/**
+		 * Adds a vehicle entering or leaving a mix zone.
+		 * 
+		 * @param street	the name of the street
+		 * @param values	the array with the values of the record
+		 * @param offset	the position of the first value in <code>values</code>
+		 */
+		void add(String street, long[] values, int offset){
+			if(!started_) start();
+			//records which can't be mapped to a port are removed from a cleaned log
+			int x = (int)values[offset + 9];
+			int y = (int)values[offset + 10];
+			int port = -1;
+			for(int i = 0; i < ports_.length; ++i){
+				long dx = portX_[i] - x;
+				long dy = portY_[i] - y;
+				if(dx * dx + dy * dy < PORT_DISTANCE_SQUARED){
+					port = ports_[i];
+					break;
+				}
+			}
+			if(port == -1) return;
+			
+			int time = (int)values[offset];
+			int steadyID = (int)values[offset + 1];
+			int nodeID = (int)values[offset + 5];
+			int direction = (int)values[offset + 6];
+			int streetSpeed = (int)values[offset + 7];
+			
+			countAnonymitySet(steadyID, nodeID, direction);
+			
+			//the windows of all vehicles which end before this record are closed
+			while(!openVehicles_.isEmpty() && openVehicles_.peek().endTime_ < time) openVehicles_.poll().closed_ = true;
+			
+			if(direction == BinaryLogFormat.DIRECTION_OUT){
+				//only check vehicles that leave the same mix-zone
+				ArrayList<MixZoneVehicle> window = windows_.get(Integer.valueOf(nodeID));
+				if(window != null){
+					int size = 0;
+					for(int i = 0; i < window.size(); i++){
+						MixZoneVehicle vehicle = window.get(i);
+						if(vehicle.closed_) continue;
+						window.set(size++, vehicle);
+						double factor = scoring_.getMixZoneFactor(vehicle.street_.equals(street), vehicle.port_ == port, vehicle.streetSpeed_ > streetSpeed, (vehicle.time_ + vehicle.expectedTime_) - time);
+						
+						//always save the vehicle with the smallest factor
+						if(factor < vehicle.savedFactor_){
+							vehicle.savedFactor_ = factor;
+							vehicle.savedSteadyID_ = steadyID;
+						}
+					}
+					while(window.size() > size) window.remove(window.size() - 1);
+				}
+			}
+			else if(direction == BinaryLogFormat.DIRECTION_IN){
+				for(int i = 0; i < nodeIDs_.length; i++){
+					if(nodeIDs_[i] == nodeID) numberOfVehicles_[i]++;
+				}
+				
+				//expected time to leave mix zone in ms
+				Integer nodeRadius = nodeRadius_.get(Integer.valueOf(nodeID));
+				int radius = nodeRadius == null ? -1 : nodeRadius.intValue();
+				double expectedTime = scoring_.getMixZoneExpectedTime(radius, Math.max(streetSpeed, 1));
+				MixZoneVehicle vehicle = new MixZoneVehicle(time, steadyID, nodeID, street, streetSpeed, port, expectedTime, time + expectedTime + scoring_.getTimeBuffer());
+				
+				ArrayList<MixZoneVehicle> window = windows_.get(Integer.valueOf(nodeID));
+				if(window == null){
+					window = new ArrayList<MixZoneVehicle>();
+					windows_.put(Integer.valueOf(nodeID), window);
+				}
+				window.add(vehicle);
+				openVehicles_.add(vehicle);
+				pendingVehicles_.add(vehicle);
+			}
+			
+			//apply the results of all vehicles in the order of the log as soon as their windows are closed
+			while(!pendingVehicles_.isEmpty() && pendingVehicles_.peek().closed_) finishVehicle(pendingVehicles_.poll());
+		}
+		
+		/**
+		 * Applies the result of the attack for one vehicle.
+		 * 
+		 * @param vehicle	the vehicle which drove into the mix zone
+		 */
+		private void finishVehicle(MixZoneVehicle vehicle){
+			boolean success = vehicle.savedSteadyID_ == vehicle.steadyID_;
+			updateSuccessLog(successLog_, vehicle.steadyID_, success);
+			if(success){
+				for(int i = 0; i < nodeIDs_.length; i++){
+					if(nodeIDs_[i] == vehicle.nodeID_) numberOfCorrectVehicles_[i]++;
+				}
+			}
+		}
+		
+		/**
+		 * Updates the anonymity sets with a record. The anonymity set of a vehicle consists of the other vehicles with records
+		 * at the mix zone while it is inside (counted once) and of the vehicles which never left the mix zone after they entered
+		 * it before the vehicle left it. This is what <code>LogOperations.getKAnonymityInMix()</code> counts for a log.
+		 * 
+		 * @param steadyID	the steady ID of the vehicle
+		 * @param nodeID	the node ID of the mix zone
+		 * @param direction	the direction
+		 */
+		private void countAnonymitySet(int steadyID, int nodeID, int direction){
+			//the next record of a vehicle ends its visit
+			MixZoneVisit visit = visits_.remove(Integer.valueOf(steadyID));
+			if(visit != null){
+				MixZoneCounter counter = visit.counter_;
+				visit.closed_ = true;
+				if(direction == BinaryLogFormat.DIRECTION_OUT){
+					counter.vehicles_++;
+					if(++count_ == Integer.MAX_VALUE){
+						Arrays.fill(counted_, 0);
+						count_ = 1;
+					}
+					int[] records = counter.records_;
+					for(int i = visit.start_ + 1 - counter.offset_; i < counter.size_; ++i){
+						int other = records[i];
+						if(other >= counted_.length) counted_ = Arrays.copyOf(counted_, Math.max(other + 1, counted_.length * 2));
+						if(counted_[other] != count_){
+							counted_[other] = count_;
+							counter.total_++;
+						}
+					}
+				}
+				else counter.addRemaining(visit);
+				counter.removeClosedVisits();
+			}
+			
+			Integer key = Integer.valueOf(nodeID);
+			MixZoneCounter counter = counters_.get(key);
+			if(counter == null){
+				counter = new MixZoneCounter();
+				counters_.put(key, counter);
+			}
+			int position = counter.addRecord(steadyID);
+			if(direction == BinaryLogFormat.DIRECTION_IN){
+				visit = new MixZoneVisit(counter, position, counter.entries_++);
+				counter.visits_.add(visit);
+				visits_.put(Integer.valueOf(steadyID), visit);
+			}
+		}
+		
+		/**
+		 * Finishes the attack and writes the results.
+		 * 
+		 * @param analyser	the analyser
+		 */
+		void finish(OnlinePrivacyAnalyser analyser){
+			if(!started_) start();
+			//the windows of the remaining vehicles end with the log
+			while(!pendingVehicles_.isEmpty()) finishVehicle(pendingVehicles_.poll());
+			//vehicles which didn't leave the mix zone until the end
+			for(MixZoneVisit visit : visits_.values()) visit.counter_.addRemaining(visit);
+			visits_.clear();
+			
+			StringBuilder simple = new StringBuilder();
+			simple.append("#GNU-Plot Data Simple\n"); //$NON-NLS-1$
+			simple.append("#Privacy VehiclesTotal Probabilities k-Anonymity\n"); //$NON-NLS-1$
+			float numberOfVeh = 0;
+			float numberOfCorrVeh = 0;
+			float numberOfKAnoVehTotal = 0;
+			float numberOfKAnoVeh = 0;
+			for(int i = 0; i < nodeIDs_.length; i++){
+				MixZoneCounter counter = counters_.get(Integer.valueOf(nodeIDs_[i]));
+				long total = 0;
+				int vehicles = 0;
+				if(counter != null){
+					total = counter.total_ + counter.remaining_ * counter.entries_ - counter.remainingEntries_;
+					vehicles = counter.vehicles_;
+				}
+				float[] kAnonymity = {(float)total/vehicles, total, vehicles};
+				numberOfKAnoVehTotal += kAnonymity[1];
+				numberOfKAnoVeh += kAnonymity[2];
+				numberOfVeh += numberOfVehicles_[i];
+				numberOfCorrVeh += numberOfCorrectVehicles_[i];
+				simple.append("Mix-Zone" + (i+1) + " " + numberOfVehicles_[i] + " " + (float)100*numberOfCorrectVehicles_[i]/numberOfVehicles_[i] + " " + kAnonymity[0] + "\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			}
+			simple.append("Total " + numberOfVeh + " " + (numberOfCorrVeh*100/numberOfVeh) + " " + (numberOfKAnoVehTotal/numberOfKAnoVeh) + "\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			analyser.writeResult("mixzone", "simple", simple.toString()); //$NON-NLS-1$ //$NON-NLS-2$
+			analyser.writeResult("mixzone", "detail", getDetail("#GNU-Plot Data Detail\n", successLog_, 1)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+	
+	/**
+	 * A vehicle which drove into a mix zone.
+	 */
+	private static final class MixZoneVehicle {
+		
+		/** The time when the vehicle drove into the mix zone. */
+		final int time_;
+		
+		/** The steady ID of the vehicle. */
+		final int steadyID_;
+		
+		/** The node ID of the mix zone. */
+		final int nodeID_;
+		
+		/** The name of the street. */
+		final String street_;
+		
+		/** The speed limit of the street. */
+		final int streetSpeed_;
+		
+		/** The port of the mix zone. */
+		final int port_;
+		
+		/** The expected time to cross the mix zone. */
+		final double expectedTime_;
+		
+		/** Vehicles leaving the mix zone after this time are not compared anymore. */
+		final double endTime_;
+		
+		/** The steady ID of the leaving vehicle with the smallest factor or <code>-1</code>. */
+		int savedSteadyID_ = -1;
+		
+		/** The smallest factor. */
+		double savedFactor_ = 999999999;
+		
+		/** <code>true</code> if the window has ended. */
+		boolean closed_ = false;
+		
+		/**
+		 * Instantiates a new vehicle in a mix zone.
+		 * 
+		 * @param time			the time when the vehicle drove into the mix zone
+		 * @param steadyID		the steady ID of the vehicle
+		 * @param nodeID		the node ID of the mix zone
+		 * @param street		the name of the street
+		 * @param streetSpeed	the speed limit of the street
+		 * @param port			the port of the mix zone
+		 * @param expectedTime	the expected time to cross the mix zone
+		 * @param endTime		the end of the window
+		 */
+		MixZoneVehicle(int time, int steadyID, int nodeID, String street, int streetSpeed, int port, double expectedTime, double endTime){
+			time_ = time;
+			steadyID_ = steadyID;
+			nodeID_ = nodeID;
+			street_ = String.valueOf(street);
+			streetSpeed_ = streetSpeed;
+			port_ = port;
+			expectedTime_ = expectedTime;
+			endTime_ = endTime;
+		}
+	}
+	
+	/**
+	 * Counts the anonymity sets of a mix zone. Keeps the steady IDs of the records at the mix zone since the start of the
+	 * oldest visit which hasn't ended yet.
+	 */
+	private static final class MixZoneCounter {
+		
+		/** The steady IDs of the records. */
+		int[] records_ = new int[256];
+		
+		/** The position of the first record in <code>records_</code>. */
+		int offset_ = 0;
+		
+		/** The amount of records in <code>records_</code>. */
+		int size_ = 0;
+		
+		/** The visits in the order they started. */
+		final ArrayDeque<MixZoneVisit> visits_ = new ArrayDeque<MixZoneVisit>();
+		
+		/** The amount of vehicles which drove in. */
+		int entries_ = 0;
+		
+		/** The amount of vehicles which left again. */
+		int vehicles_ = 0;
+		
+		/** The sum of the anonymity sets of the vehicles which left (without the vehicles which remained). */
+		long total_ = 0;
+		
+		/** The amount of vehicles which didn't leave the mix zone. */
+		long remaining_ = 0;
+		
+		/** The sum of the entry numbers of the vehicles which didn't leave the mix zone. */
+		long remainingEntries_ = 0;
+		
+		/**
+		 * Adds a record.
+		 * 
+		 * @param steadyID	the steady ID of the vehicle
+		 * 
+		 * @return the position of the record
+		 */
+		int addRecord(int steadyID){
+			if(visits_.isEmpty()){
+				offset_ += size_;
+				size_ = 0;
+			}
+			if(size_ == records_.length) records_ = Arrays.copyOf(records_, records_.length * 2);
+			records_[size_++] = steadyID;
+			return offset_ + size_ - 1;
+		}
+		
+		/**
+		 * Counts a vehicle which didn't leave the mix zone. It belongs to the anonymity sets of all vehicles which drove in
+		 * after it (and its own).
+		 * 
+		 * @param visit	the visit
+		 */
+		void addRemaining(MixZoneVisit visit){
+			visit.closed_ = true;
+			remaining_++;
+			remainingEntries_ += visit.entry_;
+		}
+		
+		/**
+		 * Removes the visits which have ended from the start of the queue and the records which aren't needed anymore.
+		 */
+		void removeClosedVisits(){
+			while(!visits_.isEmpty() && visits_.peek().closed_) visits_.poll();
+			int start = visits_.isEmpty() ? offset_ + size_ : visits_.peek().start_;
+			int unused = start - offset_;
+			if(unused > size_ / 2 && unused > 0){
+				System.arraycopy(records_, unused, records_, 0, size_ - unused);
+				size_ -= unused;
+				offset_ = start;
+			}
+		}
+	}
+	
+	/**
+	 * A vehicle inside a mix zone.
+	 */
+	private static final class MixZoneVisit {
+		
+		/** The counter of the mix zone. */
+		final MixZoneCounter counter_;
+		
+		/** The position of the record of the vehicle driving in. */
+		final int start_;
+		
+		/** The number of the entry at the mix zone. */
+		final int entry_;
+		
+		/** <code>true</code> if the visit has ended. */
+		boolean closed_ = false;
+		
+		/**
+		 * Instantiates a new visit.
+		 * 
+		 * @param counter	the counter of the mix zone
+		 * @param start		the position of the record of the vehicle driving in
+		 * @param entry		the number of the entry at the mix zone
+		 */
+		MixZoneVisit(MixZoneCounter counter, int start, int entry){
+			counter_ = counter;
+			start_ = start;
+			entry_ = entry;
+		}
+	}
+	
+	/**
+	 * The standard attack on silent periods. The beacons logged before a silent period are compared to the ones logged after it.
+	 */
+	private static final class SilentPeriodAttack {
+		
+		/** The scoring of the vehicles. */
+		private final AttackScoring scoring_;
+		
+		/** The duration of the silent periods in ms. */
+		private final int silentPeriodTime_;
+		
+		/** The maximum distance a vehicle can drive during a silent period. */
+		private final double maxDistance_;
+		
+		/** The beacons of the current block. */
+		private BeaconBlock current_ = new BeaconBlock();
+		
+		/** The beacons of the previous block. */
+		private BeaconBlock previous_ = new BeaconBlock();
+		
+		/** <code>true</code> if the previous block is waiting for the current one to be compared. */
+		private boolean hasPrevious_ = false;
+		
+		/** The time of the last beacon. */
+		private int oldTime_ = 0;
+		
+		/** The amount of attacked vehicles. */
+		private int numberOfVehicles_ = 0;
+		
+		/** The amount of correctly followed vehicles. */
+		private int numberOfCorrectVehicles_ = 0;
+		
+		/** The states of the vehicles to follow them through more silent periods. */
+		private final HashMap<Integer,int[]> successLog_ = new HashMap<Integer,int[]>();
+		
+		/** The amount of vehicles whose anonymity set was calculated. */
+		private int numberOfCheckedVehicles_ = 0;
+		
+		/** The sum of the anonymity sets. */
+		private long numberOfFoundVehicles_ = 0;
+		
+		/** The sum of the entropies. */
+		private double entropiesAdded_ = 0;
+		
+		/** The distances of the vehicles in an anonymity set to the expected way. */
+		private double[] distances_ = new double[64];
+		
+		/**
+		 * Creates the attack.
+		 * 
+		 * @param header	the header line of the silent periods
+		 * @param scoring	the scoring of the vehicles
+		 */
+		SilentPeriodAttack(String header, AttackScoring scoring){
+			scoring_ = scoring;
+			silentPeriodTime_ = Integer.parseInt(header.split(":")[2]); //$NON-NLS-1$
+			maxDistance_ = AttackScoring.getSilentPeriodMaxDistance(silentPeriodTime_);
+		}
+		
+		/**
+		 * Adds a saved beacon. A time gap of more than one second between two beacons starts a new block.
+		 * 
+		 * @param values	the array with the values of the record
+		 * @param offset	the position of the first value in <code>values</code>
+		 */
+		void add(long[] values, int offset){
+			int actualTime = (int)values[offset];
+			if(oldTime_ != 0 && Math.abs(actualTime - oldTime_) > 1000){
+				if(!hasPrevious_){
+					BeaconBlock block = previous_;
+					previous_ = current_;
+					current_ = block;
+					hasPrevious_ = true;
+				}
+				else {
+					//compare the blocks before and after a silent period
+					attack(previous_, current_);
+					previous_.size_ = 0;
+					hasPrevious_ = false;
+				}
+				current_.size_ = 0;
+			}
+			current_.add((int)values[offset + 1], (int)values[offset + 6], (int)values[offset + 8], (int)values[offset + 9]);
+			oldTime_ = actualTime;
+		}
+		
+		/**
+		 * Attacks the vehicles of a block before a silent period.
+		 * 
+		 * @param dataOne	the beacons before the silent period (two per vehicle)
+		 * @param dataTwo	the beacons after the silent period (two per vehicle)
+		 */
+		private void attack(BeaconBlock dataOne, BeaconBlock dataTwo){
+			double maxDistanceSquared = maxDistance_*maxDistance_;
+			
+			//index the first beacons of the second block so that each vehicle is only compared to the vehicles it could have reached
+			int candidates = dataTwo.size_ / 2;
+			int[] candidateX = new int[candidates];
+			int[] candidateY = new int[candidates];
+			int[] candidateIDs = new int[candidates];
+			for(int k = 0; k < candidates; ++k){
+				candidateX[k] = dataTwo.x_[2*k];
+				candidateY[k] = dataTwo.y_[2*k];
+				candidateIDs[k] = dataTwo.steadyID_[2*k];
+			}
+			BeaconGridIndex index = new BeaconGridIndex(candidateX, candidateY, candidates, (long)maxDistance_ + 1);
+			
+			int steadyIDSave = -1;
+			for(int j = 0; j < dataOne.size_ - 1; j += 2){
+				numberOfVehicles_++;
+				int second = j + 1;
+				float x1 = dataOne.x_[second];
+				float y1 = dataOne.y_[second];
+				//calculates how far the vehicle could drive at full speed
+				float expectedWay = (float)scoring_.getSilentPeriodExpectedWay(silentPeriodTime_, dataOne.streetSpeed_[second]);
+				float factor = 999999999;
+				
+				int found = index.query(x1, y1, Math.sqrt((expectedWay*(double)expectedWay + factor) * 1.001) + 16, 0, candidates);
+				for(int i = 0; i < found; ++i){
+					int k = index.getResult()[i];
+					float dx = x1 - candidateX[k];
+					float dy = y1 - candidateY[k];
+					float tmpFactor = AttackScoring.getSilentPeriodScore(dx, dy, expectedWay);
+					if(factor > tmpFactor){
+						factor = tmpFactor;
+						steadyIDSave = candidateIDs[k];
+					}
+				}
+				boolean success = steadyIDSave == dataOne.steadyID_[second];
+				if(success) numberOfCorrectVehicles_++;
+				updateSuccessLog(successLog_, dataOne.steadyID_[second], success);
+			}
+			
+			//k-anonymity and entropy
+			for(int j = 0; j < dataOne.size_ - 1; j += 2){
+				numberOfCheckedVehicles_++;
+				int second = j + 1;
+				double expectedWay2 = scoring_.getSilentPeriodExpectedWay(silentPeriodTime_, dataOne.streetSpeed_[second]);
+				double tmpDistance2 = maxDistance_ - expectedWay2;
+				long vehicleX = dataOne.x_[second];
+				long vehicleY = dataOne.y_[second];
+				double distanceInTotal = 0;
+				int distances = 0;
+				
+				int found = index.query(vehicleX, vehicleY, maxDistance_ + 1, 0, candidates);
+				for(int i = 0; i < found; ++i){
+					int k = index.getResult()[i];
+					long dx2 = vehicleX - candidateX[k];
+					long dy2 = vehicleY - candidateY[k];
+					if((dx2*dx2 + dy2*dy2) <= maxDistanceSquared){
+						double tmpDistances = tmpDistance2 - Math.abs(expectedWay2 - Math.sqrt(dx2*dx2 + dy2*dy2));
+						distanceInTotal += tmpDistances;
+						if(distances == distances_.length) distances_ = Arrays.copyOf(distances_, distances * 2);
+						distances_[distances++] = tmpDistances;
+						numberOfFoundVehicles_++;
+					}
+				}
+				for(int i = 0; i < distances; ++i){
+					float prob = (float)((long)distances_[i]/distanceInTotal);
+					if(prob >= 0 && prob < 1) entropiesAdded_ += ((1-prob)*((float)Math.log10((1-prob))/Math.log10(2)));
+				}
+			}
+		}
+		
+		/**
+		 * Writes the results. The blocks which haven't been compared yet are dropped like in the analysis of a log.
+		 * 
+		 * @param analyser	the analyser
+		 */
+		void finish(OnlinePrivacyAnalyser analyser){
+			float[] kAnoAndEntrArray = {(float)numberOfFoundVehicles_/numberOfCheckedVehicles_, (float) (-entropiesAdded_/numberOfCheckedVehicles_)};
+			StringBuilder simple = new StringBuilder();
+			simple.append("#GNU-Plot Data Simple\n"); //$NON-NLS-1$
+			simple.append("#Privacy Probabilites k-Anonymity Entropy\n"); //$NON-NLS-1$
+			simple.append("Silent-Period " + (float)100*numberOfCorrectVehicles_/numberOfVehicles_ + " " + kAnoAndEntrArray[0] + " " + kAnoAndEntrArray[1] + "\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			analyser.writeResult("silentperiod", "simple", simple.toString()); //$NON-NLS-1$ //$NON-NLS-2$
+			analyser.writeResult("silentperiod", "detail", getDetail("#GNU-Plot Data Detail\n", successLog_, 1)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+	
+	/**
+	 * The saved beacons of a block around a silent period.
+	 */
+	private static final class BeaconBlock {
+		
+		/** The amount of beacons. */
+		int size_ = 0;
+		
+		/** The steady IDs. */
+		int[] steadyID_ = new int[256];
+		
+		/** The speed limits of the streets. */
+		int[] streetSpeed_ = new int[256];
+		
+		/** The x coordinates. */
+		int[] x_ = new int[256];
+		
+		/** The y coordinates. */
+		int[] y_ = new int[256];
+		
+		/**
+		 * Adds a beacon.
+		 * 
+		 * @param steadyID		the steady ID
+		 * @param streetSpeed	the speed limit of the street
+		 * @param x				the x coordinate
+		 * @param y				the y coordinate
+		 */
+		void add(int steadyID, int streetSpeed, int x, int y){
+			if(size_ == x_.length){
+				steadyID_ = Arrays.copyOf(steadyID_, size_ * 2);
+				streetSpeed_ = Arrays.copyOf(streetSpeed_, size_ * 2);
+				x_ = Arrays.copyOf(x_, size_ * 2);
+				y_ = Arrays.copyOf(y_, size_ * 2);
+			}
+			steadyID_[size_] = steadyID;
+			streetSpeed_[size_] = streetSpeed;
+			x_[size_] = x;
+			y_[size_] = y;
+			++size_;
+		}
+	}
+	
+	/**
+	 * The standard attack on SLOW. A vehicle starting a SLOW period is matched to the vehicle leaving one which is closest to
+	 * its expected way. Every start and end of a SLOW period is logged with two beacons.
+	 */
+	private static final class SlowAttack {
+		
+		/** The scoring of the vehicles. */
+		private final AttackScoring scoring_;
+		
+		/** The time until the pseudonym is changed in SLOW. */
+		private final double timeToChangePseudo_;
+		
+		/** The maximum distance a vehicle can drive in the search time. */
+		private final double maxDrivingDistance_;
+		
+		/** The width and height of a cell of the grid of the vehicles. */
+		private final long cellSize_;
+		
+		/** <code>true</code> if the next record is the second beacon of a vehicle starting a SLOW period. */
+		private boolean pendingIn_ = false;
+		
+		/** The steady ID in the first beacon of the vehicle starting a SLOW period. */
+		private int pendingSteadyID_;
+		
+		/** The pseudonym in the first beacon of the vehicle starting a SLOW period. */
+		private long pendingPseudonym_;
+		
+		/** <code>true</code> if the next record is the second beacon of a vehicle leaving a SLOW period. */
+		private boolean skipNext_ = false;
+		
+		/** The vehicles which reached their destination (steady ID and pseudonym). */
+		private final HashSet<String> vehiclesReachedGoal_ = new HashSet<String>();
+		
+		/** The vehicles which wait for the first vehicle leaving with their pseudonym, by pseudonym. */
+		private final HashMap<Long,ArrayList<SlowVehicle>> waiting_ = new HashMap<Long,ArrayList<SlowVehicle>>();
+		
+		/** The vehicles whose pseudonym would still put a leaving vehicle on the blacklist, sorted by the end of this time. */
+		private final PriorityQueue<SlowVehicle> blacklisting_ = new PriorityQueue<SlowVehicle>(64, new Comparator<SlowVehicle>(){
+			public int compare(SlowVehicle a, SlowVehicle b){
+				return Double.compare(a.blacklistEnd_, b.blacklistEnd_);
+			}
+		});
+		
+		/** The vehicles which are compared to leaving vehicles, sorted by the end of their window. */
+		private final PriorityQueue<SlowVehicle> comparing_ = new PriorityQueue<SlowVehicle>(64, new Comparator<SlowVehicle>(){
+			public int compare(SlowVehicle a, SlowVehicle b){
+				return Double.compare(a.windowEnd_, b.windowEnd_);
+			}
+		});
+		
+		/** The vehicles which are compared to leaving vehicles, by cell. */
+		private final HashMap<Long,ArrayList<SlowVehicle>> grid_ = new HashMap<Long,ArrayList<SlowVehicle>>();
+		
+		/** The amount of vehicles which started a SLOW period. */
+		private int size_ = 0;
+		
+		/** The steady IDs in the first beacons of the vehicles. */
+		private int[] firstSteadyIDs_ = new int[1024];
+		
+		/** The pseudonyms in the first beacons of the vehicles. */
+		private long[] firstPseudonyms_ = new long[1024];
+		
+		/** The steady IDs of the vehicles. */
+		private int[] steadyIDs_ = new int[1024];
+		
+		/** The results of the vehicles (one of the <code>RESULT</code> constants). */
+		private byte[] results_ = new byte[1024];
+		
+		/** The vehicle wasn't followed. */
+		private static final byte RESULT_FALSE = 0;
+		
+		/** The vehicle was followed. */
+		private static final byte RESULT_TRUE = 1;
+		
+		/** The vehicle left before changing its pseudonym. */
+		private static final byte RESULT_LEFT_TOO_SOON = 2;
+		
+		/**
+		 * Creates the attack.
+		 * 
+		 * @param header	the header line of SLOW
+		 * @param scoring	the scoring of the vehicles
+		 */
+		SlowAttack(String header, AttackScoring scoring){
+			scoring_ = scoring;
+			String[] slowHeaderArray = header.split(":"); //$NON-NLS-1$
+			timeToChangePseudo_ = Double.parseDouble(slowHeaderArray[3]);
+			maxDrivingDistance_ = scoring.getSlowMaxDistance(Integer.parseInt(slowHeaderArray[1]));
+			cellSize_ = (long)maxDrivingDistance_ + 1;
+		}
+		
+		/**
+		 * Adds a record.
+		 * 
+		 * @param type		the record type
+		 * @param values	the array with the values of the record
+		 * @param offset	the position of the first value in <code>values</code>
+		 */
+		void add(int type, long[] values, int offset){
+			if(pendingIn_){
+				//take the second beacon. It is more actual
+				pendingIn_ = false;
+				if(type == BinaryLogFormat.SAVED_BEACON) addIn(values, offset);
+			}
+			else if(skipNext_) skipNext_ = false;
+			else if(type == BinaryLogFormat.DESTINATION_REACHED) vehiclesReachedGoal_.add(values[offset] + ":" + values[offset + 1]); //$NON-NLS-1$
+			else if(type == BinaryLogFormat.SAVED_BEACON){
+				if(values[offset + 5] == BinaryLogFormat.DIRECTION_IN){
+					pendingIn_ = true;
+					pendingSteadyID_ = (int)values[offset + 1];
+					pendingPseudonym_ = values[offset + 2];
+				} else {
+					//always two beacons, skip 1 more
+					skipNext_ = true;
+					addOut(values, offset);
+				}
+			}
+		}
+		
+		/**
+		 * Adds a vehicle starting a SLOW period.
+		 * 
+		 * @param values	the array with the values of the second beacon
+		 * @param offset	the position of the first value in <code>values</code>
+		 */
+		private void addIn(long[] values, int offset){
+			if(size_ == results_.length){
+				firstSteadyIDs_ = Arrays.copyOf(firstSteadyIDs_, size_ * 2);
+				firstPseudonyms_ = Arrays.copyOf(firstPseudonyms_, size_ * 2);
+				steadyIDs_ = Arrays.copyOf(steadyIDs_, size_ * 2);
+				results_ = Arrays.copyOf(results_, size_ * 2);
+			}
+			firstSteadyIDs_[size_] = pendingSteadyID_;
+			firstPseudonyms_[size_] = pendingPseudonym_;
+			steadyIDs_[size_] = (int)values[offset + 1];
+			results_[size_] = RESULT_FALSE;
+			
+			SlowVehicle vehicle = new SlowVehicle(size_++, (int)values[offset], values[offset + 2], (int)values[offset + 8], (int)values[offset + 9], (int)values[offset + 7], timeToChangePseudo_, scoring_.getMaxSlowSearchTime());
+			Long pseudonym = Long.valueOf(vehicle.pseudonym_);
+			ArrayList<SlowVehicle> vehicles = waiting_.get(pseudonym);
+			if(vehicles == null){
+				vehicles = new ArrayList<SlowVehicle>(1);
+				waiting_.put(pseudonym, vehicles);
+			}
+			vehicles.add(vehicle);
+			blacklisting_.add(vehicle);
+			comparing_.add(vehicle);
+			vehicle.cell_ = getCell(vehicle.x_ / cellSize_, vehicle.y_ / cellSize_);
+			ArrayList<SlowVehicle> cell = grid_.get(Long.valueOf(vehicle.cell_));
+			if(cell == null){
+				cell = new ArrayList<SlowVehicle>();
+				grid_.put(Long.valueOf(vehicle.cell_), cell);
+			}
+			cell.add(vehicle);
+		}
+		
+		/**
+		 * Adds a vehicle leaving a SLOW period and compares it to the vehicles whose window it is in.
+		 * 
+		 * @param values	the array with the values of the first beacon
+		 * @param offset	the position of the first value in <code>values</code>
+		 */
+		private void addOut(long[] values, int offset){
+			int outTime = (int)values[offset];
+			int steadyID = (int)values[offset + 1];
+			int outX = (int)values[offset + 8];
+			int outY = (int)values[offset + 9];
+			
+			//this is the first vehicle leaving with the pseudonym of these vehicles. If the pseudonym wasn't changed in time, it
+			//is no candidate for other vehicles
+			ArrayList<SlowVehicle> samePseudonym = waiting_.remove(Long.valueOf(values[offset + 2]));
+			boolean blacklisted = false;
+			if(samePseudonym != null){
+				for(int i = 0; i < samePseudonym.size(); ++i){
+					SlowVehicle vehicle = samePseudonym.get(i);
+					vehicle.waiting_ = false;
+					if(vehicle.blacklisting_) blacklisted = true;
+				}
+			}
+			while(!blacklisting_.isEmpty() && blacklisting_.peek().blacklistEnd_ < outTime){
+				SlowVehicle vehicle = blacklisting_.poll();
+				vehicle.blacklisting_ = false;
+				if(!vehicle.comparing_) stopWaiting(vehicle);
+			}
+			
+			//the windows which ended before this vehicle left
+			while(!comparing_.isEmpty() && comparing_.peek().windowEnd_ < outTime) stopComparing(comparing_.poll());
+			
+			//vehicles which left before their pseudonym was changed
+			if(samePseudonym != null){
+				for(int i = 0; i < samePseudonym.size(); ++i){
+					SlowVehicle vehicle = samePseudonym.get(i);
+					if(vehicle.comparing_){
+						vehicle.leftTooSoon_ = true;
+						vehicle.savedSteadyID_ = steadyID;
+						stopComparing(vehicle);
+					}
+				}
+			}
+			if(blacklisted) return;
+			
+			double maxDrivingDistanceSquared = maxDrivingDistance_*maxDrivingDistance_;
+			long cellX = outX / cellSize_;
+			long cellY = outY / cellSize_;
+			for(long i = cellX - 1; i <= cellX + 1; ++i){
+				for(long j = cellY - 1; j <= cellY + 1; ++j){
+					ArrayList<SlowVehicle> cell = grid_.get(Long.valueOf(getCell(i, j)));
+					if(cell == null) continue;
+					for(int k = 0; k < cell.size(); ++k){
+						SlowVehicle vehicle = cell.get(k);
+						long dx = vehicle.x_ - outX;
+						long dy = vehicle.y_ - outY;
+						if(maxDrivingDistanceSquared > (dx*dx + dy*dy)){
+							float expectedWay = (float)scoring_.getSlowExpectedWay(outTime - vehicle.time_, vehicle.speed_);
+							double score = AttackScoring.getSlowScore(dx, dy, expectedWay);
+							//always save the vehicle with the smallest factor
+							if(score < vehicle.savedScore_){
+								vehicle.savedScore_ = score;
+								vehicle.savedSteadyID_ = steadyID;
+							}
+						}
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Gets the key of a cell of the grid.
+		 * 
+		 * @param cellX	the column
+		 * @param cellY	the row
+		 * 
+		 * @return the key
+		 */
+		private static long getCell(long cellX, long cellY){
+			return (cellX << 32) | (cellY & 0xFFFFFFFFL);
+		}
+		
+		/**
+		 * Ends the window of a vehicle and stores its result.
+		 * 
+		 * @param vehicle	the vehicle
+		 */
+		private void stopComparing(SlowVehicle vehicle){
+			if(!vehicle.comparing_) return;
+			vehicle.comparing_ = false;
+			ArrayList<SlowVehicle> cell = grid_.get(Long.valueOf(vehicle.cell_));
+			cell.remove(vehicle);
+			if(cell.isEmpty()) grid_.remove(Long.valueOf(vehicle.cell_));
+			if(vehicle.leftTooSoon_) results_[vehicle.index_] = RESULT_LEFT_TOO_SOON;
+			else if(vehicle.savedSteadyID_ == steadyIDs_[vehicle.index_]) results_[vehicle.index_] = RESULT_TRUE;
+			if(!vehicle.blacklisting_) stopWaiting(vehicle);
+		}
+		
+		/**
+		 * Stops waiting for the first vehicle leaving with the pseudonym of a vehicle (if it doesn't matter anymore).
+		 * 
+		 * @param vehicle	the vehicle
+		 */
+		private void stopWaiting(SlowVehicle vehicle){
+			if(!vehicle.waiting_) return;
+			vehicle.waiting_ = false;
+			Long pseudonym = Long.valueOf(vehicle.pseudonym_);
+			ArrayList<SlowVehicle> vehicles = waiting_.get(pseudonym);
+			vehicles.remove(vehicle);
+			if(vehicles.isEmpty()) waiting_.remove(pseudonym);
+		}
+		
+		/**
+		 * Finishes the attack and writes the results. Vehicles which reached their destination during their last SLOW period
+		 * are not counted.
+		 * 
+		 * @param analyser	the analyser
+		 */
+		void finish(OnlinePrivacyAnalyser analyser){
+			while(!comparing_.isEmpty()) stopComparing(comparing_.poll());
+			
+			int numberOfVehicles = 0;
+			int numberOfVehiclesLeftTooSoon = 0;
+			int numberOfCorrectVehicles = 0;
+			//Format: crossed, successful attacks in a row, successful attacks in a row with the vehicles which left too soon, 1 if
+			//all attacks were successful until now
+			HashMap<Integer,int[]> successLog = new HashMap<Integer,int[]>();
+			for(int i = 0; i < size_; ++i){
+				if(!vehiclesReachedGoal_.isEmpty() && vehiclesReachedGoal_.contains(firstSteadyIDs_[i] + ":" + firstPseudonyms_[i])) continue; //$NON-NLS-1$
+				numberOfVehicles++;
+				Integer key = Integer.valueOf(steadyIDs_[i]);
+				int[] state = successLog.get(key);
+				if(state == null){
+					state = new int[]{0, 0, 0, 1};
+					successLog.put(key, state);
+				}
+				state[0]++;
+				if(results_[i] == RESULT_FALSE) state[3] = 0;
+				else {
+					numberOfCorrectVehicles++;
+					if(results_[i] == RESULT_LEFT_TOO_SOON) numberOfVehiclesLeftTooSoon++;
+					if(state[3] == 1){
+						if(results_[i] == RESULT_TRUE) state[1]++;
+						state[2]++;
+					}
+				}
+			}
+			
+			StringBuilder simple = new StringBuilder();
+			simple.append("#GNU-Plot Data Simple\n"); //$NON-NLS-1$
+			simple.append("#Privacy NumberOfVehicles NumberOfCorrectVehicles NumberOfVehiclesLeftToSoon ProbabilityAll ProbabiltyWithoutLeftToSoon\n"); //$NON-NLS-1$
+			simple.append("Slow " + numberOfVehicles + " " +  numberOfCorrectVehicles + " " + numberOfVehiclesLeftTooSoon + " " + ((float)numberOfCorrectVehicles/numberOfVehicles*100) + " " + (float)((numberOfCorrectVehicles-numberOfVehiclesLeftTooSoon)*100)/(numberOfVehicles-numberOfVehiclesLeftTooSoon)  + "\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+			analyser.writeResult("slow", "simple", simple.toString()); //$NON-NLS-1$ //$NON-NLS-2$
+			analyser.writeResult("slow", "detail", getDetail("#GNU-Plot Data Detail\n", successLog, 1)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			analyser.writeResult("slow", "withVehiclesLeftTooSoon", getDetail("#GNU-Plot Data Detail WithVehiclesLeftTooSoon\n", successLog, 2)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+	
+	/**
+	 * A vehicle which started a SLOW period.
+	 */
+	private static final class SlowVehicle {
+		
+		/** The number of the vehicle in the order of the log. */
+		final int index_;
+		
+		/** The time of the second beacon. */
+		final int time_;
+		
+		/** The pseudonym in the second beacon. */
+		final long pseudonym_;
+		
+		/** The x coordinate. */
+		final int x_;
+		
+		/** The y coordinate. */
+		final int y_;
+		
+		/** The speed of the vehicle. */
+		final int speed_;
+		
+		/** Vehicles leaving after this time are not compared anymore. */
+		final double windowEnd_;
+		
+		/** A vehicle leaving with the same pseudonym after this time is no longer put on the blacklist. */
+		final double blacklistEnd_;
+		
+		/** The key of the cell in the grid. */
+		long cell_;
+		
+		/** <code>true</code> while the window hasn't ended. */
+		boolean comparing_ = true;
+		
+		/** <code>true</code> while a vehicle leaving with the same pseudonym is put on the blacklist. */
+		boolean blacklisting_ = true;
+		
+		/** <code>true</code> while no vehicle with the same pseudonym has left. */
+		boolean waiting_ = true;
+		
+		/** <code>true</code> if the vehicle left before changing its pseudonym. */
+		boolean leftTooSoon_ = false;
+		
+		/** The steady ID of the leaving vehicle with the smallest score or <code>-1</code>. */
+		int savedSteadyID_ = -1;
+		
+		/** The smallest score. */
+		double savedScore_ = 999999999;
+		
+		/**
+		 * Instantiates a new vehicle in a SLOW period.
+		 * 
+		 * @param index					the number of the vehicle in the order of the log
+		 * @param time					the time of the second beacon
+		 * @param pseudonym				the pseudonym in the second beacon
+		 * @param x						the x coordinate
+		 * @param y						the y coordinate
+		 * @param speed					the speed of the vehicle
+		 * @param timeToChangePseudo	the time until the pseudonym is changed
+		 * @param maxSlowSearchTime		the time in which leaving vehicles are compared
+		 */
+		SlowVehicle(int index, int time, long pseudonym, int x, int y, int speed, double timeToChangePseudo, double maxSlowSearchTime){
+			index_ = index;
+			time_ = time;
+			pseudonym_ = pseudonym;
+			x_ = x;
+			y_ = y;
+			speed_ = speed;
+			windowEnd_ = time + maxSlowSearchTime;
+			blacklistEnd_ = time + timeToChangePseudo;
+		}
+	}
+}
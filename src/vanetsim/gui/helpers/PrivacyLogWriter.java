@@ -18,10 +18,6 @@
 package vanetsim.gui.helpers;
 
 import java.text.SimpleDateFormat;
-import java.util.logging.FileHandler;
-import java.util.logging.Level;
-import java.util.logging.XMLFormatter;
-import java.util.logging.Logger;
 
 import vanetsim.ErrorLog;
 import vanetsim.localization.Messages;
@@ -32,18 +28,6 @@ import vanetsim.scenario.Scenario;
  */
 public final class PrivacyLogWriter {
 
-	/** The <code>java.util.logging.Logger</code> instance. */
-	private static Logger logger = Logger.getLogger("privacyLog"); //$NON-NLS-1$
-
-	/** Path of log */
-	private static String logPath = "";
-
-	/** Old path of log */
-	private static String logOldPath = "";
-
-	/** file handler */
-	private static FileHandler handler = null;
-
 	/**
 	 * Sets the parameters for the static class.
 	 * 
@@ -54,25 +38,18 @@ public final class PrivacyLogWriter {
 	 *            <code>xml</code>)
 	 */
 	public static void setParameters(String dir, String format) {
-		logger.setLevel(Level.FINEST);
-		logPath = dir;
+		SimulationLogs.LogState log = SimulationLogs.getInstance().privacyLog_;
+		log.path_ = dir;
 
 		java.util.Date dt = new java.util.Date();
 		SimpleDateFormat df = new SimpleDateFormat("dd.MM.yyyy_HH.mm.ss"); //$NON-NLS-1$
 		try {
-			if (!dir.equals(logOldPath)) {
-				if (handler != null)
-					logger.removeHandler(handler);
+			if (!dir.equals(log.oldPath_)) {
+				if(log.file_ != null) AsyncLogPipeline.close(log.file_);
 				String scenName = Scenario.getInstance().getScenarioName();
-				if(scenName != null && !scenName.equals("")) handler = new FileHandler(dir + scenName.substring(0, scenName.length()-4) + "_" + df.format(dt) + "." + format, true);//$NON-NLS-1$ //$NON-NLS-2$
-				else handler = new FileHandler(dir + "privacyLog_" + df.format(dt) + "." + format, true);//$NON-NLS-1$ //$NON-NLS-2$
-				logOldPath = dir;
-				logger.setUseParentHandlers(false); // don't log to console
-				logger.addHandler(handler);
-				if (format.equals("log")) //$NON-NLS-1$
-					handler.setFormatter(new LogFormatter());
-				else
-					handler.setFormatter(new XMLFormatter());
+				if(scenName != null && !scenName.equals("")) log.file_ = AsyncLogPipeline.open(dir + AsyncLogPipeline.removeExtension(scenName) + "_" + df.format(dt) + "." + format, format);//$NON-NLS-1$ //$NON-NLS-2$
+				else log.file_ = AsyncLogPipeline.open(dir + "privacyLog_" + df.format(dt) + "." + format, format);//$NON-NLS-1$ //$NON-NLS-2$
+				log.oldPath_ = dir;
 			}
 		} catch (Exception e) {
 			ErrorLog
@@ -89,14 +66,8 @@ public final class PrivacyLogWriter {
 	 * @param mode log mode
 	 *            
 	 */
-	public static synchronized void log(String message, int mode) {
-		try {
-			logger.log(Level.FINEST, message);
-		} catch (Exception new_e) {
-			System.out
-					.println(Messages.getString("ErrorLog.whileLogging") + message + ")! " + new_e.getLocalizedMessage()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			new_e.printStackTrace();
-		}
+	public static void log(String message, int mode) {
+		AsyncLogPipeline.log(state().file_, message);
 	}
 
 	/**
@@ -105,23 +76,114 @@ public final class PrivacyLogWriter {
 	 * @param message
 	 *            data to log
 	 */
-	public static synchronized void log(String message) {
-		try {
-			logger.log(Level.FINEST, message);
-		} catch (Exception new_e) {
-			System.out
-					.println(Messages.getString("ErrorLog.whileLogging") + message + ")! " + new_e.getLocalizedMessage()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			new_e.printStackTrace();
-		}
+	public static void log(String message) {
+		AsyncLogPipeline.log(state().file_, message);
+	}
+
+	/**
+	 * Logs that a vehicle entered or left a mix zone.
+	 * 
+	 * @param time				the simulation time
+	 * @param steadyID			the steady ID of the vehicle
+	 * @param pseudonym			the current pseudonym of the vehicle
+	 * @param traveledDistance	the distance the vehicle has traveled
+	 * @param traveledTime		the time the vehicle has traveled
+	 * @param nodeID			the ID of the node of the mix zone
+	 * @param direction			<code>BinaryLogFormat.DIRECTION_IN</code> or <code>BinaryLogFormat.DIRECTION_OUT</code>
+	 * @param street			the name of the current street
+	 * @param streetSpeed		the speed limit of the current street
+	 * @param vehicleSpeed		the speed of the vehicle
+	 * @param x					the x coordinate of the vehicle
+	 * @param y					the y coordinate of the vehicle
+	 */
+	public static void logMixZone(int time, int steadyID, long pseudonym, long traveledDistance, int traveledTime, int nodeID, int direction, String street, int streetSpeed, int vehicleSpeed, int x, int y) {
+		AsyncLogPipeline.log(state().file_, BinaryLogFormat.MIX_ZONE, street, time, steadyID, pseudonym, traveledDistance, traveledTime, nodeID, direction, streetSpeed, vehicleSpeed, x, y);
+	}
+
+	/**
+	 * Logs that a silent period started or ended for a vehicle.
+	 * 
+	 * @param time				the simulation time
+	 * @param steadyID			the steady ID of the vehicle
+	 * @param pseudonym			the current pseudonym of the vehicle
+	 * @param traveledDistance	the distance the vehicle has traveled
+	 * @param traveledTime		the time the vehicle has traveled
+	 * @param direction			<code>BinaryLogFormat.DIRECTION_IN</code> or <code>BinaryLogFormat.DIRECTION_OUT</code>
+	 * @param x					the x coordinate of the vehicle
+	 * @param y					the y coordinate of the vehicle
+	 */
+	public static void logSilentPeriod(int time, int steadyID, long pseudonym, long traveledDistance, int traveledTime, int direction, int x, int y) {
+		AsyncLogPipeline.log(state().file_, BinaryLogFormat.SILENT_PERIOD, null, time, steadyID, pseudonym, traveledDistance, traveledTime, direction, x, y, 0, 0, 0);
+	}
+
+	/**
+	 * Logs a beacon which a vehicle saved before entering or after leaving a silent period or SLOW.
+	 * 
+	 * @param time				the simulation time when the beacon was sent
+	 * @param steadyID			the steady ID of the vehicle
+	 * @param pseudonym			the pseudonym in the beacon
+	 * @param traveledDistance	the distance the vehicle had traveled
+	 * @param traveledTime		the time the vehicle had traveled
+	 * @param direction			one of the <code>DIRECTION</code> constants of <code>BinaryLogFormat</code>
+	 * @param street			the name of the street
+	 * @param streetSpeed		the speed limit of the street
+	 * @param vehicleSpeed		the speed of the vehicle
+	 * @param x					the x coordinate of the vehicle
+	 * @param y					the y coordinate of the vehicle
+	 * @param timeInSlow		the time the vehicle spent in SLOW or <code>Long.MIN_VALUE</code> to not log it
+	 */
+	public static void logSavedBeacon(int time, int steadyID, long pseudonym, long traveledDistance, int traveledTime, int direction, String street, int streetSpeed, int vehicleSpeed, int x, int y, long timeInSlow) {
+		AsyncLogPipeline.log(state().file_, BinaryLogFormat.SAVED_BEACON, street, time, steadyID, pseudonym, traveledDistance, traveledTime, direction, streetSpeed, vehicleSpeed, x, y, timeInSlow);
+	}
+
+	/**
+	 * Logs that a vehicle reached its destination (so that its last SLOW period isn't counted).
+	 * 
+	 * @param steadyID	the steady ID of the vehicle
+	 * @param pseudonym	the current pseudonym of the vehicle
+	 */
+	public static void logDestinationReached(int steadyID, long pseudonym) {
+		AsyncLogPipeline.log(state().file_, BinaryLogFormat.DESTINATION_REACHED, null, steadyID, pseudonym, 0, 0, 0, 0, 0, 0, 0, 0, 0);
 	}
 
 	public static void setLogPath(String logPath) {
-		setParameters(logPath + "/", "log");
-		PrivacyLogWriter.logPath = logPath;
+		if(SimulationLogs.getInstance().onlineAnalysis_) setParameters(logPath + "/", "online");
+		else if(AsyncLogPipeline.isBinaryFormat()) setParameters(logPath + "/", "bin");
+		else if(AsyncLogPipeline.isCompressedFormat()) setParameters(logPath + "/", "clog");
+		else setParameters(logPath + "/", "log");
+		state().path_ = logPath;
 		System.out.println("log is:" + logPath); 
 	}
 
 	public static String getLogPath() {
-		return logPath;
+		return state().path_;
+	}
+
+	/**
+	 * Sets if the privacy records of logs which are opened from now on are analysed while the simulation is running (see 
+	 * {@link OnlinePrivacyAnalyser}). No privacy log file is written then.
+	 * 
+	 * @param online	<code>true</code> to analyse the records instead of logging them
+	 */
+	public static void setOnlineAnalysis(boolean online) {
+		SimulationLogs.getInstance().onlineAnalysis_ = online;
+	}
+
+	/**
+	 * Gets if the privacy records are analysed while the simulation is running.
+	 * 
+	 * @return <code>true</code> if no privacy log file is written
+	 */
+	public static boolean isOnlineAnalysis() {
+		return SimulationLogs.getInstance().onlineAnalysis_;
+	}
+	
+	/**
+	 * Gets the state of this log in the simulation context bound to the calling thread.
+	 * 
+	 * @return the state
+	 */
+	private static SimulationLogs.LogState state() {
+		return SimulationLogs.getInstance().privacyLog_;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,632 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accumulates the result files of the {@link LogAnalyser} for the different versions of a scenario (same scenario with new random
+ * vehicles, found by the <code>Version</code> in the file name) and writes the data for the diagrams. This was done by the scripts
+ * of the <code>ReportingControlPanel</code> which now use this class.
+ * <p>
+ * The files are read in parallel. Each file is streamed line by line into a partial aggregate (the sums of its values) and the
+ * partial aggregates of a scenario are merged in the order of the files afterwards. As every result file contains at most one
+ * value for each column, the results are the same as when reading the files one after another.
+ * <p>
+ * Usage: <code>java vanetsim.gui.helpers.ResultAccumulator [-threads n] simple|simpleSlow|detail [SP|MIX] files...</code>
+ */
+public final class ResultAccumulator {
+	
+	/** The filter for the result files of the standard attacks with simple analysis. */
+	private static final String STANDARD_SIMPLE = "_standard_simple_analyzed"; //$NON-NLS-1$
+	
+	/** The filter for the result files of the advanced attacks with simple analysis. */
+	private static final String ADVANCED_SIMPLE = "_advanced_simple_analyzed"; //$NON-NLS-1$
+	
+	/** The filter for the result files of the standard attacks with detailed analysis. */
+	private static final String STANDARD_DETAIL = "_standard_detail_analyzed"; //$NON-NLS-1$
+	
+	/** The filter for the result files of the advanced attacks with detailed analysis. */
+	private static final String ADVANCED_DETAIL = "_advanced_detail_analyzed"; //$NON-NLS-1$
+	
+	/** The amount of values of a simple analysis. */
+	private static final int SIMPLE_VALUES = 10;
+	
+	/** The powers of ten which can be represented exactly as float. */
+	private static final float[] POWERS_OF_TEN = {1f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+	
+	/** The largest integer up to which all integers can be represented exactly as float. */
+	private static final int MAX_EXACT_FLOAT = 1 << 24;
+	
+	/** The kind of result file of a simple mix zone analysis. */
+	private static final int SIMPLE_MIX = 0;
+	
+	/** The kind of result file of a simple silent period analysis. */
+	private static final int SIMPLE_SILENT_PERIOD = 1;
+	
+	/** The kind of result file of a detailed analysis. */
+	private static final int DETAIL = 2;
+	
+	/** The amount of files read in parallel. */
+	private final int threads_;
+	
+	/**
+	 * Creates an accumulator.
+	 * 
+	 * @param threads	the amount of files read in parallel
+	 */
+	public ResultAccumulator(int threads){
+		threads_ = Math.max(1, threads);
+	}
+	
+	/**
+	 * Accumulates the result files.
+	 * 
+	 * @param args	<code>[-threads n] simple|simpleSlow|detail [SP|MIX] files...</code>
+	 */
+	public static void main(String[] args){
+		int threads = Runtime.getRuntime().availableProcessors();
+		int i = 0;
+		try{
+			if(args.length > 1 && args[0].equals("-threads")){ //$NON-NLS-1$
+				threads = Integer.parseInt(args[1]);
+				i = 2;
+			}
+		} catch (NumberFormatException e){
+			i = args.length;
+		}
+		if(i >= args.length){
+			printUsage();
+			return;
+		}
+		String command = args[i++];
+		String mode = null;
+		if(!command.equals("detail")){ //$NON-NLS-1$
+			if(i >= args.length || (!args[i].equals("SP") && !args[i].equals("MIX"))){ //$NON-NLS-1$ //$NON-NLS-2$
+				printUsage();
+				return;
+			}
+			mode = args[i++];
+		}
+		File[] files = new File[args.length - i];
+		for(int j = 0; j < files.length; j++) files[j] = new File(args[i + j]).getAbsoluteFile();
+		if(files.length == 0){
+			printUsage();
+			return;
+		}
+		
+		long start = System.currentTimeMillis();
+		ResultAccumulator accumulator = new ResultAccumulator(threads);
+		try{
+			File[] written;
+			if(command.equals("simple")) written = new File[]{accumulator.accumulateSimpleLogFiles(files, mode)}; //$NON-NLS-1$
+			else if(command.equals("simpleSlow")) written = new File[]{accumulator.accumulateSimpleLogFilesForSlow(files, mode)}; //$NON-NLS-1$
+			else if(command.equals("detail")) written = accumulator.accumulateDetailedLogFiles(files); //$NON-NLS-1$
+			else {
+				printUsage();
+				return;
+			}
+			for(File file : written) System.out.println("Written " + file.getPath()); //$NON-NLS-1$
+			System.out.println("Accumulated " + files.length + " scenarios in " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} catch (IOException e){
+			System.err.println("Accumulating failed: " + e.getMessage()); //$NON-NLS-1$
+		}
+	}
+	
+	/**
+	 * Prints the usage of the command line.
+	 */
+	private static void printUsage(){
+		System.out.println("Usage: java vanetsim.gui.helpers.ResultAccumulator [-threads n] simple|simpleSlow|detail [SP|MIX] files..."); //$NON-NLS-1$
+	}
+	
+	/**
+	 * Accumulates different versions of a scenario for a simple mix-zone analysis.
+	 * 
+	 * @param files	the different versions of a scenario analysis
+	 * 
+	 * @return values for simple analysis
+	 */
+	public float[] accumulateSimpleMixFiles(List<File> files){
+		List<List<File>> scenarios = new ArrayList<List<File>>(1);
+		scenarios.add(files);
+		return accumulate(scenarios, SIMPLE_MIX).get(0);
+	}
+	
+	/**
+	 * Accumulates different versions of a scenario for a simple silent-period analysis.
+	 * 
+	 * @param files	the different versions of a scenario analysis
+	 * 
+	 * @return values for simple analysis
+	 */
+	public float[] accumulateSimpleSilentPeriodFiles(List<File> files){
+		List<List<File>> scenarios = new ArrayList<List<File>>(1);
+		scenarios.add(files);
+		return accumulate(scenarios, SIMPLE_SILENT_PERIOD).get(0);
+	}
+	
+	/**
+	 * Accumulates different versions of a scenario for a detailed analysis.
+	 * 
+	 * @param files	the different versions of a scenario analysis
+	 * 
+	 * @return values for a detailed analysis
+	 */
+	public float[] accumulateDetailFiles(List<File> files){
+		List<List<File>> scenarios = new ArrayList<List<File>>(1);
+		scenarios.add(files);
+		return accumulate(scenarios, DETAIL).get(0);
+	}
+	
+	/**
+	 * Calculates the data for the diagram of a simple analysis of the standard and advanced attacks and writes it to
+	 * <code>diagramms/simpleDiagramm.txt</code> in the directory of the first file.
+	 * 
+	 * @param selectedFiles	one version of each scenario
+	 * @param mode			<code>SP</code> for silent periods, else mix zones
+	 * 
+	 * @return the written file
+	 * 
+	 * @throws IOException	if a file couldn't be written
+	 */
+	public File accumulateSimpleLogFiles(File[] selectedFiles, String mode) throws IOException{
+		int kind = mode.equals("SP") ? SIMPLE_SILENT_PERIOD : SIMPLE_MIX; //$NON-NLS-1$
+		List<List<File>> scenarios = getScenarioFiles(selectedFiles, STANDARD_SIMPLE, ADVANCED_SIMPLE);
+		List<float[]> results = accumulate(scenarios, kind);
+		
+		File file = getDiagramFile(selectedFiles, "simpleDiagramm.txt"); //$NON-NLS-1$
+		BufferedWriter out = new BufferedWriter(new FileWriter(file, false));
+		try{
+			for(int i = 0; i < results.size(); i += 2){
+				float[] accu1 = results.get(i);
+				float[] accu2 = results.get(i + 1);
+				out.write("" + accu1[0]); //$NON-NLS-1$
+				for(int j = 0; j < accu2.length; j++){
+					if(accu2[j] != 0) out.write(" " + accu2[j]); //$NON-NLS-1$
+				}
+				out.write("\n"); //$NON-NLS-1$
+				out.write("#"); //$NON-NLS-1$
+				for(int j = 0; j < accu1.length; j++){
+					if(accu1[j] != 0) out.write(" " + accu1[j]); //$NON-NLS-1$
+				}
+				out.write("\n"); //$NON-NLS-1$
+			}
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+	
+	/**
+	 * Calculates the data for the diagram of a simple analysis of the standard attacks and writes it to
+	 * <code>diagramms/simpleDiagramm.txt</code> in the directory of the first file.
+	 * 
+	 * @param selectedFiles	one version of each scenario
+	 * @param mode			<code>SP</code> for silent periods, else mix zones
+	 * 
+	 * @return the written file
+	 * 
+	 * @throws IOException	if a file couldn't be written
+	 */
+	public File accumulateSimpleLogFilesForSlow(File[] selectedFiles, String mode) throws IOException{
+		int kind = mode.equals("SP") ? SIMPLE_SILENT_PERIOD : SIMPLE_MIX; //$NON-NLS-1$
+		List<List<File>> scenarios = getScenarioFiles(selectedFiles, STANDARD_SIMPLE, null);
+		List<float[]> results = accumulate(scenarios, kind);
+		
+		File file = getDiagramFile(selectedFiles, "simpleDiagramm.txt"); //$NON-NLS-1$
+		BufferedWriter out = new BufferedWriter(new FileWriter(file, false));
+		try{
+			for(float[] accu1 : results){
+				out.write("" + accu1[0]); //$NON-NLS-1$
+				for(int j = 1; j < accu1.length; j++){
+					if(accu1[j] != 0) out.write(" " + accu1[j]); //$NON-NLS-1$
+				}
+				out.write("\n"); //$NON-NLS-1$
+			}
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+	
+	/**
+	 * Calculates the data for the diagrams of a detailed analysis and writes it to <code>diagramms/standardAttackedDetailedDiagramm.txt</code>
+	 * and <code>diagramms/advancedAttackedDetailedDiagramm.txt</code> in the directory of the first file. Each column is a scenario.
+	 * 
+	 * @param selectedFiles	one version of each scenario
+	 * 
+	 * @return the written files
+	 * 
+	 * @throws IOException	if a file couldn't be written
+	 */
+	public File[] accumulateDetailedLogFiles(File[] selectedFiles) throws IOException{
+		List<List<File>> scenarios = getScenarioFiles(selectedFiles, STANDARD_DETAIL, ADVANCED_DETAIL);
+		List<float[]> results = accumulate(scenarios, DETAIL);
+		
+		List<float[]> standard = new ArrayList<float[]>(results.size() / 2);
+		List<float[]> advanced = new ArrayList<float[]>(results.size() / 2);
+		for(int i = 0; i < results.size(); i += 2){
+			standard.add(results.get(i));
+			advanced.add(results.get(i + 1));
+		}
+		File[] files = {getDiagramFile(selectedFiles, "standardAttackedDetailedDiagramm.txt"), getDiagramFile(selectedFiles, "advancedAttackedDetailedDiagramm.txt")}; //$NON-NLS-1$ //$NON-NLS-2$
+		writeDetailedDiagram(files[0], standard);
+		writeDetailedDiagram(files[1], advanced);
+		return files;
+	}
+	
+	/**
+	 * Writes the diagram of a detailed analysis. The first line contains a <code>1</code> for each scenario, the other lines the
+	 * values of the rows of the first scenario (<code>0</code> if a scenario has less rows).
+	 * 
+	 * @param file		the file
+	 * @param columns	the accumulated values of the scenarios
+	 * 
+	 * @throws IOException	if the file couldn't be written
+	 */
+	private static void writeDetailedDiagram(File file, List<float[]> columns) throws IOException{
+		BufferedWriter out = new BufferedWriter(new FileWriter(file, false));
+		try{
+			for(int j = 0; j < columns.size(); j++) out.write("1 "); //$NON-NLS-1$
+			out.write("\n"); //$NON-NLS-1$
+			int rows = columns.isEmpty() ? 0 : columns.get(0).length;
+			for(int i = 1; i < rows; i++){
+				for(float[] column : columns){
+					if(i >= column.length) out.write("0 "); //$NON-NLS-1$
+					else out.write(column[i] + " "); //$NON-NLS-1$
+				}
+				out.write("\n"); //$NON-NLS-1$
+			}
+		} finally {
+			out.close();
+		}
+	}
+	
+	/**
+	 * Gets the file for a diagram in the <code>diagramms</code> directory next to the first selected file.
+	 * 
+	 * @param selectedFiles	the selected files
+	 * @param name			the name of the diagram
+	 * 
+	 * @return the file
+	 */
+	private static File getDiagramFile(File[] selectedFiles, String name){
+		File directory = new File(selectedFiles[0].getParent() + "/diagramms/"); //$NON-NLS-1$
+		if(!directory.exists()) directory.mkdir();
+		return new File(directory, name);
+	}
+	
+	/**
+	 * Sorts the selected files by the numbers in their names (separated by <code>_</code>) and gets the result files of all versions
+	 * of each scenario. The directories are only listed once.
+	 * 
+	 * @param selectedFiles	one version of each scenario
+	 * @param filter1		the filter for the first group of result files
+	 * @param filter2		the filter for the second group of result files or <code>null</code>
+	 * 
+	 * @return the groups of files, for each scenario the first group followed by the second group (if there is a second filter)
+	 */
+	private static List<List<File>> getScenarioFiles(File[] selectedFiles, String filter1, String filter2){
+		List<List<File>> scenarios = new ArrayList<List<File>>();
+		HashMap<String,File[]> directories = new HashMap<String,File[]>();
+		for(File file : sortFiles(selectedFiles)){
+			List<File> files1 = new ArrayList<File>();
+			List<File> files2 = new ArrayList<File>();
+			for(File f : getFileList(file, directories)){
+				if(f.getName().contains(filter1)) files1.add(f);
+				else if(filter2 != null && f.getName().contains(filter2)) files2.add(f);
+			}
+			scenarios.add(files1);
+			if(filter2 != null) scenarios.add(files2);
+		}
+		return scenarios;
+	}
+	
+	/**
+	 * Gets the different versions of a scenario log (searches for _version1..., _version2...).
+	 * 
+	 * @param file			a version of the scenario
+	 * @param directories	the files of the directories which have already been listed
+	 * 
+	 * @return the files of all versions
+	 */
+	private static List<File> getFileList(File file, HashMap<String,File[]> directories){
+		String parent = file.getParent();
+		File[] listed = directories.get(parent);
+		if(listed == null){
+			listed = new File(parent).listFiles();
+			if(listed == null) listed = new File[0];
+			directories.put(parent, listed);
+		}
+		String filename = file.getName();
+		//get all files with the same beginning
+		String stringStart = filename.substring(0, filename.indexOf("Version") - 1); //$NON-NLS-1$
+		List<File> files = new ArrayList<File>();
+		for(File f : listed){
+			if(f.getName().contains(stringStart)) files.add(f);
+		}
+		return files;
+	}
+	
+	/**
+	 * Sorts the selected files like the file chooser scripts of the <code>ReportingControlPanel</code> did: each file is inserted
+	 * before the first file with a larger number at a position where both names have a number.
+	 * 
+	 * @param files	the files
+	 * 
+	 * @return the sorted files
+	 */
+	private static List<File> sortFiles(File[] files){
+		List<File> sortedFiles = new ArrayList<File>(files.length);
+		List<String[]> sortedNames = new ArrayList<String[]>(files.length);
+		for(File file : files){
+			String[] name = file.getName().split("_"); //$NON-NLS-1$
+			int position = sortedFiles.size();
+			for(int i = 0; i < sortedNames.size(); i++){
+				if(compare(name, sortedNames.get(i)) < 0){
+					position = i;
+					break;
+				}
+			}
+			sortedFiles.add(position, file);
+			sortedNames.add(position, name);
+		}
+		return sortedFiles;
+	}
+	
+	/**
+	 * Compares the numbers of two file names.
+	 * 
+	 * @param string1	the parts of the first name
+	 * @param string2	the parts of the second name
+	 * 
+	 * @return <code>-1</code> if the first name has a smaller number at a position where both have a number before any position
+	 * 			where it has a larger one, else <code>0</code>
+	 */
+	private static int compare(String[] string1, String[] string2){
+		for(int i = 0; i < string1.length && i < string2.length; i++){
+			try{
+				int int1 = Integer.parseInt(string1[i]);
+				int int2 = Integer.parseInt(string2[i]);
+				if(int1 < int2) return -1;
+			} catch (NumberFormatException e){}
+		}
+		return 0;
+	}
+	
+	/**
+	 * Reads all files of the groups in parallel and merges the partial aggregates of each group in the order of its files.
+	 * 
+	 * @param groups	the groups of files
+	 * @param kind		the kind of the result files
+	 * 
+	 * @return the accumulated values of each group
+	 */
+	private List<float[]> accumulate(List<List<File>> groups, final int kind){
+		List<List<Future<PartialResult>>> futures = new ArrayList<List<Future<PartialResult>>>(groups.size());
+		final AtomicInteger threadCounter = new AtomicInteger(0);
+		ExecutorService executor = Executors.newFixedThreadPool(threads_, new ThreadFactory(){
+			public Thread newThread(Runnable runnable){
+				Thread thread = new Thread(runnable, "ResultAccumulator-" + threadCounter.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try{
+			for(List<File> files : groups){
+				List<Future<PartialResult>> groupFutures = new ArrayList<Future<PartialResult>>(files.size());
+				for(final File file : files){
+					groupFutures.add(executor.submit(new Callable<PartialResult>(){
+						public PartialResult call(){
+							return readFile(file, kind);
+						}
+					}));
+				}
+				futures.add(groupFutures);
+			}
+			
+			List<float[]> results = new ArrayList<float[]>(groups.size());
+			for(List<Future<PartialResult>> groupFutures : futures){
+				PartialResult total = new PartialResult(kind == DETAIL ? 0 : SIMPLE_VALUES);
+				for(Future<PartialResult> future : groupFutures){
+					try{
+						total.merge(future.get());
+					} catch (ExecutionException e){
+						throw new RuntimeException(e.getCause());
+					}
+				}
+				results.add(total.getAverage(kind, groupFutures.size()));
+			}
+			return results;
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Reads a result file. Errors are reported and the values read until then are used.
+	 * 
+	 * @param file	the file
+	 * @param kind	the kind of the result file
+	 * 
+	 * @return the partial aggregate of the file
+	 */
+	private static PartialResult readFile(File file, int kind){
+		PartialResult result = new PartialResult(kind == DETAIL ? 16 : SIMPLE_VALUES);
+		try{
+			BufferedReader reader = new BufferedReader(new FileReader(file), 65536);
+			try{
+				String line;
+				while((line = reader.readLine()) != null){
+					if(kind == SIMPLE_MIX){
+						if(line.startsWith("Total")) addValues(result, line, 2); //$NON-NLS-1$
+					}
+					else if(line.length() > 0 && line.charAt(0) != '#'){
+						if(kind == SIMPLE_SILENT_PERIOD) addValues(result, line, 1);
+						else addLastValue(result, line);
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e){
+			System.err.println("Caught IOException: " + e.getMessage()); //$NON-NLS-1$
+		}
+		return result;
+	}
+	
+	/**
+	 * Adds the values of a line separated by spaces beginning with a column.
+	 * 
+	 * @param result	the partial aggregate
+	 * @param line		the line
+	 * @param first		the first column to add
+	 */
+	private static void addValues(PartialResult result, String line, int first){
+		int length = line.length();
+		int column = 0;
+		int start = 0;
+		while(start < length){
+			int end = line.indexOf(' ', start);
+			if(end < 0) end = length;
+			if(end > start){
+				if(column >= first && column - first < result.values_.length) result.values_[column - first] += parseFloat(line, start, end);
+				++column;
+			}
+			start = end + 1;
+		}
+	}
+	
+	/**
+	 * Adds the last value of a line separated by spaces as next row.
+	 * 
+	 * @param result	the partial aggregate
+	 * @param line		the line
+	 */
+	private static void addLastValue(PartialResult result, String line){
+		int end = line.length();
+		while(end > 0 && line.charAt(end - 1) == ' ') --end;
+		int start = line.lastIndexOf(' ', end - 1) + 1;
+		if(result.rows_ == result.values_.length) result.values_ = Arrays.copyOf(result.values_, result.values_.length * 2);
+		result.values_[result.rows_++] += parseFloat(line, start, end);
+	}
+	
+	/**
+	 * Parses a float without creating a substring. Plain decimals with few digits are divided by a power of ten which gives the
+	 * correctly rounded result like {@link Float#parseFloat(String)}. Everything else is parsed by <code>Float.parseFloat</code>.
+	 * 
+	 * @param line	the line
+	 * @param start	the start of the number
+	 * @param end	the end of the number (exclusive)
+	 * 
+	 * @return the value
+	 */
+	static float parseFloat(String line, int start, int end){
+		int i = start;
+		boolean negative = false;
+		if(i < end && (line.charAt(i) == '-' || line.charAt(i) == '+')){
+			negative = line.charAt(i) == '-';
+			++i;
+		}
+		int mantissa = 0;
+		int decimals = -1;
+		boolean digits = false;
+		for(; i < end; ++i){
+			char c = line.charAt(i);
+			if(c >= '0' && c <= '9'){
+				mantissa = mantissa * 10 + (c - '0');
+				if(decimals >= 0) ++decimals;
+				digits = true;
+				if(mantissa > MAX_EXACT_FLOAT) break;
+			} else if(c == '.' && decimals < 0) decimals = 0;
+			else break;
+		}
+		if(i < end || !digits || decimals >= POWERS_OF_TEN.length) return Float.parseFloat(line.substring(start, end));
+		float value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+		return negative ? -value : value;
+	}
+	
+	/**
+	 * The values of a result file or the merged values of several files.
+	 */
+	private static final class PartialResult {
+		
+		/** The sums of the values of the columns or rows. */
+		float[] values_;
+		
+		/** The amount of rows of a detailed analysis. */
+		int rows_ = 0;
+		
+		/**
+		 * Creates an empty partial aggregate.
+		 * 
+		 * @param size	the initial amount of values
+		 */
+		PartialResult(int size){
+			values_ = new float[size];
+		}
+		
+		/**
+		 * Adds the values of a file. The amount of rows is the one of the last file.
+		 * 
+		 * @param other	the partial aggregate of the file
+		 */
+		void merge(PartialResult other){
+			if(other.values_.length > values_.length) values_ = Arrays.copyOf(values_, other.values_.length);
+			for(int i = 0; i < other.values_.length; i++) values_[i] += other.values_[i];
+			rows_ = other.rows_;
+		}
+		
+		/**
+		 * Gets the average over the files.
+		 * 
+		 * @param kind	the kind of the result files
+		 * @param files	the amount of files
+		 * 
+		 * @return the averages
+		 */
+		float[] getAverage(int kind, int files){
+			float[] average = new float[kind == DETAIL ? rows_ : SIMPLE_VALUES];
+			for(int i = 0; i < average.length; i++){
+				//silent periods keep columns without values at zero, even without files
+				if(kind != SIMPLE_SILENT_PERIOD || values_[i] != 0) average[i] = values_[i]/files;
+			}
+			return average;
+		}
+	}
+}
@@ -20,11 +20,16 @@ package vanetsim.gui.helpers;
 import java.io.RandomAccessFile;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
  
 /************************************************************************************************************************************
  * <p>Title: Reads text files line per line but from end to previous</p>
  *
- * <p>Description: It uses RandomAccessFile to read from the end to the beginning</p>
+ * <p>Description: The file is memory mapped in large blocks and the line breaks are searched directly in the mapped blocks, so
+ * only the returned lines are copied. Compressed log files (see ChunkedLogReader) are read chunk by chunk instead. A line index
+ * with the start of every line can be built once and is kept for later passes (also after a reset)</p>
  *
  * <p>Copyright: Copyright (c) 2009 class is under LGPL</p>
  *
@@ -35,8 +40,19 @@ import java.io.IOException;
  ***********************************************************************************************************************************/
 public class ReverseLineReader
 {
+  /** size of the mapped blocks of plain files */
+  private static final int BLOCK_SIZE = 1 << 26;
   private RandomAccessFile realReader = null;
-  private int aproxBytesPerLine = 0;
+  private FileChannel channel = null;
+  private ChunkedLogReader chunkedReader = null;
+  private long fileLength = 0;
+  private long cachedStart = -1;
+  private ByteBuffer cachedBlock = null;
+  private long otherStart = -1;
+  private ByteBuffer otherBlock = null;
+  private byte lineBuffer[] = new byte[256];
+  private long lineStarts[] = null;
+  private int lineCount = 0;
   private long lastPosition = -1;
   private boolean fileStartReached = false;
  
@@ -65,31 +81,132 @@ public class ReverseLineReader
   /**********************************************************************************************************************************
    * Constructor to open the file that should be read out
    * @param file which should be opened
-   * @param aproxBytesPerLine how many bytes should be read out to find the next line - default is 100
+   * @param aproxBytesPerLine not used anymore as the file is read in large blocks
    * @throws FileNotFoundException
    * @throws IOException
    *********************************************************************************************************************************/
   public ReverseLineReader(String file, int aproxBytesPerLine) throws FileNotFoundException, IOException
   {
     super();
-    realReader = new RandomAccessFile(file, "r");
-    this.aproxBytesPerLine = aproxBytesPerLine;
-    lastPosition = realReader.length();
+    open(file);
+    lastPosition = fileLength;
   }
   
   /**********************************************************************************************************************************
    * Constructor to open the file that should be read out
    * @param file which should be opened
-   * @param aproxBytesPerLine how many bytes should be read out to find the next line - default is 100
+   * @param aproxBytesPerLine not used anymore as the file is read in large blocks
    * @throws FileNotFoundException
    * @throws IOException
    *********************************************************************************************************************************/
   public ReverseLineReader(String file, int aproxBytesPerLine, long startPosition) throws FileNotFoundException, IOException
   {
     super();
-    realReader = new RandomAccessFile(file, "r");
-    this.aproxBytesPerLine = aproxBytesPerLine;
-    lastPosition = startPosition;
+    open(file);
+    lastPosition = Math.min(startPosition, fileLength);
+  }
+ 
+  /**********************************************************************************************************************************
+   * Opens the file. Compressed log files (see ChunkedLogReader) are read chunk by chunk, positions refer to the uncompressed text
+   * @param file which should be opened
+   * @throws IOException
+   *********************************************************************************************************************************/
+  private void open(String file) throws FileNotFoundException, IOException
+  {
+    if(ChunkedLogReader.isChunkedLog(file))
+    {
+      chunkedReader = new ChunkedLogReader(file);
+      fileLength = chunkedReader.getLength();
+    }
+    else
+    {
+      realReader = new RandomAccessFile(file, "r");
+      channel = realReader.getChannel();
+      fileLength = channel.size();
+    }
+  }
+ 
+  /**********************************************************************************************************************************
+   * Gets the block of the (uncompressed) text which contains a position. Blocks of plain files are mapped, blocks of compressed files
+   * are the decompressed chunks. The last two blocks are kept as lines may span two blocks
+   * @param position in the text
+   * @return the block, its start is in cachedStart
+   * @throws IOException
+   *********************************************************************************************************************************/
+  private ByteBuffer block(long position) throws IOException
+  {
+    if(cachedBlock != null && position >= cachedStart && position < cachedStart + cachedBlock.capacity())
+      return cachedBlock;
+    long tmpStart = cachedStart;
+    ByteBuffer tmpBlock = cachedBlock;
+    if(otherBlock != null && position >= otherStart && position < otherStart + otherBlock.capacity())
+    {
+      cachedStart = otherStart;
+      cachedBlock = otherBlock;
+    }
+    else if(chunkedReader != null)
+    {
+      int chunk = chunkedReader.findChunk(position);
+      cachedStart = chunkedReader.getChunkStart(chunk);
+      cachedBlock = ByteBuffer.wrap(chunkedReader.readChunk(chunk));
+    }
+    else
+    {
+      cachedStart = position - position % BLOCK_SIZE;
+      cachedBlock = channel.map(FileChannel.MapMode.READ_ONLY, cachedStart, Math.min(BLOCK_SIZE, fileLength - cachedStart));
+    }
+    otherStart = tmpStart;
+    otherBlock = tmpBlock;
+    return cachedBlock;
+  }
+ 
+  /**********************************************************************************************************************************
+   * Searches the last line break before a position
+   * @param position to start from (exclusive)
+   * @return the position of the line break or -1 if there is none
+   * @throws IOException
+   *********************************************************************************************************************************/
+  private long previousLineBreak(long position) throws IOException
+  {
+    while(position > 0)
+    {
+      ByteBuffer buffer = block(position - 1);
+      long start = cachedStart;
+      for(int i = (int)(position - 1 - start); i >= 0; --i)
+      {
+        if(buffer.get(i) == '\n')
+          return start + i;
+      }
+      position = start;
+    }
+    return -1;
+  }
+ 
+  /**********************************************************************************************************************************
+   * Reads a part of the text as string. A windows linebreak at the end is removed
+   * @param from first position
+   * @param to end position (exclusive)
+   * @return the text
+   * @throws IOException
+   *********************************************************************************************************************************/
+  private String text(long from, long to) throws IOException
+  {
+    int length = (int)(to - from);
+    if(length > lineBuffer.length)
+      lineBuffer = new byte[Math.max(length, lineBuffer.length * 2)];
+    int read = 0;
+    while(read < length)
+    {
+      ByteBuffer buffer = block(from + read);
+      int offset = (int)(from + read - cachedStart);
+      int count = Math.min(length - read, buffer.capacity() - offset);
+      for(int i = 0; i < count; ++i)
+        lineBuffer[read + i] = buffer.get(offset + i);
+      read += count;
+    }
+    if(length > 0 && lineBuffer[length - 1] == '\r')
+      length--;
+    return new String(lineBuffer, 0, length);
   }
  
   /**********************************************************************************************************************************
@@ -101,53 +218,99 @@ public class ReverseLineReader
   {
     if(fileStartReached)
       return null;
-    String ret = null;
-    boolean abort = false;
-    int count = 0;
-    while(!abort)
+    long lineBreak = previousLineBreak(lastPosition);
+    String ret = text(lineBreak + 1, lastPosition);
+    if(lineBreak == -1)
     {
-      count++;
-      int byteReads = aproxBytesPerLine * count;
-      while(lastPosition - byteReads < 0)
-        byteReads --;
-      realReader.seek(lastPosition - byteReads);
-      byte buf[] = new byte[byteReads];
-      int read = realReader.read(buf, 0, buf.length);
-      String tmp = new String(buf, 0, read);
-      int position = -1;
-      if(tmp.indexOf("\r\n") != -1) //windows linebreak
-      {
-        position = tmp.lastIndexOf("\r\n") + 2;
-        abort = true;
-      }
-      else if(tmp.indexOf("\n") != -1) //linux, mac os X linebreak
-      {
-        position = tmp.lastIndexOf("\n") + 1;
-        abort = true;
-      }
-      else if(lastPosition - read <= 0)
-      {
-        ret = tmp;
-        abort = true;
-        fileStartReached = true;
-      }
-      if(abort && position != -1)
+      fileStartReached = true;
+      lastPosition = 0;
+    }
+    else
+      lastPosition = lineBreak;
+    return ret;
+  }
+ 
+  /**********************************************************************************************************************************
+   * Builds the line index (if not done yet) by searching all line breaks from the start of the file. The index is kept until the
+   * reader is closed, so later passes can use it
+   * @return the number of lines. If the file ends with a line break, the last line is empty like for readPreviousLine
+   * @throws IOException
+   *********************************************************************************************************************************/
+  public int getLineCount() throws IOException
+  {
+    if(lineStarts == null)
+    {
+      long starts[] = new long[1024];
+      int count = 1;
+      long position = 0;
+      while(position < fileLength)
       {
-        lastPosition = lastPosition - (byteReads  - position + 1);
-        ret = tmp.substring(position);
+        ByteBuffer buffer = block(position);
+        long start = cachedStart;
+        int end = buffer.capacity();
+        for(int i = (int)(position - start); i < end; ++i)
+        {
+          if(buffer.get(i) == '\n')
+          {
+            if(count == starts.length)
+              starts = Arrays.copyOf(starts, count * 2);
+            starts[count++] = start + i + 1;
+          }
+        }
+        position = start + end;
       }
+      lineStarts = starts;
+      lineCount = count;
     }
-    return ret;
+    return lineCount;
+  }
+ 
+  /**********************************************************************************************************************************
+   * Gets the position of a line in the text
+   * @param line number of the line (starting with 0)
+   * @return the position of the first character of the line
+   * @throws IOException
+   *********************************************************************************************************************************/
+  public long getLineStart(int line) throws IOException
+  {
+    if(line < 0 || line >= getLineCount())
+      throw new IndexOutOfBoundsException("line " + line + " of " + lineCount);
+    return lineStarts[line];
+  }
+ 
+  /**********************************************************************************************************************************
+   * Reads a line using the line index
+   * @param line number of the line (starting with 0)
+   * @return the line
+   * @throws IOException
+   *********************************************************************************************************************************/
+  public String readLine(int line) throws IOException
+  {
+    long start = getLineStart(line);
+    long end = line + 1 < lineCount ? lineStarts[line + 1] - 1 : fileLength;
+    return text(start, end);
+  }
+ 
+  /**********************************************************************************************************************************
+   * Sets the markers so that the next call of readPreviousLine returns the given line
+   * @param line number of the line (starting with 0)
+   * @throws IOException
+   *********************************************************************************************************************************/
+  public void seekLine(int line) throws IOException
+  {
+    getLineStart(line);
+    fileStartReached = false;
+    lastPosition = line + 1 < lineCount ? lineStarts[line + 1] - 1 : fileLength;
   }
  
   /**********************************************************************************************************************************
-   * Method resets the markers to start reading the file out from the end again
+   * Method resets the markers to start reading the file out from the end again. The line index is kept
    * @throws IOException
    *********************************************************************************************************************************/
   public void reset() throws IOException
   {
     fileStartReached = false;
-    lastPosition = realReader.length();
+    lastPosition = fileLength;
   }
  
   /**********************************************************************************************************************************
@@ -156,7 +319,12 @@ public class ReverseLineReader
    *********************************************************************************************************************************/
   public void close() throws IOException
   {
-    realReader.close();
+    cachedBlock = null;
+    otherBlock = null;
+    lineStarts = null;
+    if(chunkedReader != null)
+      chunkedReader.close();
+    else
+      realReader.close();
   }
 }
-
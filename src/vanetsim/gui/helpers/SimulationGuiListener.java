@@ -0,0 +1,191 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JOptionPane;
+
+import vanetsim.VanetSimStart;
+import vanetsim.gui.Renderer;
+import vanetsim.gui.controlpanels.MapSizeDialog;
+import vanetsim.gui.controlpanels.ReportingControlPanel;
+import vanetsim.localization.Messages;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Vehicle;
+import vanetsim.simulation.SimulationListener;
+import vanetsim.simulation.SimulationMaster;
+
+/**
+ * Connects the simulation engine to the GUI. Renders after each step, updates the statistics and waits until 
+ * rendering has completed so that no inconsistent state is drawn.
+ */
+public final class SimulationGuiListener implements SimulationListener{
+	
+	/** The renderer. */
+	private final Renderer renderer_ = Renderer.getInstance();
+	
+	/** A barrier used to wait until the renderer has finished. */
+	private final CyclicBarrier barrierRender_ = new CyclicBarrier(2);
+	
+	/**
+	 * Instantiates a new listener. Must be created after the main control panel.
+	 */
+	public SimulationGuiListener(){
+		renderer_.setBarrierForSimulationMaster(barrierRender_);
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#simulationRunning(boolean)
+	 */
+	public void simulationRunning(boolean running){
+		renderer_.notifySimulationRunning(running);
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#stepStarted()
+	 */
+	public void stepStarted(){
+		barrierRender_.reset();
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#stepCompleted(int, int)
+	 */
+	public void stepCompleted(int timePassed, int timePerStep){
+		renderer_.ReRender(false, true);
+		getStatsPanel().checkUpdates(timePerStep);
+		// wait until rendering has completed
+		Thread.yield();
+		try{
+			barrierRender_.await(3, TimeUnit.SECONDS);
+		} catch (Exception e){}
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#jumpToTime(boolean)
+	 */
+	public void jumpToTime(boolean jumping){
+		VanetSimStart.setProgressBar(jumping);
+		if(!jumping){
+			renderer_.ReRender(false, true);
+			getStatsPanel().checkUpdates(SimulationMaster.TIME_PER_STEP);
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#renderRequested(boolean, boolean)
+	 */
+	public void renderRequested(boolean fullRender, boolean forceRender){
+		renderer_.ReRender(fullRender, forceRender);
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#beaconMonitored(vanetsim.scenario.Vehicle, long, long, long, double, boolean)
+	 */
+	public void beaconMonitored(Vehicle vehicle, long ID, long x, long y, double speed, boolean isEncrypted){
+		getStatsPanel().addBeacon(vehicle, ID, x, y, speed, isEncrypted);
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#beaconMonitored(vanetsim.scenario.RSU, long, long, long, boolean)
+	 */
+	public void beaconMonitored(RSU rsu, long ID, long x, long y, boolean isEncrypted){
+		getStatsPanel().addBeacon(rsu, ID, x, y, isEncrypted);
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#gridChanged(int[][], int, int, int)
+	 */
+	public void gridChanged(int[][] grid, int minValue, int maxValue, int gridSize){
+		VanetSimStart.getMainControlPanel().getEditPanel().getEditEventSpotsPanel_().getGridSize_().setValue(gridSize);
+		renderer_.setGrid(grid);
+		renderer_.setMinGridValue(minValue);
+		renderer_.setMaxGridValue(maxValue);
+		renderer_.setGridSize_(gridSize);
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#scenarioCleared()
+	 */
+	public void scenarioCleared(){
+		renderer_.setShowVehicles(false);
+		renderer_.setShowRSUs(false);
+		renderer_.setShowMixZones(false);
+		renderer_.setShowAttackers(false);
+		MouseClickManager.getInstance().cleanMarkings();
+		VanetSimStart.getMainControlPanel().getEditPanel().getEditEventPanel().updateList();
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#mapCleared()
+	 */
+	public void mapCleared(){
+		renderer_.setMarkedStreet(null);
+		MouseClickManager.getInstance().cleanMarkings();
+	}
+	
+	/**
+	 * Lets the user change the size of the map in a dialog which creates the map.
+	 * 
+	 * @see vanetsim.simulation.SimulationListener#mapSizeRequested(int, int, int, int)
+	 */
+	public boolean mapSizeRequested(int mapWidth, int mapHeight, int regionWidth, int regionHeight){
+		VanetSimStart.setProgressBar(false);
+		new MapSizeDialog(mapWidth, mapHeight, regionWidth, regionHeight, new CyclicBarrier(2));	// modal, so the map has been created afterwards
+		VanetSimStart.setProgressBar(true);
+		return true;
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#mapLoaded(int, int)
+	 */
+	public void mapLoaded(int mapWidth, int mapHeight){
+		renderer_.setMiddle(mapWidth/2, mapHeight/2);
+		renderer_.setMapZoom(Math.exp(5/100.0)/1000);
+		renderer_.ReRender(true, false);
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.SimulationListener#busyChanged(boolean)
+	 */
+	public void busyChanged(boolean busy){
+		VanetSimStart.setProgressBar(busy);
+	}
+	
+	/**
+	 * Shows a dialog with the warning or error.
+	 * 
+	 * @see vanetsim.simulation.SimulationListener#errorLogged(java.lang.String, int, java.lang.Exception)
+	 */
+	public void errorLogged(String message, int severity, Exception e){
+		String hint = (e != null ? "\n" + Messages.getString("ErrorLog.seeErrorlog") : ""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		if(severity == 7) JOptionPane.showMessageDialog(VanetSimStart.getMainFrame(), Messages.getString("ErrorLog.error") + message + hint, Messages.getString("ErrorLog.errorWindowTitle"), JOptionPane.ERROR_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$
+		else if(severity == 6) JOptionPane.showMessageDialog(VanetSimStart.getMainFrame(), Messages.getString("ErrorLog.warning") + message + hint, Messages.getString("ErrorLog.warningWindowTitle"), JOptionPane.WARNING_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	
+	/**
+	 * Gets the panel which displays the statistics.
+	 * 
+	 * @return the reporting panel
+	 */
+	private ReportingControlPanel getStatsPanel(){
+		return VanetSimStart.getMainControlPanel().getReportingPanel();
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.gui.helpers;
+
+import vanetsim.simulation.SimulationContext;
+
+/**
+ * The log files of a simulation. Each {@link SimulationContext} owns its own logs so that several simulations in one 
+ * process don't write into the same files. The static functions of the log writers (<code>AttackLogWriter</code>, 
+ * <code>EventLogWriter</code>, <code>GeneralLogWriter</code>, <code>IDSLogWriter</code> and <code>PrivacyLogWriter</code>) 
+ * use the logs of the context bound to the calling thread.
+ */
+public final class SimulationLogs {
+	
+	/** The log of the attacker data. */
+	final LogState attackLog_ = new LogState();
+	
+	/** The log of the events. */
+	final LogState eventLog_ = new LogState();
+	
+	/** The log of the intrusion detection system. */
+	final LogState idsLog_ = new LogState();
+	
+	/** The general log. */
+	final LogState generalLog_ = new LogState();
+	
+	/** The privacy log. */
+	final LogState privacyLog_ = new LogState();
+	
+	/** The file name of the general log. */
+	volatile String generalFile_ = ""; //$NON-NLS-1$
+	
+	/** If the privacy log is analysed online instead of being written to a file. */
+	volatile boolean onlineAnalysis_ = false;
+	
+	/**
+	 * Creates new, closed logs. Only used by {@link SimulationContext}.
+	 */
+	public SimulationLogs(){
+	}
+	
+	/**
+	 * Gets the logs of the context bound to the calling thread.
+	 * 
+	 * @return the logs
+	 */
+	public static SimulationLogs getInstance(){
+		return SimulationContext.getCurrent().getLogs();
+	}
+	
+	/**
+	 * The state of one log.
+	 */
+	static final class LogState {
+		
+		/** Path of log */
+		volatile String path_ = ""; //$NON-NLS-1$
+		
+		/** Old path of log */
+		volatile String oldPath_ = ""; //$NON-NLS-1$
+		
+		/** The log file. */
+		volatile AsyncLogFile file_ = null;
+	}
+}
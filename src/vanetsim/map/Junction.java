@@ -17,9 +17,13 @@
  */
 package vanetsim.map;
 
-import vanetsim.gui.Renderer;
+import java.io.IOException;
+
 import vanetsim.scenario.LaneObject;
 import vanetsim.scenario.Vehicle;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationEngine;
 
 /**
  * A junction which always belongs to one specific node. If vehicles move from one priority street to another, they don't have to wait.
@@ -44,8 +48,8 @@ public final class Junction{
 	 * doesn't signal that it has passed the junction within this time, another vehicle gets the permission! */
 	//private static final int MAXIMUM_TIME_ON_JUNCTION = 2500;
 	private static final int MAXIMUM_TIME_ON_JUNCTION = 1000;
-	/** A static reference to the renderer. */
-	private static final Renderer renderer_ = Renderer.getInstance();
+	/** A reference to the simulation engine of the context this junction belongs to. */
+	private final SimulationEngine engine_ = SimulationEngine.getInstance();
 	
 	/** The node this junction belongs to. */
 	private final Node node_;
@@ -168,7 +172,7 @@ public final class Junction{
 	 * @param priority	the priority of the vehicle to pass this junction
 	 */
 	public synchronized void addWaitingVehicle(Vehicle vehicle, int priority){
-		int curTime = renderer_.getTimePassed();
+		int curTime = engine_.getTimePassed();
 		if(curTime > vehicleAllowedSetTime_){		// Sets the vehicle which will be allowed to pass in the current step.
 			vehicleAllowedSetTime_ = curTime;
 			if(vehicleOnJunction_ && vehicleOnJunctionSince_ > curTime - MAXIMUM_TIME_ON_JUNCTION) vehicleAllowedThisStep_ = null;
@@ -303,7 +307,7 @@ public final class Junction{
 			if(priority == 3) junctionQueuePriority3_.delFirstVehicle();
 			else junctionQueuePriority4_.delFirstVehicle();
 			vehicleOnJunction_ = true;
-			vehicleOnJunctionSince_ = renderer_.getTimePassed();
+			vehicleOnJunctionSince_ = engine_.getTimePassed();
 			
 		
 			return true;
@@ -334,6 +338,40 @@ public final class Junction{
 	public Street[] getPriorityStreets() {
 		return priorityStreets_;
 	}
+	
+	/**
+	 * Writes the queues and the vehicles allowed to pass to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	void writeCheckpoint(CheckpointOutput out) throws IOException{
+		junctionQueuePriority3_.writeCheckpoint(out);
+		junctionQueuePriority4_.writeCheckpoint(out);
+		out.writeVehicle(vehicleAllowedThisStep_);
+		out.writeInt(vehicleAllowedSetTime_);
+		out.writeBoolean(vehicleOnJunction_);
+		out.writeInt(vehicleOnJunctionSince_);
+		out.writeInt(nextJunctionQueueCleanUp_);
+	}
+	
+	/**
+	 * Replaces the queues and the vehicles allowed to pass with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	void readCheckpoint(CheckpointInput in) throws IOException{
+		junctionQueuePriority3_.readCheckpoint(in);
+		junctionQueuePriority4_.readCheckpoint(in);
+		vehicleAllowedThisStep_ = in.readVehicle();
+		vehicleAllowedSetTime_ = in.readInt();
+		vehicleOnJunction_ = in.readBoolean();
+		vehicleOnJunctionSince_ = in.readInt();
+		nextJunctionQueueCleanUp_ = in.readInt();
+	}
 
 	/**
 	 * @param trafficLight_ the trafficLight_ to set
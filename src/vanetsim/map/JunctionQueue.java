@@ -17,8 +17,12 @@
  */
 package vanetsim.map;
 
-import vanetsim.gui.Renderer;
+import java.io.IOException;
+
 import vanetsim.scenario.Vehicle;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationEngine;
 
 /**
  * A queue for the vehicles waiting on a junction.
@@ -29,8 +33,8 @@ public final class JunctionQueue{
 	 * calling the addVehicle-function. */
 	private static final int LAST_SEEN_TIMEOUT = 2500;
 	
-	/** A static reference to the renderer. */
-	private static final Renderer renderer_ = Renderer.getInstance();
+	/** A reference to the simulation engine of the context this queue belongs to. */
+	private final SimulationEngine engine_ = SimulationEngine.getInstance();
 	
 	/** The vehicles in this queue. */
 	private Vehicle[] vehicles_;
@@ -63,7 +67,7 @@ public final class JunctionQueue{
 		int i;
 		for(i = 0; i < size_; ++i){
 			if(vehicles_[i] == vehicle){
-				lastSeen_[i] = renderer_.getTimePassed();
+				lastSeen_[i] = engine_.getTimePassed();
 				return false;
 			}
 		}
@@ -81,20 +85,25 @@ public final class JunctionQueue{
 			System.arraycopy (lastSeen_,0,newArray2,0,size_);
 			lastSeen_ = newArray2;
 		}
-		int curTime = renderer_.getTimePassed();
+		int curTime = engine_.getTimePassed();
 		// find other vehicles which were inserted in the current step in order to get a thread-safe ordering!
 		for(i = size_ - 1; i > -1; --i){
 			if(waitingSince_[i] != curTime) break;
 			else if (vehicles_[i].getX() > vehicle.getX()) break;
 			else if (vehicles_[i].getX() == vehicle.getX()){
 				if (vehicles_[i].getY() > vehicle.getY()) break;
-				else if (vehicles_[i].getY() > vehicle.getY()){
-					if (vehicles_[i].hashCode() > vehicle.hashCode()) break;
+				else if (vehicles_[i].getY() == vehicle.getY()){
+					if (vehicles_[i].getSteadyID() > vehicle.getSteadyID()) break;	// the hash code would differ in every run
 				}
 			}
 		}
-		++size_;
 		++i;
+		if(i < size_){	// move the vehicles which were inserted before in this step but shall be behind the new one
+			System.arraycopy(vehicles_,i,vehicles_,i+1,size_-i);
+			System.arraycopy(waitingSince_,i,waitingSince_,i+1,size_-i);
+			System.arraycopy(lastSeen_,i,lastSeen_,i+1,size_-i);
+		}
+		++size_;
 		vehicles_[i] = vehicle;
 		waitingSince_[i] = curTime;
 		lastSeen_[i] = curTime;		
@@ -138,7 +147,7 @@ public final class JunctionQueue{
 	 * Cleans up. This removes vehicles which haven't been seen for a long time and thus prevents from stalls.
 	 */
 	public synchronized void cleanUp(){
-		int i, checkTime = renderer_.getTimePassed() - LAST_SEEN_TIMEOUT;
+		int i, checkTime = engine_.getTimePassed() - LAST_SEEN_TIMEOUT;
 		for(i = size_ - 1; i > -1; --i){	// going backwards because it's easier for deletion!
 			if(lastSeen_[i] < checkTime){
 				--size_;
@@ -167,4 +176,39 @@ public final class JunctionQueue{
 	public int size(){
 		return size_;
 	}
+	
+	/**
+	 * Writes the waiting vehicles to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	synchronized void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeInt(size_);
+		for(int i = 0; i < size_; ++i){
+			out.writeVehicle(vehicles_[i]);
+			out.writeInt(waitingSince_[i]);
+			out.writeInt(lastSeen_[i]);
+		}
+	}
+	
+	/**
+	 * Replaces the waiting vehicles with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	synchronized void readCheckpoint(CheckpointInput in) throws IOException{
+		size_ = in.readInt();
+		vehicles_ = new Vehicle[Math.max(2, size_)];
+		waitingSince_ = new int[vehicles_.length];
+		lastSeen_ = new int[vehicles_.length];
+		for(int i = 0; i < size_; ++i){
+			vehicles_[i] = in.readVehicle();
+			waitingSince_[i] = in.readInt();
+			lastSeen_[i] = in.readInt();
+		}
+	}
 }
\ No newline at end of file
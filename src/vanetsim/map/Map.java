@@ -26,12 +26,10 @@ import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.concurrent.CyclicBarrier;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
-import javax.swing.JFileChooser;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamReader;
@@ -44,16 +42,13 @@ import org.codehaus.staxmate.out.SMOutputDocument;
 import org.codehaus.staxmate.out.SMOutputElement;
 
 import vanetsim.ErrorLog;
-import vanetsim.VanetSimStart;
-import vanetsim.gui.Renderer;
-import vanetsim.gui.controlpanels.MapSizeDialog;
-import vanetsim.gui.helpers.MouseClickManager;
 import vanetsim.localization.Messages;
 import vanetsim.routing.A_Star.A_Star_LookupTableFactory;
 import vanetsim.scenario.Scenario;
 import vanetsim.scenario.Vehicle;
 import vanetsim.scenario.RSU;
-import vanetsim.scenario.events.EventSpot;
+import vanetsim.simulation.SimulationEngine;
+import vanetsim.simulation.SimulationContext;
 
 /**
  * The map. The coordinate system is 2-dimensional with each axis allowing values from
@@ -66,9 +61,6 @@ import vanetsim.scenario.events.EventSpot;
  */
 public final class Map{
 
-	/** The only instance of this class (singleton). */
-	private static final Map INSTANCE = new Map();
-	
 	/** The width of a single lane (3m). Used in various other places in this program! */
 	public static final int LANE_WIDTH = 300;
 
@@ -101,19 +93,27 @@ public final class Map{
 	
 	/** the map name */
 	private String mapName_ = "";
+	
+	/** The grid to find mix zones. <code>null</code> if it needs to be created again because the mix zones have changed. */
+	private volatile MixZoneGrid mixZoneGrid_ = null;
+	
+	/** The grid to find Road-Side-Units. Created again whenever RSUs are added or deleted. */
+	private volatile RSUGrid rsuGrid_ = new RSUGrid(null, 0, 0);
+	
 	/**
-	 * Empty, private constructor in order to disable instancing.
+	 * Creates a new, empty map. Use <code>getInstance()</code> to get the one of the current
+	 * {@link vanetsim.simulation.SimulationContext}.
 	 */
-	private Map() {
+	public Map() {
 	}	
 
 	/**
-	 * Gets the single instance of this map.
+	 * Gets the map of the simulation context bound to the calling thread.
 	 * 
-	 * @return single instance of this map
+	 * @return the map of the current context
 	 */
 	public static Map getInstance(){
-		return INSTANCE;
+		return SimulationContext.getCurrent().getMap();
 	}
 
 	/**
@@ -129,25 +129,23 @@ public final class Map{
 		if(ready_ == true){
 			ready_ = false;
 			//cleanup!
-			if(!Renderer.getInstance().isConsoleStart()){
+			if(!SimulationEngine.getInstance().isConsoleStart()){
 				Scenario.getInstance().initNewScenario();	//stops the simulation thread so we don't need to do it here
 				Scenario.getInstance().setReadyState(true);
 			}
 			
 			A_Star_LookupTableFactory.clear();
 			Node.resetNodeID();
+			Street.resetStreetID();
 			width_ = width;
 			height_ = height;
 			regionWidth_ = regionWidth;
 			regionHeight_ = regionHeight;
 
-			Renderer.getInstance().setMarkedStreet(null);
-			Renderer.getInstance().setMarkedVehicle(null);
-			Renderer.getInstance().setAttackerVehicle(null);
-			Renderer.getInstance().setAttackedVehicle(null);
-
-			
-			if(!Renderer.getInstance().isConsoleStart())MouseClickManager.getInstance().cleanMarkings();
+			SimulationEngine.getInstance().setMarkedVehicle(null);
+			SimulationEngine.getInstance().setAttackerVehicle(null);
+			SimulationEngine.getInstance().setAttackedVehicle(null);
+			SimulationEngine.getInstance().fireMapCleared();
 
 			// create the regions on the map
 			regionCountX_ = width_/regionWidth_;
@@ -164,9 +162,8 @@ public final class Map{
 				leftboundary += regionWidth_;
 				upperboundary = 0;
 			}
-			Vehicle.setRegions(regions_);
-			EventSpot.setRegions_(regions_);
-			RSU.setRegions(regions_);
+			mixZonesChanged();
+			rsusChanged();
 		} else {
 			ErrorLog.log(Messages.getString("Map.mapLocked"), 7, getClass().getName(), "initNewMap", null); //$NON-NLS-1$ //$NON-NLS-2$
 		}
@@ -183,12 +180,7 @@ public final class Map{
 			}
 		}
 		ready_ = true;
-		if(!Renderer.getInstance().isConsoleStart()){
-			Renderer.getInstance().setMiddle(width_/2, height_/2);
-			Renderer.getInstance().setMapZoom(Math.exp(5/100.0)/1000);
-			Renderer.getInstance().ReRender(true, false);
-
-		}
+		SimulationEngine.getInstance().fireMapLoaded(width_, height_);
 
 		//start a thread which calculates bridges in background so that loading is faster (it's just eyecandy and not necessary otherwise ;))
 		Runnable job = new Runnable() {
@@ -213,7 +205,7 @@ public final class Map{
 	 */
 	public void load(File file, boolean zip){
 		try{
-			if(!Renderer.getInstance().isConsoleStart())VanetSimStart.setProgressBar(true);
+			SimulationEngine.getInstance().fireBusyChanged(true);
 			String childtype, setting, streetName, streetType, trafficSignalException, amenity ="";
 			int x = 0, y = 0, maxSpeed, isOneway, lanes, newMapWidth, newMapHeight, newRegionWidth, newRegionHeight;
 			Color displayColor;
@@ -269,19 +261,10 @@ public final class Map{
 						}
 					}
 					if(newMapWidth > 0 && newMapHeight > 0 && newRegionWidth > 0 && newRegionHeight > 0){		// only continue if settings were all found
-						if(!Renderer.getInstance().isConsoleStart())VanetSimStart.setProgressBar(false);
-						CyclicBarrier barrier = new CyclicBarrier(2);
-						if(!Renderer.getInstance().isConsoleStart()){
-							
-							new MapSizeDialog(newMapWidth, newMapHeight, newRegionWidth, newRegionHeight, barrier);	//initialize new map
-							//try {
-						//		barrier.await();
-						//	} catch (Exception e) {}
-						}
-						else Map.getInstance().initNewMap(newMapWidth, newMapHeight, newRegionWidth, newRegionHeight);
+						// the GUI lets the user change the size before creating the map
+						if(!SimulationEngine.getInstance().fireMapSizeRequested(newMapWidth, newMapHeight, newRegionWidth, newRegionHeight)) initNewMap(newMapWidth, newMapHeight, newRegionWidth, newRegionHeight);
 						int addX = (width_ - newMapWidth)/2;
 						int addY = (height_ - newMapHeight)/2;
-						if(!Renderer.getInstance().isConsoleStart())VanetSimStart.setProgressBar(true);
 						while (childCrsr.getNext() != null){
 							if(childCrsr.getLocalName().toLowerCase().equals("streets")){ //$NON-NLS-1$
 								streetCrsr = childCrsr.childElementCursor();
@@ -394,7 +377,7 @@ public final class Map{
 			sr.close();
 			filestream.close();
 		} catch (Exception e) {ErrorLog.log(Messages.getString("Map.errorLoading"), 7, getClass().getName(), "load", e);} //$NON-NLS-1$ //$NON-NLS-2$
-		if(!Renderer.getInstance().isConsoleStart())VanetSimStart.setProgressBar(false);
+		SimulationEngine.getInstance().fireBusyChanged(false);
 		signalMapLoaded();
 		ErrorLog.log(Messages.getString("Map.loadingFinished"), 3, getClass().getName(), "load", null); //$NON-NLS-1$ //$NON-NLS-2$	
 	}
@@ -408,7 +391,7 @@ public final class Map{
 	 */
 	public void save(File file, boolean zip){
 		try{
-			if(!Renderer.getInstance().isConsoleStart())VanetSimStart.setProgressBar(true);
+			SimulationEngine.getInstance().fireBusyChanged(true);
 			ErrorLog.log(Messages.getString("Map.savingMap") + file.getName(), 3, getClass().getName(), "save", null); //$NON-NLS-1$ //$NON-NLS-2$
 			int i, j, k;
 			Street[] streetsArray;
@@ -487,7 +470,7 @@ public final class Map{
 			xw.close();
 			filestream.close();
 		}catch (Exception e) {ErrorLog.log(Messages.getString("Map.errorSavingMap") , 6, getClass().getName(), "save", e);} //$NON-NLS-1$ //$NON-NLS-2$
-		if(!Renderer.getInstance().isConsoleStart())VanetSimStart.setProgressBar(false);
+		SimulationEngine.getInstance().fireBusyChanged(false);
 	}
 
 	/**
@@ -538,6 +521,7 @@ public final class Map{
 
 		rsu.setRegion(regions_[regionX][regionY]);
 		regions_[regionX][regionY].addRSU(rsu);
+		rsusChanged();
 	}
 
 	/**
@@ -571,7 +555,10 @@ public final class Map{
 		}
 		
 		//if RSU was found, delete it
-		if(rsu != null) rsu.getRegion().delRSU(rsu);
+		if(rsu != null){
+			rsu.getRegion().delRSU(rsu);
+			rsusChanged();
+		}
 	}
 	
 	/**
@@ -768,6 +755,35 @@ public final class Map{
 	 */
 	public void clearMixZones(){
 		for(int i = 0; i < regionCountX_; ++i) for(int j = 0; j < regionCountY_; ++j) regions_[i][j].clearMixZones();
+		mixZonesChanged();
+	}
+	
+	/**
+	 * Signals that mix zones have been added or deleted. The grid to find mix zones will be created again 
+	 * on the next call to {@link #getMixZoneGrid()}.
+	 */
+	public synchronized void mixZonesChanged(){
+		mixZoneGrid_ = null;
+	}
+	
+	/**
+	 * Gets the grid to find mix zones. If mix zones have changed, the grid is created first. Creating it only 
+	 * when needed prevents doing it again and again while loading a scenario with lots of mix zones.
+	 * 
+	 * @return the grid
+	 */
+	public MixZoneGrid getMixZoneGrid(){
+		MixZoneGrid grid = mixZoneGrid_;
+		if(grid == null){
+			synchronized(this){
+				grid = mixZoneGrid_;
+				if(grid == null){
+					grid = new MixZoneGrid(regions_, width_, height_);
+					mixZoneGrid_ = grid;
+				}
+			}
+		}
+		return grid;
 	}
 	
 	/**
@@ -775,13 +791,32 @@ public final class Map{
 	 */
 	public void clearRSUs(){
 		for(int i = 0; i < regionCountX_; ++i) for(int j = 0; j < regionCountY_; ++j) regions_[i][j].clearRSUs();
+		rsusChanged();
+	}
+	
+	/**
+	 * Creates the grid to find Road-Side-Units again. Needs to be called whenever RSUs have been added or deleted. 
+	 * As RSUs are only added few at a time and never move, this is done immediately so that the simulation always 
+	 * finds a complete grid.
+	 */
+	public synchronized void rsusChanged(){
+		rsuGrid_ = new RSUGrid(regions_, width_, height_);
+	}
+	
+	/**
+	 * Gets the grid to find Road-Side-Units.
+	 * 
+	 * @return the grid
+	 */
+	public RSUGrid getRSUGrid(){
+		return rsuGrid_;
 	}
 	
 	/**
 	 * Delete every Vehicle on this map
 	 */
 	public void clearVehicles(){
-		Renderer.getInstance().setMarkedVehicle(null);
+		SimulationEngine.getInstance().setMarkedVehicle(null);
 		for(int i = 0; i < regionCountX_; ++i) for(int j = 0; j < regionCountY_; ++j) regions_[i][j].cleanVehicles();
 	}
 	
@@ -934,9 +969,7 @@ public final class Map{
 			}
 		}
 		
-		Renderer.getInstance().ReRender(true, true);
-		
-		saveReloadMap();
+		SimulationEngine.getInstance().requestRender(true, true);
 	}
 		
 	public int trimStreet(int streetXInside, int streetYInside, int streetXOutside, int streetYOutside, int border){
@@ -963,26 +996,6 @@ public final class Map{
 		else return streetXOutside + x;
 	}
 	
-	/**
-	 * Helper function to save and reload a map after editing
-	 */
-	public void saveReloadMap(){
-		VanetSimStart.getMainControlPanel().changeFileChooser(false, true, false);
-		final JFileChooser filechooser = VanetSimStart.getMainControlPanel().getFileChooser();
-		int returnVal = filechooser.showSaveDialog(VanetSimStart.getMainFrame());
-		if (returnVal == JFileChooser.APPROVE_OPTION) {
-			Runnable job = new Runnable() {
-				public void run() {
-					File file = filechooser.getSelectedFile();
-					if(filechooser.getAcceptAllFileFilter() != filechooser.getFileFilter() && !file.getName().toLowerCase().endsWith(".xml")) file = new File(file.getAbsolutePath() + ".xml"); //$NON-NLS-1$ //$NON-NLS-2$
-					Map.getInstance().save(file, false);
-					Map.getInstance().load(file, false);
-				}
-			};
-			new Thread(job).start();
-		}
-	}	
-	
 
 	/**
 	 * Delete every turn-off lane on this map
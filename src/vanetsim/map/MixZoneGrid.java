@@ -0,0 +1,170 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.map;
+
+/**
+ * A grid which maps each cell of the map to the mix zones covering it so that a vehicle only needs to look up its cell and
+ * check the few mix zones found there. The grid is immutable. If mix zones are added or deleted, a new grid is created 
+ * (see {@link Map#getMixZoneGrid()}).
+ * The mix zones of all cells are stored in one array to save memory. The mix zones of cell <code>c</code> are found from 
+ * <code>cellStart_[c]</code> to <code>cellStart_[c+1]-1</code>.
+ */
+public final class MixZoneGrid{
+	
+	/** The minimum size of a cell in cm. */
+	private static final int MIN_CELL_SIZE = 2500;
+	
+	/** The maximum amount of cells. On very large maps, the cells get larger. */
+	private static final int MAX_CELLS = 4194304;
+	
+	/** The size of a cell in cm. */
+	private final int cellSize_;
+	
+	/** The amount of cells in x direction. */
+	private final int cellCountX_;
+	
+	/** The amount of cells in y direction. */
+	private final int cellCountY_;
+	
+	/** The position in <code>mixZones_</code> where the mix zones of a cell start (cells are numbered as <code>x * cellCountY_ + y</code>). */
+	private final int[] cellStart_;
+	
+	/** The mix zones of all cells. */
+	private final Node[] mixZones_;
+	
+	/**
+	 * Constructor. Creates the grid from the mix zones currently stored in the regions. The mix zones of a cell are 
+	 * stored in the order of the regions so that the same mix zone is found as when searching through the regions.
+	 * 
+	 * @param regions	all regions of the map
+	 * @param width		the width of the map
+	 * @param height	the height of the map
+	 */
+	public MixZoneGrid(Region[][] regions, int width, int height){
+		int i, j, k, count = 0, minRadius = Integer.MAX_VALUE;
+		Node[] mixNodes;
+		if(regions != null){
+			for(i = 0; i < regions.length; ++i){
+				for(j = 0; j < regions[i].length; ++j){
+					mixNodes = regions[i][j].getMixZoneNodes();
+					for(k = 0; k < mixNodes.length; ++k){
+						if(mixNodes[k].getMixZoneRadius() > 0 && mixNodes[k].getMixZoneRadius() < minRadius) minRadius = mixNodes[k].getMixZoneRadius();
+					}
+					count += mixNodes.length;
+				}
+			}
+		}
+		if(width < 1) width = 1;
+		if(height < 1) height = 1;
+		
+		// cells about as large as the smallest mix zone so that only few mix zones overlap in a cell
+		int cellSize;
+		if(count == 0) cellSize = Math.max(width, height);
+		else cellSize = Math.max(minRadius, MIN_CELL_SIZE);
+		while(((long)width / cellSize + 1) * ((long)height / cellSize + 1) > MAX_CELLS) cellSize *= 2;
+		cellSize_ = cellSize;
+		cellCountX_ = width / cellSize + 1;
+		cellCountY_ = height / cellSize + 1;
+		cellStart_ = new int[cellCountX_ * cellCountY_ + 1];
+		
+		Node[] allNodes = new Node[count];
+		count = 0;
+		if(regions != null){
+			for(i = 0; i < regions.length; ++i){
+				for(j = 0; j < regions[i].length; ++j){
+					mixNodes = regions[i][j].getMixZoneNodes();
+					System.arraycopy(mixNodes, 0, allNodes, count, mixNodes.length);
+					count += mixNodes.length;
+				}
+			}
+		}
+		
+		// first pass: count the mix zones of each cell (stored one cell further to get the start positions afterwards)
+		for(k = 0; k < allNodes.length; ++k) addToCells(allNodes[k], null, null);
+		for(i = 1; i < cellStart_.length; ++i) cellStart_[i] += cellStart_[i-1];
+		
+		// second pass: store the mix zones
+		mixZones_ = new Node[cellStart_[cellStart_.length - 1]];
+		int[] nextPosition = new int[cellStart_.length - 1];
+		System.arraycopy(cellStart_, 0, nextPosition, 0, nextPosition.length);
+		for(k = 0; k < allNodes.length; ++k) addToCells(allNodes[k], mixZones_, nextPosition);
+	}
+	
+	/**
+	 * Counts or stores a mix zone in all cells which are touched by the circle of the mix zone.
+	 * 
+	 * @param node			the mix zone node
+	 * @param target		the array to store the mix zone in or <code>null</code> if only counting shall be done
+	 * @param nextPosition	the next free position in <code>target</code> for each cell (only needed if storing)
+	 */
+	private void addToCells(Node node, Node[] target, int[] nextPosition){
+		int radius = node.getMixZoneRadius();
+		if(radius < 0) return;
+		long radiusSquared = (long)radius * radius;
+		int x = node.getX();
+		int y = node.getY();
+		int minCellX = (int)Math.max(0, ((long)x - radius) / cellSize_);
+		int maxCellX = (int)Math.min(cellCountX_ - 1, ((long)x + radius) / cellSize_);
+		int minCellY = (int)Math.max(0, ((long)y - radius) / cellSize_);
+		int maxCellY = (int)Math.min(cellCountY_ - 1, ((long)y + radius) / cellSize_);
+		long dx, dy;
+		int cell;
+		for(int i = minCellX; i <= maxCellX; ++i){
+			// distance from the mix zone to the nearest point of the cell
+			dx = Math.max(0, Math.max((long)i * cellSize_ - x, (long)x - ((long)(i + 1) * cellSize_ - 1)));
+			for(int j = minCellY; j <= maxCellY; ++j){
+				dy = Math.max(0, Math.max((long)j * cellSize_ - y, (long)y - ((long)(j + 1) * cellSize_ - 1)));
+				if(dx * dx + dy * dy <= radiusSquared){
+					cell = i * cellCountY_ + j;
+					if(target == null) ++cellStart_[cell + 1];
+					else {
+						target[nextPosition[cell]] = node;
+						++nextPosition[cell];
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Finds the mix zone a point is in.
+	 * 
+	 * @param x	the x coordinate
+	 * @param y	the y coordinate
+	 * 
+	 * @return the node of the first mix zone found or <code>null</code> if the point is not inside a mix zone
+	 */
+	public Node findMixZone(int x, int y){
+		if(x < 0 || y < 0) return null;
+		int cellX = x / cellSize_;
+		int cellY = y / cellSize_;
+		if(cellX >= cellCountX_ || cellY >= cellCountY_) return null;
+		int cell = cellX * cellCountY_ + cellY;
+		int end = cellStart_[cell + 1];
+		Node node;
+		long dx, dy, radius;
+		for(int i = cellStart_[cell]; i < end; ++i){
+			node = mixZones_[i];
+			dx = node.getX() - x;
+			dy = node.getY() - y;
+			radius = node.getMixZoneRadius();
+			if((dx * dx + dy * dy) <= radius * radius) return node;	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
+		}
+		return null;
+	}
+}
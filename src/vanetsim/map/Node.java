@@ -18,9 +18,12 @@
 package vanetsim.map;
 
 import java.awt.Color;
+import java.io.IOException;
 import java.util.ArrayList;
 
 import vanetsim.scenario.RSU;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
 
 /**
  * A node on the map.
@@ -576,6 +579,15 @@ public final class Node {
 		counter_ = 0;
 	}
 	
+	/**
+	 * Sets the ID the next node will get (used when restoring a checkpoint).
+	 * 
+	 * @param maxNodeID	the ID
+	 */
+	public static void setMaxNodeID(int maxNodeID){
+		counter_ = maxNodeID;
+	}
+	
 	/**
 	 * Creates a hash code (needed for HashMaps or similar structures).
 	 * 
@@ -623,9 +635,17 @@ public final class Node {
 	}
 
 	/**
+	 * Sets the traffic light of this node. The traffic light is registered in the region of this node so that the simulation 
+	 * doesn't need to check all nodes.
+	 * 
 	 * @param trafficLight_ the trafficLight_ to set
 	 */
 	public void setTrafficLight_(TrafficLight trafficLight_) {
+		if(this.trafficLight_ == trafficLight_) return;
+		if(region_ != null){
+			if(this.trafficLight_ != null) region_.delTrafficLight(this.trafficLight_);
+			if(trafficLight_ != null) region_.addTrafficLight(trafficLight_);
+		}
 		this.trafficLight_ = trafficLight_;
 	}
 
@@ -635,6 +655,35 @@ public final class Node {
 	public TrafficLight getTrafficLight_() {
 		return trafficLight_;
 	}
+	
+	/**
+	 * Writes the state of the junction and of the traffic light on this node to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeBoolean(junction_ != null);
+		if(junction_ != null) junction_.writeCheckpoint(out);
+		out.writeBoolean(trafficLight_ != null);
+		if(trafficLight_ != null) trafficLight_.writeCheckpoint(out);
+	}
+	
+	/**
+	 * Replaces the state of the junction and of the traffic light on this node with the one from a checkpoint. The 
+	 * junctions need to be calculated before.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed or the junctions differ from the ones of the checkpoint
+	 */
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		if(in.readBoolean() != (junction_ != null)) throw new IOException("Junction differs on node " + nodeID_); //$NON-NLS-1$
+		if(junction_ != null) junction_.readCheckpoint(in);
+		if(in.readBoolean() != (trafficLight_ != null)) throw new IOException("Traffic light differs on node " + nodeID_); //$NON-NLS-1$
+		if(trafficLight_ != null) trafficLight_.readCheckpoint(in);
+	}
 
 
 	/**
@@ -0,0 +1,167 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.map;
+
+import vanetsim.scenario.RSU;
+
+/**
+ * A grid over the whole map which sorts all Road-Side-Units into cells so that a vehicle only needs to check the RSUs
+ * in the cells around it. As RSUs don't move, the grid is immutable. If RSUs are added or deleted, a new grid is
+ * created (see {@link Map#getRSUGrid()}).
+ * The RSUs of all cells are stored in one array. The RSUs of cell <code>c</code> are found from
+ * <code>cellStart_[c]</code> to <code>cellStart_[c+1]-1</code>. Cells are numbered as <code>x * cellCountY_ + y</code>
+ * so that the cells of one column are stored one after another.
+ */
+public final class RSUGrid{
+	
+	/** The minimum size of a cell in cm. */
+	private static final int MIN_CELL_SIZE = 10000;
+	
+	/** The maximum amount of cells. On very large maps, the cells get larger. */
+	private static final int MAX_CELLS = 1048576;
+	
+	/** The size of a cell in cm. */
+	private final int cellSize_;
+	
+	/** The amount of cells in x direction. */
+	private final int cellCountX_;
+	
+	/** The amount of cells in y direction. */
+	private final int cellCountY_;
+	
+	/** The position in <code>rsus_</code> where the RSUs of a cell start. */
+	private final int[] cellStart_;
+	
+	/** The RSUs of all cells. */
+	private final RSU[] rsus_;
+	
+	/**
+	 * Constructor. Creates the grid from the Road-Side-Units currently stored in the regions.
+	 * 
+	 * @param regions	all regions of the map
+	 * @param width		the width of the map
+	 * @param height	the height of the map
+	 */
+	public RSUGrid(Region[][] regions, int width, int height){
+		int i, j, k, count = 0;
+		RSU[] regionRSUs;
+		if(regions != null){
+			for(i = 0; i < regions.length; ++i){
+				for(j = 0; j < regions[i].length; ++j){
+					count += regions[i][j].getRSUs().length;
+				}
+			}
+		}
+		if(width < 1) width = 1;
+		if(height < 1) height = 1;
+	
+		int cellSize;
+		if(count == 0) cellSize = Math.max(width, height);
+		else cellSize = MIN_CELL_SIZE;
+		while(((long)width / cellSize + 1) * ((long)height / cellSize + 1) > MAX_CELLS) cellSize *= 2;
+		cellSize_ = cellSize;
+		cellCountX_ = width / cellSize + 1;
+		cellCountY_ = height / cellSize + 1;
+		cellStart_ = new int[cellCountX_ * cellCountY_ + 1];
+	
+		RSU[] allRSUs = new RSU[count];
+		int[] cells = new int[count];
+		count = 0;
+		if(regions != null){
+			for(i = 0; i < regions.length; ++i){
+				for(j = 0; j < regions[i].length; ++j){
+					regionRSUs = regions[i][j].getRSUs();
+					System.arraycopy(regionRSUs, 0, allRSUs, count, regionRSUs.length);
+					count += regionRSUs.length;
+				}
+			}
+		}
+	
+		// counting sort: count the RSUs of each cell (stored one cell further to get the start positions afterwards)
+		for(k = 0; k < allRSUs.length; ++k){
+			cells[k] = getCellX(allRSUs[k].getX()) * cellCountY_ + getCellY(allRSUs[k].getY());
+			++cellStart_[cells[k] + 1];
+		}
+		for(i = 1; i < cellStart_.length; ++i) cellStart_[i] += cellStart_[i-1];
+		rsus_ = new RSU[allRSUs.length];
+		int[] nextPosition = new int[cellStart_.length - 1];
+		System.arraycopy(cellStart_, 0, nextPosition, 0, nextPosition.length);
+		for(k = 0; k < allRSUs.length; ++k){
+			rsus_[nextPosition[cells[k]]] = allRSUs[k];
+			++nextPosition[cells[k]];
+		}
+	}
+	
+	/**
+	 * Gets the cell in x direction in which a coordinate is. Coordinates outside of the map are mapped to the
+	 * nearest cell.
+	 * 
+	 * @param x	the x coordinate
+	 * 
+	 * @return the cell
+	 */
+	public int getCellX(long x){
+		if(x < 0) return 0;
+		long cell = x / cellSize_;
+		if(cell >= cellCountX_) return cellCountX_ - 1;
+		return (int)cell;
+	}
+	
+	/**
+	 * Gets the cell in y direction in which a coordinate is. Coordinates outside of the map are mapped to the
+	 * nearest cell.
+	 * 
+	 * @param y	the y coordinate
+	 * 
+	 * @return the cell
+	 */
+	public int getCellY(long y){
+		if(y < 0) return 0;
+		long cell = y / cellSize_;
+		if(cell >= cellCountY_) return cellCountY_ - 1;
+		return (int)cell;
+	}
+	
+	/**
+	 * Gets the amount of cells in y direction.
+	 * 
+	 * @return the amount of cells
+	 */
+	public int getCellCountY(){
+		return cellCountY_;
+	}
+	
+	/**
+	 * Gets the Road-Side-Units sorted by cells. The RSUs of cell <code>c</code> are found from
+	 * <code>getCellStart()[c]</code> to <code>getCellStart()[c+1]-1</code>. Don't modify the array!
+	 * 
+	 * @return the RSUs
+	 */
+	public RSU[] getRSUs(){
+		return rsus_;
+	}
+	
+	/**
+	 * Gets the start positions of the cells in {@link #getRSUs()}. Don't modify the array!
+	 * 
+	 * @return the start positions
+	 */
+	public int[] getCellStart(){
+		return cellStart_;
+	}
+}
@@ -17,13 +17,19 @@
  */
 package vanetsim.map;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
 
-import vanetsim.gui.Renderer;
 import vanetsim.gui.helpers.PrivacyLogWriter;
+import vanetsim.scenario.KinematicStore;
 import vanetsim.scenario.Vehicle;
 import vanetsim.scenario.RSU;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
 import vanetsim.simulation.WorkerThread;
+import vanetsim.simulation.SimulationEngine;
 
 /**
  * A region stores all objects in a specific part of the map. It stores streets, nodes and vehicles.
@@ -33,6 +39,9 @@ public final class Region{
 	/** An empty vehicle array to prevent unnecessary object creation on <code>toArray()</code> operation. */
 	private static final Vehicle[] EMPTY_VEHICLE = new Vehicle[0];
 	
+	/** The size of the cells (in cm) into which vehicles and Road-Side-Units are sorted so that they can be found faster. */
+	private static final int CELL_SIZE = 5000;
+	
 	/** The position on the x axis (in relation to all other regions => does not correspond to map coordinates!). */
 	private final int x_;
 
@@ -63,20 +72,94 @@ public final class Region{
 	/** An array storing all streets in this region. */
 	private Street[] streets_ = new Street[0];		// This has a little bit overhead while loading compared to an ArrayList but requires less memory and is faster when iterating
 
-	/** An <code>ArrayList</code> storing all vehicles in this region. */
-	private ArrayList<Vehicle> vehicles_;	// changes relatively often so use ArrayList here
+	/** An array storing all vehicles in this region. Each vehicle knows its index in this array so that it can be removed by 
+	 * moving the last vehicle into its place. The worker thread of this region iterates over it directly as vehicles only 
+	 * change their region between two steps. */
+	private Vehicle[] vehicles_ = new Vehicle[4];
+	
+	/** The amount of vehicles in <code>vehicles_</code>. */
+	private int vehiclesCount_ = 0;
+	
+	/** The position, speed, lane and countdowns of the vehicles in this region. The slot of a vehicle is its index in 
+	 * <code>vehicles_</code>. */
+	private KinematicStore kinematics_ = new KinematicStore(4);
 
-	/** The simulation requests an array for the vehicles which is cached here. */
+	/** A copy of the vehicle array for readers outside of the simulation step (GUI, logging) which is cached here. */
 	private Vehicle[] vehiclesArray_;
 	
 	/** The worker thread this region is associated with. */
 	private WorkerThread thread_ = null;
 	
-	/** The number of this region in the worker thread. */
-	private int numberInThread_ = -1;
 
 	/** <code>true</code> to indicate that the vehicles have changed since the last call to getVehicleArray() */
 	private boolean vehiclesDirty_ = true;
+	
+	/** The amount of cells in x direction. */
+	private final int cellCountX_;
+	
+	/** The amount of cells in y direction. */
+	private final int cellCountY_;
+	
+	/** The vehicles sorted by cells (cells are numbered as <code>x * cellCountY_ + y</code>). Created in every step. */
+	private Vehicle[] cellVehicles_ = EMPTY_VEHICLE;
+	
+	/** The position in <code>cellVehicles_</code> where the vehicles of a cell start. */
+	private int[] cellVehicleStart_;
+	
+	/** The x coordinates of the vehicles in <code>cellVehicles_</code>. Stored separately so that distance checks don't need to read the vehicles. */
+	private int[] cellVehicleX_ = new int[0];
+	
+	/** The y coordinates of the vehicles in <code>cellVehicles_</code>. */
+	private int[] cellVehicleY_ = new int[0];
+	
+	/** <code>true</code> if a vehicle was added to or removed from this region or the active, waiting or WiFi state of one of 
+	 * its vehicles has changed since the vehicle sets were updated. */
+	private volatile boolean vehicleStatesDirty_ = true;
+	
+	/** The vehicles which are active or wait at a waypoint. Finished vehicles are left out as adjusting their speed has no effect. */
+	private Vehicle[] scheduledVehicles_ = EMPTY_VEHICLE;
+	
+	/** The amount of vehicles in <code>scheduledVehicles_</code>. */
+	private int scheduledVehiclesCount_ = 0;
+	
+	/** The vehicles which are active or may be recycled. Vehicles waiting at a waypoint are left out as they don't move. */
+	private Vehicle[] movingVehicles_ = EMPTY_VEHICLE;
+	
+	/** The amount of vehicles in <code>movingVehicles_</code>. */
+	private int movingVehiclesCount_ = 0;
+	
+	/** The active vehicles with WiFi enabled. */
+	private Vehicle[] wiFiVehicles_ = EMPTY_VEHICLE;
+	
+	/** The amount of vehicles in <code>wiFiVehicles_</code>. */
+	private int wiFiVehiclesCount_ = 0;
+	
+	/** The WiFi vehicles which need to send a beacon in the current step. Created in every step. */
+	private Vehicle[] beaconVehicles_ = EMPTY_VEHICLE;
+	
+	/** The amount of vehicles in <code>beaconVehicles_</code>. */
+	private int beaconVehiclesCount_ = 0;
+	
+	/** All traffic lights in this region. */
+	private TrafficLight[] trafficLights_ = new TrafficLight[0];
+	
+	/** <code>true</code> if traffic lights were added or removed since the queue was created. */
+	private volatile boolean trafficLightsChanged_ = true;
+	
+	/** The traffic lights ordered by the step of their next phase change. Created by the worker thread when needed. */
+	private PriorityQueue<TrafficLight> trafficLightQueue_ = null;
+	
+	/** The amount of steps in which the traffic lights of this region have been processed. */
+	private long trafficLightStep_ = 0;
+	
+	/** <code>true</code> if the state of the junctions has been restored from a checkpoint so that they must not be calculated again when the simulation is started. */
+	private boolean junctionsRestored_ = false;
+	
+	/** The Road-Side-Units sorted by cells (cells are numbered as <code>x * cellCountY_ + y</code>). */
+	private RSU[] cellRSUs_ = new RSU[0];
+	
+	/** The position in <code>cellRSUs_</code> where the Road-Side-Units of a cell start. */
+	private int[] cellRSUStart_;
 
 	public ArrayList<String> xxx = new ArrayList<String>();
 	public ArrayList<String> yyy = new ArrayList<String>();
@@ -93,13 +176,16 @@ public final class Region{
 	 * @param lowerBoundary	the coordinate of the lower boundary
 	 */
 	public Region(int x, int y, int leftBoundary, int rightBoundary, int upperBoundary, int lowerBoundary){
-		vehicles_ = new ArrayList<Vehicle>(1);
 		x_ = x;
 		y_ = y;
 		leftBoundary_ = leftBoundary;
 		rightBoundary_ = rightBoundary;
 		upperBoundary_ = upperBoundary;
 		lowerBoundary_ = lowerBoundary;
+		cellCountX_ = (rightBoundary - leftBoundary) / CELL_SIZE + 1;
+		cellCountY_ = (lowerBoundary - upperBoundary) / CELL_SIZE + 1;
+		cellVehicleStart_ = new int[cellCountX_ * cellCountY_ + 1];
+		cellRSUStart_ = new int[cellCountX_ * cellCountY_ + 1];
 	}
 	
 	/**
@@ -128,6 +214,10 @@ public final class Region{
 		System.arraycopy (nodes_,0,newArray,0,nodes_.length);
 		newArray[nodes_.length] = node;
 		nodes_ = newArray;
+		if(node.getRegion() != this){
+			node.setRegion(this);
+			if(node.getTrafficLight_() != null) addTrafficLight(node.getTrafficLight_());
+		}
 		return node;
 	}
 
@@ -145,6 +235,7 @@ public final class Region{
 					System.arraycopy (nodes_,i+1,newArray,i,nodes_.length-i-1);
 				} else System.arraycopy (nodes_,1,newArray,0,nodes_.length-1);
 				nodes_ = newArray;
+				if(node.getTrafficLight_() != null) delTrafficLight(node.getTrafficLight_());
 			}			
 		}
 	}
@@ -160,6 +251,7 @@ public final class Region{
 		System.arraycopy (rsus_,0,newArray,0,rsus_.length);
 		newArray[rsus_.length] = rsu;
 		rsus_ = newArray;
+		sortRSUsIntoCells();
 	}
 
 	/**
@@ -178,6 +270,329 @@ public final class Region{
 				rsus_ = newArray;
 			}			
 		}
+		sortRSUsIntoCells();
+	}
+	
+	/**
+	 * Sorts the Road-Side-Units into the cells of this region. As RSUs don't move, this only needs to be done if 
+	 * RSUs are added or deleted.
+	 */
+	private void sortRSUsIntoCells(){
+		int[] cellStart = new int[cellCountX_ * cellCountY_ + 1];
+		int[] cells = new int[rsus_.length];
+		int i;
+		for(i = 0; i < rsus_.length; ++i){
+			cells[i] = getCellX(rsus_[i].getX()) * cellCountY_ + getCellY(rsus_[i].getY());
+			++cellStart[cells[i] + 1];	// count one cell further to get the start positions afterwards
+		}
+		for(i = 1; i < cellStart.length; ++i) cellStart[i] += cellStart[i-1];
+		RSU[] cellRSUs = new RSU[rsus_.length];
+		int[] nextPosition = new int[cellStart.length - 1];
+		System.arraycopy(cellStart, 0, nextPosition, 0, nextPosition.length);
+		for(i = 0; i < rsus_.length; ++i){
+			cellRSUs[nextPosition[cells[i]]] = rsus_[i];
+			++nextPosition[cells[i]];
+		}
+		cellRSUs_ = cellRSUs;
+		cellRSUStart_ = cellStart;
+	}
+	
+	/**
+	 * !!!Sorts the vehicles into the cells of this region. Note that this function is not synchronized! It needs to be called 
+	 * by the worker thread of this region in every step after the vehicles have been adjusted and before they communicate, 
+	 * so that the vehicles and Road-Side-Units don't need to check all vehicles of this region. The positions are copied into 
+	 * separate arrays as they don't change until the vehicles move. The arrays are only enlarged if needed.
+	 * 
+	 * @param vehicles	the vehicles of this region
+	 * @param count		the amount of vehicles in <code>vehicles</code> to use
+	 */
+	public void sortVehiclesIntoCells(Vehicle[] vehicles, int count){
+		int[] cellStart = cellVehicleStart_;
+		int i, cell;
+		for(i = 0; i < cellStart.length; ++i) cellStart[i] = 0;
+		for(i = 0; i < count; ++i){
+			++cellStart[getCellX(vehicles[i].getX()) * cellCountY_ + getCellY(vehicles[i].getY()) + 1];	// count one cell further to get the start positions afterwards
+		}
+		for(i = 1; i < cellStart.length; ++i) cellStart[i] += cellStart[i-1];
+		if(cellVehicles_.length < count){
+			cellVehicles_ = new Vehicle[count + 16];
+			cellVehicleX_ = new int[count + 16];
+			cellVehicleY_ = new int[count + 16];
+		} else for(i = count; i < cellVehicles_.length; ++i) cellVehicles_[i] = null;	// don't prevent garbage collection
+		// fill from the end of each cell so that the start positions are correct afterwards
+		int x, y, position;
+		for(i = count - 1; i > -1; --i){
+			x = vehicles[i].getX();
+			y = vehicles[i].getY();
+			cell = getCellX(x) * cellCountY_ + getCellY(y);
+			position = --cellStart[cell + 1];
+			cellVehicles_[position] = vehicles[i];
+			cellVehicleX_[position] = x;
+			cellVehicleY_[position] = y;
+		}
+		// now cellStart[c+1] holds the start of cell c. Shift back so that cellStart[c] is the start of cell c.
+		System.arraycopy(cellStart, 1, cellStart, 0, cellStart.length - 1);
+		cellStart[cellStart.length - 1] = count;
+	}
+	
+	/**
+	 * Marks the vehicle sets of this region as outdated. Needs to be called whenever a vehicle of this region gets 
+	 * active or inactive, stops waiting or changes its WiFi state.
+	 */
+	public void markVehicleStatesDirty(){
+		vehicleStatesDirty_ = true;
+	}
+	
+	/**
+	 * !!!Updates the sets of scheduled, moving and WiFi vehicles if a vehicle was added or removed or the state of a vehicle 
+	 * has changed. Note that this function is not synchronized! It needs to be called by the worker thread of this region at 
+	 * the start of every step and after the speed of the vehicles has been adjusted. The arrays are only enlarged if needed.
+	 */
+	public void updateVehicleStates(){
+		if(!vehicleStatesDirty_) return;
+		vehicleStatesDirty_ = false;	// reset first so that changes during the update are not lost
+		Vehicle[] vehicles = vehicles_;
+		int count = vehiclesCount_;
+		if(scheduledVehicles_.length < count){
+			scheduledVehicles_ = new Vehicle[count + 16];
+			movingVehicles_ = new Vehicle[count + 16];
+			wiFiVehicles_ = new Vehicle[count + 16];
+		}
+		int scheduled = 0, moving = 0, wiFi = 0;
+		Vehicle vehicle;
+		for(int i = 0; i < count; ++i){
+			vehicle = vehicles[i];
+			if(vehicle.isActive()){
+				scheduledVehicles_[scheduled++] = vehicle;
+				movingVehicles_[moving++] = vehicle;
+				if(vehicle.isWiFiEnabled()) wiFiVehicles_[wiFi++] = vehicle;
+			} else {
+				if(vehicle.getCurWaitTime() != Integer.MIN_VALUE) scheduledVehicles_[scheduled++] = vehicle;
+				if(vehicle.getMayBeRecycled()) movingVehicles_[moving++] = vehicle;
+			}
+		}
+		// don't prevent garbage collection
+		for(int i = scheduled; i < scheduledVehiclesCount_; ++i) scheduledVehicles_[i] = null;
+		for(int i = moving; i < movingVehiclesCount_; ++i) movingVehicles_[i] = null;
+		for(int i = wiFi; i < wiFiVehiclesCount_; ++i) wiFiVehicles_[i] = null;
+		scheduledVehiclesCount_ = scheduled;
+		movingVehiclesCount_ = moving;
+		wiFiVehiclesCount_ = wiFi;
+	}
+	
+	/**
+	 * !!!Collects the WiFi vehicles whose beacon countdown has run out. Note that this function is not synchronized! It needs to 
+	 * be called by the worker thread of this region in every step after the speed of the vehicles has been adjusted and the 
+	 * vehicle sets have been updated.
+	 */
+	public void collectBeaconVehicles(){
+		if(beaconVehicles_.length < wiFiVehiclesCount_) beaconVehicles_ = new Vehicle[wiFiVehiclesCount_ + 16];
+		int count = 0;
+		for(int i = 0; i < wiFiVehiclesCount_; ++i){
+			if(wiFiVehicles_[i].getBeaconCountdown() < 1) beaconVehicles_[count++] = wiFiVehicles_[i];
+		}
+		for(int i = count; i < beaconVehiclesCount_; ++i) beaconVehicles_[i] = null;	// don't prevent garbage collection
+		beaconVehiclesCount_ = count;
+	}
+	
+	/**
+	 * !!!Gets the array in which the vehicles of this region are stored. Note that this function is not synchronized and that 
+	 * the array is not copied! It may only be used by the worker thread of this region during a step as vehicles change their 
+	 * region between two steps. All other readers need to use {@link #getVehicleArray()}. There might be garbage after the 
+	 * last vehicle!
+	 * 
+	 * @return the vehicles
+	 * 
+	 * @see #getVehiclesCount()
+	 */
+	public Vehicle[] getVehicles(){
+		return vehicles_;
+	}
+	
+	/**
+	 * Gets the amount of vehicles in {@link #getVehicles()}.
+	 * 
+	 * @return the amount
+	 */
+	public int getVehiclesCount(){
+		return vehiclesCount_;
+	}
+	
+	/**
+	 * Gets the vehicles which are active or wait at a waypoint. Note that there might be garbage after the last vehicle!
+	 * 
+	 * @return the scheduled vehicles
+	 * 
+	 * @see #getScheduledVehiclesCount()
+	 */
+	public Vehicle[] getScheduledVehicles(){
+		return scheduledVehicles_;
+	}
+	
+	/**
+	 * Gets the amount of vehicles in {@link #getScheduledVehicles()}.
+	 * 
+	 * @return the amount
+	 */
+	public int getScheduledVehiclesCount(){
+		return scheduledVehiclesCount_;
+	}
+	
+	/**
+	 * Gets the vehicles which are active or may be recycled. Note that there might be garbage after the last vehicle!
+	 * 
+	 * @return the moving vehicles
+	 * 
+	 * @see #getMovingVehiclesCount()
+	 */
+	public Vehicle[] getMovingVehicles(){
+		return movingVehicles_;
+	}
+	
+	/**
+	 * Gets the amount of vehicles in {@link #getMovingVehicles()}.
+	 * 
+	 * @return the amount
+	 */
+	public int getMovingVehiclesCount(){
+		return movingVehiclesCount_;
+	}
+	
+	/**
+	 * Gets the active vehicles with WiFi enabled. Note that there might be garbage after the last vehicle!
+	 * 
+	 * @return the WiFi vehicles
+	 * 
+	 * @see #getWiFiVehiclesCount()
+	 */
+	public Vehicle[] getWiFiVehicles(){
+		return wiFiVehicles_;
+	}
+	
+	/**
+	 * Gets the amount of vehicles in {@link #getWiFiVehicles()}.
+	 * 
+	 * @return the amount
+	 */
+	public int getWiFiVehiclesCount(){
+		return wiFiVehiclesCount_;
+	}
+	
+	/**
+	 * Gets the WiFi vehicles which need to send a beacon in the current step. Note that there might be garbage after the 
+	 * last vehicle!
+	 * 
+	 * @return the vehicles
+	 * 
+	 * @see #getBeaconVehiclesCount()
+	 */
+	public Vehicle[] getBeaconVehicles(){
+		return beaconVehicles_;
+	}
+	
+	/**
+	 * Gets the amount of vehicles in {@link #getBeaconVehicles()}.
+	 * 
+	 * @return the amount
+	 */
+	public int getBeaconVehiclesCount(){
+		return beaconVehiclesCount_;
+	}
+	
+	/**
+	 * Gets the cell in x direction in which a coordinate is. Coordinates outside of this region are mapped to the 
+	 * nearest cell.
+	 * 
+	 * @param x	the x coordinate
+	 * 
+	 * @return the cell in x direction
+	 */
+	public int getCellX(int x){
+		if(x <= leftBoundary_) return 0;
+		int cell = (x - leftBoundary_) / CELL_SIZE;
+		if(cell >= cellCountX_) return cellCountX_ - 1;
+		else return cell;
+	}
+	
+	/**
+	 * Gets the cell in y direction in which a coordinate is. Coordinates outside of this region are mapped to the 
+	 * nearest cell.
+	 * 
+	 * @param y	the y coordinate
+	 * 
+	 * @return the cell in y direction
+	 */
+	public int getCellY(int y){
+		if(y <= upperBoundary_) return 0;
+		int cell = (y - upperBoundary_) / CELL_SIZE;
+		if(cell >= cellCountY_) return cellCountY_ - 1;
+		else return cell;
+	}
+	
+	/**
+	 * Gets the amount of cells in y direction.
+	 * 
+	 * @return the amount of cells
+	 */
+	public int getCellCountY(){
+		return cellCountY_;
+	}
+	
+	/**
+	 * Gets the active vehicles with WiFi enabled sorted by cells. The vehicles of cell <code>c</code> (numbered as <code>x * getCellCountY() + y</code>) 
+	 * are found from <code>getCellVehicleStart()[c]</code> to <code>getCellVehicleStart()[c+1]-1</code>. Note that there might 
+	 * be garbage after the last vehicle!
+	 * 
+	 * @return the vehicles sorted by cells
+	 */
+	public Vehicle[] getCellVehicles(){
+		return cellVehicles_;
+	}
+	
+	/**
+	 * Gets the x coordinates of the vehicles in {@link #getCellVehicles()} at the time they were sorted into the cells.
+	 * 
+	 * @return the x coordinates
+	 */
+	public int[] getCellVehicleX(){
+		return cellVehicleX_;
+	}
+	
+	/**
+	 * Gets the y coordinates of the vehicles in {@link #getCellVehicles()} at the time they were sorted into the cells.
+	 * 
+	 * @return the y coordinates
+	 */
+	public int[] getCellVehicleY(){
+		return cellVehicleY_;
+	}
+	
+	/**
+	 * Gets the start positions of the cells in {@link #getCellVehicles()}.
+	 * 
+	 * @return the start positions
+	 */
+	public int[] getCellVehicleStart(){
+		return cellVehicleStart_;
+	}
+	
+	/**
+	 * Gets the Road-Side-Units sorted by cells. The RSUs of cell <code>c</code> (numbered as <code>x * getCellCountY() + y</code>) 
+	 * are found from <code>getCellRSUStart()[c]</code> to <code>getCellRSUStart()[c+1]-1</code>.
+	 * 
+	 * @return the Road-Side-Units sorted by cells
+	 */
+	public RSU[] getCellRSUs(){
+		return cellRSUs_;
+	}
+	
+	/**
+	 * Gets the start positions of the cells in {@link #getCellRSUs()}.
+	 * 
+	 * @return the start positions
+	 */
+	public int[] getCellRSUStart(){
+		return cellRSUStart_;
 	}
 
 	/**
@@ -276,27 +691,40 @@ public final class Region{
 	 */
 	public synchronized void addVehicle(Vehicle vehicle, boolean doCheck){
 		if(doCheck){
-			if(!vehicles_.contains(vehicle)){
-				vehicles_.add(vehicle);
-				if(thread_ != null) thread_.addChangedRegion(numberInThread_);
-				vehiclesDirty_ = true;
-			}
-		} else {
-			vehicles_.add(vehicle);
-			if(thread_ != null) thread_.addChangedRegion(numberInThread_);
-			vehiclesDirty_ = true;
+			int index = vehicle.getRegionIndex();
+			if(index > -1 && index < vehiclesCount_ && vehicles_[index] == vehicle) return;
+		}
+		if(vehiclesCount_ == vehicles_.length){
+			Vehicle[] newArray = new Vehicle[vehicles_.length * 2];
+			System.arraycopy (vehicles_,0,newArray,0,vehiclesCount_);
+			vehicles_ = newArray;
+			kinematics_.ensureCapacity(vehicles_.length);
 		}
+		vehicles_[vehiclesCount_] = vehicle;
+		vehicle.setRegionIndex(vehiclesCount_);
+		kinematics_.attach(vehicle, vehiclesCount_);
+		++vehiclesCount_;
+		vehiclesDirty_ = true;
+		vehicleStatesDirty_ = true;
 	}
 
 	/**
-	 * Function to delete a vehicle from this region.
+	 * Function to delete a vehicle from this region. The last vehicle is moved into the place of the deleted one.
 	 * 
 	 * @param vehicle the vehicle to remove
 	 */
 	public synchronized void delVehicle(Vehicle vehicle){
-		vehicles_.remove(vehicle);
-		if(thread_ != null) thread_.addChangedRegion(numberInThread_);
+		int index = vehicle.getRegionIndex();
+		if(index < 0 || index >= vehiclesCount_ || vehicles_[index] != vehicle) return;	// not in this region
+		kinematics_.detach(vehicle);
+		--vehiclesCount_;
+		vehicles_[index] = vehicles_[vehiclesCount_];
+		vehicles_[index].setRegionIndex(index);
+		if(index != vehiclesCount_) kinematics_.attach(vehicles_[index], index);
+		vehicles_[vehiclesCount_] = null;
+		vehicle.setRegionIndex(-1);
 		vehiclesDirty_ = true;
+		vehicleStatesDirty_ = true;
 	}
 
 	/**
@@ -322,13 +750,13 @@ public final class Region{
 	 * and what their priority streets are. Furthermore, mixing zones are generated.
 	 */
 	public void calculateJunctions(){
-		if(Renderer.getInstance().isAutoAddMixZones()) mixZoneNodes_ = new Node[0];
+		if(SimulationEngine.getInstance().isAutoAddMixZones()) mixZoneNodes_ = new Node[0];
 		
 		for(int i = 0; i < nodes_.length; ++i){
 			nodes_[i].calculateJunction();		
 			
 			//Mix zones are only added if autoAddMixZones is activated
-			if(Renderer.getInstance().isAutoAddMixZones()){
+			if(SimulationEngine.getInstance().isAutoAddMixZones()){
 				if(nodes_[i].getJunction() != null){
 					Node[] newArray = new Node[mixZoneNodes_.length+1];
 					System.arraycopy (mixZoneNodes_,0,newArray,0,mixZoneNodes_.length);
@@ -344,10 +772,20 @@ public final class Region{
 			}
 			if(nodes_[i].getJunction() != null && nodes_[i].getJunction().getNode().getTrafficLight_() == null && nodes_[i].isHasTrafficSignal_()) new TrafficLight(nodes_[i].getJunction());
 		}
+		if(SimulationEngine.getInstance().isAutoAddMixZones()) Map.getInstance().mixZonesChanged();
 		
 		prepareLogs(nodes_);
 	}
 	
+	/**
+	 * Calculates the junctions when the simulation is started (the user might have edited the map after loading). If the 
+	 * state of the junctions has just been restored from a checkpoint, they are kept.
+	 */
+	public void calculateJunctionsOnStart(){
+		if(junctionsRestored_) junctionsRestored_ = false;
+		else calculateJunctions();
+	}
+	
 	/**
 	 * adds mix zone at the location of "node" if no mix zone on this location already exists
 	 */
@@ -371,6 +809,7 @@ public final class Region{
 				Map.getInstance().addRSU(tmpRSU);
 				node.setEncryptedRSU_(tmpRSU);
 			}
+			Map.getInstance().mixZonesChanged();
 		}
 	}
 	
@@ -389,6 +828,7 @@ public final class Region{
 					System.arraycopy (mixZoneNodes_,i+1,newArray,i,mixZoneNodes_.length-i-1);
 				} else System.arraycopy (mixZoneNodes_,1,newArray,0,mixZoneNodes_.length-1);
 				mixZoneNodes_ = newArray;
+				Map.getInstance().mixZonesChanged();
 			}			
 		}
 		Map.getInstance().delRSU(node.getX(), node.getY());
@@ -879,17 +1319,126 @@ public final class Region{
 	 */
 	public void clearRSUs(){
 		rsus_ = new RSU[0];
+		sortRSUsIntoCells();
 	}
 
 	/**
 	 * This function should be called before initializing a new scenario to delete all vehicles.
 	 */
-	public void cleanVehicles(){
-		vehicles_ = new ArrayList<Vehicle>(1);
+	public synchronized void cleanVehicles(){
+		vehicles_ = new Vehicle[4];
+		vehiclesCount_ = 0;
+		kinematics_ = new KinematicStore(4);
 		for(int i = 0; i < streets_.length; ++i){
 			streets_[i].clearLanes();
 		}
 		vehiclesDirty_ = true;
+		vehicleStatesDirty_ = true;
+		sortVehiclesIntoCells(EMPTY_VEHICLE, 0);
+	}
+	
+	/**
+	 * Adds a traffic light to this region. Called when a traffic light is set on a node of this region.
+	 * 
+	 * @param trafficLight	the traffic light
+	 */
+	public synchronized void addTrafficLight(TrafficLight trafficLight){
+		TrafficLight[] newArray = new TrafficLight[trafficLights_.length + 1];
+		System.arraycopy (trafficLights_,0,newArray,0,trafficLights_.length);
+		newArray[trafficLights_.length] = trafficLight;
+		trafficLights_ = newArray;
+		trafficLightsChanged_ = true;
+	}
+	
+	/**
+	 * Removes a traffic light from this region. Called when a traffic light is removed from a node of this region.
+	 * 
+	 * @param trafficLight	the traffic light
+	 */
+	public synchronized void delTrafficLight(TrafficLight trafficLight){
+		for(int i = 0; i < trafficLights_.length; ++i){
+			if(trafficLights_[i] == trafficLight){
+				TrafficLight[] newArray = new TrafficLight[trafficLights_.length - 1];
+				System.arraycopy (trafficLights_,0,newArray,0,i);
+				System.arraycopy (trafficLights_,i+1,newArray,i,trafficLights_.length-i-1);
+				trafficLights_ = newArray;
+				trafficLightsChanged_ = true;
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Gets all traffic lights in this region.
+	 * 
+	 * @return the traffic lights
+	 */
+	public TrafficLight[] getTrafficLights(){
+		return trafficLights_;
+	}
+	
+	/**
+	 * !!!Changes the phases of all traffic lights of this region whose current phase is over. Only the traffic lights at the head 
+	 * of the queue are checked. Note that this function is not synchronized! It needs to be called by the worker thread of this 
+	 * region once in every step.
+	 * 
+	 * @param timePerStep	the time in milliseconds for one step
+	 */
+	public void changeTrafficLightPhases(int timePerStep){
+		PriorityQueue<TrafficLight> queue = trafficLightQueue_;
+		if(queue == null || trafficLightsChanged_){
+			trafficLightsChanged_ = false;
+			TrafficLight[] trafficLights = trafficLights_;
+			queue = new PriorityQueue<TrafficLight>(trafficLights.length + 1, TrafficLight.NEXT_CHANGE_COMPARATOR);
+			for(int i = 0; i < trafficLights.length; ++i){
+				if(trafficLights[i].getNextChangeStep() < 0) trafficLights[i].scheduleNextChange(trafficLightStep_, timePerStep);	// new traffic lights start with the next step
+				queue.add(trafficLights[i]);
+			}
+			trafficLightQueue_ = queue;
+		}
+		long step = ++trafficLightStep_;
+		TrafficLight trafficLight;
+		while((trafficLight = queue.peek()) != null && trafficLight.getNextChangeStep() <= step){
+			queue.poll();
+			trafficLight.changePhases();
+			trafficLight.scheduleNextChange(step, timePerStep);
+			queue.add(trafficLight);
+		}
+	}
+	
+	/**
+	 * Writes the vehicles of this region and the amount of processed traffic light steps to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeVehicleArray(getVehicleArray());
+		out.writeLong(trafficLightStep_);
+	}
+	
+	/**
+	 * Replaces the vehicles of this region and the amount of processed traffic light steps with the ones from a checkpoint. 
+	 * As the lanes of the streets are cleared, they need to be read afterwards. The junctions of this region are kept when 
+	 * the simulation is started the next time.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		Vehicle[] vehicles = in.readVehicleArray();
+		if(vehicles == null) throw new IOException("Missing vehicles"); //$NON-NLS-1$
+		cleanVehicles();
+		for(int i = 0; i < vehicles.length; ++i){
+			if(vehicles[i] == null) throw new IOException("Invalid vehicle"); //$NON-NLS-1$
+			addVehicle(vehicles[i], false);
+		}
+		markVehicleStatesDirty();
+		trafficLightStep_ = in.readLong();
+		trafficLightsChanged_ = true;
+		junctionsRestored_ = true;
 	}
 	
 	/**
@@ -940,27 +1489,30 @@ public final class Region{
 	}
 
 	/**
-	 * Used to return the <code>ArrayList</code> of all vehicles. Note that it can not guaranteed, that no
-	 * changes are made after you received this.
+	 * Returns a new <code>ArrayList</code> with all vehicles of this region.
 	 * 
 	 * @return the <code>ArrayList</code> containing all vehicles
 	 */
 	public ArrayList<Vehicle> getVehicleArrayList(){
-		return vehicles_;
+		return new ArrayList<Vehicle>(Arrays.asList(getVehicleArray()));
 	}
 
 
 	/**
-	 * Creates an array as a copy of the vehicle <code>ArrayList</code> to prevent problems during simulation caused by
-	 * changing the <code>ArrayList</code> while reading it in another thread. The array is cached so that new ones are only
-	 * created when needed.
+	 * Creates an array as a copy of the vehicle array to prevent problems caused by changing the vehicle array while reading 
+	 * it in another thread. Used by the GUI and the other readers outside of the simulation step; the worker threads use 
+	 * {@link #getVehicles()} instead. The array is cached so that new ones are only created when needed.
 	 * 
 	 * @return the array copy of all vehicles in this region or an empty array if there are no elements
 	 */
-	public Vehicle[] getVehicleArray(){
+	public synchronized Vehicle[] getVehicleArray(){
 		if(vehiclesDirty_){
-			if(vehicles_.size() == 0) vehiclesArray_ = EMPTY_VEHICLE;
-			else vehiclesArray_ = vehicles_.toArray(EMPTY_VEHICLE);
+			if(vehiclesCount_ == 0) vehiclesArray_ = EMPTY_VEHICLE;
+			else {
+				Vehicle[] vehicles = new Vehicle[vehiclesCount_];
+				System.arraycopy (vehicles_,0,vehicles,0,vehiclesCount_);
+				vehiclesArray_ = vehicles;
+			}
 			vehiclesDirty_ = false;
 		}
 		return vehiclesArray_;
@@ -969,12 +1521,20 @@ public final class Region{
 	/**
 	 * Creates a backlink to the worker thread which computes this region.
 	 * 
-	 * @param thread			the thread
-	 * @param numberinThread	the number in the thread
+	 * @param thread	the thread
 	 */
-	public void createBacklink(WorkerThread thread, int numberinThread){
+	public void createBacklink(WorkerThread thread){
 		thread_ = thread;
-		numberInThread_ = numberinThread;
+	}
+	
+	/**
+	 * Gets the index of the worker thread which computes this region.
+	 * 
+	 * @return the index of the worker or <code>-1</code> if no worker is associated with this region
+	 */
+	public int getWorkerIndex(){
+		if(thread_ == null) return -1;
+		else return thread_.getWorkerIndex();
 	}
 	
 	/**
@@ -19,10 +19,13 @@ package vanetsim.map;
 
 import java.awt.Color;
 import java.awt.geom.Point2D;
+import java.io.IOException;
 import java.util.ArrayList;
 
 import vanetsim.scenario.LaneContainer;
 import vanetsim.scenario.LaneObject;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
 
 
 /**
@@ -30,6 +33,12 @@ import vanetsim.scenario.LaneObject;
  */
 public final class Street {
 	
+	/** A common counter to generate unique IDs */
+	private static int counter_ = 0;
+	
+	/** A unique ID for this street */
+	private final int streetID_;
+	
 	/** The length in cm. Though this is a redundant information, it is cached here in order to improve performance! */
 	private final double length_;
 	
@@ -124,6 +133,8 @@ public final class Street {
 		laneCount_ = lanes;
 		mainRegion_ = mainRegion;
 		maxSpeed_ = maxSpeed;
+		streetID_ = counter_;
+		++counter_;
 		if (oneway == 0){
 			startNode_ = startNode;
 			endNode_ = endNode;
@@ -330,6 +341,34 @@ public final class Street {
 		endToStartLane_.clear();
 	}
 	
+	/**
+	 * Writes the objects on the lanes and the states of the traffic lights to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		startToEndLane_.writeCheckpoint(out);
+		endToStartLane_.writeCheckpoint(out);
+		out.writeInt(startNodeTrafficLightState_);
+		out.writeInt(endNodeTrafficLightState_);
+	}
+	
+	/**
+	 * Replaces the objects on the lanes and the states of the traffic lights with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		startToEndLane_.readCheckpoint(in);
+		endToStartLane_.readCheckpoint(in);
+		startNodeTrafficLightState_ = in.readInt();
+		endNodeTrafficLightState_ = in.readInt();
+	}
+	
 	/**
 	 * Adds a line for painting a bridge.
 	 * 
@@ -427,6 +466,40 @@ public final class Street {
 		displayColor_ = displayColor;
 	}
 	
+	/**
+	 * Returns the unique ID of this street.
+	 * 
+	 * @return an integer
+	 */
+	public int getStreetID(){
+		return streetID_;
+	}
+	
+	/**
+	 * Resets the street ID counter so that newly created streets begin with an ID of 0.
+	 */
+	public static void resetStreetID(){
+		counter_ = 0;
+	}
+	
+	/**
+	 * The ID the next street will get.
+	 * 
+	 * @return the ID
+	 */
+	public static int getMaxStreetID(){
+		return counter_;
+	}
+	
+	/**
+	 * Sets the ID the next street will get (used when restoring a checkpoint).
+	 * 
+	 * @param maxStreetID	the ID
+	 */
+	public static void setMaxStreetID(int maxStreetID){
+		counter_ = maxStreetID;
+	}
+	
 	/**
 	 * Gets the region to which this street is primarily assigned to.
 	 * 
@@ -17,6 +17,12 @@
  */
 package vanetsim.map;
 
+import java.io.IOException;
+import java.util.Comparator;
+
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+
 
 
 
@@ -24,7 +30,7 @@ package vanetsim.map;
 /**
  * This class represents a traffic light at a junction.
  */
-public class TrafficLight {
+public class TrafficLight{
 	
 	/** Default time intervals for state switching. */
 	private static final double[] DEFAULT_SWITCH_INTERVALS = new double[] {5000, 1000, 5000};
@@ -32,6 +38,15 @@ public class TrafficLight {
 	/** A static time to free a junction after a change of phases in ms. */
 	private static final double JUNCTION_FREE_TIME = 2000;
 	
+	/** A comparator ordering traffic lights by the step of their next phase change. */
+	public static final Comparator<TrafficLight> NEXT_CHANGE_COMPARATOR = new Comparator<TrafficLight>(){
+		public int compare(TrafficLight a, TrafficLight b){
+			if(a.nextChangeStep_ < b.nextChangeStep_) return -1;
+			else if(a.nextChangeStep_ > b.nextChangeStep_) return 1;
+			else return 0;
+		}
+	};
+	
 	/** Duration of the red phase in ms for the priority street. */
 	private double redPhaseLength_;
 	
@@ -51,9 +66,13 @@ public class TrafficLight {
 	/** Stores if a street is a priority street or not; used to distinguish between times. */
 	private boolean[] streetIsPriority_;
 		
-	/** Timer for this traffic light; because all traffic lights on a junction run synchronously just one timer is needed. */
+	/** Timer for this traffic light; because all traffic lights on a junction run synchronously just one timer is needed. Holds the 
+	 * length of the current phase. */
 	private double timer_;
 	
+	/** The step of the region in which the next phase change happens or <code>-1</code> if the traffic light hasn't been scheduled yet. */
+	private long nextChangeStep_ = -1;
+	
 	/** The <code>Junction</code> this traffic light. */
 	private Junction junction_;
 
@@ -165,40 +184,56 @@ public class TrafficLight {
 	}
 	
 	/**
-	 * This function should change the states of the traffic lights if necessary. Should be called after the first greenphase
+	 * Schedules the next phase change. The phase change happens in the first step in which less than one step of the current 
+	 * phase is left.
+	 * 
+	 * @param step			the step of the region in which the current phase started (the phase is counted from the following step on)
+	 * @param timePerStep	the time in milliseconds for one step
 	 */
-	public void changePhases(int timePerStep){
-		//if remaining time is smaller than the timerPerStep we have to change the states
-		if(timer_ < timePerStep){
-			state = (state +1) % 4;		
-
-			//could be less code, but this way I get a better performanz
-			//(non)priorties where green: Change to orange
-			if(state == 1) timer_ = yellowPhaseLength_;
-			//(non)priorties where green-orange: Change to red for a freephase
-			else if(state == 2)timer_ = JUNCTION_FREE_TIME;
-			//priorties where free: Change to red
-			else if(state == 0 && switcher)timer_ = greenPhaseLength_;
-			//non-priorties where free: Change to red
-			else if(state == 0 && !switcher)timer_ = redPhaseLength_;
-			//yellow
-			else if(state == 3)timer_ = yellowPhaseLength_;	
-			
-			
-			switcher = !switcher;
-			//update all street + 1
+	public void scheduleNextChange(long step, int timePerStep){
+		nextChangeStep_ = step + (long)(timer_ / timePerStep) + 1;
+	}
+	
+	/**
+	 * Gets the step of the region in which the next phase change happens.
+	 * 
+	 * @return the step or <code>-1</code> if the traffic light hasn't been scheduled yet
+	 */
+	public long getNextChangeStep(){
+		return nextChangeStep_;
+	}
+	
+	/**
+	 * Changes the states of the traffic lights to the next phase. Should only be called when the current phase is over 
+	 * (see {@link #getNextChangeStep()}).
+	 */
+	public void changePhases(){
+		state = (state +1) % 4;		
+
+		//could be less code, but this way I get a better performanz
+		//(non)priorties where green: Change to orange
+		if(state == 1) timer_ = yellowPhaseLength_;
+		//(non)priorties where green-orange: Change to red for a freephase
+		else if(state == 2)timer_ = JUNCTION_FREE_TIME;
+		//priorties where free: Change to red
+		else if(state == 0 && switcher)timer_ = greenPhaseLength_;
+		//non-priorties where free: Change to red
+		else if(state == 0 && !switcher)timer_ = redPhaseLength_;
+		//yellow
+		else if(state == 3)timer_ = yellowPhaseLength_;	
+		
+		
+		switcher = !switcher;
+		//update all street + 1
 
-			for(int i = 0; i < streets_.length; i++){
-				if(streets_[i].getStartNode() == junction_.getNode() && streets_[i].getStartNodeTrafficLightState() != -1){
-					streets_[i].updateStartNodeTrafficLightState();
-				}
-				else if(streets_[i].getEndNode() == junction_.getNode() && streets_[i].getEndNodeTrafficLightState() != -1){
-					streets_[i].updateEndNodeTrafficLightState();
-				}
+		for(int i = 0; i < streets_.length; i++){
+			if(streets_[i].getStartNode() == junction_.getNode() && streets_[i].getStartNodeTrafficLightState() != -1){
+				streets_[i].updateStartNodeTrafficLightState();
+			}
+			else if(streets_[i].getEndNode() == junction_.getNode() && streets_[i].getEndNodeTrafficLightState() != -1){
+				streets_[i].updateEndNodeTrafficLightState();
 			}
 		}
-		//else change timer
-		else timer_ = timer_ - timePerStep;
 	}
 	
 	/* Calculates Traffic light position */
@@ -336,6 +371,34 @@ public class TrafficLight {
 	public void setStreets_(Street[] streets_) {
 		this.streets_ = streets_;
 	}
+	
+	/**
+	 * Writes the current phase of this traffic light to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeInt(state);
+		out.writeDouble(timer_);
+		out.writeLong(nextChangeStep_);
+		out.writeBoolean(switcher);
+	}
+	
+	/**
+	 * Replaces the current phase of this traffic light with the one from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	void readCheckpoint(CheckpointInput in) throws IOException{
+		state = in.readInt();
+		timer_ = in.readDouble();
+		nextChangeStep_ = in.readLong();
+		switcher = in.readBoolean();
+	}
 
 
 
@@ -22,6 +22,7 @@ import java.util.ArrayDeque;
 import vanetsim.map.Node;
 import vanetsim.map.Street;
 import vanetsim.routing.RoutingAlgorithm;
+import vanetsim.scenario.KnownPenalties;
 
 /**
  * An implementation of the A*-algorithm. A* uses an heuristic to limit the distance calculations
@@ -60,16 +61,12 @@ public final class A_Star_Algorithm implements RoutingAlgorithm{
 	 * @param targetY			the y coordinate of the target point
 	 * @param targetStreet		the street on which the target point lies
 	 * @param targetStreetPos	the position measured in cm from the startNode of the <code>targetStreet</code>
-	 * @param penaltyStreets	an array with all streets which have penalties.
-	 * @param penaltyDirections	an array with directions corresponding to penaltyStreets. <code>1</code> in the array means from endNode to startNode, 
-	 * 							<code>0</code> means both directions and <code>-1</code> means from startNode to endNode
-	 * @param penalties			an array with all penalties measured in cm.
-	 * @param penaltySize		how many penalties exist.
+	 * @param knownPenalties	the known penalties which shall be considered (may be <code>null</code>).
 	 * @param additionalVar 	can be used to set the maximum speed for calculations in <code>mode=1</code>
 	 * 
 	 * @return an A_Star_Node which allows reconstructing the optimal path by going through the predecessors!
 	 */
-	private A_Star_Node computeRoute(int mode, int direction, Street startStreet, double startStreetPos, int targetX, int targetY, Street targetStreet, double targetStreetPos, Street[] penaltyStreets, int[] penaltyDirections, int[] penalties, int penaltySize, int additionalVar){
+	private A_Star_Node computeRoute(int mode, int direction, Street startStreet, double startStreetPos, int targetX, int targetY, Street targetStreet, double targetStreetPos, KnownPenalties knownPenalties, int additionalVar){
 		int distanceAdd;
 		long dx, dy;
 		double f, g, distance;
@@ -81,6 +78,11 @@ public final class A_Star_Algorithm implements RoutingAlgorithm{
 		Street[] outgoingStreets;
 		Street tmpStreet;
 		A_Star_Queue openList = new A_Star_Queue();
+		int[] penaltyDirections = null, penalties = null;
+		if(knownPenalties != null && knownPenalties.getSize() > 0){		// penalties can directly be read from the arrays as they are only changed by the thread of the vehicle
+			penaltyDirections = knownPenalties.getDirections();
+			penalties = knownPenalties.getPenalties();
+		}
 		
 		// get LookupTable from factory. The LookupTable is needed for a mapping between our normal map nodes and the nodes for routing
 		int[] tmp = new int[1];
@@ -192,16 +194,16 @@ public final class A_Star_Algorithm implements RoutingAlgorithm{
 					if (successor.isInClosedList() == false){
 						// find penalties
 						distanceAdd = 0;
-						if(penaltySize > 0){
+						if(penaltyDirections != null){
 							if(tmpStreet.getStartNode() == currentNode.getRealNode()){
-								for(j = 0; j < penaltySize; ++j){
-									if(penaltyStreets[j] == tmpStreet && penaltyDirections[j] < 1){
+								for(j = knownPenalties.getFirstPenaltyIndex(tmpStreet); j > -1; j = knownPenalties.getNextPenaltyIndex(j)){
+									if(penaltyDirections[j] < 1){
 										if(distanceAdd < penalties[j]) distanceAdd = penalties[j];
 									}
 								}
 							} else {
-								for(j = 0; j < penaltySize; ++j){
-									if(penaltyStreets[j] == tmpStreet && penaltyDirections[j] > -1){
+								for(j = knownPenalties.getFirstPenaltyIndex(tmpStreet); j > -1; j = knownPenalties.getNextPenaltyIndex(j)){
+									if(penaltyDirections[j] > -1){
 										if(distanceAdd < penalties[j]) distanceAdd = penalties[j];
 									}
 								}
@@ -286,20 +288,16 @@ public final class A_Star_Algorithm implements RoutingAlgorithm{
 	 * @param targetY			the y coordinate of the target point
 	 * @param targetStreet		the street on which the target point lies
 	 * @param targetStreetPos	the position measured in cm from the startNode of the <code>targetStreet</code>
-	 * @param penaltyStreets	an array with all streets which have penalties.
-	 * @param penaltyDirections	an array with directions corresponding to penaltyStreets. <code>1</code> in the array means from endNode to startNode, 
-	 * 							<code>0</code> means both directions and <code>-1</code> means from startNode to endNode
-	 * @param penalties			an array with all penalties measured in cm.
-	 * @param penaltySize		how many penalties exist.
+	 * @param knownPenalties	the known penalties which shall be considered (may be <code>null</code>).
 	 * @param additionalVar		can be used to set the maximum speed for calculations in <code>mode=1</code>
 	 *
 	 * 
 	 * @return An <code>ArrayDeque</code> for returning the result. The first element will be the start node and the last will be the end node of the routing.
 	 * 
-	 * @see	vanetsim.routing.RoutingAlgorithm#getRouting(int, int, int, int, Street, double, int, int, Street, double, Street[], int[], int[], int, int)
+	 * @see	vanetsim.routing.RoutingAlgorithm#getRouting(int, int, int, int, Street, double, int, int, Street, double, KnownPenalties, int)
 	 */
-	public ArrayDeque<Node> getRouting(int mode, int direction, int startX, int startY, Street startStreet, double startStreetPos, int targetX, int targetY, Street targetStreet, double targetStreetPos, Street[] penaltyStreets, int[] penaltyDirections, int[] penalties, int penaltySize, int additionalVar){
-		A_Star_Node curNode = computeRoute(mode, direction, startStreet, startStreetPos, targetX, targetY, targetStreet, targetStreetPos, penaltyStreets, penaltyDirections, penalties, penaltySize, additionalVar);
+	public ArrayDeque<Node> getRouting(int mode, int direction, int startX, int startY, Street startStreet, double startStreetPos, int targetX, int targetY, Street targetStreet, double targetStreetPos, KnownPenalties knownPenalties, int additionalVar){
+		A_Star_Node curNode = computeRoute(mode, direction, startStreet, startStreetPos, targetX, targetY, targetStreet, targetStreetPos, knownPenalties, additionalVar);
 		ArrayDeque<Node> result = new ArrayDeque<Node>(255);
 		while(curNode != null){
 			result.addFirst(curNode.getRealNode());
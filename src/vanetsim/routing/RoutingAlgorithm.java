@@ -21,6 +21,7 @@ import java.util.ArrayDeque;
 
 import vanetsim.map.Node;
 import vanetsim.map.Street;
+import vanetsim.scenario.KnownPenalties;
 
 /**
  * An interface for routing algorithms.
@@ -40,14 +41,10 @@ public interface RoutingAlgorithm{
 	 * @param targetY			the y coordinate of the target point
 	 * @param targetStreet		the street on which the target point lies
 	 * @param targetStreetPos	the position measured in cm from the startNode of the <code>targetStreet</code>
-	 * @param penaltyStreets	an array with all streets which have penalties.
-	 * @param penaltyDirections	an array with directions corresponding to penaltyStreets. <code>1</code> in the array means from endNode to startNode, 
-	 * 							<code>0</code> means both directions and <code>-1</code> means from startNode to endNode
-	 * @param penalties			an array with all penalties measured in cm.
-	 * @param penaltySize		how many penalties exist.
+	 * @param knownPenalties	the known penalties which shall be considered (may be <code>null</code>).
 	 * @param additionalVar		an additional variable specific to the routing algorithm.
 	 *
 	 * @return An <code>ArrayDeque</code> for returning the result. The first element will be the start node and the last will be the end node of the routing.
 	 */
-	public abstract ArrayDeque<Node> getRouting(int mode, int direction, int startX, int startY, Street startStreet, double startStreetPos, int targetX, int targetY, Street targetStreet, double targetStreetPos, Street[] penaltyStreets, int[] penaltyDirections, int[] penalties, int penaltySize, int additionalVar);
+	public abstract ArrayDeque<Node> getRouting(int mode, int direction, int startX, int startY, Street startStreet, double startStreetPos, int targetX, int targetY, Street targetStreet, double targetStreetPos, KnownPenalties knownPenalties, int additionalVar);
 }
\ No newline at end of file
@@ -17,11 +17,14 @@
  */
 package vanetsim.routing;
 
+import java.io.IOException;
 import java.text.ParseException;
 
 import vanetsim.localization.Messages;
 import vanetsim.map.MapHelper;
 import vanetsim.map.Street;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
 
 /**
  * A waypoint used for routing.
@@ -67,6 +70,62 @@ public final class WayPoint{
 		} else throw new ParseException(Messages.getString("WayPoint.snappingFailed"),0); //$NON-NLS-1$
 	}
 	
+	/**
+	 * Instantiates a waypoint which has already been snapped to a street (used when restoring a checkpoint).
+	 * 
+	 * @param x					the x coordinate
+	 * @param y					the y coordinate
+	 * @param waitTime			the time to wait BEFORE movement to the next waypoint starts.
+	 * @param street			the street on which this waypoint is located
+	 * @param positionOnStreet	the position on the street measured from the startNode in cm
+	 */
+	private WayPoint(int x, int y, int waitTime, Street street, double positionOnStreet){
+		x_ = x;
+		y_ = y;
+		waitTime_ = waitTime;
+		street_ = street;
+		positionOnStreet_ = positionOnStreet;
+	}
+	
+	/**
+	 * Writes a waypoint to a checkpoint. Waypoints are shared between the destinations of a vehicle so they are only 
+	 * written once.
+	 * 
+	 * @param out		the stream to write to
+	 * @param wayPoint	the waypoint or <code>null</code>
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public static void writeCheckpoint(CheckpointOutput out, WayPoint wayPoint) throws IOException{
+		if(out.writeShared(wayPoint)){
+			out.writeInt(wayPoint.x_);
+			out.writeInt(wayPoint.y_);
+			out.writeInt(wayPoint.waitTime_);
+			out.writeStreet(wayPoint.street_);
+			out.writeDouble(wayPoint.positionOnStreet_);
+		}
+	}
+	
+	/**
+	 * Reads a waypoint written with {@link #writeCheckpoint(CheckpointOutput, WayPoint)}.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @return the waypoint or <code>null</code>
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public static WayPoint readCheckpoint(CheckpointInput in) throws IOException{
+		int index = in.readSharedIndex();
+		if(index == -1) return null;
+		WayPoint wayPoint = (WayPoint) in.getShared(index);
+		if(wayPoint == null){
+			wayPoint = new WayPoint(in.readInt(), in.readInt(), in.readInt(), in.readStreet(), in.readDouble());
+			in.setShared(index, wayPoint);
+		}
+		return wayPoint;
+	}
+	
 	/**
 	 * Gets the position on the street.
 	 * 
@@ -17,7 +17,7 @@
  */
 package vanetsim.scenario;
 
-import vanetsim.gui.Renderer;
+import vanetsim.simulation.SimulationEngine;
 
 
 /**
@@ -26,9 +26,6 @@ import vanetsim.gui.Renderer;
 
 public final class AttackRSU {
 	
-	/** A common counter to generate unique IDs */
-	private static int counter_ = 1;
-	
 	/** The x coordinate. */
 	private final int x_;
 	
@@ -53,8 +50,7 @@ public final class AttackRSU {
 		y_ = y;
 		wifiRadius_ = radius;
 		
-		arsuID_ = counter_;
-		++counter_;
+		arsuID_ = SimulationEngine.getInstance().getAttackRSUIDCounter().getAndIncrement();
 		
 		//add this Attack-RSU to the list with all ARSUS (an array is used for a better performance)
 		int arrayLength = Vehicle.getArsuList().length;
@@ -97,7 +93,7 @@ public final class AttackRSU {
 				tempArray[i]=Vehicle.getArsuList()[i];
 			}
 			Vehicle.setArsuList(tempArray);
-			Renderer.getInstance().ReRender(true, false);
+			SimulationEngine.getInstance().requestRender(true, false);
 			returnValue = true;
 			}
 		
@@ -161,4 +157,22 @@ public final class AttackRSU {
 	public long getArsuID_() {
 		return arsuID_;
 	}
+	
+	/**
+	 * Gets the ID the next Attack-Road-Side-Unit will get.
+	 * 
+	 * @return the ID
+	 */
+	public static int getIDCounter(){
+		return SimulationEngine.getInstance().getAttackRSUIDCounter().get();
+	}
+	
+	/**
+	 * Sets the ID the next Attack-Road-Side-Unit will get (used when restoring a checkpoint).
+	 * 
+	 * @param counter	the ID
+	 */
+	public static void setIDCounter(int counter){
+		SimulationEngine.getInstance().getAttackRSUIDCounter().set(counter);
+	}
 }
\ No newline at end of file
@@ -19,8 +19,14 @@ package vanetsim.scenario;
 
 
 
+import java.io.IOException;
+
 import vanetsim.gui.helpers.IDSLogWriter;
 import vanetsim.map.Street;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationConfig;
+import vanetsim.simulation.SimulationEngine;
 
 /**
  * A known vehicle (discovered by receiving a beacon). The variables represent what is known and might
@@ -54,8 +60,6 @@ public class IDSProcessor{
 	/** counter to fill the array */
 	private int arrayCounter = -1;
 	
-	private static String[] activeRules_;
-	
 	private Vehicle sourceVehicle_;
 	private long ID_;
 	private long monitoredVehicleID_;
@@ -81,17 +85,6 @@ public class IDSProcessor{
 	//private boolean createBlocking_;
 	private Vehicle penaltySourceVehicle_;
 	
-	private static int PCNDistance_ = 625;
-	private static double PCNFORWARDThreshold_ = 0.5;
-	private static double RHCNThreshold_ = 0.5;
-	private static double EEBLThreshold_ = 0.5;
-	private static double EVAFORWARDThreshold_ = 0.5;
-	private static double EVABeaconTimeFactor_ = 2;
-	private static double EVABeaconFactor_ = 3;
-
-	/** flag to activate the advanced IDS attack rules*/
-	private static boolean advancedIDSRules_ = false;
-	
 	private boolean ready_ = false;
 	
 	private boolean deleteProcessor_ = false;
@@ -106,13 +99,14 @@ public class IDSProcessor{
 	//private static String[] idsData_ = {"HUANG_EEBL", "HUANG_PCN", "HUANG_RHCN", "HUANG_RFN", "HUANG_SVA", "HUANG_CCW", "HUANG_CVW", "HUANG_CL", "HUANG_EVA"};
 	private static String[] idsData_ = {"HUANG_EEBL", "HUANG_PCN", "PCN_FORWARD", "HUANG_RHCN", "HUANG_EVA_FORWARD", "EVA_EMERGENCY_ID"};
 	
-	private static boolean logIDS_ = true;
-	
 	private int instantIDS_ = -1;
 	
 	/** the vehicle this structure belongs to */
 	private Vehicle vehicle_;
 	
+	/** A reference to the configuration of the simulation context this processor belongs to. */
+	private final SimulationConfig config_ = SimulationConfig.getInstance();
+	
 	/** the x coordinate of the receiver on message reception */
 	//private int oldX_;
 	
@@ -228,7 +222,8 @@ public class IDSProcessor{
 		if(lastLoggedBeacon == 0 && !rule_.equals("EVA_EMERGENCY_ID")) return "";
 		
 		boolean quit = true;
-		for(int j = 0; j < activeRules_.length;j++)if(activeRules_[j].equals(rule_)){
+		String[] activeRules = config_.getActiveRules();
+		for(int j = 0; j < activeRules.length;j++)if(activeRules[j].equals(rule_)){
 			quit = false;
 		}
 		if(quit) return "";
@@ -257,14 +252,14 @@ public class IDSProcessor{
 			
 			
 			distance = Math.sqrt(dx * dx + dy * dy);
-			if(advancedIDSRules_){
+			if(config_.isAdvancedIDSRules()){
 				//get the time standing in beacon amount
 				int beaconsWithZeroSpeed = 0;
 				//we do not need the last one
 				for(int i = 0; i < AMOUNT_OF_BEACONS_LOGGED-1; i++) if(speed_[i] == 0) beaconsWithZeroSpeed++;
 				int[] timeStanding = vehicle_.getKnownVehiclesList().hasBeenSeenWaitingFor(monitoredVehicleID_);
-				if((timeStanding[0] - beaconsWithZeroSpeed) < (timeStanding[1] - (AMOUNT_OF_BEACONS_LOGGED-1)) || (timeStanding[0] == 0 && PCNDistance_ < distance)){
-					if(loggingType_ > 0)writeLog("Type:HUANG_PCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + PCNDistance_ + ":Distance:" + distance + ":Attack:" + true + ":Correct:" + (isFake_==true)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
+				if((timeStanding[0] - beaconsWithZeroSpeed) < (timeStanding[1] - (AMOUNT_OF_BEACONS_LOGGED-1)) || (timeStanding[0] == 0 && config_.getPCNDistance() < distance)){
+					if(loggingType_ > 0)writeLog("Type:HUANG_PCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getPCNDistance() + ":Distance:" + distance + ":Attack:" + true + ":Correct:" + (isFake_==true)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
 			
 					if(isFake_) truePositiv[0]++;
 					else falsePositiv[0]++;
@@ -273,7 +268,7 @@ public class IDSProcessor{
 					return rule_;
 				}
 				else{
-					if(loggingType_ > 0)writeLog("Type:HUANG_PCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + PCNDistance_ + ":Distance:" + distance + ":Attack:" + false + ":Correct:" + (isFake_==false)  + timeStanding[0] + ":" + timeStanding[1]  + ":" + beaconsWithZeroSpeed);
+					if(loggingType_ > 0)writeLog("Type:HUANG_PCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getPCNDistance() + ":Distance:" + distance + ":Attack:" + false + ":Correct:" + (isFake_==false)  + timeStanding[0] + ":" + timeStanding[1]  + ":" + beaconsWithZeroSpeed);
 					
 					if(!isFake_) trueNegativ[0]++;
 					else  falseNegativ[0]++;
@@ -308,7 +303,7 @@ public class IDSProcessor{
 						long tmp1 = street_.getStartNode().getX() - x_[0];
 						long tmp2 = street_.getStartNode().getY() - y_[0];
 						for(int i = 1; i <= street_.getLanesCount(); ++i){
-							//if(createBlocking_)sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (Renderer.getInstance().getTimePassed() + 10000)));
+							//if(createBlocking_)sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (SimulationEngine.getInstance().getTimePassed() + 10000)));
 						}	
 					}
 					*/
@@ -321,10 +316,10 @@ public class IDSProcessor{
 			else{
 				
 
-				if((PCNDistance_ < distance)){
+				if((config_.getPCNDistance() < distance)){
 
 
-					if(loggingType_ > 0)writeLog("Type:HUANG_PCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + PCNDistance_ + ":Distance:" + distance + ":Attack:" + true + ":Correct:" + (isFake_==true));
+					if(loggingType_ > 0)writeLog("Type:HUANG_PCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getPCNDistance() + ":Distance:" + distance + ":Attack:" + true + ":Correct:" + (isFake_==true));
 			
 					if(isFake_) truePositiv[0]++;
 					else falsePositiv[0]++;
@@ -333,7 +328,7 @@ public class IDSProcessor{
 					return rule_;
 				}
 				else{
-					if(loggingType_ > 0)writeLog("Type:HUANG_PCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + PCNDistance_ + ":Distance:" + distance + ":Attack:" + false + ":Correct:" + (isFake_==false));
+					if(loggingType_ > 0)writeLog("Type:HUANG_PCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getPCNDistance() + ":Distance:" + distance + ":Attack:" + false + ":Correct:" + (isFake_==false));
 					
 					if(!isFake_) trueNegativ[0]++;
 					else  falseNegativ[0]++;
@@ -366,7 +361,7 @@ public class IDSProcessor{
 						long tmp1 = street_.getStartNode().getX() - x_[0];
 						long tmp2 = street_.getStartNode().getY() - y_[0];
 						for(int i = 1; i <= street_.getLanesCount(); ++i){
-							//if(createBlocking_)sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (Renderer.getInstance().getTimePassed() + 10000)));
+							//if(createBlocking_)sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (SimulationEngine.getInstance().getTimePassed() + 10000)));
 						}	
 					}
 					*/
@@ -393,8 +388,8 @@ public class IDSProcessor{
 			double ratio = 0;
 			if(speed_[0] != 0) ratio = (speed_[lastLoggedBeacon-1]/speed_[0]);
 			
-			if(ratio > PCNFORWARDThreshold_){
-				if(loggingType_ > 0)writeLog("Type:PCN_FOWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + PCNFORWARDThreshold_ + ":Distance:" + ratio + ":Attack:" + true + ":Correct:" + (isFake_==true));
+			if(ratio > config_.getPCNFORWARDThreshold()){
+				if(loggingType_ > 0)writeLog("Type:PCN_FOWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getPCNFORWARDThreshold() + ":Distance:" + ratio + ":Attack:" + true + ":Correct:" + (isFake_==true));
 				
 				if(isFake_) truePositiv[1]++;
 				else falsePositiv[1]++;
@@ -405,7 +400,7 @@ public class IDSProcessor{
 				return rule_;
 			}
 			else{
-				if(loggingType_ > 0)writeLog("Type:PCN_FORWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + PCNFORWARDThreshold_ + ":Distance:" + ratio + ":Attack:" + false + ":Correct:" + (isFake_==false));
+				if(loggingType_ > 0)writeLog("Type:PCN_FORWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getPCNFORWARDThreshold() + ":Distance:" + ratio + ":Attack:" + false + ":Correct:" + (isFake_==false));
 				
 				if(!isFake_) trueNegativ[1]++;
 				else falseNegativ[1]++;
@@ -415,7 +410,7 @@ public class IDSProcessor{
 				long tmp1 = street_.getStartNode().getX() - x_[0];
 				long tmp2 = street_.getStartNode().getY() - y_[0];
 				for(int i = 1; i <= street_.getLanesCount(); ++i){
-					sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (Renderer.getInstance().getTimePassed() + 10000)));
+					sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (SimulationEngine.getInstance().getTimePassed() + 10000)));
 
 				}
 				*/
@@ -446,7 +441,7 @@ public class IDSProcessor{
 			
 			//if((advancedAttackRules_ && speed_[0] == 0 && lastSpeedValues == 0) || ratio > RHCNThreshold_){
 			
-			if(advancedIDSRules_){
+			if(config_.isAdvancedIDSRules()){
 				double[] advancedSpeedData = vehicle_.getKnownVehiclesList().getSpecificSpeedDataSet(monitoredVehicleID_, 7);
 				/*
 				if((vehicle_.getID() + "").equals("234092945793091839") && (monitoredVehicleID_ + "").equals("2799064286177330538")){
@@ -465,8 +460,8 @@ public class IDSProcessor{
 				//int editLastValue = 0;
 				//if(speed_[lastLoggedBeacon-1] == 0) editLastValue = 1;
 				//if(((timeStanding[0] - beaconsWithZeroSpeed + editLastValue) > 0) || (ratio > RHCNThreshold_)){
-				if(speed_[0] == 0 || (speed_[0] > 400 && ratio > RHCNThreshold_)){
-					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + RHCNThreshold_ + ":Distance:" + ratio + ":Attack:" + true + ":Correct:" + (isFake_==true)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
+				if(speed_[0] == 0 || (speed_[0] > 400 && ratio > config_.getRHCNThreshold())){
+					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getRHCNThreshold() + ":Distance:" + ratio + ":Attack:" + true + ":Correct:" + (isFake_==true)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
 					
 					if(isFake_) truePositiv[2]++;
 					else falsePositiv[2]++;
@@ -475,7 +470,7 @@ public class IDSProcessor{
 					return rule_;
 				}
 				else{
-					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + RHCNThreshold_ + ":Distance:" + ratio + ":Attack:" + false + ":Correct:" + (isFake_==false)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
+					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getRHCNThreshold() + ":Distance:" + ratio + ":Attack:" + false + ":Correct:" + (isFake_==false)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
 					
 					if(!isFake_) trueNegativ[2]++;
 					else falseNegativ[2]++;
@@ -483,7 +478,7 @@ public class IDSProcessor{
 					long tmp1 = street_.getStartNode().getX() - x_[0];
 					long tmp2 = street_.getStartNode().getY() - y_[0];
 					for(int i = 1; i <= street_.getLanesCount(); ++i){
-						sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (Renderer.getInstance().getTimePassed() + 10000)));
+						sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (SimulationEngine.getInstance().getTimePassed() + 10000)));
 
 					}
 					*/
@@ -498,8 +493,8 @@ public class IDSProcessor{
 				
 				
 				distance = Math.sqrt(dx * dx + dy * dy);
-				if(distance > RHCNThreshold_){
-					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + RHCNThreshold_ + ":Distance:" + distance + ":Attack:" + true + ":Correct:" + (isFake_==true)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
+				if(distance > config_.getRHCNThreshold()){
+					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getRHCNThreshold() + ":Distance:" + distance + ":Attack:" + true + ":Correct:" + (isFake_==true)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
 					
 					if(isFake_) truePositiv[2]++;
 					else falsePositiv[2]++;
@@ -508,7 +503,7 @@ public class IDSProcessor{
 					return rule_;
 				}
 				else{
-					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + RHCNThreshold_ + ":Distance:" + distance + ":Attack:" + false + ":Correct:" + (isFake_==false)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
+					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getRHCNThreshold() + ":Distance:" + distance + ":Attack:" + false + ":Correct:" + (isFake_==false)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
 					
 					if(!isFake_) trueNegativ[2]++;
 					else falseNegativ[2]++;
@@ -516,7 +511,7 @@ public class IDSProcessor{
 					long tmp1 = street_.getStartNode().getX() - x_[0];
 					long tmp2 = street_.getStartNode().getY() - y_[0];
 					for(int i = 1; i <= street_.getLanesCount(); ++i){
-						sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (Renderer.getInstance().getTimePassed() + 10000)));
+						sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (SimulationEngine.getInstance().getTimePassed() + 10000)));
 
 					}
 					*/
@@ -548,8 +543,8 @@ public class IDSProcessor{
 				
 				
 				if(speed_[0] != 0) ratio = (speed_[lastLoggedBeacon-1]/speed_[0]);
-				if(speed_[0] == 0 || (speed_[0] > 400 && ratio > RHCNThreshold_)){
-					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + RHCNThreshold_ + ":Distance:" + ratio + ":braking:" + amountOfBrakesSave + ":lastLoggedBeacon:" + lastLoggedBeacon + ":startSpeed:" + speed_[0] + ":lastSpeed:" + speed_[lastLoggedBeacon-1] + ":Attack:" + true + ":Correct:" + (isFake_==true)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
+				if(speed_[0] == 0 || (speed_[0] > 400 && ratio > config_.getRHCNThreshold())){
+					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getRHCNThreshold() + ":Distance:" + ratio + ":braking:" + amountOfBrakesSave + ":lastLoggedBeacon:" + lastLoggedBeacon + ":startSpeed:" + speed_[0] + ":lastSpeed:" + speed_[lastLoggedBeacon-1] + ":Attack:" + true + ":Correct:" + (isFake_==true)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
 					
 					if(isFake_) truePositiv[2]++;
 					else falsePositiv[2]++;
@@ -558,7 +553,7 @@ public class IDSProcessor{
 					return rule_;
 				}
 				else{
-					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + RHCNThreshold_ + ":Distance:" + ratio + ":braking:" + amountOfBrakesSave + ":lastLoggedBeacon:" + lastLoggedBeacon + ":startSpeed:" + speed_[0] +  ":lastSpeed:" + speed_[lastLoggedBeacon-1] + ":Attack:" + false + ":Correct:" + (isFake_==false)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
+					if(loggingType_ > 0)writeLog("Type:HUANG_RHCN:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getRHCNThreshold() + ":Distance:" + ratio + ":braking:" + amountOfBrakesSave + ":lastLoggedBeacon:" + lastLoggedBeacon + ":startSpeed:" + speed_[0] +  ":lastSpeed:" + speed_[lastLoggedBeacon-1] + ":Attack:" + false + ":Correct:" + (isFake_==false)  + timeStanding[0] + ":" + timeStanding[1] + ":" + beaconsWithZeroSpeed);
 					
 					if(!isFake_) trueNegativ[2]++;
 					else falseNegativ[2]++;
@@ -566,7 +561,7 @@ public class IDSProcessor{
 					long tmp1 = street_.getStartNode().getX() - x_[0];
 					long tmp2 = street_.getStartNode().getY() - y_[0];
 					for(int i = 1; i <= street_.getLanesCount(); ++i){
-						sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (Renderer.getInstance().getTimePassed() + 10000)));
+						sourceVehicle_.getTmpBlockings().add(new BlockingObject(i, direction_, street_, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), rule_, (SimulationEngine.getInstance().getTimePassed() + 10000)));
 
 					}
 					*/
@@ -597,8 +592,8 @@ public class IDSProcessor{
 				
 				
 				distance = Math.sqrt(dx * dx + dy * dy);
-				if(distance > EVAFORWARDThreshold_){	
-					if(loggingType_ > 0)writeLog("Type:HUANG_EVA_FORWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + EVAFORWARDThreshold_ + ":Distance:" + distance + ":Attack:" + true + ":Correct:" + (isFake_==true));
+				if(distance > config_.getEVAFORWARDThreshold()){	
+					if(loggingType_ > 0)writeLog("Type:HUANG_EVA_FORWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getEVAFORWARDThreshold() + ":Distance:" + distance + ":Attack:" + true + ":Correct:" + (isFake_==true));
 					if(isFake_) truePositiv[3]++;
 					else falsePositiv[3]++;
 				//	sourceVehicle_.getKnownEventSourcesList_().update(penaltySourceVehicle_, monitoredVehicleID_, sourceX_, sourceY_, speed_[0], true);
@@ -607,7 +602,7 @@ public class IDSProcessor{
 					if(!sourceVehicle_.isDrivingOnTheSide_() && sourceVehicle_.getKnownPenalties().hasToMoveOutOfTheWay(penaltySourceVehicle_))sourceVehicle_.setMoveOutOfTheWay_(true);
 					if(!isFake_) trueNegativ[3]++;
 					else falseNegativ[3]++;
-					if(loggingType_ > 0)writeLog("Type:HUANG_EVA_FORWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + EVAFORWARDThreshold_ + ":Distance:" + distance + ":Attack:" + false + ":Correct:" + (isFake_==false));
+					if(loggingType_ > 0)writeLog("Type:HUANG_EVA_FORWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getEVAFORWARDThreshold() + ":Distance:" + distance + ":Attack:" + false + ":Correct:" + (isFake_==false));
 				
 					if(!sourceVehicle_.isDrivingOnTheSide_() && hasToMoveOutOfTheWay(penaltySourceVehicle_)){
 						sourceVehicle_.setMoveOutOfTheWay_(true);
@@ -635,8 +630,8 @@ public class IDSProcessor{
 				
 				if(speed_[0] != 0) ratio = (speed_[lastLoggedBeacon-1]/speed_[0]);
 
-				if(ratio > EVAFORWARDThreshold_){	
-					if(loggingType_ > 0)writeLog("Type:HUANG_EVA_FORWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + EVAFORWARDThreshold_ + ":Distance:" + ratio + ":Attack:" + true + ":Correct:" + (isFake_==true));
+				if(ratio > config_.getEVAFORWARDThreshold()){	
+					if(loggingType_ > 0)writeLog("Type:HUANG_EVA_FORWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getEVAFORWARDThreshold() + ":Distance:" + ratio + ":Attack:" + true + ":Correct:" + (isFake_==true));
 					if(isFake_) truePositiv[3]++;
 					else falsePositiv[3]++;
 					//sourceVehicle_.getKnownEventSourcesList_().update(penaltySourceVehicle_, monitoredVehicleID_, sourceX_, sourceY_, speed_[0], true);
@@ -645,7 +640,7 @@ public class IDSProcessor{
 					if(!sourceVehicle_.isDrivingOnTheSide_() && sourceVehicle_.getKnownPenalties().hasToMoveOutOfTheWay(penaltySourceVehicle_))sourceVehicle_.setMoveOutOfTheWay_(true);
 					if(!isFake_) trueNegativ[3]++;
 					else falseNegativ[3]++;
-					if(loggingType_ > 0)writeLog("Type:HUANG_EVA_FORWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + EVAFORWARDThreshold_ + ":Distance:" + ratio + ":Attack:" + false + ":Correct:" + (isFake_==false));
+					if(loggingType_ > 0)writeLog("Type:HUANG_EVA_FORWARD:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getEVAFORWARDThreshold() + ":Distance:" + ratio + ":Attack:" + false + ":Correct:" + (isFake_==false));
 				
 					if(!sourceVehicle_.isDrivingOnTheSide_() && hasToMoveOutOfTheWay(penaltySourceVehicle_)){
 						sourceVehicle_.setMoveOutOfTheWay_(true);
@@ -667,8 +662,8 @@ public class IDSProcessor{
 			
 				//double thresholdTime = ((double)(beaconAmount * Vehicle.getBeaconInterval())/EVABeaconTimeFactor_);
 
-				double thresholdTime = ((double)(beaconAmount * Vehicle.getBeaconInterval())/EVABeaconFactor_);
-				double thresholdBeacon = ((double)beaconAmount/EVABeaconFactor_);
+				double thresholdTime = ((double)(beaconAmount * Vehicle.getBeaconInterval())/config_.getEVABeaconFactor());
+				double thresholdBeacon = ((double)beaconAmount/config_.getEVABeaconFactor());
 				
 				//we have no neighbors and therefore, have to rely on our own data
 				if(response[2] == 0){
@@ -718,7 +713,7 @@ public class IDSProcessor{
 			if(speed_[0] != 0) ratio = (speed_[lastLoggedBeacon-1]/speed_[0]);
 			
 			
-			if(advancedIDSRules_){
+			if(config_.isAdvancedIDSRules()){
 				
 				double[] advancedSpeedData = vehicle_.getKnownVehiclesList().getSpecificSpeedDataSet(monitoredVehicleID_, 12);
 				
@@ -728,8 +723,8 @@ public class IDSProcessor{
 				
 				
 				
-				if(useRule && advancedSpeedData[0] == 0 || ratio > EEBLThreshold_){
-					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + EEBLThreshold_ + ":Distance:" + ratio + ":Attack:" + true + ":Correct:" + (isFake_==true));
+				if(useRule && advancedSpeedData[0] == 0 || ratio > config_.getEEBLThreshold()){
+					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getEEBLThreshold() + ":Distance:" + ratio + ":Attack:" + true + ":Correct:" + (isFake_==true));
 					if(isFake_) truePositiv[5]++;
 					else if(!isFake_) falsePositiv[5]++;
 					//sourceVehicle_.getKnownEventSourcesList_().update(penaltySourceVehicle_, monitoredVehicleID_, sourceX_, sourceY_, speed_[0], true);
@@ -738,7 +733,7 @@ public class IDSProcessor{
 				
 				}
 				else {
-					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + EEBLThreshold_ + ":Distance:" + ratio + ":Attack:" + false + ":Correct:" + (isFake_==false));	
+					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getEEBLThreshold() + ":Distance:" + ratio + ":Attack:" + false + ":Correct:" + (isFake_==false));	
 					
 					if(!isFake_) trueNegativ[5]++;
 					else if(isFake_) falseNegativ[5]++;
@@ -752,10 +747,10 @@ public class IDSProcessor{
 					if(direction_) direction = 1; //$NON-NLS-1$
 					else direction = -1; //$NON-NLS-1$
 					try{
-						StartBlocking start = new StartBlocking(Renderer.getInstance().getTimePassed(), x_[0], y_[0], direction, lane_[0], false, "HUANG_EEBL");
+						StartBlocking start = new StartBlocking(SimulationEngine.getInstance().getTimePassed(), x_[0], y_[0], direction, lane_[0], false, "HUANG_EEBL");
 						if(!EventList.getInstance().eventAlreadyExists(start)){
 							EventList.getInstance().addEvent(start); //$NON-NLS-1$	
-							EventList.getInstance().addEvent(new StopBlocking(Renderer.getInstance().getTimePassed() + 3000, x_[0], y_[0], start)); //$NON-NLS-1$
+							EventList.getInstance().addEvent(new StopBlocking(SimulationEngine.getInstance().getTimePassed() + 3000, x_[0], y_[0], start)); //$NON-NLS-1$
 						}
 
 					}
@@ -775,8 +770,8 @@ public class IDSProcessor{
 				
 				
 				distance = Math.sqrt(dx * dx + dy * dy);
-				if(distance > EEBLThreshold_){
-					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + EEBLThreshold_ + ":Distance:" + distance + ":Attack:" + true + ":Correct:" + (isFake_==true));
+				if(distance > config_.getEEBLThreshold()){
+					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getEEBLThreshold() + ":Distance:" + distance + ":Attack:" + true + ":Correct:" + (isFake_==true));
 					if(isFake_) truePositiv[5]++;
 					else if(!isFake_) falsePositiv[5]++;
 					//sourceVehicle_.getKnownEventSourcesList_().update(penaltySourceVehicle_, monitoredVehicleID_, sourceX_, sourceY_, speed_[0], true);
@@ -785,7 +780,7 @@ public class IDSProcessor{
 				
 				}
 				else {
-					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + EEBLThreshold_ + ":Distance:" + distance + ":Attack:" + false + ":Correct:" + (isFake_==false));	
+					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getEEBLThreshold() + ":Distance:" + distance + ":Attack:" + false + ":Correct:" + (isFake_==false));	
 					
 					if(!isFake_) trueNegativ[5]++;
 					else if(isFake_) falseNegativ[5]++;
@@ -799,10 +794,10 @@ public class IDSProcessor{
 					if(direction_) direction = 1; //$NON-NLS-1$
 					else direction = -1; //$NON-NLS-1$
 					try{
-						StartBlocking start = new StartBlocking(Renderer.getInstance().getTimePassed(), x_[0], y_[0], direction, lane_[0], false, "HUANG_EEBL");
+						StartBlocking start = new StartBlocking(SimulationEngine.getInstance().getTimePassed(), x_[0], y_[0], direction, lane_[0], false, "HUANG_EEBL");
 						if(!EventList.getInstance().eventAlreadyExists(start)){
 							EventList.getInstance().addEvent(start); //$NON-NLS-1$	
-							EventList.getInstance().addEvent(new StopBlocking(Renderer.getInstance().getTimePassed() + 3000, x_[0], y_[0], start)); //$NON-NLS-1$
+							EventList.getInstance().addEvent(new StopBlocking(SimulationEngine.getInstance().getTimePassed() + 3000, x_[0], y_[0], start)); //$NON-NLS-1$
 						}
 
 					}
@@ -816,8 +811,8 @@ public class IDSProcessor{
 				}
 			}
 			else{
-				if(ratio > EEBLThreshold_){
-					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + EEBLThreshold_ + ":Distance:" + ratio + ":Attack:" + true + ":Correct:" + (isFake_==true));
+				if(ratio > config_.getEEBLThreshold()){
+					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getEEBLThreshold() + ":Distance:" + ratio + ":Attack:" + true + ":Correct:" + (isFake_==true));
 					if(isFake_) truePositiv[5]++;
 					else if(!isFake_) falsePositiv[5]++;
 				//	sourceVehicle_.getKnownEventSourcesList_().update(penaltySourceVehicle_, monitoredVehicleID_, sourceX_, sourceY_, speed_[0], true);
@@ -826,7 +821,7 @@ public class IDSProcessor{
 				
 				}
 				else {
-					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + EEBLThreshold_ + ":Distance:" + ratio + ":Attack:" + false + ":Correct:" + (isFake_==false));	
+					if(loggingType_ > 0)writeLog("Type:HUANG_EEBL:Source:" + sourceVehicle_.getID() +  ":Monitored:" + monitoredVehicleID_ + ":Threshold:" + config_.getEEBLThreshold() + ":Distance:" + ratio + ":Attack:" + false + ":Correct:" + (isFake_==false));	
 					
 					if(!isFake_) trueNegativ[5]++;
 					else if(isFake_) falseNegativ[5]++;
@@ -840,10 +835,10 @@ public class IDSProcessor{
 					if(direction_) direction = 1; //$NON-NLS-1$
 					else direction = -1; //$NON-NLS-1$
 					try{
-						StartBlocking start = new StartBlocking(Renderer.getInstance().getTimePassed(), x_[0], y_[0], direction, lane_[0], false, "HUANG_EEBL");
+						StartBlocking start = new StartBlocking(SimulationEngine.getInstance().getTimePassed(), x_[0], y_[0], direction, lane_[0], false, "HUANG_EEBL");
 						if(!EventList.getInstance().eventAlreadyExists(start)){
 							EventList.getInstance().addEvent(start); //$NON-NLS-1$	
-							EventList.getInstance().addEvent(new StopBlocking(Renderer.getInstance().getTimePassed() + 3000, x_[0], y_[0], start)); //$NON-NLS-1$
+							EventList.getInstance().addEvent(new StopBlocking(SimulationEngine.getInstance().getTimePassed() + 3000, x_[0], y_[0], start)); //$NON-NLS-1$
 						}
 
 					}
@@ -870,10 +865,107 @@ public class IDSProcessor{
 	 */
 	public static boolean ruleIsActive(String rule){
 		boolean returnValue = false;
-		for(int i = 0; i < activeRules_.length;i++) if(activeRules_[i].equals(rule)) returnValue = true;
+		String[] activeRules = SimulationConfig.getInstance().getActiveRules();
+		for(int i = 0; i < activeRules.length;i++) if(activeRules[i].equals(rule)) returnValue = true;
 		return returnValue;
 	}
 
+	/**
+	 * Writes this processor to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeStreet(street_);
+		out.writeInt(directionAsNumber_);
+		out.writeVehicle(sourceVehicle_);
+		out.writeLong(ID_);
+		out.writeLong(monitoredVehicleID_);
+		out.writeVehicle(penaltySourceVehicle_);
+		out.writeString(rule_);
+		out.writeBoolean(isFake_);
+		out.writeInt(lastUpdate_);
+		out.writeVehicle(vehicle_);
+		out.writeIntArray(savedX_);
+		out.writeIntArray(savedY_);
+		out.writeDoubleArray(savedSpeed_);
+		out.writeIntArray(savedLastUpdate_);
+		out.writeInt(arrayCounter);
+		out.writeInt(AMOUNT_OF_BEACONS_LOGGED);
+		out.writeIntArray(lane_);
+		out.writeIntArray(x_);
+		out.writeIntArray(y_);
+		out.writeDoubleArray(speed_);
+		out.writeBoolean(ready_);
+		out.writeBoolean(deleteProcessor_);
+		out.writeInt(loggingType_);
+		out.writeInt(instantIDS_);
+		out.writeBoolean(classicMode_);
+	}
+	
+	/**
+	 * Reads a processor written with {@link #writeCheckpoint(CheckpointOutput)}.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @return the processor
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	static IDSProcessor readCheckpoint(CheckpointInput in) throws IOException{
+		IDSProcessor processor = new IDSProcessor(0, 0, in.readStreet(), in.readInt(), in.readVehicle(), in.readLong(), in.readLong(), in.readVehicle(), in.readString(), in.readBoolean(), false, false, in.readInt(), in.readVehicle());
+		processor.savedX_ = in.readIntArray();
+		processor.savedY_ = in.readIntArray();
+		processor.savedSpeed_ = in.readDoubleArray();
+		processor.savedLastUpdate_ = in.readIntArray();
+		processor.arrayCounter = in.readInt();
+		processor.AMOUNT_OF_BEACONS_LOGGED = in.readInt();
+		processor.lane_ = in.readIntArray();
+		processor.x_ = in.readIntArray();
+		processor.y_ = in.readIntArray();
+		processor.speed_ = in.readDoubleArray();
+		processor.ready_ = in.readBoolean();
+		processor.deleteProcessor_ = in.readBoolean();
+		processor.loggingType_ = in.readInt();
+		processor.instantIDS_ = in.readInt();
+		processor.classicMode_ = in.readBoolean();
+		return processor;
+	}
+	
+	/**
+	 * Writes the IDS statistics of all rules and the amount of fake and real messages to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public static void writeStatistics(CheckpointOutput out) throws IOException{
+		out.writeIntArray(truePositiv);
+		out.writeIntArray(trueNegativ);
+		out.writeIntArray(falsePositiv);
+		out.writeIntArray(falseNegativ);
+		out.writeInt(fake);
+		out.writeInt(noFake);
+	}
+	
+	/**
+	 * Replaces the IDS statistics with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public static void readStatistics(CheckpointInput in) throws IOException{
+		truePositiv = in.readIntArray();
+		trueNegativ = in.readIntArray();
+		falsePositiv = in.readIntArray();
+		falseNegativ = in.readIntArray();
+		fake = in.readInt();
+		noFake = in.readInt();
+	}
+
 	/**
 	 * reports stats
 	 */
@@ -884,7 +976,7 @@ public class IDSProcessor{
 	
 	public void writeLog(String s){
 		try{
-			if(logIDS_)IDSLogWriter.log(s);
+			if(config_.isLogIDS())IDSLogWriter.log(s);
 		}
 		catch(Exception e){
 			
@@ -1094,84 +1186,84 @@ public class IDSProcessor{
 	 * @return the logIDS_
 	 */
 	public static boolean isLogIDS_() {
-		return logIDS_;
+		return SimulationConfig.getInstance().isLogIDS();
 	}
 
 	/**
 	 * @param logIDS_ the logIDS_ to set
 	 */
 	public static void setLogIDS_(boolean logIDS_) {
-		IDSProcessor.logIDS_ = logIDS_;
+		SimulationConfig.getInstance().setLogIDS(logIDS_);
 	}
 
 	/**
 	 * @return the pCNDistance_
 	 */
 	public static int getPCNDistance_() {
-		return PCNDistance_;
+		return SimulationConfig.getInstance().getPCNDistance();
 	}
 
 	/**
 	 * @param pCNDistance_ the pCNDistance_ to set
 	 */
 	public static void setPCNDistance_(int pCNDistance_) {
-		PCNDistance_ = pCNDistance_;
+		SimulationConfig.getInstance().setPCNDistance(pCNDistance_);
 	}
 
 	/**
 	 * @return the pCNFORWARDThreshold_
 	 */
 	public static double getPCNFORWARDThreshold_() {
-		return PCNFORWARDThreshold_;
+		return SimulationConfig.getInstance().getPCNFORWARDThreshold();
 	}
 
 	/**
 	 * @param pCNFORWARDThreshold_ the pCNFORWARDThreshold_ to set
 	 */
 	public static void setPCNFORWARDThreshold_(double pCNFORWARDThreshold_) {
-		PCNFORWARDThreshold_ = pCNFORWARDThreshold_;
+		SimulationConfig.getInstance().setPCNFORWARDThreshold(pCNFORWARDThreshold_);
 	}
 
 	/**
 	 * @return the rHCNThreshold_
 	 */
 	public static double getRHCNThreshold_() {
-		return RHCNThreshold_;
+		return SimulationConfig.getInstance().getRHCNThreshold();
 	}
 
 	/**
 	 * @param rHCNThreshold_ the rHCNThreshold_ to set
 	 */
 	public static void setRHCNThreshold_(double rHCNThreshold_) {
-		RHCNThreshold_ = rHCNThreshold_;
+		SimulationConfig.getInstance().setRHCNThreshold(rHCNThreshold_);
 	}
 
 	/**
 	 * @return the eEBLThreshold_
 	 */
 	public static double getEEBLThreshold_() {
-		return EEBLThreshold_;
+		return SimulationConfig.getInstance().getEEBLThreshold();
 	}
 
 	/**
 	 * @param eEBLThreshold_ the eEBLThreshold_ to set
 	 */
 	public static void setEEBLThreshold_(double eEBLThreshold_) {
-		EEBLThreshold_ = eEBLThreshold_;
+		SimulationConfig.getInstance().setEEBLThreshold(eEBLThreshold_);
 	}
 
 	/**
 	 * @return the activeRules_
 	 */
 	public static String[] getActiveRules_() {
-		return activeRules_;
+		return SimulationConfig.getInstance().getActiveRules();
 	}
 
 	/**
 	 * @param activeRules_ the activeRules_ to set
 	 */
 	public static void setActiveRules_(String[] activeRules_) {
-		IDSProcessor.activeRules_ = activeRules_;
+		SimulationConfig.getInstance().setActiveRules(activeRules_);
 	}
 
 	/**
@@ -1196,11 +1288,11 @@ public class IDSProcessor{
 	}
 
 	public static double getEVAFORWARDThreshold_() {
-		return EVAFORWARDThreshold_;
+		return SimulationConfig.getInstance().getEVAFORWARDThreshold();
 	}
 
 	public static void setEVAFORWARDThreshold_(double eVAFORWARDThreshold_) {
-		EVAFORWARDThreshold_ = eVAFORWARDThreshold_;
+		SimulationConfig.getInstance().setEVAFORWARDThreshold(eVAFORWARDThreshold_);
 	}
 
 	/**
@@ -1225,28 +1317,28 @@ public class IDSProcessor{
 
 
 	public static double getEVABeaconTimeFactor_() {
-		return EVABeaconTimeFactor_;
+		return SimulationConfig.getInstance().getEVABeaconTimeFactor();
 	}
 
 	public static void setEVABeaconTimeFactor_(double eVABeaconTimeFactor_) {
-		EVABeaconTimeFactor_ = eVABeaconTimeFactor_;
+		SimulationConfig.getInstance().setEVABeaconTimeFactor(eVABeaconTimeFactor_);
 	}
 
 	public static double getEVABeaconFactor_() {
-		return EVABeaconFactor_;
+		return SimulationConfig.getInstance().getEVABeaconFactor();
 	}
 
 	public static void setEVABeaconFactor_(double eVABeaconFactor_) {
-		EVABeaconFactor_ = eVABeaconFactor_;
+		SimulationConfig.getInstance().setEVABeaconFactor(eVABeaconFactor_);
 	}
 
 
 	public static boolean isAdvancedIDSRules_() {
-		return advancedIDSRules_;
+		return SimulationConfig.getInstance().isAdvancedIDSRules();
 	}
 
 	public static void setAdvancedIDSRules_(boolean advancedIDSRules_) {
-		IDSProcessor.advancedIDSRules_ = advancedIDSRules_;
+		SimulationConfig.getInstance().setAdvancedIDSRules(advancedIDSRules_);
 	}
 
 
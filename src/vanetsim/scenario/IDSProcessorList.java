@@ -17,7 +17,12 @@
  */
 package vanetsim.scenario;
 
+import java.io.IOException;
+
 import vanetsim.map.Street;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationEngine;
 
 /**
  * A list of all known vehicles which was discovered through beacons. In contrast to the KnownPenalties-
@@ -37,8 +42,8 @@ public class IDSProcessorList{
 	/** How many hash buckets will be used. Increase if you expect lots of known vehicles! */
 	private static final int HASH_SIZE = 32;
 	
-	/** How much time has passed since beginning of the simulation. Stored here as it's really needed often. */
-	private static int timePassed_ = 0;
+	/** The simulation engine of the context this list belongs to. Its clock is really needed often. */
+	private final SimulationEngine engine_ = SimulationEngine.getInstance();
 	
 	/** The array with all heads of the linked lists */
 	private IDSProcessor[] head_ = new IDSProcessor[HASH_SIZE];
@@ -77,7 +82,7 @@ public class IDSProcessorList{
 		IDSProcessor next = head_[hash];
 		while(next != null){
 			if(next.getMonitoredVehicleID_() == ID){	// update of entry possible
-				next.addBeacon(lane, x, y, speed, timePassed_);
+				next.addBeacon(lane, x, y, speed, engine_.getTimePassed());
 				//break; <-- there can be more than one ids processor for a vehicle id!
 			}
 			next = next.getNext();
@@ -115,7 +120,7 @@ public class IDSProcessorList{
 			next = next.getNext();	// still works as we didn't change it. Garbage Collector will remove it now.
 		}
 
-		next = new IDSProcessor(x, y, street, direction, vehicle, ID, monitoredVehicleID, penaltySourceVehicle, penaltyType, isFake, emergencyVehicle, createBlocking, timePassed_, vehicle_);
+		next = new IDSProcessor(x, y, street, direction, vehicle, ID, monitoredVehicleID, penaltySourceVehicle, penaltyType, isFake, emergencyVehicle, createBlocking, engine_.getTimePassed(), vehicle_);
 
 		next.setNext(head_[hash]);
 		next.setPrevious(null);
@@ -135,7 +140,7 @@ public class IDSProcessorList{
 		IDSProcessor next = head_[hash];
 
 		
-		next = new IDSProcessor(x, y, street, direction, vehicle, ID, monitoredVehicleID, penaltySourceVehicle, penaltyType, isFake, emergencyVehicle, createBlocking, timePassed_, vehicle_);
+		next = new IDSProcessor(x, y, street, direction, vehicle, ID, monitoredVehicleID, penaltySourceVehicle, penaltyType, isFake, emergencyVehicle, createBlocking, engine_.getTimePassed(), vehicle_);
 		next.setNext(head_[hash]);
 		next.setPrevious(null);
 		if(head_[hash] != null) head_[hash].setPrevious(next);
@@ -154,7 +159,7 @@ public class IDSProcessorList{
 	 * sure that no other thread uses any function on this object at the same time!
 	 */
 	public void checkOutdatedProcessors(){
-		int timeout = timePassed_ - VALID_TIME;
+		int timeout = engine_.getTimePassed() - VALID_TIME;
 		IDSProcessor next;
 		for(int i = 0; i < HASH_SIZE; ++i){
 			next = head_[i];
@@ -242,7 +247,7 @@ public class IDSProcessorList{
 			while(next != null){
 				response = next.getVehicle().getKnownVehiclesList().checkBeacons(monitoredID);
 				if(response != null){
-					knownTime += timePassed_ - response[0];
+					knownTime += engine_.getTimePassed() - response[0];
 					constantContact += response[1];
 					counter++;
 				}
@@ -292,20 +297,55 @@ public class IDSProcessorList{
 	}
 	
 	/**
-	 * Sets the time passed since simulation start.
+	 * Clears everything from this data structure.
+	 */
+	public void clear(){
+		head_ = new IDSProcessor[HASH_SIZE];
+		size_ = 0;
+	}
+	
+	/**
+	 * Writes all processors to a checkpoint. The order inside the linked lists is kept.
+	 * 
+	 * @param out	the stream to write to
 	 * 
-	 * @param time the new time in milliseconds
+	 * @throws IOException	if writing failed
 	 */
-	public static void setTimePassed(int time){
-		timePassed_ = time;
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		IDSProcessor next;
+		int count;
+		for(int i = 0; i < HASH_SIZE; ++i){
+			count = 0;
+			for(next = head_[i]; next != null; next = next.getNext()) ++count;
+			out.writeInt(count);
+			for(next = head_[i]; next != null; next = next.getNext()) next.writeCheckpoint(out);
+		}
 	}
 	
 	/**
-	 * Clears everything from this data structure.
+	 * Replaces all processors with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
 	 */
-	public void clear(){
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		IDSProcessor previous, next;
+		int count;
 		head_ = new IDSProcessor[HASH_SIZE];
 		size_ = 0;
+		for(int i = 0; i < HASH_SIZE; ++i){
+			count = in.readInt();
+			previous = null;
+			for(int j = 0; j < count; ++j){
+				next = IDSProcessor.readCheckpoint(in);
+				next.setPrevious(previous);
+				if(previous == null) head_[i] = next;
+				else previous.setNext(next);
+				previous = next;
+			}
+			size_ += count;
+		}
 	}
 	
 
@@ -0,0 +1,164 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.scenario;
+
+/**
+ * Stores the state of vehicles which is used in every step when adjusting the speed and moving (position, speed, lane
+ * and countdowns) in one primitive array per value instead of in the vehicles. Every vehicle has a slot in exactly one
+ * store and reads and writes this state only through its slot, so that the state of all vehicles of a store lies next
+ * to each other in memory.
+ * <br><br>
+ * Each region keeps a store for its vehicles in which the slot of a vehicle is its index in the region. A worker thread
+ * therefore only writes to the stores of its own regions. Vehicles which are not stored in a region (for example while
+ * they are created) get a store of their own. Vehicles are only moved between stores when regions are changed, which is
+ * done between the steps.
+ */
+public final class KinematicStore{
+
+	/** The x coordinates. */
+	int[] x_;
+
+	/** The y coordinates. */
+	int[] y_;
+
+	/** The current speeds in cm/s. */
+	double[] speed_;
+
+	/** The speeds which are used after the current step. */
+	double[] newSpeed_;
+
+	/** The positions on the current streets measured in cm from the start node. */
+	double[] position_;
+
+	/** The current lanes (1-n with n=lanecount of one side of the street). */
+	int[] lane_;
+
+	/** The lanes which are used after the current step. */
+	int[] newLane_;
+
+	/** The times in milliseconds before the next movement. */
+	int[] waitTime_;
+
+	/** The countdowns for communication. */
+	int[] communicationCountdown_;
+
+	/** The countdowns for sending beacons. */
+	int[] beaconCountdown_;
+
+	/**
+	 * Creates a new store.
+	 *
+	 * @param capacity	the amount of slots
+	 */
+	public KinematicStore(int capacity){
+		x_ = new int[capacity];
+		y_ = new int[capacity];
+		speed_ = new double[capacity];
+		newSpeed_ = new double[capacity];
+		position_ = new double[capacity];
+		lane_ = new int[capacity];
+		newLane_ = new int[capacity];
+		for(int i = 0; i < capacity; ++i){
+			lane_[i] = 1;
+			newLane_[i] = 1;
+		}
+		waitTime_ = new int[capacity];
+		communicationCountdown_ = new int[capacity];
+		beaconCountdown_ = new int[capacity];
+	}
+
+	/**
+	 * Enlarges this store if it has less than the given amount of slots. The values of all slots are kept.
+	 *
+	 * @param capacity	the amount of slots needed
+	 */
+	public void ensureCapacity(int capacity){
+		if(x_.length >= capacity) return;
+		x_ = copyOf(x_, capacity);
+		y_ = copyOf(y_, capacity);
+		speed_ = copyOf(speed_, capacity);
+		newSpeed_ = copyOf(newSpeed_, capacity);
+		position_ = copyOf(position_, capacity);
+		lane_ = copyOf(lane_, capacity);
+		newLane_ = copyOf(newLane_, capacity);
+		waitTime_ = copyOf(waitTime_, capacity);
+		communicationCountdown_ = copyOf(communicationCountdown_, capacity);
+		beaconCountdown_ = copyOf(beaconCountdown_, capacity);
+	}
+
+	/**
+	 * Moves the state of a vehicle into a slot of this store. The vehicle uses this slot afterwards.
+	 *
+	 * @param vehicle	the vehicle
+	 * @param slot		the slot (needs to be smaller than the capacity)
+	 */
+	public void attach(Vehicle vehicle, int slot){
+		KinematicStore store = vehicle.getKinematicStore();
+		int oldSlot = vehicle.getKinematicSlot();
+		if(store == this && oldSlot == slot) return;
+		x_[slot] = store.x_[oldSlot];
+		y_[slot] = store.y_[oldSlot];
+		speed_[slot] = store.speed_[oldSlot];
+		newSpeed_[slot] = store.newSpeed_[oldSlot];
+		position_[slot] = store.position_[oldSlot];
+		lane_[slot] = store.lane_[oldSlot];
+		newLane_[slot] = store.newLane_[oldSlot];
+		waitTime_[slot] = store.waitTime_[oldSlot];
+		communicationCountdown_[slot] = store.communicationCountdown_[oldSlot];
+		beaconCountdown_[slot] = store.beaconCountdown_[oldSlot];
+		vehicle.setKinematicSlot(this, slot);
+	}
+
+	/**
+	 * Moves the state of a vehicle out of this store into a store of its own. Nothing is done if the vehicle doesn't use
+	 * this store.
+	 *
+	 * @param vehicle	the vehicle
+	 */
+	public void detach(Vehicle vehicle){
+		if(vehicle.getKinematicStore() == this) new KinematicStore(1).attach(vehicle, 0);
+	}
+
+	/**
+	 * Copies an array into a larger one.
+	 *
+	 * @param array		the array
+	 * @param length	the new length
+	 *
+	 * @return the new array
+	 */
+	private static int[] copyOf(int[] array, int length){
+		int[] newArray = new int[length];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	/**
+	 * Copies an array into a larger one.
+	 *
+	 * @param array		the array
+	 * @param length	the new length
+	 *
+	 * @return the new array
+	 */
+	private static double[] copyOf(double[] array, int length){
+		double[] newArray = new double[length];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+}
@@ -18,6 +18,13 @@
 package vanetsim.scenario;
 
 
+import java.io.IOException;
+
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationConfig;
+
+
 
 /**
  * A known event source saves data of vehicles that sent a event to use the data for ids purpose
@@ -60,15 +67,6 @@ public class KnownEventSource{
 	/** The updates of the eventsource */
 	private int updates_ = 0;
 	
-	/** Alert if spamming */
-	private static boolean spamCheck_ = false;
-	
-	/** Threshold what message amount is spamming */
-	private static int spammingThreshold_ = 3;
-	
-	/** Threshold in what time the messages where sent in average */
-	private static int spammingTimeThreshold_ = 240000;
-	
 	private int spamCounter_ = 0;
 	/**
 	 * Instantiates a new known vehicle.
@@ -257,8 +255,9 @@ public class KnownEventSource{
 	public void setUpdates_(int updates) {
 		updates_ = updates;
 		
-		if(spamCheck_){
-			if(updates_ >= (spammingThreshold_-1) && (lastUpdate_ - firstContact_- (updates_*80)) <= updates_*spammingTimeThreshold_){
+		SimulationConfig config = SimulationConfig.getInstance();
+		if(config.isEventSourceSpamCheck()){
+			if(updates_ >= (config.getSpammingThreshold()-1) && (lastUpdate_ - firstContact_- (updates_*80)) <= updates_*config.getSpammingTimeThreshold()){
 				spamCounter_++;
 			}
 		}
@@ -276,30 +275,72 @@ public class KnownEventSource{
 
 
 	public static int getSpammingthreshold() {
-		return spammingThreshold_;
+		return SimulationConfig.getInstance().getSpammingThreshold();
 	}
 
 
 	public static int getSpammingtimethreshold() {
-		return spammingTimeThreshold_;
+		return SimulationConfig.getInstance().getSpammingTimeThreshold();
 	}
 
 	public static void setSpammingThreshold_(int spammingThreshold_) {
-		KnownEventSource.spammingThreshold_ = spammingThreshold_;
+		SimulationConfig.getInstance().setSpammingThreshold(spammingThreshold_);
 	}
 	
 	public static void setSpammingTimeThreshold_(int spammingTimeThreshold_) {
-		KnownEventSource.spammingTimeThreshold_ = spammingTimeThreshold_;
+		SimulationConfig.getInstance().setSpammingTimeThreshold(spammingTimeThreshold_);
 	}
 
 
 	public static boolean isSpamcheck() {
-		return spamCheck_;
+		return SimulationConfig.getInstance().isEventSourceSpamCheck();
 	}
 
 
 	public static void setSpamCheck_(boolean spamCheck_) {
-		KnownEventSource.spamCheck_ = spamCheck_;
+		SimulationConfig.getInstance().setEventSourceSpamCheck(spamCheck_);
+	}
+	
+	
+	/**
+	 * Writes this event source to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeVehicle(vehicle_);
+		out.writeLong(ID_);
+		out.writeInt(x_);
+		out.writeInt(y_);
+		out.writeDouble(speed_);
+		out.writeInt(firstContact_);
+		out.writeInt(lastUpdate_);
+		out.writeInt(fakeMessageCounter_);
+		out.writeInt(realMessageCounter_);
+		out.writeInt(updates_);
+		out.writeInt(spamCounter_);
+	}
+	
+	
+	/**
+	 * Reads an event source written with {@link #writeCheckpoint(CheckpointOutput)}.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @return the event source
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	static KnownEventSource readCheckpoint(CheckpointInput in) throws IOException{
+		KnownEventSource source = new KnownEventSource(in.readVehicle(), in.readLong(), in.readInt(), in.readInt(), in.readDouble(), in.readInt(), false);
+		source.lastUpdate_ = in.readInt();
+		source.fakeMessageCounter_ = in.readInt();
+		source.realMessageCounter_ = in.readInt();
+		source.updates_ = in.readInt();
+		source.spamCounter_ = in.readInt();
+		return source;
 	}
 
 
@@ -18,7 +18,12 @@
 package vanetsim.scenario;
 
 
+import java.io.IOException;
+
 import vanetsim.gui.helpers.GeneralLogWriter;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationEngine;
 
 /**
  * ...
@@ -28,8 +33,8 @@ public class KnownEventSourcesList{
 	/** How many hash buckets will be used. Increase if you expect lots of known event sources! */
 	private static final int HASH_SIZE = 16;
 	
-	/** How much time has passed since beginning of the simulation. Stored here as it's really needed often. */
-	private static int timePassed_ = 0;
+	/** The simulation engine of the context this list belongs to. Its clock is really needed often. */
+	private final SimulationEngine engine_ = SimulationEngine.getInstance();
 	
 	/** The array with all heads of the linked lists */
 	private KnownEventSource[] head_ = new KnownEventSource[HASH_SIZE];
@@ -82,14 +87,14 @@ public class KnownEventSourcesList{
 		
 		while(next != null){
 			if(next.getID() == ID){	// update of entry possible
-				//if(timePassed_ > 59999)GeneralLogWriter.log(timePassed_ + ":" + ID + ":update");
-				//GeneralLogWriter.log(timePassed_ + ":" + ID + ":update");
+				//if(engine_.getTimePassed() > 59999)GeneralLogWriter.log(engine_.getTimePassed() + ":" + ID + ":update");
+				//GeneralLogWriter.log(engine_.getTimePassed() + ":" + ID + ":update");
 
 				updatedSources++;
 				next.setX(x);
 				next.setY(y);
-				timeBetweenUpdates = timeBetweenUpdates + (timePassed_ - next.getLastUpdate());
-				next.setLastUpdate(timePassed_);
+				timeBetweenUpdates = timeBetweenUpdates + (engine_.getTimePassed() - next.getLastUpdate());
+				next.setLastUpdate(engine_.getTimePassed());
 				next.setSpeed(speed);		
 				next.setUpdates_(next.getUpdates_()+1);
 				if(isFake)next.setFakeMessageCounter_(next.getFakeMessageCounter_() + 1);
@@ -103,10 +108,10 @@ public class KnownEventSourcesList{
 		}					
 		
 		if(!found){
-			//GeneralLogWriter.log(timePassed_ + ":" + ID + ":create");
-			//if(timePassed_ > 59999)GeneralLogWriter.log(timePassed_ + ":" + ID + ":create");
+			//GeneralLogWriter.log(engine_.getTimePassed() + ":" + ID + ":create");
+			//if(engine_.getTimePassed() > 59999)GeneralLogWriter.log(engine_.getTimePassed() + ":" + ID + ":create");
 			createdSources++;
-			next = new KnownEventSource(vehicle, ID, x, y, speed, timePassed_, isFake);
+			next = new KnownEventSource(vehicle, ID, x, y, speed, engine_.getTimePassed(), isFake);
 			next.setNext(head_[hash]);
 			next.setPrevious(null);
 			if(head_[hash] != null) head_[hash].setPrevious(next);
@@ -137,15 +142,6 @@ public class KnownEventSourcesList{
 		return size_;
 	}
 	
-	/**
-	 * Sets the time passed since simulation start.
-	 * 
-	 * @param time the new time in milliseconds
-	 */
-	public static void setTimePassed(int time){
-		timePassed_ = time;
-	}
-	
 
 
 	public int getUpdatedSources() {
@@ -230,4 +226,56 @@ public class KnownEventSourcesList{
 	public void setSpamCount(int spamCount) {
 		this.spamCount = spamCount;
 	}
+	
+	/**
+	 * Writes all event sources and counters to a checkpoint. The order inside the linked lists is kept.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		KnownEventSource next;
+		int count;
+		for(int i = 0; i < HASH_SIZE; ++i){
+			count = 0;
+			for(next = head_[i]; next != null; next = next.getNext()) ++count;
+			out.writeInt(count);
+			for(next = head_[i]; next != null; next = next.getNext()) next.writeCheckpoint(out);
+		}
+		out.writeInt(updatedSources);
+		out.writeInt(createdSources);
+		out.writeInt(timeBetweenUpdates);
+		out.writeInt(spamCount);
+	}
+	
+	/**
+	 * Replaces all event sources and counters with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		KnownEventSource previous, next;
+		int count;
+		head_ = new KnownEventSource[HASH_SIZE];
+		size_ = 0;
+		for(int i = 0; i < HASH_SIZE; ++i){
+			count = in.readInt();
+			previous = null;
+			for(int j = 0; j < count; ++j){
+				next = KnownEventSource.readCheckpoint(in);
+				next.setPrevious(previous);
+				if(previous == null) head_[i] = next;
+				else previous.setNext(next);
+				previous = next;
+			}
+			size_ += count;
+		}
+		updatedSources = in.readInt();
+		createdSources = in.readInt();
+		timeBetweenUpdates = in.readInt();
+		spamCount = in.readInt();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.scenario;
+
+import java.io.IOException;
+
+import vanetsim.scenario.messages.Message;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+
+/**
+ * The copy of a message a vehicle or RSU holds for forwarding. The message itself is immutable and shared by all
+ * vehicles and RSUs which received it. Everything which may differ from hop to hop (like the flooding mode) is
+ * stored here. Objects of this class never leave the <code>KnownMessages</code> they belong to so that they can be reused.
+ */
+public final class KnownMessage{
+
+	/** Flag returned by <code>checkReceivedMessage()</code> if the receiver shall store its copy in flooding mode. */
+	public static final int RECEIVED_FLOODING = 1;
+
+	/** Flag returned by <code>checkReceivedMessage()</code> if the receiver shall forward the message. */
+	public static final int RECEIVED_FORWARD = 2;
+
+	/** The shared message. */
+	private Message message_;
+
+	/** If flooding mode is enabled on this copy. <code>true</code> if flooding of this message to all vehicles is done,
+	 * <code>false</code> if line-forwarding is done */
+	private boolean floodingMode_;
+
+	/** How many hops the message travelled until it arrived here. */
+	private int hops_;
+
+	/**
+	 * Instantiates a new known message.
+	 *
+	 * @param message		the shared message
+	 * @param floodingMode	<code>true</code> if this copy is in flooding mode, <code>false</code> if line-forwarding is done
+	 * @param hops			how many hops the message travelled until it arrived here
+	 */
+	public KnownMessage(Message message, boolean floodingMode, int hops){
+		message_ = message;
+		floodingMode_ = floodingMode;
+		hops_ = hops;
+	}
+
+	/**
+	 * Reinitializes this object so that it can be reused for another message.
+	 *
+	 * @param message		the shared message
+	 * @param floodingMode	<code>true</code> if this copy is in flooding mode, <code>false</code> if line-forwarding is done
+	 * @param hops			how many hops the message travelled until it arrived here
+	 */
+	void reset(Message message, boolean floodingMode, int hops){
+		message_ = message;
+		floodingMode_ = floodingMode;
+		hops_ = hops;
+	}
+
+	/**
+	 * Gets the shared message.
+	 *
+	 * @return the message
+	 */
+	public Message getMessage(){
+		return message_;
+	}
+
+	/**
+	 * Returns if flooding mode is enabled on this copy.
+	 *
+	 * @return <code>true</code> if flooding of this message to all vehicles is done,
+	 * <code>false</code> if line-forwarding is done
+	 */
+	public boolean getFloodingMode(){
+		return floodingMode_;
+	}
+
+	/**
+	 * Gets how many hops the message travelled until it arrived here.
+	 *
+	 * @return the amount of hops (<code>0</code> if the message was created here)
+	 */
+	public int getHops(){
+		return hops_;
+	}
+
+	/**
+	 * Writes this copy to a checkpoint.
+	 *
+	 * @param out	the stream to write to
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	void writeCheckpoint(CheckpointOutput out) throws IOException{
+		Message.writeCheckpoint(out, message_);
+		out.writeBoolean(floodingMode_);
+		out.writeInt(hops_);
+	}
+
+	/**
+	 * Reads a copy written with {@link #writeCheckpoint(CheckpointOutput)}.
+	 *
+	 * @param in	the stream to read from
+	 *
+	 * @return the copy
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	static KnownMessage readCheckpoint(CheckpointInput in) throws IOException{
+		return new KnownMessage(Message.readCheckpoint(in), in.readBoolean(), in.readInt());
+	}
+}
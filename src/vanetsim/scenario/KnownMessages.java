@@ -18,8 +18,12 @@
 package vanetsim.scenario;
 
 
-import vanetsim.gui.Renderer;
+import java.io.IOException;
+
 import vanetsim.scenario.messages.Message;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationEngine;
 
 /**
  * This class stores various messages in multiple separate arrays:
@@ -31,6 +35,8 @@ import vanetsim.scenario.messages.Message;
  * </ul>
  * The arrays are not resized on every operation. Deletion of an element only changes the corresponding 
  * size variable, addition only leads to a larger array if there's not enough space left.
+ * Messages are shared between all vehicles and RSUs. The own copies which shall be forwarded are stored as 
+ * <code>KnownMessage</code> objects which are reused after they have been forwarded or dropped.
  */
 public class KnownMessages{
 	
@@ -41,8 +47,8 @@ public class KnownMessages{
 	/** The timeout for an old message in milliseconds. After this time it will get deleted. */
 	private static final int MAX_OLD_TIME = 5000;
 	
-	/** A reference to the renderer */
-	private static final Renderer renderer_ = Renderer.getInstance();
+	/** A reference to the simulation engine of the context these known messages belong to. */
+	private final SimulationEngine engine_ = SimulationEngine.getInstance();
 	
 	/** The vehicle this data structure belongs to. */
 	private final Vehicle vehicle_;
@@ -54,13 +60,13 @@ public class KnownMessages{
 	private int executeMessageSize_ = 0;
 	
 	/** Messages which were received but are not sent out yet. */
-	private Message[] unprocessedMessages_;
+	private KnownMessage[] unprocessedMessages_;
 	
 	/** The size of the unprocessed messages. */
 	private int unprocessedMessageSize = 0;
 	
 	/** Messages which shall be forwarded to other vehicles. */
-	private Message[] forwardMessages_;
+	private KnownMessage[] forwardMessages_;
 	
 	/** The size of the messages which will shall be forwarded. */
 	private int forwardMessageSize_ = 0;
@@ -77,6 +83,12 @@ public class KnownMessages{
 	/** An array to store when an old messages arrived. */
 	private int[] oldMessageArrivalTime_;
 	
+	/** Copies which are not used anymore and may be reused. */
+	private KnownMessage[] freeCopies_;
+	
+	/** The size of the free copies. */
+	private int freeCopiesSize_ = 0;
+	
 	/** How many forward messages were deleted because they could not be forwarded within time. */
 	private int failedToForwardCount_ = 0;
 	
@@ -91,31 +103,61 @@ public class KnownMessages{
 	public KnownMessages(Vehicle vehicle){
 		vehicle_ = vehicle;
 		executeMessages_ = new Message[2];
-		unprocessedMessages_ = new Message[2];
-		forwardMessages_ = new Message[2];
+		unprocessedMessages_ = new KnownMessage[2];
+		forwardMessages_ = new KnownMessage[2];
 		forwardArrivalTime_ = new int[2];
 		oldMessages_ = new Message[2];
 		oldMessageArrivalTime_ = new int[2];
+		freeCopies_ = new KnownMessage[2];
 	}
 	
 	public KnownMessages(){
 		vehicle_ = null;
 		executeMessages_ = new Message[2];
-		unprocessedMessages_ = new Message[2];
-		forwardMessages_ = new Message[2];
+		unprocessedMessages_ = new KnownMessage[2];
+		forwardMessages_ = new KnownMessage[2];
 		forwardArrivalTime_ = new int[2];
 		oldMessages_ = new Message[2];
 		oldMessageArrivalTime_ = new int[2];
+		freeCopies_ = new KnownMessage[2];
+	}
+	
+	/**
+	 * Adds a message which was created here.
+	 * 
+	 * @param message		the message
+	 * @param floodingMode	<code>true</code> if the own copy shall be in flooding mode, <code>false</code> for line-forwarding
+	 * @param doExecute		<code>true</code> if you want the message to be executed, else <code>false</code>
+	 * @param doForward 	<code>true</code> if you want the message to be forwarded, else <code>false</code>
+	 */
+	public synchronized void addMessage(Message message, boolean floodingMode, boolean doExecute, boolean doForward){
+		addMessageUnsynchronized(message, floodingMode, 0, doExecute, doForward);
 	}
 	
 	/**
 	 * Adds a message.
 	 * 
-	 * @param message	the message
-	 * @param doExecute	<code>true</code> if you want the message to be executed, else <code>false</code>
-	 * @param doForward <code>true</code> if you want the message to be forwarded, else <code>false</code>
+	 * @param message		the message
+	 * @param floodingMode	<code>true</code> if the own copy shall be in flooding mode, <code>false</code> for line-forwarding
+	 * @param hops			how many hops the message travelled until it arrived here
+	 * @param doExecute		<code>true</code> if you want the message to be executed, else <code>false</code>
+	 * @param doForward 	<code>true</code> if you want the message to be forwarded, else <code>false</code>
 	 */
-	public synchronized void addMessage(Message message, boolean doExecute, boolean doForward){
+	public synchronized void addMessage(Message message, boolean floodingMode, int hops, boolean doExecute, boolean doForward){
+		addMessageUnsynchronized(message, floodingMode, hops, doExecute, doForward);
+	}
+	
+	/**
+	 * !!!Adds a message. Note that this function is not synchronized! You need to make
+	 * sure that no other thread uses any function on this object at the same time!
+	 * 
+	 * @param message		the message
+	 * @param floodingMode	<code>true</code> if the own copy shall be in flooding mode, <code>false</code> for line-forwarding
+	 * @param hops			how many hops the message travelled until it arrived here
+	 * @param doExecute		<code>true</code> if you want the message to be executed, else <code>false</code>
+	 * @param doForward 	<code>true</code> if you want the message to be forwarded, else <code>false</code>
+	 */
+	public void addMessageUnsynchronized(Message message, boolean floodingMode, int hops, boolean doExecute, boolean doForward){
 		boolean foundExecute = false;
 		boolean foundForward = false;
 		
@@ -141,7 +183,7 @@ public class KnownMessages{
 		
 		if(doForward && !foundForward){
 			for(i = 0; i < forwardMessageSize_; ++i){
-				if(forwardMessages_[i] == message){
+				if(forwardMessages_[i].getMessage() == message){
 					foundForward = true;
 					break;
 				}
@@ -150,7 +192,7 @@ public class KnownMessages{
 		
 		if(doForward && !foundForward){
 			for(i = 0; i < unprocessedMessageSize; ++i){
-				if(unprocessedMessages_[i] == message){
+				if(unprocessedMessages_[i].getMessage() == message){
 					foundForward = true;
 					break;
 				}
@@ -173,18 +215,41 @@ public class KnownMessages{
 		if(doForward && !foundForward){
 			hasNewMessages_ = true;
 			// add to unprocessed messages
+			KnownMessage copy;
+			if(freeCopiesSize_ > 0){	// reuse an old copy
+				--freeCopiesSize_;
+				copy = freeCopies_[freeCopiesSize_];
+				freeCopies_[freeCopiesSize_] = null;
+				copy.reset(message, floodingMode, hops);
+			} else copy = new KnownMessage(message, floodingMode, hops);
 			if(unprocessedMessageSize < unprocessedMessages_.length){	// array is still large enough that we may use the space
-				unprocessedMessages_[unprocessedMessageSize] = message;
+				unprocessedMessages_[unprocessedMessageSize] = copy;
 			} else {	// create larger arrays and insert element
-				Message[] newArray = new Message[unprocessedMessageSize + 2];
+				KnownMessage[] newArray = new KnownMessage[unprocessedMessageSize + 2];
 				System.arraycopy (unprocessedMessages_,0,newArray,0,unprocessedMessageSize);
-				newArray[unprocessedMessageSize] = message;
+				newArray[unprocessedMessageSize] = copy;
 				unprocessedMessages_ = newArray;
 			}
 			++unprocessedMessageSize;
 		}
 	}
 	
+	/**
+	 * Stores a copy which is not used anymore so that it can be reused.
+	 * 
+	 * @param copy	the copy
+	 */
+	private void recycleCopy(KnownMessage copy){
+		copy.reset(null, false, 0);	// don't prevent garbage collection of the message
+		if(freeCopiesSize_ == freeCopies_.length){	//need to resize
+			KnownMessage[] newArray = new KnownMessage[freeCopiesSize_ + 4];
+			System.arraycopy(freeCopies_,0,newArray,0,freeCopiesSize_);
+			freeCopies_ = newArray;
+		}
+		freeCopies_[freeCopiesSize_] = copy;
+		++freeCopiesSize_;
+	}
+	
 	/**
 	 * Deletes a forward message and optionally adds it to the old messages.
 	 * 
@@ -203,10 +268,11 @@ public class KnownMessages{
 					if(oldMessageSize_ > 0) System.arraycopy(oldMessageArrivalTime_,0,newArray2,0,oldMessageSize_);
 					oldMessageArrivalTime_ = newArray2;				
 				}
-				oldMessages_[oldMessageSize_] = forwardMessages_[position];
-				oldMessageArrivalTime_[oldMessageSize_] = renderer_.getTimePassed();
+				oldMessages_[oldMessageSize_] = forwardMessages_[position].getMessage();
+				oldMessageArrivalTime_[oldMessageSize_] = engine_.getTimePassed();
 				++oldMessageSize_;
 			}
+			recycleCopy(forwardMessages_[position]);
 			// dont' really remove but just change size and copy leftwards
 			--forwardMessageSize_;
 			System.arraycopy(forwardMessages_,position+1,forwardMessages_,position,forwardMessageSize_-position);
@@ -222,21 +288,24 @@ public class KnownMessages{
 	public synchronized void deleteAllForwardMessages(boolean addToOld){
 		if(addToOld){
 			if(oldMessageSize_ + forwardMessageSize_ > oldMessages_.length){	//need to resize
-				Message[] newArray = new Message[oldMessageSize_ + 3];
+				Message[] newArray = new Message[oldMessageSize_ + forwardMessageSize_ + 3];
 				if(oldMessageSize_ > 0) System.arraycopy(oldMessages_,0,newArray,0,oldMessageSize_);
 				oldMessages_ = newArray;
 			
-				int[] newArray2 = new int[oldMessageSize_ + 3];
+				int[] newArray2 = new int[oldMessageSize_ + forwardMessageSize_ + 3];
 				if(oldMessageSize_ > 0) System.arraycopy(oldMessageArrivalTime_,0,newArray2,0,oldMessageSize_);
 				oldMessageArrivalTime_ = newArray2;				
 			}
-			System.arraycopy(forwardMessages_,0,oldMessages_,oldMessageSize_,forwardMessageSize_);
-			int time = renderer_.getTimePassed();
-			for(int i = oldMessageSize_ + forwardMessageSize_ - 1; i >= oldMessageSize_; --i){
-				oldMessageArrivalTime_[i] = time;
+			int time = engine_.getTimePassed();
+			for(int i = 0; i < forwardMessageSize_; ++i){
+				oldMessages_[oldMessageSize_ + i] = forwardMessages_[i].getMessage();
+				oldMessageArrivalTime_[oldMessageSize_ + i] = time;
 			}
 			oldMessageSize_ += forwardMessageSize_;
 		}
+		for(int i = 0; i < forwardMessageSize_; ++i){
+			recycleCopy(forwardMessages_[i]);
+		}
 		forwardMessageSize_ = 0;
 	}
 	
@@ -248,7 +317,7 @@ public class KnownMessages{
 	public synchronized void deleteAllFloodingForwardMessages(boolean addToOld){
 		Message[] newArray;
 		int[] newArray2;
-		int time = renderer_.getTimePassed();
+		int time = engine_.getTimePassed();
 		for(int i = forwardMessageSize_ - 1; i > -1; --i){
 			if(forwardMessages_[i].getFloodingMode()){
 				if(addToOld){
@@ -261,10 +330,11 @@ public class KnownMessages{
 						if(oldMessageSize_ > 0) System.arraycopy(oldMessageArrivalTime_,0,newArray2,0,oldMessageSize_);
 						oldMessageArrivalTime_ = newArray2;				
 					}
-					oldMessages_[oldMessageSize_] = forwardMessages_[i];
+					oldMessages_[oldMessageSize_] = forwardMessages_[i].getMessage();
 					oldMessageArrivalTime_[oldMessageSize_] = time;
 					++oldMessageSize_;
 				}
+				recycleCopy(forwardMessages_[i]);
 				// don't remove. just copy everything 1 step leftwards
 				--forwardMessageSize_;
 				System.arraycopy(forwardMessages_,i+1,forwardMessages_,i,forwardMessageSize_-i);
@@ -287,7 +357,7 @@ public class KnownMessages{
 		
 		if(unprocessedMessageSize > 0){
 			if(unprocessedMessageSize + forwardMessageSize_ > forwardMessages_.length){	//need to resize
-				Message[] newArray = new Message[unprocessedMessageSize + forwardMessageSize_ + 2];
+				KnownMessage[] newArray = new KnownMessage[unprocessedMessageSize + forwardMessageSize_ + 2];
 				if(forwardMessageSize_ > 0) System.arraycopy(forwardMessages_,0,newArray,0,forwardMessageSize_);
 				forwardMessages_ = newArray;
 			
@@ -298,7 +368,7 @@ public class KnownMessages{
 			// copy unprocessedMessages_ at end of forwardMessages_
 			System.arraycopy(unprocessedMessages_,0,forwardMessages_,forwardMessageSize_,unprocessedMessageSize);
 				
-			int time = renderer_.getTimePassed();
+			int time = engine_.getTimePassed();
 			for(int i = forwardMessageSize_ + unprocessedMessageSize - 1; i >= forwardMessageSize_; --i){
 				forwardArrivalTime_[i] = time;
 			}
@@ -316,10 +386,10 @@ public class KnownMessages{
 	 * @param addToOld	<code>true</code> to add all to outdated forward messages to the old messages, else <code>false</code>
 	 */
 	public void checkOutdatedMessages(boolean addToOld){
-		int timeout = renderer_.getTimePassed() - MAX_FORWARD_TIME;
+		int timeout = engine_.getTimePassed() - MAX_FORWARD_TIME;
 		// Check forward messages for outdated entries		
 		for(int i = forwardMessageSize_ - 1; i > -1; --i){		// going backwards because it's easier for deletion!
-			if(forwardArrivalTime_[i] < timeout || !forwardMessages_[i].isValid()){
+			if(forwardArrivalTime_[i] < timeout || !forwardMessages_[i].getMessage().isValid()){
 				if(addToOld){
 					if(oldMessageSize_ + 1 > oldMessages_.length){	//need to resize
 						Message[] newArray = new Message[oldMessageSize_ + 3];
@@ -330,10 +400,11 @@ public class KnownMessages{
 						if(oldMessageSize_ > 0) System.arraycopy(oldMessageArrivalTime_,0,newArray2,0,oldMessageSize_);
 						oldMessageArrivalTime_ = newArray2;				
 					}
-					oldMessages_[oldMessageSize_] = forwardMessages_[i];
-					oldMessageArrivalTime_[oldMessageSize_] = renderer_.getTimePassed();
+					oldMessages_[oldMessageSize_] = forwardMessages_[i].getMessage();
+					oldMessageArrivalTime_[oldMessageSize_] = engine_.getTimePassed();
 					++oldMessageSize_;
 				}				
+				recycleCopy(forwardMessages_[i]);
 				
 				--forwardMessageSize_;
 				System.arraycopy(forwardMessages_,i+1,forwardMessages_,i,forwardMessageSize_-i);
@@ -343,7 +414,7 @@ public class KnownMessages{
 			}
 		}
 		
-		timeout = renderer_.getTimePassed() - MAX_OLD_TIME;
+		timeout = engine_.getTimePassed() - MAX_OLD_TIME;
 		// Check old messages for outdated entries
 		for(int i = oldMessageSize_ - 1; i > -1; --i){		// going backwards because it's easier for deletion!
 			if(oldMessageArrivalTime_[i] < timeout  || !oldMessages_[i].isValid()){
@@ -355,12 +426,12 @@ public class KnownMessages{
 	}	
 	
 	/**
-	 * Gets all messages which shall be forwarded. Note that there might be garbage at the end so
+	 * Gets the own copies of all messages which shall be forwarded. Note that there might be garbage at the end so
 	 * use the getSize()-methode to get the real size!
 	 * 
 	 * @return the array with all messages
 	 */
-	public Message[] getForwardMessages(){
+	public KnownMessage[] getForwardMessages(){
 		return forwardMessages_;
 	}
 	
@@ -405,15 +476,81 @@ public class KnownMessages{
 	public void clear(){
 		executeMessages_ = new Message[2];
 		executeMessageSize_ = 0;
-		unprocessedMessages_ = new Message[2];
+		unprocessedMessages_ = new KnownMessage[2];
 		unprocessedMessageSize = 0;
-		forwardMessages_ = new Message[2];
+		forwardMessages_ = new KnownMessage[2];
 		forwardMessageSize_ = 0;
 		forwardArrivalTime_ = new int[2];
 		oldMessages_ = new Message[2];
 		oldMessageSize_ = 0;
 		oldMessageArrivalTime_ = new int[2];
+		freeCopies_ = new KnownMessage[2];
+		freeCopiesSize_ = 0;
 		failedToForwardCount_ = 0;
 		hasNewMessages_ = false;
 	}
+	
+	/**
+	 * Writes all messages to a checkpoint. The free copies are not written, only their amount.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		int i;
+		out.writeInt(executeMessageSize_);
+		for(i = 0; i < executeMessageSize_; ++i) Message.writeCheckpoint(out, executeMessages_[i]);
+		out.writeInt(unprocessedMessageSize);
+		for(i = 0; i < unprocessedMessageSize; ++i) unprocessedMessages_[i].writeCheckpoint(out);
+		out.writeInt(forwardMessageSize_);
+		for(i = 0; i < forwardMessageSize_; ++i){
+			forwardMessages_[i].writeCheckpoint(out);
+			out.writeInt(forwardArrivalTime_[i]);
+		}
+		out.writeInt(oldMessageSize_);
+		for(i = 0; i < oldMessageSize_; ++i){
+			Message.writeCheckpoint(out, oldMessages_[i]);
+			out.writeInt(oldMessageArrivalTime_[i]);
+		}
+		out.writeInt(freeCopiesSize_);
+		out.writeInt(failedToForwardCount_);
+		out.writeBoolean(hasNewMessages_);
+	}
+	
+	/**
+	 * Replaces all messages with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		int i;
+		executeMessageSize_ = in.readInt();
+		executeMessages_ = new Message[Math.max(2, executeMessageSize_)];
+		for(i = 0; i < executeMessageSize_; ++i) executeMessages_[i] = Message.readCheckpoint(in);
+		unprocessedMessageSize = in.readInt();
+		unprocessedMessages_ = new KnownMessage[Math.max(2, unprocessedMessageSize)];
+		for(i = 0; i < unprocessedMessageSize; ++i) unprocessedMessages_[i] = KnownMessage.readCheckpoint(in);
+		forwardMessageSize_ = in.readInt();
+		forwardMessages_ = new KnownMessage[Math.max(2, forwardMessageSize_)];
+		forwardArrivalTime_ = new int[forwardMessages_.length];
+		for(i = 0; i < forwardMessageSize_; ++i){
+			forwardMessages_[i] = KnownMessage.readCheckpoint(in);
+			forwardArrivalTime_[i] = in.readInt();
+		}
+		oldMessageSize_ = in.readInt();
+		oldMessages_ = new Message[Math.max(2, oldMessageSize_)];
+		oldMessageArrivalTime_ = new int[oldMessages_.length];
+		for(i = 0; i < oldMessageSize_; ++i){
+			oldMessages_[i] = Message.readCheckpoint(in);
+			oldMessageArrivalTime_[i] = in.readInt();
+		}
+		freeCopiesSize_ = in.readInt();
+		freeCopies_ = new KnownMessage[Math.max(2, freeCopiesSize_)];
+		for(i = 0; i < freeCopiesSize_; ++i) freeCopies_[i] = new KnownMessage(null, false, 0);
+		failedToForwardCount_ = in.readInt();
+		hasNewMessages_ = in.readBoolean();
+	}
 }
\ No newline at end of file
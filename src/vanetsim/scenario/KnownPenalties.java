@@ -18,24 +18,45 @@
 package vanetsim.scenario;
 
 
-import vanetsim.gui.Renderer;
+import java.io.IOException;
+import java.util.HashMap;
+
 import vanetsim.gui.helpers.EventLogWriter;
 import vanetsim.map.Street;
 import vanetsim.scenario.events.EventList;
 import vanetsim.scenario.events.StartBlocking;
 import vanetsim.scenario.events.StopBlocking;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationConfig;
+import vanetsim.simulation.SimulationEngine;
 
 /**
  * Stores all known penalties for streets. The streets are stored together with their direction and a penalty
  * in cm. Arrays are directly used here (in contrast to the KnownVehiclesList) as this allows easier and faster
  * usage in the routing algorithm. Extensibility is not a major concern here.
  * <br><br>
+ * All penalties on the same street are chained together and the first one of each street can be found through
+ * a small hash table indexed by the ID of the street. This way, an existing penalty can be found without
+ * checking all others and the routing algorithm can iterate over the penalties of one street with
+ * {@link #getFirstPenaltyIndex(Street)} and {@link #getNextPenaltyIndex(int)}. As street IDs are reset when a new 
+ * map is created, streets with the same ID share a chain, so entries are always matched against the street itself.
+ * <br><br>
  * Note for developers: You need to make sure, that all used arrays always have the same size!
  */
 public class KnownPenalties{
 
+	/** The penalty types known so far together with their ordinal. */
+	private static final HashMap<String, Integer> PENALTY_TYPES = new HashMap<String, Integer>();
+	
+	/** Marks an empty bucket in the hash table. */
+	private static final int EMPTY_BUCKET = Integer.MIN_VALUE;
+
 	/** The vehicle this data structure belongs to. */
 	private final Vehicle vehicle_;
+	
+	/** A reference to the configuration of the simulation context this data structure belongs to. */
+	private final SimulationConfig config_ = SimulationConfig.getInstance();
 
 	/** The streets which have penalties. */
 	private Street[] streets_;
@@ -56,6 +77,21 @@ public class KnownPenalties{
 	/** Type of penalty message */
 	private String[] penaltyType_;
 	
+	/** The ordinal of the type of penalty message (see {@link #getPenaltyTypeOrdinal(String)}). */
+	private int[] penaltyTypeOrdinals_;
+	
+	/** The index of the next penalty on the same street or <code>-1</code> if it's the last one. */
+	private int[] nextOnStreet_;
+	
+	/** The hash table with the IDs of the streets which have penalties. Empty buckets are marked with <code>EMPTY_BUCKET</code>. */
+	private int[] hashStreetIDs_;
+	
+	/** The index of the first penalty of the street in the same bucket of <code>hashStreetIDs_</code>. */
+	private int[] hashFirst_;
+	
+	/** How many buckets of the hash table are used. */
+	private int hashUsed_ = 0;
+	
 	/** An array to store if a route update is necessary if this route is removed */
 	private boolean[] routeUpdateNecessary_;
 
@@ -71,13 +107,7 @@ public class KnownPenalties{
 	/** The lane */
 	private int lane_[];
 	
-	/** if events should be logged */
-	private static boolean logEvents_ = false;
-	
 	private Vehicle[] penaltySourceVehicle_;
-
-	/** Alert if spamming */
-	private static boolean spamCheck_ = false;
 	
 	/**
 	 * Constructor.
@@ -86,18 +116,23 @@ public class KnownPenalties{
 	 */
 	public KnownPenalties(Vehicle vehicle){
 		vehicle_ = vehicle;
-		// just presize so that resizing isn't needed that often
-		streets_ = new Street[2];
-		directions_ = new int[2];
-		penalties_ = new int[2];
-		validUntil_ = new int[2];
-		routeUpdateNecessary_ = new boolean[2];
-		isFake_ = new boolean[2];
-		penaltyType_ = new String[2];
-		x_ = new int[2];
-		y_ = new int[2];
-		lane_ = new int[2];
-		penaltySourceVehicle_ = new Vehicle[2];
+		clear();
+	}
+	
+	/**
+	 * Gets the ordinal of a penalty type. Each different type gets its own ordinal the first time it is used.
+	 * 
+	 * @param penaltyType	the type of the penalty
+	 * 
+	 * @return the ordinal
+	 */
+	public static synchronized int getPenaltyTypeOrdinal(String penaltyType){
+		Integer ordinal = PENALTY_TYPES.get(penaltyType);
+		if(ordinal == null){
+			ordinal = Integer.valueOf(PENALTY_TYPES.size());
+			PENALTY_TYPES.put(penaltyType, ordinal);
+		}
+		return ordinal.intValue();
 	}
 
 	/**
@@ -109,14 +144,16 @@ public class KnownPenalties{
 	 * 						both directions and <code>-1</code> means from startNode to endNode
 	 * @param penalty		the penalty in cm
 	 * @param validUntil	how long this entry will be valid. Measured in milliseconds from simulation start
+	 * @param penaltyType	the type of the penalty
+	 * @param penaltyTypeOrdinal	the ordinal of <code>penaltyType</code> (see {@link #getPenaltyTypeOrdinal(String)})
 	 */
-	public synchronized void updatePenalty(int x, int y, Street street, int lane, int direction, int penalty, int validUntil, boolean isFake, String penaltyType, long ID, Vehicle penaltySourceVehicle, boolean emergencyVehicle, boolean createBlocking){
+	public synchronized void updatePenalty(int x, int y, Street street, int lane, int direction, int penalty, int validUntil, boolean isFake, String penaltyType, int penaltyTypeOrdinal, long ID, Vehicle penaltySourceVehicle, boolean emergencyVehicle, boolean createBlocking){
 		boolean found = false;
 		boolean activateIDS = false;
 		boolean otherPenaltyValue = false;
 		boolean reallySamePenalty = false;
 		
-		if(spamCheck_){
+		if(config_.isPenaltySpamCheck()){
 			//spam check. Please use fake vehicle with eebl messages to measure the spam.
 			if(penaltyType.equals("HUANG_EEBL")){
 				vehicle_.getKnownEventSourcesList_().update(penaltySourceVehicle, ID, 0, 0, 0, false);
@@ -124,96 +161,52 @@ public class KnownPenalties{
 		}
 
 
-		for(int i = 0; i < streets_.length; ++i){
-			if(streets_[i] == street && directions_[i] == direction && isFake_[i] == isFake && penaltyType_[i] == penaltyType){	// update existing value
-				found = true;
-				if(penalties_[i] != penalty) otherPenaltyValue = true;
-				//if(penaltyType_[i] != penaltyType) otherPenaltyValue = true;
-				penalties_[i] = penalty;
-				validUntil_[i] = validUntil;
-				isFake_[i] = isFake;
-				penaltyType_[i] = penaltyType;
-				
-				if(x_[i] == x && y_[i] == y)reallySamePenalty = true;
-				break;
+		int index = -1;
+		int streetKey = getStreetKey(street);
+		int bucket = findBucket(streetKey);
+		if(hashStreetIDs_[bucket] != EMPTY_BUCKET){
+			for(int i = hashFirst_[bucket]; i > -1; i = nextOnStreet_[i]){
+				if(streets_[i] == street && directions_[i] == direction && isFake_[i] == isFake && penaltyTypeOrdinals_[i] == penaltyTypeOrdinal){	// update existing value
+					found = true;
+					index = i;
+					if(penalties_[i] != penalty) otherPenaltyValue = true;
+					//if(penaltyType_[i] != penaltyType) otherPenaltyValue = true;
+					penalties_[i] = penalty;
+					validUntil_[i] = validUntil;
+					isFake_[i] = isFake;
+					penaltyType_[i] = penaltyType;
+					
+					if(x_[i] == x && y_[i] == y)reallySamePenalty = true;
+					break;
+				}
 			}
 		}
 
 		if(!found){		
-			if(size < streets_.length){	// arrays are still large enough
-				streets_[size] = street;
-				directions_[size] = direction;
-				penalties_[size] = penalty;
-				validUntil_[size] = validUntil;
-				isFake_[size] = isFake;
-				penaltyType_[size] = penaltyType;
-				x_[size] = x;
-				y_[size] = y;
-				penaltySourceVehicle_[size] = penaltySourceVehicle;
+			if(size == streets_.length) ensureCapacity(size * 2);	// create larger arrays
+			index = size;
+			streets_[index] = street;
+			directions_[index] = direction;
+			penalties_[index] = penalty;
+			validUntil_[index] = validUntil;
+			routeUpdateNecessary_[index] = false;
+			isFake_[index] = isFake;
+			penaltyType_[index] = penaltyType;
+			penaltyTypeOrdinals_[index] = penaltyTypeOrdinal;
+			x_[index] = x;
+			y_[index] = y;
+			lane_[index] = lane;
+			penaltySourceVehicle_[index] = penaltySourceVehicle;
+			// put in front of the chain of its street
+			if(hashStreetIDs_[bucket] == EMPTY_BUCKET){
+				hashStreetIDs_[bucket] = streetKey;
+				nextOnStreet_[index] = -1;
+				hashFirst_[bucket] = index;
+				++hashUsed_;
+				if(hashUsed_ * 2 > hashStreetIDs_.length) rehash(hashStreetIDs_.length * 2);
 			} else {
-				// create larger arrays and insert element
-				Street[] newArray = new Street[size + 2];
-				System.arraycopy (streets_,0,newArray,0,size);
-				newArray[size] = street;
-				streets_ = newArray;
-
-				int[] newArray2 = new int[size + 2];
-				System.arraycopy (directions_,0,newArray2,0,size);
-				newArray2[size] = direction;
-				directions_ = newArray2;
-
-				newArray2 = new int[size + 2];
-				System.arraycopy (penalties_,0,newArray2,0,size);
-				newArray2[size] = penalty;
-				penalties_ = newArray2; 
-
-				newArray2 = new int[size + 2];
-				System.arraycopy (validUntil_,0,newArray2,0,size);
-				newArray2[size] = validUntil;
-				validUntil_ = newArray2;
-				
-				newArray2 = new int[size + 2];
-				System.arraycopy (x_,0,newArray2,0,size);
-				newArray2[size] = x;
-				x_ = newArray2;
-				
-				newArray2 = new int[size + 2];
-				System.arraycopy (y_,0,newArray2,0,size);
-				newArray2[size] = y;
-				y_ = newArray2;
-				
-				newArray2 = new int[size + 2];
-				System.arraycopy (lane_,0,newArray2,0,size);
-				newArray2[size] = lane;
-				lane_ = newArray2;
-				
-				String[] newArray4 = new String[size + 2];
-				System.arraycopy (penaltyType_,0,newArray4,0,size);
-				newArray4[size] = penaltyType;
-				penaltyType_ = newArray4;
-						
-				
-				boolean[] newArray3 = new boolean[size + 2];
-				System.arraycopy (newArray3,0,newArray3,0,size);
-				newArray3[size] = false;
-				routeUpdateNecessary_ = newArray3;
-				
-				/*
-				boolean[] newArray3 = new boolean[size + 2];
-				System.arraycopy (routeUpdateNecessary_,0,newArray3,0,size);
-				newArray3[size] = false;
-				routeUpdateNecessary_ = newArray3;
-				*/
-				
-				newArray3 = new boolean[size + 2];
-				System.arraycopy (isFake_,0,newArray3,0,size);
-				newArray3[size] = isFake;
-				isFake_ = newArray3;
-				
-				Vehicle[] newArray5 = new Vehicle[size + 2];
-				System.arraycopy (penaltySourceVehicle_,0,newArray5,0,size);
-				newArray5[size] = penaltySourceVehicle;
-				penaltySourceVehicle_ = newArray5;
+				nextOnStreet_[index] = hashFirst_[bucket];
+				hashFirst_[bucket] = index;
 			}
 			++size;			
 		}
@@ -222,8 +215,8 @@ public class KnownPenalties{
 		if(!found || (otherPenaltyValue && !reallySamePenalty)){	
 			
 			boolean ruleActive = false;
-			if(IDSProcessor.getActiveRules_() != null){
-				for(int j = 0; j < IDSProcessor.getActiveRules_().length;j++)if(IDSProcessor.getActiveRules_()[j].equals(penaltyType)){
+			if(config_.getActiveRules() != null){
+				for(int j = 0; j < config_.getActiveRules().length;j++)if(config_.getActiveRules()[j].equals(penaltyType)){
 					ruleActive = true;
 				}
 			}
@@ -232,11 +225,11 @@ public class KnownPenalties{
 			//log data
 			
 			//** change event logger to do k-means analysis
-			if(logEvents_) EventLogWriter.log(Renderer.getInstance().getTimePassed() + "," + penaltyType + "," + x + "," + y + "," + ID + "," + vehicle_.getID());
+			if(config_.isPenaltyEventsLogged()) EventLogWriter.logPenalty(SimulationEngine.getInstance().getTimePassed(), penaltyType, x, y, ID, vehicle_.getID());
 
-			//if(logEvents_) EventLogWriter.log(Renderer.getInstance().getTimePassed() + ":PenaltyType:" + penaltyType + ":x:" + x + ":y:" + y + ":Sender:" + ID + ":Receiver:" + vehicle_.getID());
+			//if(logEvents_) EventLogWriter.log(SimulationEngine.getInstance().getTimePassed() + ":PenaltyType:" + penaltyType + ":x:" + x + ":y:" + y + ":Sender:" + ID + ":Receiver:" + vehicle_.getID());
 			//lets check if it is a false message
-			if(Vehicle.isIdsActivated() && ruleActive){
+			if(config_.isIdsActivated() && ruleActive){
 				if(vehicle_.getID() != ID){
 					if(penaltyType.equals("EVA_EMERGENCY_ID")) 	{
 						activateIDS = vehicle_.getIdsProcessorList_().createIDSProcessor(vehicle_, vehicle_.getID(), ID, x, y, street, direction, penaltySourceVehicle, penaltyType, isFake, emergencyVehicle, createBlocking, true);
@@ -285,7 +278,7 @@ public class KnownPenalties{
 						}				
 					}
 					if(found){
-						routeUpdateNecessary_[size-1] = true;
+						routeUpdateNecessary_[index] = true;
 						vehicle_.calculateRoute(true, true);
 					}
 					
@@ -293,25 +286,25 @@ public class KnownPenalties{
 					//long tmp1 = street.getStartNode().getX() - x;
 				//	long tmp2 = street.getStartNode().getY() - y;
 				//	for(int j = 1; j <= street.getLanesCount(); ++j){
-					//	if(createBlocking)vehicle_.getTmpBlockings().add(new BlockingObject(j, direction < 1 ? true : false, street, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), penaltyType, (Renderer.getInstance().getTimePassed() + 10000)));
+					//	if(createBlocking)vehicle_.getTmpBlockings().add(new BlockingObject(j, direction < 1 ? true : false, street, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), penaltyType, (SimulationEngine.getInstance().getTimePassed() + 10000)));
 				//	}
 				}
 				
 			}	
 			if(found && penaltyType.equals("HUANG_RHCN")  && !vehicle_.isFakingMessages() && vehicle_.getID() != ID){
-				if(!Vehicle.isIdsActivated() || !activateIDS){
+				if(!config_.isIdsActivated() || !activateIDS){
 					//long tmp1 = street.getStartNode().getX() - x;
 					//long tmp2 = street.getStartNode().getY() - y;
 					
 					
 					try{
-						StartBlocking start = new StartBlocking(Renderer.getInstance().getTimePassed(), x_[0], y_[0], direction, 20, false, "HUANG_RHCN");
+						StartBlocking start = new StartBlocking(SimulationEngine.getInstance().getTimePassed(), x_[0], y_[0], direction, 20, false, "HUANG_RHCN");
 						EventList.getInstance().addEvent(start); //$NON-NLS-1$	
-						EventList.getInstance().addEvent(new StopBlocking(Renderer.getInstance().getTimePassed() + 10000, x_[0], y_[0], start)); //$NON-NLS-1$
+						EventList.getInstance().addEvent(new StopBlocking(SimulationEngine.getInstance().getTimePassed() + 10000, x_[0], y_[0], start)); //$NON-NLS-1$
 					}
 					catch(Exception e){e.printStackTrace();}
 					//for(int j = 1; j <= street.getLanesCount(); ++j){
-					//	vehicle_.getTmpBlockings().add(new BlockingObject(j, direction < 1 ? true : false, street, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), penaltyType, (Renderer.getInstance().getTimePassed() + 10000), x_[0], y_[0]));
+					//	vehicle_.getTmpBlockings().add(new BlockingObject(j, direction < 1 ? true : false, street, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), penaltyType, (SimulationEngine.getInstance().getTimePassed() + 10000), x_[0], y_[0]));
 					//}
 
 				}
@@ -319,20 +312,20 @@ public class KnownPenalties{
 				
 			}	
 			if(found && penaltyType.equals("HUANG_EEBL") && !vehicle_.isFakingMessages() && vehicle_.getID() != ID){
-				if(!Vehicle.isIdsActivated() || !activateIDS){
+				if(!config_.isIdsActivated() || !activateIDS){
 					//braking not needing because the event spot handles this now
 					/*
 					long tmp1 = street.getStartNode().getX() - x;
 					long tmp2 = street.getStartNode().getY() - y;
 				
 					try{
-						StartBlocking start = new StartBlocking(Renderer.getInstance().getTimePassed(), x_[0], y_[0], direction, lane_[0], false, "HUANG_EEBL");
+						StartBlocking start = new StartBlocking(SimulationEngine.getInstance().getTimePassed(), x_[0], y_[0], direction, lane_[0], false, "HUANG_EEBL");
 						EventList.getInstance().addEvent(start); //$NON-NLS-1$	
-						EventList.getInstance().addEvent(new StopBlocking(Renderer.getInstance().getTimePassed() + 2000, x_[0], y_[0], start)); //$NON-NLS-1$
+						EventList.getInstance().addEvent(new StopBlocking(SimulationEngine.getInstance().getTimePassed() + 2000, x_[0], y_[0], start)); //$NON-NLS-1$
 					}
 					catch(Exception e){e.printStackTrace();}
 					*/
-					//vehicle_.getTmpBlockings().add(new BlockingObject(lane, direction < 1 ? true : false, street, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), penaltyType, (Renderer.getInstance().getTimePassed() + 2000), x_[0], y_[0]));
+					//vehicle_.getTmpBlockings().add(new BlockingObject(lane, direction < 1 ? true : false, street, Math.sqrt(tmp1 * tmp1 + tmp2 * tmp2), penaltyType, (SimulationEngine.getInstance().getTimePassed() + 2000), x_[0], y_[0]));
 				}
 			}
 		}
@@ -344,29 +337,13 @@ public class KnownPenalties{
 	 * sure that no other thread uses any function on this object at the same time!
 	 */
 	public void checkValidUntil(){
-		int timeout = Renderer.getInstance().getTimePassed();
+		int timeout = SimulationEngine.getInstance().getTimePassed();
 		boolean updateRoute = false;
-		for(int i = size - 1; i > -1; --i){	// going backwards because it's easier for deletion!
+		for(int i = size - 1; i > -1; --i){	// going backwards because the last entry which gets moved on deletion has already been checked!
 			if(validUntil_[i] < timeout){
 				// check if route might be affected if we remove this
 				if(routeUpdateNecessary_[i]) updateRoute = true;
-
-
-				// Don't really remove. Just make the size smaller and copy everything to the front. The data left is some kind of garbage
-				// but that doesn't matter...
-				--size;
-				
-				System.arraycopy(streets_,i+1,streets_,i,size-i);
-				System.arraycopy(directions_,i+1,directions_,i,size-i);
-				System.arraycopy(penalties_,i+1,penalties_,i,size-i);
-				System.arraycopy(validUntil_,i+1,validUntil_,i,size-i);
-				System.arraycopy(routeUpdateNecessary_,i+1,routeUpdateNecessary_,i,size-i);
-				System.arraycopy(isFake_,i+1,isFake_,i,size-i);
-				System.arraycopy(penaltyType_,i+1,penaltyType_,i,size-i);
-				System.arraycopy(x_,i+1,x_,i,size-i);
-				System.arraycopy(y_,i+1,y_,i,size-i);
-				System.arraycopy(lane_,i+1,lane_,i,size-i);		
-				System.arraycopy(penaltySourceVehicle_,i+1,penaltySourceVehicle_,i,size-i);	
+				removePenalty(i);
 			}
 		}
 		// if one was removed, a recalculation is necessary
@@ -376,6 +353,214 @@ public class KnownPenalties{
 
 	}
 	
+	/**
+	 * Removes a penalty by moving the last one into its place. Note that this function is not synchronized!
+	 * 
+	 * @param index	the index of the penalty to remove
+	 */
+	private void removePenalty(int index){
+		// remove from the chain of its street
+		int bucket = findBucket(getStreetKey(streets_[index]));
+		if(hashFirst_[bucket] == index){
+			if(nextOnStreet_[index] == -1) deleteBucket(bucket);
+			else hashFirst_[bucket] = nextOnStreet_[index];
+		} else {
+			int previous = hashFirst_[bucket];
+			while(nextOnStreet_[previous] != index) previous = nextOnStreet_[previous];
+			nextOnStreet_[previous] = nextOnStreet_[index];
+		}
+		--size;
+		if(index != size){
+			// let the chain of the last penalty point to its new place
+			bucket = findBucket(getStreetKey(streets_[size]));
+			if(hashFirst_[bucket] == size) hashFirst_[bucket] = index;
+			else {
+				int previous = hashFirst_[bucket];
+				while(nextOnStreet_[previous] != size) previous = nextOnStreet_[previous];
+				nextOnStreet_[previous] = index;
+			}
+			streets_[index] = streets_[size];
+			directions_[index] = directions_[size];
+			penalties_[index] = penalties_[size];
+			validUntil_[index] = validUntil_[size];
+			routeUpdateNecessary_[index] = routeUpdateNecessary_[size];
+			isFake_[index] = isFake_[size];
+			penaltyType_[index] = penaltyType_[size];
+			penaltyTypeOrdinals_[index] = penaltyTypeOrdinals_[size];
+			x_[index] = x_[size];
+			y_[index] = y_[size];
+			lane_[index] = lane_[size];
+			penaltySourceVehicle_[index] = penaltySourceVehicle_[size];
+			nextOnStreet_[index] = nextOnStreet_[size];
+		}
+		// don't prevent garbage collection
+		streets_[size] = null;
+		penaltyType_[size] = null;
+		penaltySourceVehicle_[size] = null;
+	}
+	
+	/**
+	 * Enlarges all arrays.
+	 * 
+	 * @param capacity	the new size of the arrays
+	 */
+	private void ensureCapacity(int capacity){
+		Street[] newStreets = new Street[capacity];
+		System.arraycopy (streets_,0,newStreets,0,size);
+		streets_ = newStreets;
+		directions_ = copyOf(directions_, capacity);
+		penalties_ = copyOf(penalties_, capacity);
+		validUntil_ = copyOf(validUntil_, capacity);
+		penaltyTypeOrdinals_ = copyOf(penaltyTypeOrdinals_, capacity);
+		x_ = copyOf(x_, capacity);
+		y_ = copyOf(y_, capacity);
+		lane_ = copyOf(lane_, capacity);
+		nextOnStreet_ = copyOf(nextOnStreet_, capacity);
+		boolean[] newBooleans = new boolean[capacity];
+		System.arraycopy (routeUpdateNecessary_,0,newBooleans,0,size);
+		routeUpdateNecessary_ = newBooleans;
+		newBooleans = new boolean[capacity];
+		System.arraycopy (isFake_,0,newBooleans,0,size);
+		isFake_ = newBooleans;
+		String[] newStrings = new String[capacity];
+		System.arraycopy (penaltyType_,0,newStrings,0,size);
+		penaltyType_ = newStrings;
+		Vehicle[] newVehicles = new Vehicle[capacity];
+		System.arraycopy (penaltySourceVehicle_,0,newVehicles,0,size);
+		penaltySourceVehicle_ = newVehicles;
+	}
+	
+	/**
+	 * Copies the used part of an array into a larger one.
+	 * 
+	 * @param array		the array
+	 * @param capacity	the size of the new array
+	 * 
+	 * @return the new array
+	 */
+	private int[] copyOf(int[] array, int capacity){
+		int[] newArray = new int[capacity];
+		System.arraycopy (array,0,newArray,0,size);
+		return newArray;
+	}
+	
+	/**
+	 * Gets the key used in the hash table for a street.
+	 * 
+	 * @param street	the street (may be <code>null</code>)
+	 * 
+	 * @return the key
+	 */
+	private static int getStreetKey(Street street){
+		if(street == null) return -1;
+		else return street.getStreetID();
+	}
+	
+	/**
+	 * Gets the bucket in which the search for a street key starts.
+	 * 
+	 * @param streetKey	the key of the street
+	 * 
+	 * @return the bucket
+	 */
+	private int getHomeBucket(int streetKey){
+		int hash = streetKey * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & (hashStreetIDs_.length - 1);
+	}
+	
+	/**
+	 * Finds the bucket of a street key. If the street has no penalties, the empty bucket where it would be
+	 * inserted is returned.
+	 * 
+	 * @param streetKey	the key of the street
+	 * 
+	 * @return the bucket
+	 */
+	private int findBucket(int streetKey){
+		int mask = hashStreetIDs_.length - 1;
+		int bucket = getHomeBucket(streetKey);
+		while(hashStreetIDs_[bucket] != EMPTY_BUCKET && hashStreetIDs_[bucket] != streetKey) bucket = (bucket + 1) & mask;
+		return bucket;
+	}
+	
+	/**
+	 * Deletes a bucket from the hash table. All following entries which would not be found anymore are moved back.
+	 * 
+	 * @param bucket	the bucket to delete
+	 */
+	private void deleteBucket(int bucket){
+		int mask = hashStreetIDs_.length - 1;
+		int next = bucket, home;
+		while(true){
+			next = (next + 1) & mask;
+			if(hashStreetIDs_[next] == EMPTY_BUCKET) break;
+			home = getHomeBucket(hashStreetIDs_[next]);
+			// skip if the entry would still be found (its home bucket lies cyclically in (bucket, next])
+			if(bucket <= next ? (bucket < home && home <= next) : (bucket < home || home <= next)) continue;
+			hashStreetIDs_[bucket] = hashStreetIDs_[next];
+			hashFirst_[bucket] = hashFirst_[next];
+			bucket = next;
+		}
+		hashStreetIDs_[bucket] = EMPTY_BUCKET;
+		--hashUsed_;
+	}
+	
+	/**
+	 * Creates a larger hash table and puts all streets in it again.
+	 * 
+	 * @param length	the new size of the hash table (needs to be a power of 2)
+	 */
+	private void rehash(int length){
+		int[] oldStreetIDs = hashStreetIDs_;
+		int[] oldFirst = hashFirst_;
+		hashStreetIDs_ = new int[length];
+		hashFirst_ = new int[length];
+		for(int i = 0; i < length; ++i) hashStreetIDs_[i] = EMPTY_BUCKET;
+		int bucket;
+		for(int i = 0; i < oldStreetIDs.length; ++i){
+			if(oldStreetIDs[i] != EMPTY_BUCKET){
+				bucket = findBucket(oldStreetIDs[i]);
+				hashStreetIDs_[bucket] = oldStreetIDs[i];
+				hashFirst_[bucket] = oldFirst[i];
+			}
+		}
+	}
+	
+	/**
+	 * Gets the index of the first penalty on a street. Use this together with {@link #getNextPenaltyIndex(int)} to iterate 
+	 * over all penalties of a street and {@link #getDirections()} and {@link #getPenalties()} to get the values. 
+	 * Note that this function is not synchronized! You need to make sure that no other thread changes this object 
+	 * while iterating!
+	 * 
+	 * @param street	the street
+	 * 
+	 * @return the index of the first penalty or <code>-1</code> if there's no penalty on this street
+	 */
+	public int getFirstPenaltyIndex(Street street){
+		if(size == 0) return -1;
+		int bucket = findBucket(getStreetKey(street));
+		if(hashStreetIDs_[bucket] == EMPTY_BUCKET) return -1;
+		int index = hashFirst_[bucket];
+		while(index > -1 && streets_[index] != street) index = nextOnStreet_[index];	// skip streets which only have the same ID
+		return index;
+	}
+	
+	/**
+	 * Gets the index of the next penalty on the same street.
+	 * 
+	 * @param index	the index of the current penalty
+	 * 
+	 * @return the index of the next penalty or <code>-1</code> if there's no more penalty on this street
+	 * 
+	 * @see #getFirstPenaltyIndex(Street)
+	 */
+	public int getNextPenaltyIndex(int index){
+		Street street = streets_[index];
+		index = nextOnStreet_[index];
+		while(index > -1 && streets_[index] != street) index = nextOnStreet_[index];	// skip streets which only have the same ID
+		return index;
+	}
+	
 	/**
 	 * tests if a vehicle has to move out of the way because of a emergency vehicle approaching. (tests the next 4 streets)
 	 */
@@ -469,14 +654,14 @@ public class KnownPenalties{
 	 * @return the logEvents_
 	 */
 	public static boolean isLogEvents_() {
-		return logEvents_;
+		return SimulationConfig.getInstance().isPenaltyEventsLogged();
 	}
 
 	/**
 	 * @param logEvents_ the logEvents_ to set
 	 */
 	public static void setLogEvents_(boolean logEvents) {
-		logEvents_ = logEvents;
+		SimulationConfig.getInstance().setPenaltyEventsLogged(logEvents);
 	}
 
 	public Vehicle getVehicle_() {
@@ -493,11 +678,11 @@ public class KnownPenalties{
 
 
 	public static boolean isSpamcheck() {
-		return spamCheck_;
+		return SimulationConfig.getInstance().isPenaltySpamCheck();
 	}
 
 	public static void setSpamCheck_(boolean spamCheck_) {
-		KnownPenalties.spamCheck_ = spamCheck_;
+		SimulationConfig.getInstance().setPenaltySpamCheck(spamCheck_);
 	}
 
 	/**
@@ -511,10 +696,72 @@ public class KnownPenalties{
 		routeUpdateNecessary_ = new boolean[2];
 		isFake_ = new boolean[2];
 		penaltyType_ = new String[2];
+		penaltyTypeOrdinals_ = new int[2];
 		size = 0;
 		x_ = new int[2];
 		y_ = new int[2];
 		lane_ = new int[2];
 		penaltySourceVehicle_ = new Vehicle[2];
+		nextOnStreet_ = new int[2];
+		hashStreetIDs_ = new int[4];
+		hashFirst_ = new int[4];
+		for(int i = 0; i < 4; ++i) hashStreetIDs_[i] = EMPTY_BUCKET;
+		hashUsed_ = 0;
+	}
+	
+	/**
+	 * Writes all penalties to a checkpoint. The arrays are written as they are so that the hash of the streets doesn't 
+	 * need to be rebuilt.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeInt(size);
+		out.writeStreetArray(streets_);
+		out.writeIntArray(directions_);
+		out.writeIntArray(penalties_);
+		out.writeIntArray(validUntil_);
+		out.writeBooleanArray(routeUpdateNecessary_);
+		out.writeBooleanArray(isFake_);
+		out.writeStringArray(penaltyType_);
+		out.writeIntArray(x_);
+		out.writeIntArray(y_);
+		out.writeIntArray(lane_);
+		out.writeVehicleArray(penaltySourceVehicle_);
+		out.writeIntArray(nextOnStreet_);
+		out.writeIntArray(hashStreetIDs_);
+		out.writeIntArray(hashFirst_);
+		out.writeInt(hashUsed_);
+	}
+	
+	/**
+	 * Replaces all penalties with the ones from a checkpoint. The ordinals of the penalty types are looked up again as 
+	 * they depend on the order in which the types were first used.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		size = in.readInt();
+		streets_ = in.readStreetArray();
+		directions_ = in.readIntArray();
+		penalties_ = in.readIntArray();
+		validUntil_ = in.readIntArray();
+		routeUpdateNecessary_ = in.readBooleanArray();
+		isFake_ = in.readBooleanArray();
+		penaltyType_ = in.readStringArray();
+		x_ = in.readIntArray();
+		y_ = in.readIntArray();
+		lane_ = in.readIntArray();
+		penaltySourceVehicle_ = in.readVehicleArray();
+		nextOnStreet_ = in.readIntArray();
+		hashStreetIDs_ = in.readIntArray();
+		hashFirst_ = in.readIntArray();
+		hashUsed_ = in.readInt();
+		penaltyTypeOrdinals_ = new int[penaltyType_.length];
+		for(int i = 0; i < size; ++i) penaltyTypeOrdinals_[i] = getPenaltyTypeOrdinal(penaltyType_[i]);
 	}
 }
\ No newline at end of file
@@ -17,6 +17,11 @@
  */
 package vanetsim.scenario;
 
+import java.io.IOException;
+
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+
 /**
  * A known RSU (discovered by receiving a beacon). The variables represent what is known and might
  * differ from the real ones if it hasn't been updated for some time!
@@ -186,4 +191,35 @@ public class KnownRSU{
 	public void setEncrypted(boolean isEncrypted) {
 		this.isEncrypted_ = isEncrypted;
 	}
+	
+	
+	/**
+	 * Writes this known RSU to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeRSU(rsu_);
+		out.writeLong(ID_);
+		out.writeInt(x_);
+		out.writeInt(y_);
+		out.writeBoolean(isEncrypted_);
+		out.writeInt(lastUpdate_);
+	}
+	
+	
+	/**
+	 * Reads a known RSU written with {@link #writeCheckpoint(CheckpointOutput)}.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @return the known RSU
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	static KnownRSU readCheckpoint(CheckpointInput in) throws IOException{
+		return new KnownRSU(in.readRSU(), in.readLong(), in.readInt(), in.readInt(), in.readBoolean(), in.readInt());
+	}
 }
\ No newline at end of file
@@ -17,8 +17,15 @@
  */
 package vanetsim.scenario;
 
-import vanetsim.gui.Renderer;
+
+import java.io.IOException;
+
 import vanetsim.gui.helpers.AttackLogWriter;
+import vanetsim.gui.helpers.BinaryLogFormat;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationEngine;
+import vanetsim.simulation.SimulationMaster;
 
 /**
  * A list of all known Road-Side-Units which was discovered through beacons. In contrast to the KnownPenalties-
@@ -38,8 +45,8 @@ public class KnownRSUsList{
 	/** How many hash buckets will be used. Increase if you expect lots of known RSUs! */
 	private static final int HASH_SIZE = 16;
 	
-	/** How much time has passed since beginning of the simulation. Stored here as it's really needed often. */
-	private static int timePassed_ = 0;
+	/** The simulation engine of the context this list belongs to. Its clock is really needed often. */
+	private final SimulationEngine engine_ = SimulationEngine.getInstance();
 	
 	/** The array with all heads of the linked lists */
 	private KnownRSU[] head_ = new KnownRSU[HASH_SIZE];
@@ -75,7 +82,7 @@ public class KnownRSUsList{
 				next.setX(x);
 				next.setY(y);
 				next.setEncrypted(isEncrypted);
-				next.setLastUpdate(timePassed_+VALID_TIME);
+				next.setLastUpdate(engine_.getTimePassed()+VALID_TIME);
 				found = true;
 				break;
 			}
@@ -83,15 +90,28 @@ public class KnownRSUsList{
 		}					
 		
 		if(!found){
-			next = new KnownRSU(rsu, ID, x, y, isEncrypted, timePassed_);
-			next.setNext(head_[hash]);
-			next.setPrevious(null);
-			if(head_[hash] != null) head_[hash].setPrevious(next);
-			head_[hash] = next;
+			next = new KnownRSU(rsu, ID, x, y, isEncrypted, engine_.getTimePassed());
+			if(SimulationMaster.isDeterministicMode()){	// sort by ID as the order of the beacons depends on the worker threads
+				KnownRSU previous = null, following = head_[hash];
+				while(following != null && following.getID() < ID){
+					previous = following;
+					following = following.getNext();
+				}
+				next.setNext(following);
+				next.setPrevious(previous);
+				if(following != null) following.setPrevious(next);
+				if(previous == null) head_[hash] = next;
+				else previous.setNext(next);
+			} else {
+				next.setNext(head_[hash]);
+				next.setPrevious(null);
+				if(head_[hash] != null) head_[hash].setPrevious(next);
+				head_[hash] = next;
+			}
 			++size_;
 		}
 		
-		AttackLogWriter.log(Renderer.getInstance().getTimePassed() + ":Any RSU Communication:" + rsu.getRSUID() + ":Any-Vehicle Data:" + Long.toHexString(ID) + ":" +  x + ":" +  y + ":" + isEncrypted);
+		AttackLogWriter.logRSUData(SimulationEngine.getInstance().getTimePassed(), rsu.getRSUID(), ID, x, y, isEncrypted);
 	}
 	
 	/**
@@ -99,7 +119,7 @@ public class KnownRSUsList{
 	 * sure that no other thread uses any function on this object at the same time!
 	 */
 	public void checkOutdatedRSUs(){
-		int timeout = timePassed_ - VALID_TIME;
+		int timeout = engine_.getTimePassed() - VALID_TIME;
 		KnownRSU next;
 		for(int i = 0; i < HASH_SIZE; ++i){
 			next = head_[i];
@@ -157,6 +177,25 @@ public class KnownRSUsList{
 		else return null;
 	}
 	
+	/**
+	 * Checks if a RSU is known. Note that this function is not synchronized! It may only be called by the thread which 
+	 * owns the vehicle of this list during the message phase, when no beacons are received.
+	 * 
+	 * @param rsu	the RSU
+	 * 
+	 * @return <code>true</code> if the RSU is in this list, else <code>false</code>
+	 */
+	public boolean contains(RSU rsu){
+		int hash = (int)(rsu.getRSUID() % HASH_SIZE);
+		if(hash < 0) hash = -hash;
+		KnownRSU next = head_[hash];
+		while(next != null){
+			if(next.getRSU() == rsu) return true;
+			next = next.getNext();
+		}
+		return false;
+	}
+	
 	/**
 	 * Gets an hashed array with known RSUs (array length depends on the HASH_SIZE). You can iterate through 
 	 * all known RSUs by using <code>getNext()</code> until you get to a <code>null</code> element on all 
@@ -178,19 +217,54 @@ public class KnownRSUsList{
 	}
 	
 	/**
-	 * Sets the time passed since simulation start.
+	 * Clears everything from this data structure.
+	 */
+	public void clear(){
+		head_ = new KnownRSU[HASH_SIZE];
+		size_ = 0;
+	}
+	
+	/**
+	 * Writes all known RSUs to a checkpoint. The order inside the linked lists is kept.
+	 * 
+	 * @param out	the stream to write to
 	 * 
-	 * @param time the new time in milliseconds
+	 * @throws IOException	if writing failed
 	 */
-	public static void setTimePassed(int time){
-		timePassed_ = time;
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		KnownRSU next;
+		int count;
+		for(int i = 0; i < HASH_SIZE; ++i){
+			count = 0;
+			for(next = head_[i]; next != null; next = next.getNext()) ++count;
+			out.writeInt(count);
+			for(next = head_[i]; next != null; next = next.getNext()) next.writeCheckpoint(out);
+		}
 	}
 	
 	/**
-	 * Clears everything from this data structure.
+	 * Replaces all known RSUs with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
 	 */
-	public void clear(){
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		KnownRSU previous, next;
+		int count;
 		head_ = new KnownRSU[HASH_SIZE];
 		size_ = 0;
+		for(int i = 0; i < HASH_SIZE; ++i){
+			count = in.readInt();
+			previous = null;
+			for(int j = 0; j < count; ++j){
+				next = KnownRSU.readCheckpoint(in);
+				next.setPrevious(previous);
+				if(previous == null) head_[i] = next;
+				else previous.setNext(next);
+				previous = next;
+			}
+			size_ += count;
+		}
 	}
 }
\ No newline at end of file
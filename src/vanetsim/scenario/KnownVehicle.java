@@ -18,6 +18,13 @@
 package vanetsim.scenario;
 
 
+import java.io.IOException;
+
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationConfig;
+
+
 /**
  * A known vehicle (discovered by receiving a beacon). The variables represent what is known and might
  * differ from the real ones if it hasn't been updated for some time!
@@ -66,12 +73,12 @@ public class KnownVehicle{
 	/** Array to save the n last lastUpdate for the IDS */
 	private int[] savedLastUpdate_;
 	
-	/** Amount of saved beacons (-1 == off) */
-	private static int amountOfSavedBeacons_ = 10;
-	
 	/** counter to fill the array */
 	private int arrayCounter = -1;
 	
+	/** Amount of saved beacons (-1 == off). Taken from the configuration when this known vehicle is created. */
+	private final int amountOfSavedBeacons_ = SimulationConfig.getInstance().getSavedBeaconsAmount();
+	
 	
 	/**
 	 * Instantiates a new known vehicle.
@@ -407,7 +414,7 @@ public class KnownVehicle{
 	 * @return the aMOUNT_OF_SAVED_BEACONS
 	 */
 	public static int getAmountOfSavedBeacons_() {
-		return amountOfSavedBeacons_;
+		return SimulationConfig.getInstance().getSavedBeaconsAmount();
 	}
 
 
@@ -415,7 +422,7 @@ public class KnownVehicle{
 	 * @param aMOUNT_OF_SAVED_BEACONS the aMOUNT_OF_SAVED_BEACONS to set
 	 */
 	public static void setAmountOfSavedBeacons(int amountOfSavedBeacons) {
-		amountOfSavedBeacons_ = amountOfSavedBeacons;
+		SimulationConfig.getInstance().setSavedBeaconsAmount(amountOfSavedBeacons);
 	}
 
 
@@ -440,5 +447,47 @@ public class KnownVehicle{
 	public int getFirstContact_() {
 		return firstContact_;
 	}
+	
+	/**
+	 * Writes this known vehicle to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeVehicle(vehicle_);
+		out.writeLong(ID_);
+		out.writeInt(x_);
+		out.writeInt(y_);
+		out.writeInt(lastUpdate_);
+		out.writeDouble(speed_);
+		out.writeBoolean(isEncrypted_);
+		out.writeInt(firstContact_);
+		out.writeIntArray(savedX_);
+		out.writeIntArray(savedY_);
+		out.writeDoubleArray(savedSpeed_);
+		out.writeIntArray(savedLastUpdate_);
+		out.writeInt(arrayCounter);
+	}
+	
+	/**
+	 * Reads a known vehicle written with {@link #writeCheckpoint(CheckpointOutput)}.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @return the known vehicle
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	static KnownVehicle readCheckpoint(CheckpointInput in) throws IOException{
+		KnownVehicle knownVehicle = new KnownVehicle(in.readVehicle(), in.readLong(), in.readInt(), in.readInt(), in.readInt(), in.readDouble(), in.readBoolean(), in.readInt());
+		knownVehicle.savedX_ = in.readIntArray();
+		knownVehicle.savedY_ = in.readIntArray();
+		knownVehicle.savedSpeed_ = in.readDoubleArray();
+		knownVehicle.savedLastUpdate_ = in.readIntArray();
+		knownVehicle.arrayCounter = in.readInt();
+		return knownVehicle;
+	}
 
 }
\ No newline at end of file
@@ -17,9 +17,16 @@
  */
 package vanetsim.scenario;
 
-import vanetsim.gui.Renderer;
+
+import java.io.IOException;
+
 import vanetsim.gui.helpers.AttackLogWriter;
+import vanetsim.gui.helpers.BinaryLogFormat;
 import vanetsim.gui.helpers.GeneralLogWriter;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationEngine;
+import vanetsim.simulation.SimulationMaster;
 
 /**
  * A list of all known vehicles which was discovered through beacons. In contrast to the KnownPenalties-
@@ -39,8 +46,8 @@ public class KnownVehiclesList{
 	/** How many hash buckets will be used. Increase if you expect lots of known vehicles! */
 	private static final int HASH_SIZE = 16;
 	
-	/** How much time has passed since beginning of the simulation. Stored here as it's really needed often. */
-	private static int timePassed_ = 0;
+	/** The simulation engine of the context this list belongs to. Its clock is really needed often. */
+	private final SimulationEngine engine_ = SimulationEngine.getInstance();
 	
 	/** The array with all heads of the linked lists */
 	private KnownVehicle[] head_ = new KnownVehicle[HASH_SIZE];
@@ -92,8 +99,8 @@ public class KnownVehiclesList{
 				
 				next.setX(x);
 				next.setY(y);
-				//next.setLastUpdate(timePassed_+VALID_TIME);
-				next.setLastUpdate(timePassed_);
+				//next.setLastUpdate(engine_.getTimePassed()+VALID_TIME);
+				next.setLastUpdate(engine_.getTimePassed());
 				next.setSpeed(speed);
 				next.setEncrypted_(isEncrypted);
 				
@@ -105,28 +112,41 @@ public class KnownVehiclesList{
 		}					
 		
 		if(!found){
-			next = new KnownVehicle(vehicle, ID, x, y, timePassed_ + VALID_TIME, speed, isEncrypted, timePassed_);
-			next.setNext(head_[hash]);
-			next.setPrevious(null);
-			if(head_[hash] != null) head_[hash].setPrevious(next);
-			head_[hash] = next;
+			next = new KnownVehicle(vehicle, ID, x, y, engine_.getTimePassed() + VALID_TIME, speed, isEncrypted, engine_.getTimePassed());
+			if(SimulationMaster.isDeterministicMode()){	// sort by ID as the order of the beacons depends on the worker threads
+				KnownVehicle previous = null, following = head_[hash];
+				while(following != null && following.getID() < ID){
+					previous = following;
+					following = following.getNext();
+				}
+				next.setNext(following);
+				next.setPrevious(previous);
+				if(following != null) following.setPrevious(next);
+				if(previous == null) head_[hash] = next;
+				else previous.setNext(next);
+			} else {
+				next.setNext(head_[hash]);
+				next.setPrevious(null);
+				if(head_[hash] != null) head_[hash].setPrevious(next);
+				head_[hash] = next;
+			}
 			++size_;
 		}
 		
 		if(Vehicle.isAttackerDataLogged_()){
-			if(Renderer.getInstance().getAttackerVehicle() != null && this.equals(Renderer.getInstance().getAttackerVehicle().getKnownVehiclesList()) && Vehicle.isAttackerDataLogged_()){
+			if(SimulationEngine.getInstance().getAttackerVehicle() != null && this.equals(SimulationEngine.getInstance().getAttackerVehicle().getKnownVehiclesList()) && Vehicle.isAttackerDataLogged_()){
 				if(!isEncrypted || (Vehicle.isAttackerEncryptedDataLogged_() && isEncrypted)){
 					if(isARSU){
-						if(Renderer.getInstance().getAttackedVehicle() != null && Renderer.getInstance().getAttackedVehicle().getID() == ID) AttackLogWriter.log(Renderer.getInstance().getTimePassed() + ":Source(Attacker-RSU):" + sourceID + ":Attacked-Vehicle Data:" + Long.toHexString(ID) + ":" +  x + ":" +  y + ":"+ speed + ":" + isEncrypted );
-						else AttackLogWriter.log(Renderer.getInstance().getTimePassed() + ":Source(Attacker-RSU):" + sourceID + ":Other-Vehicle Data:" + Long.toHexString(ID) + ":" +  x + ":" +  y + ":"+ speed + ":" + isEncrypted );
+						if(SimulationEngine.getInstance().getAttackedVehicle() != null && SimulationEngine.getInstance().getAttackedVehicle().getID() == ID) AttackLogWriter.logVehicleData(BinaryLogFormat.SOURCE_ATTACKER_RSU_ATTACKED, SimulationEngine.getInstance().getTimePassed(), sourceID, ID, x, y, speed, isEncrypted);
+						else AttackLogWriter.logVehicleData(BinaryLogFormat.SOURCE_ATTACKER_RSU_OTHER, SimulationEngine.getInstance().getTimePassed(), sourceID, ID, x, y, speed, isEncrypted);
 					}
 					
 					else{
-						if(Renderer.getInstance().getAttackedVehicle() != null && Renderer.getInstance().getAttackedVehicle().getID() == ID) AttackLogWriter.log(Renderer.getInstance().getTimePassed() + ":Source(Attacker):"+ Long.toHexString(sourceID) + ":Attacked-Vehicle-Data:" + Long.toHexString(ID) + ":" + x + ":" +  y + ":"+ speed + ":" + isEncrypted);
-						else AttackLogWriter.log(Renderer.getInstance().getTimePassed() + ":Source(Attacker):"+ Long.toHexString(sourceID) + ":Other-Vehicle-Data:" + Long.toHexString(ID) + ":" + x + ":" +  y + ":"+ speed + ":" + isEncrypted);
+						if(SimulationEngine.getInstance().getAttackedVehicle() != null && SimulationEngine.getInstance().getAttackedVehicle().getID() == ID) AttackLogWriter.logVehicleData(BinaryLogFormat.SOURCE_ATTACKER_ATTACKED, SimulationEngine.getInstance().getTimePassed(), sourceID, ID, x, y, speed, isEncrypted);
+						else AttackLogWriter.logVehicleData(BinaryLogFormat.SOURCE_ATTACKER_OTHER, SimulationEngine.getInstance().getTimePassed(), sourceID, ID, x, y, speed, isEncrypted);
 					}
 				}
-			}else AttackLogWriter.log(Renderer.getInstance().getTimePassed() + ":Any Communication:" + sourceID + ":Any-Vehicle Data:" + Long.toHexString(ID) + ":" +  x + ":" +  y + ":"+ speed + ":" + isEncrypted);
+			}else AttackLogWriter.logVehicleData(BinaryLogFormat.SOURCE_ANY, SimulationEngine.getInstance().getTimePassed(), sourceID, ID, x, y, speed, isEncrypted);
 		}
 
 	}
@@ -136,7 +156,7 @@ public class KnownVehiclesList{
 	 * sure that no other thread uses any function on this object at the same time!
 	 */
 	public void checkOutdatedVehicles(){
-		int timeout = timePassed_ - VALID_TIME;
+		int timeout = engine_.getTimePassed() - VALID_TIME;
 		KnownVehicle next;
 		for(int i = 0; i < HASH_SIZE; ++i){
 			next = head_[i];
@@ -335,15 +355,6 @@ public class KnownVehiclesList{
 		return size_;
 	}
 	
-	/**
-	 * Sets the time passed since simulation start.
-	 * 
-	 * @param time the new time in milliseconds
-	 */
-	public static void setTimePassed(int time){
-		timePassed_ = time;
-	}
-	
 	public static void setTimePerStep_(int timePerStep) {
 		timePerStep_ = timePerStep;
 	}
@@ -360,5 +371,51 @@ public class KnownVehiclesList{
 		size_ = 0;
 	}
 	
+	/**
+	 * Writes all known vehicles to a checkpoint. The order inside the linked lists is kept.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		KnownVehicle next;
+		int count;
+		for(int i = 0; i < HASH_SIZE; ++i){
+			count = 0;
+			for(next = head_[i]; next != null; next = next.getNext()) ++count;
+			out.writeInt(count);
+			for(next = head_[i]; next != null; next = next.getNext()) next.writeCheckpoint(out);
+		}
+		out.writeBoolean(logKnownTime);
+	}
+	
+	/**
+	 * Replaces all known vehicles with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		KnownVehicle previous, next;
+		int count;
+		head_ = new KnownVehicle[HASH_SIZE];
+		size_ = 0;
+		for(int i = 0; i < HASH_SIZE; ++i){
+			count = in.readInt();
+			previous = null;
+			for(int j = 0; j < count; ++j){
+				next = KnownVehicle.readCheckpoint(in);
+				next.setPrevious(previous);
+				if(previous == null) head_[i] = next;
+				else previous.setNext(next);
+				previous = next;
+			}
+			size_ += count;
+		}
+		logKnownTime = in.readBoolean();
+	}
+	
 
 }
\ No newline at end of file
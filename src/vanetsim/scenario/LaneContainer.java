@@ -17,6 +17,12 @@
  */
 package vanetsim.scenario;
 
+import java.io.IOException;
+
+import vanetsim.scenario.events.BlockingObject;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+
 /**
  * A LaneContainer contains all LaneObjects in one direction of a street. The objects may be on different lanes.
  * but they must all be in the same direction!<br>
@@ -100,7 +106,7 @@ public class LaneContainer{
 			++size_;
 		}
 		else if(mode.equals("updatePosition")){
-			object.curPosition_ = newPosition;
+			object.setCurPosition(newPosition);
 			if(size_ > 1){
 				LaneObject nextObject = object.getNext();
 				LaneObject prevObject = object.getPrevious();
@@ -264,7 +270,7 @@ public class LaneContainer{
 	 */
 	
 	public synchronized void updatePosition(LaneObject object, double newPosition){
-		object.curPosition_ = newPosition;
+		object.setCurPosition(newPosition);
 		if(size_ > 1){
 			LaneObject nextObject = object.getNext();
 			LaneObject prevObject = object.getPrevious();
@@ -412,4 +418,51 @@ public class LaneContainer{
 		tail_ = null;
 		size_ = 0;
 	}
+	
+	/**
+	 * Writes the order of the objects on this lane container to a checkpoint. Vehicles are written as reference,
+	 * blocking objects are written with their blocking event.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public synchronized void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeInt(size_);
+		for(LaneObject object = head_; object != null; object = object.getNext()){
+			if(object instanceof Vehicle){
+				out.writeBoolean(true);
+				out.writeVehicle((Vehicle) object);
+			} else {
+				out.writeBoolean(false);
+				BlockingObject.writeCheckpoint(out, (BlockingObject) object);
+			}
+		}
+	}
+	
+	/**
+	 * Replaces the objects on this lane container with the ones from a checkpoint. The objects are added in the order in
+	 * which they were written.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public synchronized void readCheckpoint(CheckpointInput in) throws IOException{
+		int size = in.readInt();
+		LaneObject object;
+		head_ = null;
+		tail_ = null;
+		for(int i = 0; i < size; ++i){
+			if(in.readBoolean()) object = in.readVehicle();
+			else object = BlockingObject.readCheckpoint(in);
+			if(object == null) throw new IOException("Invalid lane object"); //$NON-NLS-1$
+			object.setPrevious(tail_);
+			object.setNext(null);
+			if(tail_ == null) head_ = object;
+			else tail_.setNext(object);
+			tail_ = object;
+		}
+		size_ = size;
+	}
 }
\ No newline at end of file
@@ -17,13 +17,18 @@
  */
 package vanetsim.scenario;
 
+import java.io.IOException;
+
 import vanetsim.map.Street;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
 
 /**
  * This class represents an object which is on a lane of a street. Use this class as a base for all
- * object which are on a lane (for example with a vehicle).
+ * object which are on a lane (for example with a vehicle). The position and speed are stored by the subclasses
+ * (see {@link KinematicStore} for vehicles).
  */
-public class LaneObject{
+public abstract class LaneObject{
 	
 	/** Link to the previous object. */
 	protected LaneObject previous_;
@@ -31,95 +36,53 @@ public class LaneObject{
 	/** Link to the next object. */
 	protected LaneObject next_;
 	
-	/** The current X coordinate. */
-	protected int curX_;	
-	
-	/** The current Y coordinate. */
-	protected int curY_;
-	
-	/** The current speed measured in cm/s. */
-	protected double curSpeed_ = 0.0;
-	
-	/** The position on the street measured in cm from the startNode. */
-	protected double curPosition_;
-	
-	/** The current lane (1-n with n=lanecount of one side of the street). */
-	protected int curLane_ = 1;
-	
 	/** The street on which this vehicle currently moves. */
 	protected Street curStreet_;
 	
 	/** The direction of the object on the street.<br> <code>true</code> = moving from startNode to endNode<br> <code>false</code> = moving from endNode to startNode */
 	protected boolean curDirection_ = true;
 	
-	/**
-	 * Calculate position on map (curX and curY). Needed for rendering, communication and so on.
-	 */
-	protected void calculatePosition(){
-		double addX=0, addY=0;
-		double rightmost;
-		// calculate add factors
-		if(curStreet_.isOneway()){			
-			if(curStreet_.getLanesCount()%2 == 0) rightmost = curStreet_.getLanesCount()/2 + 0.5;	//note: division of first two integers does automatic "rounding"!
-			else rightmost = curStreet_.getLanesCount()/2 + 1;
-		} else rightmost = curStreet_.getLanesCount() + 0.5;
-		if(curDirection_){	//lane on right side
-			addX = curStreet_.getXFactor() * (rightmost - curLane_);
-			addY = curStreet_.getYFactor() * (rightmost - curLane_);
-		} else {	//lane on left side
-			addX = - curStreet_.getXFactor() * (rightmost - curLane_);
-			addY = - curStreet_.getYFactor() * (rightmost - curLane_);
-		}
-		// calculate position
-		double percentOnStreet = curPosition_ / curStreet_.getLength();
-		curX_ = (int) StrictMath.floor(0.5d + addX + curStreet_.getStartNode().getX() + ((curStreet_.getEndNode().getX() - curStreet_.getStartNode().getX())*percentOnStreet));
-		curY_ = (int) StrictMath.floor(0.5d + addY + curStreet_.getStartNode().getY() + ((curStreet_.getEndNode().getY() - curStreet_.getStartNode().getY())*percentOnStreet));
-	}
-	
 	/**
 	 * Gets the current x coordinate.
 	 * 
 	 * @return the current x coordinate
 	 */
-	public int getX() {
-		return curX_;
-	}
+	public abstract int getX();
 
 	/**
 	 * Gets the current y coordinate.
 	 * 
 	 * @return the current y coordinate
 	 */
-	public int getY() {
-		return curY_;
-	}
+	public abstract int getY();
 	
 	/**
 	 * Gets the current speed of this object.
 	 * 
 	 * @return the current speed in cm/s
 	 */
-	public int getCurSpeed(){
-		return (int)Math.round(curSpeed_);
-	}
+	public abstract int getCurSpeed();
 	
 	/**
 	 * Gets the current relative position of this object.
 	 * 
 	 * @return the current position measured in cm from startNode
 	 */
-	public double getCurPosition(){
-		return curPosition_;
-	}
+	public abstract double getCurPosition();
+	
+	/**
+	 * Sets the current relative position of this object. Only used by the lanes when the object is moved within them.
+	 * 
+	 * @param position	the position measured in cm from startNode
+	 */
+	protected abstract void setCurPosition(double position);
 	
 	/**
 	 * Gets the current lane.
 	 * 
 	 * @return the lane measured from the right side of the street
 	 */
-	public int getCurLane(){
-		return curLane_;
-	}
+	public abstract int getCurLane();
 	
 	/**
 	 * Gets the current street.
@@ -174,4 +137,29 @@ public class LaneObject{
 	public void setPrevious(LaneObject previous) {
 		previous_ = previous;
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * Writes the street and direction of this object to a checkpoint. The links to the previous and next object are not 
+	 * written as they are restored together with the lanes of the street.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	protected void writeLaneObject(CheckpointOutput out) throws IOException{
+		out.writeStreet(curStreet_);
+		out.writeBoolean(curDirection_);
+	}
+	
+	/**
+	 * Replaces the street and direction of this object with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	protected void readLaneObject(CheckpointInput in) throws IOException{
+		curStreet_ = in.readStreet();
+		curDirection_ = in.readBoolean();
+	}
+}
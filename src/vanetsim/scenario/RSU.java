@@ -18,48 +18,34 @@
 package vanetsim.scenario;
 
 import java.awt.Color;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.ArrayDeque;
 
 
-import vanetsim.gui.Renderer;
-import vanetsim.gui.controlpanels.ReportingControlPanel;
 import vanetsim.map.Node;
 import vanetsim.map.Region;
 import vanetsim.map.Street;
 import vanetsim.scenario.messages.Message;
+import vanetsim.scenario.messages.MessageOutbox;
 import vanetsim.map.Map;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationConfig;
+import vanetsim.simulation.SimulationEngine;
 
 
 /**
  * A Road-Side-Unit to send and receive WiFi signals.
  */
 
-public final class RSU {
+public final class RSU{
 	
-	/** A reference to the reporting control panel so that we don't need to call this over and over again. */
-	private static final ReportingControlPanel REPORT_PANEL = Vehicle.getREPORT_PANEL();
+	/** A reference to the map of the simulation context this RSU belongs to. */
+	private final Map map_ = Map.getInstance();
 	
-	/** A common counter to generate unique IDs */
-	private static int counter_ = 1;
-	
-	/** How long a Road-Side-Unit waits to communicate again (in milliseconds). Also used for cleaning up outdated known messages. */
-	private static int communicationInterval_ = Vehicle.getCommunicationInterval();
-
-	/** How long a Road-Side-Unit waits to send its beacons again. */
-	private static int beaconInterval_ = Vehicle.getBeaconInterval();
-	
-	/** If communication is enabled */
-	private static boolean communicationEnabled_ = Vehicle.getCommunicationEnabled();	
-
-	/** If beacons are enabled */
-	private static boolean beaconsEnabled_ = Vehicle.getBeaconsEnabled();
-	
-	/** A reference to the map so that we don't need to call this over and over again. */
-	private static final Map MAP = Map.getInstance();
-	
-	/** An array holding all regions of the map. */
-	private static Region[][] regions_;
+	/** A reference to the configuration of the simulation context this RSU belongs to. */
+	private final SimulationConfig config_ = SimulationConfig.getInstance();
 	
 	/** When known vehicles are rechecked for outdated entries. Measured in milliseconds. */
 	private static final int KNOWN_VEHICLES_TIMEOUT_CHECKINTERVAL = 1000;
@@ -112,8 +98,11 @@ public final class RSU {
 	/** A list of all vehicles currently known because of received beacons. */
 	private final KnownVehiclesList knownVehiclesList_ = new KnownVehiclesList();
 	
-	/** activates demonstration mode of encrypted Mix-Zones */
-	private static boolean showEncryptedBeaconsInMix_ = false;
+	/** The vehicles found by <code>findVehiclesInReach()</code>. Reused to prevent unnecessary object creation. */
+	private Vehicle[] vehiclesInReach_ = new Vehicle[16];
+	
+	/** The amount of vehicles found by <code>findVehiclesInReach()</code>. */
+	private int vehiclesInReachSize_ = 0;
 	
 	/** static array to save the colored vehicles that are behind the marked vehicle */
 	private Vehicle[] vehicleBehind_;
@@ -145,90 +134,130 @@ public final class RSU {
 		y_ = y;
 		wifiRadius_ = radius;
 		isEncrypted_ = isEncrypted;
-		rsuID_ = counter_;
-		++counter_;
+		rsuID_ = SimulationEngine.getInstance().getRSUIDCounter().getAndIncrement();
 		
 		//set the countdowns so that not all fire at the same time!
-		beaconCountdown_ = (int)Math.round(x_)%beaconInterval_;
-		communicationCountdown_ = (int)Math.round(x_)%communicationInterval_;
+		beaconCountdown_ = (int)Math.round(x_)%config_.getRSUBeaconInterval();
+		communicationCountdown_ = (int)Math.round(x_)%config_.getRSUCommunicationInterval();
 		knownVehiclesTimeoutCountdown_ = (int)Math.round(x_)%KNOWN_VEHICLES_TIMEOUT_CHECKINTERVAL;
 	}
 	
 	/**
 	 * send messages to all vehicles in reach. Uses broadcast, because vehicles cannot send beacons
-	 * to the RSUs(often to far away)
+	 * to the RSUs(often to far away). The messages are collected in the outbox of the calling worker thread.
+	 * 
+	 * @param outbox	the outbox of the worker thread
 	 */
-	public void sendMessages(){
-		communicationCountdown_ += communicationInterval_;
+	public void sendMessages(MessageOutbox outbox){
+		communicationCountdown_ += config_.getRSUCommunicationInterval();
 
-		Message[] messages = knownMessages_.getForwardMessages();
+		KnownMessage[] messages = knownMessages_.getForwardMessages();
 		int messageSize = knownMessages_.getSize();
 		
-		int i, j, k, size, MapMinX, MapMinY, MapMaxX, MapMaxY, RegionMinX, RegionMinY, RegionMaxX, RegionMaxY;
-		Vehicle[] vehicles = null;
-		Vehicle vehicle = null;
+		findVehiclesInReach();
+		Vehicle vehicle;
+		long maxCommDistanceSquared = (long)wifiRadius_ * wifiRadius_;
+		long dx, dy;
 
-		// Minimum x coordinate to be considered for sending beacons
+		int sendCount = vehiclesInReachSize_;
+		
+		for(int k = 0; k < vehiclesInReachSize_; ++k){
+			vehicle = vehiclesInReach_[k];
+			dx = vehicle.getX() - x_;
+			dy = vehicle.getY() - y_;
+			if((dx * dx + dy * dy) <= maxCommDistanceSquared){	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
+				for(int l = messageSize - 1; l > -1; --l){		
+					outbox.send(vehicle, x_, y_, messages[l]);
+				}
+			}
+		}
+		// all messages have been broadcasted, so they don't need to be forwarded again
+		if(sendCount > 0) knownMessages_.deleteAllForwardMessages(true);
+	}
+	
+
+	/**
+	 * Finds all active vehicles with WiFi enabled in the rectangle around this Road-Side-Unit (check is not exact as it's a 
+	 * rectangular box and not a circle) and stores them in <code>vehiclesInReach_</code>. Only the cells of the regions 
+	 * which are within the rectangle are checked. The regions need to have sorted their vehicles into cells in this step.
+	 */
+	private void findVehiclesInReach(){
+		int i, j, k, cellX, cellY, end, cellCountY, MapMinX, MapMinY, MapMaxX, MapMaxY, RegionMinX, RegionMinY, RegionMaxX, RegionMaxY, CellMinX, CellMinY, CellMaxX, CellMaxY;
+		Region region;
+		Vehicle[] vehicles;
+		int[] cellStart, vehiclesX, vehiclesY;
+		Vehicle vehicle;
+
+		// Minimum x coordinate to be considered
 		long tmp = x_ - wifiRadius_;
 		if (tmp < 0) MapMinX = 0;	// Map stores only positive coordinates
 		else if(tmp < Integer.MAX_VALUE) MapMinX = (int) tmp;
 		else MapMinX = Integer.MAX_VALUE;
 
-		// Maximum x coordinate to be considered for sending beacons
+		// Maximum x coordinate to be considered
 		tmp = x_ + (long)wifiRadius_;
 		if (tmp < 0) MapMaxX = 0;
 		else if(tmp < Integer.MAX_VALUE) MapMaxX = (int) tmp;
 		else MapMaxX = Integer.MAX_VALUE;
 
-		// Minimum y coordinate to be considered for sending beacons
+		// Minimum y coordinate to be considered
 		tmp = y_ - wifiRadius_;
 		if (tmp < 0) MapMinY = 0;
 		else if(tmp < Integer.MAX_VALUE) MapMinY = (int) tmp;
 		else MapMinY = Integer.MAX_VALUE;
 
-		// Maximum y coordinate to be considered for sending beacons
+		// Maximum y coordinate to be considered
 		tmp = y_ + (long)wifiRadius_;
 		if (tmp < 0) MapMaxY = 0;
 		else if(tmp < Integer.MAX_VALUE) MapMaxY = (int) tmp;
 		else MapMaxY = Integer.MAX_VALUE;
 
-		// Get the regions to be considered for sending beacons
-		Region tmpregion = MAP.getRegionOfPoint(MapMinX, MapMinY);
+		// Get the regions to be considered
+		Region tmpregion = map_.getRegionOfPoint(MapMinX, MapMinY);
 		RegionMinX = tmpregion.getX();
 		RegionMinY = tmpregion.getY();
 
-		tmpregion = MAP.getRegionOfPoint(MapMaxX, MapMaxY);
+		tmpregion = map_.getRegionOfPoint(MapMaxX, MapMaxY);
 		RegionMaxX = tmpregion.getX();
 		RegionMaxY = tmpregion.getY();
-		long maxCommDistanceSquared = (long)wifiRadius_ * wifiRadius_;
-		long dx, dy;
-
-		int sendCount = 0;
+		Region[][] regions = map_.getRegions();
+		
+		vehiclesInReachSize_ = 0;
 
-		// only iterate through those regions which are within the distance
+		// only iterate through those regions and cells which are within the distance
 		for(i = RegionMinX; i <= RegionMaxX; ++i){
 			for(j = RegionMinY; j <= RegionMaxY; ++j){
-				vehicles = regions_[i][j].getVehicleArray();	//use the array as it's MUCH faster!
-				size = vehicles.length;
-				for(k = 0; k < size; ++k){
-					vehicle = vehicles[k];
-					// precheck if the vehicle is near enough and valid (check is not exact as its a rectangular box and not circle)
-					if(vehicle.isWiFiEnabled() && vehicle.isActive() && vehicle.getX() >= MapMinX && vehicle.getX() <= MapMaxX && vehicle.getY() >= MapMinY && vehicle.getY() <= MapMaxY){
-						dx = vehicle.getX() - x_;
-						dy = vehicle.getY() - y_;
-						++sendCount;
-						if((dx * dx + dy * dy) <= maxCommDistanceSquared){	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
-							for(int l = messageSize - 1; l > -1; --l){		
-								vehicle.receiveMessage(x_, y_, messages[l]);
+				region = regions[i][j];
+				vehicles = region.getCellVehicles();
+				vehiclesX = region.getCellVehicleX();
+				vehiclesY = region.getCellVehicleY();
+				cellStart = region.getCellVehicleStart();
+				cellCountY = region.getCellCountY();
+				CellMinX = region.getCellX(MapMinX);
+				CellMaxX = region.getCellX(MapMaxX);
+				CellMinY = region.getCellY(MapMinY);
+				CellMaxY = region.getCellY(MapMaxY);
+				for(cellX = CellMinX; cellX <= CellMaxX; ++cellX){
+					for(cellY = CellMinY; cellY <= CellMaxY; ++cellY){
+						end = cellStart[cellX * cellCountY + cellY + 1];
+						for(k = cellStart[cellX * cellCountY + cellY]; k < end; ++k){
+							// precheck if the vehicle is near enough (check is not exact as its a rectangular box and not circle). The cells only contain active vehicles with WiFi enabled.
+							if(vehiclesX[k] >= MapMinX && vehiclesX[k] <= MapMaxX && vehiclesY[k] >= MapMinY && vehiclesY[k] <= MapMaxY){
+								vehicle = vehicles[k];
+								if(vehiclesInReachSize_ == vehiclesInReach_.length){
+									Vehicle[] newArray = new Vehicle[vehiclesInReachSize_ * 2];
+									System.arraycopy (vehiclesInReach_,0,newArray,0,vehiclesInReachSize_);
+									vehiclesInReach_ = newArray;
+								}
+								vehiclesInReach_[vehiclesInReachSize_] = vehicle;
+								++vehiclesInReachSize_;
 							}
 						}
 					}
 				}
 			}
 		}
-		if(sendCount > 0) knownMessages_.deleteForwardMessage(i, true);
 	}
-	
 
 	/**
 	 * Find vehicles in neighborhood and send beacons to them. Please check the following conditions before calling this function:
@@ -239,64 +268,19 @@ public final class RSU {
 	 * </ul>
 	 */
 	public void sendBeacons(){
-		beaconCountdown_ += beaconInterval_;
+		beaconCountdown_ += config_.getRSUBeaconInterval();
 
-		int i, j, k, size, MapMinX, MapMinY, MapMaxX, MapMaxY, RegionMinX, RegionMinY, RegionMaxX, RegionMaxY;
-		Vehicle[] vehicles = null;
-		Vehicle vehicle = null;
-
-		// Minimum x coordinate to be considered for sending beacons
-		long tmp = x_ - wifiRadius_;
-		if (tmp < 0) MapMinX = 0;	// Map stores only positive coordinates
-		else if(tmp < Integer.MAX_VALUE) MapMinX = (int) tmp;
-		else MapMinX = Integer.MAX_VALUE;
-
-		// Maximum x coordinate to be considered for sending beacons
-		tmp = x_ + (long)wifiRadius_;
-		if (tmp < 0) MapMaxX = 0;
-		else if(tmp < Integer.MAX_VALUE) MapMaxX = (int) tmp;
-		else MapMaxX = Integer.MAX_VALUE;
-
-		// Minimum y coordinate to be considered for sending beacons
-		tmp = y_ - wifiRadius_;
-		if (tmp < 0) MapMinY = 0;
-		else if(tmp < Integer.MAX_VALUE) MapMinY = (int) tmp;
-		else MapMinY = Integer.MAX_VALUE;
-
-		// Maximum y coordinate to be considered for sending beacons
-		tmp = y_ + (long)wifiRadius_;
-		if (tmp < 0) MapMaxY = 0;
-		else if(tmp < Integer.MAX_VALUE) MapMaxY = (int) tmp;
-		else MapMaxY = Integer.MAX_VALUE;
-
-		// Get the regions to be considered for sending beacons
-		Region tmpregion = MAP.getRegionOfPoint(MapMinX, MapMinY);
-		RegionMinX = tmpregion.getX();
-		RegionMinY = tmpregion.getY();
-
-		tmpregion = MAP.getRegionOfPoint(MapMaxX, MapMaxY);
-		RegionMaxX = tmpregion.getX();
-		RegionMaxY = tmpregion.getY();
+		findVehiclesInReach();
+		Vehicle vehicle;
 		long maxCommDistanceSquared = (long)wifiRadius_ * wifiRadius_;
 		long dx, dy;
 
-	
-		// only iterate through those regions which are within the distance
-		for(i = RegionMinX; i <= RegionMaxX; ++i){
-			for(j = RegionMinY; j <= RegionMaxY; ++j){
-				vehicles = regions_[i][j].getVehicleArray();	//use the array as it's MUCH faster!
-				size = vehicles.length;
-				for(k = 0; k < size; ++k){
-					vehicle = vehicles[k];
-					// precheck if the vehicle is near enough and valid (check is not exact as its a rectangular box and not circle)
-					if(vehicle.isWiFiEnabled() && vehicle.isActive() && vehicle.getX() >= MapMinX && vehicle.getX() <= MapMaxX && vehicle.getY() >= MapMinY && vehicle.getY() <= MapMaxY){
-						dx = vehicle.getX() - x_;
-						dy = vehicle.getY() - y_;
-						if((dx * dx + dy * dy) <= maxCommDistanceSquared){	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
-							vehicle.getKnownRSUsList().updateRSU(this, rsuID_, x_, y_, isEncrypted_);
-						}
-					}
-				}
+		for(int k = 0; k < vehiclesInReachSize_; ++k){
+			vehicle = vehiclesInReach_[k];
+			dx = vehicle.getX() - x_;
+			dy = vehicle.getY() - y_;
+			if((dx * dx + dy * dy) <= maxCommDistanceSquared){	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
+				vehicle.getKnownRSUsList().updateRSU(this, rsuID_, x_, y_, isEncrypted_);
 			}
 		}
 
@@ -304,7 +288,7 @@ public final class RSU {
 		// allow beacon monitoring
 		if(beaconMonitorEnabled_){
 			if(x_ >= beaconMonitorMinX_ && x_ <= beaconMonitorMaxX_ && y_ >= beaconMonitorMinY_ && y_ <= beaconMonitorMaxY_){
-				REPORT_PANEL.addBeacon(this, rsuID_, x_, y_, false);
+				SimulationEngine.getInstance().fireBeaconMonitored(this, rsuID_, x_, y_, false);
 			}
 		}
 
@@ -319,7 +303,7 @@ public final class RSU {
 	 * </ul>
 	 */
 	public void sendEncryptedBeacons(){
-		beaconCountdown_ += beaconInterval_;
+		beaconCountdown_ += config_.getRSUBeaconInterval();
 		
 		if(lastSender != null && this.equals(lastSender)){
 			for(Vehicle v : coloredVehicles) v.setColor(Color.black);			
@@ -482,18 +466,18 @@ public final class RSU {
 										if(distanceSenderToNodeFront < distanceRecipientToNodeFront &&
 												tmpCommDistanceSquared < distanceRecipientToNodeFront){
 											//check if this recipient is nearer than the saved one (one vehicle for every lane is searched)
-											if(tmpCommDistanceSquared <= maxCommDistanceSquaredBehind[recipientVehicle.curLane_]){	
-												maxCommDistanceSquaredBehind[recipientVehicle.curLane_] = tmpCommDistanceSquared;
-												vehicleBehind_[recipientVehicle.curLane_] = recipientVehicle;
+											if(tmpCommDistanceSquared <= maxCommDistanceSquaredBehind[recipientVehicle.getCurLane()]){	
+												maxCommDistanceSquaredBehind[recipientVehicle.getCurLane()] = tmpCommDistanceSquared;
+												vehicleBehind_[recipientVehicle.getCurLane()] = recipientVehicle;
 											}
 										}
 										//check if the distance between the vehicles is smaller than the distance between recipient and node behind (vehicle front)
 										else if(distanceSenderToNodeBehind < distanceRecipientToNodeBehind &&
 										tmpCommDistanceSquared < distanceRecipientToNodeBehind){
 											//check if this recipient is nearer than the saved one (one vehicle for every lane is searched)
-											if(tmpCommDistanceSquared <= maxCommDistanceSquaredFront[recipientVehicle.curLane_]){	
-												maxCommDistanceSquaredFront[recipientVehicle.curLane_] = tmpCommDistanceSquared;
-												vehicleFront_[recipientVehicle.curLane_] = recipientVehicle;
+											if(tmpCommDistanceSquared <= maxCommDistanceSquaredFront[recipientVehicle.getCurLane()]){	
+												maxCommDistanceSquaredFront[recipientVehicle.getCurLane()] = tmpCommDistanceSquared;
+												vehicleFront_[recipientVehicle.getCurLane()] = recipientVehicle;
 											}
 										}
 									}
@@ -503,9 +487,9 @@ public final class RSU {
 										if(distanceSenderToNodeBehind < distanceRecipientToNodeBehind &&
 										tmpCommDistanceSquared < distanceRecipientToNodeBehind){
 											//check if this recipient is nearer than the saved one (one vehicle for every lane is searched)
-											if(tmpCommDistanceSquared <= maxCommDistanceSquaredToward[recipientVehicle.curLane_]){	
-												maxCommDistanceSquaredToward[recipientVehicle.curLane_] = tmpCommDistanceSquared;
-												vehicleToward_[recipientVehicle.curLane_] = recipientVehicle;
+											if(tmpCommDistanceSquared <= maxCommDistanceSquaredToward[recipientVehicle.getCurLane()]){	
+												maxCommDistanceSquaredToward[recipientVehicle.getCurLane()] = tmpCommDistanceSquared;
+												vehicleToward_[recipientVehicle.getCurLane()] = recipientVehicle;
 											}
 										}
 									}
@@ -544,15 +528,15 @@ public final class RSU {
 										//3. check if the distance between the vehicles is smaller than the distance between recipient and node behind
 										if(willPassJunction && !(senderVehicle.getCurStreet().getName() + senderVehicle.curDirection_).equals(recipientVehicle.getCurStreet().getName() + recipientVehicle.curDirection_) && 
 												(distanceSenderToNodeBehind < distanceRecipientToNodeBehind && tmpCommDistanceSquared < distanceRecipientToNodeBehind)){
-											if(tmpVehicles.containsKey(recipientVehicle.getCurStreet().getName() + recipientVehicle.curLane_ + recipientVehicle.curDirection_)){
-												tmpDx = nodeJunction.getX() - tmpVehicles.get(recipientVehicle.getCurStreet().getName() + recipientVehicle.curLane_ + recipientVehicle.curDirection_).getX();
-												tmpDy = nodeJunction.getY() - tmpVehicles.get(recipientVehicle.getCurStreet().getName() + recipientVehicle.curLane_ + recipientVehicle.curDirection_).getY();
+											if(tmpVehicles.containsKey(recipientVehicle.getCurStreet().getName() + recipientVehicle.getCurLane() + recipientVehicle.curDirection_)){
+												tmpDx = nodeJunction.getX() - tmpVehicles.get(recipientVehicle.getCurStreet().getName() + recipientVehicle.getCurLane() + recipientVehicle.curDirection_).getX();
+												tmpDy = nodeJunction.getY() - tmpVehicles.get(recipientVehicle.getCurStreet().getName() + recipientVehicle.getCurLane() + recipientVehicle.curDirection_).getY();
 												if((tmpDx * tmpDx + tmpDy * tmpDy) > distanceRecipientToNodeJunction){	
-													tmpVehicles.put(recipientVehicle.getCurStreet().getName() + recipientVehicle.curLane_ + recipientVehicle.curDirection_, recipientVehicle);
+													tmpVehicles.put(recipientVehicle.getCurStreet().getName() + recipientVehicle.getCurLane() + recipientVehicle.curDirection_, recipientVehicle);
 												}
 											}
 											else{
-												tmpVehicles.put(recipientVehicle.getCurStreet().getName() + recipientVehicle.curLane_ + recipientVehicle.curDirection_, recipientVehicle);
+												tmpVehicles.put(recipientVehicle.getCurStreet().getName() + recipientVehicle.getCurLane() + recipientVehicle.curDirection_, recipientVehicle);
 											}
 										}
 									}
@@ -568,7 +552,7 @@ public final class RSU {
 					for(int k = 0; k < vehicleBehind_.length; k++){
 						if(vehicleBehind_[k] != null){
 							vehicleBehind_[k].getKnownVehiclesList().updateVehicle(senderVehicle, senderVehicle.getID(), senderVehicle.getX(), senderVehicle.getY(), senderVehicle.getCurSpeed(), rsuID_, true, false);
-							if(senderVehicle.equals(Renderer.getInstance().getMarkedVehicle()) && showEncryptedBeaconsInMix_) {
+							if(senderVehicle.equals(SimulationEngine.getInstance().getMarkedVehicle()) && config_.isShowEncryptedBeaconsInMix()) {
 								coloredVehicles.add(vehicleBehind_[k]);
 								vehicleBehind_[k].setColor(Color.red);
 								lastSender = this;
@@ -576,7 +560,7 @@ public final class RSU {
 						}
 						if(vehicleFront_[k] != null){
 							vehicleFront_[k].getKnownVehiclesList().updateVehicle(senderVehicle, senderVehicle.getID(), senderVehicle.getX(), senderVehicle.getY(), senderVehicle.getCurSpeed(), rsuID_, true, false);
-							if(senderVehicle.equals(Renderer.getInstance().getMarkedVehicle()) && showEncryptedBeaconsInMix_){
+							if(senderVehicle.equals(SimulationEngine.getInstance().getMarkedVehicle()) && config_.isShowEncryptedBeaconsInMix()){
 								coloredVehicles.add(vehicleFront_[k]);
 								vehicleFront_[k].setColor(Color.red);
 								lastSender = this;
@@ -584,7 +568,7 @@ public final class RSU {
 						}
 						if(vehicleToward_[k] != null){
 							vehicleToward_[k].getKnownVehiclesList().updateVehicle(senderVehicle, senderVehicle.getID(), senderVehicle.getX(), senderVehicle.getY(), senderVehicle.getCurSpeed(), rsuID_, true, false);
-							if(senderVehicle.equals(Renderer.getInstance().getMarkedVehicle()) && showEncryptedBeaconsInMix_){
+							if(senderVehicle.equals(SimulationEngine.getInstance().getMarkedVehicle()) && config_.isShowEncryptedBeaconsInMix()){
 								coloredVehicles.add(vehicleToward_[k]);
 								vehicleToward_[k].setColor(Color.red);
 								lastSender = this;
@@ -593,7 +577,7 @@ public final class RSU {
 					}	
 					for(Vehicle v : tmpVehicles.values()) {
 						v.getKnownVehiclesList().updateVehicle(senderVehicle, senderVehicle.getID(), senderVehicle.getX(), senderVehicle.getY(), senderVehicle.getCurSpeed(), rsuID_, true, false);
-						if(senderVehicle.equals(Renderer.getInstance().getMarkedVehicle()) && showEncryptedBeaconsInMix_){
+						if(senderVehicle.equals(SimulationEngine.getInstance().getMarkedVehicle()) && config_.isShowEncryptedBeaconsInMix()){
 							coloredVehicles.add(v);
 							v.setColor(Color.red);
 							lastSender = this;
@@ -610,14 +594,40 @@ public final class RSU {
 	 * 
 	 * @param sourceX	the x coordinate of the other vehicle
 	 * @param sourceY	the y coordinate of the other vehicle
-	 * @param message	the message
+	 * @param message	the copy of the message the other vehicle holds
 	 */
-	public final void receiveMessage(int sourceX, int sourceY, Message message){
-		//set broadcast mode, otherwise all vehicles would forward the broadcasted message (performance)
-		message.setFloodingMode(true);
-		
+	public final void receiveMessage(int sourceX, int sourceY, KnownMessage message){
+		int flags = checkReceivedMessage(sourceX, sourceY, message);
+		knownMessages_.addMessage(message.getMessage(), (flags & KnownMessage.RECEIVED_FLOODING) != 0, message.getHops() + 1, false, (flags & KnownMessage.RECEIVED_FORWARD) != 0);
+	}
+	
+	/**
+	 * Checks a message received from a vehicle. This is done at the time the message is sent, the message itself 
+	 * is added later through {@link #deliverMessage(Message, int, int)}.
+	 * 
+	 * @param sourceX	the x coordinate of the other vehicle
+	 * @param sourceY	the y coordinate of the other vehicle
+	 * @param message	the copy of the message the other vehicle holds
+	 * 
+	 * @return a combination of {@link KnownMessage#RECEIVED_FLOODING} and {@link KnownMessage#RECEIVED_FORWARD}
+	 */
+	public final int checkReceivedMessage(int sourceX, int sourceY, KnownMessage message){
+		//set broadcast mode on the own copy, otherwise all vehicles would forward the broadcasted message (performance)
 		//only redirect all messages
-		knownMessages_.addMessage(message, false, true);
+		return KnownMessage.RECEIVED_FLOODING | KnownMessage.RECEIVED_FORWARD;
+	}
+	
+	/**
+	 * !!!Adds a message which has already been checked with {@link #checkReceivedMessage(int, int, KnownMessage)}. Note that this 
+	 * function is not synchronized! It is used by the worker thread owning this RSU to deliver the messages collected 
+	 * in a <code>MessageOutbox</code>.
+	 * 
+	 * @param message	the message
+	 * @param flags		the result of {@link #checkReceivedMessage(int, int, KnownMessage)}
+	 * @param hops		how many hops the message travelled until it arrived here
+	 */
+	public final void deliverMessage(Message message, int flags, int hops){
+		knownMessages_.addMessageUnsynchronized(message, (flags & KnownMessage.RECEIVED_FLOODING) != 0, hops, false, (flags & KnownMessage.RECEIVED_FORWARD) != 0);
 	}
 	
 	
@@ -629,14 +639,14 @@ public final class RSU {
 	public void cleanup(int timePerStep){
 		//Has to be a special step because in all other steps other communication is done. This could create
 		//some synchronization problems!	
-		if(communicationEnabled_){
+		if(config_.isRSUCommunicationEnabled()){
 			if(knownMessages_.hasNewMessages()) knownMessages_.processMessages();
 			communicationCountdown_ -= timePerStep;
 			if(communicationCountdown_ < 1) knownMessages_.checkOutdatedMessages(true);
 				
-			if(beaconsEnabled_) beaconCountdown_ -= timePerStep;	
+			if(config_.isRSUBeaconsEnabled()) beaconCountdown_ -= timePerStep;	
 		}
-		if(beaconsEnabled_){
+		if(config_.isRSUBeaconsEnabled()){
 			beaconCountdown_ -= timePerStep;
 
 			// recheck known vehicles for outdated entries.
@@ -654,8 +664,8 @@ public final class RSU {
 		//reset countdowns and other variables
 		communicationCountdown_ = 0;
 		knownVehiclesTimeoutCountdown_ = 0;
-		beaconCountdown_ = (int)Math.round(x_)%beaconInterval_;
-		communicationCountdown_ = (int)Math.round(x_)%communicationInterval_;
+		beaconCountdown_ = (int)Math.round(x_)%config_.getRSUBeaconInterval();
+		communicationCountdown_ = (int)Math.round(x_)%config_.getRSUCommunicationInterval();
 		
 		//reset communication info
 		knownVehiclesList_.clear();
@@ -663,6 +673,36 @@ public final class RSU {
 	}
 	/*
 	
+	/**
+	 * Writes the countdowns, the known messages and the known vehicles of this RSU to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeInt(beaconCountdown_);
+		out.writeInt(communicationCountdown_);
+		out.writeInt(knownVehiclesTimeoutCountdown_);
+		knownMessages_.writeCheckpoint(out);
+		knownVehiclesList_.writeCheckpoint(out);
+	}
+	
+	/**
+	 * Replaces the countdowns, the known messages and the known vehicles of this RSU with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		beaconCountdown_ = in.readInt();
+		communicationCountdown_ = in.readInt();
+		knownVehiclesTimeoutCountdown_ = in.readInt();
+		knownMessages_.readCheckpoint(in);
+		knownVehiclesList_.readCheckpoint(in);
+	}
+	
 	/**
 	 * Returns the Road-Side-Unit id
 	 * 
@@ -671,6 +711,24 @@ public final class RSU {
 	public long getRSUID() {
 		return rsuID_;
 	}
+	
+	/**
+	 * Gets the ID the next Road-Side-Unit will get.
+	 * 
+	 * @return the ID
+	 */
+	public static int getIDCounter(){
+		return SimulationEngine.getInstance().getRSUIDCounter().get();
+	}
+	
+	/**
+	 * Sets the ID the next Road-Side-Unit will get (used when restoring a checkpoint).
+	 * 
+	 * @param counter	the ID
+	 */
+	public static void setIDCounter(int counter){
+		SimulationEngine.getInstance().getRSUIDCounter().set(counter);
+	}
 
 	/**
 	 * Returns the x coordinate of the RSU
@@ -735,22 +793,13 @@ public final class RSU {
 		return communicationCountdown_;
 	}
 	
-	/**
-	 * Sets the reference to all regions. Call this on map reload!
-	 * 
-	 * @param regions	the array with all regions
-	 */
-	public static void setRegions(Region[][] regions){
-		regions_ = regions;
-	}
-
 	/**
 	 * Sets if beacons are enabled or not. Common to all Road-Side-Units.
 	 * 
 	 * @param state	<code>true</code> to enable beacons, else <code>false</code> 
 	 */
 	public static void setBeaconsEnabled(boolean state){
-		beaconsEnabled_ = state;
+		SimulationConfig.getInstance().setRSUBeaconsEnabled(state);
 	}
 	
 	/**
@@ -759,7 +808,7 @@ public final class RSU {
 	 * @param state	<code>true</code> to enable communication, else <code>false</code> 
 	 */
 	public static void setCommunicationEnabled(boolean state){
-		communicationEnabled_ = state;
+		SimulationConfig.getInstance().setRSUCommunicationEnabled(state);
 	}
 	
 	/**
@@ -768,7 +817,7 @@ public final class RSU {
 	 * @param communicationInterval	the new value 
 	 */
 	public static void setCommunicationInterval(int communicationInterval){
-		communicationInterval_ = communicationInterval;
+		SimulationConfig.getInstance().setRSUCommunicationInterval(communicationInterval);
 	}
 
 	/**
@@ -777,7 +826,7 @@ public final class RSU {
 	 * @param beaconInterval	the new value 
 	 */
 	public static void setBeaconInterval(int beaconInterval){
-		beaconInterval_ = beaconInterval;
+		SimulationConfig.getInstance().setRSUBeaconInterval(beaconInterval);
 	}
 	
 	/**
@@ -814,11 +863,11 @@ public final class RSU {
 	}
 
 	public static boolean isShowEncryptedBeaconsInMix_() {
-		return showEncryptedBeaconsInMix_;
+		return SimulationConfig.getInstance().isShowEncryptedBeaconsInMix();
 	}
 
 	public static void setShowEncryptedBeaconsInMix_(
 			boolean showEncryptedBeaconsInMix_) {
-		RSU.showEncryptedBeaconsInMix_ = showEncryptedBeaconsInMix_;
+		SimulationConfig.getInstance().setShowEncryptedBeaconsInMix(showEncryptedBeaconsInMix_);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.scenario;
+
+import java.io.IOException;
+
+import vanetsim.gui.helpers.PrivacyLogWriter;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+
+/**
+ * The data of a beacon which a vehicle keeps so that it can log it when a silent period or SLOW period starts or ends. 
+ * Vehicles keep two instances and swap them instead of creating new ones for each beacon.
+ */
+public final class SavedBeacon{
+	
+	/** <code>true</code> if a beacon has been saved. */
+	private boolean saved_ = false;
+	
+	/** The time when the beacon was sent. */
+	private int time_;
+	
+	/** The steady ID of the vehicle. */
+	private int steadyID_;
+	
+	/** The pseudonym in the beacon. */
+	private long pseudonym_;
+	
+	/** The distance the vehicle had traveled. */
+	private long traveledDistance_;
+	
+	/** The time the vehicle had traveled. */
+	private int traveledTime_;
+	
+	/** The name of the street. */
+	private String street_;
+	
+	/** The speed limit of the street. */
+	private int streetSpeed_;
+	
+	/** The speed of the vehicle. */
+	private int vehicleSpeed_;
+	
+	/** The x coordinate of the vehicle. */
+	private int x_;
+	
+	/** The y coordinate of the vehicle. */
+	private int y_;
+	
+	/**
+	 * Saves the data of a beacon.
+	 * 
+	 * @param time				the time when the beacon was sent
+	 * @param steadyID			the steady ID of the vehicle
+	 * @param pseudonym			the pseudonym in the beacon
+	 * @param traveledDistance	the distance the vehicle had traveled
+	 * @param traveledTime		the time the vehicle had traveled
+	 * @param street			the name of the street
+	 * @param streetSpeed		the speed limit of the street
+	 * @param vehicleSpeed		the speed of the vehicle
+	 * @param x					the x coordinate of the vehicle
+	 * @param y					the y coordinate of the vehicle
+	 */
+	public void set(int time, int steadyID, long pseudonym, long traveledDistance, int traveledTime, String street, int streetSpeed, int vehicleSpeed, int x, int y){
+		saved_ = true;
+		time_ = time;
+		steadyID_ = steadyID;
+		pseudonym_ = pseudonym;
+		traveledDistance_ = traveledDistance;
+		traveledTime_ = traveledTime;
+		street_ = street;
+		streetSpeed_ = streetSpeed;
+		vehicleSpeed_ = vehicleSpeed;
+		x_ = x;
+		y_ = y;
+	}
+	
+	/**
+	 * Writes the beacon to the privacy log. If no beacon has been saved yet, an empty line is logged.
+	 * 
+	 * @param direction		one of the <code>DIRECTION</code> constants of <code>BinaryLogFormat</code>
+	 * @param timeInSlow	the time the vehicle spent in SLOW or <code>Long.MIN_VALUE</code> to not log it
+	 */
+	public void log(int direction, long timeInSlow){
+		if(saved_) PrivacyLogWriter.logSavedBeacon(time_, steadyID_, pseudonym_, traveledDistance_, traveledTime_, direction, street_, streetSpeed_, vehicleSpeed_, x_, y_, timeInSlow);
+		else if(timeInSlow != Long.MIN_VALUE) PrivacyLogWriter.log(":TimeInSlow:" + timeInSlow); //$NON-NLS-1$
+		else PrivacyLogWriter.log(""); //$NON-NLS-1$
+	}
+	
+	/**
+	 * Writes the beacon to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeBoolean(saved_);
+		out.writeInt(time_);
+		out.writeInt(steadyID_);
+		out.writeLong(pseudonym_);
+		out.writeLong(traveledDistance_);
+		out.writeInt(traveledTime_);
+		out.writeString(street_);
+		out.writeInt(streetSpeed_);
+		out.writeInt(vehicleSpeed_);
+		out.writeInt(x_);
+		out.writeInt(y_);
+	}
+	
+	/**
+	 * Replaces the beacon with the one from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	void readCheckpoint(CheckpointInput in) throws IOException{
+		saved_ = in.readBoolean();
+		time_ = in.readInt();
+		steadyID_ = in.readInt();
+		pseudonym_ = in.readLong();
+		traveledDistance_ = in.readLong();
+		traveledTime_ = in.readInt();
+		street_ = in.readString();
+		streetSpeed_ = in.readInt();
+		vehicleSpeed_ = in.readInt();
+		x_ = in.readInt();
+		y_ = in.readInt();
+	}
+
+}
@@ -46,11 +46,9 @@ import org.codehaus.staxmate.out.SMOutputElement;
 
 import vanetsim.ErrorLog;
 import vanetsim.VanetSimStart;
-import vanetsim.gui.Renderer;
 import vanetsim.gui.helpers.AttackLogWriter;
 import vanetsim.gui.helpers.EventLogWriter;
 import vanetsim.gui.helpers.IDSLogWriter;
-import vanetsim.gui.helpers.MouseClickManager;
 import vanetsim.gui.helpers.PrivacyLogWriter;
 import vanetsim.localization.Messages;
 import vanetsim.map.Map;
@@ -64,34 +62,34 @@ import vanetsim.scenario.events.EventSpotList;
 import vanetsim.scenario.events.StartBlocking;
 import vanetsim.scenario.events.StopBlocking;
 import vanetsim.simulation.WorkerThread;
+import vanetsim.simulation.SimulationEngine;
+import vanetsim.simulation.SimulationContext;
 
 /**
  * A scenario saves the vehicles and events.
  */
 public final class Scenario{
 
-	/** The only instance of this class (singleton). */
-	private static final Scenario INSTANCE = new Scenario();
-
-	/** A flag to signal if loading is ready. While loading is in progress, simulation and rendering is not possible. */
+/** A flag to signal if loading is ready. While loading is in progress, simulation and rendering is not possible. */
 	private boolean ready_ = true;
 
 	/** File name of the Scenario. Used to name log files */
 	private String scenarioName = "";
 	
 	/**
-	 * Empty, private constructor in order to disable instancing.
+	 * Creates a new, empty scenario. Use <code>getInstance()</code> to get the one of the current
+	 * {@link vanetsim.simulation.SimulationContext}.
 	 */
-	private Scenario() {
+	public Scenario() {
 	}	
 
 	/**
-	 * Gets the single instance of this scenario.
+	 * Gets the scenario of the simulation context bound to the calling thread.
 	 * 
-	 * @return single instance of this scenario
+	 * @return the scenario of the current context
 	 */
 	public static Scenario getInstance(){
-		return INSTANCE;
+		return SimulationContext.getCurrent().getScenario();
 	}
 
 	/**
@@ -100,25 +98,17 @@ public final class Scenario{
 	public void initNewScenario(){
 		if(ready_ == true){
 			ready_ = false;
-			if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getSimulationMaster().stopThread();
-			if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getSimulatePanel().setSimulationStop();
-			KnownVehiclesList.setTimePassed(0);
-			IDSProcessorList.setTimePassed(0);
-			KnownRSUsList.setTimePassed(0);
-			Renderer.getInstance().setTimePassed(0);
-			Renderer.getInstance().setMarkedVehicle(null);
-			Renderer.getInstance().setShowVehicles(false);
-			Renderer.getInstance().setShowRSUs(false);
-			Renderer.getInstance().setShowMixZones(false);
-			Renderer.getInstance().setAttackedVehicle(null);
-			Renderer.getInstance().setAttackerVehicle(null);
-			Renderer.getInstance().setShowAttackers(false);
+			if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getSimulationMaster().stopThread();
+			if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getSimulatePanel().setSimulationStop();
+			SimulationEngine.getInstance().setTimePassed(0);
+			SimulationEngine.getInstance().setMarkedVehicle(null);
+			SimulationEngine.getInstance().setAttackedVehicle(null);
+			SimulationEngine.getInstance().setAttackerVehicle(null);
 			Vehicle.setMaximumCommunicationDistance(0);
 			Vehicle.resetGlobalRandomGenerator();
 			Vehicle.setMinTravelTimeForRecycling(60000);	// standard value for recycle time
 			Vehicle.setArsuList(new AttackRSU[0]);
 			Vehicle.setAttackedVehicleID_(0);
-			if(!Renderer.getInstance().isConsoleStart())MouseClickManager.getInstance().cleanMarkings();
 			Region[][] Regions = Map.getInstance().getRegions();
 			int Region_max_x = Map.getInstance().getRegionCountX();
 			int Region_max_y = Map.getInstance().getRegionCountY();
@@ -129,7 +119,7 @@ public final class Scenario{
 				}
 			}
 			EventList.getInstance().clearEvents();
-			if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditEventPanel().updateList();
+			SimulationEngine.getInstance().fireScenarioCleared();	// let the GUI hide the objects and clear its markings
 		}		
 	}
 
@@ -144,7 +134,7 @@ public final class Scenario{
 		Map.getInstance().clearMixZones();
 		Map.getInstance().clearRSUs();
 		try{
-			if(!Renderer.getInstance().isConsoleStart())VanetSimStart.setProgressBar(true);
+			SimulationEngine.getInstance().fireBusyChanged(true);
 			initNewScenario();
 			String type, penaltyType, fakeMessageType, eventSpotType;
 			int x, y, frequency, radius, time, maxSpeed, vehicleLength, maxCommDistance, direction, lanes, braking_rate, acceleration_rate, timeDistance, politeness, speedDeviation, color, mixX, mixY, mixRadius, wifiX, wifiY, wifiRadius;
@@ -187,71 +177,71 @@ public final class Scenario{
 							if(settingsCrsr.getLocalName().toLowerCase().equals("communicationenabled")){ //$NON-NLS-1$
 								if(settingsCrsr.collectDescendantText(false).equals("true")) tmpBoolean = true;	//$NON-NLS-1$
 								else tmpBoolean = false;
-								if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setCommunication(tmpBoolean);
+								if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setCommunication(tmpBoolean);
 								Vehicle.setCommunicationEnabled(tmpBoolean);
 								RSU.setCommunicationEnabled(tmpBoolean);
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("beaconsenabled")){ //$NON-NLS-1$
 								if(settingsCrsr.collectDescendantText(false).equals("true")) tmpBoolean = true;	//$NON-NLS-1$
 								else tmpBoolean = false;
-								if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setBeacons(tmpBoolean);
+								if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setBeacons(tmpBoolean);
 								Vehicle.setBeaconsEnabled(tmpBoolean);
 								RSU.setBeaconsEnabled(tmpBoolean);
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("fallbackinmixzonesenabled")){ //$NON-NLS-1$
 								if(settingsCrsr.collectDescendantText(false).equals("true")) tmpBoolean = true;	//$NON-NLS-1$
 								else tmpBoolean = false;
-								if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setMixZonesFallbackEnabled(tmpBoolean);
+								if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setMixZonesFallbackEnabled(tmpBoolean);
 								Vehicle.setMixZonesFallbackEnabled(tmpBoolean);
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("fallbackinmixzonesfloodingonly")){ //$NON-NLS-1$
 								if(settingsCrsr.collectDescendantText(false).equals("true")) tmpBoolean = true;	//$NON-NLS-1$
 								else tmpBoolean = false;
-								if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setMixZonesFallbackFloodingOnly(tmpBoolean);
+								if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setMixZonesFallbackFloodingOnly(tmpBoolean);
 								Vehicle.setMixZonesFallbackFloodingOnly(tmpBoolean);								
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("globalInfrastructureenabled")){ //$NON-NLS-1$
 								if(settingsCrsr.collectDescendantText(false).equals("true")) tmpBoolean = true;	//$NON-NLS-1$
 								else tmpBoolean = false;
-								if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setGlobalInfrastructure(tmpBoolean);
+								if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setGlobalInfrastructure(tmpBoolean);
 								// implementation missing
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("mixzonesenabled")){ //$NON-NLS-1$
 								if(settingsCrsr.collectDescendantText(false).equals("true")) tmpBoolean = true;	//$NON-NLS-1$
 								else tmpBoolean = false;
-								if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setMixZonesEnabled(tmpBoolean);
+								if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setMixZonesEnabled(tmpBoolean);
 								Vehicle.setMixZonesEnabled(tmpBoolean);
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("vehiclerecyclingenabled")){ //$NON-NLS-1$
 								if(settingsCrsr.collectDescendantText(false).equals("true")) tmpBoolean = true;	//$NON-NLS-1$
 								else tmpBoolean = false;
-								if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setRecyclingEnabled(tmpBoolean);
+								if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setRecyclingEnabled(tmpBoolean);
 								Vehicle.setRecyclingEnabled(tmpBoolean);
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("communicationinterval")){ //$NON-NLS-1$
 								try{
 									int tmp = Integer.parseInt(settingsCrsr.collectDescendantText(false));
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setCommunicationInterval(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setCommunicationInterval(tmp);
 									Vehicle.setCommunicationInterval(tmp);
 									RSU.setCommunicationInterval(tmp);
 								} catch (Exception e) {}
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("beaconsinterval")){ //$NON-NLS-1$
 								try{
 									int tmp = Integer.parseInt(settingsCrsr.collectDescendantText(false));
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setBeaconInterval(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setBeaconInterval(tmp);
 									Vehicle.setBeaconInterval(tmp);
 									RSU.setBeaconInterval(tmp);
 								} catch (Exception e) {}
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("mixzoneradius")){ //$NON-NLS-1$
 								try{
 									int tmp = Integer.parseInt(settingsCrsr.collectDescendantText(false));
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setMixZoneRadius(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setMixZoneRadius(tmp);
 									Vehicle.setMixZoneRadius(tmp);
 								} catch (Exception e) {}
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("autoaddmixzones")){ //$NON-NLS-1$
 								if(settingsCrsr.collectDescendantText(false).equals("true")) tmpBoolean = true;	//$NON-NLS-1$
 								else tmpBoolean = false;
-								if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditMixZonePanel_().getAutoAddMixZones().setEnabled(tmpBoolean);
-								Renderer.getInstance().setAutoAddMixZones(tmpBoolean);
+								if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditMixZonePanel_().getAutoAddMixZones().setEnabled(tmpBoolean);
+								SimulationEngine.getInstance().setAutoAddMixZones(tmpBoolean);
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("routingmode")){ //$NON-NLS-1$
 								try{
 									int tmp = Integer.parseInt(settingsCrsr.collectDescendantText(false));
 									if(tmp > 1) tmp = 1;
 									else if (tmp < 0) tmp = 0;
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setRoutingMode(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditSettingsPanel().setRoutingMode(tmp);
 									Vehicle.setRoutingMode(tmp);
 								} catch (Exception e) {}
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("mintraveltimeforrecycling")){ //$NON-NLS-1$
@@ -268,11 +258,11 @@ public final class Scenario{
 								try{
 									String tmp = settingsCrsr.collectDescendantText(false);
 									if(tmp.equals("true")){
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogAttackerCheckBox_().setSelected(true);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogAttackerCheckBox_().setSelected(true);
 										Vehicle.setAttackerDataLogged_(true);
 									}
 									else{
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogAttackerCheckBox_().setSelected(false);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogAttackerCheckBox_().setSelected(false);
 										Vehicle.setAttackerDataLogged_(false);
 									}
 								} catch (Exception e) {}
@@ -280,11 +270,11 @@ public final class Scenario{
 								try{
 									String tmp = settingsCrsr.collectDescendantText(false);
 									if(tmp.equals("true")){
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getEncryptedLogging_().setSelected(true);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getEncryptedLogging_().setSelected(true);
 										Vehicle.setAttackerEncryptedDataLogged_(true);
 									}
 									else{
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getEncryptedLogging_().setSelected(false);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getEncryptedLogging_().setSelected(false);
 										Vehicle.setAttackerEncryptedDataLogged_(false);
 									}
 								} catch (Exception e) {}
@@ -292,13 +282,13 @@ public final class Scenario{
 								try{
 									String tmp = settingsCrsr.collectDescendantText(false);
 									if(tmp.equals("true")){
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogPrivacyCheckBox_().setSelected(true);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogPrivacyCheckBox_().setSelected(true);
 										Vehicle.setPrivacyDataLogged_(true);
 										PrivacyLogWriter.setLogPath(System.getProperty("user.dir"));
 
 									}
 									else{
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogPrivacyCheckBox_().setSelected(false);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogPrivacyCheckBox_().setSelected(false);
 										Vehicle.setPrivacyDataLogged_(false);
 									}
 								} catch (Exception e) {}	
@@ -306,17 +296,17 @@ public final class Scenario{
 								try{
 									String tmp = settingsCrsr.collectDescendantText(false);
 									if(IDSProcessor.isLogIDS_()) IDSLogWriter.setLogPath(tmp);
-									if(!Renderer.getInstance().isConsoleStart()  && !tmp.equals(""))VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogIDSPath_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart()  && !tmp.equals(""))VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogIDSPath_().setValue(tmp);
 								} catch (Exception e) {}	
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("idsloggingenabled")){ //$NON-NLS-1$
 								try{
 									String tmp = settingsCrsr.collectDescendantText(false);
 									if(tmp.equals("true")){
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogIDSCheckBox_().setSelected(true);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogIDSCheckBox_().setSelected(true);
 										IDSProcessor.setLogIDS_(true);
 									}
 									else{
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogIDSCheckBox_().setSelected(false);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogIDSCheckBox_().setSelected(false);
 										IDSProcessor.setLogIDS_(false);
 									}
 								} catch (Exception e) {}
@@ -327,17 +317,17 @@ public final class Scenario{
 										EventLogWriter.setLogPath(tmp);
 										EventLogWriter.log("Time," + "PenaltyType," + "X," + "Y," + "Sender,"  + "Receiver");
 									}
-									if(!Renderer.getInstance().isConsoleStart()  && !tmp.equals(""))VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogEventPath_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart()  && !tmp.equals(""))VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogEventPath_().setValue(tmp);
 								} catch (Exception e) {}	
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("eventloggingenabled")){ //$NON-NLS-1$
 								try{
 									String tmp = settingsCrsr.collectDescendantText(false);
 									if(tmp.equals("true")){
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogEventCheckBox_().setSelected(true);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogEventCheckBox_().setSelected(true);
 										KnownPenalties.setLogEvents_(true);
 									}
 									else{
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogEventCheckBox_().setSelected(false);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditLogControlPanel_().getLogEventCheckBox_().setSelected(false);
 										KnownPenalties.setLogEvents_(false);
 									}
 								} catch (Exception e) {}	
@@ -346,11 +336,11 @@ public final class Scenario{
 								try{
 									String tmp = settingsCrsr.collectDescendantText(false);
 									if(tmp.equals("true")){
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditMixZonePanel_().getShowEncryptedBeacons_().setSelected(true);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditMixZonePanel_().getShowEncryptedBeacons_().setSelected(true);
 										RSU.setShowEncryptedBeaconsInMix_(true);
 									}
 									else{
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditMixZonePanel_().getShowEncryptedBeacons_().setSelected(false);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditMixZonePanel_().getShowEncryptedBeacons_().setSelected(false);
 										RSU.setShowEncryptedBeaconsInMix_(false);
 									}
 								} catch (Exception e) {}	
@@ -399,11 +389,11 @@ public final class Scenario{
 									String tmp = settingsCrsr.collectDescendantText(false);
 									if(tmp.equals("true")){
 										Vehicle.setIdsActivated(true);
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getActivateIDSCheckBox_().setSelected(true);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getActivateIDSCheckBox_().setSelected(true);
 									}
 									else{
 										Vehicle.setIdsActivated(false);
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getActivateIDSCheckBox_().setSelected(false);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getActivateIDSCheckBox_().setSelected(false);
 									}
 
 								} catch (Exception e) {}
@@ -411,11 +401,11 @@ public final class Scenario{
 								try{
 									String tmp = settingsCrsr.collectDescendantText(false);
 									if(tmp.equals("true")){
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getActivateAdvancedIDSCheckBox_().setSelected(true);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getActivateAdvancedIDSCheckBox_().setSelected(true);
 										IDSProcessor.setAdvancedIDSRules_(true);
 									}
 									else{
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getActivateAdvancedIDSCheckBox_().setSelected(false);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getActivateAdvancedIDSCheckBox_().setSelected(false);
 										IDSProcessor.setAdvancedIDSRules_(false);
 									}
 								} catch (Exception e) {}
@@ -423,79 +413,79 @@ public final class Scenario{
 								try{
 									String tmp = settingsCrsr.collectDescendantText(false);
 									IDSProcessor.setActiveRules_(tmp.split(":"));
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().updateGUI();
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().updateGUI();
 
 								} catch (Exception e) {}	
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("beaconslogged")){ //$NON-NLS-1$
 								try{
 									int tmp = Integer.parseInt(settingsCrsr.collectDescendantText(false));
 									KnownVehicle.setAmountOfSavedBeacons(tmp);
-									if(!Renderer.getInstance().isConsoleStart())if(tmp > 0)VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getBeaconsLogged_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())if(tmp > 0)VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getBeaconsLogged_().setValue(tmp);
 								} catch (Exception e) {}	
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("fakemessageinterval")){ //$NON-NLS-1$
 								try{
 									int tmp = Integer.parseInt(settingsCrsr.collectDescendantText(false));
 									Vehicle.setFakeMessagesInterval_(tmp);
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getFakeMessageInterval_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getFakeMessageInterval_().setValue(tmp);
 								} catch (Exception e) {}	
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("pcnthreshold")){ //$NON-NLS-1$
 								try{
 									int tmp = Integer.parseInt(settingsCrsr.collectDescendantText(false));
 									IDSProcessor.setPCNDistance_(tmp);
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getPCNThreshold_().setValue(Math.sqrt(tmp));
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getPCNThreshold_().setValue(Math.sqrt(tmp));
 								} catch (Exception e) {}
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("pcnforwardthreshold")){ //$NON-NLS-1$
 								try{
 									double tmp = Double.parseDouble(settingsCrsr.collectDescendantText(false));
 									IDSProcessor.setPCNFORWARDThreshold_(tmp);
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getPCNFORWARDThreshold_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getPCNFORWARDThreshold_().setValue(tmp);
 								} catch (Exception e) {}
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("evaforwardthreshold")){ //$NON-NLS-1$
 								try{
 									double tmp = Double.parseDouble(settingsCrsr.collectDescendantText(false));
 									IDSProcessor.setEVAFORWARDThreshold_(tmp);
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getEVAFORWARDThreshold_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getEVAFORWARDThreshold_().setValue(tmp);
 								} catch (Exception e) {}
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("rhcnthreshold")){ //$NON-NLS-1$
 								try{
 									double tmp = Double.parseDouble(settingsCrsr.collectDescendantText(false));
 									IDSProcessor.setRHCNThreshold_(tmp);
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getRHCNThreshold_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getRHCNThreshold_().setValue(tmp);
 								} catch (Exception e) {}	
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("eeblthreshold")){ //$NON-NLS-1$
 								try{
 									double tmp = Double.parseDouble(settingsCrsr.collectDescendantText(false));
 									IDSProcessor.setEEBLThreshold_(tmp);
-									if(!Renderer.getInstance().isConsoleStart())	VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getEEBLThreshold_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())	VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getEEBLThreshold_().setValue(tmp);
 								} catch (Exception e) {}	
 							}else if(settingsCrsr.getLocalName().toLowerCase().equals("evabeacontimethreshold")){ //$NON-NLS-1$
 								try{
 									double tmp = Double.parseDouble(settingsCrsr.collectDescendantText(false));
 									IDSProcessor.setEVABeaconTimeFactor_(tmp);
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getEVABeaconTimeThreshold_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getEVABeaconTimeThreshold_().setValue(tmp);
 								} catch (Exception e) {}	
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("evabeaconthreshold")){ //$NON-NLS-1$
 								try{
 									double tmp = Double.parseDouble(settingsCrsr.collectDescendantText(false));
 									IDSProcessor.setEVABeaconFactor_(tmp);
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getEVABeaconThreshold_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getEVABeaconThreshold_().setValue(tmp);
 								} catch (Exception e) {}	
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("evamessagedelay")){ //$NON-NLS-1$
 								try{
 									int tmp = Integer.parseInt(settingsCrsr.collectDescendantText(false));
 									Vehicle.setMaxEVAMessageDelay_(tmp);
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getEVAMessageDelay_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getEVAMessageDelay_().setValue(tmp);
 								} catch (Exception e) {}	
 							}  else if(settingsCrsr.getLocalName().toLowerCase().equals("spamdetection")){ //$NON-NLS-1$
 								try{
 									String tmp = settingsCrsr.collectDescendantText(false);
 									if(tmp.equals("true")){
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getSpamDetectionCheckBox_().setSelected(true);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getSpamDetectionCheckBox_().setSelected(true);
 										KnownEventSource.setSpamCheck_(true);
 										KnownPenalties.setSpamCheck_(true);
 									}
 									else{
-										if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getSpamDetectionCheckBox_().setSelected(false);
+										if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getSpamDetectionCheckBox_().setSelected(false);
 										KnownEventSource.setSpamCheck_(false);
 										KnownPenalties.setSpamCheck_(false);
 									}
@@ -504,13 +494,13 @@ public final class Scenario{
 								try{
 									int tmp = Integer.parseInt(settingsCrsr.collectDescendantText(false));
 									KnownEventSource.setSpammingThreshold_(tmp);
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getSpamMessageAmountThreshold_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getSpamMessageAmountThreshold_().setValue(tmp);
 								} catch (Exception e) {}
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("spamtimethreshold")){ //$NON-NLS-1$
 								try{
 									int tmp = Integer.parseInt(settingsCrsr.collectDescendantText(false));
 									KnownEventSource.setSpammingTimeThreshold_(tmp);
-									if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getSpamTimeThreshold_().setValue(tmp);
+									if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditIDSControlPanel_().getSpamTimeThreshold_().setValue(tmp);
 								} catch (Exception e) {}
 
 							} else if(settingsCrsr.getLocalName().toLowerCase().equals("trafficmodel")){ //$NON-NLS-1$
@@ -640,9 +630,9 @@ public final class Scenario{
 									try{
 										tmpVehicle = new Vehicle(destinations, vehicleLength, maxSpeed, maxCommDistance, wifi, emergencyVehicle, braking_rate, acceleration_rate, timeDistance, politeness, speedDeviation, new Color(color), fakingMessages, fakeMessageType);
 										Map.getInstance().addVehicle(tmpVehicle);
-										if(tmpAttacker) Renderer.getInstance().setAttackerVehicle(tmpVehicle);
+										if(tmpAttacker) SimulationEngine.getInstance().setAttackerVehicle(tmpVehicle);
 										if(tmpAttacked) {
-											Renderer.getInstance().setAttackedVehicle(tmpVehicle);
+											SimulationEngine.getInstance().setAttackedVehicle(tmpVehicle);
 											Vehicle.setAttackedVehicleID_(tmpVehicle.getID());
 										}
 										tmpAttacker = false;
@@ -696,7 +686,7 @@ public final class Scenario{
 														Regions[i][j].addMixZone(tmpNode, mixRadius);
 														if(maxMixRadius < mixRadius)maxMixRadius = mixRadius;
 														Vehicle.setEncryptedBeaconsInMix_(false);
-														if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditMixZonePanel_().getEncryptedBeacons_().setSelected(false);
+														if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditMixZonePanel_().getEncryptedBeacons_().setSelected(false);
 													}
 												}
 											}
@@ -880,10 +870,10 @@ public final class Scenario{
 				}
 			} else ErrorLog.log(Messages.getString("Scenario.wrongRoot"), 7, getClass().getName(), "load", null); //$NON-NLS-1$ //$NON-NLS-2$
 		} catch (Exception e) {ErrorLog.log(Messages.getString("Scenario.errorLoading"), 7, getClass().getName(), "load", e);} //$NON-NLS-1$ //$NON-NLS-2$
-		if(!Renderer.getInstance().isConsoleStart())VanetSimStart.setProgressBar(false);
+		SimulationEngine.getInstance().fireBusyChanged(false);
 		ready_ = true;
-		Renderer.getInstance().ReRender(false, false);
-		if(!Renderer.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditEventPanel().updateList();
+		SimulationEngine.getInstance().requestRender(false, false);
+		if(!SimulationEngine.getInstance().isConsoleStart())VanetSimStart.getMainControlPanel().getEditPanel().getEditEventPanel().updateList();
 		ErrorLog.log(Messages.getString("Scenario.finishedLoading"), 3, getClass().getName(), "load", null); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
@@ -904,7 +894,7 @@ public final class Scenario{
 	 */
 	public void save(File file, boolean zip){
 		try{
-			VanetSimStart.setProgressBar(true);
+			SimulationEngine.getInstance().fireBusyChanged(true);
 			ErrorLog.log(Messages.getString("Scenario.savingScenario") + file.getName(), 3, getClass().getName(), "save", null);  //$NON-NLS-1$//$NON-NLS-2$
 			int i, j, k;
 			Vehicle[] vehiclesArray;
@@ -942,7 +932,7 @@ public final class Scenario{
 			settings.addElement("BeaconsInterval").addValue(Vehicle.getBeaconInterval()); //$NON-NLS-1$
 			settings.addElement("MixZonesEnabled").addValue(Vehicle.getMixZonesEnabled()); //$NON-NLS-1$
 			settings.addElement("MixZoneRadius").addValue(Vehicle.getMixZoneRadius()); //$NON-NLS-1$
-			settings.addElement("AutoAddMixZones").addValue(Renderer.getInstance().isAutoAddMixZones()); //$NON-NLS-1$
+			settings.addElement("AutoAddMixZones").addValue(SimulationEngine.getInstance().isAutoAddMixZones()); //$NON-NLS-1$
 			settings.addElement("RoutingMode").addValue(Vehicle.getRoutingMode()); //$NON-NLS-1$
 			settings.addElement("VehicleRecyclingEnabled").addValue(Vehicle.getRecyclingEnabled()); //$NON-NLS-1$
 			settings.addElement("FallBackInMixZonesEnabled").addValue(Vehicle.getMixZonesFallbackEnabled());	//$NON-NLS-1$
@@ -1026,9 +1016,9 @@ public final class Scenario{
 						level1.addElement("Color").addValue(vehicle.getColor().getRGB()); //$NON-NLS-1$
 						level1.addElement("isFakingMessages").addValue(vehicle.isFakingMessages());
 						level1.addElement("fakingMessageType").addCharacters(vehicle.getFakeMessageType());
-						if(Renderer.getInstance().getAttackerVehicle() == vehicle) level1.addElement("isAttacker").addValue(true); //$NON-NLS-1$
+						if(SimulationEngine.getInstance().getAttackerVehicle() == vehicle) level1.addElement("isAttacker").addValue(true); //$NON-NLS-1$
 						else level1.addElement("isAttacker").addValue(false);
-						if(Renderer.getInstance().getAttackedVehicle() == vehicle) level1.addElement("isAttacked").addValue(true); //$NON-NLS-1$
+						if(SimulationEngine.getInstance().getAttackedVehicle() == vehicle) level1.addElement("isAttacked").addValue(true); //$NON-NLS-1$
 						else level1.addElement("isAttacked").addValue(false);
 						level2 = level1.addElement("Destinations"); //$NON-NLS-1$
 						//add the start point manually as this was already "popped" from the vehicle's destinations
@@ -1141,7 +1131,7 @@ public final class Scenario{
 			xw.close();
 			filestream.close();
 		}catch (Exception e) { ErrorLog.log(Messages.getString("Scenario.errorWhileSaving"), 6, getClass().getName(), "save", e);} //$NON-NLS-1$ //$NON-NLS-2$
-		VanetSimStart.setProgressBar(false);
+		SimulationEngine.getInstance().fireBusyChanged(false);
 	}
 
 	/**
@@ -18,7 +18,11 @@
 package vanetsim.scenario;
 
 import java.awt.Color;
+import java.io.IOException;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Random;
 
@@ -27,34 +31,35 @@ import java.util.Random;
 import java.util.ArrayDeque;
 
 
-import vanetsim.VanetSimStart;
-import vanetsim.gui.Renderer;
-import vanetsim.gui.controlpanels.ReportingControlPanel;
+import vanetsim.gui.helpers.BinaryLogFormat;
 import vanetsim.gui.helpers.GeneralLogWriter;
 import vanetsim.gui.helpers.PrivacyLogWriter;
 import vanetsim.localization.Messages;
 import vanetsim.map.Map;
 import vanetsim.map.Node;
 import vanetsim.map.Region;
+import vanetsim.map.RSUGrid;
 import vanetsim.map.Street;
 import vanetsim.routing.RoutingAlgorithm;
 import vanetsim.routing.WayPoint;
 import vanetsim.routing.A_Star.A_Star_Algorithm;
 import vanetsim.scenario.events.BlockingObject;
 import vanetsim.scenario.messages.Message;
+import vanetsim.scenario.messages.MessageOutbox;
 import vanetsim.scenario.messages.PenaltyMessage;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.CheckpointRandom;
+import vanetsim.simulation.SimulationConfig;
+import vanetsim.simulation.SimulationContext;
+import vanetsim.simulation.SimulationEngine;
+import vanetsim.simulation.WorkerThread;
 
 /**
  * A vehicle which can move and communicate (if wifi is enabled).
  */
 public class Vehicle extends LaneObject{
 	
-	/** A reference to the map so that we don't need to call this over and over again. */
-	private static final Map MAP = Map.getInstance();
-	
-	/** A reference to the reporting control panel so that we don't need to call this over and over again. */
-	private static final ReportingControlPanel REPORT_PANEL = getReportingPanel();
-	
 	/** When known vehicles are rechecked for outdated entries. Measured in milliseconds. */
 	private static final int KNOWN_VEHICLES_TIMEOUT_CHECKINTERVAL = 5000;
 	
@@ -106,52 +111,9 @@ public class Vehicle extends LaneObject{
 	/** Deviation from max speed limit. Simulation fluctuations in the drivers speed when reaching the speed limit. Maximum in cm/s^2 */
 	private static final int SPEED_FLUCTUATION_MAX = 6;
 	
-	/** A global random number generator used to initialize the generators of the vehicles. */
-	private static final Random RANDOM = new Random(1L);
-
 	/** The routing algorithm used. */
 	private static final RoutingAlgorithm ROUTING_ALGO = new A_Star_Algorithm();	
 
-	/** The routing mode used. See the A_Star_Algo for details. */
-	private static int routingMode_ = 1;
-	
-	/** The minimum time a vehicle must have traveled to get recycled. This shall prevent very shortliving 
-	 * vehicles from consuming lots of CPU time for recycling. */
-	private static int minTravelTimeForRecycling_ = 60000;
-
-	/** If communication is enabled */
-	private static boolean communicationEnabled_ = true;	
-
-	/** If beacons are enabled */
-	private static boolean beaconsEnabled_ = true;
-
-	/** If mix zones are enabled */
-	private static boolean mixZonesEnabled_ = true;
-	
-	/** If a fallback to the beaconless method shall be done in mix zones */
-	private static boolean mixZonesFallbackEnabled_ = true;
-	
-	/** If the fallback mode only sends messages which are in flooding/broadcast mode. */
-	private static boolean mixZonesFallbackFloodingOnly_ = true;
-
-	/** How large a mix is in cm. Set in the common settings */
-	private static int mixZoneRadius_ = 10000;
-	
-	/** How large a mix is in cm max. */
-	private static int maxMixZoneRadius_ = 0;
-	
-	/** How long a vehicle waits to communicate again (in milliseconds). Also used for cleaning up outdated known messages. */
-	private static int communicationInterval_ = 160;
-
-	/** How long a vehicle waits to send its beacons again. */
-	private static int beaconInterval_ = 240;
-
-	/** The maximum communication distance a vehicle has. */
-	private static int maximumCommunicationDistance_ = 0;
-
-	/** An array holding all regions of the map. */
-	private static Region[][] regions_;
-
 	/** If monitoring the beacon is enabled or not. */
 	private static boolean beaconMonitorEnabled_ = false;
 	
@@ -167,59 +129,35 @@ public class Vehicle extends LaneObject{
 	/** The maximum y coordinate which is checked during beacon monitoring. */
 	private static int beaconMonitorMaxY_ = -1;
 	
-	/** If recycling of vehicles is allowed or not */
-	private static boolean recyclingEnabled_ = true;
-	
-	/** List of all AttackRSUs */
-	private static AttackRSU arsuList[] = new AttackRSU[0];
-	
-	/** If attacker logging is enabled */
-	private static boolean attackerDataLogged_ = false;	
-	
-	/** If attacker encrypted logging is enabled */
-	private static boolean attackerEncryptedDataLogged_ = false;
-	
-	/** If attacker logging is enabled */
-	private static boolean privacyDataLogged_ = false;	
-	
-	/** ID of the attacked vehicle */
-	private static long attackedVehicleID_ = 0;
-	
 	/** Time for reroute of attacker */
 	private static int reRouteTime_ = -1;
-	
-	/** encrypted beacon communication in Mix-Zones */
-	private static boolean encryptedBeaconsInMix_ = false;
-
-	/** A counter for the steady id */
-	private static int steadyIDCounter = 0;
-	
-	/** time between silent-periods (in ms)*/
-	private static int TIME_BETWEEN_SILENT_PERIODS = 10000;
 
-	/** time of silent-periods (in ms)*/
-	private static int TIME_OF_SILENT_PERIODS = 2000;
-	
-	/** flag to show if there is a silent period at the moment */
-	private static boolean silent_period = false;
+	/** Orders vehicles by their steady id. */
+	public static final Comparator<Vehicle> STEADY_ID_COMPARATOR = new Comparator<Vehicle>(){
+		public int compare(Vehicle vehicle1, Vehicle vehicle2){
+			if(vehicle1.steadyID_ < vehicle2.steadyID_) return -1;
+			else if(vehicle1.steadyID_ > vehicle2.steadyID_) return 1;
+			else return 0;
+		}
+	};
 	
-	/** flag to turn silent periods on/off */
-	private static boolean silentPeriodsOn = false;
+	/** Lane operation: no pending operation. */
+	private static final int LANE_NONE = 0;
 	
-	/** time until pseudonym change in slow model */
-	private static int TIME_TO_PSEUDONYM_CHANGE = 3000;
+	/** Lane operation: remove the vehicle from the old lanes. */
+	private static final int LANE_REMOVE = 1;
 	
-	/** speed limit for slow model */
-	private static int  SLOW_SPEED_LIMIT = (int)(30 * 100000.0/3600);
+	/** Lane operation: remove the vehicle from the old lanes and add it to the lanes of the current street. */
+	private static final int LANE_CHANGE_STREET = 2;
 	
-	/** enable/disable slow */
-	private static boolean slowOn = false;
+	/** Lane operation: update the order of the lanes on the current street. */
+	private static final int LANE_UPDATE = 3;
 	
-	/** ids is activated */
-	private static boolean idsActivated = false;
+	/** Lane operation: add the vehicle to the lanes of the current street. */
+	private static final int LANE_ADD = 4;
 	
-	/** the interval to generate fake messages */
-	private static int fakeMessagesInterval_ = 10000;
+	/** Lane operation: the waiting time is over, start driving on the current street. */
+	private static final int LANE_ACTIVATE = 5;
 	
 	/** mode to send message only to vehicles within reach and to disable forwarding! (used for IDS evaluation) */
 	private static boolean directCommunicationMode_ = true;
@@ -234,6 +172,15 @@ public class Vehicle extends LaneObject{
 //	private static int vehiclesInSlow = 0;
 	// object variables begin here
 
+	/** The map of the simulation context this vehicle belongs to. */
+	private final Map map_ = Map.getInstance();
+	
+	/** The simulation engine of the context this vehicle belongs to. */
+	private final SimulationEngine engine_ = SimulationEngine.getInstance();
+	
+	/** A reference to the configuration of the simulation context this vehicle belongs to. */
+	private final SimulationConfig config_ = SimulationConfig.getInstance();
+	
 	/** The destinations this vehicle wants to visit. */
 	public ArrayDeque<WayPoint> originalDestinations_;
 	
@@ -280,6 +227,9 @@ public class Vehicle extends LaneObject{
 	
 	/** A list of all Road-Side-Units currently known because of received beacons. */
 	private final KnownRSUsList knownRSUsList_ = new KnownRSUsList();
+	
+	/** The known Road-Side-Units in communication distance. Reused in every call to <code>sendMessages()</code> to prevent unnecessary object creation. */
+	private RSU[] rsusInReach_ = new RSU[0];
 
 	/** All known penalties. */
 	private final KnownPenalties knownPenalties_ = new KnownPenalties(this);
@@ -288,7 +238,7 @@ public class Vehicle extends LaneObject{
 	private boolean wiFiEnabled_;
 	
 	/** A random number generator for each vehicle. Primarily used for ID generation but can be used for other tasks, too. */
-	private final Random ownRandom_;
+	private final CheckpointRandom ownRandom_;
 
 	/** An ID used in communication (beacons). This might change (=> mixing zone)!It cannot be guaranteed 
 	 * that this is really an unique ID as it's generated randomly! */
@@ -300,12 +250,6 @@ public class Vehicle extends LaneObject{
 	/** The destinations this vehicle wants to visit. */
 	private ArrayDeque<WayPoint> destinations_;
 
-	/** The new speed after the step. <code>curSpeed_</code> will be set to this in the moving-process to circumvent synchronisation problems. */
-	private double newSpeed_;
-
-	/** The new lane after the step. <code>curLane_</code> will be set to this in the moving-process to circumvent synchronisation problems. */
-	private int newLane_ = 1;
-
 	/** If set to true, this car is active and thus is drawn and moves. */
 	private boolean active_ = false;
 
@@ -329,16 +273,32 @@ public class Vehicle extends LaneObject{
 
 	/** A node that we are allowed to pass. */
 	private Node junctionAllowed_ = null;
+	
+	/** The lane operation which is applied after the current step (only used in deterministic mode). */
+	private int pendingLaneOperation_ = LANE_NONE;
+	
+	/** The street of the pending lane operation. */
+	private Street pendingLaneStreet_ = null;
+	
+	/** The direction on the street of the pending lane operation. */
+	private boolean pendingLaneDirection_ = false;
 
 	/** The maximum distance in cm this car can communicate. */
 	private int maxCommDistance_;
 
 	/** The current region. */
 	private Region curRegion_;
-
-	/** The time in milliseconds before doing the next movement. During waiting the vehicle communicates but does not 
-	 * block other cars from passing. */
-	private int curWaitTime_;
+	
+	/** The index of this vehicle in the vehicle array of the region it is stored in or <code>-1</code> if it isn't stored in a region. */
+	private int regionIndex_ = -1;
+	
+	/** The store which holds the position, speed and lane of this vehicle and the countdowns used in every step. The 
+	 * new speed and lane are set when adjusting the speed and used in the moving-process to circumvent synchronisation 
+	 * problems. During waiting (see the wait time) the vehicle communicates but does not block other cars from passing. */
+	private KinematicStore kinematics_ = new KinematicStore(1);
+	
+	/** The slot of this vehicle in <code>kinematics_</code>. */
+	private int slot_ = 0;
 
 	/** The total time in milliseconds this vehicle traveled (excludes predefined waittimes!) */
 	private int totalTravelTime_;
@@ -358,12 +318,6 @@ public class Vehicle extends LaneObject{
 	/** A countdown to check if the minimum time between two lane changes has been reached. */
 	private int laneChangeCountdown = 0;
 
-	/** A countdown for communication. Also used for cleaning up outdated known messages. */
-	private int communicationCountdown_;
-
-	/** A countdown for sending beacons. */
-	private int beaconCountdown_;
-
 	/** A countdown for checking if inside a mix or not. */
 	private int mixCheckCountdown_;
 
@@ -476,10 +430,10 @@ public class Vehicle extends LaneObject{
 	private boolean silentPeriod = false;
 	
 	/** Saved Beacon 1 */
-	private String savedBeacon1 = "";
+	private SavedBeacon savedBeacon1 = new SavedBeacon();
 	
 	/** Saved Beacon 2 */
-	private String savedBeacon2 = "";
+	private SavedBeacon savedBeacon2 = new SavedBeacon();
 	
 	/** variable to log next x beacons */
 	private int logNextBeacons = 0;
@@ -561,9 +515,6 @@ public class Vehicle extends LaneObject{
 	
 
 	private int EVAMessageDelay_ = 3;
-
-	private static int minEVAMessageDelay_ = 1;
-	private static int maxEVAMessageDelay_ = 10;
 	
 	private boolean logBeaconsAfterEvent_ = false;
 	private String beaconString_ = "";
@@ -594,8 +545,9 @@ public class Vehicle extends LaneObject{
 		if(destinations != null && destinations.size()>1){
 			originalDestinations_ = destinations; 
 			destinations_ = originalDestinations_.clone();			
-			ID_ = RANDOM.nextLong();
-			steadyID_ = steadyIDCounter++;
+			Random random = SimulationContext.getCurrent().getRandom();
+			ID_ = random.nextLong();
+			steadyID_ = engine_.getSteadyIDCounter().getAndIncrement();
 			vehicleLength_ = vehicleLength;
 			maxSpeed_ = maxSpeed;
 			emergencyVehicle_ = emergencyVehicle;
@@ -608,51 +560,355 @@ public class Vehicle extends LaneObject{
 			startingWayPoint_ = destinations_.pollFirst();		// take the first element and remove it from the destinations!
 			wiFiEnabled_ = wiFiEnabled;
 			speedDeviation_ = speedDeviation;
-			ownRandom_ = new Random(RANDOM.nextLong());
-			curX_ = startingWayPoint_.getX();
-			curY_ = startingWayPoint_.getY();
-			curPosition_ = startingWayPoint_.getPositionOnStreet();
+			ownRandom_ = new CheckpointRandom(random.nextLong());
+			kinematics_.x_[slot_] = startingWayPoint_.getX();
+			kinematics_.y_[slot_] = startingWayPoint_.getY();
+			kinematics_.position_[slot_] = startingWayPoint_.getPositionOnStreet();
 			curStreet_ = startingWayPoint_.getStreet();
-			curWaitTime_ = startingWayPoint_.getWaittime();
+			kinematics_.waitTime_[slot_] = startingWayPoint_.getWaittime();
 			
 			fakingMessages_ = fakingMessages;
 			fakeMessageType_ = fakeMessageType;
-			curRegion_ = Map.getInstance().getRegionOfPoint(curX_,curY_);
+			curRegion_ = Map.getInstance().getRegionOfPoint(kinematics_.x_[slot_],kinematics_.y_[slot_]);
 			maxCommDistance_ = maxCommDist;
-			curSpeed_ = brakingRate_/2;
-			newSpeed_ = curSpeed_;
+			kinematics_.speed_[slot_] = brakingRate_/2;
+			kinematics_.newSpeed_[slot_] = kinematics_.speed_[slot_];
 			if(curStreet_.isOneway()){
 				while(!destinations_.isEmpty() && (destinations_.peekFirst().getStreet() == curStreet_ || !calculateRoute(true, false))){
-					curWaitTime_ = destinations_.pollFirst().getWaittime();
+					kinematics_.waitTime_[slot_] = destinations_.pollFirst().getWaittime();
 				}
 			} else {
 				while(!destinations_.isEmpty() && (destinations_.peekFirst().getStreet() == curStreet_ || !calculateRoute(false, false))){
-					curWaitTime_ = destinations_.pollFirst().getWaittime();
+					kinematics_.waitTime_[slot_] = destinations_.pollFirst().getWaittime();
 				}
 			}
 			if(destinations_.size() == 0) throw new ParseException(Messages.getString("Vehicle.errorNotEnoughDestinations"),0); //$NON-NLS-1$
-			if(curWaitTime_ == 0){
+			if(kinematics_.waitTime_[slot_] == 0){
 				active_ = true;
 				curStreet_.addLaneObject(this, curDirection_);
 			}
 			calculatePosition();
 			
 			//set the countdowns so that not all fire at the same time!
-			beaconCountdown_ = (int)Math.round(curPosition_)%beaconInterval_;
-			communicationCountdown_ = (int)Math.round(curPosition_)%communicationInterval_;
-			mixCheckCountdown_ = (int)Math.round(curPosition_)%MIX_CHECK_INTERVAL;
-			knownVehiclesTimeoutCountdown_ = (int)Math.round(curPosition_)%KNOWN_VEHICLES_TIMEOUT_CHECKINTERVAL;
-			knownPenaltiesTimeoutCountdown_ = (int)Math.round(curPosition_)%KNOWN_PENALTIES_TIMEOUT_CHECKINTERVAL;
+			kinematics_.beaconCountdown_[slot_] = (int)Math.round(kinematics_.position_[slot_])%config_.getBeaconInterval();
+			kinematics_.communicationCountdown_[slot_] = (int)Math.round(kinematics_.position_[slot_])%config_.getCommunicationInterval();
+			mixCheckCountdown_ = (int)Math.round(kinematics_.position_[slot_])%MIX_CHECK_INTERVAL;
+			knownVehiclesTimeoutCountdown_ = (int)Math.round(kinematics_.position_[slot_])%KNOWN_VEHICLES_TIMEOUT_CHECKINTERVAL;
+			knownPenaltiesTimeoutCountdown_ = (int)Math.round(kinematics_.position_[slot_])%KNOWN_PENALTIES_TIMEOUT_CHECKINTERVAL;
 		
 
-			knownRSUsTimeoutCountdown_ = (int)Math.round(curPosition_)%KNOWN_RSUS_TIMEOUT_CHECKINTERVAL;
-			speedFluctuationCountdown_ = (int)Math.round(curPosition_)%SPEED_FLUCTUATION_CHECKINTERVAL;
-			fakeMessageCountdown_ = (int)Math.round(curPosition_)%fakeMessagesInterval_;
+			knownRSUsTimeoutCountdown_ = (int)Math.round(kinematics_.position_[slot_])%KNOWN_RSUS_TIMEOUT_CHECKINTERVAL;
+			speedFluctuationCountdown_ = (int)Math.round(kinematics_.position_[slot_])%SPEED_FLUCTUATION_CHECKINTERVAL;
+			fakeMessageCountdown_ = (int)Math.round(kinematics_.position_[slot_])%config_.getFakeMessagesInterval();
 			emergencyBrakingCountdown_ = ownRandom_.nextInt(emergencyBrakingInterval_)+1;
 			
-			EVAMessageDelay_ = minEVAMessageDelay_ + ownRandom_.nextInt(maxEVAMessageDelay_);
+			EVAMessageDelay_ = config_.getMinEVAMessageDelay() + ownRandom_.nextInt(config_.getMaxEVAMessageDelay());
 		} else throw new ParseException(Messages.getString("Vehicle.errorNotEnoughDestinations"),0); //$NON-NLS-1$
 	}
+	
+	/**
+	 * Instantiates a vehicle from a checkpoint. Only the data written by {@link #writeCheckpointHeader(CheckpointOutput)} is
+	 * read here. The remaining state is read with {@link #readCheckpoint(CheckpointInput)} after all vehicles have been 
+	 * created as vehicles reference each other.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public Vehicle(CheckpointInput in) throws IOException{
+		startingWayPoint_ = WayPoint.readCheckpoint(in);
+		maxBrakingDistance_ = in.readInt();
+		ownRandom_ = new CheckpointRandom(0);
+	}
+	
+	/**
+	 * Writes the data needed to create this vehicle with {@link #Vehicle(CheckpointInput)} to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpointHeader(CheckpointOutput out) throws IOException{
+		WayPoint.writeCheckpoint(out, startingWayPoint_);
+		out.writeInt(maxBrakingDistance_);
+	}
+	
+	/**
+	 * Writes the state of this vehicle to a checkpoint. The position in the lanes and in the region is restored 
+	 * with the streets and regions. The Road-Side-Units in reach are only used during a step and therefore not written.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		writeLaneObject(out);
+		out.writeInt(kinematics_.x_[slot_]);
+		out.writeInt(kinematics_.y_[slot_]);
+		out.writeDouble(kinematics_.speed_[slot_]);
+		out.writeDouble(kinematics_.position_[slot_]);
+		out.writeInt(kinematics_.lane_[slot_]);
+		ownRandom_.writeCheckpoint(out);
+		out.writeLong(ID_);
+		out.writeInt(steadyID_);
+		writeWayPoints(out, originalDestinations_);
+		writeWayPoints(out, destinations_);
+		out.writeInt(vehicleLength_);
+		out.writeInt(maxSpeed_);
+		out.writeColor(color_);
+		out.writeInt(brakingRate_);
+		out.writeInt(accelerationRate_);
+		out.writeBoolean(emergencyVehicle_);
+		out.writeInt(speedDeviation_);
+		out.writeBoolean(wiFiEnabled_);
+		out.writeInt(maxCommDistance_);
+		out.writeDouble(kinematics_.newSpeed_[slot_]);
+		out.writeInt(kinematics_.newLane_[slot_]);
+		out.writeBoolean(active_);
+		out.writeStreetArray(routeStreets_);
+		out.writeBooleanArray(routeDirections_);
+		out.writeInt(routePosition_);
+		out.writeInt(curBrakingDistance_);
+		out.writeDouble(speedAtLastBrakingDistanceCalculation_);
+		out.writeBoolean(isInMixZone_);
+		out.writeNode(junctionAllowed_);
+		out.writeInt(pendingLaneOperation_);
+		out.writeStreet(pendingLaneStreet_);
+		out.writeBoolean(pendingLaneDirection_);
+		out.writeRegion(curRegion_);
+		out.writeInt(kinematics_.waitTime_[slot_]);
+		out.writeInt(totalTravelTime_);
+		out.writeLong(totalTravelDistance_);
+		out.writeBoolean(brakeForDestination_);
+		out.writeInt(brakeForDestinationCountdown_);
+		out.writeInt(destinationCheckCountdown_);
+		out.writeInt(laneChangeCountdown);
+		out.writeInt(kinematics_.communicationCountdown_[slot_]);
+		out.writeInt(kinematics_.beaconCountdown_[slot_]);
+		out.writeInt(mixCheckCountdown_);
+		out.writeInt(knownVehiclesTimeoutCountdown_);
+		out.writeInt(knownRSUsTimeoutCountdown_);
+		out.writeInt(knownPenaltiesTimeoutCountdown_);
+		out.writeInt(speedFluctuationCountdown_);
+		out.writeBoolean(isBraking_);
+		out.writeDouble(fluctuation_);
+		out.writeInt(waitToSendRHCNCounter_);
+		out.writeInt(lastRHCNMessageCreated);
+		out.writeInt(lastPCNMessageCreated);
+		out.writeInt(lastPCNFORWARDMessageCreated);
+		out.writeInt(lastEVAMessageCreated);
+		out.writeInt(stopTime_);
+		out.writeInt(messagesCounter_);
+		out.writeInt(pcnMessagesCreated_);
+		out.writeInt(pcnForwardMessagesCreated_);
+		out.writeInt(evaMessagesCreated_);
+		out.writeInt(evaForwardMessagesCreated_);
+		out.writeInt(rhcnMessagesCreated_);
+		out.writeInt(eeblMessagesCreated_);
+		out.writeInt(fakeMessagesCreated_);
+		out.writeInt(IDsChanged_);
+		out.writeBoolean(mayBeRecycled_);
+		out.writeBoolean(doNotRecycle_);
+		out.writeBoolean(attackerWasInMix.booleanValue());
+		out.writeBoolean(attackedWasInMix.booleanValue());
+		out.writeBoolean(firstContact.booleanValue());
+		out.writeNode(curMixNode_);
+		out.writeBoolean(waitingForSignal_);
+		out.writeInt(timeDistance_);
+		out.writeInt(politeness_);
+		out.writeBoolean(silentPeriod);
+		savedBeacon1.writeCheckpoint(out);
+		savedBeacon2.writeCheckpoint(out);
+		out.writeInt(logNextBeacons);
+		out.writeBoolean(isInSlow);
+		out.writeBoolean(changedPseudonymInSlow);
+		out.writeInt(slowTimestamp);
+		out.writeBoolean(slowBeaconsLogged);
+		out.writeBoolean(vehicleJustStartedInSlow);
+		out.writeBoolean(moveOutOfTheWay_);
+		out.writeBoolean(forwardMessage_);
+		out.writeBoolean(fakingMessages_);
+		out.writeString(fakeMessageType_);
+		out.writeInt(fakeMessageCountdown_);
+		out.writeInt(fakeMessageCounter_);
+		out.writeInt(fakeMessageTypesCount);
+		out.writeBoolean(emergencyBraking_);
+		out.writeInt(emergencyBrakingDuration_);
+		out.writeInt(emergencyBrakingCountdown_);
+		out.writeBoolean(EEBLmessageIsCreated_);
+		out.writeInt(emergencyBeacons);
+		out.writeBoolean(drivingOnTheSide_);
+		out.writeVehicle(waitingForVehicle_);
+		out.writeBoolean(passingBlocking_);
+		out.writeBoolean(inTrafficJam_);
+		out.writeBoolean(checkIDSProcessors_);
+		out.writeInt(spamCounter_);
+		out.writeInt(EVAMessageDelay_);
+		out.writeBoolean(logBeaconsAfterEvent_);
+		out.writeString(beaconString_);
+		out.writeInt(amountOfLoggedBeacons_);
+		knownMessages_.writeCheckpoint(out);
+		knownVehiclesList_.writeCheckpoint(out);
+		idsProcessorList_.writeCheckpoint(out);
+		knownEventSourcesList_.writeCheckpoint(out);
+		knownRSUsList_.writeCheckpoint(out);
+		knownPenalties_.writeCheckpoint(out);
+	}
+	
+	/**
+	 * Replaces the state of this vehicle with the one from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		readLaneObject(in);
+		kinematics_.x_[slot_] = in.readInt();
+		kinematics_.y_[slot_] = in.readInt();
+		kinematics_.speed_[slot_] = in.readDouble();
+		kinematics_.position_[slot_] = in.readDouble();
+		kinematics_.lane_[slot_] = in.readInt();
+		ownRandom_.readCheckpoint(in);
+		ID_ = in.readLong();
+		steadyID_ = in.readInt();
+		originalDestinations_ = readWayPoints(in);
+		destinations_ = readWayPoints(in);
+		vehicleLength_ = in.readInt();
+		maxSpeed_ = in.readInt();
+		color_ = in.readColor();
+		brakingRate_ = in.readInt();
+		accelerationRate_ = in.readInt();
+		emergencyVehicle_ = in.readBoolean();
+		speedDeviation_ = in.readInt();
+		wiFiEnabled_ = in.readBoolean();
+		maxCommDistance_ = in.readInt();
+		kinematics_.newSpeed_[slot_] = in.readDouble();
+		kinematics_.newLane_[slot_] = in.readInt();
+		active_ = in.readBoolean();
+		routeStreets_ = in.readStreetArray();
+		routeDirections_ = in.readBooleanArray();
+		routePosition_ = in.readInt();
+		curBrakingDistance_ = in.readInt();
+		speedAtLastBrakingDistanceCalculation_ = in.readDouble();
+		isInMixZone_ = in.readBoolean();
+		junctionAllowed_ = in.readNode();
+		pendingLaneOperation_ = in.readInt();
+		pendingLaneStreet_ = in.readStreet();
+		pendingLaneDirection_ = in.readBoolean();
+		curRegion_ = in.readRegion();
+		kinematics_.waitTime_[slot_] = in.readInt();
+		totalTravelTime_ = in.readInt();
+		totalTravelDistance_ = in.readLong();
+		brakeForDestination_ = in.readBoolean();
+		brakeForDestinationCountdown_ = in.readInt();
+		destinationCheckCountdown_ = in.readInt();
+		laneChangeCountdown = in.readInt();
+		kinematics_.communicationCountdown_[slot_] = in.readInt();
+		kinematics_.beaconCountdown_[slot_] = in.readInt();
+		mixCheckCountdown_ = in.readInt();
+		knownVehiclesTimeoutCountdown_ = in.readInt();
+		knownRSUsTimeoutCountdown_ = in.readInt();
+		knownPenaltiesTimeoutCountdown_ = in.readInt();
+		speedFluctuationCountdown_ = in.readInt();
+		isBraking_ = in.readBoolean();
+		fluctuation_ = in.readDouble();
+		waitToSendRHCNCounter_ = in.readInt();
+		lastRHCNMessageCreated = in.readInt();
+		lastPCNMessageCreated = in.readInt();
+		lastPCNFORWARDMessageCreated = in.readInt();
+		lastEVAMessageCreated = in.readInt();
+		stopTime_ = in.readInt();
+		messagesCounter_ = in.readInt();
+		pcnMessagesCreated_ = in.readInt();
+		pcnForwardMessagesCreated_ = in.readInt();
+		evaMessagesCreated_ = in.readInt();
+		evaForwardMessagesCreated_ = in.readInt();
+		rhcnMessagesCreated_ = in.readInt();
+		eeblMessagesCreated_ = in.readInt();
+		fakeMessagesCreated_ = in.readInt();
+		IDsChanged_ = in.readInt();
+		mayBeRecycled_ = in.readBoolean();
+		doNotRecycle_ = in.readBoolean();
+		attackerWasInMix = Boolean.valueOf(in.readBoolean());
+		attackedWasInMix = Boolean.valueOf(in.readBoolean());
+		firstContact = Boolean.valueOf(in.readBoolean());
+		curMixNode_ = in.readNode();
+		waitingForSignal_ = in.readBoolean();
+		timeDistance_ = in.readInt();
+		politeness_ = in.readInt();
+		silentPeriod = in.readBoolean();
+		savedBeacon1.readCheckpoint(in);
+		savedBeacon2.readCheckpoint(in);
+		logNextBeacons = in.readInt();
+		isInSlow = in.readBoolean();
+		changedPseudonymInSlow = in.readBoolean();
+		slowTimestamp = in.readInt();
+		slowBeaconsLogged = in.readBoolean();
+		vehicleJustStartedInSlow = in.readBoolean();
+		moveOutOfTheWay_ = in.readBoolean();
+		forwardMessage_ = in.readBoolean();
+		fakingMessages_ = in.readBoolean();
+		fakeMessageType_ = in.readString();
+		fakeMessageCountdown_ = in.readInt();
+		fakeMessageCounter_ = in.readInt();
+		fakeMessageTypesCount = in.readInt();
+		emergencyBraking_ = in.readBoolean();
+		emergencyBrakingDuration_ = in.readInt();
+		emergencyBrakingCountdown_ = in.readInt();
+		EEBLmessageIsCreated_ = in.readBoolean();
+		emergencyBeacons = in.readInt();
+		drivingOnTheSide_ = in.readBoolean();
+		waitingForVehicle_ = in.readVehicle();
+		passingBlocking_ = in.readBoolean();
+		inTrafficJam_ = in.readBoolean();
+		checkIDSProcessors_ = in.readBoolean();
+		spamCounter_ = in.readInt();
+		EVAMessageDelay_ = in.readInt();
+		logBeaconsAfterEvent_ = in.readBoolean();
+		beaconString_ = in.readString();
+		amountOfLoggedBeacons_ = in.readInt();
+		knownMessages_.readCheckpoint(in);
+		knownVehiclesList_.readCheckpoint(in);
+		idsProcessorList_.readCheckpoint(in);
+		knownEventSourcesList_.readCheckpoint(in);
+		knownRSUsList_.readCheckpoint(in);
+		knownPenalties_.readCheckpoint(in);
+	}
+	
+	/**
+	 * Writes a list of waypoints which may be <code>null</code>. Waypoints are shared between the lists.
+	 * 
+	 * @param out		the stream to write to
+	 * @param wayPoints	the waypoints
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	private static void writeWayPoints(CheckpointOutput out, ArrayDeque<WayPoint> wayPoints) throws IOException{
+		if(wayPoints == null) out.writeInt(-1);
+		else {
+			out.writeInt(wayPoints.size());
+			Iterator<WayPoint> iterator = wayPoints.iterator();
+			while(iterator.hasNext()) WayPoint.writeCheckpoint(out, iterator.next());
+		}
+	}
+	
+	/**
+	 * Reads a list of waypoints written with {@link #writeWayPoints(CheckpointOutput, ArrayDeque)}.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @return the waypoints or <code>null</code>
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	private static ArrayDeque<WayPoint> readWayPoints(CheckpointInput in) throws IOException{
+		int size = in.readInt();
+		if(size < 0) return null;
+		ArrayDeque<WayPoint> wayPoints = new ArrayDeque<WayPoint>(Math.max(2, size));
+		for(int i = 0; i < size; ++i) wayPoints.add(WayPoint.readCheckpoint(in));
+		return wayPoints;
+	}
 
 
 	/**
@@ -668,7 +924,7 @@ public class Vehicle extends LaneObject{
 			WayPoint nextPoint = destinations_.peekFirst();			
 			if(curStreet_ == nextPoint.getStreet()){
 				boolean neededDirection;
-				if(curPosition_ < nextPoint.getPositionOnStreet()) neededDirection = true;
+				if(kinematics_.position_[slot_] < nextPoint.getPositionOnStreet()) neededDirection = true;
 				else neededDirection = false;
 				if(!careAboutDirection || neededDirection == curDirection_){
 					routeStreets_ = new Street[1];
@@ -683,7 +939,7 @@ public class Vehicle extends LaneObject{
 			if(!careAboutDirection) direction = 0;
 			else if(curDirection_) direction = -1;
 			else direction = 1;
-			ArrayDeque<Node> routing = ROUTING_ALGO.getRouting(routingMode_, direction, curX_, curY_, curStreet_, curPosition_, nextPoint.getX(), nextPoint.getY(), nextPoint.getStreet(), nextPoint.getPositionOnStreet(), knownPenalties_.getStreets(), knownPenalties_.getDirections(), knownPenalties_.getPenalties(), knownPenalties_.getSize(), maxSpeed_);
+			ArrayDeque<Node> routing = ROUTING_ALGO.getRouting(config_.getRoutingMode(), direction, kinematics_.x_[slot_], kinematics_.y_[slot_], curStreet_, kinematics_.position_[slot_], nextPoint.getX(), nextPoint.getY(), nextPoint.getStreet(), nextPoint.getPositionOnStreet(), knownPenalties_, maxSpeed_);
 
 			if(routing.size() > 0){
 				if(routing.size() == 1){
@@ -749,8 +1005,9 @@ public class Vehicle extends LaneObject{
 			} else {
 				if(!isReroute && destinations_.size() < 2) {
 					active_ = false;
-					curWaitTime_ = Integer.MIN_VALUE;
-					if(totalTravelTime_ >= minTravelTimeForRecycling_) mayBeRecycled_ = true;
+					kinematics_.waitTime_[slot_] = Integer.MIN_VALUE;
+					if(totalTravelTime_ >= config_.getMinTravelTimeForRecycling()) mayBeRecycled_ = true;
+					vehicleFinished();
 				}
 				return false;
 			}
@@ -768,22 +1025,26 @@ public class Vehicle extends LaneObject{
 	
 	public void adjustSpeedWithIDM(int timePerStep){
 		// start vehicle
-		if(curWaitTime_ != 0 && curWaitTime_ != Integer.MIN_VALUE){
-			if(curWaitTime_ <= timePerStep){
-				//the time the vehicle will wait until it starts driving
-				curWaitTime_ = 0;
-				//needs to be set for vehicle to start driving
-				active_ = true;
-				brakeForDestination_ = false;
-				//add the vehicle to the current lane object
-				curStreet_.addLaneObject(this, curDirection_);
-			} else curWaitTime_ -= timePerStep;
+		if(kinematics_.waitTime_[slot_] != 0 && kinematics_.waitTime_[slot_] != Integer.MIN_VALUE){
+			if(kinematics_.waitTime_[slot_] <= timePerStep){
+				if(config_.isDeterministicMode()) deferLaneOperation(LANE_ACTIVATE, curStreet_, curDirection_);	// other workers might read the lane right now
+				else {
+					//the time the vehicle will wait until it starts driving
+					kinematics_.waitTime_[slot_] = 0;
+					//needs to be set for vehicle to start driving
+					active_ = true;
+					brakeForDestination_ = false;
+					//add the vehicle to the current lane object
+					curStreet_.addLaneObject(this, curDirection_);
+					vehicleStateChanged();
+				}
+			} else kinematics_.waitTime_[slot_] -= timePerStep;
 		}
 		if(active_){
-			if(curWaitTime_ == 0 && curStreet_ != null){
+			if(kinematics_.waitTime_[slot_] == 0 && curStreet_ != null){
 				//as a result of this method a newSpeed_ must be set
-				newSpeed_ = 270;	
-				if(this.getCurStreet().getName().contains("Mittelweg")) newSpeed_ = 27000;		
+				kinematics_.newSpeed_[slot_] = 270;	
+				if(this.getCurStreet().getName().contains("Mittelweg")) kinematics_.newSpeed_[slot_] = 27000;		
 			}
 		}
 	}
@@ -808,16 +1069,17 @@ public class Vehicle extends LaneObject{
 		// start vehicle
 
 		//needs to be set for vehicle to start driving
+		if(!active_) vehicleStateChanged();
 		active_ = true;
 		
 		//the time the vehicle will wait until it starts driving
-		curWaitTime_ = 0;
+		kinematics_.waitTime_[slot_] = 0;
 		
 		//add the vehicle to the current lane object
 		curStreet_.addLaneObject(this, curDirection_);
 
 		//as a result of this method a newSpeed_ must be set
-		newSpeed_ = 1800;	
+		kinematics_.newSpeed_[slot_] = 1800;	
 	}
 	
 	/**
@@ -829,16 +1091,17 @@ public class Vehicle extends LaneObject{
 		// start vehicle
 
 		//needs to be set for vehicle to start driving
+		if(!active_) vehicleStateChanged();
 		active_ = true;
 		
 		//the time the vehicle will wait until it starts driving
-		curWaitTime_ = 0;
+		kinematics_.waitTime_[slot_] = 0;
 		
 		//add the vehicle to the current lane object
 		curStreet_.addLaneObject(this, curDirection_);
 
 		//as a result of this method a newSpeed_ must be set
-		newSpeed_ = 1800;	
+		kinematics_.newSpeed_[slot_] = 1800;	
 	}
 
 	
@@ -851,23 +1114,27 @@ public class Vehicle extends LaneObject{
 
 	public void adjustSpeed(int timePerStep){
 		waitingForSignal_ = false;
-		if(curWaitTime_ != 0 && curWaitTime_ != Integer.MIN_VALUE){
-			if(curWaitTime_ <= timePerStep){
-				curWaitTime_ = 0;
-				active_ = true;
-				brakeForDestination_ = false;
-				curStreet_.addLaneObject(this, curDirection_);
-			} else curWaitTime_ -= timePerStep;
+		if(kinematics_.waitTime_[slot_] != 0 && kinematics_.waitTime_[slot_] != Integer.MIN_VALUE){
+			if(kinematics_.waitTime_[slot_] <= timePerStep){
+				if(config_.isDeterministicMode()) deferLaneOperation(LANE_ACTIVATE, curStreet_, curDirection_);	// other workers might read the lane right now
+				else {
+					kinematics_.waitTime_[slot_] = 0;
+					active_ = true;
+					brakeForDestination_ = false;
+					curStreet_.addLaneObject(this, curDirection_);
+					vehicleStateChanged();
+				}
+			} else kinematics_.waitTime_[slot_] -= timePerStep;
 		}
 
 		if(active_){
-			if(curWaitTime_ == 0 && curStreet_ != null){
+			if(kinematics_.waitTime_[slot_] == 0 && curStreet_ != null){
 				//curBrakingDistance always needs to be up-to-date but speed normally doesn't change too often...
-				if(curSpeed_ != speedAtLastBrakingDistanceCalculation_){
-					speedAtLastBrakingDistanceCalculation_ = curSpeed_;
+				if(kinematics_.speed_[slot_] != speedAtLastBrakingDistanceCalculation_){
+					speedAtLastBrakingDistanceCalculation_ = kinematics_.speed_[slot_];
 					//curBrakingDistance_ = (int)StrictMath.floor(((timeDistance_/1000)*curSpeed_) + curSpeed_ * curSpeed_ / (2 * brakingRate_)); <-- new version, commented out because of performance issues (vehicles are to near together when blocking occurs)
 					//System.out.println(curBrakingDistance_);
-					curBrakingDistance_ = (int)StrictMath.floor(0.5d + curSpeed_ + curSpeed_ * curSpeed_ / (2 * brakingRate_));
+					curBrakingDistance_ = (int)StrictMath.floor(0.5d + kinematics_.speed_[slot_] + kinematics_.speed_[slot_] * kinematics_.speed_[slot_] / (2 * brakingRate_));
 					if(curBrakingDistance_ < 500) curBrakingDistance_ = 500;
 				}
 				// ================================= 
@@ -875,8 +1142,8 @@ public class Vehicle extends LaneObject{
 				// ================================= 
 				if(destinationCheckCountdown_ <= 0 && ! brakeForDestination_){
 					WayPoint destinationWayPoint = destinations_.peekFirst();
-					long dx = destinationWayPoint.getX() - curX_;
-					long dy = destinationWayPoint.getY() - curY_;
+					long dx = destinationWayPoint.getX() - kinematics_.x_[slot_];
+					long dy = destinationWayPoint.getY() - kinematics_.y_[slot_];
 					long distanceSquared = dx * dx + dy * dy;
 					if(distanceSquared < (long)maxBrakingDistance_*maxBrakingDistance_*2){		//seems we're quite near a destination! This happens only in the last about 2-3 seconds!
 						if(destinationWayPoint.getStreet() == curStreet_){ //if on the same street, the distance calculation is already correct!
@@ -885,7 +1152,7 @@ public class Vehicle extends LaneObject{
 								brakeForDestination_ = true;
 							} else destinationCheckCountdown_ = (int)StrictMath.floor(0.5d + ((StrictMath.sqrt(distanceSquared)-maxBrakingDistance_)/maxSpeed_)*1000);
 						} else {	//not on the same street. Need to calculate the length of the rest of the way to the destination
-							double distance = 0, tmpPosition = curPosition_;
+							double distance = 0, tmpPosition = kinematics_.position_[slot_];
 							Street tmpStreet = curStreet_;
 							boolean tmpDirection = curDirection_;
 							int i;
@@ -917,19 +1184,19 @@ public class Vehicle extends LaneObject{
 				// ================================= 
 				// Step 2: Check for vehicle/blocking in front of this one or a slower street and try to change lane
 				// ================================= 
-				int result = checkCurrentBraking(curLane_);
+				int result = checkCurrentBraking(kinematics_.lane_[slot_]);
 				boolean changedLane = false;
 				laneChangeCountdown -= timePerStep;
-				if(laneChangeCountdown < 0 && curLane_ == 0) newLane_ = 1;
+				if(laneChangeCountdown < 0 && kinematics_.lane_[slot_] == 0) kinematics_.newLane_[slot_] = 1;
 				
 				if(laneChangeCountdown < 0 && result == 1){
-					if(curLane_ > 1){
+					if(kinematics_.lane_[slot_] > 1){
 						curBrakingDistance_ += 2000;	//make it little bit longer so that changes are not made too often if one lane has a little bit more space ;)
-						int result2 = checkCurrentBraking(curLane_-1);
+						int result2 = checkCurrentBraking(kinematics_.lane_[slot_]-1);
 						curBrakingDistance_ -= 2000;
 						
-						if(result2 == 0 && checkLaneFree(curLane_+1)){	// only change lane if there are no obstacles on other lane or emergency vehicle is approaching
-							newLane_ = curLane_ - 1;
+						if(result2 == 0 && checkLaneFree(kinematics_.lane_[slot_]+1)){	// only change lane if there are no obstacles on other lane or emergency vehicle is approaching
+							kinematics_.newLane_[slot_] = kinematics_.lane_[slot_] - 1;
 
 							changedLane = true;
 							
@@ -941,12 +1208,12 @@ public class Vehicle extends LaneObject{
 						}
 						
 					}
-					if(result == 1 && curStreet_.getLanesCount() > curLane_){
+					if(result == 1 && curStreet_.getLanesCount() > kinematics_.lane_[slot_]){
 						curBrakingDistance_ += 2000;
-						int result2 = checkCurrentBraking(curLane_+1);
+						int result2 = checkCurrentBraking(kinematics_.lane_[slot_]+1);
 						curBrakingDistance_ -= 2000;
-						if(result2 == 0 && checkLaneFree(curLane_+1)){	// only change lane if there are no obstacles on other lane
-							newLane_ = curLane_ + 1;
+						if(result2 == 0 && checkLaneFree(kinematics_.lane_[slot_]+1)){	// only change lane if there are no obstacles on other lane
+							kinematics_.newLane_[slot_] = kinematics_.lane_[slot_] + 1;
 
 							changedLane = true;
 							laneChangeCountdown = LANE_CHANGE_INTERVAL;
@@ -965,9 +1232,9 @@ public class Vehicle extends LaneObject{
 				// ================================= 
 				// Step 3: Check if we can change to the right lane
 				// ================================= 
-				if(laneChangeCountdown < 0 && curLane_ > 1 && !changedLane && result == 0){
-					if(checkLaneFree(curLane_ - 1)){
-						newLane_ = curLane_ - 1;
+				if(laneChangeCountdown < 0 && kinematics_.lane_[slot_] > 1 && !changedLane && result == 0){
+					if(checkLaneFree(kinematics_.lane_[slot_] - 1)){
+						kinematics_.newLane_[slot_] = kinematics_.lane_[slot_] - 1;
 						changedLane = true;
 						//if(moveOutOfTheWay_) newLane_= 0;
 						laneChangeCountdown = LANE_CHANGE_INTERVAL;
@@ -986,7 +1253,7 @@ public class Vehicle extends LaneObject{
 				}
 
 				
-				if(emergencyVehicle_) newLane_ = curStreet_.getLanesCount();
+				if(emergencyVehicle_) kinematics_.newLane_[slot_] = curStreet_.getLanesCount();
 				if(moveOutOfTheWay_ && !emergencyVehicle_) {
 					if(forwardMessage_ && waitingForVehicle_ != null){
 						
@@ -1029,18 +1296,17 @@ public class Vehicle extends LaneObject{
 						if(destX != -1 && destY != -1){
 							int direction = -1;
 							if(!curDirection_) direction = 1;
-							int time = Renderer.getInstance().getTimePassed();
-							PenaltyMessage message = new PenaltyMessage(curX_, curY_, destX, destY, PENALTY_EVA_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, waitingForVehicle_ , "HUANG_EVA_FORWARD", false, false);
-							message.setFloodingMode(false);	// enable flooding mode if within distance!						
-							knownMessages_.addMessage(message, false, true);
+							int time = engine_.getTimePassed();
+							PenaltyMessage message = new PenaltyMessage(kinematics_.x_[slot_], kinematics_.y_[slot_], destX, destY, PENALTY_EVA_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, waitingForVehicle_ , "HUANG_EVA_FORWARD", false, false);
+							knownMessages_.addMessage(message, false, false, true);
 							++evaForwardMessagesCreated_;
 													
 						}	
 					}
 					
-					if(newLane_ == curStreet_.getLanesCount() && ownRandom_.nextInt(100) == 0) {
+					if(kinematics_.newLane_[slot_] == curStreet_.getLanesCount() && ownRandom_.nextInt(100) == 0) {
 						drivingOnTheSide_ = true;
-						newLane_= curLane_-1;
+						kinematics_.newLane_[slot_]= kinematics_.lane_[slot_]-1;
 						changedLane = true;
 						laneChangeCountdown = LANE_CHANGE_INTERVAL + 20000;
 						moveOutOfTheWay_ = false;
@@ -1049,7 +1315,7 @@ public class Vehicle extends LaneObject{
 					}			
 				}
 
-				if((curLane_ == 0 && curSpeed_ > 277) || emergencyBraking_){
+				if((kinematics_.lane_[slot_] == 0 && kinematics_.speed_[slot_] > 277) || emergencyBraking_){
 					brakeOnce = true;	
 				}
 
@@ -1062,16 +1328,16 @@ public class Vehicle extends LaneObject{
 				}
 				if((brakeForDestinationCountdown_ <= 0 && brakeForDestination_) || brakeOnce || isBraking_){
 
-					if(isBraking_ && !(brakeOnce || (brakeForDestinationCountdown_ <= 0 && brakeForDestination_))) newSpeed_ = curSpeed_ - (fluctuation_ * (double)timePerStep/1000);
-					else newSpeed_ = curSpeed_ - (brakingRate_ * (double)timePerStep/1000);
+					if(isBraking_ && !(brakeOnce || (brakeForDestinationCountdown_ <= 0 && brakeForDestination_))) kinematics_.newSpeed_[slot_] = kinematics_.speed_[slot_] - (fluctuation_ * (double)timePerStep/1000);
+					else kinematics_.newSpeed_[slot_] = kinematics_.speed_[slot_] - (brakingRate_ * (double)timePerStep/1000);
 
-					if(!brakeOnce && newSpeed_ < brakingRate_/2) newSpeed_ = brakingRate_/2;
+					if(!brakeOnce && kinematics_.newSpeed_[slot_] < brakingRate_/2) kinematics_.newSpeed_[slot_] = brakingRate_/2;
 
 				}
 				if(!brakeForDestination_ && !brakeOnce && !isBraking_){		//if no breaking is scheduled we can accelerate (we don't need to look forward here because cars are not allowed by law to accelerate before they're on a "faster" street :D)
 
-					if(curSpeed_ < (curStreet_.getSpeed() + speedDeviation_)) { 
-						newSpeed_ = curSpeed_ + (accelerationRate_ * (double)timePerStep/1000);
+					if(kinematics_.speed_[slot_] < (curStreet_.getSpeed() + speedDeviation_)) { 
+						kinematics_.newSpeed_[slot_] = kinematics_.speed_[slot_] + (accelerationRate_ * (double)timePerStep/1000);
 					}
 				}
 
@@ -1081,9 +1347,9 @@ public class Vehicle extends LaneObject{
 				// ================================= 
 				
 
-				if(newSpeed_ > (maxSpeed_ + speedDeviation_)) newSpeed_ = (maxSpeed_ + speedDeviation_);
-				else if (newSpeed_ < 0) newSpeed_ = 0;	//no negative speed
-				if((curStreet_.getSpeed() + speedDeviation_) > 0 && newSpeed_ > (curStreet_.getSpeed() + speedDeviation_) && this != Renderer.getInstance().getAttackerVehicle() && !emergencyVehicle_) newSpeed_ = (curStreet_.getSpeed() + speedDeviation_);
+				if(kinematics_.newSpeed_[slot_] > (maxSpeed_ + speedDeviation_)) kinematics_.newSpeed_[slot_] = (maxSpeed_ + speedDeviation_);
+				else if (kinematics_.newSpeed_[slot_] < 0) kinematics_.newSpeed_[slot_] = 0;	//no negative speed
+				if((curStreet_.getSpeed() + speedDeviation_) > 0 && kinematics_.newSpeed_[slot_] > (curStreet_.getSpeed() + speedDeviation_) && this != engine_.getAttackerVehicle() && !emergencyVehicle_) kinematics_.newSpeed_[slot_] = (curStreet_.getSpeed() + speedDeviation_);
 			}
 
 		
@@ -1111,7 +1377,7 @@ public class Vehicle extends LaneObject{
 					fluctuation_ = 0;
 				}
 				//currentSpeedFluctuation_ = ownRandom_.nextInt(SPEED_FLUCTUATION_MAX) + 1;
-				//if(Renderer.getInstance().getMarkedVehicle() != null && Renderer.getInstance().getMarkedVehicle().equals(this)) System.out.println("Geschwindigkeit: " + currentSpeedFluctuation_);
+				//if(engine_.getMarkedVehicle() != null && engine_.getMarkedVehicle().equals(this)) System.out.println("Geschwindigkeit: " + currentSpeedFluctuation_);
 			}
 			else speedFluctuationCountdown_ -= timePerStep;
 			
@@ -1168,14 +1434,11 @@ public class Vehicle extends LaneObject{
 						if(destX != -1 && destY != -1){
 							int direction = -1;
 							if(!curDirection_) direction = 1;
-							int time = Renderer.getInstance().getTimePassed();
-							PenaltyMessage message = new PenaltyMessage(this.getX(), this.getY(), destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this,  "HUANG_EEBL", false, true);
-							long dx = message.getDestinationX_() - curX_;
-							long dy = message.getDestinationY_() - curY_;
-							if((long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy)){
-								message.setFloodingMode(true);	// enable flooding mode if within distance!
-							}								
-							knownMessages_.addMessage(message, true, true);
+							int time = engine_.getTimePassed();
+							PenaltyMessage message = new PenaltyMessage(this.getX(), this.getY(), destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this,  "HUANG_EEBL", false, true);
+							long dx = message.getDestinationX_() - kinematics_.x_[slot_];
+							long dy = message.getDestinationY_() - kinematics_.y_[slot_];
+							knownMessages_.addMessage(message, (long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy), true, true);	// enable flooding mode if within distance!
 
 							++eeblMessagesCreated_;
 						}	
@@ -1186,14 +1449,14 @@ public class Vehicle extends LaneObject{
 				//}
 				
 			
-			if(isWiFiEnabled() && communicationEnabled_){
+			if(isWiFiEnabled() && config_.isCommunicationEnabled()){
 				
 				if(knownMessages_.hasNewMessages()) {
 					
 					knownMessages_.processMessages();
 				}
-				communicationCountdown_ -= timePerStep;
-				if(communicationCountdown_ < 1) knownMessages_.checkOutdatedMessages(true);
+				kinematics_.communicationCountdown_[slot_] -= timePerStep;
+				if(kinematics_.communicationCountdown_[slot_] < 1) knownMessages_.checkOutdatedMessages(true);
 
 				knownPenaltiesTimeoutCountdown_ -= timePerStep;
 				if(knownPenaltiesTimeoutCountdown_ < 1){
@@ -1201,8 +1464,8 @@ public class Vehicle extends LaneObject{
 					knownPenaltiesTimeoutCountdown_ += KNOWN_PENALTIES_TIMEOUT_CHECKINTERVAL;
 				}
 
-				if(beaconsEnabled_){
-					beaconCountdown_ -= timePerStep;
+				if(config_.isBeaconsEnabled()){
+					kinematics_.beaconCountdown_[slot_] -= timePerStep;
 
 					// recheck known vehicles for outdated entries.
 					if(knownVehiclesTimeoutCountdown_ < 1){
@@ -1232,7 +1495,7 @@ public class Vehicle extends LaneObject{
 				//lastEVAFORWARDMessageCreated += timePerStep;
 				//lastEEBLMessageCreated += timePerStep;
 				//lastFAKEMessageCreated += timePerStep;
-				if(newSpeed_ == 0){
+				if(kinematics_.newSpeed_[slot_] == 0){
 					stopTime_ += timePerStep;
 					
 					if(stopTime_ > TIME_FOR_JAM && !waitingForSignal_){
@@ -1277,14 +1540,11 @@ public class Vehicle extends LaneObject{
 							if(destX != -1 && destY != -1){
 								int direction = -1;
 								if(!curDirection_) direction = 1;
-								int time = Renderer.getInstance().getTimePassed();
-								PenaltyMessage message = new PenaltyMessage(curX_, curY_, destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this,  "HUANG_PCN", false, false);
-								long dx = message.getDestinationX_() - curX_;
-								long dy = message.getDestinationY_() - curY_;
-								if((long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy)){
-									message.setFloodingMode(true);	// enable flooding mode if within distance!
-								}								
-								knownMessages_.addMessage(message, false, true);
+								int time = engine_.getTimePassed();
+								PenaltyMessage message = new PenaltyMessage(kinematics_.x_[slot_], kinematics_.y_[slot_], destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this,  "HUANG_PCN", false, false);
+								long dx = message.getDestinationX_() - kinematics_.x_[slot_];
+								long dy = message.getDestinationY_() - kinematics_.y_[slot_];
+								knownMessages_.addMessage(message, (long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy), false, true);	// enable flooding mode if within distance!
 
 								++pcnMessagesCreated_;
 							}							
@@ -1301,80 +1561,21 @@ public class Vehicle extends LaneObject{
 				// Step 8: Check if vehicle is inside a mix zone and change vehicle ID if entering mix zone
 				// ================================= 
 
-				if(mixZonesEnabled_){
+				if(config_.isMixZonesEnabled()){
 					mixCheckCountdown_ -= MIX_CHECK_INTERVAL;
 					if(mixCheckCountdown_ <= 0){
-						int MapMinX, MapMinY, MapMaxX, MapMaxY, RegionMinX, RegionMinY, RegionMaxX, RegionMaxY;
-						int i, j, k, size;
-						Node node;
-						long dx, dy, mixDistanceSquared = (long)getMaxMixZoneRadius() * getMaxMixZoneRadius();
 						boolean needsToMix = false;
 
-						// Minimum x coordinate to be considered
-						long tmp = curX_ - getMaxMixZoneRadius();
-						if (tmp < 0) MapMinX = 0;	// Map stores only positive coordinates
-						else if(tmp < Integer.MAX_VALUE) MapMinX = (int) tmp;
-						else MapMinX = Integer.MAX_VALUE;
-
-						// Maximum x coordinate to be considered
-						tmp = curX_ + getMaxMixZoneRadius();
-						if (tmp < 0) MapMaxX = 0;
-						else if(tmp < Integer.MAX_VALUE) MapMaxX = (int) tmp;
-						else MapMaxX = Integer.MAX_VALUE;
-
-						// Minimum y coordinate to be considered
-						tmp = curY_ - getMaxMixZoneRadius();
-						if (tmp < 0) MapMinY = 0;
-						else if(tmp < Integer.MAX_VALUE) MapMinY = (int) tmp;
-						else MapMinY = Integer.MAX_VALUE;
-
-						// Maximum y coordinate to be considered
-						tmp = curY_ + getMaxMixZoneRadius();
-						if (tmp < 0) MapMaxY = 0;
-						else if(tmp < Integer.MAX_VALUE) MapMaxY = (int) tmp;
-						else MapMaxY = Integer.MAX_VALUE;
-
-						// Get the regions to be considered
-						Region tmpregion = MAP.getRegionOfPoint(MapMinX, MapMinY);
-						RegionMinX = tmpregion.getX();
-						RegionMinY = tmpregion.getY();
-
-						tmpregion = MAP.getRegionOfPoint(MapMaxX, MapMaxY);
-						RegionMaxX = tmpregion.getX();
-						RegionMaxY = tmpregion.getY();
-
-						// only check those regions which are within the radius
-						for(i = RegionMinX; i <= RegionMaxX; ++i){
-	
-							for(j = RegionMinY; j <= RegionMaxY; ++j){
-								Node[] mixNodes = regions_[i][j].getMixZoneNodes();
-								size = mixNodes.length;
-								for(k = 0; k < size; ++k){
-									node = mixNodes[k];
-									// precheck if the mixing node is near enough and valid (check is not exact as its a rectangular box and not circle)
-									if(node.getX() >= curX_ - node.getMixZoneRadius() && node.getX() <= curX_ + node.getMixZoneRadius() && node.getY() >= curY_ - node.getMixZoneRadius() && node.getY() <= curY_ + node.getMixZoneRadius()){
-										dx = node.getX() - curX_;
-										dy = node.getY() - curY_;
-
-										mixDistanceSquared = node.getMixZoneRadius() * node.getMixZoneRadius();
-										if((dx * dx + dy * dy) <= mixDistanceSquared){	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
-											needsToMix = true;
-											curMixNode_ = node;
-
-											//change values to break out of all loops as we don't need to check further!
-											i = RegionMaxX;
-											j = RegionMaxY;
-											k = mixNodes.length -1;									
-										}
-									} 
-								}
-							}
+						// only check the mix zones covering the cell of the grid in which the vehicle is
+						Node node = map_.getMixZoneGrid().findMixZone(kinematics_.x_[slot_], kinematics_.y_[slot_]);
+						if(node != null){
+							needsToMix = true;
+							curMixNode_ = node;
 						}
 						
 						if(needsToMix != isInMixZone_){
-							if(privacyDataLogged_){
-								if(needsToMix) 	PrivacyLogWriter.log(Renderer.getInstance().getTimePassed() + ":Steady ID:" + this.steadyID_ + ":Pseudonym:" + Long.toHexString(this.ID_) + ":TraveledDistance:" + totalTravelDistance_ + ":TraveledTime:" + totalTravelTime_ + ":Node ID:" + curMixNode_.getNodeID() + ":Direction:IN" + ":Street:" + this.getCurStreet().getName() + ":StreetSpeed:" + this.getCurStreet().getSpeed() + ":VehicleSpeed:" + this.getCurSpeed() +  ":x:" + this.curX_ + ":y:" + this.curY_);
-								else PrivacyLogWriter.log(Renderer.getInstance().getTimePassed() + ":Steady ID:" + this.steadyID_ + ":Pseudonym:" + Long.toHexString(this.ID_) + ":TraveledDistance:" + totalTravelDistance_ + ":TraveledTime:" + totalTravelTime_ + ":Node ID:" + curMixNode_.getNodeID() + ":Direction:OUT" + ":Street:" + this.getCurStreet().getName() + ":StreetSpeed:" + this.getCurStreet().getSpeed() + ":VehicleSpeed:" + this.getCurSpeed() + ":x:" + this.curX_ + ":y:" + this.curY_);
+							if(config_.isPrivacyDataLogged()){
+								PrivacyLogWriter.logMixZone(engine_.getTimePassed(), steadyID_, ID_, totalTravelDistance_, totalTravelTime_, curMixNode_.getNodeID(), needsToMix ? BinaryLogFormat.DIRECTION_IN : BinaryLogFormat.DIRECTION_OUT, getCurStreet().getName(), getCurStreet().getSpeed(), getCurSpeed(), kinematics_.x_[slot_], kinematics_.y_[slot_]);
 							}
 							if(needsToMix){
 								++IDsChanged_;
@@ -1394,7 +1595,7 @@ public class Vehicle extends LaneObject{
 					if(fakeMessageCountdown_ < 0){
 						
 						//fake messages
-						fakeMessageCountdown_ = fakeMessagesInterval_;
+						fakeMessageCountdown_ = config_.getFakeMessagesInterval();
 						String messageType = fakeMessageType_;
 						if(fakeMessageType_.equals("all") || fakeMessageType_.equals("Alle")) messageType = IDSProcessor.getIdsData_()[ownRandom_.nextInt(fakeMessageTypesCount)];
 						
@@ -1438,11 +1639,10 @@ public class Vehicle extends LaneObject{
 						if(destX != -1 && destY != -1){
 							int direction = -1;
 							//if(!curDirection_) direction = 1;
-							int time = Renderer.getInstance().getTimePassed();
+							int time = engine_.getTimePassed();
 							if(messageType.equals("HUANG_EVA_FORWARD")){
-								PenaltyMessage message = new PenaltyMessage(curX_, curY_, destX, destY, PENALTY_FAKE_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, true, ID_, this,  messageType, false, true);
-								message.setFloodingMode(true);	// enable flooding mode if within distance!				
-								knownMessages_.addMessage(message, false, true);
+								PenaltyMessage message = new PenaltyMessage(kinematics_.x_[slot_], kinematics_.y_[slot_], destX, destY, PENALTY_FAKE_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, true, ID_, this,  messageType, false, true);
+								knownMessages_.addMessage(message, true, false, true);
 							}
 							else if(messageType.equals("EVA_EMERGENCY_ID")){
 								if(emergencyBeacons == -1){
@@ -1467,27 +1667,21 @@ public class Vehicle extends LaneObject{
 										}
 										*/
 	
-										PenaltyMessage message = new PenaltyMessage(curX_, curY_, destX, destY, PENALTY_FAKE_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, true, ID_, this, messageType, false, true);
+										PenaltyMessage message = new PenaltyMessage(kinematics_.x_[slot_], kinematics_.y_[slot_], destX, destY, PENALTY_FAKE_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, true, ID_, this, messageType, false, true);
 
-										long dx = message.getDestinationX_() - curX_;
-										long dy = message.getDestinationY_() - curY_;
-										if((long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy)){
-											message.setFloodingMode(true);	// enable flooding mode if within distance!
-										}
-										knownMessages_.addMessage(message, false, true);
+										long dx = message.getDestinationX_() - kinematics_.x_[slot_];
+										long dy = message.getDestinationY_() - kinematics_.y_[slot_];
+										knownMessages_.addMessage(message, (long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy), false, true);	// enable flooding mode if within distance!
 									//}
 								//}
 							}
 							//else if(messageType.equals("PCN_FORWARD")){}
 							else{
-								PenaltyMessage message = new PenaltyMessage(curX_, curY_, destX, destY, PENALTY_FAKE_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, true, ID_, this, messageType, false, true);
+								PenaltyMessage message = new PenaltyMessage(kinematics_.x_[slot_], kinematics_.y_[slot_], destX, destY, PENALTY_FAKE_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, true, ID_, this, messageType, false, true);
 
-								long dx = message.getDestinationX_() - curX_;
-								long dy = message.getDestinationY_() - curY_;
-								if((long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy)){
-									message.setFloodingMode(true);	// enable flooding mode if within distance!
-								}
-							    knownMessages_.addMessage(message, false, true);
+								long dx = message.getDestinationX_() - kinematics_.x_[slot_];
+								long dy = message.getDestinationY_() - kinematics_.y_[slot_];
+								knownMessages_.addMessage(message, (long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy), false, true);	// enable flooding mode if within distance!
 
 							}
 					//		System.out.println(time + ":fake message created: " + messageType);
@@ -1514,8 +1708,8 @@ public class Vehicle extends LaneObject{
 			knownPenaltiesTimeoutCountdown_ += KNOWN_PENALTIES_TIMEOUT_CHECKINTERVAL;
 		}
 
-		if(beaconsEnabled_){
-			beaconCountdown_ -= timePerStep;
+		if(config_.isBeaconsEnabled()){
+			kinematics_.beaconCountdown_[slot_] -= timePerStep;
 
 			// recheck known vehicles for outdated entries.
 			if(knownVehiclesTimeoutCountdown_ < 1){
@@ -1535,8 +1729,8 @@ public class Vehicle extends LaneObject{
 	}
 	
 	public void testa(int timePerStep){
-		communicationCountdown_ -= timePerStep;
-		if(communicationCountdown_ < 1) knownMessages_.checkOutdatedMessages(true);
+		kinematics_.communicationCountdown_[slot_] -= timePerStep;
+		if(kinematics_.communicationCountdown_[slot_] < 1) knownMessages_.checkOutdatedMessages(true);
 
 		/*
 		knownPenaltiesTimeoutCountdown_ -= timePerStep;
@@ -1545,8 +1739,8 @@ public class Vehicle extends LaneObject{
 			knownPenaltiesTimeoutCountdown_ += KNOWN_PENALTIES_TIMEOUT_CHECKINTERVAL;
 		}
 
-		if(beaconsEnabled_){
-			beaconCountdown_ -= timePerStep;
+		if(config_.isBeaconsEnabled()){
+			kinematics_.beaconCountdown_[slot_] -= timePerStep;
 
 			// recheck known vehicles for outdated entries.
 			if(knownVehiclesTimeoutCountdown_ < 1){
@@ -1571,8 +1765,8 @@ public class Vehicle extends LaneObject{
 			messageSendCounter_++;
 			knownMessages_.processMessages();
 		}
-		communicationCountdown_ -= timePerStep;
-		if(communicationCountdown_ < 1) knownMessages_.checkOutdatedMessages(true);
+		kinematics_.communicationCountdown_[slot_] -= timePerStep;
+		if(kinematics_.communicationCountdown_[slot_] < 1) knownMessages_.checkOutdatedMessages(true);
 
 		
 		knownPenaltiesTimeoutCountdown_ -= timePerStep;
@@ -1581,8 +1775,8 @@ public class Vehicle extends LaneObject{
 			knownPenaltiesTimeoutCountdown_ += KNOWN_PENALTIES_TIMEOUT_CHECKINTERVAL;
 		}
 /*
-		if(beaconsEnabled_){
-			beaconCountdown_ -= timePerStep;
+		if(config_.isBeaconsEnabled()){
+			kinematics_.beaconCountdown_[slot_] -= timePerStep;
 
 			// recheck known vehicles for outdated entries.
 			if(knownVehiclesTimeoutCountdown_ < 1){
@@ -1607,8 +1801,8 @@ public class Vehicle extends LaneObject{
 			messageSendCounter_++;
 			knownMessages_.processMessages();
 		}
-		communicationCountdown_ -= timePerStep;
-		if(communicationCountdown_ < 1) knownMessages_.checkOutdatedMessages(true);
+		kinematics_.communicationCountdown_[slot_] -= timePerStep;
+		if(kinematics_.communicationCountdown_[slot_] < 1) knownMessages_.checkOutdatedMessages(true);
 
 		
 		knownPenaltiesTimeoutCountdown_ -= timePerStep;
@@ -1617,8 +1811,8 @@ public class Vehicle extends LaneObject{
 			knownPenaltiesTimeoutCountdown_ += KNOWN_PENALTIES_TIMEOUT_CHECKINTERVAL;
 		}
 
-		if(beaconsEnabled_){
-			beaconCountdown_ -= timePerStep;
+		if(config_.isBeaconsEnabled()){
+			kinematics_.beaconCountdown_[slot_] -= timePerStep;
 
 			// recheck known vehicles for outdated entries.
 			if(knownVehiclesTimeoutCountdown_ < 1){
@@ -1656,7 +1850,7 @@ public class Vehicle extends LaneObject{
 		if(next_ != null){
 			if(next_.getCurLane() == lane){	// next one is on the same lane
 				//System.out.println("Fahrzeug vor uns: (1.Versuch) " + next_.curPosition_);
-				if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)next_).setColor(Color.cyan);
+				if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)next_).setColor(Color.cyan);
 				f = (Vehicle)next_;
 				vehicleInFront = true;
 			} else {	// need to search for the next which is on our lane
@@ -1664,7 +1858,7 @@ public class Vehicle extends LaneObject{
 				while(tmpLaneObject != null){
 					if(tmpLaneObject.getCurLane() == lane){
 					//	System.out.println("Fahrzeug vor uns: (2. Versuch)" + tmpLaneObject.curPosition_);
-						if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
+						if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
 						f = (Vehicle)tmpLaneObject;
 						vehicleInFront = true;
 						break;	// only check the first on our lane!
@@ -1684,7 +1878,7 @@ public class Vehicle extends LaneObject{
 				while(tmpLaneObject != null){
 					if(tmpLaneObject.getCurLane() == lane){
 						//System.out.println("Fahrzeug vor uns: (3. Versuch)" + tmpLaneObject.curPosition_);
-						if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
+						if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
 						f = (Vehicle) tmpLaneObject;
 						i=routeStreets_.length;
 						break;
@@ -1699,7 +1893,7 @@ public class Vehicle extends LaneObject{
 		if(next_ != null){
 			if(next_.getCurLane() == lane+1){	// next one is on the same lane
 				//System.out.println("!!!Fahrzeug dann vor uns: (1.Versuch) " + next_.curPosition_);
-				if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)next_).setColor(Color.cyan);
+				if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)next_).setColor(Color.cyan);
 				f2 = (Vehicle)next_;
 				vehicleInFront2 = true;
 			} else {	// need to search for the next which is on our lane
@@ -1707,7 +1901,7 @@ public class Vehicle extends LaneObject{
 				while(tmpLaneObject != null){
 					if(tmpLaneObject.getCurLane() == lane+1){
 						//System.out.println("!!!Fahrzeug dann vor uns: (2. Versuch)" + tmpLaneObject.curPosition_);
-						if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
+						if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
 						f2 = (Vehicle)tmpLaneObject;
 						vehicleInFront2 = true;
 						break;	// only check the first on our lane!
@@ -1728,7 +1922,7 @@ public class Vehicle extends LaneObject{
 
 					if(tmpLaneObject.getCurLane() == lane+1){
 						//System.out.println("!!!Fahrzeug dann vor uns: (3. Versuch)" + tmpLaneObject.curPosition_);
-						if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
+						if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
 						f2 = (Vehicle) tmpLaneObject;
 						i = routeStreets_.length;
 						break;
@@ -1751,7 +1945,7 @@ public class Vehicle extends LaneObject{
 			if(previous_.getCurLane() == lane){	// is on the same lane
 				vehicleBehind = true;
 				//System.out.println("Fahrzeug hinter uns: (1. Versuch)" + previous_.curPosition_);
-				if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)previous_).setColor(Color.cyan);
+				if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)previous_).setColor(Color.cyan);
 				b = (Vehicle)previous_;
 			} else {	// need to search for the previous one which is on our lane
 				LaneObject tmpLaneObject = previous_.getPrevious();
@@ -1759,7 +1953,7 @@ public class Vehicle extends LaneObject{
 					if(tmpLaneObject.getCurLane() == lane){
 						vehicleBehind = true;
 					//	System.out.println("Fahrzeug hinter uns: (2. Versuch)" + previous_.curPosition_);
-						if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
+						if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
 						b = (Vehicle)tmpLaneObject;
 						break;	// only check the first on our lane!
 					}
@@ -1802,7 +1996,7 @@ public class Vehicle extends LaneObject{
 					while(tmpLaneObject != null){
 						if(tmpLaneObject.getCurLane() == lane && !tmpLaneObject.equals(this)){
 						//	System.out.println("Fahrzeug hinter uns: (3. Versuch)" + tmpLaneObject.curPosition_);
-							if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
+							if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
 							b = (Vehicle)tmpLaneObject;
 							counter = 3;
 							break;
@@ -1825,7 +2019,7 @@ public class Vehicle extends LaneObject{
 			if(previous_.getCurLane() == lane+1){	// is on the same lane
 				vehicleBehind2 = true;
 			//	System.out.println("!!!Fahrzeug dann hinter uns: (1. Versuch)" + previous_.curPosition_);
-				if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)previous_).setColor(Color.cyan);
+				if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)previous_).setColor(Color.cyan);
 				b2 = (Vehicle)previous_;
 			} else {	// need to search for the previous one which is on our lane
 				LaneObject tmpLaneObject = previous_.getPrevious();
@@ -1833,7 +2027,7 @@ public class Vehicle extends LaneObject{
 					if(tmpLaneObject.getCurLane() == lane+1){
 						vehicleBehind2 = true;
 					//	System.out.println("!!!Fahrzeug dann hinter uns: (2. Versuch)" + previous_.curPosition_);
-						if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
+						if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
 						b2 = (Vehicle)tmpLaneObject;
 						break;	// only check the first on our lane!
 					}
@@ -1842,11 +2036,11 @@ public class Vehicle extends LaneObject{
 			}
 		}
 		if(vehicleBehind2){
-			distance = Math.abs(curPosition_ - b2.curPosition_);
+			distance = Math.abs(kinematics_.position_[slot_] - b2.kinematics_.position_[b2.slot_]);
 		}
 		else{
-			if(curDirection_) distance = curPosition_;
-			else distance = curStreet_.getLength() - curPosition_;
+			if(curDirection_) distance = kinematics_.position_[slot_];
+			else distance = curStreet_.getLength() - kinematics_.position_[slot_];
 		}
 	
 	//	System.out.println("distance: " + distance);
@@ -1891,7 +2085,7 @@ public class Vehicle extends LaneObject{
 							if(tmpDirection) distance =  tmpStreet.getLength()-tmpLaneObject.getCurPosition()+distance;
 							else distance = tmpLaneObject.getCurPosition()+distance;
 							
-							if(this.equals(Renderer.getInstance().getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
+							if(this.equals(engine_.getMarkedVehicle())) ((Vehicle)tmpLaneObject).setColor(Color.cyan);
 							b2 = (Vehicle)tmpLaneObject;
 
 							break;
@@ -1905,25 +2099,25 @@ public class Vehicle extends LaneObject{
 		}
 
 		if(b2 != null){
-			if(curSpeed_ >= b2.curSpeed_){
+			if(kinematics_.speed_[slot_] >= b2.kinematics_.speed_[b2.slot_]){
 				//System.out.println("hinterer langsamer");
 				return true;
 			}
-			float t = (float) ((b2.curSpeed_ - curSpeed_)/accelerationRate_);
+			float t = (float) ((b2.kinematics_.speed_[b2.slot_] - kinematics_.speed_[slot_])/accelerationRate_);
 			//System.out.println("distanz ben�tigt: " + b2.curSpeed_ * t);
 		//	System.out.println("distanz vorhanden: " + (distance-b2.curBrakingDistance_));
 			//System.out.println("braking distance" + b2.curBrakingDistance_);
-			if((distance-b2.curBrakingDistance_) > ((politeness_/100) * (b2.curSpeed_*t))) return true;
+			if((distance-b2.curBrakingDistance_) > ((politeness_/100) * (b2.kinematics_.speed_[b2.slot_]*t))) return true;
 			else return false;
 
 		}
 		else return true;
 		//code need, still developing
 		/*
-		float t = (float) ((maxSpeed_ - curSpeed_)/accelerationRate_);
+		float t = (float) ((maxSpeed_ - kinematics_.speed_[slot_])/accelerationRate_);
 		if(b2 != null){
 			//if(b2.curPosition_ - curPosition_)
-			System.out.println(b2.curSpeed_ * t);
+			System.out.println(b2.kinematics_.speed_[b2.slot_] * t);
 		}
 		
 		System.out.println("**************");
@@ -1934,16 +2128,16 @@ public class Vehicle extends LaneObject{
 		if(next_ != null){
 			if(next_.getCurLane() == lane){	// next one is on the same lane
 				foundNextVehicle = true;
-				if((curDirection_ && next_.getCurPosition()-curPosition_ < curBrakingDistance_) || (!curDirection_ && curPosition_-next_.getCurPosition() < curBrakingDistance_)){
-					if(curSpeed_ > next_.getCurSpeed()-brakingRate_) return 1;
+				if((curDirection_ && next_.getCurPosition()-kinematics_.position_[slot_] < curBrakingDistance_) || (!curDirection_ && kinematics_.position_[slot_]-next_.getCurPosition() < curBrakingDistance_)){
+					if(kinematics_.speed_[slot_] > next_.getCurSpeed()-brakingRate_) return 1;
 				}
 			} else {	// need to search for the next which is on our lane
 				LaneObject tmpLaneObject = next_.getNext();
 				while(tmpLaneObject != null){
 					if(tmpLaneObject.getCurLane() == lane){
 						foundNextVehicle = true;
-						if((curDirection_ && tmpLaneObject.getCurPosition()-curPosition_ < curBrakingDistance_) || (!curDirection_ && curPosition_-tmpLaneObject.getCurPosition() < curBrakingDistance_)){
-							if(curSpeed_ > next_.getCurSpeed()-brakingRate_) return 1;
+						if((curDirection_ && tmpLaneObject.getCurPosition()-kinematics_.position_[slot_] < curBrakingDistance_) || (!curDirection_ && kinematics_.position_[slot_]-tmpLaneObject.getCurPosition() < curBrakingDistance_)){
+							if(kinematics_.speed_[slot_] > next_.getCurSpeed()-brakingRate_) return 1;
 						}
 						break;	// only check the first on our lane!
 					}
@@ -1953,8 +2147,8 @@ public class Vehicle extends LaneObject{
 		}
 		// didn't need to brake because of vehicle directly in front of us
 		double distance;
-		if(curDirection_) distance = curStreet_.getLength() - curPosition_;
-		else distance = curPosition_;
+		if(curDirection_) distance = curStreet_.getLength() - kinematics_.position_[slot_];
+		else distance = kinematics_.position_[slot_];
 		// only do the big calculation if the current street is empty AND the remainder of the current street is shorter than the braking distance
 		if(distance < curBrakingDistance_){
 			Street tmpStreet = curStreet_;
@@ -1991,7 +2185,7 @@ public class Vehicle extends LaneObject{
 							else priority = junctionNode.getJunction().getJunctionPriority(tmpStreet.getEndNode(), nextNode);
 							if(priority != 1){	// don't do anything on priority streets
 								// don't turn off faster than about 35km/h
-								if(curSpeed_ > 1000){
+								if(kinematics_.speed_[slot_] > 1000){
 									return 2;
 								} else if(priority > 2){
 									junctionNode.getJunction().addWaitingVehicle(this, priority);
@@ -2012,7 +2206,7 @@ public class Vehicle extends LaneObject{
 				if(tmpLane > tmpStreet.getLanesCount()) tmpLane = tmpStreet.getLanesCount();
 
 				// Check if next street has smaller speed limit
-				if(tmpStreet.getSpeed() < curSpeed_) {
+				if(tmpStreet.getSpeed() < kinematics_.speed_[slot_]) {
 					if(gotJunctionPermission) {
 						junctionAllowed_.getJunction().allowOtherVehicle();
 						junctionAllowed_ = null;
@@ -2027,7 +2221,7 @@ public class Vehicle extends LaneObject{
 						if(tmpLaneObject.getCurLane() == tmpLane){
 							foundNextVehicle = true;
 							if((tmpDirection && tmpLaneObject.getCurPosition()+distance < curBrakingDistance_) || (!tmpDirection && tmpStreet.getLength()-tmpLaneObject.getCurPosition()+distance < curBrakingDistance_)){
-								if(curSpeed_ > tmpLaneObject.getCurSpeed()-brakingRate_){
+								if(kinematics_.speed_[slot_] > tmpLaneObject.getCurSpeed()-brakingRate_){
 									if(gotJunctionPermission) {
 										junctionAllowed_.getJunction().allowOtherVehicle();
 										junctionAllowed_ = null;
@@ -2070,9 +2264,9 @@ public class Vehicle extends LaneObject{
 		if(next_ != null){
 			if(next_.getCurLane() == lane){	// next one is on the same lane
 				foundNextVehicle = true;
-				if((curDirection_ && next_.getCurPosition()-curPosition_ < curBrakingDistance_) || (!curDirection_ && curPosition_-next_.getCurPosition() < curBrakingDistance_)){
+				if((curDirection_ && next_.getCurPosition()-kinematics_.position_[slot_] < curBrakingDistance_) || (!curDirection_ && kinematics_.position_[slot_]-next_.getCurPosition() < curBrakingDistance_)){
 					//if(curSpeed_ > 3600 && knownPenalties_.streetIsBlocked(curStreet_, 3))return 1;
-					if(curSpeed_ > next_.getCurSpeed()-brakingRate_){
+					if(kinematics_.speed_[slot_] > next_.getCurSpeed()-brakingRate_){
 						if(!next_.getClass().equals(BlockingObject.class)){
 							if(emergencyVehicle_){
 								if(lastEVAMessageCreated >= MESSAGE_INTERVAL){
@@ -2115,17 +2309,16 @@ public class Vehicle extends LaneObject{
 									if(destX != -1 && destY != -1){
 										int direction = -1;
 										if(!curDirection_) direction = 1;
-										int time = Renderer.getInstance().getTimePassed();
-										PenaltyMessage message = new PenaltyMessage(curX_, curY_, destX, destY, PENALTY_EVA_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this, "EVA_EMERGENCY_ID", true, true);
-										message.setFloodingMode(true);	// enable flooding mode if within distance!						
-										knownMessages_.addMessage(message, false, true);
+										int time = engine_.getTimePassed();
+										PenaltyMessage message = new PenaltyMessage(kinematics_.x_[slot_], kinematics_.y_[slot_], destX, destY, PENALTY_EVA_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this, "EVA_EMERGENCY_ID", true, true);
+										knownMessages_.addMessage(message, true, false, true);
 										
 										++evaMessagesCreated_;
 									}							
 								}	
 
 							}
-							else if(((Vehicle)next_).isInTrafficJam_()  && !((Vehicle)next_).waitingForSignal_ && curSpeed_ > 0){
+							else if(((Vehicle)next_).isInTrafficJam_()  && !((Vehicle)next_).waitingForSignal_ && kinematics_.speed_[slot_] > 0){
 								
 								if(lastPCNFORWARDMessageCreated >= MESSAGE_INTERVAL){
 									lastPCNFORWARDMessageCreated = 0;
@@ -2167,14 +2360,11 @@ public class Vehicle extends LaneObject{
 									if(destX != -1 && destY != -1){
 										int direction = -1;
 										if(!curDirection_) direction = 1;
-										int time = Renderer.getInstance().getTimePassed();
-										PenaltyMessage message = new PenaltyMessage(curX_, curY_, destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, null,  "PCN_FORWARD", false, false);
-										long dx = message.getDestinationX_() - curX_;
-										long dy = message.getDestinationY_() - curY_;
-										if((long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy)){
-											message.setFloodingMode(true);	// enable flooding mode if within distance!
-										}									
-										knownMessages_.addMessage(message, false, true);
+										int time = engine_.getTimePassed();
+										PenaltyMessage message = new PenaltyMessage(kinematics_.x_[slot_], kinematics_.y_[slot_], destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, null,  "PCN_FORWARD", false, false);
+										long dx = message.getDestinationX_() - kinematics_.x_[slot_];
+										long dy = message.getDestinationY_() - kinematics_.y_[slot_];
+										knownMessages_.addMessage(message, (long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy), false, true);	// enable flooding mode if within distance!
 
 										++pcnForwardMessagesCreated_;
 									}	
@@ -2184,7 +2374,7 @@ public class Vehicle extends LaneObject{
 								
 							return 1;
 						}
-						else if(((BlockingObject) next_).getPenaltyType_().equals("HUANG_RHCN") &&  curSpeed_ < 360) return 0;
+						else if(((BlockingObject) next_).getPenaltyType_().equals("HUANG_RHCN") &&  kinematics_.speed_[slot_] < 360) return 0;
 						else {
 							passingBlocking_ = true;
 							if(((BlockingObject) next_).getPenaltyType_().equals("HUANG_RHCN"))	{
@@ -2234,14 +2424,11 @@ public class Vehicle extends LaneObject{
 										if(destX != -1 && destY != -1){
 											int direction = -1;
 											if(!curDirection_) direction = 1;
-											int time = Renderer.getInstance().getTimePassed();
-											PenaltyMessage message = new PenaltyMessage(((BlockingObject) next_).getX(), ((BlockingObject) next_).getY(), destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this, "HUANG_RHCN", false, true);
-											long dx = message.getDestinationX_() - curX_;
-											long dy = message.getDestinationY_() - curY_;
-											if((long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy)){
-												message.setFloodingMode(true);	// enable flooding mode if within distance!
-											}								
-											knownMessages_.addMessage(message, false, true);
+											int time = engine_.getTimePassed();
+											PenaltyMessage message = new PenaltyMessage(((BlockingObject) next_).getX(), ((BlockingObject) next_).getY(), destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this, "HUANG_RHCN", false, true);
+											long dx = message.getDestinationX_() - kinematics_.x_[slot_];
+											long dy = message.getDestinationY_() - kinematics_.y_[slot_];
+											knownMessages_.addMessage(message, (long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy), false, true);	// enable flooding mode if within distance!
 
 											++rhcnMessagesCreated_;
 										}	
@@ -2259,8 +2446,8 @@ public class Vehicle extends LaneObject{
 				while(tmpLaneObject != null){
 					if(tmpLaneObject.getCurLane() == lane){
 						foundNextVehicle = true;
-						if((curDirection_ && tmpLaneObject.getCurPosition()-curPosition_ < curBrakingDistance_) || (!curDirection_ && curPosition_-tmpLaneObject.getCurPosition() < curBrakingDistance_)){
-							if(curSpeed_ > next_.getCurSpeed()-brakingRate_){
+						if((curDirection_ && tmpLaneObject.getCurPosition()-kinematics_.position_[slot_] < curBrakingDistance_) || (!curDirection_ && kinematics_.position_[slot_]-tmpLaneObject.getCurPosition() < curBrakingDistance_)){
+							if(kinematics_.speed_[slot_] > next_.getCurSpeed()-brakingRate_){
 								if(!next_.getClass().equals(BlockingObject.class)){
 									if(emergencyVehicle_){
 										if(lastEVAMessageCreated >= MESSAGE_INTERVAL){
@@ -2303,18 +2490,17 @@ public class Vehicle extends LaneObject{
 											if(destX != -1 && destY != -1){
 												int direction = -1;
 												if(!curDirection_) direction = 1;
-												int time = Renderer.getInstance().getTimePassed();
+												int time = engine_.getTimePassed();
 												
-												PenaltyMessage message = new PenaltyMessage(curX_, curY_, destX, destY, PENALTY_EVA_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this, "EVA_EMERGENCY_ID", true, true);
-												message.setFloodingMode(true);	// enable flooding mode if within distance!								
-												knownMessages_.addMessage(message, false, true);
+												PenaltyMessage message = new PenaltyMessage(kinematics_.x_[slot_], kinematics_.y_[slot_], destX, destY, PENALTY_EVA_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this, "EVA_EMERGENCY_ID", true, true);
+												knownMessages_.addMessage(message, true, false, true);
 										
 
 												++evaMessagesCreated_;
 											}							
 										}	
 									}
-									else if(((Vehicle)next_).isInTrafficJam_() && !((Vehicle)next_).waitingForSignal_ && curSpeed_ > 0){
+									else if(((Vehicle)next_).isInTrafficJam_() && !((Vehicle)next_).waitingForSignal_ && kinematics_.speed_[slot_] > 0){
 										
 										if(lastPCNFORWARDMessageCreated >= MESSAGE_INTERVAL){
 											lastPCNFORWARDMessageCreated = 0;
@@ -2356,14 +2542,11 @@ public class Vehicle extends LaneObject{
 											if(destX != -1 && destY != -1){
 												int direction = -1;
 												if(!curDirection_) direction = 1;
-												int time = Renderer.getInstance().getTimePassed();
-												PenaltyMessage message = new PenaltyMessage(curX_, curY_, destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this,  "PCN_FORWARD", false, false);
-												long dx = message.getDestinationX_() - curX_;
-												long dy = message.getDestinationY_() - curY_;
-												if((long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy)){
-													message.setFloodingMode(true);	// enable flooding mode if within distance!
-												}							
-												knownMessages_.addMessage(message, false, true);
+												int time = engine_.getTimePassed();
+												PenaltyMessage message = new PenaltyMessage(kinematics_.x_[slot_], kinematics_.y_[slot_], destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this,  "PCN_FORWARD", false, false);
+												long dx = message.getDestinationX_() - kinematics_.x_[slot_];
+												long dy = message.getDestinationY_() - kinematics_.y_[slot_];
+												knownMessages_.addMessage(message, (long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy), false, true);	// enable flooding mode if within distance!
 
 												++pcnForwardMessagesCreated_;
 											}															
@@ -2371,7 +2554,7 @@ public class Vehicle extends LaneObject{
 									}
 									return 1;
 								}
-								else if(((BlockingObject) next_).getPenaltyType_().equals("HUANG_RHCN") &&  curSpeed_ < 360 ) return 0;
+								else if(((BlockingObject) next_).getPenaltyType_().equals("HUANG_RHCN") &&  kinematics_.speed_[slot_] < 360 ) return 0;
 								else{
 									//for(StartBlocking blocks:EventList.getInstance().getCurrentBlockingsArrayList()) if(blocks.getStreet().equals(curStreet_) && blocks.isFirst_() && blocks.getPenaltyType_().equals("HUANG_RHCN")){
 										//blocks.setFirst_(false);
@@ -2417,14 +2600,11 @@ public class Vehicle extends LaneObject{
 											if(destX != -1 && destY != -1){
 												int direction = -1;
 												if(!curDirection_) direction = 1;
-												int time = Renderer.getInstance().getTimePassed();
-												PenaltyMessage message = new PenaltyMessage(((BlockingObject) next_).getX(), ((BlockingObject) next_).getY(), destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this, "HUANG_RHCN", false, true);
-												long dx = message.getDestinationX_() - curX_;
-												long dy = message.getDestinationY_() - curY_;
-												if((long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy)){
-													message.setFloodingMode(true);	// enable flooding mode if within distance!
-												}								
-												knownMessages_.addMessage(message, false, true);
+												int time = engine_.getTimePassed();
+												PenaltyMessage message = new PenaltyMessage(((BlockingObject) next_).getX(), ((BlockingObject) next_).getY(), destX, destY, PENALTY_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, false, ID_, this, "HUANG_RHCN", false, true);
+												long dx = message.getDestinationX_() - kinematics_.x_[slot_];
+												long dy = message.getDestinationY_() - kinematics_.y_[slot_];
+												knownMessages_.addMessage(message, (long)PENALTY_MESSAGE_RADIUS * PENALTY_MESSAGE_RADIUS >= (dx*dx + dy*dy), false, true);	// enable flooding mode if within distance!
 												++rhcnMessagesCreated_;
 
 											}							
@@ -2441,8 +2621,8 @@ public class Vehicle extends LaneObject{
 		}
 		// didn't need to brake because of vehicle directly in front of us
 		double distance;
-		if(curDirection_) distance = curStreet_.getLength() - curPosition_;
-		else distance = curPosition_;
+		if(curDirection_) distance = curStreet_.getLength() - kinematics_.position_[slot_];
+		else distance = kinematics_.position_[slot_];
 		// only do the big calculation if the current street is empty AND the remainder of the current street is shorter than the braking distance
 		if(distance < curBrakingDistance_){
 			Street tmpStreet = curStreet_;
@@ -2480,7 +2660,7 @@ public class Vehicle extends LaneObject{
 							else priority = junctionNode.getJunction().getJunctionPriority(tmpStreet.getEndNode(), nextNode);
 							if(priority != 1){	// don't do anything on priority streets
 								// don't turn off faster than about 35km/h
-								if(curSpeed_ > 1000){
+								if(kinematics_.speed_[slot_] > 1000){
 									return 2;
 								} else if(priority > 2){
 									junctionNode.getJunction().addWaitingVehicle(this, priority);
@@ -2501,7 +2681,7 @@ public class Vehicle extends LaneObject{
 				if(tmpLane > tmpStreet.getLanesCount()) tmpLane = tmpStreet.getLanesCount();
 
 				// Check if next street has smaller speed limit
-				if(tmpStreet.getSpeed() < curSpeed_) {
+				if(tmpStreet.getSpeed() < kinematics_.speed_[slot_]) {
 					if(gotJunctionPermission) {
 						junctionAllowed_.getJunction().allowOtherVehicle();
 						junctionAllowed_ = null;
@@ -2516,7 +2696,7 @@ public class Vehicle extends LaneObject{
 						if(tmpLaneObject.getCurLane() == tmpLane){
 							foundNextVehicle = true;
 							if((tmpDirection && tmpLaneObject.getCurPosition()+distance < curBrakingDistance_) || (!tmpDirection && tmpStreet.getLength()-tmpLaneObject.getCurPosition()+distance < curBrakingDistance_)){
-								if(curSpeed_ > tmpLaneObject.getCurSpeed()-brakingRate_){
+								if(kinematics_.speed_[slot_] > tmpLaneObject.getCurSpeed()-brakingRate_){
 									if(gotJunctionPermission) {
 										junctionAllowed_.getJunction().allowOtherVehicle();
 										junctionAllowed_ = null;
@@ -2564,16 +2744,16 @@ public class Vehicle extends LaneObject{
 		if(next_ != null){
 			if(next_.getCurLane() == lane){	// next one is on the same lane
 				foundNextVehicle = true;
-				if((curDirection_ && next_.getCurPosition()-curPosition_ < neededFreeDistance) || (!curDirection_ && curPosition_-next_.getCurPosition() < neededFreeDistance)){
-					if(curSpeed_ > next_.getCurSpeed()-brakingRate_) return false;
+				if((curDirection_ && next_.getCurPosition()-kinematics_.position_[slot_] < neededFreeDistance) || (!curDirection_ && kinematics_.position_[slot_]-next_.getCurPosition() < neededFreeDistance)){
+					if(kinematics_.speed_[slot_] > next_.getCurSpeed()-brakingRate_) return false;
 				}
 			} else {	// need to search for the next which is on our lane
 				LaneObject tmpLaneObject = next_.getNext();
 				while(tmpLaneObject != null){
 					if(tmpLaneObject.getCurLane() == lane){
 						foundNextVehicle = true;
-						if((curDirection_ && tmpLaneObject.getCurPosition()-curPosition_ < neededFreeDistance) || (!curDirection_ && curPosition_-tmpLaneObject.getCurPosition() < neededFreeDistance)){
-							if(curSpeed_ > next_.getCurSpeed()-brakingRate_) return false;
+						if((curDirection_ && tmpLaneObject.getCurPosition()-kinematics_.position_[slot_] < neededFreeDistance) || (!curDirection_ && kinematics_.position_[slot_]-tmpLaneObject.getCurPosition() < neededFreeDistance)){
+							if(kinematics_.speed_[slot_] > next_.getCurSpeed()-brakingRate_) return false;
 						}
 						break;	// only check the first on our lane!
 					}
@@ -2582,8 +2762,8 @@ public class Vehicle extends LaneObject{
 			}
 		}
 		double distance;
-		if(curDirection_) distance = curStreet_.getLength() - curPosition_;
-		else distance = curPosition_;
+		if(curDirection_) distance = curStreet_.getLength() - kinematics_.position_[slot_];
+		else distance = kinematics_.position_[slot_];
 		// only do the big calculation if the current street is empty AND the remainder of the current street is shorter than the braking distance
 		if(!foundNextVehicle && distance < neededFreeDistance){
 			Street tmpStreet = curStreet_;
@@ -2600,7 +2780,7 @@ public class Vehicle extends LaneObject{
 						if(tmpLaneObject.getCurLane() == lane){
 							foundNextVehicle = true;
 							if((tmpDirection && tmpLaneObject.getCurPosition()+distance < neededFreeDistance) || (!tmpDirection && tmpStreet.getLength()-tmpLaneObject.getCurPosition()+distance < neededFreeDistance)){
-								if(curSpeed_ > tmpLaneObject.getCurSpeed()-brakingRate_) return false;
+								if(kinematics_.speed_[slot_] > tmpLaneObject.getCurSpeed()-brakingRate_) return false;
 							}
 							break;
 						}
@@ -2624,16 +2804,16 @@ public class Vehicle extends LaneObject{
 		if(previous_ != null){
 			if(previous_.getCurLane() == lane){	// is on the same lane
 				foundPreviousVehicle = true;
-				if((curDirection_ && curPosition_-previous_.getCurPosition() < neededFreeDistance) || (!curDirection_ && previous_.getCurPosition()-curPosition_ < neededFreeDistance)){
-					if(curSpeed_ > previous_.getCurSpeed()-brakingRate_) return false;
+				if((curDirection_ && kinematics_.position_[slot_]-previous_.getCurPosition() < neededFreeDistance) || (!curDirection_ && previous_.getCurPosition()-kinematics_.position_[slot_] < neededFreeDistance)){
+					if(kinematics_.speed_[slot_] > previous_.getCurSpeed()-brakingRate_) return false;
 				}
 			} else {	// need to search for the previous one which is on our lane
 				LaneObject tmpLaneObject = previous_.getPrevious();
 				while(tmpLaneObject != null){
 					if(tmpLaneObject.getCurLane() == lane){
 						foundPreviousVehicle = true;
-						if((curDirection_ && curPosition_-tmpLaneObject.getCurPosition() < neededFreeDistance) || (!curDirection_ && tmpLaneObject.getCurPosition()-curPosition_ < neededFreeDistance)){
-							if(curSpeed_ > previous_.getCurSpeed()-brakingRate_) return false;
+						if((curDirection_ && kinematics_.position_[slot_]-tmpLaneObject.getCurPosition() < neededFreeDistance) || (!curDirection_ && tmpLaneObject.getCurPosition()-kinematics_.position_[slot_] < neededFreeDistance)){
+							if(kinematics_.speed_[slot_] > previous_.getCurSpeed()-brakingRate_) return false;
 						}
 						break;	// only check the first on our lane!
 					}
@@ -2641,8 +2821,8 @@ public class Vehicle extends LaneObject{
 				}
 			}
 		}
-		if(curDirection_) distance = curPosition_;
-		else distance = curStreet_.getLength() - curPosition_;
+		if(curDirection_) distance = kinematics_.position_[slot_];
+		else distance = curStreet_.getLength() - kinematics_.position_[slot_];
 		// current street is not long enough. need to iterate backwards
 		if(!foundPreviousVehicle && distance < neededFreeDistance){
 			Street[] outgoingStreets;
@@ -2678,7 +2858,7 @@ public class Vehicle extends LaneObject{
 						if(tmpLaneObject.getCurLane() == lane){
 							foundNextVehicle = true;
 							if((tmpDirection && tmpStreet.getLength()-tmpLaneObject.getCurPosition()+distance < neededFreeDistance) || (!tmpDirection && tmpLaneObject.getCurPosition()+distance < neededFreeDistance)){
-								if(curSpeed_ > tmpLaneObject.getCurSpeed()-brakingRate_) return false;
+								if(kinematics_.speed_[slot_] > tmpLaneObject.getCurSpeed()-brakingRate_) return false;
 							}
 							break;
 						}
@@ -2703,39 +2883,62 @@ public class Vehicle extends LaneObject{
 	 * <li>if it has wifi</li> 
 	 * <li>if the communication countdown is 0 or less</li>
 	 * </ul>
+	 * The messages are not received directly but collected in the outbox of the calling worker thread.
+	 * 
+	 * @param outbox	the outbox of the worker thread
 	 */
-	public void sendMessages(){
+	public void sendMessages(MessageOutbox outbox){
 	
 		//clean up old penalties 		
 		//ArrayList<BlockingObject> tmpO = new ArrayList<BlockingObject>(tmpBlockings);
-		//for(BlockingObject o:tmpO) if(o.removeFromLane(this, Renderer.getInstance().getTimePassed())) tmpBlockings.remove(o);
+		//for(BlockingObject o:tmpO) if(o.removeFromLane(this, engine_.getTimePassed())) tmpBlockings.remove(o);
 				
-		communicationCountdown_ += communicationInterval_;
-		if(beaconsEnabled_ && !isInMixZone_){
-			Message[] messages = knownMessages_.getForwardMessages();
+		kinematics_.communicationCountdown_[slot_] += config_.getCommunicationInterval();
+		if(config_.isBeaconsEnabled() && !isInMixZone_){
+			KnownMessage[] messages = knownMessages_.getForwardMessages();
 			int size = knownMessages_.getSize();
 			Vehicle nearestVehicle;
 			
-			//send messages to all knownRSUs
+			//find the knownRSUs in communication distance only once and not again for every message
 			RSU nearestRSU;
-			for(int i = size - 1; i > -1; --i){			
-				KnownRSU[] rsuHeads = knownRSUsList_.getFirstKnownRSU();
-				int sendCount = 0;
-				KnownRSU rsuNext;
-				long dx, dy, maxCommSquared = (long)maxCommDistance_ * maxCommDistance_;
-				for(int j = 0; j < rsuHeads.length; ++j){
-					rsuNext = rsuHeads[j];								
-					while(rsuNext != null){
-						++sendCount;
-						nearestRSU = rsuNext.getRSU();
-						dx = nearestRSU.getX() - curX_;
-						dy = nearestRSU.getY() - curY_;
-						if((dx * dx + dy * dy) < maxCommSquared && !nearestRSU.isEncrypted_()){	//check if vehicle really is in communication distance and it's no mix-zone rsu
-							nearestRSU.receiveMessage(curX_, curY_, messages[i]);
+			int knownRSUCount = 0, rsusInReachSize = 0;
+			long dx, dy, maxCommSquared = (long)maxCommDistance_ * maxCommDistance_;
+			if(size > 0) knownRSUCount = knownRSUsList_.getSize();
+			if(knownRSUCount > 0){
+				// only check the RSUs in the cells of the static RSU grid around this vehicle. Only known RSUs may get messages.
+				RSUGrid rsuGrid = map_.getRSUGrid();
+				RSU[] rsus = rsuGrid.getRSUs();
+				int[] rsuCellStart = rsuGrid.getCellStart();
+				int rsuCellCountY = rsuGrid.getCellCountY();
+				int rsuCellMinY = rsuGrid.getCellY((long)kinematics_.y_[slot_] - maxCommDistance_);
+				int rsuCellMaxY = rsuGrid.getCellY((long)kinematics_.y_[slot_] + maxCommDistance_);
+				int rsuCellMaxX = rsuGrid.getCellX((long)kinematics_.x_[slot_] + maxCommDistance_);
+				int end;
+				for(int cellX = rsuGrid.getCellX((long)kinematics_.x_[slot_] - maxCommDistance_); cellX <= rsuCellMaxX; ++cellX){
+					end = rsuCellStart[cellX * rsuCellCountY + rsuCellMaxY + 1];	// the cells of one column are stored one after another
+					for(int j = rsuCellStart[cellX * rsuCellCountY + rsuCellMinY]; j < end; ++j){
+						nearestRSU = rsus[j];
+						dx = nearestRSU.getX() - kinematics_.x_[slot_];
+						dy = nearestRSU.getY() - kinematics_.y_[slot_];
+						if((dx * dx + dy * dy) < maxCommSquared && !nearestRSU.isEncrypted_() && knownRSUsList_.contains(nearestRSU)){	//check if vehicle really is in communication distance and it's no mix-zone rsu
+							if(rsusInReachSize == rsusInReach_.length){
+								RSU[] newArray = new RSU[rsusInReachSize + 2];
+								System.arraycopy (rsusInReach_,0,newArray,0,rsusInReachSize);
+								rsusInReach_ = newArray;
+							}
+							rsusInReach_[rsusInReachSize] = nearestRSU;
+							++rsusInReachSize;
 						}
-						rsuNext = rsuNext.getNext();
 					}
 				}
+			}
+			
+			//send messages to all knownRSUs
+			for(int i = size - 1; i > -1; --i){			
+				int sendCount = knownRSUCount;
+				for(int j = 0; j < rsusInReachSize; ++j){
+					outbox.send(rsusInReach_[j], kinematics_.x_[slot_], kinematics_.y_[slot_], messages[i]);
+				}
 				
 				// flooding mode => send to all known vehicles
 				if(messages[i].getFloodingMode()){
@@ -2746,11 +2949,11 @@ public class Vehicle extends LaneObject{
 						while(next != null){
 							++sendCount;
 							nearestVehicle = next.getVehicle();
-							dx = nearestVehicle.getX() - curX_;
-							dy = nearestVehicle.getY() - curY_;
+							dx = nearestVehicle.getX() - kinematics_.x_[slot_];
+							dy = nearestVehicle.getY() - kinematics_.y_[slot_];
 							if((dx * dx + dy * dy) < maxCommSquared){	//check if vehicle really is in communication distance
 								//nearestVehicle.setColor(Color.red);
-								nearestVehicle.receiveMessage(curX_, curY_, messages[i]);
+								outbox.send(nearestVehicle, kinematics_.x_[slot_], kinematics_.y_[slot_], messages[i]);
 							}
 							next = next.getNext();
 						}
@@ -2760,53 +2963,54 @@ public class Vehicle extends LaneObject{
 				// line based mode => only communicate with the nearest known vehicle to message destination
 				} else {
 					
-					nearestVehicle = knownVehiclesList_.findNearestVehicle(curX_, curY_, messages[i].getDestinationX_(), messages[i].getDestinationY_(), maxCommDistance_);
+					nearestVehicle = knownVehiclesList_.findNearestVehicle(kinematics_.x_[slot_], kinematics_.y_[slot_], messages[i].getMessage().getDestinationX_(), messages[i].getMessage().getDestinationY_(), maxCommDistance_);
 					if(nearestVehicle != null){	// only communicate if a nearer vehicle was found!
-						nearestVehicle.receiveMessage(curX_, curY_, messages[i]);
+						outbox.send(nearestVehicle, kinematics_.x_[slot_], kinematics_.y_[slot_], messages[i]);
 						//nearestVehicle.setColor(Color.green);
 						knownMessages_.deleteForwardMessage(i, true);
 					}
 				}
 			}
-		} else if (!isInMixZone_ || mixZonesFallbackEnabled_){	
-			Message[] messages = knownMessages_.getForwardMessages();
+		} else if (!isInMixZone_ || config_.isMixZonesFallbackEnabled()){	
+			KnownMessage[] messages = knownMessages_.getForwardMessages();
 			int messageSize = knownMessages_.getSize();
 			if(messageSize > 0){
 				// only look through all vehicles if beacons are generally disabled and messages need to be sent in a bruteforce-mode or if the fallback mode in mix zones is enabled
 				int MapMinX, MapMinY, MapMaxX, MapMaxY, RegionMinX, RegionMinY, RegionMaxX, RegionMaxY;
 	
 				// Minimum x coordinate to be considered for communication
-				long tmp = curX_ - maxCommDistance_;
+				long tmp = kinematics_.x_[slot_] - maxCommDistance_;
 				if (tmp < 0) MapMinX = 0;	// Map stores only positive coordinates
 				else if(tmp < Integer.MAX_VALUE) MapMinX = (int) tmp;
 				else MapMinX = Integer.MAX_VALUE;
 	
 				// Maximum x coordinate to be considered for communication
-				tmp = curX_ + (long)maxCommDistance_;
+				tmp = kinematics_.x_[slot_] + (long)maxCommDistance_;
 				if (tmp < 0) MapMaxX = 0;
 				else if(tmp < Integer.MAX_VALUE) MapMaxX = (int) tmp;
 				else MapMaxX = Integer.MAX_VALUE;
 	
 				// Minimum y coordinate to be considered for communication
-				tmp = curY_ - maxCommDistance_;
+				tmp = kinematics_.y_[slot_] - maxCommDistance_;
 				if (tmp < 0) MapMinY = 0;
 				else if(tmp < Integer.MAX_VALUE) MapMinY = (int) tmp;
 				else MapMinY = Integer.MAX_VALUE;
 	
 				// Maximum y coordinate to be considered for communication
-				tmp = curY_ + (long)maxCommDistance_;
+				tmp = kinematics_.y_[slot_] + (long)maxCommDistance_;
 				if (tmp < 0) MapMaxY = 0;
 				else if(tmp < Integer.MAX_VALUE) MapMaxY = (int) tmp;
 				else MapMaxY = Integer.MAX_VALUE;
 	
 				// Get the regions to be considered for communication
-				Region tmpregion = MAP.getRegionOfPoint(MapMinX, MapMinY);
+				Region tmpregion = map_.getRegionOfPoint(MapMinX, MapMinY);
 				RegionMinX = tmpregion.getX();
 				RegionMinY = tmpregion.getY();
 	
-				tmpregion = MAP.getRegionOfPoint(MapMaxX, MapMaxY);
+				tmpregion = map_.getRegionOfPoint(MapMaxX, MapMaxY);
 				RegionMaxX = tmpregion.getX();
 				RegionMaxY = tmpregion.getY();
+				Region[][] regions = map_.getRegions();
 				long maxCommDistance_square = (long)maxCommDistance_ * maxCommDistance_;
 				long dx, dy, distance = 0;
 				int i, j, k, l, size;
@@ -2815,32 +3019,47 @@ public class Vehicle extends LaneObject{
 				
 				RSU[] rsus = null;
 				RSU rsu = null;
+				Region region;
+				int[] cellStart, vehiclesX, vehiclesY;
+				int cellX, cellY, cellMinY, cellMaxX, cellMaxY, cellCountY, vehicleX, vehicleY;
 				
 	
 				// only iterate through those regions which are within the distance
 				for(i = RegionMinX; i <= RegionMaxX; ++i){
 					for(j = RegionMinY; j <= RegionMaxY; ++j){
-						//send to vehicles
-						vehicles = regions_[i][j].getVehicleArray();	//use the array as it's MUCH faster!
-						size = vehicles.length;
-						for(k = 0; k < size; ++k){
-							vehicle = vehicles[k];
-							// precheck if the vehicle is near enough and valid (check is not exact as its a rectangular box and not circle)
-							if(vehicle.isWiFiEnabled() && vehicle.isActive() && vehicle != this && vehicle.getX() >= MapMinX && vehicle.getX() <= MapMaxX && vehicle.getY() >= MapMinY && vehicle.getY() <= MapMaxY){
-								dx = vehicle.getX() - curX_;
-								dy = vehicle.getY() - curY_;
-								distance = dx * dx + dy * dy; 	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
-								if(distance <= maxCommDistance_square){
-									if(!isInMixZone_ || !mixZonesFallbackFloodingOnly_){
-										for(l = 0; l < messageSize; ++l){
-											vehicle.receiveMessage(curX_, curY_, messages[l]);
-											//vehicle.setColor(Color.blue);
-										}
-									} else {
-										for(l = 0; l < messageSize; ++l){
-											if(messages[l].getFloodingMode()) {
-												vehicle.receiveMessage(curX_, curY_, messages[l]);
-												//vehicle.setColor(Color.cyan);
+						//send to vehicles (only those in the cells of the region which are within the distance)
+						region = regions[i][j];
+						vehicles = region.getCellVehicles();
+						vehiclesX = region.getCellVehicleX();
+						vehiclesY = region.getCellVehicleY();
+						cellStart = region.getCellVehicleStart();
+						cellCountY = region.getCellCountY();
+						cellMinY = region.getCellY(MapMinY);
+						cellMaxY = region.getCellY(MapMaxY);
+						cellMaxX = region.getCellX(MapMaxX);
+						for(cellX = region.getCellX(MapMinX); cellX <= cellMaxX; ++cellX){
+							size = cellStart[cellX * cellCountY + cellMaxY + 1];	// the cells of one column are stored one after another
+							for(k = cellStart[cellX * cellCountY + cellMinY]; k < size; ++k){
+								vehicleX = vehiclesX[k];
+								vehicleY = vehiclesY[k];
+								// precheck if the vehicle is near enough (check is not exact as its a rectangular box and not circle). The cells only contain active vehicles with WiFi enabled.
+								if(vehicleX >= MapMinX && vehicleX <= MapMaxX && vehicleY >= MapMinY && vehicleY <= MapMaxY && vehicles[k] != this){
+									vehicle = vehicles[k];
+									dx = vehicleX - kinematics_.x_[slot_];
+									dy = vehicleY - kinematics_.y_[slot_];
+									distance = dx * dx + dy * dy; 	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
+									if(distance <= maxCommDistance_square){
+										if(!isInMixZone_ || !config_.isMixZonesFallbackFloodingOnly()){
+											for(l = 0; l < messageSize; ++l){
+												outbox.send(vehicle, kinematics_.x_[slot_], kinematics_.y_[slot_], messages[l]);
+												//vehicle.setColor(Color.blue);
+											}
+										} else {
+											for(l = 0; l < messageSize; ++l){
+												if(messages[l].getFloodingMode()) {
+													outbox.send(vehicle, kinematics_.x_[slot_], kinematics_.y_[slot_], messages[l]);
+													//vehicle.setColor(Color.cyan);
+												}
 											}
 										}
 									}
@@ -2848,24 +3067,32 @@ public class Vehicle extends LaneObject{
 							}
 						}
 						
-						//send to Road-Side-Units
-						rsus = regions_[i][j].getRSUs();	//use the array as it's MUCH faster!
-						size = rsus.length;
-						for(k = 0; k < size; ++k){
-							rsu = rsus[k];
-							// precheck if the rsu is near enough and valid (check is not exact as its a rectangular box and not circle)
-							if(rsu.getX() >= MapMinX && rsu.getX() <= MapMaxX && rsu.getY() >= MapMinY && rsu.getY() <= MapMaxY){
-								dx = rsu.getX() - curX_;
-								dy = rsu.getY() - curY_;
-								distance = dx * dx + dy * dy; 	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
-								if(distance <= maxCommDistance_square){
-									if(!isInMixZone_ || !mixZonesFallbackFloodingOnly_){
-										for(l = 0; l < messageSize; ++l){
-											rsu.receiveMessage(curX_, curY_, messages[l]);
-										}
-									} else {
-										for(l = 0; l < messageSize; ++l){
-											if(messages[l].getFloodingMode()) rsu.receiveMessage(curX_, curY_, messages[l]);
+						//send to Road-Side-Units (only those in the cells of the region which are within the distance)
+						rsus = region.getCellRSUs();
+						cellStart = region.getCellRSUStart();
+						cellCountY = region.getCellCountY();
+						cellMaxX = region.getCellX(MapMaxX);
+						cellMaxY = region.getCellY(MapMaxY);
+						for(cellX = region.getCellX(MapMinX); cellX <= cellMaxX; ++cellX){
+							for(cellY = region.getCellY(MapMinY); cellY <= cellMaxY; ++cellY){
+								size = cellStart[cellX * cellCountY + cellY + 1];
+								for(k = cellStart[cellX * cellCountY + cellY]; k < size; ++k){
+									rsu = rsus[k];
+									// precheck if the rsu is near enough and valid (check is not exact as its a rectangular box and not circle)
+									if(rsu.getX() >= MapMinX && rsu.getX() <= MapMaxX && rsu.getY() >= MapMinY && rsu.getY() <= MapMaxY){
+										dx = rsu.getX() - kinematics_.x_[slot_];
+										dy = rsu.getY() - kinematics_.y_[slot_];
+										distance = dx * dx + dy * dy; 	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
+										if(distance <= maxCommDistance_square){
+											if(!isInMixZone_ || !config_.isMixZonesFallbackFloodingOnly()){
+												for(l = 0; l < messageSize; ++l){
+													outbox.send(rsu, kinematics_.x_[slot_], kinematics_.y_[slot_], messages[l]);
+												}
+											} else {
+												for(l = 0; l < messageSize; ++l){
+													if(messages[l].getFloodingMode()) outbox.send(rsu, kinematics_.x_[slot_], kinematics_.y_[slot_], messages[l]);
+												}
+											}
 										}
 									}
 								}
@@ -2873,7 +3100,7 @@ public class Vehicle extends LaneObject{
 						}
 					}
 				}
-				if(!isInMixZone_ || !mixZonesFallbackFloodingOnly_) knownMessages_.deleteAllForwardMessages(true);
+				if(!isInMixZone_ || !config_.isMixZonesFallbackFloodingOnly()) knownMessages_.deleteAllForwardMessages(true);
 				else knownMessages_.deleteAllFloodingForwardMessages(true);
 			}
 		} 
@@ -2884,34 +3111,66 @@ public class Vehicle extends LaneObject{
 	 * 
 	 * @param sourceX	the x coordinate of the other vehicle
 	 * @param sourceY	the y coordinate of the other vehicle
-	 * @param message	the message
+	 * @param message	the copy of the message the other vehicle holds
 	 */
-	public final void receiveMessage(int sourceX, int sourceY, Message message){
-		long dx = message.getDestinationX_() - curX_;
-		long dy = message.getDestinationY_() - curY_;
+	public final void receiveMessage(int sourceX, int sourceY, KnownMessage message){
+		int flags = checkReceivedMessage(sourceX, sourceY, message);
+		knownMessages_.addMessage(message.getMessage(), (flags & KnownMessage.RECEIVED_FLOODING) != 0, message.getHops() + 1, true, (flags & KnownMessage.RECEIVED_FORWARD) != 0);
+	}
+	
+	/**
+	 * Checks a message received from another vehicle. Decides if the own copy of this vehicle will be in flooding mode 
+	 * (enabled if this vehicle is within the destination area) and if this vehicle needs to forward the message. 
+	 * Neither the message nor the copy of the sender are changed. This is done at the time the message is sent, the 
+	 * message itself is added later through {@link #deliverMessage(Message, int, int)}.
+	 * 
+	 * @param sourceX	the x coordinate of the other vehicle
+	 * @param sourceY	the y coordinate of the other vehicle
+	 * @param message	the copy of the message the other vehicle holds
+	 * 
+	 * @return a combination of {@link KnownMessage#RECEIVED_FLOODING} and {@link KnownMessage#RECEIVED_FORWARD}
+	 */
+	public final int checkReceivedMessage(int sourceX, int sourceY, KnownMessage message){
+		Message payload = message.getMessage();
+		long dx = payload.getDestinationX_() - kinematics_.x_[slot_];
+		long dy = payload.getDestinationY_() - kinematics_.y_[slot_];
 		long distanceToDestinationSquared = dx*dx + dy*dy;
 		
 		if(message.getFloodingMode()){	// in flooding mode, vehicles only forward messages they got if they are within the target area
-			if((message.getDestinationRadiusSquared() >= distanceToDestinationSquared) && !directCommunicationMode_){
-				knownMessages_.addMessage(message, true, true);
-			} else knownMessages_.addMessage(message, true, false);
+			if((payload.getDestinationRadiusSquared() >= distanceToDestinationSquared) && !directCommunicationMode_){
+				return KnownMessage.RECEIVED_FLOODING | KnownMessage.RECEIVED_FORWARD;
+			} else return KnownMessage.RECEIVED_FLOODING;
 		} else {	// line-based mode
-			if(message.getDestinationRadiusSquared() >= distanceToDestinationSquared){
-				message.setFloodingMode(true);	// enable flooding mode if within distance!
+			int flags = 0;
+			if(payload.getDestinationRadiusSquared() >= distanceToDestinationSquared){
+				flags = KnownMessage.RECEIVED_FLOODING;	// enable flooding mode if within distance!
 			}
-			if(beaconsEnabled_){	// if beacons are enabled, we can be sure that we are nearer than the last vehicle
-				if(directCommunicationMode_)knownMessages_.addMessage(message, true, false);
-				else knownMessages_.addMessage(message, true, true);
+			if(config_.isBeaconsEnabled()){	// if beacons are enabled, we can be sure that we are nearer than the last vehicle
+				if(!directCommunicationMode_) flags |= KnownMessage.RECEIVED_FORWARD;
 			} else {
 				// no beacons. check manually if we are nearer to the destination than the sending vehicle
-				dx = message.getDestinationX_() - sourceX;
-				dy = message.getDestinationY_() - sourceY;
+				dx = payload.getDestinationX_() - sourceX;
+				dy = payload.getDestinationY_() - sourceY;
 				if(((dx * dx + dy * dy) > distanceToDestinationSquared)  && !directCommunicationMode_){
-					knownMessages_.addMessage(message, true, true);
-				} else knownMessages_.addMessage(message, true, false);
+					flags |= KnownMessage.RECEIVED_FORWARD;
+				}
 			}
+			return flags;
 		}
 	}
+	
+	/**
+	 * !!!Adds a message which has already been checked with {@link #checkReceivedMessage(int, int, KnownMessage)}. Note that this 
+	 * function is not synchronized! It is used by the worker thread owning this vehicle to deliver the messages collected 
+	 * in a <code>MessageOutbox</code>.
+	 * 
+	 * @param message	the message
+	 * @param flags		the result of {@link #checkReceivedMessage(int, int, KnownMessage)}
+	 * @param hops		how many hops the message travelled until it arrived here
+	 */
+	public final void deliverMessage(Message message, int flags, int hops){
+		knownMessages_.addMessageUnsynchronized(message, (flags & KnownMessage.RECEIVED_FLOODING) != 0, hops, true, (flags & KnownMessage.RECEIVED_FORWARD) != 0);
+	}
 
 	/**
 	 * Find vehicles in neighborhood and send beacons to them. Please check the following conditions before calling this function:
@@ -2925,98 +3184,108 @@ public class Vehicle extends LaneObject{
 	 * </ul>
 	 */
 	public void sendBeacons(){
-		beaconCountdown_ += beaconInterval_;
+		kinematics_.beaconCountdown_[slot_] += config_.getBeaconInterval();
 		
 			
-		if(isInSlow && !changedPseudonymInSlow && Renderer.getInstance().getTimePassed() >= (slowTimestamp + TIME_TO_PSEUDONYM_CHANGE - (2*beaconInterval_))){
+		if(isInSlow && !changedPseudonymInSlow && engine_.getTimePassed() >= (slowTimestamp + config_.getTimeToPseudonymChange() - (2*config_.getBeaconInterval()))){
 			changedPseudonymInSlow = true;
 			
 			++IDsChanged_;
 			ID_ = ownRandom_.nextLong();
 		}
 		
-		if(slowOn){
-			if(privacyDataLogged_ && isInSlow && !slowBeaconsLogged){
+		if(config_.isSlowOn()){
+			if(config_.isPrivacyDataLogged() && isInSlow && !slowBeaconsLogged){
 				slowBeaconsLogged = true;
-				if(!vehicleJustStartedInSlow)PrivacyLogWriter.log(savedBeacon2.replace("%0%aa%0%", "IN")  + "\n" + savedBeacon1.replace("%0%aa%0%", "IN") );
+				if(!vehicleJustStartedInSlow){
+					savedBeacon2.log(BinaryLogFormat.DIRECTION_IN, Long.MIN_VALUE);
+					savedBeacon1.log(BinaryLogFormat.DIRECTION_IN, Long.MIN_VALUE);
+				}
 			}
 			
-			else if(privacyDataLogged_ && !isInSlow && slowBeaconsLogged){
+			else if(config_.isPrivacyDataLogged() && !isInSlow && slowBeaconsLogged){
 				slowBeaconsLogged = false;
 				
 				logNextBeacons = 2;
 			}
 		}
 		/*
-		if(((Renderer.getInstance().getTimePassed() - slowTimestamp) > 60000) && !vehicleCounted){
+		if(((engine_.getTimePassed() - slowTimestamp) > 60000) && !vehicleCounted){
 			vehicleCounted = true;
 			vehiclesInSlow++;
 		}
-		if(Renderer.getInstance().getTimePassed()%24000 == 0)System.out.println(vehiclesInSlow);
+		if(engine_.getTimePassed()%24000 == 0)System.out.println(vehiclesInSlow);
 		*/
-		if(slowOn){
-			if(!isInSlow && this.curSpeed_ <= SLOW_SPEED_LIMIT && logNextBeacons == 0){
+		if(config_.isSlowOn()){
+			if(!isInSlow && kinematics_.speed_[slot_] <= config_.getSlowSpeedLimit() && logNextBeacons == 0){
 				isInSlow = true;
-				slowTimestamp = Renderer.getInstance().getTimePassed();
+				slowTimestamp = engine_.getTimePassed();
 				changedPseudonymInSlow = false;
 
 			}
-			else if(isInSlow && this.curSpeed_ > SLOW_SPEED_LIMIT && (Renderer.getInstance().getTimePassed() - slowTimestamp) > (2*beaconInterval_)){
+			else if(isInSlow && kinematics_.speed_[slot_] > config_.getSlowSpeedLimit() && (engine_.getTimePassed() - slowTimestamp) > (2*config_.getBeaconInterval())){
 				isInSlow = false;
 			}
 		}
 
 
 		
-		if(silent_period != silentPeriod){ 
-			silentPeriod = silent_period;
+		if(engine_.isSilentPeriod() != silentPeriod){ 
+			silentPeriod = engine_.isSilentPeriod();
 			
-			if(!silent_period) logNextBeacons = 2;
+			if(!silentPeriod) logNextBeacons = 2;
 			//log beacon
-			if(silentPeriod && privacyDataLogged_ && isSilentPeriodsOn()) PrivacyLogWriter.log(savedBeacon2 + "\n" + savedBeacon1);
+			if(silentPeriod && config_.isPrivacyDataLogged() && config_.isSilentPeriodsOn()){
+				savedBeacon2.log(BinaryLogFormat.DIRECTION_UNKNOWN, Long.MIN_VALUE);
+				savedBeacon1.log(BinaryLogFormat.DIRECTION_UNKNOWN, Long.MIN_VALUE);
+			}
 		}
 		
 
 		
-		if(!silent_period && !isInSlow){
+		if(!silentPeriod && !isInSlow){
 			//beaconCountdown_ += beaconInterval_;
 			int i, j, k, size = 0, MapMinX, MapMinY, MapMaxX, MapMaxY, RegionMinX, RegionMinY, RegionMaxX, RegionMaxY;
 			Vehicle[] vehicles = null;
 			Vehicle vehicle = null;
+			Region region;
+			int[] cellStart, vehiclesX, vehiclesY;
+			int cellX, cellMinY, cellMaxX, cellMaxY, cellCountY, vehicleX, vehicleY;
 		
 
 			// Minimum x coordinate to be considered for sending beacons
-			long tmp = curX_ - maxCommDistance_;
+			long tmp = kinematics_.x_[slot_] - maxCommDistance_;
 			if (tmp < 0) MapMinX = 0;	// Map stores only positive coordinates
 			else if(tmp < Integer.MAX_VALUE) MapMinX = (int) tmp;
 			else MapMinX = Integer.MAX_VALUE;
 
 			// Maximum x coordinate to be considered for sending beacons
-			tmp = curX_ + (long)maxCommDistance_;
+			tmp = kinematics_.x_[slot_] + (long)maxCommDistance_;
 			if (tmp < 0) MapMaxX = 0;
 			else if(tmp < Integer.MAX_VALUE) MapMaxX = (int) tmp;
 			else MapMaxX = Integer.MAX_VALUE;
 
 			// Minimum y coordinate to be considered for sending beacons
-			tmp = curY_ - maxCommDistance_;
+			tmp = kinematics_.y_[slot_] - maxCommDistance_;
 			if (tmp < 0) MapMinY = 0;
 			else if(tmp < Integer.MAX_VALUE) MapMinY = (int) tmp;
 			else MapMinY = Integer.MAX_VALUE;
 
 			// Maximum y coordinate to be considered for sending beacons
-			tmp = curY_ + (long)maxCommDistance_;
+			tmp = kinematics_.y_[slot_] + (long)maxCommDistance_;
 			if (tmp < 0) MapMaxY = 0;
 			else if(tmp < Integer.MAX_VALUE) MapMaxY = (int) tmp;
 			else MapMaxY = Integer.MAX_VALUE;
 
 			// Get the regions to be considered for sending beacons
-			Region tmpregion = MAP.getRegionOfPoint(MapMinX, MapMinY);
+			Region tmpregion = map_.getRegionOfPoint(MapMinX, MapMinY);
 			RegionMinX = tmpregion.getX();
 			RegionMinY = tmpregion.getY();
 
-			tmpregion = MAP.getRegionOfPoint(MapMaxX, MapMaxY);
+			tmpregion = map_.getRegionOfPoint(MapMaxX, MapMaxY);
 			RegionMaxX = tmpregion.getX();
 			RegionMaxY = tmpregion.getY();
+			Region[][] regions = map_.getRegions();
 			long maxCommDistanceSquared = (long)maxCommDistance_ * maxCommDistance_;
 			long dx, dy;
 
@@ -3024,81 +3293,91 @@ public class Vehicle extends LaneObject{
 			// only iterate through those regions which are within the distance
 			for(i = RegionMinX; i <= RegionMaxX; ++i){
 				for(j = RegionMinY; j <= RegionMaxY; ++j){
-					vehicles = regions_[i][j].getVehicleArray();	//use the array as it's MUCH faster!
-					size = vehicles.length;
-
-					for(k = 0; k < size; ++k){
-						vehicle = vehicles[k];
-						// precheck if the vehicle is near enough and valid (check is not exact as its a rectangular box and not circle)
-						if(vehicle.isWiFiEnabled() && vehicle.isActive() && vehicle != this && vehicle.getX() >= MapMinX && vehicle.getX() <= MapMaxX && vehicle.getY() >= MapMinY && vehicle.getY() <= MapMaxY){
-							dx = vehicle.getX() - curX_;
-							dy = vehicle.getY() - curY_;
-							if((dx * dx + dy * dy) <= maxCommDistanceSquared){	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
-								if(emergencyBeacons > 0){
-									vehicle.getIdsProcessorList_().updateProcessor((ID_-1), curX_, curY_, curSpeed_, curLane_);
-									vehicle.getKnownVehiclesList().updateVehicle(this, (ID_-1), curX_, curY_, curSpeed_, vehicle.getID(), false,false);
-								}
-								else if (emergencyBeacons == 0){
-									//fake messages
+					region = regions[i][j];
+					vehicles = region.getCellVehicles();
+					vehiclesX = region.getCellVehicleX();
+					vehiclesY = region.getCellVehicleY();
+					cellStart = region.getCellVehicleStart();
+					cellCountY = region.getCellCountY();
+					cellMinY = region.getCellY(MapMinY);
+					cellMaxY = region.getCellY(MapMaxY);
+					cellMaxX = region.getCellX(MapMaxX);
+					for(cellX = region.getCellX(MapMinX); cellX <= cellMaxX; ++cellX){
+						size = cellStart[cellX * cellCountY + cellMaxY + 1];	// the cells of one column are stored one after another
+						for(k = cellStart[cellX * cellCountY + cellMinY]; k < size; ++k){
+							vehicleX = vehiclesX[k];
+							vehicleY = vehiclesY[k];
+							// precheck if the vehicle is near enough (check is not exact as its a rectangular box and not circle). The cells only contain active vehicles with WiFi enabled.
+							if(vehicleX >= MapMinX && vehicleX <= MapMaxX && vehicleY >= MapMinY && vehicleY <= MapMaxY && vehicles[k] != this){
+								vehicle = vehicles[k];
+								dx = vehicleX - kinematics_.x_[slot_];
+								dy = vehicleY - kinematics_.y_[slot_];
+								if((dx * dx + dy * dy) <= maxCommDistanceSquared){	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
+									if(emergencyBeacons > 0){
+										vehicle.getIdsProcessorList_().updateProcessor((ID_-1), kinematics_.x_[slot_], kinematics_.y_[slot_], kinematics_.speed_[slot_], kinematics_.lane_[slot_]);
+										vehicle.getKnownVehiclesList().updateVehicle(this, (ID_-1), kinematics_.x_[slot_], kinematics_.y_[slot_], kinematics_.speed_[slot_], vehicle.getID(), false,false);
+									}
+									else if (emergencyBeacons == 0){
+										//fake messages
 									
-									// find the destination for the message. Will be sent to the next junction behind us! (if its pcn we send it in front)
-									boolean tmpDirection2 = curDirection_;
+										// find the destination for the message. Will be sent to the next junction behind us! (if its pcn we send it in front)
+										boolean tmpDirection2 = curDirection_;
 										
-									Street tmpStreet2 = curStreet_;
-									Street[] crossingStreets;
-									Node tmpNode;
-									int k1, l = 0, destX = -1, destY = -1;
-									do{
-										++l;
-										if(tmpDirection2){
-											tmpNode = tmpStreet2.getStartNode();
-										} else {
-											tmpNode = tmpStreet2.getEndNode();
-										}
-										if(tmpNode.getJunction() != null){
-											destX = tmpNode.getX();
-											destY = tmpNode.getY();
-											break;
-										}
-										crossingStreets = tmpNode.getCrossingStreets();
-										// find next street behind of us
-										if(crossingStreets.length != 2){	// end of a street or some special case. don't forward any further
-											destX = tmpNode.getX();
-											destY = tmpNode.getY();
-											break;
-										}
-										for(k1 = 0; k1 < crossingStreets.length; ++k1){
-											if(crossingStreets[k1] != tmpStreet2){
-												tmpStreet2 = crossingStreets[k1];
-												if(tmpStreet2.getStartNode() == tmpNode) tmpDirection2 = false;
-												else tmpDirection2 = true;
+										Street tmpStreet2 = curStreet_;
+										Street[] crossingStreets;
+										Node tmpNode;
+										int k1, l = 0, destX = -1, destY = -1;
+										do{
+											++l;
+											if(tmpDirection2){
+												tmpNode = tmpStreet2.getStartNode();
+											} else {
+												tmpNode = tmpStreet2.getEndNode();
+											}
+											if(tmpNode.getJunction() != null){
+												destX = tmpNode.getX();
+												destY = tmpNode.getY();
 												break;
 											}
-										}
-									} while(tmpStreet2 != curStreet_ && l < 10000);	//hard limit of 10000 nodes to maximally go back or if again arriving at source street (=>circle!)
-									// found destination...now insert into messagequeue
-									if(destX != -1 && destY != -1){
-										int direction = -1;
-										//if(!curDirection_) direction = 1;
-										int time = Renderer.getInstance().getTimePassed();
+											crossingStreets = tmpNode.getCrossingStreets();
+											// find next street behind of us
+											if(crossingStreets.length != 2){	// end of a street or some special case. don't forward any further
+												destX = tmpNode.getX();
+												destY = tmpNode.getY();
+												break;
+											}
+											for(k1 = 0; k1 < crossingStreets.length; ++k1){
+												if(crossingStreets[k1] != tmpStreet2){
+													tmpStreet2 = crossingStreets[k1];
+													if(tmpStreet2.getStartNode() == tmpNode) tmpDirection2 = false;
+													else tmpDirection2 = true;
+													break;
+												}
+											}
+										} while(tmpStreet2 != curStreet_ && l < 10000);	//hard limit of 10000 nodes to maximally go back or if again arriving at source street (=>circle!)
+										// found destination...now insert into messagequeue
+										if(destX != -1 && destY != -1){
+											int direction = -1;
+											//if(!curDirection_) direction = 1;
+											int time = engine_.getTimePassed();
 										
-										PenaltyMessage message = new PenaltyMessage(curX_, curY_, destX, destY, PENALTY_FAKE_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, true, (ID_-1), this,  "EVA_EMERGENCY_ID", true, true);
-										message.setFloodingMode(true);	// enable flooding mode if within distance!				
-										knownMessages_.addMessage(message, false, true);	
+											PenaltyMessage message = new PenaltyMessage(kinematics_.x_[slot_], kinematics_.y_[slot_], destX, destY, PENALTY_FAKE_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, true, (ID_-1), this,  "EVA_EMERGENCY_ID", true, true);
+											knownMessages_.addMessage(message, true, false, true);	
 										
-										emergencyBeacons = -1;								
-									}		
-									++fakeMessagesCreated_;
+											emergencyBeacons = -1;								
+										}		
+										++fakeMessagesCreated_;
 									
-									fakeMessageCounter_ = fakeMessageCounter_%fakeMessageTypesCount;
-								}
+										fakeMessageCounter_ = fakeMessageCounter_%fakeMessageTypesCount;
+									}
 								
 								
 									
 							
 								
-								vehicle.getKnownVehiclesList().updateVehicle(this, ID_, curX_, curY_, curSpeed_, vehicle.getID(), false,false);
-								vehicle.getIdsProcessorList_().updateProcessor(ID_, curX_, curY_, curSpeed_, curLane_);
+									vehicle.getKnownVehiclesList().updateVehicle(this, ID_, kinematics_.x_[slot_], kinematics_.y_[slot_], kinematics_.speed_[slot_], vehicle.getID(), false,false);
+									vehicle.getIdsProcessorList_().updateProcessor(ID_, kinematics_.x_[slot_], kinematics_.y_[slot_], kinematics_.speed_[slot_], kinematics_.lane_[slot_]);
+								}
 							}
 						}
 					}
@@ -3108,32 +3387,31 @@ public class Vehicle extends LaneObject{
 			if(emergencyBeacons >= 0) emergencyBeacons--;
 				/*
 				if(emergencyBeacons == 0){
-					PenaltyMessage message = new PenaltyMessage(curX_, curY_, destX, destY, PENALTY_FAKE_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, curLane_, direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, true, ID_, this,  messageType, true, true);
-					message.setFloodingMode(false);	// enable flooding mode if within distance!				
-					knownMessages_.addMessage(message, true, true);
+					PenaltyMessage message = new PenaltyMessage(kinematics_.x_[slot_], kinematics_.y_[slot_], destX, destY, PENALTY_FAKE_MESSAGE_RADIUS, time + PENALTY_MESSAGE_VALID, curStreet_, kinematics_.lane_[slot_], direction, PENALTY_MESSAGE_VALUE, time + PENALTY_VALID, true, ID_, this,  messageType, true, true);
+					knownMessages_.addMessage(message, false, true, true);
 				}
 				
 			}
 			*/
 			// allow beacon monitoring
 			if(beaconMonitorEnabled_){
-				if(curX_ >= beaconMonitorMinX_ && curX_ <= beaconMonitorMaxX_ && curY_ >= beaconMonitorMinY_ && curY_ <= beaconMonitorMaxY_){
-					REPORT_PANEL.addBeacon(this, ID_, curX_, curY_, curSpeed_, false);
+				if(kinematics_.x_[slot_] >= beaconMonitorMinX_ && kinematics_.x_[slot_] <= beaconMonitorMaxX_ && kinematics_.y_[slot_] >= beaconMonitorMinY_ && kinematics_.y_[slot_] <= beaconMonitorMaxY_){
+					engine_.fireBeaconMonitored(this, ID_, kinematics_.x_[slot_], kinematics_.y_[slot_], kinematics_.speed_[slot_], false);
 				}
 			}
 				
-			GeneralLogWriter.log(ID_ + ":" + curX_ + ":" +  curY_ + ":" +  curSpeed_); 
+			GeneralLogWriter.logBeacon(ID_, kinematics_.x_[slot_], kinematics_.y_[slot_], kinematics_.speed_[slot_]); 
 			
 			
 			if(logBeaconsAfterEvent_){
 				amountOfLoggedBeacons_++;
 				if(amountOfLoggedBeacons_ == 10){
-					beaconString_ += "," + curX_ + "," + curY_ + "," + curSpeed_;
+					beaconString_ += "," + kinematics_.x_[slot_] + "," + kinematics_.y_[slot_] + "," + kinematics_.speed_[slot_];
 					if(!beaconString_.equals(","))GeneralLogWriter.log(beaconString_); 
 					logBeaconsAfterEvent_ = false;
 				}
 				else{
-					beaconString_ += "," + curX_ + "," + curY_ + "," + curSpeed_;
+					beaconString_ += "," + kinematics_.x_[slot_] + "," + kinematics_.y_[slot_] + "," + kinematics_.speed_[slot_];
 				}
 			}
 			
@@ -3141,24 +3419,29 @@ public class Vehicle extends LaneObject{
 			AttackRSU[] tempARSUList = getArsuList();
 			if(tempARSUList.length>0){
 			    for(int l = 0; l < tempARSUList.length;l++) {
-			    	dx = tempARSUList[l].getX() - curX_;
-			    	dy = tempARSUList[l].getY() - curY_;
+			    	dx = tempARSUList[l].getX() - kinematics_.x_[slot_];
+			    	dy = tempARSUList[l].getY() - kinematics_.y_[slot_];
 			    	
 			   
 					if((dx * dx + dy * dy) <= maxCommDistanceSquared){	// Pythagorean theorem: a^2 + b^2 = c^2 but without the needed Math.sqrt to save a little bit performance
-						if(Renderer.getInstance().getAttackerVehicle() != null && !Renderer.getInstance().getAttackerVehicle().equals(this))Renderer.getInstance().getAttackerVehicle().getKnownVehiclesList().updateVehicle(this, ID_, curX_, curY_, curSpeed_, tempARSUList[l].getArsuID_(), false, true);
+						if(engine_.getAttackerVehicle() != null && !engine_.getAttackerVehicle().equals(this))engine_.getAttackerVehicle().getKnownVehiclesList().updateVehicle(this, ID_, kinematics_.x_[slot_], kinematics_.y_[slot_], kinematics_.speed_[slot_], tempARSUList[l].getArsuID_(), false, true);
 					}	    	
 			      }
 
 			}
 
-			if(privacyDataLogged_ && (silentPeriodsOn || slowOn)){				
+			if(config_.isPrivacyDataLogged() && (config_.isSilentPeriodsOn() || config_.isSlowOn())){				
+				SavedBeacon oldBeacon = savedBeacon2;	// reuse the objects instead of creating new ones
 				savedBeacon2 = savedBeacon1;
-				savedBeacon1 = Renderer.getInstance().getTimePassed() + ":Steady ID:" + this.steadyID_ + ":Pseudonym:" + Long.toHexString(this.ID_) + ":TraveledDistance:" + totalTravelDistance_ + ":TraveledTime:" + totalTravelTime_ + ":Node ID:None" + ":Direction:%0%aa%0%" + ":Street:" + this.getCurStreet().getName() + ":StreetSpeed:" + this.getCurStreet().getSpeed() + ":VehicleSpeed:" + this.getCurSpeed() +  ":x:" + this.curX_ + ":y:" + this.curY_;
+				savedBeacon1 = oldBeacon;
+				savedBeacon1.set(engine_.getTimePassed(), steadyID_, ID_, totalTravelDistance_, totalTravelTime_, getCurStreet().getName(), getCurStreet().getSpeed(), getCurSpeed(), kinematics_.x_[slot_], kinematics_.y_[slot_]);
 			
 				if(logNextBeacons == 1){
 					logNextBeacons = 0;
-					if(!slowOn || !vehicleJustStartedInSlow)PrivacyLogWriter.log(savedBeacon2.replace("%0%aa%0%", "OUT") + ":TimeInSlow:" +  (Renderer.getInstance().getTimePassed() - slowTimestamp) + "\n" + savedBeacon1.replace("%0%aa%0%", "OUT"));
+					if(!config_.isSlowOn() || !vehicleJustStartedInSlow){
+						savedBeacon2.log(BinaryLogFormat.DIRECTION_OUT, engine_.getTimePassed() - slowTimestamp);
+						savedBeacon1.log(BinaryLogFormat.DIRECTION_OUT, Long.MIN_VALUE);
+					}
 					if(vehicleJustStartedInSlow) vehicleJustStartedInSlow = false;
 				}
 				else if(logNextBeacons == 2){
@@ -3182,36 +3465,36 @@ public class Vehicle extends LaneObject{
 	 */
 	public void sendEncryptedBeacons(){
 		if(!silentPeriod){
-			beaconCountdown_ += beaconInterval_;
+			kinematics_.beaconCountdown_[slot_] += config_.getBeaconInterval();
 			
 			RSU tmpRSU = null;
 
 			if(curMixNode_.getEncryptedRSU_() != null){
 				tmpRSU = curMixNode_.getEncryptedRSU_();
-				tmpRSU.getKnownVehiclesList_().updateVehicle(this, ID_, curX_, curY_, curSpeed_, tmpRSU.getRSUID(), true, false);
+				tmpRSU.getKnownVehiclesList_().updateVehicle(this, ID_, kinematics_.x_[slot_], kinematics_.y_[slot_], kinematics_.speed_[slot_], tmpRSU.getRSUID(), true, false);
 
 				// allow beacon monitoring
 				if(beaconMonitorEnabled_){
-					if(curX_ >= beaconMonitorMinX_ && curX_ <= beaconMonitorMaxX_ && curY_ >= beaconMonitorMinY_ && curY_ <= beaconMonitorMaxY_){
-						REPORT_PANEL.addBeacon(this, ID_, curX_, curY_, curSpeed_, true);
+					if(kinematics_.x_[slot_] >= beaconMonitorMinX_ && kinematics_.x_[slot_] <= beaconMonitorMaxX_ && kinematics_.y_[slot_] >= beaconMonitorMinY_ && kinematics_.y_[slot_] <= beaconMonitorMaxY_){
+						engine_.fireBeaconMonitored(this, ID_, kinematics_.x_[slot_], kinematics_.y_[slot_], kinematics_.speed_[slot_], true);
 					}
 				}
 
 			}	
 		}
 		
-		//check if the static flag is the same as the object flag. If not a silent period is beginning or ending -> log
-		if(silent_period != silentPeriod){ 
-			silentPeriod = silent_period;
+		//check if the flag of the engine is the same as the object flag. If not a silent period is beginning or ending -> log
+		if(engine_.isSilentPeriod() != silentPeriod){ 
+			silentPeriod = engine_.isSilentPeriod();
 			
 			//silent period did begin -> log
 			if(silentPeriod){
-				if(privacyDataLogged_) PrivacyLogWriter.log(Renderer.getInstance().getTimePassed() + ":Steady ID:" + this.steadyID_ + ":Pseudonym:" + Long.toHexString(this.ID_) + ":TraveledDistance:" + totalTravelDistance_ + ":TraveledTime:" + totalTravelTime_ + ":Node ID:none" + ":Direction:IN" +  ":x:" + this.curX_ + ":y:" + this.curY_);
+				if(config_.isPrivacyDataLogged()) PrivacyLogWriter.logSilentPeriod(engine_.getTimePassed(), steadyID_, ID_, totalTravelDistance_, totalTravelTime_, BinaryLogFormat.DIRECTION_IN, kinematics_.x_[slot_], kinematics_.y_[slot_]);
 			}
 			//silent perdiod did end -> log and change pseudonym
 			else{
 				ID_ = ownRandom_.nextLong();
-				if(privacyDataLogged_) PrivacyLogWriter.log(Renderer.getInstance().getTimePassed() + ":Steady ID:" + this.steadyID_ + ":Pseudonym:" + Long.toHexString(this.ID_) + ":TraveledDistance:" + totalTravelDistance_ + ":TraveledTime:" + totalTravelTime_ + ":Node ID:none" + ":Direction:OUT" +  ":x:" + this.curX_ + ":y:" + this.curY_);
+				if(config_.isPrivacyDataLogged()) PrivacyLogWriter.logSilentPeriod(engine_.getTimePassed(), steadyID_, ID_, totalTravelDistance_, totalTravelTime_, BinaryLogFormat.DIRECTION_OUT, kinematics_.x_[slot_], kinematics_.y_[slot_]);
 			}
 		}
 	}
@@ -3222,17 +3505,17 @@ public class Vehicle extends LaneObject{
 	 * @param timePerStep	the time per step in milliseconds
 	 */
 	public void move(int timePerStep){
-		if(curWaitTime_ == 0 && curStreet_ != null){
+		if(kinematics_.waitTime_[slot_] == 0 && curStreet_ != null){
 
-			curLane_ = newLane_;
-			curSpeed_ = newSpeed_;
+			kinematics_.lane_[slot_] = kinematics_.newLane_[slot_];
+			kinematics_.speed_[slot_] = kinematics_.newSpeed_[slot_];
 
 			// ================================= 
 			// Step 1: Move the vehicle according to its speed
 			// ================================= 
-			double tmpPosition, newPosition = curPosition_, movement;
+			double tmpPosition, newPosition = kinematics_.position_[slot_], movement;
 			WayPoint nextTarget;
-			movement = curSpeed_ * (timePerStep/1000.0);
+			movement = kinematics_.speed_[slot_] * (timePerStep/1000.0);
 			totalTravelTime_ += timePerStep;
 			totalTravelDistance_ += movement;	// not totally precise when reaching destination but should be enough as long as timePerStep is less than a second...
 			Street oldStreet = curStreet_;
@@ -3250,19 +3533,20 @@ public class Vehicle extends LaneObject{
 						do{
 							destinations_.poll();
 							if(destinations_.isEmpty()) break;
-							curWaitTime_ = destinations_.peekFirst().getWaittime();
+							kinematics_.waitTime_[slot_] = destinations_.peekFirst().getWaittime();
 						} while(!calculateRoute(true, false));
 						if(destinations_.isEmpty()){
 							//if logging and slow is active write in privacy log to flag that the last slow won't be counted
-							if(slowOn)PrivacyLogWriter.log("VehicleReachedDestination:" + this.steadyID_ + ":" + Long.toHexString(this.ID_));
+							if(config_.isSlowOn())PrivacyLogWriter.logDestinationReached(steadyID_, ID_);
 							
 							active_ = false;	//found no new destination where we can route to
-							curWaitTime_ = Integer.MIN_VALUE;
-							if(totalTravelTime_ >= minTravelTimeForRecycling_) mayBeRecycled_ = true;
+							kinematics_.waitTime_[slot_] = Integer.MIN_VALUE;
+							if(totalTravelTime_ >= config_.getMinTravelTimeForRecycling()) mayBeRecycled_ = true;
+							vehicleFinished();
 							break;	
 						} else brakeForDestinationCountdown_ = Integer.MAX_VALUE;
-						if(curWaitTime_ > 0){
-							curSpeed_ = 0;
+						if(kinematics_.waitTime_[slot_] > 0){
+							kinematics_.speed_[slot_] = 0;
 							break;		//movement to next destination shall begin after some waiting on the current location
 						} else brakeForDestination_ = false;		//stop braking for destination
 					} else {
@@ -3281,16 +3565,17 @@ public class Vehicle extends LaneObject{
 						do{
 							destinations_.poll();
 							if(destinations_.isEmpty()) break;
-							curWaitTime_ = destinations_.peekFirst().getWaittime();
+							kinematics_.waitTime_[slot_] = destinations_.peekFirst().getWaittime();
 						} while(!calculateRoute(true, false));
 						if(destinations_.isEmpty()){
 							active_ = false;	//found no new destination where we can route to
-							curWaitTime_ = Integer.MIN_VALUE;
-							if(totalTravelTime_ >= minTravelTimeForRecycling_) mayBeRecycled_ = true;
+							kinematics_.waitTime_[slot_] = Integer.MIN_VALUE;
+							if(totalTravelTime_ >= config_.getMinTravelTimeForRecycling()) mayBeRecycled_ = true;
+							vehicleFinished();
 							break;	
 						} else brakeForDestinationCountdown_ = Integer.MAX_VALUE;
-						if(curWaitTime_ > 0){
-							curSpeed_ = 0;
+						if(kinematics_.waitTime_[slot_] > 0){
+							kinematics_.speed_[slot_] = 0;
 							break;		//movement to next destination shall begin after some waiting on the current location
 						} else brakeForDestination_ = false;	//stop braking for destination
 					} 
@@ -3338,23 +3623,30 @@ public class Vehicle extends LaneObject{
 					movement = 0;
 				}
 			}
-			if(!active_ || curWaitTime_ != 0) {
-				oldStreet.delLaneObject(this, oldDirection);
-				curPosition_ = newPosition;
+			// in deterministic mode the lanes are updated after the step as vehicles of other workers might use the same lanes
+			boolean deferLaneUpdate = config_.isDeterministicMode();
+			if(!active_ || kinematics_.waitTime_[slot_] != 0) {
+				if(deferLaneUpdate) deferLaneOperation(LANE_REMOVE, oldStreet, oldDirection);
+				else oldStreet.delLaneObject(this, oldDirection);
+				kinematics_.position_[slot_] = newPosition;
 			}
 			else if(curStreet_ != oldStreet || curDirection_ != oldDirection){
-				if(curStreet_.getLanesCount() < curLane_){
-					curLane_ = curStreet_.getLanesCount();
-					newLane_ = curLane_;
+				if(curStreet_.getLanesCount() < kinematics_.lane_[slot_]){
+					kinematics_.lane_[slot_] = curStreet_.getLanesCount();
+					kinematics_.newLane_[slot_] = kinematics_.lane_[slot_];
 				}
-				oldStreet.delLaneObject(this, oldDirection);
-				curPosition_ = newPosition;
-				curStreet_.addLaneObject(this, curDirection_);
-			} else if (curLane_ > 1 || drivingOnTheSide_ || passingBlocking_){	// all vehicles which are on multilanes and which did not change street need to call the update method in the LaneContainer to preserve order!
+				if(deferLaneUpdate) deferLaneOperation(LANE_CHANGE_STREET, oldStreet, oldDirection);
+				else oldStreet.delLaneObject(this, oldDirection);
+				kinematics_.position_[slot_] = newPosition;
+				if(!deferLaneUpdate) curStreet_.addLaneObject(this, curDirection_);
+			} else if (kinematics_.lane_[slot_] > 1 || drivingOnTheSide_ || passingBlocking_){	// all vehicles which are on multilanes and which did not change street need to call the update method in the LaneContainer to preserve order!
 				passingBlocking_ = false;
-				curStreet_.updateLaneObject(this, curDirection_, newPosition);	// updates curPosition_ in the synchronized method!
+				if(deferLaneUpdate){
+					kinematics_.position_[slot_] = newPosition;
+					deferLaneOperation(LANE_UPDATE, curStreet_, curDirection_);
+				} else curStreet_.updateLaneObject(this, curDirection_, newPosition);	// updates kinematics_.position_[slot_] in the synchronized method!
 			} else {
-				curPosition_ = newPosition;
+				kinematics_.position_[slot_] = newPosition;
 			}
 
 			// ================================= 
@@ -3367,10 +3659,10 @@ public class Vehicle extends LaneObject{
 			}
 
 			// recalculate region
-			if(curX_ < curRegion_.getLeftBoundary() || curX_ > curRegion_.getRightBoundary() || curY_ < curRegion_.getUpperBoundary() || curY_ > curRegion_.getLowerBoundary()){
-				curRegion_.delVehicle(this);
-				curRegion_ = MAP.getRegionOfPoint(curX_, curY_);
-				curRegion_.addVehicle(this, false);
+			if(kinematics_.x_[slot_] < curRegion_.getLeftBoundary() || kinematics_.x_[slot_] > curRegion_.getRightBoundary() || kinematics_.y_[slot_] < curRegion_.getUpperBoundary() || kinematics_.y_[slot_] > curRegion_.getLowerBoundary()){
+				Region oldRegion = curRegion_;
+				curRegion_ = map_.getRegionOfPoint(kinematics_.x_[slot_], kinematics_.y_[slot_]);
+				changeRegion(oldRegion);
 			}			
 		}
 
@@ -3381,31 +3673,31 @@ public class Vehicle extends LaneObject{
 	 * Move Attacker. 
 	 */
 	public final void moveAttacker(){
-		Vehicle tmpAttacked = Renderer.getInstance().getAttackedVehicle();
+		Vehicle tmpAttacked = engine_.getAttackedVehicle();
 		//Save if attacker is in mix-zone
 		if(isInMixZone_ && firstContact) attackerWasInMix = true;
 		
 		//If attacked vehicle drives in mix-zone set it null and save information that the attacked vehicle was in mix-zone
 		if(tmpAttacked != null && tmpAttacked.isInMixZone_ && firstContact) {
-			Renderer.getInstance().setAttackedVehicle(null);
+			engine_.setAttackedVehicle(null);
 			Vehicle.setAttackedVehicleID_(0);
 			attackedWasInMix = true;
-			newSpeed_ = curStreet_.getSpeed();
+			kinematics_.newSpeed_[slot_] = curStreet_.getSpeed();
 			//Make route to leave the mix-zone
 			searchAttackedVehicle_();
 		}
  
 		//If attacker has left the mix-zone look for the attacked vehicle. Note that it is just plain guessing here.
 		if(attackedWasInMix && attackerWasInMix && !isInMixZone_ && firstContact){
-			if(getKnownVehiclesList().findNearestVehicle(0, 0, curX_, curY_, 10000000) != null){
-				Vehicle.setAttackedVehicleID_(getKnownVehiclesList().findNearestVehicle(0, 0, curX_, curY_, 10000000).getID());
-				Renderer.getInstance().setAttackedVehicle(getKnownVehiclesList().findNearestVehicle(0, 0, curX_, curY_, 10000000));
+			if(getKnownVehiclesList().findNearestVehicle(0, 0, kinematics_.x_[slot_], kinematics_.y_[slot_], 10000000) != null){
+				Vehicle.setAttackedVehicleID_(getKnownVehiclesList().findNearestVehicle(0, 0, kinematics_.x_[slot_], kinematics_.y_[slot_], 10000000).getID());
+				engine_.setAttackedVehicle(getKnownVehiclesList().findNearestVehicle(0, 0, kinematics_.x_[slot_], kinematics_.y_[slot_], 10000000));
 				attackedWasInMix = false;
 			}
 		}
 		
 		//Attacker knows attacked Vehicle: follow it
-		if(attackedVehicleID_ != 0) {
+		if(config_.getAttackedVehicleID() != 0) {
 			reRouteTime_--;
 			if(reRouteTime_ < 0){
 				reRouteTime_=ATTACKER_INTERVAL;
@@ -3418,17 +3710,17 @@ public class Vehicle extends LaneObject{
 					next = heads[l];								
 					while(next != null){
 						//Find the attacker data
-						if(next.getVehicle().getID() == attackedVehicleID_){
+						if(next.getVehicle().getID() == config_.getAttackedVehicleID()){
 							firstContact = true;
 							
-							dx = next.getVehicle().getX() - curX_;
-							dy = next.getVehicle().getY() - curY_;
+							dx = next.getVehicle().getX() - kinematics_.x_[slot_];
+							dy = next.getVehicle().getY() - kinematics_.y_[slot_];
 							dg = (dx * dx + dy * dy);
 	
 							//update speed if attacker is to near / to far
-							if(dg > 60000000) newSpeed_ = maxSpeed_;
-							else if(dg > 20000000 && dg < 60000000) newSpeed_ = Renderer.getInstance().getAttackedVehicle().getCurSpeed();
-							else if(dg < 20000000) newSpeed_ = 0;
+							if(dg > 60000000) kinematics_.newSpeed_[slot_] = maxSpeed_;
+							else if(dg > 20000000 && dg < 60000000) kinematics_.newSpeed_[slot_] = engine_.getAttackedVehicle().getCurSpeed();
+							else if(dg < 20000000) kinematics_.newSpeed_[slot_] = 0;
 							
 							//clear destinations and add new ones (only if the attacker is far enough away
 							//from the attacked vehicle. Otherwise the attacker would reach the final destination
@@ -3465,8 +3757,8 @@ public class Vehicle extends LaneObject{
 		Node tempNode = curStreet_.getStartNode();
 		if(!curDirection_) tempNode = curStreet_.getEndNode();
 		
-		int guessX = curX_ - destinations_.peekFirst().getX();
-		int guessY = curY_ - destinations_.peekFirst().getY();
+		int guessX = kinematics_.x_[slot_] - destinations_.peekFirst().getX();
+		int guessY = kinematics_.y_[slot_] - destinations_.peekFirst().getY();
 		
 		//Traverse the street nodes 
 		//The vehicle try's to conserve the current vector
@@ -3475,22 +3767,22 @@ public class Vehicle extends LaneObject{
 			if(tempNode.equals(tempNode.getCrossingStreets()[i].getEndNode())) tempNode2 = tempNode.getCrossingStreets()[i].getStartNode();
 			else tempNode2 = tempNode.getCrossingStreets()[i].getEndNode();
 			
-			if(guessX < 0 && guessY < 0) if(curX_ < tempNode2.getX() && curY_ < tempNode2.getY()) {
+			if(guessX < 0 && guessY < 0) if(kinematics_.x_[slot_] < tempNode2.getX() && kinematics_.y_[slot_] < tempNode2.getY()) {
 				NodeFound = true;
 				tempNode = tempNode2;
 				i=10;
 			}
-			else if(guessX < 0 && guessY > 0) if(curX_ < tempNode2.getX() && curY_ > tempNode2.getY() ) {
+			else if(guessX < 0 && guessY > 0) if(kinematics_.x_[slot_] < tempNode2.getX() && kinematics_.y_[slot_] > tempNode2.getY() ) {
 				NodeFound = true;
 				tempNode = tempNode2;
 				i=10;
 			}
-			else if(guessX > 0 && guessY > 0) if(curX_ > tempNode2.getX() && curY_ > tempNode2.getY() ) {
+			else if(guessX > 0 && guessY > 0) if(kinematics_.x_[slot_] > tempNode2.getX() && kinematics_.y_[slot_] > tempNode2.getY() ) {
 				NodeFound = true;
 				tempNode = tempNode2;
 				i=10;
 			}
-			else if(guessX > 0 && guessY < 0) if(curX_ > tempNode2.getX() && curY_ < tempNode2.getY() )  {
+			else if(guessX > 0 && guessY < 0) if(kinematics_.x_[slot_] > tempNode2.getX() && kinematics_.y_[slot_] < tempNode2.getY() )  {
 				NodeFound = true;
 				tempNode = tempNode2;
 				i=10;
@@ -3506,13 +3798,13 @@ public class Vehicle extends LaneObject{
 				
 				if(Math.abs(guessX) > Math.abs(guessY)){
 					if(guessX < 0){
-						if(curX_  < tempNode2.getX()) {
+						if(kinematics_.x_[slot_]  < tempNode2.getX()) {
 							tempNode = tempNode2;
 							i=10;
 						}
 					}
 					else if(guessX > 0){
-						if(curX_  > tempNode2.getX()) {
+						if(kinematics_.x_[slot_]  > tempNode2.getX()) {
 							tempNode = tempNode2;
 							i=10;
 						}
@@ -3520,13 +3812,13 @@ public class Vehicle extends LaneObject{
 				}
 				else{
 					if(guessY < 0){
-						if(curY_ < tempNode2.getY()){
+						if(kinematics_.y_[slot_] < tempNode2.getY()){
 							tempNode = tempNode2;
 							i=10;				
 						}
 					}
 					else if(guessY > 0){
-						if(curY_ > tempNode2.getY()) {
+						if(kinematics_.y_[slot_] > tempNode2.getY()) {
 							tempNode = tempNode2;
 							i=10;				
 						}
@@ -3619,6 +3911,38 @@ public class Vehicle extends LaneObject{
 		}
 	}
 	
+	/**
+	 * Moves this vehicle from its old region into the current one. During a simulation step, the worker thread only notes the 
+	 * change and the regions are updated after the step so that workers don't need to lock the regions.
+	 * 
+	 * @param oldRegion	the region in which this vehicle was before
+	 */
+	private void changeRegion(Region oldRegion){
+		Thread thread = Thread.currentThread();
+		if(thread instanceof WorkerThread) ((WorkerThread)thread).addRegionChange(this, oldRegion);
+		else {
+			oldRegion.delVehicle(this);
+			curRegion_.addVehicle(this, false);
+		}
+	}
+	
+	/**
+	 * Notifies the region of this vehicle that the vehicle got active or inactive, stopped waiting or changed its WiFi state 
+	 * so that the vehicle sets of the region get updated.
+	 */
+	private void vehicleStateChanged(){
+		if(curRegion_ != null) curRegion_.markVehicleStatesDirty();
+	}
+	
+	/**
+	 * Called when the vehicle has reached its last destination. As the speed of finished vehicles isn't adjusted anymore, 
+	 * the flags set there are reset here.
+	 */
+	private void vehicleFinished(){
+		waitingForSignal_ = false;
+		vehicleStateChanged();
+	}
+	
 	/**
 	 * Resets this vehicle so that it can be reused. It will travel on the same route as last time!
 	 */
@@ -3628,12 +3952,17 @@ public class Vehicle extends LaneObject{
 		
 		//reset countdowns and other variables
 		ID_ = ownRandom_.nextLong();
-		steadyID_ = steadyIDCounter++;
-		curSpeed_ = brakingRate_/2;
-		newSpeed_ = curSpeed_;
+		if(config_.isDeterministicMode()){	// the order in which the workers recycle is random so assign the steady id after the step
+			ArrayList<Vehicle> pendingSteadyIDs = engine_.getPendingSteadyIDs();
+			synchronized(pendingSteadyIDs){
+				pendingSteadyIDs.add(this);
+			}
+		} else steadyID_ = engine_.getSteadyIDCounter().getAndIncrement();
+		kinematics_.speed_[slot_] = brakingRate_/2;
+		kinematics_.newSpeed_[slot_] = kinematics_.speed_[slot_];
 		totalTravelTime_ = 0;
 		totalTravelDistance_ = 0;
-		newLane_ = 1;
+		kinematics_.newLane_[slot_] = 1;
 		active_ = false;
 		speedAtLastBrakingDistanceCalculation_ = 0;
 		isInMixZone_ = false;
@@ -3642,12 +3971,12 @@ public class Vehicle extends LaneObject{
 		brakeForDestinationCountdown_ = Integer.MAX_VALUE;
 		destinationCheckCountdown_ = 0;
 		laneChangeCountdown = 0;
-		communicationCountdown_ = 0;
+		kinematics_.communicationCountdown_[slot_] = 0;
 		knownVehiclesTimeoutCountdown_ = 0;
 		knownPenaltiesTimeoutCountdown_ = 0;
-		beaconCountdown_ = (int)Math.round(curPosition_)%beaconInterval_;
-		communicationCountdown_ = (int)Math.round(curPosition_)%communicationInterval_;
-		mixCheckCountdown_ = (int)Math.round(curPosition_)%MIX_CHECK_INTERVAL;
+		kinematics_.beaconCountdown_[slot_] = (int)Math.round(kinematics_.position_[slot_])%config_.getBeaconInterval();
+		kinematics_.communicationCountdown_[slot_] = (int)Math.round(kinematics_.position_[slot_])%config_.getCommunicationInterval();
+		mixCheckCountdown_ = (int)Math.round(kinematics_.position_[slot_])%MIX_CHECK_INTERVAL;
 		emergencyBrakingCountdown_ = ownRandom_.nextInt(emergencyBrakingInterval_)+1;
 	//	lastMessageCreated = 0;
 		lastRHCNMessageCreated = 0;		
@@ -3687,48 +4016,50 @@ public class Vehicle extends LaneObject{
 		knownRSUsList_.clear();
 		knownRSUsTimeoutCountdown_ = 0;
 		
-		speedFluctuationCountdown_ = (int)Math.round(curPosition_)%SPEED_FLUCTUATION_CHECKINTERVAL;
+		speedFluctuationCountdown_ = (int)Math.round(kinematics_.position_[slot_])%SPEED_FLUCTUATION_CHECKINTERVAL;
 		
 		//reset known event sources
 		knownEventSourcesList_.clear();
 		
 		// reset position
-		curX_ = startingWayPoint_.getX();
-		curY_ = startingWayPoint_.getY();
-		curPosition_ = startingWayPoint_.getPositionOnStreet();
+		kinematics_.x_[slot_] = startingWayPoint_.getX();
+		kinematics_.y_[slot_] = startingWayPoint_.getY();
+		kinematics_.position_[slot_] = startingWayPoint_.getPositionOnStreet();
 		curStreet_ = startingWayPoint_.getStreet();
-		curWaitTime_ = startingWayPoint_.getWaittime();
+		kinematics_.waitTime_[slot_] = startingWayPoint_.getWaittime();
 
 		// recalculate routing information
 		destinations_ = originalDestinations_.clone();
 		if(curStreet_.isOneway()){
 			while(!destinations_.isEmpty() && (!calculateRoute(false, false) || destinations_.peekFirst().getStreet() == curStreet_)){
-				curWaitTime_ = destinations_.pollFirst().getWaittime();
+				kinematics_.waitTime_[slot_] = destinations_.pollFirst().getWaittime();
 			}
 		} else {
 			while(!destinations_.isEmpty() && (!calculateRoute(false, false) || destinations_.peekFirst().getStreet() == curStreet_)){
-				curWaitTime_ = destinations_.pollFirst().getWaittime();
+				kinematics_.waitTime_[slot_] = destinations_.pollFirst().getWaittime();
 			}
 		}
-		if(curWaitTime_ == 0){
+		if(kinematics_.waitTime_[slot_] == 0){
 			active_ = true;
-			curStreet_.addLaneObject(this, curDirection_);
+			if(config_.isDeterministicMode()) deferLaneOperation(LANE_ADD, curStreet_, curDirection_);
+			else curStreet_.addLaneObject(this, curDirection_);
 		}
 		calculatePosition();
 		
 		//reset region
-		curRegion_.delVehicle(this);
-		curRegion_ = MAP.getRegionOfPoint(curX_, curY_);
-		curRegion_.addVehicle(this, false);
+		Region oldRegion = curRegion_;
+		curRegion_ = map_.getRegionOfPoint(kinematics_.x_[slot_], kinematics_.y_[slot_]);
+		if(curRegion_ != oldRegion) changeRegion(oldRegion);
 		
 		mayBeRecycled_ = false;
+		vehicleStateChanged();
 	}
 	
 	/**
 	 * Resets the global random number generator
 	 */
 	public static void resetGlobalRandomGenerator(){
-		RANDOM.setSeed(1L);
+		SimulationContext.getCurrent().resetRandom();
 	}
 	
 
@@ -3792,7 +4123,7 @@ public class Vehicle extends LaneObject{
 	 * @return the communication countdown
 	 */
 	public int getCommunicationCountdown(){
-		return communicationCountdown_;
+		return kinematics_.communicationCountdown_[slot_];
 	}
 
 	/**
@@ -3801,7 +4132,7 @@ public class Vehicle extends LaneObject{
 	 * @return the beacon countdown
 	 */
 	public int getBeaconCountdown(){
-		return beaconCountdown_;
+		return kinematics_.beaconCountdown_[slot_];
 	}
 
 	/**
@@ -3846,8 +4177,8 @@ public class Vehicle extends LaneObject{
 	 * @return the current waittime in milliseconds
 	 */
 	public int getWaittime(){
-		if(curWaitTime_ < 0) return 0; 
-		else return curWaitTime_;
+		if(kinematics_.waitTime_[slot_] < 0) return 0; 
+		else return kinematics_.waitTime_[slot_];
 	}
 
 	/**
@@ -3962,6 +4293,141 @@ public class Vehicle extends LaneObject{
 		return totalTravelDistance_;
 	}
 
+	/**
+	 * Gets the region this vehicle is currently in.
+	 * 
+	 * @return the region
+	 */
+	public Region getRegion() {
+		return curRegion_;
+	}
+	
+	/**
+	 * Gets the index of this vehicle in the vehicle array of its region. Only used by the region.
+	 * 
+	 * @return the index or <code>-1</code> if this vehicle isn't stored in a region
+	 */
+	public int getRegionIndex(){
+		return regionIndex_;
+	}
+	
+	/**
+	 * Sets the index of this vehicle in the vehicle array of its region. Only used by the region.
+	 * 
+	 * @param regionIndex	the index or <code>-1</code> if this vehicle isn't stored in a region anymore
+	 */
+	public void setRegionIndex(int regionIndex){
+		regionIndex_ = regionIndex;
+	}
+	
+	/**
+	 * Gets the store which holds the position, speed, lane and countdowns of this vehicle. Only used by the store.
+	 * 
+	 * @return the store
+	 */
+	KinematicStore getKinematicStore(){
+		return kinematics_;
+	}
+	
+	/**
+	 * Gets the slot of this vehicle in its store. Only used by the store.
+	 * 
+	 * @return the slot
+	 */
+	int getKinematicSlot(){
+		return slot_;
+	}
+	
+	/**
+	 * Sets the store and slot of this vehicle after its state has been copied there. Only used by the store.
+	 * 
+	 * @param store	the store
+	 * @param slot	the slot in the store
+	 */
+	void setKinematicSlot(KinematicStore store, int slot){
+		kinematics_ = store;
+		slot_ = slot;
+	}
+	
+	/**
+	 * Gets the current x coordinate.
+	 * 
+	 * @return the current x coordinate
+	 */
+	public int getX(){
+		return kinematics_.x_[slot_];
+	}
+	
+	/**
+	 * Gets the current y coordinate.
+	 * 
+	 * @return the current y coordinate
+	 */
+	public int getY(){
+		return kinematics_.y_[slot_];
+	}
+	
+	/**
+	 * Gets the current speed of this vehicle.
+	 * 
+	 * @return the current speed in cm/s
+	 */
+	public int getCurSpeed(){
+		return (int)Math.round(kinematics_.speed_[slot_]);
+	}
+	
+	/**
+	 * Gets the current relative position of this vehicle.
+	 * 
+	 * @return the current position measured in cm from startNode
+	 */
+	public double getCurPosition(){
+		return kinematics_.position_[slot_];
+	}
+	
+	/**
+	 * Sets the current relative position of this vehicle. Only used by the lanes.
+	 * 
+	 * @param position	the position measured in cm from startNode
+	 */
+	protected void setCurPosition(double position){
+		kinematics_.position_[slot_] = position;
+	}
+	
+	/**
+	 * Gets the current lane.
+	 * 
+	 * @return the lane measured from the right side of the street
+	 */
+	public int getCurLane(){
+		return kinematics_.lane_[slot_];
+	}
+	
+	/**
+	 * Calculates the coordinates of this vehicle from its street, direction, lane and position.
+	 */
+	private void calculatePosition(){
+		double addX=0, addY=0;
+		double rightmost;
+		int lane = kinematics_.lane_[slot_];
+		// calculate add factors
+		if(curStreet_.isOneway()){			
+			if(curStreet_.getLanesCount()%2 == 0) rightmost = curStreet_.getLanesCount()/2 + 0.5;	//note: division of first two integers does automatic "rounding"!
+			else rightmost = curStreet_.getLanesCount()/2 + 1;
+		} else rightmost = curStreet_.getLanesCount() + 0.5;
+		if(curDirection_){	//lane on right side
+			addX = curStreet_.getXFactor() * (rightmost - lane);
+			addY = curStreet_.getYFactor() * (rightmost - lane);
+		} else {	//lane on left side
+			addX = - curStreet_.getXFactor() * (rightmost - lane);
+			addY = - curStreet_.getYFactor() * (rightmost - lane);
+		}
+		// calculate position
+		double percentOnStreet = kinematics_.position_[slot_] / curStreet_.getLength();
+		kinematics_.x_[slot_] = (int) StrictMath.floor(0.5d + addX + curStreet_.getStartNode().getX() + ((curStreet_.getEndNode().getX() - curStreet_.getStartNode().getX())*percentOnStreet));
+		kinematics_.y_[slot_] = (int) StrictMath.floor(0.5d + addY + curStreet_.getStartNode().getY() + ((curStreet_.getEndNode().getY() - curStreet_.getStartNode().getY())*percentOnStreet));
+	}
+	
 	/**
 	 * Sets the region in which this vehicle is found.
 	 * 
@@ -3988,7 +4454,7 @@ public class Vehicle extends LaneObject{
 	 * @return the interval in milliseconds
 	 */
 	public static int getCommunicationInterval(){
-		return communicationInterval_;
+		return SimulationConfig.getInstance().getCommunicationInterval();
 	}
 
 	/**
@@ -3997,7 +4463,7 @@ public class Vehicle extends LaneObject{
 	 * @return the interval in milliseconds
 	 */
 	public static int getBeaconInterval(){
-		return beaconInterval_;
+		return SimulationConfig.getInstance().getBeaconInterval();
 	}
 
 
@@ -4007,7 +4473,7 @@ public class Vehicle extends LaneObject{
 	 * @return	<code>true</code> if communication is enabled, else <code>false</code>
 	 */
 	public static boolean getCommunicationEnabled(){
-		return communicationEnabled_;
+		return SimulationConfig.getInstance().isCommunicationEnabled();
 	}
 	
 	/**
@@ -4016,7 +4482,7 @@ public class Vehicle extends LaneObject{
 	 * @return	<code>true</code> if recycling is enabled, else <code>false</code>
 	 */
 	public static boolean getRecyclingEnabled(){
-		return recyclingEnabled_;
+		return SimulationConfig.getInstance().isRecyclingEnabled();
 	}
 
 	/**
@@ -4025,7 +4491,7 @@ public class Vehicle extends LaneObject{
 	 * @return <code>true</code> if beacons are enabled, else <code>false</code>
 	 */
 	public static boolean getBeaconsEnabled(){
-		return beaconsEnabled_;
+		return SimulationConfig.getInstance().isBeaconsEnabled();
 	}
 	
 	/**
@@ -4034,7 +4500,7 @@ public class Vehicle extends LaneObject{
 	 * @return <code>true</code> if mix zones are enabled, else <code>false</code>
 	 */
 	public static boolean getMixZonesEnabled(){
-		return mixZonesEnabled_;
+		return SimulationConfig.getInstance().isMixZonesEnabled();
 	}
 	
 	/**
@@ -4044,7 +4510,7 @@ public class Vehicle extends LaneObject{
 	 * @return <code>true</code> if the fallback mode is enabled, else <code>false</code>
 	 */
 	public static boolean getMixZonesFallbackEnabled(){
-		return mixZonesFallbackEnabled_;
+		return SimulationConfig.getInstance().isMixZonesFallbackEnabled();
 	}
 	
 	/**
@@ -4053,7 +4519,7 @@ public class Vehicle extends LaneObject{
 	 * @return <code>true</code> if only flooding messages are sent, else <code>false</code>
 	 */
 	public static boolean getMixZonesFallbackFloodingOnly(){
-		return mixZonesFallbackFloodingOnly_;
+		return SimulationConfig.getInstance().isMixZonesFallbackFloodingOnly();
 	}
 
 	/**
@@ -4062,7 +4528,7 @@ public class Vehicle extends LaneObject{
 	 * @return the routing mode
 	 */
 	public static int getRoutingMode(){
-		return routingMode_;
+		return SimulationConfig.getInstance().getRoutingMode();
 	}
 
 	/**
@@ -4071,7 +4537,7 @@ public class Vehicle extends LaneObject{
 	 * @return the maximum communication distance in cm
 	 */
 	public static int getMaximumCommunicationDistance(){
-		return maximumCommunicationDistance_;
+		return SimulationConfig.getInstance().getMaximumCommunicationDistance();
 	}
 	
 	/**
@@ -4081,7 +4547,7 @@ public class Vehicle extends LaneObject{
 	 * @return the time in milliseconds
 	 */
 	public static int getMinTravelTimeForRecycling(){
-		return minTravelTimeForRecycling_;
+		return SimulationConfig.getInstance().getMinTravelTimeForRecycling();
 	}
 
 	/**
@@ -4090,7 +4556,7 @@ public class Vehicle extends LaneObject{
 	 * @return the mix zone radius in cm
 	 */
 	public static int getMixZoneRadius(){
-		return mixZoneRadius_;
+		return SimulationConfig.getInstance().getMixZoneRadius();
 	}
 
 	/**
@@ -4099,7 +4565,7 @@ public class Vehicle extends LaneObject{
 	 * @param maxMixZoneRadius	the maximum radius of the mix zones in cm
 	 */
 	public static void setMaxMixZoneRadius(int maxMixZoneRadius) {
-		maxMixZoneRadius_ = maxMixZoneRadius;
+		SimulationConfig.getInstance().setMaxMixZoneRadius(maxMixZoneRadius);
 	}
 
 	/**
@@ -4108,7 +4574,7 @@ public class Vehicle extends LaneObject{
 	 * @return maxMixZoneRadius_ the maximum mix zone radius in cm
 	 */
 	public static int getMaxMixZoneRadius() {
-		return maxMixZoneRadius_;
+		return SimulationConfig.getInstance().getMaxMixZoneRadius();
 	}
 
 
@@ -4118,7 +4584,7 @@ public class Vehicle extends LaneObject{
 	 * @param mixZoneRadius	the radius of the mix zones in cm
 	 */
 	public static void setMixZoneRadius(int mixZoneRadius){
-		mixZoneRadius_ = mixZoneRadius;
+		SimulationConfig.getInstance().setMixZoneRadius(mixZoneRadius);
 	}
 	
 	/**
@@ -4128,7 +4594,7 @@ public class Vehicle extends LaneObject{
 	 * @param minTravelTimeForRecycling	the time in milliseconds
 	 */
 	public static void setMinTravelTimeForRecycling(int minTravelTimeForRecycling){
-		minTravelTimeForRecycling_ = minTravelTimeForRecycling;
+		SimulationConfig.getInstance().setMinTravelTimeForRecycling(minTravelTimeForRecycling);
 	}
 
 	/**
@@ -4137,16 +4603,7 @@ public class Vehicle extends LaneObject{
 	 * @param maximumCommunicationDistance	the maximum communication distance in cm
 	 */
 	public static void setMaximumCommunicationDistance(int maximumCommunicationDistance){
-		maximumCommunicationDistance_ = maximumCommunicationDistance;
-	}
-
-	/**
-	 * Sets the reference to all regions. Call this on map reload!
-	 * 
-	 * @param regions	the array with all regions
-	 */
-	public static void setRegions(Region[][] regions){
-		regions_ = regions;
+		SimulationConfig.getInstance().setMaximumCommunicationDistance(maximumCommunicationDistance);
 	}
 
 	/**
@@ -4155,7 +4612,7 @@ public class Vehicle extends LaneObject{
 	 * @param communicationInterval	the new value 
 	 */
 	public static void setCommunicationInterval(int communicationInterval){
-		communicationInterval_ = communicationInterval;
+		SimulationConfig.getInstance().setCommunicationInterval(communicationInterval);
 	}
 
 	/**
@@ -4164,7 +4621,7 @@ public class Vehicle extends LaneObject{
 	 * @param beaconInterval	the new value 
 	 */
 	public static void setBeaconInterval(int beaconInterval){
-		beaconInterval_ = beaconInterval;
+		SimulationConfig.getInstance().setBeaconInterval(beaconInterval);
 	}
 
 	/**
@@ -4174,7 +4631,7 @@ public class Vehicle extends LaneObject{
 	 */
 	public static void setCommunicationEnabled(boolean state){
 		RSU.setCommunicationEnabled(state);
-		communicationEnabled_ = state;
+		SimulationConfig.getInstance().setCommunicationEnabled(state);
 	}
 	
 	/**
@@ -4183,7 +4640,7 @@ public class Vehicle extends LaneObject{
 	 * @param state	<code>true</code> to enable recycling, else <code>false</code> 
 	 */
 	public static void setRecyclingEnabled(boolean state){
-		recyclingEnabled_ = state;
+		SimulationConfig.getInstance().setRecyclingEnabled(state);
 	}
 
 	/**
@@ -4193,7 +4650,7 @@ public class Vehicle extends LaneObject{
 	 */
 	public static void setBeaconsEnabled(boolean state){
 		RSU.setBeaconsEnabled(state);
-		beaconsEnabled_ = state;
+		SimulationConfig.getInstance().setBeaconsEnabled(state);
 	}
 
 	/**
@@ -4202,7 +4659,7 @@ public class Vehicle extends LaneObject{
 	 * @param state	<code>true</code> to enable mix zones, else <code>false</code> 
 	 */
 	public static void setMixZonesEnabled(boolean state){
-		mixZonesEnabled_ = state;
+		SimulationConfig.getInstance().setMixZonesEnabled(state);
 	}
 	
 	/**
@@ -4212,7 +4669,7 @@ public class Vehicle extends LaneObject{
 	 * @param state	<code>true</code> if the fallback mode is enabled, else <code>false</code>
 	 */
 	public static void setMixZonesFallbackEnabled(boolean state){
-		mixZonesFallbackEnabled_ = state;
+		SimulationConfig.getInstance().setMixZonesFallbackEnabled(state);
 	}
 	
 	/**
@@ -4221,7 +4678,7 @@ public class Vehicle extends LaneObject{
 	 * @param state	<code>true</code> if only flooding messages are sent, else <code>false</code>
 	 */
 	public static void setMixZonesFallbackFloodingOnly(boolean state){
-		mixZonesFallbackFloodingOnly_ = state;
+		SimulationConfig.getInstance().setMixZonesFallbackFloodingOnly(state);
 	}
 	
 	/**
@@ -4296,21 +4753,13 @@ public class Vehicle extends LaneObject{
 		return beaconMonitorMaxY_;
 	}
 
-	/**
-	 * Gets the report panel for beacon monitoring
-	 * 
-	 * @return REPORT_PANEL the beacon report panel
-	 */
-	public static ReportingControlPanel getREPORT_PANEL() {
-		return REPORT_PANEL;
-	}
 	/**
 	 * Sets a new routing mode. See the A_Star_Algor for details. Common to all vehicles.
 	 * 
 	 * @param mode	the new routing mode
 	 */
 	public static void setRoutingMode(int mode){
-		routingMode_ = mode;
+		SimulationConfig.getInstance().setRoutingMode(mode);
 	}
 
 	/**
@@ -4329,6 +4778,7 @@ public class Vehicle extends LaneObject{
 	 */
 	public void setWiFiEnabled(boolean wiFiEnabled) {
 		wiFiEnabled_ = wiFiEnabled;
+		vehicleStateChanged();
 	}
 
 
@@ -4356,7 +4806,8 @@ public class Vehicle extends LaneObject{
 	 * @param curWaitTime the current wait time in ms.
 	 */
 	public void setCurWaitTime(int curWaitTime) {
-		curWaitTime_ = curWaitTime;
+		kinematics_.waitTime_[slot_] = curWaitTime;
+		vehicleStateChanged();
 	}
 
 	/**
@@ -4365,7 +4816,7 @@ public class Vehicle extends LaneObject{
 	 * @return curWaitTime_ the current wait time
 	 */
 	public int getCurWaitTime() {
-		return curWaitTime_;
+		return kinematics_.waitTime_[slot_];
 	}
 
 	/**
@@ -4462,53 +4913,53 @@ public class Vehicle extends LaneObject{
 
 
 	public static AttackRSU[] getArsuList() {
-		return arsuList;
+		return SimulationConfig.getInstance().getAttackRSUs();
 	}
 
 
 	public static void setArsuList(AttackRSU[] arsuList) {
-		Vehicle.arsuList = arsuList;
+		SimulationConfig.getInstance().setAttackRSUs(arsuList);
 	}
 
 
 	public static boolean isAttackerDataLogged_() {
-		return attackerDataLogged_;
+		return SimulationConfig.getInstance().isAttackerDataLogged();
 	}
 
 
 	public static void setAttackerDataLogged_(boolean attackerDataLogged_) {
-		Vehicle.attackerDataLogged_ = attackerDataLogged_;
+		SimulationConfig.getInstance().setAttackerDataLogged(attackerDataLogged_);
 	}
 
 
 	public static long getAttackedVehicleID_() {
-		return attackedVehicleID_;
+		return SimulationConfig.getInstance().getAttackedVehicleID();
 	}
 
 
 	public static void setAttackedVehicleID_(long attackedVehicleID_) {
-		Vehicle.attackedVehicleID_ = attackedVehicleID_;
+		SimulationConfig.getInstance().setAttackedVehicleID(attackedVehicleID_);
 	}
 
 
 	public static boolean isEncryptedBeaconsInMix_() {
-		return encryptedBeaconsInMix_;
+		return SimulationConfig.getInstance().isEncryptedBeaconsInMix();
 	}
 
 
 	public static void setEncryptedBeaconsInMix_(boolean encryptedBeaconsInMix_) {
-		Vehicle.encryptedBeaconsInMix_ = encryptedBeaconsInMix_;
+		SimulationConfig.getInstance().setEncryptedBeaconsInMix(encryptedBeaconsInMix_);
 	}
 
 
 	public static boolean isAttackerEncryptedDataLogged_() {
-		return attackerEncryptedDataLogged_;
+		return SimulationConfig.getInstance().isAttackerEncryptedDataLogged();
 	}
 
 
 	public static void setAttackerEncryptedDataLogged_(
 			boolean attackerEncryptedDataLogged_) {
-		Vehicle.attackerEncryptedDataLogged_ = attackerEncryptedDataLogged_;
+		SimulationConfig.getInstance().setAttackerEncryptedDataLogged(attackerEncryptedDataLogged_);
 	}
 
 
@@ -4521,11 +4972,6 @@ public class Vehicle extends LaneObject{
 		this.curMixNode_ = curMixNode_;
 	}
 
-	public static ReportingControlPanel getReportingPanel(){
-		if(Renderer.getInstance().isConsoleStart()) return null;
-		else return VanetSimStart.getMainControlPanel().getReportingPanel();
-	}
-
 
 	/**
 	 * @return the waitingForSignal_
@@ -4544,12 +4990,12 @@ public class Vehicle extends LaneObject{
 
 
 	public static boolean isPrivacyDataLogged_() {
-		return privacyDataLogged_;
+		return SimulationConfig.getInstance().isPrivacyDataLogged();
 	}
 
 
 	public static void setPrivacyDataLogged_(boolean privacyDataLogged_) {
-		Vehicle.privacyDataLogged_ = privacyDataLogged_;
+		SimulationConfig.getInstance().setPrivacyDataLogged(privacyDataLogged_);
 	}
 
 	public void setTimeDistance(int timeDistance) {
@@ -4571,38 +5017,152 @@ public class Vehicle extends LaneObject{
 	}
 
 	public static int getTIME_BETWEEN_SILENT_PERIODS() {
-		return TIME_BETWEEN_SILENT_PERIODS;
+		return SimulationConfig.getInstance().getTimeBetweenSilentPeriods();
 	}
 
 	public static void setTIME_BETWEEN_SILENT_PERIODS(int i){
-		TIME_BETWEEN_SILENT_PERIODS = i;
+		SimulationConfig.getInstance().setTimeBetweenSilentPeriods(i);
 	}
 
 	public static int getTIME_OF_SILENT_PERIODS() {
-		return TIME_OF_SILENT_PERIODS;
+		return SimulationConfig.getInstance().getTimeOfSilentPeriods();
 	}
 
 	public static void setTIME_OF_SILENT_PERIODS(int i){
-		TIME_OF_SILENT_PERIODS = i;
+		SimulationConfig.getInstance().setTimeOfSilentPeriods(i);
 	}
 
 	public static boolean isSilent_period() {
-		return silent_period;
+		return SimulationEngine.getInstance().isSilentPeriod();
 	}
 
 
 	public static void setSilent_period(boolean silent_period) {
-		Vehicle.silent_period = silent_period;
+		SimulationEngine.getInstance().setSilentPeriod(silent_period);
+	}
+	
+	/**
+	 * Gets the steady ID which will be assigned to the next created or recycled vehicle.
+	 * 
+	 * @return the next steady ID
+	 */
+	public static int getSteadyIDCounter(){
+		return SimulationEngine.getInstance().getSteadyIDCounter().get();
+	}
+	
+	/**
+	 * Sets the steady ID which will be assigned to the next created or recycled vehicle.
+	 * 
+	 * @param counter	the next steady ID
+	 */
+	public static void setSteadyIDCounter(int counter){
+		SimulationEngine.getInstance().getSteadyIDCounter().set(counter);
+	}
+	
+	/**
+	 * Stores a lane operation which is applied after the step in deterministic mode.
+	 * 
+	 * @param operation	the operation (<code>LANE_REMOVE</code>, <code>LANE_CHANGE_STREET</code>, <code>LANE_UPDATE</code>, 
+	 * 					<code>LANE_ADD</code> or <code>LANE_ACTIVATE</code>)
+	 * @param street	the street on which the vehicle currently is (or was before changing the street)
+	 * @param direction	the direction on this street
+	 */
+	private void deferLaneOperation(int operation, Street street, boolean direction){
+		pendingLaneOperation_ = operation;
+		pendingLaneStreet_ = street;
+		pendingLaneDirection_ = direction;
+		ArrayList<Vehicle> pendingLaneOperations = engine_.getPendingLaneOperations();
+		synchronized(pendingLaneOperations){
+			pendingLaneOperations.add(this);
+		}
+	}
+	
+	/**
+	 * Finishes a step in deterministic mode. All lane operations of this step are applied ordered by the steady ID 
+	 * of the vehicles so that the order of vehicles on the same position doesn't depend on the worker threads. Afterwards, 
+	 * the vehicles which were recycled get their new steady IDs. Must only be called by the <code>SimulationMaster</code> 
+	 * after all workers have finished the step!
+	 */
+	public static void finishDeterministicStep(){
+		SimulationEngine engine = SimulationEngine.getInstance();
+		ArrayList<Vehicle> pendingLaneOperations = engine.getPendingLaneOperations();
+		synchronized(pendingLaneOperations){
+			int size = pendingLaneOperations.size();
+			if(size > 0){
+				Vehicle[] vehicles = pendingLaneOperations.toArray(new Vehicle[size]);
+				Arrays.sort(vehicles, STEADY_ID_COMPARATOR);
+				Vehicle vehicle;
+				for(int i = 0; i < size; ++i){
+					vehicle = vehicles[i];
+					switch(vehicle.pendingLaneOperation_){
+						case LANE_REMOVE:
+							vehicle.pendingLaneStreet_.delLaneObject(vehicle, vehicle.pendingLaneDirection_);
+							break;
+						case LANE_CHANGE_STREET:
+							vehicle.pendingLaneStreet_.delLaneObject(vehicle, vehicle.pendingLaneDirection_);
+							vehicle.curStreet_.addLaneObject(vehicle, vehicle.curDirection_);
+							break;
+						case LANE_UPDATE:
+							vehicle.curStreet_.updateLaneObject(vehicle, vehicle.curDirection_, vehicle.kinematics_.position_[vehicle.slot_]);
+							break;
+						case LANE_ACTIVATE:
+							vehicle.kinematics_.waitTime_[vehicle.slot_] = 0;
+							vehicle.active_ = true;
+							vehicle.brakeForDestination_ = false;
+							vehicle.curStreet_.addLaneObject(vehicle, vehicle.curDirection_);
+							vehicle.vehicleStateChanged();
+							break;
+						case LANE_ADD:
+							vehicle.curStreet_.addLaneObject(vehicle, vehicle.curDirection_);
+							break;
+					}
+					vehicle.pendingLaneOperation_ = LANE_NONE;
+					vehicle.pendingLaneStreet_ = null;
+				}
+				pendingLaneOperations.clear();
+			}
+		}
+		assignPendingSteadyIDs(engine);
+	}
+	
+	/**
+	 * Assigns the new steady IDs to all vehicles which were recycled in deterministic mode. The vehicles are ordered by 
+	 * their old steady ID so that the result doesn't depend on the order the worker threads recycled them.
+	 * 
+	 * @param engine	the simulation engine of the vehicles
+	 */
+	private static void assignPendingSteadyIDs(SimulationEngine engine){
+		ArrayList<Vehicle> pendingSteadyIDs = engine.getPendingSteadyIDs();
+		synchronized(pendingSteadyIDs){
+			int size = pendingSteadyIDs.size();
+			if(size > 0){
+				Vehicle[] vehicles = pendingSteadyIDs.toArray(new Vehicle[size]);
+				Arrays.sort(vehicles, STEADY_ID_COMPARATOR);
+				for(int i = 0; i < size; ++i){
+					vehicles[i].steadyID_ = engine.getSteadyIDCounter().getAndIncrement();
+				}
+				pendingSteadyIDs.clear();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the steady ID of this vehicle. In contrast to the ID used in communication, it doesn't change in mix zones.
+	 * 
+	 * @return the steady ID
+	 */
+	public int getSteadyID(){
+		return steadyID_;
 	}
 
 
 	public static boolean isSilentPeriodsOn() {
-		return silentPeriodsOn;
+		return SimulationConfig.getInstance().isSilentPeriodsOn();
 	}
 
 
 	public static void setSilentPeriodsOn(boolean silentPeriodsOn) {
-		Vehicle.silentPeriodsOn = silentPeriodsOn;
+		SimulationConfig.getInstance().setSilentPeriodsOn(silentPeriodsOn);
 	}
 
 
@@ -4610,7 +5170,7 @@ public class Vehicle extends LaneObject{
 	 * @return the tIME_TO_PSEUDONYM_CHANGE
 	 */
 	public static int getTIME_TO_PSEUDONYM_CHANGE() {
-		return TIME_TO_PSEUDONYM_CHANGE;
+		return SimulationConfig.getInstance().getTimeToPseudonymChange();
 	}
 
 
@@ -4618,7 +5178,7 @@ public class Vehicle extends LaneObject{
 	 * @param tIME_TO_PSEUDONYM_CHANGE the tIME_TO_PSEUDONYM_CHANGE to set
 	 */
 	public static void setTIME_TO_PSEUDONYM_CHANGE(int tIME_TO_PSEUDONYM_CHANGE) {
-		TIME_TO_PSEUDONYM_CHANGE = tIME_TO_PSEUDONYM_CHANGE;
+		SimulationConfig.getInstance().setTimeToPseudonymChange(tIME_TO_PSEUDONYM_CHANGE);
 	}
 
 
@@ -4626,7 +5186,7 @@ public class Vehicle extends LaneObject{
 	 * @return the sLOW_SPEED_LIMIT
 	 */
 	public static int getSLOW_SPEED_LIMIT() {
-		return SLOW_SPEED_LIMIT;
+		return SimulationConfig.getInstance().getSlowSpeedLimit();
 	}
 
 
@@ -4634,7 +5194,7 @@ public class Vehicle extends LaneObject{
 	 * @param sLOW_SPEED_LIMIT the sLOW_SPEED_LIMIT to set
 	 */
 	public static void setSLOW_SPEED_LIMIT(int sLOW_SPEED_LIMIT) {
-		SLOW_SPEED_LIMIT = sLOW_SPEED_LIMIT;
+		SimulationConfig.getInstance().setSlowSpeedLimit(sLOW_SPEED_LIMIT);
 	}
 
 
@@ -4642,7 +5202,7 @@ public class Vehicle extends LaneObject{
 	 * @return the slowOn
 	 */
 	public static boolean isSlowOn() {
-		return slowOn;
+		return SimulationConfig.getInstance().isSlowOn();
 	}
 
 
@@ -4650,7 +5210,7 @@ public class Vehicle extends LaneObject{
 	 * @param slowOn the slowOn to set
 	 */
 	public static void setSlowOn(boolean slowOn) {
-		Vehicle.slowOn = slowOn;
+		SimulationConfig.getInstance().setSlowOn(slowOn);
 	}
 
 
@@ -4722,7 +5282,7 @@ public class Vehicle extends LaneObject{
 	 * @return the idsActivated
 	 */
 	public static boolean isIdsActivated() {
-		return idsActivated;
+		return SimulationConfig.getInstance().isIdsActivated();
 	}
 
 
@@ -4730,7 +5290,7 @@ public class Vehicle extends LaneObject{
 	 * @param idsActivated the idsActivated to set
 	 */
 	public static void setIdsActivated(boolean idsActivated) {
-		Vehicle.idsActivated = idsActivated;
+		SimulationConfig.getInstance().setIdsActivated(idsActivated);
 	}
 
 
@@ -4786,7 +5346,7 @@ public class Vehicle extends LaneObject{
 	 * @return the fakeMessagesInterval_
 	 */
 	public static int getFakeMessagesInterval_() {
-		return fakeMessagesInterval_;
+		return SimulationConfig.getInstance().getFakeMessagesInterval();
 	}
 
 
@@ -4794,7 +5354,7 @@ public class Vehicle extends LaneObject{
 	 * @param fakeMessagesInterval_ the fakeMessagesInterval_ to set
 	 */
 	public static void setFakeMessagesInterval_(int fakeMessagesInterval_) {
-		Vehicle.fakeMessagesInterval_ = fakeMessagesInterval_;
+		SimulationConfig.getInstance().setFakeMessagesInterval(fakeMessagesInterval_);
 	}
 
 
@@ -4851,7 +5411,7 @@ public class Vehicle extends LaneObject{
 	 * @return the random
 	 */
 	public static Random getRandom() {
-		return RANDOM;
+		return SimulationContext.getCurrent().getRandom();
 	}
 
 
@@ -5076,11 +5636,11 @@ public class Vehicle extends LaneObject{
 	}
 	
 	public static int getMaxEVAMessageDelay_() {
-		return maxEVAMessageDelay_;
+		return SimulationConfig.getInstance().getMaxEVAMessageDelay();
 	}
 
 	public static void setMaxEVAMessageDelay_(int theMaxEVAMessageDelay_) {
-		maxEVAMessageDelay_ = theMaxEVAMessageDelay_;
+		SimulationConfig.getInstance().setMaxEVAMessageDelay(theMaxEVAMessageDelay_);
 	}
 
 
@@ -18,9 +18,13 @@
 package vanetsim.scenario.events;
 
 
+import java.io.IOException;
+
 import vanetsim.map.Street;
 import vanetsim.scenario.LaneObject;
 import vanetsim.scenario.Vehicle;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
 
 public class BlockingObject extends LaneObject{
 	
@@ -37,6 +41,18 @@ public class BlockingObject extends LaneObject{
 	private final String penaltyType_;
 	private int timestamp_;
 	
+	/** The X coordinate. */
+	private int curX_;
+	
+	/** The Y coordinate. */
+	private int curY_;
+	
+	/** The position on the street measured in cm from the startNode. */
+	private double curPosition_;
+	
+	/** The lane (1-n with n=lanecount of one side of the street). */
+	private int curLane_ = 1;
+	
 	public BlockingObject(int lane, boolean direction, Street street, double position, String penaltyType){
 		curLane_ = lane;
 		curDirection_ = direction;
@@ -48,6 +64,15 @@ public class BlockingObject extends LaneObject{
 		curStreet_.addLaneObject(this, curDirection_);
 	}
 	
+	/**
+	 * Instantiates a blocking object which is not added to a lane (used when restoring a checkpoint).
+	 * 
+	 * @param penaltyType	the type of penalty
+	 */
+	private BlockingObject(String penaltyType){
+		penaltyType_ = penaltyType;
+	}
+	
 	public BlockingObject(int lane, boolean direction, Street street, double position, String penaltyType, int timestamp, int x, int y){
 		curLane_ = lane;
 		curDirection_ = direction;
@@ -86,4 +111,106 @@ public class BlockingObject extends LaneObject{
 	public String getPenaltyType_() {
 		return penaltyType_;
 	}
+	
+	/**
+	 * Gets the x coordinate.
+	 * 
+	 * @return the x coordinate
+	 */
+	public int getX(){
+		return curX_;
+	}
+	
+	/**
+	 * Gets the y coordinate.
+	 * 
+	 * @return the y coordinate
+	 */
+	public int getY(){
+		return curY_;
+	}
+	
+	/**
+	 * Gets the speed of this object. Blocking objects don't move.
+	 * 
+	 * @return always <code>0</code>
+	 */
+	public int getCurSpeed(){
+		return 0;
+	}
+	
+	/**
+	 * Gets the relative position of this object.
+	 * 
+	 * @return the position measured in cm from startNode
+	 */
+	public double getCurPosition(){
+		return curPosition_;
+	}
+	
+	/**
+	 * Sets the relative position of this object.
+	 * 
+	 * @param position	the position measured in cm from startNode
+	 */
+	protected void setCurPosition(double position){
+		curPosition_ = position;
+	}
+	
+	/**
+	 * Gets the lane.
+	 * 
+	 * @return the lane measured from the right side of the street
+	 */
+	public int getCurLane(){
+		return curLane_;
+	}
+	
+	/**
+	 * Writes a blocking object to a checkpoint. As blocking objects are referenced from their blocking event and from
+	 * the lanes, each object is only written once.
+	 * 
+	 * @param out		the stream to write to
+	 * @param object	the blocking object
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public static void writeCheckpoint(CheckpointOutput out, BlockingObject object) throws IOException{
+		if(out.writeShared(object)){
+			out.writeString(object.penaltyType_);
+			out.writeInt(object.timestamp_);
+			object.writeLaneObject(out);
+			out.writeInt(object.curX_);
+			out.writeInt(object.curY_);
+			out.writeDouble(object.curPosition_);
+			out.writeInt(object.curLane_);
+		}
+	}
+	
+	/**
+	 * Reads a blocking object written with {@link #writeCheckpoint(CheckpointOutput, BlockingObject)}. The object is not
+	 * added to its lane.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @return the blocking object or <code>null</code>
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public static BlockingObject readCheckpoint(CheckpointInput in) throws IOException{
+		int index = in.readSharedIndex();
+		if(index == -1) return null;
+		BlockingObject object = (BlockingObject) in.getShared(index);
+		if(object == null){
+			object = new BlockingObject(in.readString());
+			object.timestamp_ = in.readInt();
+			object.readLaneObject(in);
+			object.curX_ = in.readInt();
+			object.curY_ = in.readInt();
+			object.curPosition_ = in.readDouble();
+			object.curLane_ = in.readInt();
+			in.setShared(index, object);
+		}
+		return object;
+	}
 }
\ No newline at end of file
@@ -18,6 +18,10 @@
 package vanetsim.scenario.events;
 
 import java.awt.Color;
+import java.io.IOException;
+
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
 
 /**
  * An abstract class for events.
@@ -48,6 +52,54 @@ public abstract class Event implements Comparable<Event>{
 	 */
 	public abstract void execute();
 	
+	/**
+	 * Writes the content of this event to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	protected abstract void writeContent(CheckpointOutput out) throws IOException;
+	
+	/**
+	 * Writes an event to a checkpoint. As the active blockings are also referenced from the list of current blockings,
+	 * each event is only written once.
+	 * 
+	 * @param out	the stream to write to
+	 * @param event	the event
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	static void writeCheckpoint(CheckpointOutput out, Event event) throws IOException{
+		if(out.writeShared(event)){
+			out.writeBoolean(event.getClass() == StartBlocking.class);
+			out.writeInt(event.time_);
+			event.writeContent(out);
+		}
+	}
+	
+	/**
+	 * Reads an event written with {@link #writeCheckpoint(CheckpointOutput, Event)}.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @return the event or <code>null</code>
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	static Event readCheckpoint(CheckpointInput in) throws IOException{
+		int index = in.readSharedIndex();
+		if(index == -1) return null;
+		Event event = (Event) in.getShared(index);
+		if(event == null){
+			// blockings are the only events so far
+			if(in.readBoolean()) event = StartBlocking.readContent(in, in.readInt());
+			else event = StopBlocking.readContent(in, in.readInt());
+			in.setShared(index, event);
+		}
+		return event;
+	}
+	
 	/**
 	 * Gets the time when this event will be fired.
 	 * 
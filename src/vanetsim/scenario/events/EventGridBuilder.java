@@ -0,0 +1,579 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.scenario.events;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the events of an event log in grids of one or more cell sizes. Each sender is only counted once per time (for the first
+ * event it sent at this time).
+ * <p>
+ * The log is read as bytes without splitting the lines into strings. Both the old format
+ * (<code>time:PenaltyType:type:x:x:y:y:Sender:sender:...</code>) and the format of the {@link vanetsim.gui.helpers.EventLogWriter}
+ * (<code>time,type,x,y,sender,receiver</code>) are supported, lines which can't be parsed (like the header) are skipped.
+ * <p>
+ * The file is split into partitions which are counted in parallel. A partition always starts with a new time so that the senders
+ * of a time are never spread over two partitions. The grids of the partitions are added up afterwards.
+ */
+final class EventGridBuilder {
+	
+	/** The event types in the order of the grids. */
+	static final String[] EVENT_TYPES = {"HUANG_EEBL", "HUANG_PCN", "PCN_FORWARD", "HUANG_RHCN", "HUANG_EVA_FORWARD", "EVA_EMERGENCY_ID"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+	
+	/** The event types as bytes. */
+	private static final byte[][] EVENT_TYPE_BYTES = new byte[EVENT_TYPES.length][];
+	
+	/** The fields (time, type, x, y, sender) of the old format separated by <code>:</code>. */
+	private static final int[] COLON_FIELDS = {0, 2, 4, 6, 8};
+	
+	/** The fields (time, type, x, y, sender) of the format separated by <code>,</code>. */
+	private static final int[] COMMA_FIELDS = {0, 1, 2, 3, 4};
+	
+	/** The size of the read buffer. */
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	static {
+		for(int i = 0; i < EVENT_TYPES.length; i++){
+			EVENT_TYPE_BYTES[i] = new byte[EVENT_TYPES[i].length()];
+			for(int j = 0; j < EVENT_TYPE_BYTES[i].length; j++) EVENT_TYPE_BYTES[i][j] = (byte)EVENT_TYPES[i].charAt(j);
+		}
+	}
+	
+	/** The sizes of the grid cells. */
+	private final double[] gridSizes_;
+	
+	/** The amount of cells in x direction for each grid size. */
+	private final int[] cellAmountX_;
+	
+	/** The amount of cells in y direction for each grid size. */
+	private final int[] cellAmountY_;
+	
+	/**
+	 * Creates a builder for grids covering the map.
+	 * 
+	 * @param gridSizes	the sizes of the grid cells
+	 * @param mapWidth	the width of the map
+	 * @param mapHeight	the height of the map
+	 */
+	EventGridBuilder(double[] gridSizes, int mapWidth, int mapHeight){
+		gridSizes_ = gridSizes.clone();
+		cellAmountX_ = new int[gridSizes.length];
+		cellAmountY_ = new int[gridSizes.length];
+		for(int i = 0; i < gridSizes.length; i++){
+			cellAmountX_[i] = (int) Math.ceil((double)mapWidth/gridSizes[i]);
+			cellAmountY_[i] = (int) Math.ceil((double)mapHeight/gridSizes[i]);
+		}
+	}
+	
+	/**
+	 * Gets the amount of cells in x direction.
+	 * 
+	 * @param size	the index of the grid size
+	 * 
+	 * @return the amount of cells
+	 */
+	int getCellAmountX(int size){
+		return cellAmountX_[size];
+	}
+	
+	/**
+	 * Gets the amount of cells in y direction.
+	 * 
+	 * @param size	the index of the grid size
+	 * 
+	 * @return the amount of cells
+	 */
+	int getCellAmountY(int size){
+		return cellAmountY_[size];
+	}
+	
+	/**
+	 * Counts the events of a log.
+	 * 
+	 * @param filePath	the path of the event log
+	 * @param threads	the maximum amount of partitions counted in parallel
+	 * 
+	 * @return the grids for each grid size and event type (in the order of {@link #EVENT_TYPES})
+	 * 
+	 * @throws IOException	if the log couldn't be read
+	 */
+	int[][][][] build(String filePath, int threads) throws IOException{
+		// every thread needs its own grids
+		long cells = 0;
+		for(int i = 0; i < gridSizes_.length; i++) cells += (long)cellAmountX_[i] * cellAmountY_[i];
+		long memoryPerThread = Math.max(1, cells * EVENT_TYPES.length * 4);
+		threads = (int)Math.max(1, Math.min(threads, Runtime.getRuntime().maxMemory() / 2 / memoryPerThread - 1));
+		
+		RandomAccessFile file = new RandomAccessFile(filePath, "r"); //$NON-NLS-1$
+		try{
+			final FileChannel channel = file.getChannel();
+			long length = channel.size();
+			long[] bounds = new long[threads + 1];
+			bounds[threads] = length;
+			for(int i = 1; i < threads; i++) bounds[i] = Math.max(bounds[i-1], findTimeStart(channel, i * (length / threads), length));
+			if(threads == 1) return countPartition(channel, 0, length);
+			
+			final AtomicInteger threadCounter = new AtomicInteger(0);
+			ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory(){
+				public Thread newThread(Runnable runnable){
+					Thread thread = new Thread(runnable, "EventGridBuilder-" + threadCounter.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			try{
+				CompletionService<int[][][][]> completion = new ExecutorCompletionService<int[][][][]>(executor);
+				for(int i = 0; i < threads; i++){
+					final long start = bounds[i];
+					final long end = bounds[i+1];
+					completion.submit(new Callable<int[][][][]>(){
+						public int[][][][] call() throws IOException{
+							return countPartition(channel, start, end);
+						}
+					});
+				}
+				int[][][][] grids = null;
+				for(int i = 0; i < threads; i++){
+					int[][][][] partition = completion.take().get();
+					if(grids == null) grids = partition;
+					else add(grids, partition);
+				}
+				return grids;
+			} catch (InterruptedException e){
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while counting events"); //$NON-NLS-1$
+			} catch (ExecutionException e){
+				if(e.getCause() instanceof IOException) throw (IOException)e.getCause();
+				throw new RuntimeException(e.getCause());
+			} finally {
+				executor.shutdownNow();
+			}
+		} finally {
+			file.close();
+		}
+	}
+	
+	/**
+	 * Adds the grids of a partition.
+	 * 
+	 * @param grids		the grids to add to
+	 * @param partition	the grids of the partition
+	 */
+	private static void add(int[][][][] grids, int[][][][] partition){
+		for(int i = 0; i < grids.length; i++){
+			for(int j = 0; j < grids[i].length; j++){
+				for(int k = 0; k < grids[i][j].length; k++){
+					int[] column = grids[i][j][k];
+					int[] other = partition[i][j][k];
+					for(int l = 0; l < column.length; l++) column[l] += other[l];
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Finds the start of the first line at or after a position whose time differs from the one of the previous event. Lines which
+	 * are no event or outside of the map don't change the time.
+	 * 
+	 * @param channel	the channel of the log
+	 * @param position	the position
+	 * @param length	the length of the log
+	 * 
+	 * @return the start of the line or the length of the log
+	 * 
+	 * @throws IOException	if the log couldn't be read
+	 */
+	private long findTimeStart(FileChannel channel, long position, long length) throws IOException{
+		if(position == 0) return 0;
+		// start one byte earlier to find out if the position is the start of a line
+		LineReader reader = new LineReader(channel, position - 1, length);
+		reader.nextLine();
+		EventLine line = new EventLine();
+		byte[] time = null;
+		int timeLength = 0;
+		while(reader.nextLine()){
+			if(!line.parse(reader.buffer_, reader.lineStart_, reader.lineEnd_)) continue;
+			if(time == null){
+				timeLength = line.timeEnd_ - line.timeStart_;
+				time = Arrays.copyOfRange(reader.buffer_, line.timeStart_, line.timeEnd_);
+			}
+			else if(!sameBytes(reader.buffer_, line.timeStart_, line.timeEnd_, time, 0, timeLength)) return reader.linePosition_;
+		}
+		return length;
+	}
+	
+	/**
+	 * Counts the events of a partition of the log.
+	 * 
+	 * @param channel	the channel of the log
+	 * @param start		the start of the partition (the start of a line)
+	 * @param end		the end of the partition
+	 * 
+	 * @return the grids for each grid size and event type
+	 * 
+	 * @throws IOException	if the log couldn't be read
+	 */
+	private int[][][][] countPartition(FileChannel channel, long start, long end) throws IOException{
+		int[][][][] grids = new int[gridSizes_.length][EVENT_TYPES.length][][];
+		for(int i = 0; i < gridSizes_.length; i++){
+			for(int j = 0; j < EVENT_TYPES.length; j++) grids[i][j] = new int[cellAmountX_[i]][cellAmountY_[i]];
+		}
+		LineReader reader = new LineReader(channel, start, end);
+		EventLine line = new EventLine();
+		SenderSet senders = new SenderSet();
+		byte[] time = new byte[16];
+		int timeLength = -1;
+		while(reader.nextLine()){
+			byte[] buffer = reader.buffer_;
+			if(!line.parse(buffer, reader.lineStart_, reader.lineEnd_)) continue;
+			
+			// a new time starts a new round of senders
+			int length = line.timeEnd_ - line.timeStart_;
+			if(!sameBytes(buffer, line.timeStart_, line.timeEnd_, time, 0, timeLength)){
+				senders.clear();
+				if(length > time.length) time = new byte[length];
+				System.arraycopy(buffer, line.timeStart_, time, 0, length);
+				timeLength = length;
+			}
+			if(!senders.add(buffer, line.senderStart_, line.senderEnd_)) continue;
+			
+			int type = -1;
+			for(int i = 0; i < EVENT_TYPE_BYTES.length; i++){
+				if(sameBytes(buffer, line.typeStart_, line.typeEnd_, EVENT_TYPE_BYTES[i], 0, EVENT_TYPE_BYTES[i].length)){
+					type = i;
+					break;
+				}
+			}
+			if(type < 0) continue;
+			for(int i = 0; i < gridSizes_.length; i++){
+				int cellX = ((int) Math.ceil(line.x_/gridSizes_[i])) - 1;
+				int cellY = ((int) Math.ceil(line.y_/gridSizes_[i])) - 1;
+				if(cellX < cellAmountX_[i] && cellY < cellAmountY_[i]) grids[i][type][cellX][cellY]++;
+			}
+		}
+		return grids;
+	}
+	
+	/**
+	 * Compares two byte ranges.
+	 * 
+	 * @param a			the first array
+	 * @param aStart	the start in the first array
+	 * @param aEnd		the end in the first array (exclusive)
+	 * @param b			the second array
+	 * @param bStart	the start in the second array
+	 * @param bLength	the length in the second array (negative if there is no range yet)
+	 * 
+	 * @return <code>true</code> if both ranges contain the same bytes
+	 */
+	private static boolean sameBytes(byte[] a, int aStart, int aEnd, byte[] b, int bStart, int bLength){
+		if(aEnd - aStart != bLength) return false;
+		for(int i = 0; i < bLength; i++){
+			if(a[aStart + i] != b[bStart + i]) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Reads the lines of a range of a file into a reused buffer.
+	 */
+	private static final class LineReader {
+		
+		/** The channel of the file. */
+		private final FileChannel channel_;
+		
+		/** The position in the file of the next byte to read. */
+		private long position_;
+		
+		/** The end of the range. */
+		private final long end_;
+		
+		/** The buffer containing the current line. */
+		byte[] buffer_ = new byte[BUFFER_SIZE];
+		
+		/** The amount of valid bytes in the buffer. */
+		private int size_ = 0;
+		
+		/** The start of the current line in the buffer. */
+		int lineStart_ = 0;
+		
+		/** The end of the current line in the buffer (without line break). */
+		int lineEnd_ = 0;
+		
+		/** The start of the next line in the buffer. */
+		private int next_ = 0;
+		
+		/** The position of the current line in the file. */
+		long linePosition_;
+		
+		/**
+		 * Creates a reader for a range of a file. The range ends with the line containing its last byte.
+		 * 
+		 * @param channel	the channel of the file
+		 * @param start		the start of the range
+		 * @param end		the end of the range
+		 */
+		LineReader(FileChannel channel, long start, long end){
+			channel_ = channel;
+			position_ = start;
+			end_ = end;
+			linePosition_ = start;
+		}
+		
+		/**
+		 * Reads the next line.
+		 * 
+		 * @return <code>false</code> if the range has ended
+		 * 
+		 * @throws IOException	if the file couldn't be read
+		 */
+		boolean nextLine() throws IOException{
+			linePosition_ = position_ - (size_ - next_);
+			if(linePosition_ >= end_) return false;
+			int i = next_;
+			while(true){
+				while(i < size_ && buffer_[i] != '\n') ++i;
+				if(i < size_) break;
+				// move the line to the start of the buffer and read more
+				int offset = next_;
+				if(offset > 0){
+					System.arraycopy(buffer_, offset, buffer_, 0, size_ - offset);
+					size_ -= offset;
+					i -= offset;
+					next_ = 0;
+				}
+				if(size_ == buffer_.length) buffer_ = Arrays.copyOf(buffer_, buffer_.length * 2);
+				int read = channel_.read(ByteBuffer.wrap(buffer_, size_, buffer_.length - size_), position_);
+				if(read <= 0){
+					if(size_ == next_) return false;
+					break;
+				}
+				position_ += read;
+				size_ += read;
+			}
+			lineStart_ = next_;
+			lineEnd_ = i;
+			next_ = i < size_ ? i + 1 : i;
+			if(lineEnd_ > lineStart_ && buffer_[lineEnd_ - 1] == '\r') --lineEnd_;
+			return true;
+		}
+	}
+	
+	/**
+	 * The fields of an event line which are needed for the grids.
+	 */
+	private static final class EventLine {
+		
+		/** The start of the time. */
+		int timeStart_;
+		
+		/** The end of the time. */
+		int timeEnd_;
+		
+		/** The start of the event type. */
+		int typeStart_;
+		
+		/** The end of the event type. */
+		int typeEnd_;
+		
+		/** The start of the sender. */
+		int senderStart_;
+		
+		/** The end of the sender. */
+		int senderEnd_;
+		
+		/** The x coordinate. */
+		int x_;
+		
+		/** The y coordinate. */
+		int y_;
+		
+		/** The starts and ends of the fields. */
+		private final int[] fields_ = new int[18];
+		
+		/**
+		 * Parses a line.
+		 * 
+		 * @param buffer	the buffer
+		 * @param start		the start of the line
+		 * @param end		the end of the line
+		 * 
+		 * @return <code>true</code> if the line is an event with positive coordinates
+		 */
+		boolean parse(byte[] buffer, int start, int end){
+			byte separator = 0;
+			for(int i = start; i < end; i++){
+				if(buffer[i] == ':' || buffer[i] == ','){
+					separator = buffer[i];
+					break;
+				}
+			}
+			if(separator == 0) return false;
+			int[] indices = separator == ':' ? COLON_FIELDS : COMMA_FIELDS;
+			int needed = indices[indices.length - 1] + 1;
+			int count = 0;
+			int fieldStart = start;
+			for(int i = start; i <= end && count < needed; i++){
+				if(i == end || buffer[i] == separator){
+					fields_[2*count] = fieldStart;
+					fields_[2*count + 1] = i;
+					++count;
+					fieldStart = i + 1;
+				}
+			}
+			if(count < needed) return false;
+			x_ = parseInt(buffer, fields_[2*indices[2]], fields_[2*indices[2] + 1]);
+			y_ = parseInt(buffer, fields_[2*indices[3]], fields_[2*indices[3] + 1]);
+			if(x_ <= 0 || y_ <= 0) return false;
+			timeStart_ = fields_[2*indices[0]];
+			timeEnd_ = fields_[2*indices[0] + 1];
+			typeStart_ = fields_[2*indices[1]];
+			typeEnd_ = fields_[2*indices[1] + 1];
+			senderStart_ = fields_[2*indices[4]];
+			senderEnd_ = fields_[2*indices[4] + 1];
+			return true;
+		}
+		
+		/**
+		 * Parses an integer like {@link Integer#parseInt(String)}.
+		 * 
+		 * @param buffer	the buffer
+		 * @param start		the start of the number
+		 * @param end		the end of the number
+		 * 
+		 * @return the number or <code>0</code> if it's not a valid integer
+		 */
+		private static int parseInt(byte[] buffer, int start, int end){
+			if(start == end) return 0;
+			boolean negative = buffer[start] == '-';
+			int i = (negative || buffer[start] == '+') ? start + 1 : start;
+			if(i == end) return 0;
+			long value = 0;
+			for(; i < end; i++){
+				int digit = buffer[i] - '0';
+				if(digit < 0 || digit > 9) return 0;
+				value = value * 10 + digit;
+				if(value > Integer.MAX_VALUE + 1L) return 0;
+			}
+			if(negative) value = -value;
+			if(value > Integer.MAX_VALUE) return 0;
+			return (int)value;
+		}
+	}
+	
+	/**
+	 * The senders of the current time. The senders are kept as bytes in a hash set with open addressing.
+	 */
+	private static final class SenderSet {
+		
+		/** The positions of the senders in <code>bytes_</code> plus one (<code>0</code> for an empty slot). */
+		private int[] slots_ = new int[64];
+		
+		/** The lengths of the senders. */
+		private int[] lengths_ = new int[64];
+		
+		/** The bytes of the senders. */
+		private byte[] bytes_ = new byte[1024];
+		
+		/** The amount of used bytes. */
+		private int bytesSize_ = 0;
+		
+		/** The used slots. */
+		private int[] used_ = new int[32];
+		
+		/** The amount of senders. */
+		private int size_ = 0;
+		
+		/**
+		 * Adds a sender.
+		 * 
+		 * @param buffer	the buffer
+		 * @param start		the start of the sender
+		 * @param end		the end of the sender
+		 * 
+		 * @return <code>true</code> if the sender was new
+		 */
+		boolean add(byte[] buffer, int start, int end){
+			int hash = 0;
+			for(int i = start; i < end; i++) hash = 31 * hash + buffer[i];
+			int mask = slots_.length - 1;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while(slots_[slot] != 0){
+				if(sameBytes(buffer, start, end, bytes_, slots_[slot] - 1, lengths_[slot])) return false;
+				slot = (slot + 1) & mask;
+			}
+			int length = end - start;
+			if(bytesSize_ + length > bytes_.length) bytes_ = Arrays.copyOf(bytes_, Math.max(bytes_.length * 2, bytesSize_ + length));
+			System.arraycopy(buffer, start, bytes_, bytesSize_, length);
+			slots_[slot] = bytesSize_ + 1;
+			lengths_[slot] = length;
+			bytesSize_ += length;
+			if(size_ == used_.length) used_ = Arrays.copyOf(used_, used_.length * 2);
+			used_[size_++] = slot;
+			if(size_ * 2 > slots_.length) rehash();
+			return true;
+		}
+		
+		/**
+		 * Doubles the amount of slots.
+		 */
+		private void rehash(){
+			int[] slots = slots_;
+			int[] lengths = lengths_;
+			int[] used = used_;
+			int size = size_;
+			slots_ = new int[slots.length * 2];
+			lengths_ = new int[slots.length * 2];
+			used_ = new int[used.length];
+			size_ = 0;
+			int mask = slots_.length - 1;
+			for(int i = 0; i < size; i++){
+				int position = slots[used[i]] - 1;
+				int length = lengths[used[i]];
+				int hash = 0;
+				for(int j = position; j < position + length; j++) hash = 31 * hash + bytes_[j];
+				int slot = (hash ^ (hash >>> 16)) & mask;
+				while(slots_[slot] != 0) slot = (slot + 1) & mask;
+				slots_[slot] = position + 1;
+				lengths_[slot] = length;
+				used_[size_++] = slot;
+			}
+		}
+		
+		/**
+		 * Removes all senders.
+		 */
+		void clear(){
+			for(int i = 0; i < size_; i++) slots_[used_[i]] = 0;
+			size_ = 0;
+			bytesSize_ = 0;
+		}
+	}
+}
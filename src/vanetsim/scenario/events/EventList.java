@@ -17,38 +17,41 @@
  */
 package vanetsim.scenario.events;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.PriorityQueue;
 
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationContext;
+
 
 /**
  * This class stores all events.
  */
 public final class EventList{
 
-	/** The only instance of this class (singleton). */
-	private static final EventList INSTANCE = new EventList();
-
-	/** A <code>PriorityQueue</code> storing all coming events. */
+/** A <code>PriorityQueue</code> storing all coming events. */
 	private final PriorityQueue<Event> allEvents_ = new PriorityQueue<Event>(16);
 
 	/** An <code>ArrayList</code> storing the currently active blocking events. */
 	private final ArrayList<StartBlocking> currentBlockings_ = new ArrayList<StartBlocking>(16);
 
 	/**
-	 * Empty, private constructor in order to disable instancing.
+	 * Creates a new, empty EventList. Use <code>getInstance()</code> to get the one of the current
+	 * {@link vanetsim.simulation.SimulationContext}.
 	 */
-	private EventList(){
+	public EventList(){
 	}	
 
 	/**
-	 * Gets the single instance of this EventList.
+	 * Gets the EventList of the simulation context bound to the calling thread.
 	 * 
-	 * @return single instance of this EventList
+	 * @return the EventList of the current context
 	 */
 	public static EventList getInstance(){
-		return INSTANCE;
+		return SimulationContext.getCurrent().getEventList();
 	}
 
 	/**
@@ -77,6 +80,43 @@ public final class EventList{
 		allEvents_.clear();
 		currentBlockings_.clear();
 	}
+	
+	/**
+	 * Writes all coming and currently active events to a checkpoint. The coming events are written in the order of the
+	 * queue so that adding them again results in the same queue.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		Event[] events = allEvents_.toArray(new Event[allEvents_.size()]);
+		out.writeInt(events.length);
+		for(int i = 0; i < events.length; ++i) Event.writeCheckpoint(out, events[i]);
+		out.writeInt(currentBlockings_.size());
+		for(int i = 0; i < currentBlockings_.size(); ++i) Event.writeCheckpoint(out, currentBlockings_.get(i));
+	}
+	
+	/**
+	 * Replaces all events with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		allEvents_.clear();
+		currentBlockings_.clear();
+		int count = in.readInt();
+		for(int i = 0; i < count; ++i) allEvents_.add(Event.readCheckpoint(in));
+		count = in.readInt();
+		Event event;
+		for(int i = 0; i < count; ++i){
+			event = Event.readCheckpoint(in);
+			if(!(event instanceof StartBlocking)) throw new IOException("Invalid blocking"); //$NON-NLS-1$
+			currentBlockings_.add((StartBlocking) event);
+		}
+	}
 
 	/**
 	 * Gets an iterator over all events.
@@ -18,19 +18,21 @@
 package vanetsim.scenario.events;
 
 import java.awt.Color;
+import java.io.IOException;
 import java.text.ParseException;
-import java.util.Random;
 import java.util.ArrayDeque;
 
 import vanetsim.ErrorLog;
-import vanetsim.gui.Renderer;
 import vanetsim.localization.Messages;
 import vanetsim.map.Map;
 import vanetsim.map.Region;
 import vanetsim.routing.WayPoint;
 import vanetsim.scenario.Vehicle;
 import vanetsim.scenario.messages.PenaltyMessage;
-import vanetsim.simulation.SimulationMaster;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.CheckpointRandom;
+import vanetsim.simulation.SimulationEngine;
 
 
 /**
@@ -83,17 +85,14 @@ public class EventSpot{
 	/** The school zone color */
 	private static Color kindergartenColor = Color.green;
 	
-	/** A reference to the map so that we don't need to call this over and over again. */
-	private static final Map MAP = Map.getInstance();
-
-	/** the map regions */
-	private static Region[][] regions_;
+	/** A reference to the map of the simulation context this event spot belongs to. */
+	private final Map map_ = Map.getInstance();
 	
 	/** the random number generator seed */
 	private long seed_;
 	
 	/** A random number generator used for the creation of emergency vehicles. */
-	private Random random_ = null;
+	private CheckpointRandom random_ = null;
 	
 	/** EventSpot Multiplier */
 	private boolean multiplier_ = true;
@@ -103,9 +102,10 @@ public class EventSpot{
 		x_ = x;
 		y_ = y;
 		frequency_ = frequency;
-		if(seed != -1)	random_ = new Random(seed);
+		if(seed != -1)	random_ = new CheckpointRandom(seed);
 		eventSpotTiming_ = random_.nextInt(frequency) + 1;
-		if(SimulationMaster.getEventSpotCountdown_() > eventSpotTiming_) SimulationMaster.setEventSpotCountdown_(eventSpotTiming_); 
+		EventSpotList eventSpotList = EventSpotList.getInstance();
+		if(eventSpotList.getEventSpotCountdown() > eventSpotTiming_) eventSpotList.setEventSpotCountdown(eventSpotTiming_); 
 		radius_ = radius;
 		eventSpotType_ = eventSpotType;
 		if(eventSpotType.equals("hospital")) eventSpotColor_ = hospitalColor;
@@ -118,6 +118,15 @@ public class EventSpot{
 
 	}
 	
+	/**
+	 * Instantiates an event spot whose state is read from a checkpoint afterwards.
+	 * 
+	 * @param seed	the random number generator seed
+	 */
+	private EventSpot(long seed){
+		seed_ = seed;
+	}
+	
 	public void execute(int timePassed){
 		eventSpotTiming_ += frequency_;
 		
@@ -218,26 +227,27 @@ public class EventSpot{
 					}catch (Exception e2) { ErrorLog.log(Messages.getString("EditEventControlPanel.errorCreatingEvent"), 6, getClass().getName(), "actionPerformed", e2);} //$NON-NLS-1$ //$NON-NLS-2$
 				} catch (Exception e) {}
 			}
-			Renderer.getInstance().ReRender(false, false);
+			SimulationEngine.getInstance().requestRender(false, false);
 		}
 		else if(eventSpotType_.equals("school") || eventSpotType_.equals("kindergarten")){
 			int RegionMinX, RegionMinY, RegionMaxX, RegionMaxY;
 			long dx, dy, maxDistanceSquared = (long)radius_ * radius_;
 
 			// Get the regions to be considered
-			Region tmpregion = MAP.getRegionOfPoint((x_ - radius_), (y_ - radius_));
+			Region tmpregion = map_.getRegionOfPoint((x_ - radius_), (y_ - radius_));
 			RegionMinX = tmpregion.getX();
 			RegionMinY = tmpregion.getY();
 
-			tmpregion = MAP.getRegionOfPoint((x_ + radius_), (y_ + radius_));
+			tmpregion = map_.getRegionOfPoint((x_ + radius_), (y_ + radius_));
 			RegionMaxX = tmpregion.getX();
 			RegionMaxY = tmpregion.getY();
+			Region[][] regions = map_.getRegions();
 			
 			int i = 0;
 			Vehicle tmpVehicle = null;
 			while(i < 100){		//there could be some vehicles in the region but no vehicle in the zone!
 				i++;
-				Vehicle[] tmpVehicleArray = regions_[(RegionMinX + random_.nextInt(RegionMaxX - RegionMinX + 1))][(RegionMinY + random_.nextInt(RegionMaxY - RegionMinY + 1))].getVehicleArray();
+				Vehicle[] tmpVehicleArray = regions[(RegionMinX + random_.nextInt(RegionMaxX - RegionMinX + 1))][(RegionMinY + random_.nextInt(RegionMaxY - RegionMinY + 1))].getVehicleArray();
 				tmpVehicle = tmpVehicleArray[random_.nextInt(tmpVehicleArray.length)];
 				
 				//check if vehicle is driving. Otherwise a emergency braking does not make any sense!
@@ -248,10 +258,9 @@ public class EventSpot{
 					if((dx*dx + dy*dy) <= maxDistanceSquared) {
 
 						PenaltyMessage message = new PenaltyMessage(tmpVehicle.getX(), tmpVehicle.getY(), tmpVehicle.getX(), tmpVehicle.getY(), 50000, (timePassed + 2000), tmpVehicle.getCurStreet(), tmpVehicle.getCurLane(), (int) tmpVehicle.getCurPosition(), 500, (timePassed + 2000), false, tmpVehicle.getID(), null,  "HUANG_EEBL", false, true);							
-						tmpVehicle.getKnownMessages().addMessage(message, false, true);
-						message.setFloodingMode(true);	// enable flooding mode if within distance!				
+						tmpVehicle.getKnownMessages().addMessage(message, true, false, true);	// enable flooding mode
 						//tmpVehicle.getTmpBlockings().add(new BlockingObject(tmpVehicle.getCurLane(), tmpVehicle.getCurDirection(), tmpVehicle.getCurStreet(),  tmpVehicle.getCurPosition(), "HUANG_EEBL", (timePassed + 2000)));
-						//Renderer.getInstance().setMarkedVehicle(tmpVehicle);
+						//SimulationEngine.getInstance().setMarkedVehicle(tmpVehicle);
 					
 						tmpVehicle.setEmergencyBraking_(true);
 						tmpVehicle.setEEBLmessageIsCreated_(true);
@@ -367,13 +376,6 @@ public class EventSpot{
 		this.eventSpotTiming_ = eventSpotTiming_;
 	}
 
-	/**
-	 * @param regions_ the regions_ to set
-	 */
-	public static void setRegions_(Region[][] regions) {
-		regions_ = regions;
-	}
-
 	public long getSeed_() {
 		return seed_;
 	}
@@ -381,4 +383,51 @@ public class EventSpot{
 	public  void setSeed_(long seed) {
 		seed_ = seed;
 	}
+	
+	/**
+	 * Writes this event spot to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeLong(seed_);
+		out.writeBoolean(random_ != null);
+		if(random_ != null) random_.writeCheckpoint(out);
+		out.writeInt(frequency_);
+		out.writeInt(radius_);
+		out.writeInt(x_);
+		out.writeInt(y_);
+		out.writeString(eventSpotType_);
+		out.writeColor(eventSpotColor_);
+		out.writeInt(eventSpotTiming_);
+		out.writeBoolean(multiplier_);
+	}
+	
+	/**
+	 * Reads an event spot written with {@link #writeCheckpoint(CheckpointOutput)}.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @return the event spot
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	static EventSpot readCheckpoint(CheckpointInput in) throws IOException{
+		EventSpot spot = new EventSpot(in.readLong());
+		if(in.readBoolean()){
+			spot.random_ = new CheckpointRandom(spot.seed_);
+			spot.random_.readCheckpoint(in);
+		}
+		spot.frequency_ = in.readInt();
+		spot.radius_ = in.readInt();
+		spot.x_ = in.readInt();
+		spot.y_ = in.readInt();
+		spot.eventSpotType_ = in.readString();
+		spot.eventSpotColor_ = in.readColor();
+		spot.eventSpotTiming_ = in.readInt();
+		spot.multiplier_ = in.readBoolean();
+		return spot;
+	}
 }
\ No newline at end of file
@@ -22,13 +22,15 @@ import java.io.BufferedWriter;
 import java.io.DataInputStream;
 import java.io.FileInputStream;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
 
 
-import vanetsim.VanetSimStart;
-import vanetsim.gui.Renderer;
 import vanetsim.map.Map;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationEngine;
+import vanetsim.simulation.SimulationContext;
 
 
 
@@ -38,12 +40,11 @@ import vanetsim.map.Map;
  */
 public final class EventSpotList{
 
-	/** The only instance of this class (singleton). */
-	private static final EventSpotList INSTANCE = new EventSpotList();
-
-	
 	/** the head of the event spot */
 	private EventSpot head_ = null;
+	
+	/** the timer for the event spots */
+	private int eventSpotCountdown_ = -1;
 
 	/** the grids for the event probabiltites */
 	int[][] gridEEBL_ = null;
@@ -55,18 +56,19 @@ public final class EventSpotList{
 
 
 	/**
-	 * Empty, private constructor in order to disable instancing.
+	 * Creates a new, empty EventSpotList. Use <code>getInstance()</code> to get the one of the current
+	 * {@link vanetsim.simulation.SimulationContext}.
 	 */
-	private EventSpotList(){
+	public EventSpotList(){
 	}	
 
 	/**
-	 * Gets the single instance of this EventList.
+	 * Gets the EventSpotList of the simulation context bound to the calling thread.
 	 * 
-	 * @return single instance of this EventList
+	 * @return the EventSpotList of the current context
 	 */
 	public static EventSpotList getInstance(){
-		return INSTANCE;
+		return SimulationContext.getCurrent().getEventSpotList();
 	}
 
 	/**
@@ -145,7 +147,7 @@ public final class EventSpotList{
 			while(tmpSpot != null){
 				if(tmpSpot.getEventSpotTiming_() <= time) {
 					
-					tmpSpot.execute(Renderer.getInstance().getTimePassed());
+					tmpSpot.execute(SimulationEngine.getInstance().getTimePassed());
 				}
 				tmpSpot = tmpSpot.getNext_();
 			}
@@ -154,12 +156,110 @@ public final class EventSpotList{
 		return 999999999;
 	}
 	
+	/**
+	 * Gets the time when the next event spot needs to be executed.
+	 * 
+	 * @return the time in milliseconds
+	 */
+	public int getEventSpotCountdown(){
+		return eventSpotCountdown_;
+	}
+	
+	/**
+	 * Sets the time when the next event spot needs to be executed.
+	 * 
+	 * @param eventSpotCountdown	the time in milliseconds
+	 */
+	public void setEventSpotCountdown(int eventSpotCountdown){
+		eventSpotCountdown_ = eventSpotCountdown;
+	}
+	
 	/**
 	 * Removes all events.
 	 */
 	public void clearEvents(){
 		head_ = null;
 	}
+	
+	/**
+	 * Writes all event spots, their timer and the event probability grids to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeInt(eventSpotCountdown_);
+		int count = 0;
+		for(EventSpot spot = head_; spot != null; spot = spot.getNext_()) ++count;
+		out.writeInt(count);
+		for(EventSpot spot = head_; spot != null; spot = spot.getNext_()) spot.writeCheckpoint(out);
+		writeGrid(out, gridEEBL_);
+		writeGrid(out, gridPCN_);
+		writeGrid(out, gridPCNFORWARD_);
+		writeGrid(out, gridRHCN_);
+		writeGrid(out, gridEVAFORWARD_);
+		writeGrid(out, gridEVA_);
+	}
+	
+	/**
+	 * Replaces all event spots, their timer and the event probability grids with the ones from a checkpoint.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	public void readCheckpoint(CheckpointInput in) throws IOException{
+		eventSpotCountdown_ = in.readInt();
+		int count = in.readInt();
+		EventSpot previous = null, next;
+		head_ = null;
+		for(int i = 0; i < count; ++i){
+			next = EventSpot.readCheckpoint(in);
+			if(previous == null) head_ = next;
+			else previous.setNext_(next);
+			previous = next;
+		}
+		gridEEBL_ = readGrid(in);
+		gridPCN_ = readGrid(in);
+		gridPCNFORWARD_ = readGrid(in);
+		gridRHCN_ = readGrid(in);
+		gridEVAFORWARD_ = readGrid(in);
+		gridEVA_ = readGrid(in);
+	}
+	
+	/**
+	 * Writes an event probability grid which may be <code>null</code>.
+	 * 
+	 * @param out	the stream to write to
+	 * @param grid	the grid
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	private void writeGrid(CheckpointOutput out, int[][] grid) throws IOException{
+		if(grid == null) out.writeInt(-1);
+		else {
+			out.writeInt(grid.length);
+			for(int i = 0; i < grid.length; ++i) out.writeIntArray(grid[i]);
+		}
+	}
+	
+	/**
+	 * Reads an event probability grid written with {@link #writeGrid(CheckpointOutput, int[][])}.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @return the grid or <code>null</code>
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	private int[][] readGrid(CheckpointInput in) throws IOException{
+		int length = in.readInt();
+		if(length < 0) return null;
+		int[][] grid = new int[length][];
+		for(int i = 0; i < length; ++i) grid[i] = in.readIntArray();
+		return grid;
+	}
 
 	/**
 	 * @return the head_
@@ -180,72 +280,46 @@ public final class EventSpotList{
 	 * calculates the probabilities of events
 	 */
 	public void calculateGrid(double gridSize, String filePath, String selectedGrid){
-		int cellAmountX = (int) Math.ceil((double)Map.getInstance().getMapWidth()/gridSize);
-		int cellAmountY = (int) Math.ceil((double)Map.getInstance().getMapHeight()/gridSize);
-		gridEVA_ = new int[cellAmountX][cellAmountY];
-		gridPCN_ = new int[cellAmountX][cellAmountY];
-		gridEEBL_ = new int[cellAmountX][cellAmountY];
-		gridPCNFORWARD_ = new int[cellAmountX][cellAmountY];
-		gridRHCN_ = new int[cellAmountX][cellAmountY];
-		gridEVAFORWARD_ = new int[cellAmountX][cellAmountY];
-		System.out.println(Map.getInstance().getMapWidth() + ":cellAX:" + cellAmountX + " :cellAY:" + cellAmountY);
+		calculateGrid(new double[]{gridSize}, filePath, selectedGrid);
+	}
+	
+	/**
+	 * Calculates the probabilities of events for several grid sizes in one pass through the event log. The grids of each size are
+	 * saved next to the log and the grids of the first size are shown.
+	 * 
+	 * @param gridSizes		the sizes of the grid cells
+	 * @param filePath		the path of the event log
+	 * @param selectedGrid	the event type of the grid to show
+	 */
+	public void calculateGrid(double[] gridSizes, String filePath, String selectedGrid){
+		EventGridBuilder builder = new EventGridBuilder(gridSizes, Map.getInstance().getMapWidth(), Map.getInstance().getMapHeight());
+		for(int i = 0; i < gridSizes.length; i++) System.out.println(Map.getInstance().getMapWidth() + ":cellAX:" + builder.getCellAmountX(i) + " :cellAY:" + builder.getCellAmountY(i));
 		
 		try{
-			// Open the file that is the first 
-			// command line parameter
-			FileInputStream fstream = new FileInputStream(filePath);
-			// Get the object of DataInputStream
-			DataInputStream in = new DataInputStream(fstream);
-			BufferedReader br = new BufferedReader(new InputStreamReader(in));
-			String strLine;
-			String[] strParse = null;
-			ArrayList<String> sendersOfThisRound = new ArrayList<String>();
-			String currentTime = "0";
-			//Read file line By line
-			while ((strLine = br.readLine()) != null) {
-			//	System.out.println(strLine);
-				strParse = strLine.split(":");
-				if(Integer.parseInt(strParse[4]) > 0 && Integer.parseInt(strParse[6]) > 0){
-					if(!currentTime.equals(strParse[0])){
-						sendersOfThisRound.clear();
-						currentTime = strParse[0];
-					}
-					
-					if(!sendersOfThisRound.contains(strParse[8])){
-						if(strParse[2].equals("HUANG_PCN")){
-							gridPCN_[((int) Math.ceil(Integer.parseInt(strParse[4])/gridSize))-1][((int) Math.ceil(Integer.parseInt(strParse[6])/gridSize))-1]++;
-						}
-						else if(strParse[2].equals("HUANG_EEBL")){
-							gridEEBL_[((int) Math.ceil(Integer.parseInt(strParse[4])/gridSize))-1][((int) Math.ceil(Integer.parseInt(strParse[6])/gridSize))-1]++;
-						}
-						else if(strParse[2].equals("PCN_FORWARD")){
-							gridPCNFORWARD_[((int) Math.ceil(Integer.parseInt(strParse[4])/gridSize))-1][((int) Math.ceil(Integer.parseInt(strParse[6])/gridSize))-1]++;
-						}
-						else if(strParse[2].equals("HUANG_RHCN")){
-							gridRHCN_[((int) Math.ceil(Integer.parseInt(strParse[4])/gridSize))-1][((int) Math.ceil(Integer.parseInt(strParse[6])/gridSize))-1]++;
-						}
-						else if(strParse[2].equals("HUANG_EVA_FORWARD")){
-							gridEVAFORWARD_[((int) Math.ceil(Integer.parseInt(strParse[4])/gridSize))-1][((int) Math.ceil(Integer.parseInt(strParse[6])/gridSize))-1]++;
-						}
-						else if(strParse[2].equals("EVA_EMERGENCY_ID")){
-							gridEVA_[((int) Math.ceil(Integer.parseInt(strParse[4])/gridSize))-1][((int) Math.ceil(Integer.parseInt(strParse[6])/gridSize))-1]++;
-						}
-						
-						sendersOfThisRound.add(strParse[8]);
-					}
-
-				}
-
+			int[][][][] grids = builder.build(filePath, Runtime.getRuntime().availableProcessors());
+			for(int i = gridSizes.length - 1; i >= 0; i--){
+				setGrids(grids[i]);
+				saveGrid(filePath.substring(0, filePath.length() - 4) + "grid_" + gridSizes[i] + ".log", (int)gridSizes[i]);
 			}
-
-			showGrid(selectedGrid, (int)gridSize);
-			saveGrid(filePath.substring(0, filePath.length() - 4) + "grid_" + gridSize + ".log", (int)gridSize);
-			//Close the input stream
-			in.close();
+			showGrid(selectedGrid, (int)gridSizes[0]);
 		}catch (Exception e){//Catch exception if any
 			e.printStackTrace();
 		}
 	}
+	
+	/**
+	 * Sets the grids of all event types.
+	 * 
+	 * @param grids	the grids in the order of {@link EventGridBuilder#EVENT_TYPES}
+	 */
+	private void setGrids(int[][][] grids){
+		gridEEBL_ = grids[0];
+		gridPCN_ = grids[1];
+		gridPCNFORWARD_ = grids[2];
+		gridRHCN_ = grids[3];
+		gridEVAFORWARD_ = grids[4];
+		gridEVA_ = grids[5];
+	}
 
 	public void createIntelligentStreetCluster(){
 		//use to find nearest street
@@ -379,7 +453,6 @@ public final class EventSpotList{
 		  }catch (Exception e){//Catch exception if any
 			  System.err.println("Error: " + e.getMessage());
 		  }
-		  VanetSimStart.getMainControlPanel().getEditPanel().getEditEventSpotsPanel_().getGridSize_().setValue(gridSize);
 		  showGrid(selectedGrid, gridSize);
 	}
 	
@@ -387,14 +460,15 @@ public final class EventSpotList{
 	 * shows the selected grid on the map
 	 */
 	public void showGrid(String selectedGrid, int gridSize){
-		if(selectedGrid.equals("HUANG_PCN")) Renderer.getInstance().setGrid(gridPCN_);
-		else if(selectedGrid.equals("HUANG_EEBL")) Renderer.getInstance().setGrid(gridEEBL_);
-		if(selectedGrid.equals("PCN_FORWARD")) Renderer.getInstance().setGrid(gridPCNFORWARD_);
-		if(selectedGrid.equals("HUANG_RHCN")) Renderer.getInstance().setGrid(gridRHCN_);
-		if(selectedGrid.equals("HUANG_EVA_FORWARD")) Renderer.getInstance().setGrid(gridEVAFORWARD_);
-		if(selectedGrid.equals("EVA_EMERGENCY_ID")) Renderer.getInstance().setGrid(gridEVA_);
+		int[][] grid = null;
+		if(selectedGrid.equals("HUANG_PCN")) grid = gridPCN_;
+		else if(selectedGrid.equals("HUANG_EEBL")) grid = gridEEBL_;
+		if(selectedGrid.equals("PCN_FORWARD")) grid = gridPCNFORWARD_;
+		if(selectedGrid.equals("HUANG_RHCN")) grid = gridRHCN_;
+		if(selectedGrid.equals("HUANG_EVA_FORWARD")) grid = gridEVAFORWARD_;
+		if(selectedGrid.equals("EVA_EMERGENCY_ID")) grid = gridEVA_;
+		if(grid == null) return;	// not calculated or loaded yet
 
-		int[][] grid = Renderer.getInstance().getGrid();
 		int min = 999999999;
 		int max = 0;
 		
@@ -405,11 +479,8 @@ public final class EventSpotList{
 			}
 		}
 		
-		Renderer.getInstance().setMinGridValue(min);
-		Renderer.getInstance().setMaxGridValue(max);
-		Renderer.getInstance().setGridSize_(gridSize);
-		
-		Renderer.getInstance().ReRender(true, true);
+		SimulationEngine.getInstance().showGrid(grid, min, max, gridSize);
+		SimulationEngine.getInstance().requestRender(true, true);
 	}
 	
 	
@@ -18,6 +18,7 @@
 package vanetsim.scenario.events;
 
 import java.awt.Color;
+import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
 
@@ -25,6 +26,8 @@ import vanetsim.ErrorLog;
 import vanetsim.localization.Messages;
 import vanetsim.map.MapHelper;
 import vanetsim.map.Street;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
 
 /**
  * This class represents an event which starts blocking on a street.
@@ -88,6 +91,28 @@ public final class StartBlocking extends Event{
 		} else throw new ParseException(Messages.getString("StartBlocking.snappingFailed"),0); //$NON-NLS-1$
 	}
 	
+	/**
+	 * Constructor for an event which has already been snapped to a street (used when restoring a checkpoint).
+	 * 
+	 * @param time			the time in milliseconds when this event gets active
+	 * @param street		the affected street
+	 * @param streetPos		the position on the affected street
+	 * @param direction		the affected street direction
+	 * @param lanes			the amount of affected lanes
+	 * @param isFake		if this is a fake event
+	 * @param penaltyType	the type of penalty
+	 */
+	private StartBlocking(int time, Street street, double streetPos, int direction, int lanes, boolean isFake, String penaltyType){
+		time_ = time;
+		color_ = Color.red;
+		affectedStreet_ = street;
+		affectedStreetPos_ = streetPos;
+		affectedDirection_ = direction;
+		affectedLanes_ = lanes;
+		isFake_ = isFake;
+		penaltyType_ = penaltyType;
+	}
+	
 	/**
 	 * Returns a descriptive text for display in the GUI.
 	 * 
@@ -163,6 +188,53 @@ public final class StartBlocking extends Event{
 	public void destroy() {
 	}
 	
+	/**
+	 * Writes the blocking and its blocking objects to a checkpoint. The event which ends this blocking is not written as
+	 * it sets itself again when it's restored.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 * 
+	 * @see vanetsim.scenario.events.Event#writeContent(vanetsim.simulation.CheckpointOutput)
+	 */
+	protected void writeContent(CheckpointOutput out) throws IOException{
+		out.writeStreet(affectedStreet_);
+		out.writeDouble(affectedStreetPos_);
+		out.writeInt(affectedDirection_);
+		out.writeInt(affectedLanes_);
+		out.writeBoolean(isFake_);
+		out.writeString(penaltyType_);
+		out.writeBoolean(isFirst_);
+		if(blockingObjects_ == null) out.writeInt(-1);
+		else {
+			out.writeInt(blockingObjects_.size());
+			for(int i = 0; i < blockingObjects_.size(); ++i) BlockingObject.writeCheckpoint(out, blockingObjects_.get(i));
+		}
+	}
+	
+	/**
+	 * Reads the blocking written by {@link #writeContent(CheckpointOutput)} and creates the event.
+	 * 
+	 * @param in	the stream to read from
+	 * @param time	the time in milliseconds when this event gets active
+	 * 
+	 * @return the event
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	static StartBlocking readContent(CheckpointInput in, int time) throws IOException{
+		StartBlocking event = new StartBlocking(time, in.readStreet(), in.readDouble(), in.readInt(), in.readInt(), in.readBoolean(), in.readString());
+		if(event.affectedStreet_ == null) throw new IOException("Blocking without street"); //$NON-NLS-1$
+		event.isFirst_ = in.readBoolean();
+		int count = in.readInt();
+		if(count >= 0){
+			event.blockingObjects_ = new ArrayList<BlockingObject>(Math.max(2, count));
+			for(int i = 0; i < count; ++i) event.blockingObjects_.add(BlockingObject.readCheckpoint(in));
+		}
+		return event;
+	}
+	
 	/**
 	 * Gets the x coordinate.
 	 * 
@@ -19,12 +19,15 @@
 package vanetsim.scenario.events;
 
 import java.awt.Color;
+import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Iterator;
 
 import vanetsim.ErrorLog;
 import vanetsim.localization.Messages;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
 
 /**
  * This class represents an event which ends blocking on a street ("unblock").
@@ -165,4 +168,35 @@ public final class StopBlocking extends Event{
 	public void destroy() {
 		startBlockingEvent_.setStopBlockingEvent(null);		
 	}
+	
+	/**
+	 * Writes the event which starts the blocking to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 * 
+	 * @see vanetsim.scenario.events.Event#writeContent(vanetsim.simulation.CheckpointOutput)
+	 */
+	protected void writeContent(CheckpointOutput out) throws IOException{
+		Event.writeCheckpoint(out, startBlockingEvent_);
+	}
+	
+	/**
+	 * Reads the event written by {@link #writeContent(CheckpointOutput)} and creates the event. It's set as the end of
+	 * the blocking it belongs to.
+	 * 
+	 * @param in	the stream to read from
+	 * @param time	the time in milliseconds when this event gets active
+	 * 
+	 * @return the event
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	static StopBlocking readContent(CheckpointInput in, int time) throws IOException{
+		Event event = Event.readCheckpoint(in);
+		if(!(event instanceof StartBlocking)) throw new IOException("Unblocking without blocking"); //$NON-NLS-1$
+		StartBlocking startBlockingEvent = (StartBlocking) event;
+		return new StopBlocking(time, startBlockingEvent.getX(), startBlockingEvent.getY(), startBlockingEvent);
+	}
 }
\ No newline at end of file
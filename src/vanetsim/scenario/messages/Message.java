@@ -18,50 +18,71 @@
 package vanetsim.scenario.messages;
 
 
-import vanetsim.gui.Renderer;
+import java.io.IOException;
+
 import vanetsim.scenario.Vehicle;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
+import vanetsim.simulation.SimulationEngine;
 
 /**
- * An abstract class for messages.
+ * An abstract class for messages. A message is immutable and the same object is shared by all vehicles and RSUs 
+ * which received it. Everything which differs from hop to hop is stored in a <code>KnownMessage</code>.
  */
 public abstract class Message{
 	
-	/** A reference to the renderer. */
-	private static final Renderer renderer_ = Renderer.getInstance();
+	/** A reference to the simulation engine of the context this message was created in. */
+	private final SimulationEngine engine_ = SimulationEngine.getInstance();
 	
 	/** The x coordinate of the destination of this message. */
-	protected int destinationX_;
+	protected final int destinationX_;
 	
 	/** The y coordinate of the destination of this message. */
-	protected int destinationY_;
+	protected final int destinationY_;
 	
 	/** The destination radius in cm. */
-	protected int destinationRadius_;
+	protected final int destinationRadius_;
 	
 	/** The squared destination radius in cm^2 (as it's often needed). */
-	protected long destinationRadiusSquared_;
-	
-	/** If flooding mode is enabled. <code>true</code> if flooding of this message to all vehicles is done, 
-	 * <code>false</code> if line-forwarding is done*/
-	private boolean floodingMode_ = false;
+	protected final long destinationRadiusSquared_;
 	
 	/** How long this message is valid. */
-	protected int validUntil_;	
+	protected final int validUntil_;	
 	
 	/** Flags if the message is fake **/
-	protected boolean isFake_;
+	protected final boolean isFake_;
 	
 	/** The steadyID of the source of the message **/
-	protected long ID_;
+	protected final long ID_;
 
 	
+	/**
+	 * Constructor.
+	 * 
+	 * @param destinationX		the x coordinate of the destination of the message
+	 * @param destinationY		the y coordinate of the destination of the message
+	 * @param destinationRadius	the radius of the destination area in cm
+	 * @param validUntil		how long the message is valid in ms (measured from simulation start)
+	 * @param isFake			if the message is fake
+	 * @param ID				the steadyID of the source of the message
+	 */
+	protected Message(int destinationX, int destinationY, int destinationRadius, int validUntil, boolean isFake, long ID){
+		destinationX_ = destinationX;
+		destinationY_ = destinationY;
+		destinationRadius_ = destinationRadius;
+		destinationRadiusSquared_ = (long)destinationRadius * destinationRadius;
+		validUntil_ = validUntil;
+		isFake_ = isFake;
+		ID_ = ID;
+	}
+	
 	/**
 	 * Checks if the message is still valid.
 	 * 
 	 * @return <code>true</code> if it's valid, else <code>false</code>
 	 */
 	public boolean isValid(){
-		if(renderer_.getTimePassed() < validUntil_) return true;
+		if(engine_.getTimePassed() < validUntil_) return true;
 		else return false;
 	}
 	
@@ -83,26 +104,6 @@ public abstract class Message{
 		return destinationY_;
 	}
 	
-	/**
-	 * Returns if flooding mode is enabled on this message
-	 * 
-	 * @return <code>true</code> if flooding of this message to all vehicles is done, 
-	 * <code>false</code> if line-forwarding is done
-	 */
-	public boolean getFloodingMode(){
-		return floodingMode_;
-	}
-	
-	/**
-	 * Sets if flooding mode is enabled on this message
-	 * 
-	 * @param mode	<code>true</code> if flooding of this message to all vehicles is done, 
-	 * 				<code>false</code> if line-forwarding is done
-	 */
-	public void setFloodingMode(boolean mode){
-		floodingMode_ = mode;
-	}
-	
 	/**
 	 * Gets the destination radius. If the message arrives in this circular destination area, it 
 	 * should be broadcasted to all vehicles.
@@ -128,19 +129,61 @@ public abstract class Message{
 	 * @param vehicle	the vehicle
 	 */
 	public abstract void execute(Vehicle vehicle);
-
+	
 	/**
-	 * @return the isFake_
+	 * Writes the content of this message to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
 	 */
-	public boolean isFake_() {
-		return isFake_;
+	protected abstract void writeContent(CheckpointOutput out) throws IOException;
+	
+	/**
+	 * Writes a message to a checkpoint. As messages are shared, each message is only written once.
+	 * 
+	 * @param out		the stream to write to
+	 * @param message	the message or <code>null</code>
+	 * 
+	 * @throws IOException	if writing failed
+	 */
+	public static void writeCheckpoint(CheckpointOutput out, Message message) throws IOException{
+		if(out.writeShared(message)){
+			out.writeInt(message.destinationX_);
+			out.writeInt(message.destinationY_);
+			out.writeInt(message.destinationRadius_);
+			out.writeInt(message.validUntil_);
+			out.writeBoolean(message.isFake_);
+			out.writeLong(message.ID_);
+			message.writeContent(out);
+		}
 	}
-
+	
 	/**
-	 * @param isFake_ the isFake_ to set
+	 * Reads a message written with {@link #writeCheckpoint(CheckpointOutput, Message)}.
+	 * 
+	 * @param in	the stream to read from
+	 * 
+	 * @return the message or <code>null</code>
+	 * 
+	 * @throws IOException	if reading failed
 	 */
-	public void setFake_(boolean isFake_) {
-		this.isFake_ = isFake_;
+	public static Message readCheckpoint(CheckpointInput in) throws IOException{
+		int index = in.readSharedIndex();
+		if(index == -1) return null;
+		Message message = (Message) in.getShared(index);
+		if(message == null){
+			// penalty messages are the only messages so far
+			message = PenaltyMessage.readContent(in, in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readBoolean(), in.readLong());
+			in.setShared(index, message);
+		}
+		return message;
 	}
 
+	/**
+	 * @return the isFake_
+	 */
+	public boolean isFake_() {
+		return isFake_;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,265 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.scenario.messages;
+
+import java.util.Arrays;
+
+import vanetsim.map.Region;
+import vanetsim.scenario.KnownMessage;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Vehicle;
+import vanetsim.simulation.SimulationMaster;
+
+/**
+ * Collects all messages a worker thread sends during the message phase of one simulation step. Instead of calling
+ * <code>receiveMessage()</code> on the receivers directly (which would lock the known messages of the receiver),
+ * the senders only check the message on the receiver and append a record (receiver, message, flags, hops) to this outbox.
+ * Only the shared message is stored, the receiver creates its own copy on delivery. The records are sorted into 
+ * one bucket per worker thread owning the receiver. After all threads have passed the barrier following the 
+ * message phase, each worker thread delivers the records of its own bucket in all outboxes.
+ * The arrays are not resized on every operation, a delivery only resets the size of a bucket.
+ * In deterministic mode, the records of all outboxes are delivered ordered by their sender (and the order in which 
+ * each sender sent them) so that the result doesn't depend on how the regions are distributed on the workers.
+ * If there's only one worker and the deterministic mode is off, messages are delivered directly on sending like in 
+ * the single-threaded simulation so that the results are the same as before.
+ */
+public final class MessageOutbox{
+	
+	/** The receivers of the messages (either a <code>Vehicle</code> or a <code>RSU</code>), one array per destination worker. */
+	private Object[][] receivers_;
+	
+	/** The messages, one array per destination worker. */
+	private Message[][] messages_;
+	
+	/** The results of <code>checkReceivedMessage()</code> on the receivers, one array per destination worker. */
+	private int[][] flags_;
+	
+	/** How many hops the messages travelled until they arrive at the receivers, one array per destination worker. */
+	private int[][] hops_;
+	
+	/** The keys of the senders of the messages, one array per destination worker. */
+	private int[][] senders_;
+	
+	/** How many records are stored in each bucket. */
+	private final int[] sizes_;
+	
+	/** <code>true</code> if there's only one worker so that messages may be delivered in the same step they were sent. */
+	private final boolean singleWorker_;
+	
+	/** The key of the sender which currently sends messages through this outbox. */
+	private int sender_ = 0;
+	
+	/** Used to sort the records of all outboxes for this worker in deterministic mode. Each entry holds the sender key in the 
+	 * upper and the index of the record over all outboxes in the lower 32 bits. */
+	private long[] order_ = new long[16];
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param workerCount	the amount of worker threads (=amount of buckets)
+	 */
+	public MessageOutbox(int workerCount){
+		receivers_ = new Object[workerCount][16];
+		messages_ = new Message[workerCount][16];
+		flags_ = new int[workerCount][16];
+		hops_ = new int[workerCount][16];
+		senders_ = new int[workerCount][16];
+		sizes_ = new int[workerCount];
+		singleWorker_ = (workerCount == 1);
+	}
+	
+	/**
+	 * Sets the sender of the following messages. The key needs to be unique over all vehicles and RSUs.
+	 * 
+	 * @param sender	the steady ID of a vehicle or a negative key for a RSU (<code>-1 - ID</code>)
+	 */
+	public void setSender(int sender){
+		sender_ = sender;
+	}
+	
+	/**
+	 * Schedules a message for delivery to a vehicle.
+	 * 
+	 * @param receiver	the receiving vehicle
+	 * @param sourceX	the x coordinate of the sender
+	 * @param sourceY	the y coordinate of the sender
+	 * @param message	the copy of the message the sender holds
+	 */
+	public void send(Vehicle receiver, int sourceX, int sourceY, KnownMessage message){
+		int bucket = receiver.getRegion().getWorkerIndex();
+		if(bucket < 0 || bucket >= sizes_.length || isDirect()) receiver.receiveMessage(sourceX, sourceY, message);	// region not assigned to a worker or only one worker. Deliver directly!
+		else append(bucket, receiver, message.getMessage(), receiver.checkReceivedMessage(sourceX, sourceY, message), message.getHops() + 1);
+	}
+	
+	/**
+	 * Schedules a message for delivery to a Road-Side-Unit.
+	 * 
+	 * @param receiver	the receiving RSU
+	 * @param sourceX	the x coordinate of the sender
+	 * @param sourceY	the y coordinate of the sender
+	 * @param message	the copy of the message the sender holds
+	 */
+	public void send(RSU receiver, int sourceX, int sourceY, KnownMessage message){
+		Region region = receiver.getRegion();
+		int bucket = -1;
+		if(region != null) bucket = region.getWorkerIndex();
+		if(bucket < 0 || bucket >= sizes_.length || isDirect()) receiver.receiveMessage(sourceX, sourceY, message);	// region not assigned to a worker or only one worker. Deliver directly!
+		else append(bucket, receiver, message.getMessage(), receiver.checkReceivedMessage(sourceX, sourceY, message), message.getHops() + 1);
+	}
+	
+	/**
+	 * Checks if messages shall be delivered directly on sending. This is only safe if there's one worker, as no other 
+	 * thread may access the receivers then. In deterministic mode the messages are always delivered after the message 
+	 * phase so that the results don't depend on the amount of workers.
+	 * 
+	 * @return <code>true</code> if messages shall be delivered directly
+	 */
+	private boolean isDirect(){
+		return singleWorker_ && !SimulationMaster.isDeterministicMode();
+	}
+	
+	/**
+	 * Appends a record to a bucket and enlarges the bucket if necessary.
+	 * 
+	 * @param bucket	the number of the destination worker
+	 * @param receiver	the receiver
+	 * @param message	the message
+	 * @param flags		the result of <code>checkReceivedMessage()</code> on the receiver
+	 * @param hops		how many hops the message travelled until it arrives at the receiver
+	 */
+	private void append(int bucket, Object receiver, Message message, int flags, int hops){
+		int size = sizes_[bucket];
+		if(size == receivers_[bucket].length){	// need to resize. Double the size as buckets grow quickly in flooding mode
+			Object[] newReceivers = new Object[size * 2];
+			System.arraycopy(receivers_[bucket], 0, newReceivers, 0, size);
+			receivers_[bucket] = newReceivers;
+			Message[] newMessages = new Message[size * 2];
+			System.arraycopy(messages_[bucket], 0, newMessages, 0, size);
+			messages_[bucket] = newMessages;
+			int[] newFlags = new int[size * 2];
+			System.arraycopy(flags_[bucket], 0, newFlags, 0, size);
+			flags_[bucket] = newFlags;
+			int[] newHops = new int[size * 2];
+			System.arraycopy(hops_[bucket], 0, newHops, 0, size);
+			hops_[bucket] = newHops;
+			int[] newSenders = new int[size * 2];
+			System.arraycopy(senders_[bucket], 0, newSenders, 0, size);
+			senders_[bucket] = newSenders;
+		}
+		receivers_[bucket][size] = receiver;
+		messages_[bucket][size] = message;
+		flags_[bucket][size] = flags;
+		hops_[bucket][size] = hops;
+		senders_[bucket][size] = sender_;
+		sizes_[bucket] = size + 1;
+	}
+	
+	/**
+	 * !!!Delivers all messages of a bucket in the order they were sent. Note that this function is not synchronized! It may 
+	 * only be called by the worker owning the receivers of this bucket and only after all senders have finished 
+	 * the message phase.
+	 * 
+	 * @param bucket	the number of the worker which calls this function
+	 */
+	public void deliver(int bucket){
+		int size = sizes_[bucket];
+		if(size > 0){
+			Object[] receivers = receivers_[bucket];
+			Message[] messages = messages_[bucket];
+			int[] flags = flags_[bucket];
+			int[] hops = hops_[bucket];
+			Object receiver;
+			try{
+				for(int i = 0; i < size; ++i){
+					receiver = receivers[i];
+					if(receiver instanceof Vehicle) ((Vehicle)receiver).deliverMessage(messages[i], flags[i], hops[i]);
+					else ((RSU)receiver).deliverMessage(messages[i], flags[i], hops[i]);
+				}
+			} finally {	// never deliver the same records twice
+				clear(bucket);
+			}
+		}
+	}
+	
+	/**
+	 * Delivers the messages of a bucket in all outboxes ordered by their sender. Messages of the same sender are delivered 
+	 * in the order they were sent. As every sender belongs to exactly one worker, all of its records are in the same outbox 
+	 * and the order doesn't depend on the amount of workers. Like <code>deliver()</code>, this may only be called by the 
+	 * worker owning the receivers of this bucket and only after all senders have finished the message phase.
+	 * 
+	 * @param outboxes	the outboxes of all workers
+	 * @param bucket	the number of the worker which calls this function
+	 */
+	public static void deliverOrdered(MessageOutbox[] outboxes, int bucket){
+		MessageOutbox own = outboxes[bucket];
+		int i, j, size, total = 0;
+		for(i = 0; i < outboxes.length; ++i) total += outboxes[i].sizes_[bucket];
+		if(total == 0) return;
+		if(own.order_.length < total) own.order_ = new long[total * 2];
+		long[] order = own.order_;
+		int[] senders;
+		int index = 0;
+		for(i = 0; i < outboxes.length; ++i){
+			size = outboxes[i].sizes_[bucket];
+			senders = outboxes[i].senders_[bucket];
+			for(j = 0; j < size; ++j){
+				order[index] = ((long)senders[j] << 32) | index;
+				++index;
+			}
+		}
+		Arrays.sort(order, 0, total);
+		
+		MessageOutbox outbox;
+		Object receiver;
+		int start;
+		try{
+			for(i = 0; i < total; ++i){
+				// find the outbox of the record
+				index = (int)order[i];
+				start = 0;
+				for(j = 0; j < outboxes.length; ++j){
+					size = outboxes[j].sizes_[bucket];
+					if(index < start + size) break;
+					start += size;
+				}
+				outbox = outboxes[j];
+				index -= start;
+				receiver = outbox.receivers_[bucket][index];
+				if(receiver instanceof Vehicle) ((Vehicle)receiver).deliverMessage(outbox.messages_[bucket][index], outbox.flags_[bucket][index], outbox.hops_[bucket][index]);
+				else ((RSU)receiver).deliverMessage(outbox.messages_[bucket][index], outbox.flags_[bucket][index], outbox.hops_[bucket][index]);
+			}
+		} finally {	// never deliver the same records twice
+			for(i = 0; i < outboxes.length; ++i) outboxes[i].clear(bucket);
+		}
+	}
+	
+	/**
+	 * Removes all records from a bucket.
+	 * 
+	 * @param bucket	the number of the bucket
+	 */
+	private void clear(int bucket){
+		Object[] receivers = receivers_[bucket];
+		Message[] messages = messages_[bucket];
+		for(int i = sizes_[bucket] - 1; i > -1; --i){
+			receivers[i] = null;	// don't prevent garbage collection
+			messages[i] = null;
+		}
+		sizes_[bucket] = 0;
+	}
+}
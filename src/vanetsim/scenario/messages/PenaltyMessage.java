@@ -17,8 +17,13 @@
  */
 package vanetsim.scenario.messages;
 
+import java.io.IOException;
+
 import vanetsim.map.Street;
+import vanetsim.scenario.KnownPenalties;
 import vanetsim.scenario.Vehicle;
+import vanetsim.simulation.CheckpointInput;
+import vanetsim.simulation.CheckpointOutput;
 
 /**
  * A message which indicates some kind of traffic jam through assigning a penalty to the street on which the jam is.
@@ -45,7 +50,7 @@ public class PenaltyMessage extends Message{
 	private final int y_;
 
 	/** if sender is a emergency vehicle */
-	private boolean emergencyVehicle_;
+	private final boolean emergencyVehicle_;
 	
 	/** the lane */
 	private final int lane_;
@@ -54,14 +59,17 @@ public class PenaltyMessage extends Message{
 	private final boolean createBlocking_;
 	
 	/** the vehicle object (used to compare routes of emergency vehicle) */
-	private Vehicle penaltySourceVehicle_ = null;
+	private final Vehicle penaltySourceVehicle_;
 	
-	private boolean logData_ = false;
+	private final boolean logData_ = false;
 	
 	/** The type of penalty. Emergency Electronic Brake lights (EEBL, 1), Post Crash Notification (PCN, 2), Road Hazard Condition Notification (RHCN, 3), Road Feature Notification (RFN, 4), 
 Stopped/Slow Vehicle Advisor (SVA, 5), Cooperative Collision Warning (CCW, 6), Cooperative Violation Warning (CVW, 7), Congested Road Notification(CRN, 8),
 Change of Lanes (CL, 9), Emergency Vehicle approaching (EVA, 10). */
 	private final String penaltyType_;
+	
+	/** The ordinal of the type of penalty so that it doesn't need to be looked up on every reception. */
+	private final int penaltyTypeOrdinal_;
 
 
 
@@ -79,20 +87,15 @@ Change of Lanes (CL, 9), Emergency Vehicle approaching (EVA, 10). */
 	 * @param penaltyValidUntil	how long the penalty is valid in ms (measured from simulation start)
 	 */
 	public PenaltyMessage(int x, int y, int destinationX, int destinationY, int destinationRadius, int validUntil, Street penaltyStreet, int lane, int penaltyDirection, int penaltyValue, int penaltyValidUntil, boolean isFake, long ID, Vehicle penaltySourceVehicle, String penaltyType, boolean emergencyVehicle, boolean createBlocking){
-		destinationX_ = destinationX;
-		destinationY_ = destinationY;
+		super(destinationX, destinationY, destinationRadius, validUntil, isFake, ID);
 		x_ = x;
 		y_ = y;
-		destinationRadius_ = destinationRadius;
-		destinationRadiusSquared_ = (long)destinationRadius * destinationRadius;
-		validUntil_ = validUntil;
 		penaltyStreet_ = penaltyStreet;
 		penaltyDirection_ = penaltyDirection;
 		penaltyValue_ = penaltyValue;
 		penaltyValidUntil_ = penaltyValidUntil;
-		isFake_ = isFake;
-		ID_ = ID;
 		penaltyType_ = penaltyType;
+		penaltyTypeOrdinal_ = KnownPenalties.getPenaltyTypeOrdinal(penaltyType);
 		emergencyVehicle_ = emergencyVehicle;
 		lane_ = lane;
 		createBlocking_ = createBlocking;
@@ -118,7 +121,60 @@ Change of Lanes (CL, 9), Emergency Vehicle approaching (EVA, 10). */
 	 * @see vanetsim.scenario.messages.Message#execute(vanetsim.scenario.Vehicle)
 	 */
 	public void execute(Vehicle vehicle){
-		vehicle.getKnownPenalties().updatePenalty(x_, y_, penaltyStreet_, lane_, penaltyDirection_, penaltyValue_, penaltyValidUntil_, isFake_, penaltyType_, ID_, penaltySourceVehicle_, emergencyVehicle_, createBlocking_);
+		vehicle.getKnownPenalties().updatePenalty(x_, y_, penaltyStreet_, lane_, penaltyDirection_, penaltyValue_, penaltyValidUntil_, isFake_, penaltyType_, penaltyTypeOrdinal_, ID_, penaltySourceVehicle_, emergencyVehicle_, createBlocking_);
+	}
+	
+	/**
+	 * Writes the penalty of this message to a checkpoint.
+	 * 
+	 * @param out	the stream to write to
+	 * 
+	 * @throws IOException	if writing failed
+	 * 
+	 * @see vanetsim.scenario.messages.Message#writeContent(vanetsim.simulation.CheckpointOutput)
+	 */
+	protected void writeContent(CheckpointOutput out) throws IOException{
+		out.writeInt(x_);
+		out.writeInt(y_);
+		out.writeStreet(penaltyStreet_);
+		out.writeInt(lane_);
+		out.writeInt(penaltyDirection_);
+		out.writeInt(penaltyValue_);
+		out.writeInt(penaltyValidUntil_);
+		out.writeVehicle(penaltySourceVehicle_);
+		out.writeString(penaltyType_);
+		out.writeBoolean(emergencyVehicle_);
+		out.writeBoolean(createBlocking_);
+	}
+	
+	/**
+	 * Reads the penalty written by {@link #writeContent(CheckpointOutput)} and creates the message.
+	 * 
+	 * @param in				the stream to read from
+	 * @param destinationX		the x coordinate of the destination of the message
+	 * @param destinationY		the y coordinate of the destination of the message
+	 * @param destinationRadius	the radius of the destination area in cm
+	 * @param validUntil		how long the message is valid in ms (measured from simulation start)
+	 * @param isFake			<code>true</code> if the message is fake
+	 * @param ID				the ID of the message
+	 * 
+	 * @return the message
+	 * 
+	 * @throws IOException	if reading failed
+	 */
+	static PenaltyMessage readContent(CheckpointInput in, int destinationX, int destinationY, int destinationRadius, int validUntil, boolean isFake, long ID) throws IOException{
+		int x = in.readInt();
+		int y = in.readInt();
+		Street penaltyStreet = in.readStreet();
+		int lane = in.readInt();
+		int penaltyDirection = in.readInt();
+		int penaltyValue = in.readInt();
+		int penaltyValidUntil = in.readInt();
+		Vehicle penaltySourceVehicle = in.readVehicle();
+		String penaltyType = in.readString();
+		boolean emergencyVehicle = in.readBoolean();
+		boolean createBlocking = in.readBoolean();
+		return new PenaltyMessage(x, y, destinationX, destinationY, destinationRadius, validUntil, penaltyStreet, lane, penaltyDirection, penaltyValue, penaltyValidUntil, isFake, ID, penaltySourceVehicle, penaltyType, emergencyVehicle, createBlocking);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+/**
+ * A small benchmark which compares the {@link SpinParkBarrier} with the {@link CyclicStepBarrier}. Like in a simulation 
+ * step, a number of worker threads do a little bit of work and then wait at a barrier, again and again. Run it with:
+ * <br><br>
+ * <code>java vanetsim.simulation.BarrierBenchmark [threads] [rounds] [workPerRound]</code>
+ * <br><br>
+ * Defaults are two threads per CPU, 200000 rounds and 2000 iterations of work per round.
+ */
+public final class BarrierBenchmark{
+	
+	/** A value written by the workers so that the work can't be optimized away. */
+	private static volatile long sink_ = 0;
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args	the amount of threads, rounds and work per round (all optional)
+	 */
+	public static void main(String[] args){
+		int threads = Runtime.getRuntime().availableProcessors() * 2;
+		int rounds = 200000;
+		int work = 2000;
+		if(args.length > 0) threads = Integer.parseInt(args[0]);
+		if(args.length > 1) rounds = Integer.parseInt(args[1]);
+		if(args.length > 2) work = Integer.parseInt(args[2]);
+		
+		System.out.println("Threads: " + threads + ", rounds: " + rounds + ", work per round: " + work); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		// run both twice so that the second run is done with already compiled code
+		for(int i = 0; i < 2; ++i){
+			run("CyclicStepBarrier", new CyclicStepBarrier(threads), threads, rounds, work); //$NON-NLS-1$
+			run("SpinParkBarrier", new SpinParkBarrier(threads), threads, rounds, work); //$NON-NLS-1$
+		}
+	}
+	
+	/**
+	 * Runs the benchmark with one barrier and prints the results.
+	 * 
+	 * @param name		the name to print
+	 * @param barrier	the barrier
+	 * @param threads	the amount of threads
+	 * @param rounds	how many times each thread waits at the barrier
+	 * @param work		the amount of work done before each wait
+	 */
+	private static void run(String name, final StepBarrier barrier, int threads, final int rounds, final int work){
+		Thread[] workers = new Thread[threads];
+		for(int i = 0; i < threads; ++i){
+			final int party = i;
+			workers[i] = new Thread(){
+				public void run(){
+					long value = party;
+					try{
+						for(int j = 0; j < rounds; ++j){
+							for(int k = 0; k < work; ++k) value = value * 6364136223846793005L + 1442695040888963407L;
+							barrier.await(party);
+						}
+					} catch (Exception e){
+						e.printStackTrace();
+					}
+					sink_ += value;
+				}
+			};
+		}
+		long start = System.nanoTime();
+		for(int i = 0; i < threads; ++i) workers[i].start();
+		for(int i = 0; i < threads; ++i){
+			try{
+				workers[i].join();
+			} catch (InterruptedException e){}
+		}
+		long duration = System.nanoTime() - start;
+		long waitTime = 0;
+		for(int i = 0; i < threads; ++i) waitTime += barrier.getWaitTime(i);
+		System.out.println(name + ": " + (duration / 1000000) + "ms total, " + (duration / rounds) + "ns per round, " + (waitTime / ((long)rounds * threads)) + "ns average wait"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+}
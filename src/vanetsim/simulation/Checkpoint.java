@@ -0,0 +1,243 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import vanetsim.ErrorLog;
+import vanetsim.localization.Messages;
+import vanetsim.map.Map;
+import vanetsim.map.Node;
+import vanetsim.map.Region;
+import vanetsim.map.Street;
+import vanetsim.scenario.AttackRSU;
+import vanetsim.scenario.IDSProcessor;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Scenario;
+import vanetsim.scenario.Vehicle;
+
+/**
+ * Saves the complete dynamic state of a running simulation to a binary file and restores it again. This includes all
+ * vehicles (position, speed, route, known vehicles/RSUs/penalties/messages, random generators), the RSUs, the traffic
+ * lights and junction queues, the pending and active events, the event spots, the simulation time, the ID counters and
+ * the global random generator.
+ * <br><br>
+ * Every class writes its own fields explicitly (see {@link CheckpointOutput}). Streets, nodes, RSUs and vehicles are
+ * written as their index so that the map itself isn't part of a checkpoint. The configuration (for example communication
+ * intervals or the IDS rules) isn't part of it either. A checkpoint can therefore only be restored after the map and
+ * scenario it was created from have been loaded again. If restoring fails, map and scenario should be loaded again.
+ * <br><br>
+ * The {@link #VERSION} needs to be increased whenever the format of one of the classes changes.
+ */
+public final class Checkpoint{
+
+	/** The first four bytes of a checkpoint file ("VSCP"). */
+	private static final int MAGIC = 0x56534350;
+
+	/** The version of the file format. */
+	private static final int VERSION = 7;
+
+	/** The size of the buffers used for reading and writing. */
+	private static final int BUFFER_SIZE = 65536;
+
+	/**
+	 * Private constructor as this is a utility class.
+	 */
+	private Checkpoint(){
+	}
+
+	/**
+	 * Saves the state of the simulation of the current context. If a simulation master is given, the simulation is
+	 * stopped and the current step is finished before saving.
+	 *
+	 * @param file		the file to write to
+	 * @param master	the simulation master or <code>null</code> if the caller ensures that no step is processed
+	 * 					while saving (for example because it's called from the simulation master itself)
+	 *
+	 * @return <code>true</code> if saving was successful, else <code>false</code>
+	 */
+	public static boolean save(File file, SimulationMaster master){
+		if(master != null) master.stopAndWait();
+		ErrorLog.log(Messages.getString("Checkpoint.saving") + file.getName(), 3, Checkpoint.class.getName(), "save", null); //$NON-NLS-1$ //$NON-NLS-2$
+		try{
+			write(SimulationContext.getCurrent(), file);
+			return true;
+		} catch (Exception e){
+			ErrorLog.log(Messages.getString("Checkpoint.errorSaving"), 7, Checkpoint.class.getName(), "save", e); //$NON-NLS-1$ //$NON-NLS-2$
+			return false;
+		}
+	}
+
+	/**
+	 * Restores the state of the simulation of the current context. The map and scenario the checkpoint was created from
+	 * need to be loaded. If a simulation master is given, the simulation is stopped before and its workers are dropped so
+	 * that they are created again for the restored regions.
+	 *
+	 * @param file		the file to read from
+	 * @param master	the simulation master or <code>null</code> if the simulation has never been started
+	 *
+	 * @return <code>true</code> if restoring was successful, else <code>false</code>
+	 */
+	public static boolean restore(File file, SimulationMaster master){
+		SimulationContext context = SimulationContext.getCurrent();
+		Scenario scenario = context.getScenario();
+		if(master != null) master.stopAndWait();
+		scenario.setReadyState(false);
+		if(master != null) master.stopThread();	// drops the workers as the scenario is not ready
+		ErrorLog.log(Messages.getString("Checkpoint.restoring") + file.getName(), 3, Checkpoint.class.getName(), "restore", null); //$NON-NLS-1$ //$NON-NLS-2$
+		boolean success = false;
+		try{
+			read(context, file);
+			success = true;
+		} catch (Exception e){
+			ErrorLog.log(Messages.getString("Checkpoint.errorRestoring"), 7, Checkpoint.class.getName(), "restore", e); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		scenario.setReadyState(true);
+		context.getEngine().requestRender(true, false);
+		return success;
+	}
+
+	/**
+	 * Writes the state of a context to a file.
+	 *
+	 * @param context	the context
+	 * @param file		the file to write to
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	private static void write(SimulationContext context, File file) throws IOException{
+		Map map = context.getMap();
+		SimulationEngine engine = context.getEngine();
+		Region[][] regions = map.getRegions();
+		CheckpointOutput out = new CheckpointOutput(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE), regions);
+		try{
+			int i, j;
+			Street[] streets = out.getStreets();
+			Node[] nodes = out.getNodes();
+			RSU[] rsus = out.getRSUs();
+			Vehicle[] vehicles = out.getVehicles();
+
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeString(map.getMapName_());
+			out.writeInt(streets.length);
+			out.writeInt(nodes.length);
+			out.writeInt(rsus.length);
+			out.writeInt(engine.getTimePassed());
+
+			// global state
+			out.writeInt(Street.getMaxStreetID());
+			out.writeInt(Node.getMaxNodeID());
+			out.writeInt(RSU.getIDCounter());
+			out.writeInt(AttackRSU.getIDCounter());
+			out.writeInt(Vehicle.getSteadyIDCounter());
+			out.writeBoolean(engine.isSilentPeriod());
+			IDSProcessor.writeStatistics(out);
+			context.getRandom().writeCheckpoint(out);
+
+			// all vehicles need to exist before anything can refer to them
+			out.writeInt(vehicles.length);
+			for(i = 0; i < vehicles.length; ++i) vehicles[i].writeCheckpointHeader(out);
+			for(i = 0; i < vehicles.length; ++i) vehicles[i].writeCheckpoint(out);
+
+			// the regions clear the lanes of their streets when read, so they come before the streets
+			for(i = 0; i < regions.length; ++i){
+				for(j = 0; j < regions[i].length; ++j) regions[i][j].writeCheckpoint(out);
+			}
+			context.getEventList().writeCheckpoint(out);
+			for(i = 0; i < streets.length; ++i) streets[i].writeCheckpoint(out);
+			for(i = 0; i < nodes.length; ++i) nodes[i].writeCheckpoint(out);
+			for(i = 0; i < rsus.length; ++i) rsus[i].writeCheckpoint(out);
+			context.getEventSpotList().writeCheckpoint(out);
+
+			out.writeVehicle(engine.getMarkedVehicle());
+			out.writeVehicle(engine.getAttackerVehicle());
+			out.writeVehicle(engine.getAttackedVehicle());
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads the state of a context from a file.
+	 *
+	 * @param context	the context
+	 * @param file		the file to read from
+	 *
+	 * @throws IOException	if reading failed, the file is no checkpoint or it doesn't match the loaded map
+	 */
+	private static void read(SimulationContext context, File file) throws IOException{
+		Map map = context.getMap();
+		SimulationEngine engine = context.getEngine();
+		Region[][] regions = map.getRegions();
+		int i, j;
+		// same as when the simulation is started (this might add RSUs for mix zones)
+		for(i = 0; i < regions.length; ++i){
+			for(j = 0; j < regions[i].length; ++j) regions[i][j].calculateJunctions();
+		}
+		CheckpointInput in = new CheckpointInput(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE), regions);
+		try{
+			Street[] streets = in.getStreets();
+			Node[] nodes = in.getNodes();
+			RSU[] rsus = in.getRSUs();
+
+			if(in.readInt() != MAGIC) throw new IOException(Messages.getString("Checkpoint.noCheckpoint")); //$NON-NLS-1$
+			if(in.readInt() != VERSION) throw new IOException(Messages.getString("Checkpoint.wrongVersion")); //$NON-NLS-1$
+			String mapName = in.readString();
+			if(mapName != null && !mapName.equals(map.getMapName_())) ErrorLog.log(Messages.getString("Checkpoint.otherMap") + mapName, 5, Checkpoint.class.getName(), "read", null); //$NON-NLS-1$ //$NON-NLS-2$
+			if(in.readInt() != streets.length || in.readInt() != nodes.length || in.readInt() != rsus.length) throw new IOException(Messages.getString("Checkpoint.mapDiffers")); //$NON-NLS-1$
+			int time = in.readInt();
+
+			// global state
+			Street.setMaxStreetID(in.readInt());
+			Node.setMaxNodeID(in.readInt());
+			RSU.setIDCounter(in.readInt());
+			AttackRSU.setIDCounter(in.readInt());
+			Vehicle.setSteadyIDCounter(in.readInt());
+			engine.setSilentPeriod(in.readBoolean());
+			IDSProcessor.readStatistics(in);
+			context.getRandom().readCheckpoint(in);
+
+			Vehicle[] vehicles = new Vehicle[in.readInt()];
+			for(i = 0; i < vehicles.length; ++i) vehicles[i] = new Vehicle(in);
+			in.setVehicles(vehicles);
+			for(i = 0; i < vehicles.length; ++i) vehicles[i].readCheckpoint(in);
+
+			for(i = 0; i < regions.length; ++i){
+				for(j = 0; j < regions[i].length; ++j) regions[i][j].readCheckpoint(in);
+			}
+			context.getEventList().readCheckpoint(in);
+			for(i = 0; i < streets.length; ++i) streets[i].readCheckpoint(in);
+			for(i = 0; i < nodes.length; ++i) nodes[i].readCheckpoint(in);
+			for(i = 0; i < rsus.length; ++i) rsus[i].readCheckpoint(in);
+			context.getEventSpotList().readCheckpoint(in);
+
+			engine.setMarkedVehicle(in.readVehicle());
+			engine.setAttackerVehicle(in.readVehicle());
+			engine.setAttackedVehicle(in.readVehicle());
+			engine.setTimePassed(time);
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,382 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import java.awt.Color;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import vanetsim.map.Node;
+import vanetsim.map.Region;
+import vanetsim.map.Street;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Vehicle;
+
+/**
+ * The stream from which a {@link Checkpoint} is read. Streets, nodes and RSUs are numbered in the same order as in
+ * {@link CheckpointOutput} so that they refer to the objects of the map the checkpoint was created from, if the same map
+ * has been loaded. The vehicles of the map are replaced with the ones of the checkpoint, so they need to be set with
+ * {@link #setVehicles(Vehicle[])} before they can be read.
+ */
+public final class CheckpointInput extends DataInputStream{
+
+	/** All regions of the map. */
+	private final Region[][] regions_;
+
+	/** All streets in the order of their index. */
+	private final Street[] streets_;
+
+	/** All nodes in the order of their index. */
+	private final Node[] nodes_;
+
+	/** All Road-Side-Units in the order of their index. */
+	private final RSU[] rsus_;
+
+	/** All vehicles of the checkpoint in the order of their index. */
+	private Vehicle[] vehicles_ = new Vehicle[0];
+
+	/** The shared objects in the order of their index. Objects which are still being read are <code>null</code>. */
+	private final ArrayList<Object> shared_ = new ArrayList<Object>();
+
+	/**
+	 * Creates a new checkpoint stream and numbers all streets, nodes and RSUs of the regions.
+	 *
+	 * @param in		the underlying stream
+	 * @param regions	all regions of the map
+	 */
+	public CheckpointInput(InputStream in, Region[][] regions){
+		super(in);
+		regions_ = regions;
+		IdentityHashMap<Object, Object> known = new IdentityHashMap<Object, Object>();
+		ArrayList<Street> streets = new ArrayList<Street>();
+		ArrayList<Node> nodes = new ArrayList<Node>();
+		ArrayList<RSU> rsus = new ArrayList<RSU>();
+		for(int i = 0; i < regions.length; ++i){
+			for(int j = 0; j < regions[i].length; ++j){
+				addObjects(regions[i][j].getStreets(), streets, known);
+				addObjects(regions[i][j].getNodes(), nodes, known);
+				addObjects(regions[i][j].getRSUs(), rsus, known);
+			}
+		}
+		streets_ = streets.toArray(new Street[streets.size()]);
+		nodes_ = nodes.toArray(new Node[nodes.size()]);
+		rsus_ = rsus.toArray(new RSU[rsus.size()]);
+	}
+
+	/**
+	 * Adds the objects which haven't been added yet (streets are stored in all regions they cross).
+	 *
+	 * @param objects	the objects of a region
+	 * @param list		the list of all objects of the same type
+	 * @param known		all objects which have been added
+	 */
+	private <T> void addObjects(T[] objects, ArrayList<T> list, IdentityHashMap<Object, Object> known){
+		for(int i = 0; i < objects.length; ++i){
+			if(!known.containsKey(objects[i])){
+				known.put(objects[i], objects[i]);
+				list.add(objects[i]);
+			}
+		}
+	}
+
+	/**
+	 * Gets all streets in the order of their index.
+	 *
+	 * @return the streets
+	 */
+	public Street[] getStreets(){
+		return streets_;
+	}
+
+	/**
+	 * Gets all nodes in the order of their index.
+	 *
+	 * @return the nodes
+	 */
+	public Node[] getNodes(){
+		return nodes_;
+	}
+
+	/**
+	 * Gets all Road-Side-Units in the order of their index.
+	 *
+	 * @return the RSUs
+	 */
+	public RSU[] getRSUs(){
+		return rsus_;
+	}
+
+	/**
+	 * Sets the vehicles of the checkpoint after they have been created.
+	 *
+	 * @param vehicles	the vehicles in the order of their index
+	 */
+	public void setVehicles(Vehicle[] vehicles){
+		vehicles_ = vehicles;
+	}
+
+	/**
+	 * Reads an index and checks that it's valid.
+	 *
+	 * @param length	the amount of objects
+	 *
+	 * @return the index or <code>-1</code>
+	 *
+	 * @throws IOException	if reading failed or the index is invalid
+	 */
+	private int readIndex(int length) throws IOException{
+		int index = readInt();
+		if(index < -1 || index >= length) throw new IOException("Invalid index " + index); //$NON-NLS-1$
+		return index;
+	}
+
+	/**
+	 * Reads a reference to a street.
+	 *
+	 * @return the street or <code>null</code>
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public Street readStreet() throws IOException{
+		int index = readIndex(streets_.length);
+		if(index == -1) return null;
+		else return streets_[index];
+	}
+
+	/**
+	 * Reads a reference to a node.
+	 *
+	 * @return the node or <code>null</code>
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public Node readNode() throws IOException{
+		int index = readIndex(nodes_.length);
+		if(index == -1) return null;
+		else return nodes_[index];
+	}
+
+	/**
+	 * Reads a reference to a Road-Side-Unit.
+	 *
+	 * @return the RSU or <code>null</code>
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public RSU readRSU() throws IOException{
+		int index = readIndex(rsus_.length);
+		if(index == -1) return null;
+		else return rsus_[index];
+	}
+
+	/**
+	 * Reads a reference to a vehicle.
+	 *
+	 * @return the vehicle or <code>null</code>
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public Vehicle readVehicle() throws IOException{
+		int index = readIndex(vehicles_.length);
+		if(index == -1) return null;
+		else return vehicles_[index];
+	}
+
+	/**
+	 * Reads a reference to a region.
+	 *
+	 * @return the region or <code>null</code>
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public Region readRegion() throws IOException{
+		int x = readIndex(regions_.length);
+		if(x == -1) return null;
+		int y = readIndex(regions_[x].length);
+		if(y == -1) throw new IOException("Invalid region"); //$NON-NLS-1$
+		return regions_[x][y];
+	}
+
+	/**
+	 * Reads the reference to an object which may be referenced from several places. If {@link #getShared(int)} returns
+	 * <code>null</code> for the index, the content of the object follows and the caller needs to read it and to store the
+	 * object with {@link #setShared(int, Object)}.
+	 *
+	 * @return the index or <code>-1</code> if the object is <code>null</code>
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public int readSharedIndex() throws IOException{
+		int index = readIndex(shared_.size() + 1);
+		if(index == shared_.size()) shared_.add(null);
+		return index;
+	}
+
+	/**
+	 * Gets a shared object.
+	 *
+	 * @param index	the index returned by {@link #readSharedIndex()}
+	 *
+	 * @return the object or <code>null</code> if it has not been read yet
+	 */
+	public Object getShared(int index){
+		return shared_.get(index);
+	}
+
+	/**
+	 * Stores a shared object after it has been read.
+	 *
+	 * @param index		the index returned by {@link #readSharedIndex()}
+	 * @param object	the object
+	 */
+	public void setShared(int index, Object object){
+		shared_.set(index, object);
+	}
+
+	/**
+	 * Reads a string which may be <code>null</code>.
+	 *
+	 * @return the string
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public String readString() throws IOException{
+		if(readBoolean()) return readUTF();
+		else return null;
+	}
+
+	/**
+	 * Reads a color which may be <code>null</code>.
+	 *
+	 * @return the color
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public Color readColor() throws IOException{
+		if(readBoolean()) return new Color(readInt(), true);
+		else return null;
+	}
+
+	/**
+	 * Reads an array which may be <code>null</code>.
+	 *
+	 * @return the array
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public int[] readIntArray() throws IOException{
+		int length = readInt();
+		if(length < 0) return null;
+		int[] array = new int[length];
+		for(int i = 0; i < length; ++i) array[i] = readInt();
+		return array;
+	}
+
+	/**
+	 * Reads an array which may be <code>null</code>.
+	 *
+	 * @return the array
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public long[] readLongArray() throws IOException{
+		int length = readInt();
+		if(length < 0) return null;
+		long[] array = new long[length];
+		for(int i = 0; i < length; ++i) array[i] = readLong();
+		return array;
+	}
+
+	/**
+	 * Reads an array which may be <code>null</code>.
+	 *
+	 * @return the array
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public double[] readDoubleArray() throws IOException{
+		int length = readInt();
+		if(length < 0) return null;
+		double[] array = new double[length];
+		for(int i = 0; i < length; ++i) array[i] = readDouble();
+		return array;
+	}
+
+	/**
+	 * Reads an array which may be <code>null</code>.
+	 *
+	 * @return the array
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public boolean[] readBooleanArray() throws IOException{
+		int length = readInt();
+		if(length < 0) return null;
+		boolean[] array = new boolean[length];
+		for(int i = 0; i < length; ++i) array[i] = readBoolean();
+		return array;
+	}
+
+	/**
+	 * Reads an array which may be <code>null</code>.
+	 *
+	 * @return the array
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public String[] readStringArray() throws IOException{
+		int length = readInt();
+		if(length < 0) return null;
+		String[] array = new String[length];
+		for(int i = 0; i < length; ++i) array[i] = readString();
+		return array;
+	}
+
+	/**
+	 * Reads an array of streets which may be <code>null</code>.
+	 *
+	 * @return the array
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public Street[] readStreetArray() throws IOException{
+		int length = readInt();
+		if(length < 0) return null;
+		Street[] array = new Street[length];
+		for(int i = 0; i < length; ++i) array[i] = readStreet();
+		return array;
+	}
+
+	/**
+	 * Reads an array of vehicles which may be <code>null</code>.
+	 *
+	 * @return the array
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public Vehicle[] readVehicleArray() throws IOException{
+		int length = readInt();
+		if(length < 0) return null;
+		Vehicle[] array = new Vehicle[length];
+		for(int i = 0; i < length; ++i) array[i] = readVehicle();
+		return array;
+	}
+}
@@ -0,0 +1,363 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import java.awt.Color;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import vanetsim.map.Node;
+import vanetsim.map.Region;
+import vanetsim.map.Street;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Vehicle;
+
+/**
+ * The stream to which a {@link Checkpoint} is written. Streets, nodes, RSUs and vehicles are written as their index in
+ * the regions of the map (see {@link CheckpointInput}), regions as their position. Other objects which are referenced
+ * from several places (like messages or waypoints) are written once and afterwards as their index (see
+ * {@link #writeShared(Object)}). Objects without a reference in the map are written as <code>-1</code>.
+ */
+public final class CheckpointOutput extends DataOutputStream{
+
+	/** All streets in the order of their index. */
+	private final Street[] streets_;
+
+	/** All nodes in the order of their index. */
+	private final Node[] nodes_;
+
+	/** All Road-Side-Units in the order of their index. */
+	private final RSU[] rsus_;
+
+	/** All vehicles in the order of their index. */
+	private final Vehicle[] vehicles_;
+
+	/** The index of every street, node, RSU and vehicle. */
+	private final IdentityHashMap<Object, Integer> indices_ = new IdentityHashMap<Object, Integer>();
+
+	/** The index of every shared object which has already been written. */
+	private final IdentityHashMap<Object, Integer> shared_ = new IdentityHashMap<Object, Integer>();
+
+	/**
+	 * Creates a new checkpoint stream and numbers all streets, nodes, RSUs and vehicles of the regions.
+	 *
+	 * @param out		the underlying stream
+	 * @param regions	all regions of the map
+	 */
+	public CheckpointOutput(OutputStream out, Region[][] regions){
+		super(out);
+		ArrayList<Street> streets = new ArrayList<Street>();
+		ArrayList<Node> nodes = new ArrayList<Node>();
+		ArrayList<RSU> rsus = new ArrayList<RSU>();
+		ArrayList<Vehicle> vehicles = new ArrayList<Vehicle>();
+		for(int i = 0; i < regions.length; ++i){
+			for(int j = 0; j < regions[i].length; ++j){
+				addIndices(regions[i][j].getStreets(), streets);
+				addIndices(regions[i][j].getNodes(), nodes);
+				addIndices(regions[i][j].getRSUs(), rsus);
+				addIndices(regions[i][j].getVehicleArray(), vehicles);
+			}
+		}
+		streets_ = streets.toArray(new Street[streets.size()]);
+		nodes_ = nodes.toArray(new Node[nodes.size()]);
+		rsus_ = rsus.toArray(new RSU[rsus.size()]);
+		vehicles_ = vehicles.toArray(new Vehicle[vehicles.size()]);
+	}
+
+	/**
+	 * Numbers the objects which haven't got an index yet (streets are stored in all regions they cross).
+	 *
+	 * @param objects	the objects of a region
+	 * @param list		the list of all numbered objects of the same type
+	 */
+	private <T> void addIndices(T[] objects, ArrayList<T> list){
+		for(int i = 0; i < objects.length; ++i){
+			if(!indices_.containsKey(objects[i])){
+				indices_.put(objects[i], Integer.valueOf(list.size()));
+				list.add(objects[i]);
+			}
+		}
+	}
+
+	/**
+	 * Gets all streets in the order of their index.
+	 *
+	 * @return the streets
+	 */
+	public Street[] getStreets(){
+		return streets_;
+	}
+
+	/**
+	 * Gets all nodes in the order of their index.
+	 *
+	 * @return the nodes
+	 */
+	public Node[] getNodes(){
+		return nodes_;
+	}
+
+	/**
+	 * Gets all Road-Side-Units in the order of their index.
+	 *
+	 * @return the RSUs
+	 */
+	public RSU[] getRSUs(){
+		return rsus_;
+	}
+
+	/**
+	 * Gets all vehicles in the order of their index.
+	 *
+	 * @return the vehicles
+	 */
+	public Vehicle[] getVehicles(){
+		return vehicles_;
+	}
+
+	/**
+	 * Writes the index of a street, node, RSU or vehicle.
+	 *
+	 * @param object	the object or <code>null</code>
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	private void writeIndex(Object object) throws IOException{
+		Integer index = null;
+		if(object != null) index = indices_.get(object);
+		if(index == null) writeInt(-1);
+		else writeInt(index.intValue());
+	}
+
+	/**
+	 * Writes a reference to a street.
+	 *
+	 * @param street	the street or <code>null</code>
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeStreet(Street street) throws IOException{
+		writeIndex(street);
+	}
+
+	/**
+	 * Writes a reference to a node.
+	 *
+	 * @param node	the node or <code>null</code>
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeNode(Node node) throws IOException{
+		writeIndex(node);
+	}
+
+	/**
+	 * Writes a reference to a Road-Side-Unit.
+	 *
+	 * @param rsu	the RSU or <code>null</code>
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeRSU(RSU rsu) throws IOException{
+		writeIndex(rsu);
+	}
+
+	/**
+	 * Writes a reference to a vehicle.
+	 *
+	 * @param vehicle	the vehicle or <code>null</code>
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeVehicle(Vehicle vehicle) throws IOException{
+		writeIndex(vehicle);
+	}
+
+	/**
+	 * Writes a reference to a region.
+	 *
+	 * @param region	the region or <code>null</code>
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeRegion(Region region) throws IOException{
+		if(region == null) writeInt(-1);
+		else {
+			writeInt(region.getX());
+			writeInt(region.getY());
+		}
+	}
+
+	/**
+	 * Writes the reference to an object which may be referenced from several places. If the object hasn't been written
+	 * before, it gets a new index and the caller needs to write its content directly afterwards.
+	 *
+	 * @param object	the object or <code>null</code>
+	 *
+	 * @return <code>true</code> if the content of the object needs to be written, else <code>false</code>
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public boolean writeShared(Object object) throws IOException{
+		if(object == null){
+			writeInt(-1);
+			return false;
+		}
+		Integer index = shared_.get(object);
+		if(index != null){
+			writeInt(index.intValue());
+			return false;
+		}
+		index = Integer.valueOf(shared_.size());
+		shared_.put(object, index);
+		writeInt(index.intValue());
+		return true;
+	}
+
+	/**
+	 * Writes a string which may be <code>null</code>.
+	 *
+	 * @param value	the string
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeString(String value) throws IOException{
+		writeBoolean(value != null);
+		if(value != null) writeUTF(value);
+	}
+
+	/**
+	 * Writes a color which may be <code>null</code>.
+	 *
+	 * @param color	the color
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeColor(Color color) throws IOException{
+		writeBoolean(color != null);
+		if(color != null) writeInt(color.getRGB());
+	}
+
+	/**
+	 * Writes an array which may be <code>null</code>.
+	 *
+	 * @param array	the array
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeIntArray(int[] array) throws IOException{
+		if(array == null) writeInt(-1);
+		else {
+			writeInt(array.length);
+			for(int i = 0; i < array.length; ++i) writeInt(array[i]);
+		}
+	}
+
+	/**
+	 * Writes an array which may be <code>null</code>.
+	 *
+	 * @param array	the array
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeLongArray(long[] array) throws IOException{
+		if(array == null) writeInt(-1);
+		else {
+			writeInt(array.length);
+			for(int i = 0; i < array.length; ++i) writeLong(array[i]);
+		}
+	}
+
+	/**
+	 * Writes an array which may be <code>null</code>.
+	 *
+	 * @param array	the array
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeDoubleArray(double[] array) throws IOException{
+		if(array == null) writeInt(-1);
+		else {
+			writeInt(array.length);
+			for(int i = 0; i < array.length; ++i) writeDouble(array[i]);
+		}
+	}
+
+	/**
+	 * Writes an array which may be <code>null</code>.
+	 *
+	 * @param array	the array
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeBooleanArray(boolean[] array) throws IOException{
+		if(array == null) writeInt(-1);
+		else {
+			writeInt(array.length);
+			for(int i = 0; i < array.length; ++i) writeBoolean(array[i]);
+		}
+	}
+
+	/**
+	 * Writes an array which may be <code>null</code>. The elements may be <code>null</code> as well.
+	 *
+	 * @param array	the array
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeStringArray(String[] array) throws IOException{
+		if(array == null) writeInt(-1);
+		else {
+			writeInt(array.length);
+			for(int i = 0; i < array.length; ++i) writeString(array[i]);
+		}
+	}
+
+	/**
+	 * Writes an array of streets which may be <code>null</code>.
+	 *
+	 * @param array	the array
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeStreetArray(Street[] array) throws IOException{
+		if(array == null) writeInt(-1);
+		else {
+			writeInt(array.length);
+			for(int i = 0; i < array.length; ++i) writeStreet(array[i]);
+		}
+	}
+
+	/**
+	 * Writes an array of vehicles which may be <code>null</code>.
+	 *
+	 * @param array	the array
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public void writeVehicleArray(Vehicle[] array) throws IOException{
+		if(array == null) writeInt(-1);
+		else {
+			writeInt(array.length);
+			for(int i = 0; i < array.length; ++i) writeVehicle(array[i]);
+		}
+	}
+}
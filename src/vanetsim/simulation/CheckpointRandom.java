@@ -0,0 +1,138 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * A random generator whose state can be written to a {@link Checkpoint} and restored again. It uses the same linear
+ * congruential generator as <code>java.util.Random</code> and therefore returns the same numbers for the same seed,
+ * but keeps the state in its own fields so that it can be accessed.
+ */
+public final class CheckpointRandom extends Random{
+
+	/** The necessary constant for serializing (<code>java.util.Random</code> is serializable). */
+	private static final long serialVersionUID = -2914539617391618862L;
+
+	/** The multiplier of the linear congruential generator. */
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+
+	/** The addend of the linear congruential generator. */
+	private static final long ADDEND = 0xBL;
+
+	/** The mask to get the lower 48 bits. */
+	private static final long MASK = (1L << 48) - 1;
+
+	// The fields must not have initializers as they are set by the constructor of the superclass (through setSeed()).
+
+	/** The current internal state. */
+	private long seed_;
+
+	/** <code>true</code> if the second gaussian of the last calculation hasn't been returned yet. */
+	private boolean haveNextNextGaussian_;
+
+	/** The second gaussian of the last calculation. */
+	private double nextNextGaussian_;
+
+	/**
+	 * Creates a new random generator.
+	 *
+	 * @param seed	the initial seed
+	 */
+	public CheckpointRandom(long seed){
+		super(seed);
+	}
+
+	/**
+	 * Sets the seed of this random generator.
+	 *
+	 * @param seed	the seed
+	 *
+	 * @see java.util.Random#setSeed(long)
+	 */
+	public synchronized void setSeed(long seed){
+		seed_ = (seed ^ MULTIPLIER) & MASK;
+		haveNextNextGaussian_ = false;
+	}
+
+	/**
+	 * Generates the next pseudorandom number.
+	 *
+	 * @param bits	the amount of random bits
+	 *
+	 * @return the next number
+	 *
+	 * @see java.util.Random#next(int)
+	 */
+	protected synchronized int next(int bits){
+		seed_ = (seed_ * MULTIPLIER + ADDEND) & MASK;
+		return (int)(seed_ >>> (48 - bits));
+	}
+
+	/**
+	 * Returns the next gaussian distributed number (polar method, same as <code>java.util.Random</code>).
+	 *
+	 * @return the next number
+	 *
+	 * @see java.util.Random#nextGaussian()
+	 */
+	public synchronized double nextGaussian(){
+		if(haveNextNextGaussian_){
+			haveNextNextGaussian_ = false;
+			return nextNextGaussian_;
+		} else {
+			double v1, v2, s;
+			do{
+				v1 = 2 * nextDouble() - 1;
+				v2 = 2 * nextDouble() - 1;
+				s = v1 * v1 + v2 * v2;
+			} while(s >= 1 || s == 0);
+			double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+			nextNextGaussian_ = v2 * multiplier;
+			haveNextNextGaussian_ = true;
+			return v1 * multiplier;
+		}
+	}
+
+	/**
+	 * Writes the state of this random generator to a checkpoint.
+	 *
+	 * @param out	the stream to write to
+	 *
+	 * @throws IOException	if writing failed
+	 */
+	public synchronized void writeCheckpoint(CheckpointOutput out) throws IOException{
+		out.writeLong(seed_);
+		out.writeBoolean(haveNextNextGaussian_);
+		out.writeDouble(nextNextGaussian_);
+	}
+
+	/**
+	 * Replaces the state of this random generator with the one from a checkpoint.
+	 *
+	 * @param in	the stream to read from
+	 *
+	 * @throws IOException	if reading failed
+	 */
+	public synchronized void readCheckpoint(CheckpointInput in) throws IOException{
+		seed_ = in.readLong();
+		haveNextNextGaussian_ = in.readBoolean();
+		nextNextGaussian_ = in.readDouble();
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * A {@link StepBarrier} which uses a <code>CyclicBarrier</code>. Every waiting thread is parked.
+ */
+public final class CyclicStepBarrier extends StepBarrier{
+	
+	/** The barrier used. */
+	private final CyclicBarrier barrier_;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param parties	the amount of parties
+	 */
+	public CyclicStepBarrier(int parties){
+		super(parties);
+		barrier_ = new CyclicBarrier(parties);
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.StepBarrier#doAwait(int)
+	 */
+	protected int doAwait(int party) throws InterruptedException, BrokenBarrierException{
+		return barrier_.await();
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.StepBarrier#getNumberWaiting()
+	 */
+	public int getNumberWaiting(){
+		return barrier_.getNumberWaiting();
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import java.io.File;
+
+import vanetsim.map.Map;
+import vanetsim.map.Region;
+import vanetsim.scenario.Scenario;
+import vanetsim.scenario.Vehicle;
+
+/**
+ * Checks that a simulation in deterministic mode yields the same result regardless of the amount of worker threads. 
+ * The scenario is simulated once for each amount of threads in its own {@link SimulationContext} and a hash over the 
+ * state of all vehicles is compared afterwards. Run it with:
+ * <br><br>
+ * <code>java vanetsim.simulation.DeterminismCheck map scenario time [threads...]</code>
+ * <br><br>
+ * Defaults are 1, 4 and 16 threads. The exit code is <code>0</code> if all hashes are identical, else <code>1</code>.
+ */
+public final class DeterminismCheck{
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args	the map file, the scenario file, the simulation time in milliseconds and the amounts of threads (optional)
+	 */
+	public static void main(String[] args){
+		if(args.length < 3){
+			System.out.println("Usage: java vanetsim.simulation.DeterminismCheck map scenario time [threads...]"); //$NON-NLS-1$
+			System.exit(2);
+		}
+		File mapFile = new File(args[0]);
+		File scenarioFile = new File(args[1]);
+		int time = Integer.parseInt(args[2]);
+		int[] threads;
+		if(args.length > 3){
+			threads = new int[args.length - 3];
+			for(int i = 0; i < threads.length; ++i) threads[i] = Integer.parseInt(args[i + 3]);
+		} else threads = new int[]{1, 4, 16};
+		
+		long[] hashes = new long[threads.length];
+		boolean identical = true;
+		for(int i = 0; i < threads.length; ++i){
+			hashes[i] = run(mapFile, scenarioFile, time, threads[i]);
+			System.out.println("Threads: " + threads[i] + ", hash: " + Long.toHexString(hashes[i])); //$NON-NLS-1$ //$NON-NLS-2$
+			if(hashes[i] != hashes[0]) identical = false;
+		}
+		if(identical){
+			System.out.println("OK: all results are identical."); //$NON-NLS-1$
+			System.exit(0);
+		} else {
+			System.out.println("FAILED: the results depend on the amount of threads!"); //$NON-NLS-1$
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * Simulates the scenario in a new context until the given time is reached.
+	 * 
+	 * @param mapFile		the map
+	 * @param scenarioFile	the scenario
+	 * @param time			the simulation time in milliseconds
+	 * @param threads		the amount of worker threads
+	 * 
+	 * @return the hash over all vehicles after the simulation
+	 */
+	private static long run(File mapFile, File scenarioFile, int time, int threads){
+		new SimulationContext().bind();
+		SimulationMaster.setDeterministicMode(true);
+		SimulationEngine engine = SimulationEngine.getInstance();
+		// run in console mode so that no GUI is needed
+		engine.setConsoleStart(true);
+		Vehicle.setSteadyIDCounter(0);
+		SimulationMaster master = new SimulationMaster();
+		master.setDaemon(true);
+		master.setThreadCount(threads);
+		master.setExitAfterJump(false);
+		master.start();
+		Map.getInstance().initNewMap(100000, 100000, 10000, 10000);
+		Map.getInstance().signalMapLoaded();
+		Map.getInstance().load(mapFile, false);
+		Scenario.getInstance().load(scenarioFile, false);
+		
+		master.jumpToTime(time);
+		while(master.isSimulationRunning()){
+			try{
+				Thread.sleep(50);
+			} catch (InterruptedException e){}
+		}
+		master.stopAndWait();
+		long hash = calculateHash();
+		
+		// let the workers exit
+		Scenario.getInstance().setReadyState(false);
+		master.stopThread();
+		return hash;
+	}
+	
+	/**
+	 * Calculates a hash over the state of all vehicles. The hash doesn't depend on the order of the vehicles in the regions.
+	 * 
+	 * @return the hash
+	 */
+	static long calculateHash(){
+		Region[][] regions = Map.getInstance().getRegions();
+		Vehicle[] vehicles;
+		Vehicle vehicle;
+		long hash = SimulationEngine.getInstance().getTimePassed(), value;
+		for(int i = 0; i < regions.length; ++i){
+			for(int j = 0; j < regions[i].length; ++j){
+				vehicles = regions[i][j].getVehicleArray();
+				for(int k = 0; k < vehicles.length; ++k){
+					vehicle = vehicles[k];
+					value = vehicle.getID();
+					value = value * 31 + vehicle.getSteadyID();
+					value = value * 31 + vehicle.getX();
+					value = value * 31 + vehicle.getY();
+					value = value * 31 + vehicle.getCurSpeed();
+					value = value * 31 + (vehicle.isActive() ? 1 : 0);
+					value = value * 31 + vehicle.getKnownVehiclesList().getSize();
+					value = value * 31 + vehicle.getKnownPenalties().getSize();
+					value = value * 31 + vehicle.getKnownMessages().getSize();
+					value *= 0x9E3779B97F4A7C15L;
+					hash += value ^ (value >>> 29);	// sum so that the order of the vehicles doesn't matter
+				}
+			}
+		}
+		return hash;
+	}
+}
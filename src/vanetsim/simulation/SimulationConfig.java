@@ -0,0 +1,1137 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import vanetsim.scenario.AttackRSU;
+
+/**
+ * The configuration of a simulation. It holds all settings which are read from a scenario file or changed in the 
+ * settings panels (communication, beacons, mix zones, privacy, IDS, traffic model,...). Each {@link SimulationContext} 
+ * owns its own configuration so that several simulations with different settings can run in one process. The static 
+ * setters and getters of <code>Vehicle</code>, <code>RSU</code>, <code>WorkerThread</code> and the other classes 
+ * are shortcuts to the configuration of the context bound to the calling thread.
+ */
+public final class SimulationConfig{
+	
+	/** The routing mode used (see the A_Star_Algo for details). */
+	private int routingMode_ = 1;
+	
+	/** The minimum time a vehicle must have traveled to get recycled. */
+	private int minTravelTimeForRecycling_ = 60000;
+	
+	/** If communication between vehicles is enabled. */
+	private boolean communicationEnabled_ = true;
+	
+	/** If vehicles send beacons. */
+	private boolean beaconsEnabled_ = true;
+	
+	/** If mix zones are enabled. */
+	private boolean mixZonesEnabled_ = true;
+	
+	/** If a fallback to the beaconless method shall be done in mix zones. */
+	private boolean mixZonesFallbackEnabled_ = true;
+	
+	/** If the fallback mode only sends messages which are in flooding/broadcast mode. */
+	private boolean mixZonesFallbackFloodingOnly_ = true;
+	
+	/** How large a mix zone is in cm. */
+	private int mixZoneRadius_ = 10000;
+	
+	/** The radius of the largest mix zone in cm. */
+	private int maxMixZoneRadius_ = 0;
+	
+	/** How long a vehicle waits to communicate again (in milliseconds). */
+	private int communicationInterval_ = 160;
+	
+	/** How long a vehicle waits to send its beacons again (in milliseconds). */
+	private int beaconInterval_ = 240;
+	
+	/** The maximum communication distance a vehicle has. */
+	private int maximumCommunicationDistance_ = 0;
+	
+	/** If recycling of vehicles is allowed. */
+	private boolean recyclingEnabled_ = true;
+	
+	/** All attacker RSUs. */
+	private AttackRSU[] attackRSUs_ = new AttackRSU[0];
+	
+	/** If the data received by the attacker is logged. */
+	private boolean attackerDataLogged_ = false;
+	
+	/** If the encrypted data received by the attacker is logged, too. */
+	private boolean attackerEncryptedDataLogged_ = false;
+	
+	/** If privacy data (mix zones, silent periods, slow) is logged. */
+	private boolean privacyDataLogged_ = false;
+	
+	/** The ID of the attacked vehicle. */
+	private long attackedVehicleID_ = 0;
+	
+	/** If beacons in mix zones are encrypted. */
+	private boolean encryptedBeaconsInMix_ = false;
+	
+	/** The time between two silent periods (in milliseconds). */
+	private int timeBetweenSilentPeriods_ = 10000;
+	
+	/** The duration of a silent period (in milliseconds). */
+	private int timeOfSilentPeriods_ = 2000;
+	
+	/** If silent periods are enabled. */
+	private boolean silentPeriodsOn_ = false;
+	
+	/** The time until the pseudonym is changed in the slow model (in milliseconds). */
+	private int timeToPseudonymChange_ = 3000;
+	
+	/** The speed limit of the slow model (in cm/s). */
+	private int slowSpeedLimit_ = (int)(30 * 100000.0/3600);
+	
+	/** If the slow model is enabled. */
+	private boolean slowOn_ = false;
+	
+	/** If the intrusion detection system is activated. */
+	private boolean idsActivated_ = false;
+	
+	/** The interval in which fake messages are generated (in milliseconds). */
+	private int fakeMessagesInterval_ = 10000;
+	
+	/** The minimum delay of EVA messages (in simulation steps). */
+	private int minEVAMessageDelay_ = 1;
+	
+	/** The maximum delay of EVA messages (in simulation steps). */
+	private int maxEVAMessageDelay_ = 10;
+	
+	/** If communication of Road-Side-Units is enabled. */
+	private boolean rsuCommunicationEnabled_ = true;
+	
+	/** If Road-Side-Units send beacons. */
+	private boolean rsuBeaconsEnabled_ = true;
+	
+	/** How long a Road-Side-Unit waits to communicate again (in milliseconds). */
+	private int rsuCommunicationInterval_ = 160;
+	
+	/** How long a Road-Side-Unit waits to send its beacons again (in milliseconds). */
+	private int rsuBeaconInterval_ = 240;
+	
+	/** If the demonstration mode of encrypted mix zones is active. */
+	private boolean showEncryptedBeaconsInMix_ = false;
+	
+	/** If the results of the intrusion detection system are logged. */
+	private boolean logIDS_ = true;
+	
+	/** If the advanced IDS rules are used. */
+	private boolean advancedIDSRules_ = false;
+	
+	/** The active IDS rules. */
+	private String[] activeRules_ = null;
+	
+	/** The distance threshold of the PCN rule. */
+	private int PCNDistance_ = 625;
+	
+	/** The threshold of the PCN forward rule. */
+	private double PCNFORWARDThreshold_ = 0.5;
+	
+	/** The threshold of the RHCN rule. */
+	private double RHCNThreshold_ = 0.5;
+	
+	/** The threshold of the EEBL rule. */
+	private double EEBLThreshold_ = 0.5;
+	
+	/** The threshold of the EVA forward rule. */
+	private double EVAFORWARDThreshold_ = 0.5;
+	
+	/** The beacon time factor of the EVA rule. */
+	private double EVABeaconTimeFactor_ = 2;
+	
+	/** The beacon factor of the EVA rule. */
+	private double EVABeaconFactor_ = 3;
+	
+	/** The amount of beacons saved for each known vehicle (-1 == off). */
+	private int savedBeaconsAmount_ = 10;
+	
+	/** If the events of the known penalties are logged. */
+	private boolean penaltyEventsLogged_ = false;
+	
+	/** If the known penalties alert on spamming. */
+	private boolean penaltySpamCheck_ = false;
+	
+	/** If the known event sources alert on spamming. */
+	private boolean eventSourceSpamCheck_ = false;
+	
+	/** The amount of messages which is regarded as spamming. */
+	private int spammingThreshold_ = 3;
+	
+	/** The time in which the messages must have been sent in average to be regarded as spamming. */
+	private int spammingTimeThreshold_ = 240000;
+	
+	/** The simulation mode (1 = model VANETSim, 2 = model IDM/MOBIL, 3 = traces SJTU, 4 = traces San Francisco). */
+	private int simulationMode_ = 1;
+	
+	/** If the results of a simulation shall not depend on the amount of worker threads. */
+	private boolean deterministicMode_ = false;
+	
+	/**
+	 * Creates a new configuration with the default settings.
+	 */
+	SimulationConfig(){
+	}
+	
+	/**
+	 * Gets the configuration of the context bound to the calling thread.
+	 * 
+	 * @return the configuration
+	 */
+	public static SimulationConfig getInstance(){
+		return SimulationContext.getCurrent().getConfig();
+	}
+	
+	/**
+	 * Gets the routing mode used (see the A_Star_Algo for details).
+	 * 
+	 * @return the current value
+	 */
+	public int getRoutingMode(){
+		return routingMode_;
+	}
+	
+	/**
+	 * Sets the routing mode used (see the A_Star_Algo for details).
+	 * 
+	 * @param mode	the new value
+	 */
+	public void setRoutingMode(int mode){
+		routingMode_ = mode;
+	}
+	
+	/**
+	 * Gets the minimum time a vehicle must have traveled to get recycled.
+	 * 
+	 * @return the current value
+	 */
+	public int getMinTravelTimeForRecycling(){
+		return minTravelTimeForRecycling_;
+	}
+	
+	/**
+	 * Sets the minimum time a vehicle must have traveled to get recycled.
+	 * 
+	 * @param minTravelTimeForRecycling	the new value
+	 */
+	public void setMinTravelTimeForRecycling(int minTravelTimeForRecycling){
+		minTravelTimeForRecycling_ = minTravelTimeForRecycling;
+	}
+	
+	/**
+	 * Returns if communication between vehicles is enabled.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isCommunicationEnabled(){
+		return communicationEnabled_;
+	}
+	
+	/**
+	 * Sets if communication between vehicles is enabled.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setCommunicationEnabled(boolean state){
+		communicationEnabled_ = state;
+	}
+	
+	/**
+	 * Returns if vehicles send beacons.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isBeaconsEnabled(){
+		return beaconsEnabled_;
+	}
+	
+	/**
+	 * Sets if vehicles send beacons.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setBeaconsEnabled(boolean state){
+		beaconsEnabled_ = state;
+	}
+	
+	/**
+	 * Returns if mix zones are enabled.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isMixZonesEnabled(){
+		return mixZonesEnabled_;
+	}
+	
+	/**
+	 * Sets if mix zones are enabled.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setMixZonesEnabled(boolean state){
+		mixZonesEnabled_ = state;
+	}
+	
+	/**
+	 * Returns if a fallback to the beaconless method shall be done in mix zones.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isMixZonesFallbackEnabled(){
+		return mixZonesFallbackEnabled_;
+	}
+	
+	/**
+	 * Sets if a fallback to the beaconless method shall be done in mix zones.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setMixZonesFallbackEnabled(boolean state){
+		mixZonesFallbackEnabled_ = state;
+	}
+	
+	/**
+	 * Returns if the fallback mode only sends messages which are in flooding/broadcast mode.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isMixZonesFallbackFloodingOnly(){
+		return mixZonesFallbackFloodingOnly_;
+	}
+	
+	/**
+	 * Sets if the fallback mode only sends messages which are in flooding/broadcast mode.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setMixZonesFallbackFloodingOnly(boolean state){
+		mixZonesFallbackFloodingOnly_ = state;
+	}
+	
+	/**
+	 * Gets how large a mix zone is in cm.
+	 * 
+	 * @return the current value
+	 */
+	public int getMixZoneRadius(){
+		return mixZoneRadius_;
+	}
+	
+	/**
+	 * Sets how large a mix zone is in cm.
+	 * 
+	 * @param mixZoneRadius	the new value
+	 */
+	public void setMixZoneRadius(int mixZoneRadius){
+		mixZoneRadius_ = mixZoneRadius;
+	}
+	
+	/**
+	 * Gets the radius of the largest mix zone in cm.
+	 * 
+	 * @return the current value
+	 */
+	public int getMaxMixZoneRadius(){
+		return maxMixZoneRadius_;
+	}
+	
+	/**
+	 * Sets the radius of the largest mix zone in cm.
+	 * 
+	 * @param maxMixZoneRadius	the new value
+	 */
+	public void setMaxMixZoneRadius(int maxMixZoneRadius){
+		maxMixZoneRadius_ = maxMixZoneRadius;
+	}
+	
+	/**
+	 * Gets how long a vehicle waits to communicate again (in milliseconds).
+	 * 
+	 * @return the current value
+	 */
+	public int getCommunicationInterval(){
+		return communicationInterval_;
+	}
+	
+	/**
+	 * Sets how long a vehicle waits to communicate again (in milliseconds).
+	 * 
+	 * @param communicationInterval	the new value
+	 */
+	public void setCommunicationInterval(int communicationInterval){
+		communicationInterval_ = communicationInterval;
+	}
+	
+	/**
+	 * Gets how long a vehicle waits to send its beacons again (in milliseconds).
+	 * 
+	 * @return the current value
+	 */
+	public int getBeaconInterval(){
+		return beaconInterval_;
+	}
+	
+	/**
+	 * Sets how long a vehicle waits to send its beacons again (in milliseconds).
+	 * 
+	 * @param beaconInterval	the new value
+	 */
+	public void setBeaconInterval(int beaconInterval){
+		beaconInterval_ = beaconInterval;
+	}
+	
+	/**
+	 * Gets the maximum communication distance a vehicle has.
+	 * 
+	 * @return the current value
+	 */
+	public int getMaximumCommunicationDistance(){
+		return maximumCommunicationDistance_;
+	}
+	
+	/**
+	 * Sets the maximum communication distance a vehicle has.
+	 * 
+	 * @param maximumCommunicationDistance	the new value
+	 */
+	public void setMaximumCommunicationDistance(int maximumCommunicationDistance){
+		maximumCommunicationDistance_ = maximumCommunicationDistance;
+	}
+	
+	/**
+	 * Returns if recycling of vehicles is allowed.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isRecyclingEnabled(){
+		return recyclingEnabled_;
+	}
+	
+	/**
+	 * Sets if recycling of vehicles is allowed.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setRecyclingEnabled(boolean state){
+		recyclingEnabled_ = state;
+	}
+	
+	/**
+	 * Gets all attacker RSUs.
+	 * 
+	 * @return the current value
+	 */
+	public AttackRSU[] getAttackRSUs(){
+		return attackRSUs_;
+	}
+	
+	/**
+	 * Sets all attacker RSUs.
+	 * 
+	 * @param attackRSUs	the new value
+	 */
+	public void setAttackRSUs(AttackRSU[] attackRSUs){
+		attackRSUs_ = attackRSUs;
+	}
+	
+	/**
+	 * Returns if the data received by the attacker is logged.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isAttackerDataLogged(){
+		return attackerDataLogged_;
+	}
+	
+	/**
+	 * Sets if the data received by the attacker is logged.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setAttackerDataLogged(boolean state){
+		attackerDataLogged_ = state;
+	}
+	
+	/**
+	 * Returns if the encrypted data received by the attacker is logged, too.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isAttackerEncryptedDataLogged(){
+		return attackerEncryptedDataLogged_;
+	}
+	
+	/**
+	 * Sets if the encrypted data received by the attacker is logged, too.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setAttackerEncryptedDataLogged(boolean state){
+		attackerEncryptedDataLogged_ = state;
+	}
+	
+	/**
+	 * Returns if privacy data (mix zones, silent periods, slow) is logged.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isPrivacyDataLogged(){
+		return privacyDataLogged_;
+	}
+	
+	/**
+	 * Sets if privacy data (mix zones, silent periods, slow) is logged.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setPrivacyDataLogged(boolean state){
+		privacyDataLogged_ = state;
+	}
+	
+	/**
+	 * Gets the ID of the attacked vehicle.
+	 * 
+	 * @return the current value
+	 */
+	public long getAttackedVehicleID(){
+		return attackedVehicleID_;
+	}
+	
+	/**
+	 * Sets the ID of the attacked vehicle.
+	 * 
+	 * @param attackedVehicleID	the new value
+	 */
+	public void setAttackedVehicleID(long attackedVehicleID){
+		attackedVehicleID_ = attackedVehicleID;
+	}
+	
+	/**
+	 * Returns if beacons in mix zones are encrypted.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isEncryptedBeaconsInMix(){
+		return encryptedBeaconsInMix_;
+	}
+	
+	/**
+	 * Sets if beacons in mix zones are encrypted.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setEncryptedBeaconsInMix(boolean state){
+		encryptedBeaconsInMix_ = state;
+	}
+	
+	/**
+	 * Gets the time between two silent periods (in milliseconds).
+	 * 
+	 * @return the current value
+	 */
+	public int getTimeBetweenSilentPeriods(){
+		return timeBetweenSilentPeriods_;
+	}
+	
+	/**
+	 * Sets the time between two silent periods (in milliseconds).
+	 * 
+	 * @param time	the new value
+	 */
+	public void setTimeBetweenSilentPeriods(int time){
+		timeBetweenSilentPeriods_ = time;
+	}
+	
+	/**
+	 * Gets the duration of a silent period (in milliseconds).
+	 * 
+	 * @return the current value
+	 */
+	public int getTimeOfSilentPeriods(){
+		return timeOfSilentPeriods_;
+	}
+	
+	/**
+	 * Sets the duration of a silent period (in milliseconds).
+	 * 
+	 * @param time	the new value
+	 */
+	public void setTimeOfSilentPeriods(int time){
+		timeOfSilentPeriods_ = time;
+	}
+	
+	/**
+	 * Returns if silent periods are enabled.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isSilentPeriodsOn(){
+		return silentPeriodsOn_;
+	}
+	
+	/**
+	 * Sets if silent periods are enabled.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setSilentPeriodsOn(boolean state){
+		silentPeriodsOn_ = state;
+	}
+	
+	/**
+	 * Gets the time until the pseudonym is changed in the slow model (in milliseconds).
+	 * 
+	 * @return the current value
+	 */
+	public int getTimeToPseudonymChange(){
+		return timeToPseudonymChange_;
+	}
+	
+	/**
+	 * Sets the time until the pseudonym is changed in the slow model (in milliseconds).
+	 * 
+	 * @param time	the new value
+	 */
+	public void setTimeToPseudonymChange(int time){
+		timeToPseudonymChange_ = time;
+	}
+	
+	/**
+	 * Gets the speed limit of the slow model (in cm/s).
+	 * 
+	 * @return the current value
+	 */
+	public int getSlowSpeedLimit(){
+		return slowSpeedLimit_;
+	}
+	
+	/**
+	 * Sets the speed limit of the slow model (in cm/s).
+	 * 
+	 * @param speedLimit	the new value
+	 */
+	public void setSlowSpeedLimit(int speedLimit){
+		slowSpeedLimit_ = speedLimit;
+	}
+	
+	/**
+	 * Returns if the slow model is enabled.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isSlowOn(){
+		return slowOn_;
+	}
+	
+	/**
+	 * Sets if the slow model is enabled.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setSlowOn(boolean state){
+		slowOn_ = state;
+	}
+	
+	/**
+	 * Returns if the intrusion detection system is activated.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isIdsActivated(){
+		return idsActivated_;
+	}
+	
+	/**
+	 * Sets if the intrusion detection system is activated.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setIdsActivated(boolean state){
+		idsActivated_ = state;
+	}
+	
+	/**
+	 * Gets the interval in which fake messages are generated (in milliseconds).
+	 * 
+	 * @return the current value
+	 */
+	public int getFakeMessagesInterval(){
+		return fakeMessagesInterval_;
+	}
+	
+	/**
+	 * Sets the interval in which fake messages are generated (in milliseconds).
+	 * 
+	 * @param interval	the new value
+	 */
+	public void setFakeMessagesInterval(int interval){
+		fakeMessagesInterval_ = interval;
+	}
+	
+	/**
+	 * Gets the minimum delay of EVA messages (in simulation steps).
+	 * 
+	 * @return the current value
+	 */
+	public int getMinEVAMessageDelay(){
+		return minEVAMessageDelay_;
+	}
+	
+	/**
+	 * Sets the minimum delay of EVA messages (in simulation steps).
+	 * 
+	 * @param delay	the new value
+	 */
+	public void setMinEVAMessageDelay(int delay){
+		minEVAMessageDelay_ = delay;
+	}
+	
+	/**
+	 * Gets the maximum delay of EVA messages (in simulation steps).
+	 * 
+	 * @return the current value
+	 */
+	public int getMaxEVAMessageDelay(){
+		return maxEVAMessageDelay_;
+	}
+	
+	/**
+	 * Sets the maximum delay of EVA messages (in simulation steps).
+	 * 
+	 * @param delay	the new value
+	 */
+	public void setMaxEVAMessageDelay(int delay){
+		maxEVAMessageDelay_ = delay;
+	}
+	
+	/**
+	 * Returns if communication of Road-Side-Units is enabled.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isRSUCommunicationEnabled(){
+		return rsuCommunicationEnabled_;
+	}
+	
+	/**
+	 * Sets if communication of Road-Side-Units is enabled.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setRSUCommunicationEnabled(boolean state){
+		rsuCommunicationEnabled_ = state;
+	}
+	
+	/**
+	 * Returns if Road-Side-Units send beacons.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isRSUBeaconsEnabled(){
+		return rsuBeaconsEnabled_;
+	}
+	
+	/**
+	 * Sets if Road-Side-Units send beacons.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setRSUBeaconsEnabled(boolean state){
+		rsuBeaconsEnabled_ = state;
+	}
+	
+	/**
+	 * Gets how long a Road-Side-Unit waits to communicate again (in milliseconds).
+	 * 
+	 * @return the current value
+	 */
+	public int getRSUCommunicationInterval(){
+		return rsuCommunicationInterval_;
+	}
+	
+	/**
+	 * Sets how long a Road-Side-Unit waits to communicate again (in milliseconds).
+	 * 
+	 * @param communicationInterval	the new value
+	 */
+	public void setRSUCommunicationInterval(int communicationInterval){
+		rsuCommunicationInterval_ = communicationInterval;
+	}
+	
+	/**
+	 * Gets how long a Road-Side-Unit waits to send its beacons again (in milliseconds).
+	 * 
+	 * @return the current value
+	 */
+	public int getRSUBeaconInterval(){
+		return rsuBeaconInterval_;
+	}
+	
+	/**
+	 * Sets how long a Road-Side-Unit waits to send its beacons again (in milliseconds).
+	 * 
+	 * @param beaconInterval	the new value
+	 */
+	public void setRSUBeaconInterval(int beaconInterval){
+		rsuBeaconInterval_ = beaconInterval;
+	}
+	
+	/**
+	 * Returns if the demonstration mode of encrypted mix zones is active.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isShowEncryptedBeaconsInMix(){
+		return showEncryptedBeaconsInMix_;
+	}
+	
+	/**
+	 * Sets if the demonstration mode of encrypted mix zones is active.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setShowEncryptedBeaconsInMix(boolean state){
+		showEncryptedBeaconsInMix_ = state;
+	}
+	
+	/**
+	 * Returns if the results of the intrusion detection system are logged.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isLogIDS(){
+		return logIDS_;
+	}
+	
+	/**
+	 * Sets if the results of the intrusion detection system are logged.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setLogIDS(boolean state){
+		logIDS_ = state;
+	}
+	
+	/**
+	 * Returns if the advanced IDS rules are used.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isAdvancedIDSRules(){
+		return advancedIDSRules_;
+	}
+	
+	/**
+	 * Sets if the advanced IDS rules are used.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setAdvancedIDSRules(boolean state){
+		advancedIDSRules_ = state;
+	}
+	
+	/**
+	 * Gets the active IDS rules.
+	 * 
+	 * @return the current value
+	 */
+	public String[] getActiveRules(){
+		return activeRules_;
+	}
+	
+	/**
+	 * Sets the active IDS rules.
+	 * 
+	 * @param activeRules	the new value
+	 */
+	public void setActiveRules(String[] activeRules){
+		activeRules_ = activeRules;
+	}
+	
+	/**
+	 * Gets the distance threshold of the PCN rule.
+	 * 
+	 * @return the current value
+	 */
+	public int getPCNDistance(){
+		return PCNDistance_;
+	}
+	
+	/**
+	 * Sets the distance threshold of the PCN rule.
+	 * 
+	 * @param distance	the new value
+	 */
+	public void setPCNDistance(int distance){
+		PCNDistance_ = distance;
+	}
+	
+	/**
+	 * Gets the threshold of the PCN forward rule.
+	 * 
+	 * @return the current value
+	 */
+	public double getPCNFORWARDThreshold(){
+		return PCNFORWARDThreshold_;
+	}
+	
+	/**
+	 * Sets the threshold of the PCN forward rule.
+	 * 
+	 * @param threshold	the new value
+	 */
+	public void setPCNFORWARDThreshold(double threshold){
+		PCNFORWARDThreshold_ = threshold;
+	}
+	
+	/**
+	 * Gets the threshold of the RHCN rule.
+	 * 
+	 * @return the current value
+	 */
+	public double getRHCNThreshold(){
+		return RHCNThreshold_;
+	}
+	
+	/**
+	 * Sets the threshold of the RHCN rule.
+	 * 
+	 * @param threshold	the new value
+	 */
+	public void setRHCNThreshold(double threshold){
+		RHCNThreshold_ = threshold;
+	}
+	
+	/**
+	 * Gets the threshold of the EEBL rule.
+	 * 
+	 * @return the current value
+	 */
+	public double getEEBLThreshold(){
+		return EEBLThreshold_;
+	}
+	
+	/**
+	 * Sets the threshold of the EEBL rule.
+	 * 
+	 * @param threshold	the new value
+	 */
+	public void setEEBLThreshold(double threshold){
+		EEBLThreshold_ = threshold;
+	}
+	
+	/**
+	 * Gets the threshold of the EVA forward rule.
+	 * 
+	 * @return the current value
+	 */
+	public double getEVAFORWARDThreshold(){
+		return EVAFORWARDThreshold_;
+	}
+	
+	/**
+	 * Sets the threshold of the EVA forward rule.
+	 * 
+	 * @param threshold	the new value
+	 */
+	public void setEVAFORWARDThreshold(double threshold){
+		EVAFORWARDThreshold_ = threshold;
+	}
+	
+	/**
+	 * Gets the beacon time factor of the EVA rule.
+	 * 
+	 * @return the current value
+	 */
+	public double getEVABeaconTimeFactor(){
+		return EVABeaconTimeFactor_;
+	}
+	
+	/**
+	 * Sets the beacon time factor of the EVA rule.
+	 * 
+	 * @param factor	the new value
+	 */
+	public void setEVABeaconTimeFactor(double factor){
+		EVABeaconTimeFactor_ = factor;
+	}
+	
+	/**
+	 * Gets the beacon factor of the EVA rule.
+	 * 
+	 * @return the current value
+	 */
+	public double getEVABeaconFactor(){
+		return EVABeaconFactor_;
+	}
+	
+	/**
+	 * Sets the beacon factor of the EVA rule.
+	 * 
+	 * @param factor	the new value
+	 */
+	public void setEVABeaconFactor(double factor){
+		EVABeaconFactor_ = factor;
+	}
+	
+	/**
+	 * Gets the amount of beacons saved for each known vehicle (-1 == off).
+	 * 
+	 * @return the current value
+	 */
+	public int getSavedBeaconsAmount(){
+		return savedBeaconsAmount_;
+	}
+	
+	/**
+	 * Sets the amount of beacons saved for each known vehicle (-1 == off).
+	 * 
+	 * @param amount	the new value
+	 */
+	public void setSavedBeaconsAmount(int amount){
+		savedBeaconsAmount_ = amount;
+	}
+	
+	/**
+	 * Returns if the events of the known penalties are logged.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isPenaltyEventsLogged(){
+		return penaltyEventsLogged_;
+	}
+	
+	/**
+	 * Sets if the events of the known penalties are logged.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setPenaltyEventsLogged(boolean state){
+		penaltyEventsLogged_ = state;
+	}
+	
+	/**
+	 * Returns if the known penalties alert on spamming.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isPenaltySpamCheck(){
+		return penaltySpamCheck_;
+	}
+	
+	/**
+	 * Sets if the known penalties alert on spamming.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setPenaltySpamCheck(boolean state){
+		penaltySpamCheck_ = state;
+	}
+	
+	/**
+	 * Returns if the known event sources alert on spamming.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isEventSourceSpamCheck(){
+		return eventSourceSpamCheck_;
+	}
+	
+	/**
+	 * Sets if the known event sources alert on spamming.
+	 * 
+	 * @param state	the new value
+	 */
+	public void setEventSourceSpamCheck(boolean state){
+		eventSourceSpamCheck_ = state;
+	}
+	
+	/**
+	 * Gets the amount of messages which is regarded as spamming.
+	 * 
+	 * @return the current value
+	 */
+	public int getSpammingThreshold(){
+		return spammingThreshold_;
+	}
+	
+	/**
+	 * Sets the amount of messages which is regarded as spamming.
+	 * 
+	 * @param threshold	the new value
+	 */
+	public void setSpammingThreshold(int threshold){
+		spammingThreshold_ = threshold;
+	}
+	
+	/**
+	 * Gets the time in which the messages must have been sent in average to be regarded as spamming.
+	 * 
+	 * @return the current value
+	 */
+	public int getSpammingTimeThreshold(){
+		return spammingTimeThreshold_;
+	}
+	
+	/**
+	 * Sets the time in which the messages must have been sent in average to be regarded as spamming.
+	 * 
+	 * @param threshold	the new value
+	 */
+	public void setSpammingTimeThreshold(int threshold){
+		spammingTimeThreshold_ = threshold;
+	}
+	
+	/**
+	 * Gets the simulation mode (1 = model VANETSim, 2 = model IDM/MOBIL, 3 = traces SJTU, 4 = traces San Francisco).
+	 * 
+	 * @return the current value
+	 */
+	public int getSimulationMode(){
+		return simulationMode_;
+	}
+	
+	/**
+	 * Sets the simulation mode (1 = model VANETSim, 2 = model IDM/MOBIL, 3 = traces SJTU, 4 = traces San Francisco).
+	 * 
+	 * @param simulationMode	the new value
+	 */
+	public void setSimulationMode(int simulationMode){
+		simulationMode_ = simulationMode;
+	}
+	
+	/**
+	 * Returns if the results of a simulation shall not depend on the amount of worker threads.
+	 * 
+	 * @return the current value
+	 */
+	public boolean isDeterministicMode(){
+		return deterministicMode_;
+	}
+	
+	/**
+	 * Sets if the results of a simulation shall not depend on the amount of worker threads.
+	 * 
+	 * @param deterministicMode	the new value
+	 */
+	public void setDeterministicMode(boolean deterministicMode){
+		deterministicMode_ = deterministicMode;
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import vanetsim.gui.helpers.SimulationLogs;
+import vanetsim.map.Map;
+import vanetsim.scenario.Scenario;
+import vanetsim.scenario.events.EventList;
+import vanetsim.scenario.events.EventSpotList;
+
+/**
+ * A simulation context owns everything which belongs to one simulation run: the configuration, the map, the scenario, 
+ * the events, the simulation engine (clock and listeners), the log writers and the global random generator. The <code>getInstance()</code> 
+ * functions of these classes return the objects of the context bound to the calling thread. Threads inherit the 
+ * context of the thread which created them, so a <code>SimulationMaster</code> and its workers started from a 
+ * bound thread automatically use the same context. Threads which never bound a context (like the GUI) use the 
+ * default context.
+ */
+public final class SimulationContext{
+	
+	/** The context used by all threads which didn't bind another one. */
+	private static final SimulationContext DEFAULT = new SimulationContext();
+	
+	/** The context bound to the current thread. Inherited by child threads. */
+	private static final InheritableThreadLocal<SimulationContext> CURRENT = new InheritableThreadLocal<SimulationContext>(){
+		protected SimulationContext initialValue(){
+			return DEFAULT;
+		}
+	};
+	
+	/** The seed of the global random generator. */
+	private static final long RANDOM_SEED = 1L;
+	
+	/** The configuration. Created first as the other objects may read it. */
+	private final SimulationConfig config_ = new SimulationConfig();
+	
+	/** The simulation engine. Created before the map and the scenario as they may query it. */
+	private final SimulationEngine engine_ = new SimulationEngine();
+	
+	/** The map. */
+	private final Map map_ = new Map();
+	
+	/** The scenario. */
+	private final Scenario scenario_ = new Scenario();
+	
+	/** The list with all events. */
+	private final EventList eventList_ = new EventList();
+	
+	/** The list with all event spots. */
+	private final EventSpotList eventSpotList_ = new EventSpotList();
+	
+	/** The log files. */
+	private final SimulationLogs logs_ = new SimulationLogs();
+	
+	/** The global random generator used to create vehicle IDs and the random generators of the vehicles. */
+	private final CheckpointRandom random_ = new CheckpointRandom(RANDOM_SEED);
+	
+	/**
+	 * Creates a new, empty simulation context. Use {@link #bind()} to make it the context of a thread.
+	 */
+	public SimulationContext(){
+	}
+	
+	/**
+	 * Gets the context bound to the calling thread.
+	 * 
+	 * @return the current context
+	 */
+	public static SimulationContext getCurrent(){
+		return CURRENT.get();
+	}
+	
+	/**
+	 * Gets the default context which is used by all threads which didn't bind another one.
+	 * 
+	 * @return the default context
+	 */
+	public static SimulationContext getDefault(){
+		return DEFAULT;
+	}
+	
+	/**
+	 * Binds this context to the calling thread. All threads created afterwards by the calling thread inherit it.
+	 */
+	public void bind(){
+		CURRENT.set(this);
+	}
+	
+	/**
+	 * Gets the simulation engine of this context.
+	 * 
+	 * @return the simulation engine
+	 */
+	public SimulationEngine getEngine(){
+		return engine_;
+	}
+	
+	/**
+	 * Gets the configuration of this context.
+	 * 
+	 * @return the configuration
+	 */
+	public SimulationConfig getConfig(){
+		return config_;
+	}
+	
+	/**
+	 * Gets the map of this context.
+	 * 
+	 * @return the map
+	 */
+	public Map getMap(){
+		return map_;
+	}
+	
+	/**
+	 * Gets the scenario of this context.
+	 * 
+	 * @return the scenario
+	 */
+	public Scenario getScenario(){
+		return scenario_;
+	}
+	
+	/**
+	 * Gets the event list of this context.
+	 * 
+	 * @return the event list
+	 */
+	public EventList getEventList(){
+		return eventList_;
+	}
+	
+	/**
+	 * Gets the event spot list of this context.
+	 * 
+	 * @return the event spot list
+	 */
+	public EventSpotList getEventSpotList(){
+		return eventSpotList_;
+	}
+	
+	/**
+	 * Gets the log files of this context.
+	 * 
+	 * @return the logs
+	 */
+	public SimulationLogs getLogs(){
+		return logs_;
+	}
+	
+	/**
+	 * Gets the global random generator of this context.
+	 * 
+	 * @return the random generator
+	 */
+	public CheckpointRandom getRandom(){
+		return random_;
+	}
+	
+	/**
+	 * Resets the global random generator of this context to its initial seed.
+	 */
+	public void resetRandom(){
+		random_.setSeed(RANDOM_SEED);
+	}
+}
@@ -0,0 +1,446 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Vehicle;
+
+/**
+ * The headless core of the simulation. It holds the simulation clock and all simulation state which was formerly 
+ * stored in the GUI and notifies {@link SimulationListener}s about the progress of the simulation. Classes which 
+ * are used in console mode must use this instead of the <code>Renderer</code> so that no GUI classes get loaded.
+ */
+public final class SimulationEngine{
+	
+	/** An empty listener array to prevent unnecessary object creation. */
+	private static final SimulationListener[] EMPTY_LISTENERS = new SimulationListener[0];
+	
+	/** The time passed since simulation start in milliseconds. */
+	private volatile int timePassed_ = 0;
+	
+	/** If the simulation was started in console mode (without GUI). */
+	private volatile boolean consoleStart_ = false;
+	
+	/** A vehicle which is marked (selected by user). */
+	private volatile Vehicle markedVehicle_ = null;
+	
+	/** The vehicle which is the attacker. */
+	private volatile Vehicle attackerVehicle_ = null;
+	
+	/** The vehicle which is attacked. */
+	private volatile Vehicle attackedVehicle_ = null;
+	
+	/** If a mix zone shall be added at each street corner. */
+	private volatile boolean autoAddMixZones_ = false;
+	
+	/** If there is a silent period at the moment. */
+	private volatile boolean silentPeriod_ = false;
+	
+	/** The steady ID the next created or recycled vehicle gets. Atomic as the workers recycle vehicles concurrently. */
+	private final AtomicInteger steadyIDCounter_ = new AtomicInteger(0);
+	
+	/** The ID the next Road-Side-Unit gets. */
+	private final AtomicInteger rsuIDCounter_ = new AtomicInteger(1);
+	
+	/** The ID the next Attack-Road-Side-Unit gets. */
+	private final AtomicInteger attackRSUIDCounter_ = new AtomicInteger(1);
+	
+	/** The vehicles which were recycled in the current step and still wait for their new steady id (only used in deterministic mode). */
+	private final ArrayList<Vehicle> pendingSteadyIDs_ = new ArrayList<Vehicle>();
+	
+	/** The vehicles which need to update the lanes after the current step (only used in deterministic mode). */
+	private final ArrayList<Vehicle> pendingLaneOperations_ = new ArrayList<Vehicle>();
+	
+	/** The registered listeners. Replaced on every change so that it can be used without locking. */
+	private volatile SimulationListener[] listeners_ = EMPTY_LISTENERS;
+	
+	/**
+	 * Creates a new, empty simulation engine. Use <code>getInstance()</code> to get the one of the current
+	 * {@link SimulationContext}.
+	 */
+	SimulationEngine(){
+	}
+	
+	/**
+	 * Gets the simulation engine of the simulation context bound to the calling thread.
+	 * 
+	 * @return the simulation engine of the current context
+	 */
+	public static SimulationEngine getInstance(){
+		return SimulationContext.getCurrent().getEngine();
+	}
+	
+	/**
+	 * Adds a listener.
+	 * 
+	 * @param listener	the listener
+	 */
+	public synchronized void addSimulationListener(SimulationListener listener){
+		ArrayList<SimulationListener> listeners = new ArrayList<SimulationListener>();
+		for(int i = 0; i < listeners_.length; ++i) listeners.add(listeners_[i]);
+		listeners.add(listener);
+		listeners_ = listeners.toArray(EMPTY_LISTENERS);
+	}
+	
+	/**
+	 * Removes a listener.
+	 * 
+	 * @param listener	the listener
+	 */
+	public synchronized void removeSimulationListener(SimulationListener listener){
+		ArrayList<SimulationListener> listeners = new ArrayList<SimulationListener>();
+		for(int i = 0; i < listeners_.length; ++i){
+			if(listeners_[i] != listener) listeners.add(listeners_[i]);
+		}
+		listeners_ = listeners.toArray(EMPTY_LISTENERS);
+	}
+	
+	/**
+	 * Notifies all listeners that the simulation was started or stopped.
+	 * 
+	 * @param running	<code>true</code> if the simulation is running now, else <code>false</code>
+	 */
+	public void fireSimulationRunning(boolean running){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].simulationRunning(running);
+	}
+	
+	/**
+	 * Notifies all listeners that a step is started.
+	 */
+	public void fireStepStarted(){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].stepStarted();
+	}
+	
+	/**
+	 * Notifies all listeners that a step has been completed.
+	 * 
+	 * @param timePerStep	the time of one step in milliseconds
+	 */
+	public void fireStepCompleted(int timePerStep){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].stepCompleted(timePassed_, timePerStep);
+	}
+	
+	/**
+	 * Notifies all listeners that jumping to a specific time starts or ends.
+	 * 
+	 * @param jumping	<code>true</code> if the jump starts, <code>false</code> if the target time has been reached
+	 */
+	public void fireJumpToTime(boolean jumping){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].jumpToTime(jumping);
+	}
+	
+	/**
+	 * Notifies all listeners that a vehicle inside the monitored zone sent a beacon.
+	 * 
+	 * @param vehicle		the vehicle
+	 * @param ID			the ID of the vehicle
+	 * @param x				the x coordinate of the vehicle
+	 * @param y				the y coordinate of the vehicle
+	 * @param speed			the speed of the vehicle
+	 * @param isEncrypted	if the beacon was encrypted
+	 */
+	public void fireBeaconMonitored(Vehicle vehicle, long ID, long x, long y, double speed, boolean isEncrypted){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].beaconMonitored(vehicle, ID, x, y, speed, isEncrypted);
+	}
+	
+	/**
+	 * Notifies all listeners that a Road-Side-Unit inside the monitored zone sent a beacon.
+	 * 
+	 * @param rsu			the RSU
+	 * @param ID			the ID of the RSU
+	 * @param x				the x coordinate of the RSU
+	 * @param y				the y coordinate of the RSU
+	 * @param isEncrypted	if the beacon was encrypted
+	 */
+	public void fireBeaconMonitored(RSU rsu, long ID, long x, long y, boolean isEncrypted){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].beaconMonitored(rsu, ID, x, y, isEncrypted);
+	}
+	
+	/**
+	 * Requests that the listeners display a grid of event spots.
+	 * 
+	 * @param grid		the amount of events in each cell of the grid
+	 * @param minValue	the smallest value in the grid
+	 * @param maxValue	the largest value in the grid
+	 * @param gridSize	the size of a cell in cm
+	 */
+	public void showGrid(int[][] grid, int minValue, int maxValue, int gridSize){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].gridChanged(grid, minValue, maxValue, gridSize);
+	}
+	
+	/**
+	 * Notifies all listeners that the scenario has been cleared.
+	 */
+	public void fireScenarioCleared(){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].scenarioCleared();
+	}
+	
+	/**
+	 * Notifies all listeners that a new, empty map has been created.
+	 */
+	public void fireMapCleared(){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].mapCleared();
+	}
+	
+	/**
+	 * Asks the listeners if they want to create a map which is loaded themselves.
+	 * 
+	 * @param mapWidth		the width of the map in cm
+	 * @param mapHeight		the height of the map in cm
+	 * @param regionWidth	the width of a region in cm
+	 * @param regionHeight	the height of a region in cm
+	 * 
+	 * @return <code>true</code> if a listener created the map, <code>false</code> if it still needs to be created
+	 */
+	public boolean fireMapSizeRequested(int mapWidth, int mapHeight, int regionWidth, int regionHeight){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i){
+			if(listeners[i].mapSizeRequested(mapWidth, mapHeight, regionWidth, regionHeight)) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Notifies all listeners that a map has been loaded.
+	 * 
+	 * @param mapWidth	the width of the map in cm
+	 * @param mapHeight	the height of the map in cm
+	 */
+	public void fireMapLoaded(int mapWidth, int mapHeight){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].mapLoaded(mapWidth, mapHeight);
+	}
+	
+	/**
+	 * Notifies all listeners that a longer operation starts or ends.
+	 * 
+	 * @param busy	<code>true</code> if the operation starts, <code>false</code> if it has ended
+	 */
+	public void fireBusyChanged(boolean busy){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].busyChanged(busy);
+	}
+	
+	/**
+	 * Notifies all listeners that a warning or an error has been logged.
+	 * 
+	 * @param message	the message
+	 * @param severity	the severity (<code>6</code> for a warning, <code>7</code> for an error)
+	 * @param e			the exception or <code>null</code>
+	 */
+	public void fireErrorLogged(String message, int severity, Exception e){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].errorLogged(message, severity, e);
+	}
+	
+	/**
+	 * Requests that the listeners display changes. Does nothing in console mode as no listener is registered.
+	 * 
+	 * @param fullRender	<code>true</code> if static objects (like streets) changed, else <code>false</code>
+	 * @param forceRender	<code>true</code> if rendering shall be done even if a simulation is running
+	 */
+	public void requestRender(boolean fullRender, boolean forceRender){
+		SimulationListener[] listeners = listeners_;
+		for(int i = 0; i < listeners.length; ++i) listeners[i].renderRequested(fullRender, forceRender);
+	}
+	
+	/**
+	 * Gets the time passed since simulation start.
+	 * 
+	 * @return the time passed in milliseconds
+	 */
+	public int getTimePassed(){
+		return timePassed_;
+	}
+	
+	/**
+	 * Sets the time passed since simulation start.
+	 * 
+	 * @param timePassed the new time in milliseconds
+	 */
+	public void setTimePassed(int timePassed){
+		timePassed_ = timePassed;
+	}
+	
+	/**
+	 * Returns if the simulation was started in console mode.
+	 * 
+	 * @return <code>true</code> if no GUI is used
+	 */
+	public boolean isConsoleStart(){
+		return consoleStart_;
+	}
+	
+	/**
+	 * Sets if the simulation was started in console mode.
+	 * 
+	 * @param consoleStart	<code>true</code> if no GUI is used
+	 */
+	public void setConsoleStart(boolean consoleStart){
+		consoleStart_ = consoleStart;
+	}
+	
+	/**
+	 * Gets the marked vehicle.
+	 * 
+	 * @return the marked vehicle or <code>null</code>
+	 */
+	public Vehicle getMarkedVehicle(){
+		return markedVehicle_;
+	}
+	
+	/**
+	 * Sets the marked vehicle.
+	 * 
+	 * @param markedVehicle	the vehicle to mark
+	 */
+	public void setMarkedVehicle(Vehicle markedVehicle){
+		markedVehicle_ = markedVehicle;
+	}
+	
+	/**
+	 * Gets the attacker vehicle.
+	 * 
+	 * @return the attacker vehicle or <code>null</code>
+	 */
+	public Vehicle getAttackerVehicle(){
+		return attackerVehicle_;
+	}
+	
+	/**
+	 * Sets the attacker vehicle.
+	 * 
+	 * @param attackerVehicle	the attacker vehicle
+	 */
+	public void setAttackerVehicle(Vehicle attackerVehicle){
+		attackerVehicle_ = attackerVehicle;
+	}
+	
+	/**
+	 * Gets the attacked vehicle.
+	 * 
+	 * @return the attacked vehicle or <code>null</code>
+	 */
+	public Vehicle getAttackedVehicle(){
+		return attackedVehicle_;
+	}
+	
+	/**
+	 * Sets the attacked vehicle.
+	 * 
+	 * @param attackedVehicle	the attacked vehicle
+	 */
+	public void setAttackedVehicle(Vehicle attackedVehicle){
+		attackedVehicle_ = attackedVehicle;
+	}
+	
+	/**
+	 * Gets if mix zones are added automatically on each street corner.
+	 * 
+	 * @return <code>true</code> if mix zones are added automatically
+	 */
+	public boolean isAutoAddMixZones(){
+		return autoAddMixZones_;
+	}
+	
+	/**
+	 * Sets if mix zones shall be added automatically on each street corner.
+	 * 
+	 * @param autoAddMixZones	<code>true</code> to add mix zones automatically
+	 */
+	public void setAutoAddMixZones(boolean autoAddMixZones){
+		autoAddMixZones_ = autoAddMixZones;
+	}
+	
+	/**
+	 * Gets if there is a silent period at the moment, in which no beacons are sent.
+	 * 
+	 * @return <code>true</code> during a silent period
+	 */
+	public boolean isSilentPeriod(){
+		return silentPeriod_;
+	}
+	
+	/**
+	 * Starts or ends a silent period.
+	 * 
+	 * @param silentPeriod	<code>true</code> if a silent period starts, <code>false</code> if it ends
+	 */
+	public void setSilentPeriod(boolean silentPeriod){
+		silentPeriod_ = silentPeriod;
+	}
+	
+	/**
+	 * Gets the counter for the steady IDs of the vehicles.
+	 * 
+	 * @return the counter holding the steady ID of the next created or recycled vehicle
+	 */
+	public AtomicInteger getSteadyIDCounter(){
+		return steadyIDCounter_;
+	}
+	
+	/**
+	 * Gets the counter for the IDs of the Road-Side-Units.
+	 * 
+	 * @return the counter holding the ID of the next Road-Side-Unit
+	 */
+	public AtomicInteger getRSUIDCounter(){
+		return rsuIDCounter_;
+	}
+	
+	/**
+	 * Gets the counter for the IDs of the Attack-Road-Side-Units.
+	 * 
+	 * @return the counter holding the ID of the next Attack-Road-Side-Unit
+	 */
+	public AtomicInteger getAttackRSUIDCounter(){
+		return attackRSUIDCounter_;
+	}
+	
+	/**
+	 * Gets the vehicles which were recycled in the current step and still wait for their new steady ID. Only used by the 
+	 * vehicles in deterministic mode. Synchronize on the list when using it.
+	 * 
+	 * @return the list
+	 */
+	public ArrayList<Vehicle> getPendingSteadyIDs(){
+		return pendingSteadyIDs_;
+	}
+	
+	/**
+	 * Gets the vehicles which need to update the lanes after the current step. Only used by the vehicles in deterministic 
+	 * mode. Synchronize on the list when using it.
+	 * 
+	 * @return the list
+	 */
+	public ArrayList<Vehicle> getPendingLaneOperations(){
+		return pendingLaneOperations_;
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Vehicle;
+
+/**
+ * A listener which is notified about the state of the simulation. The GUI uses this to render and update its 
+ * statistics. All functions are called from the thread of the {@link SimulationMaster} unless noted otherwise.
+ */
+public interface SimulationListener{
+	
+	/**
+	 * Called when the simulation is started or stopped. May be called from any thread.
+	 * 
+	 * @param running	<code>true</code> if the simulation is running now, <code>false</code> if it's suspended
+	 */
+	public void simulationRunning(boolean running);
+	
+	/**
+	 * Called before a step is started.
+	 */
+	public void stepStarted();
+	
+	/**
+	 * Called after a step has been completed by all workers and the clock has been advanced. Not called while jumping 
+	 * to a specific time.
+	 * 
+	 * @param timePassed	the time passed since simulation start in milliseconds
+	 * @param timePerStep	the time of one step in milliseconds
+	 */
+	public void stepCompleted(int timePassed, int timePerStep);
+	
+	/**
+	 * Called when jumping to a specific time starts or ends. May be called from any thread.
+	 * 
+	 * @param jumping	<code>true</code> if the jump starts, <code>false</code> if the target time has been reached
+	 */
+	public void jumpToTime(boolean jumping);
+	
+	/**
+	 * Called when something changed which needs to be displayed. May be called from any thread.
+	 * 
+	 * @param fullRender	<code>true</code> if static objects (like streets) changed, else <code>false</code>
+	 * @param forceRender	<code>true</code> if rendering shall be done even if a simulation is running
+	 */
+	public void renderRequested(boolean fullRender, boolean forceRender);
+	
+	/**
+	 * Called when a vehicle inside the monitored zone sent a beacon. Called from the worker threads!
+	 * 
+	 * @param vehicle		the vehicle
+	 * @param ID			the ID of the vehicle
+	 * @param x				the x coordinate of the vehicle
+	 * @param y				the y coordinate of the vehicle
+	 * @param speed			the speed of the vehicle
+	 * @param isEncrypted	if the beacon was encrypted
+	 */
+	public void beaconMonitored(Vehicle vehicle, long ID, long x, long y, double speed, boolean isEncrypted);
+	
+	/**
+	 * Called when a Road-Side-Unit inside the monitored zone sent a beacon. Called from the worker threads!
+	 * 
+	 * @param rsu			the RSU
+	 * @param ID			the ID of the RSU
+	 * @param x				the x coordinate of the RSU
+	 * @param y				the y coordinate of the RSU
+	 * @param isEncrypted	if the beacon was encrypted
+	 */
+	public void beaconMonitored(RSU rsu, long ID, long x, long y, boolean isEncrypted);
+	
+	/**
+	 * Called when a grid of event spots shall be displayed. May be called from any thread.
+	 * 
+	 * @param grid		the amount of events in each cell of the grid
+	 * @param minValue	the smallest value in the grid
+	 * @param maxValue	the largest value in the grid
+	 * @param gridSize	the size of a cell in cm
+	 */
+	public void gridChanged(int[][] grid, int minValue, int maxValue, int gridSize);
+	
+	/**
+	 * Called after the scenario has been cleared. May be called from any thread.
+	 */
+	public void scenarioCleared();
+	
+	/**
+	 * Called after a new, empty map has been created. May be called from any thread.
+	 */
+	public void mapCleared();
+	
+	/**
+	 * Called when a map is loaded, before it's created with the size stored in the file. May be called from any thread.
+	 * 
+	 * @param mapWidth		the width of the map in cm
+	 * @param mapHeight		the height of the map in cm
+	 * @param regionWidth	the width of a region in cm
+	 * @param regionHeight	the height of a region in cm
+	 * 
+	 * @return <code>true</code> if the listener created the map itself (for example with a size chosen by the user), 
+	 * 			<code>false</code> if the map shall be created with the given size
+	 */
+	public boolean mapSizeRequested(int mapWidth, int mapHeight, int regionWidth, int regionHeight);
+	
+	/**
+	 * Called after a map has been loaded or created completely. May be called from any thread.
+	 * 
+	 * @param mapWidth	the width of the map in cm
+	 * @param mapHeight	the height of the map in cm
+	 */
+	public void mapLoaded(int mapWidth, int mapHeight);
+	
+	/**
+	 * Called when a longer operation (like loading or saving a map or scenario) starts or ends. May be called from any thread.
+	 * 
+	 * @param busy	<code>true</code> if the operation starts, <code>false</code> if it has ended
+	 */
+	public void busyChanged(boolean busy);
+	
+	/**
+	 * Called when a warning or an error has been logged. May be called from any thread.
+	 * 
+	 * @param message	the message
+	 * @param severity	the severity (<code>6</code> for a warning, <code>7</code> for an error)
+	 * @param e			the exception or <code>null</code>
+	 */
+	public void errorLogged(String message, int severity, Exception e);
+}
@@ -20,6 +20,7 @@ package vanetsim.simulation;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -27,14 +28,9 @@ import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
-import java.util.concurrent.CyclicBarrier;
-import java.util.concurrent.TimeUnit;
 
 import vanetsim.ErrorLog;
-import vanetsim.VanetSimStart;
-import vanetsim.gui.Renderer;
-import vanetsim.gui.controlpanels.ReportingControlPanel;
-import vanetsim.gui.controlpanels.SlowPanel;
+import vanetsim.gui.helpers.AsyncLogPipeline;
 import vanetsim.gui.helpers.GeneralLogWriter;
 import vanetsim.gui.helpers.IDSLogWriter;
 import vanetsim.gui.helpers.PrivacyLogWriter;
@@ -42,15 +38,13 @@ import vanetsim.localization.Messages;
 import vanetsim.map.Map;
 import vanetsim.map.Region;
 import vanetsim.scenario.IDSProcessor;
-import vanetsim.scenario.IDSProcessorList;
-import vanetsim.scenario.KnownEventSourcesList;
 import vanetsim.scenario.KnownVehicle;
 import vanetsim.scenario.KnownVehiclesList;
-import vanetsim.scenario.KnownRSUsList;
 import vanetsim.scenario.Scenario;
 import vanetsim.scenario.Vehicle;
 import vanetsim.scenario.events.EventList;
 import vanetsim.scenario.events.EventSpotList;
+import vanetsim.scenario.messages.MessageOutbox;
 
 /**
  * This thread delegates the simulation processing to subthreads and then calls a
@@ -62,7 +56,16 @@ public final class SimulationMaster extends Thread{
 	public static final int TIME_PER_STEP = 40;
 	
 	/** The list with all events */
-	private static final EventList eventList_ = EventList.getInstance();
+	private final EventList eventList_ = EventList.getInstance();
+	
+	/** The engine holding the simulation clock and the listeners. */
+	private final SimulationEngine engine_ = SimulationEngine.getInstance();
+	
+	/** The configuration of the context this thread belongs to. */
+	private final SimulationConfig config_ = SimulationConfig.getInstance();
+	
+	/** The list with all event spots. */
+	private final EventSpotList eventSpotList_ = EventSpotList.getInstance();
 	
 	/** Indicates if this simulation should run. If this flag is updated to false the current simulation step 
 	 * is finished and afterwards the simulation stops */
@@ -84,13 +87,16 @@ public final class SimulationMaster extends Thread{
 	private WorkerThread[] workers_ = null;
 
 	/** Synchronization barrier for the start of the working threads. */
-	private CyclicBarrier barrierStart_ = null;
+	private StepBarrier barrierStart_ = null;
 	
 	/** Synchronization barrier for the worker threads. */
-	private CyclicBarrier barrierDuringWork_ = null;
+	private StepBarrier barrierDuringWork_ = null;
 
 	/** Synchronization barrier for the end of one step in the working process. */
-	private CyclicBarrier barrierFinish_ = null;
+	private StepBarrier barrierFinish_ = null;
+	
+	/** The party index of this thread on <code>barrierStart_</code> and <code>barrierFinish_</code> (the workers use the indices before). */
+	private int barrierParty_ = 0;
 	
 	/** GUI disabled or enabled */
 	private boolean guiEnabled = true;
@@ -98,8 +104,17 @@ public final class SimulationMaster extends Thread{
 	/** Flag to log silent period header once */
 	private boolean logSilentPeriodHeader_ = true;
 	
-	/** the timer for the event spots */
-	private static int eventSpotCountdown_ = -1;
+	/** How often this thread found the simulation to be stopped. Used to detect that a step has been finished. */
+	private volatile int idleCount_ = 0;
+	
+	/** The file to which a checkpoint is written when the target time is reached in console mode (<code>null</code> for none). */
+	private volatile File checkpointFile_ = null;
+	
+	/** If the program is exited when the target time of a jump is reached in console mode. */
+	private volatile boolean exitAfterJump_ = true;
+	
+	/** The amount of worker threads to create. If smaller than 1 it's calculated from the amount of processors. */
+	private volatile int threadCount_ = -1;
 	
 	
 	/**
@@ -110,28 +125,28 @@ public final class SimulationMaster extends Thread{
 
 	/**
 	 * Method to let this thread start delegating work to subthreads. Work in the main function is resumed, the
-	 * subthreads (workers) will wake up again and the Renderer is notified to get active again.
+	 * subthreads (workers) will wake up again and the listeners are notified that the simulation is active again.
 	 */  
 	public synchronized void startThread(){
 		// write silent period log header
-		if(Vehicle.isSlowOn()) SlowPanel.writeSlowHeader();
+		if(config_.isSlowOn()) PrivacyLogWriter.log("Slow speed limit:" + config_.getSlowSpeedLimit() + ":Time to pseudonym change:" + config_.getTimeToPseudonymChange()); //$NON-NLS-1$ //$NON-NLS-2$
 		
-		if(Vehicle.isSilentPeriodsOn() && logSilentPeriodHeader_) {
+		if(config_.isSilentPeriodsOn() && logSilentPeriodHeader_) {
 			logSilentPeriodHeader_ = false;
-			PrivacyLogWriter.log("Silent Period:Duration:" + Vehicle.getTIME_OF_SILENT_PERIODS() + ":Frequency:" + Vehicle.getTIME_BETWEEN_SILENT_PERIODS());
+			PrivacyLogWriter.log("Silent Period:Duration:" + config_.getTimeOfSilentPeriods() + ":Frequency:" + config_.getTimeBetweenSilentPeriods());
 		}
 		
 		
 		
-		Renderer.getInstance().notifySimulationRunning(true);
+		engine_.fireSimulationRunning(true);
 		ErrorLog.log(Messages.getString("SimulationMaster.simulationStarted"), 2, SimulationMaster.class.getName(), "startThread", null); //$NON-NLS-1$ //$NON-NLS-2$
-		Renderer.getInstance().ReRender(true, false);
+		engine_.requestRender(true, false);
 		running_ = true;		
 	}
 
 	/**
 	 * Method to let this thread stop delegating work to subthreads. Work in the main function is suspended, the
-	 * subthreads (workers) will go to sleep and the Renderer is notified to get inactive.
+	 * subthreads (workers) will go to sleep and the listeners are notified that the simulation is inactive.
 	 */  
 	public synchronized void stopThread(){
 		if(running_) ErrorLog.log(Messages.getString("SimulationMaster.simulationStopped"), 2, SimulationMaster.class.getName(), "stopThread", null); //$NON-NLS-1$ //$NON-NLS-2$
@@ -148,7 +163,21 @@ public final class SimulationMaster extends Thread{
 		
 			workers_ = null;
 		}		
-		Renderer.getInstance().notifySimulationRunning(false);
+		engine_.fireSimulationRunning(false);
+	}
+	
+	/**
+	 * Stops the simulation and waits until the step which is currently processed has been finished so that the simulation
+	 * state is consistent (for example in order to write a {@link Checkpoint}). Must not be called from this thread.
+	 */
+	public void stopAndWait(){
+		stopThread();
+		int idleCount = idleCount_;
+		while(idleCount_ == idleCount && isAlive()){
+			try{
+				sleep(1);
+			} catch (Exception e){}
+		}
 	}
 	
 	/**
@@ -160,7 +189,7 @@ public final class SimulationMaster extends Thread{
 	public void jumpToTime(int time){
 		jumpTimeMode_ = true;
 		jumpTimeTarget_ = time;
-		if(!Renderer.getInstance().isConsoleStart())VanetSimStart.setProgressBar(true);
+		engine_.fireJumpToTime(true);
 		startThread();
 	}
 	
@@ -178,7 +207,7 @@ public final class SimulationMaster extends Thread{
 	 */
 	public void doOneStep(){
 		if(!running_){
-			Renderer.getInstance().notifySimulationRunning(true);
+			engine_.fireSimulationRunning(true);
 			doOneStep_ = true;
 		}
 	}
@@ -236,9 +265,16 @@ public final class SimulationMaster extends Thread{
 				ErrorLog.log(Messages.getString("SimulationMaster.errorAddingRemainingRegions"), 7, SimulationMaster.class.getName(), "createWorkers", e); //$NON-NLS-1$ //$NON-NLS-2$
 			}
 		}
-		barrierStart_ = new CyclicBarrier(threads + 1);
-		barrierDuringWork_ = new CyclicBarrier(threads);
-		barrierFinish_ = new CyclicBarrier(threads + 1);
+		// every worker gets an outbox with one bucket per worker so that messages can be delivered without locking
+		MessageOutbox[] outboxes = new MessageOutbox[threads];
+		for(int i = 0; i < threads; ++i){
+			outboxes[i] = new MessageOutbox(threads);
+			tmpWorkers.get(i).setMessageOutboxes(outboxes, i);
+		}
+		barrierStart_ = StepBarrier.create(threads + 1);
+		barrierDuringWork_ = StepBarrier.create(threads);
+		barrierFinish_ = StepBarrier.create(threads + 1);
+		barrierParty_ = threads;
 		Iterator<WorkerThread> iterator = tmpWorkers.iterator();
 		while(iterator.hasNext() ) { 
 			iterator.next().setBarriers(barrierStart_, barrierDuringWork_, barrierFinish_);
@@ -255,15 +291,10 @@ public final class SimulationMaster extends Thread{
 		setName("SimulationMaster"); //$NON-NLS-1$
 		int time, threads;
 		long renderTime;
-		Renderer renderer = Renderer.getInstance();
-		CyclicBarrier barrierRender = new CyclicBarrier(2);
-		renderer.setBarrierForSimulationMaster(barrierRender);
-		ReportingControlPanel statsPanel = null;
-		if(!Renderer.getInstance().isConsoleStart()) statsPanel = VanetSimStart.getMainControlPanel().getReportingPanel();
 		long timeOld = 0;
 		long timeNew = 0;
 		long timeDistance = 0;
-		boolean consoleStart = Renderer.getInstance().isConsoleStart();
+		boolean consoleStart = engine_.isConsoleStart();
 		KnownVehiclesList.setTimePerStep_(TIME_PER_STEP);
 		//GeneralLogWriter.setLogPath(System.getProperty("user.dir"));
 		//GeneralLogWriter.log("EventType,Attack,x1,y1,v1,x2,y2,v2,x3,y3,v3,x4,y4,v4,x5,y5,v5,x6,y6,v6,x7,y7,v7,x8,y8,v8,x9,y9,v9,x10,y10,v10");
@@ -271,11 +302,12 @@ public final class SimulationMaster extends Thread{
 			try{
 				if(running_ || doOneStep_){
 					renderTime = System.nanoTime();
-					barrierRender.reset();
+					engine_.fireStepStarted();
 					
 					while(workers_ == null){
 						if (Map.getInstance().getReadyState() == true && Scenario.getInstance().getReadyState() == true){	// wait until map is ready
-							if(Runtime.getRuntime().availableProcessors() < 2) threads = 1;	// on single processor systems or if system reports wrong (smaller 1) amount of CPUs => fallback to 1 CPU and 1 thread
+							if(threadCount_ > 0) threads = threadCount_;
+							else if(Runtime.getRuntime().availableProcessors() < 2) threads = 1;	// on single processor systems or if system reports wrong (smaller 1) amount of CPUs => fallback to 1 CPU and 1 thread
 							else threads = Runtime.getRuntime().availableProcessors() * 2;		// on multiprocessor systems use double the amount of threads to use ressources more efficiently
 							long max_heap = Runtime.getRuntime().maxMemory()/1048576;		// Heap memory in MB
 							ErrorLog.log(Messages.getString("SimulationMaster.preparingSimulation") + threads + Messages.getString("SimulationMaster.threadsDetected") + max_heap + Messages.getString("SimulationMaster.heapMemory"), 3, SimulationMaster.class.getName(), "run", null); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
@@ -285,24 +317,30 @@ public final class SimulationMaster extends Thread{
 							sleep(50);
 						}
 					}					
-					time = renderer.getTimePassed() + TIME_PER_STEP;
+					time = engine_.getTimePassed() + TIME_PER_STEP;
 
 					//process events
 					eventList_.processEvents(time);	
 
 					// (re)start the working threads
-					barrierStart_.await();
+					barrierStart_.await(barrierParty_);
 
 					// wait for all working threads to finish to prevent drawing an inconsistent state!
-					barrierFinish_.await();	
+					barrierFinish_.await(barrierParty_);	
+					
+					// move the vehicles which changed their region into their new regions
+					if(config_.isDeterministicMode()) WorkerThread.applyRegionChangesOrdered(workers_);
+					else for(int i = 0; i < workers_.length; ++i) workers_[i].applyRegionChanges();
+					
+					// make sure that the log records of this step have been written
+					AsyncLogPipeline.flush();
+					
+					// apply the lane changes and steady IDs of this step in a fixed order
+					if(config_.isDeterministicMode()) Vehicle.finishDeterministicStep();
 
 					// Rendering itself can't be multithreaded and thus must be done here and not in the workers!
-					KnownVehiclesList.setTimePassed(time);
-					IDSProcessorList.setTimePassed(time);
-					KnownRSUsList.setTimePassed(time);
-					renderer.setTimePassed(time);		
-					KnownEventSourcesList.setTimePassed(time);
-					if(eventSpotCountdown_ < time) eventSpotCountdown_ = EventSpotList.getInstance().doStep(time);
+					engine_.setTimePassed(time);		
+					if(eventSpotList_.getEventSpotCountdown() < time) eventSpotList_.setEventSpotCountdown(eventSpotList_.doStep(time));
 
 					
 					//GeneralLogWriter.setLogPath(System.getProperty("user.dir"));
@@ -312,12 +350,8 @@ public final class SimulationMaster extends Thread{
 					
 					if(!jumpTimeMode_){
 						
-						renderer.ReRender(false, true);
-	
-						statsPanel.checkUpdates(TIME_PER_STEP);
-						// wait until rendering has completed
-						Thread.yield();
-						barrierRender.await(3, TimeUnit.SECONDS);
+						// let the listeners render and update statistics
+						engine_.fireStepCompleted(TIME_PER_STEP);
 	
 						// wait so that we get near the desired frames per second (no waiting if processing power wasn't enough!)
 						renderTime = ((System.nanoTime() - renderTime)/1000000);
@@ -347,25 +381,23 @@ public final class SimulationMaster extends Thread{
 									IDSLogWriter.log(IDSProcessor.getReport());
 								}
 								System.out.println("\n" + IDSProcessor.getReport());
+								if(checkpointFile_ != null) Checkpoint.save(checkpointFile_, null);
 									
 								//System.out.println("FN: " + IDSProcessor.counterFakeNegativ + " FP: " + IDSProcessor.counterFakePositiv + " TN:" + IDSProcessor.counterTrueNegativ + " TP:" + IDSProcessor.counterTruePositiv);
 								//createAndSaveSpamData();
 								//writeAverageKnownVehiclesTime();
 								//vehicleFluctuation();
-								System.exit(0);
-							}
-							if(!consoleStart){
-								VanetSimStart.setProgressBar(false);
-								renderer.ReRender(false, true);	
-								statsPanel.checkUpdates(TIME_PER_STEP);
+								if(exitAfterJump_) System.exit(0);
 							}
+							engine_.fireJumpToTime(false);
 						}
 					}
 					if(doOneStep_){
 						doOneStep_ = false;
-						renderer.notifySimulationRunning(false);
+						engine_.fireSimulationRunning(false);
 					}
 				} else {
+					++idleCount_;
 					sleep(50);
 				}
 			} catch (Exception e){};
@@ -380,29 +412,64 @@ public final class SimulationMaster extends Thread{
 	public boolean isSimulationRunning(){
 		return running_;
 	}
-
-	public boolean isGuiEnabled() {
-		return guiEnabled;
+	
+	/**
+	 * Sets the file to which a checkpoint is written when the target time of a jump is reached in console mode.
+	 * 
+	 * @param checkpointFile	the file or <code>null</code> if no checkpoint shall be written
+	 */
+	public void setCheckpointFile(File checkpointFile){
+		checkpointFile_ = checkpointFile;
 	}
-
-	public void setGuiEnabled(boolean guiEnabled) {
-		this.guiEnabled = guiEnabled;
+	
+	/**
+	 * Sets if the program is exited when the target time of a jump is reached in console mode.
+	 * 
+	 * @param exitAfterJump	<code>false</code> to only stop the simulation
+	 */
+	public void setExitAfterJump(boolean exitAfterJump){
+		exitAfterJump_ = exitAfterJump;
 	}
-
+	
 	/**
-	 * @return the eventSpotCountdown_
+	 * Sets the amount of worker threads. Only has an effect if the workers have not been created yet.
+	 * 
+	 * @param threadCount	the amount of threads or <code>-1</code> to use double the amount of processors
 	 */
-	public static  int getEventSpotCountdown_() {
-		return eventSpotCountdown_;
+	public void setThreadCount(int threadCount){
+		threadCount_ = threadCount;
 	}
-
+	
 	/**
-	 * @param eventSpotCountdown_ the eventSpotCountdown_ to set
+	 * Sets if the deterministic mode is used. In this mode messages are delivered ordered by their sender, new entries in the 
+	 * known vehicles and RSUs are sorted by their ID, the vehicles of a region are sorted by their steady ID and the lanes 
+	 * as well as the steady IDs of recycled vehicles are updated after the step in a fixed order. As a consequence, vehicles 
+	 * start driving one step later than usual. Thus, the results only depend on the scenario and not on the amount 
+	 * of worker threads or the scheduling of the threads. Has to be set before the workers are created.
+	 * 
+	 * @param deterministicMode	<code>true</code> to enable the deterministic mode
 	 */
-	public static void setEventSpotCountdown_(int eventSpotCountdown) {
-		eventSpotCountdown_ = eventSpotCountdown;
+	public static void setDeterministicMode(boolean deterministicMode){
+		SimulationConfig.getInstance().setDeterministicMode(deterministicMode);
 	}
 	
+	/**
+	 * Returns if the deterministic mode is used.
+	 * 
+	 * @return <code>true</code> if the results don't depend on the amount of worker threads
+	 */
+	public static boolean isDeterministicMode(){
+		return SimulationConfig.getInstance().isDeterministicMode();
+	}
+
+	public boolean isGuiEnabled() {
+		return guiEnabled;
+	}
+
+	public void setGuiEnabled(boolean guiEnabled) {
+		this.guiEnabled = guiEnabled;
+	}
+
 	/**
 	 * Writes any data to any filepath (used to save data after simulation end)
 	 */
@@ -0,0 +1,111 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A sense-reversing {@link StepBarrier}. Waiting threads first spin for a short time as the other workers normally 
+ * arrive within microseconds. Only if this takes longer, they park until the last party arrives. In contrast to a 
+ * <code>CyclicBarrier</code>, no lock is taken.
+ * <br><br>
+ * If a waiting thread is interrupted, the barrier is broken: the interrupted thread gets an <code>InterruptedException</code> 
+ * and all others get a <code>BrokenBarrierException</code> (like with a <code>CyclicBarrier</code>). A broken barrier can't be used again.
+ */
+public final class SpinParkBarrier extends StepBarrier{
+	
+	/** How often a waiting thread checks if the barrier was passed before it parks. Spinning is useless on single processor systems. */
+	private static final int SPIN_ITERATIONS = Runtime.getRuntime().availableProcessors() < 2 ? 0 : 20000;
+	
+	/** How many parties still need to arrive in the current generation. */
+	private final AtomicInteger remaining_;
+	
+	/** The sense of the current generation. Flipped by the last party to release all others. */
+	private volatile boolean sense_ = false;
+	
+	/** If the barrier is broken. */
+	private volatile boolean broken_ = false;
+	
+	/** The parked threads by their party index. */
+	private final AtomicReferenceArray<Thread> waiters_;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param parties	the amount of parties
+	 */
+	public SpinParkBarrier(int parties){
+		super(parties);
+		remaining_ = new AtomicInteger(parties);
+		waiters_ = new AtomicReferenceArray<Thread>(parties);
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.StepBarrier#doAwait(int)
+	 */
+	protected int doAwait(int party) throws InterruptedException, BrokenBarrierException{
+		if(broken_) throw new BrokenBarrierException();
+		// the sense can't change before we arrived so this is the sense of our generation
+		boolean sense = sense_;
+		int index = remaining_.decrementAndGet();
+		if(index == 0){	// we are the last one => start a new generation and release all others
+			remaining_.set(getParties());
+			sense_ = !sense;
+			wakeAll();
+			return 0;
+		}
+		for(int i = 0; i < SPIN_ITERATIONS; ++i){
+			if(sense_ != sense) return index;
+			if(broken_) throw new BrokenBarrierException();
+		}
+		Thread current = Thread.currentThread();
+		while(true){
+			// register again before every park as the slot might have been cleared by a wakeAll() of the last generation
+			waiters_.set(party, current);
+			if(sense_ != sense) return index;
+			if(broken_) throw new BrokenBarrierException();
+			if(Thread.interrupted()){
+				broken_ = true;
+				wakeAll();
+				throw new InterruptedException();
+			}
+			LockSupport.park(this);
+		}
+	}
+	
+	/**
+	 * Unparks all registered threads. Every cleared slot gets its thread unparked so that no registration is lost.
+	 */
+	private void wakeAll(){
+		Thread thread;
+		for(int i = 0; i < waiters_.length(); ++i){
+			thread = waiters_.getAndSet(i, null);
+			if(thread != null) LockSupport.unpark(thread);
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see vanetsim.simulation.StepBarrier#getNumberWaiting()
+	 */
+	public int getNumberWaiting(){
+		return getParties() - remaining_.get();
+	}
+}
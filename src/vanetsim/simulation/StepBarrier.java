@@ -0,0 +1,134 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import java.util.concurrent.BrokenBarrierException;
+
+/**
+ * A barrier which synchronizes the worker threads and the simulation master between the phases of a step. Each 
+ * party has a fixed index so that the time it waited can be recorded separately.
+ */
+public abstract class StepBarrier{
+	
+	/** If the {@link SpinParkBarrier} shall be used instead of the {@link CyclicStepBarrier}. */
+	private static boolean spinBarrierEnabled_ = false;
+	
+	/** The amount of parties. */
+	private final int parties_;
+	
+	/** How long each party waited in total (in ns). Each entry is only written by its own party. */
+	private final long[] waitTimes_;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param parties	the amount of parties which need to call {@link #await(int)}
+	 */
+	protected StepBarrier(int parties){
+		parties_ = parties;
+		waitTimes_ = new long[parties];
+	}
+	
+	/**
+	 * Creates a new barrier of the type set through {@link #setSpinBarrierEnabled(boolean)}.
+	 * 
+	 * @param parties	the amount of parties
+	 * 
+	 * @return the barrier
+	 */
+	public static StepBarrier create(int parties){
+		if(spinBarrierEnabled_) return new SpinParkBarrier(parties);
+		else return new CyclicStepBarrier(parties);
+	}
+	
+	/**
+	 * Waits until all parties have called this function and records the time waited.
+	 * 
+	 * @param party	the index of the calling party (from <code>0</code> to <code>getParties()-1</code>). Each party must always use the same index!
+	 * 
+	 * @return the arrival index of the calling party. <code>getParties()-1</code> for the first, <code>0</code> for the last
+	 * 
+	 * @throws InterruptedException		if the calling thread was interrupted while waiting. The barrier is broken afterwards.
+	 * @throws BrokenBarrierException	if another party was interrupted
+	 */
+	public final int await(int party) throws InterruptedException, BrokenBarrierException{
+		long start = System.nanoTime();
+		try{
+			return doAwait(party);
+		} finally {
+			waitTimes_[party] += System.nanoTime() - start;
+		}
+	}
+	
+	/**
+	 * Waits until all parties have called this function.
+	 * 
+	 * @param party	the index of the calling party
+	 * 
+	 * @return the arrival index of the calling party
+	 * 
+	 * @throws InterruptedException		if the calling thread was interrupted while waiting
+	 * @throws BrokenBarrierException	if another party was interrupted
+	 */
+	protected abstract int doAwait(int party) throws InterruptedException, BrokenBarrierException;
+	
+	/**
+	 * Gets the amount of parties currently waiting.
+	 * 
+	 * @return the amount of parties waiting
+	 */
+	public abstract int getNumberWaiting();
+	
+	/**
+	 * Gets the amount of parties.
+	 * 
+	 * @return the amount of parties
+	 */
+	public int getParties(){
+		return parties_;
+	}
+	
+	/**
+	 * Gets how long a party waited in total.
+	 * 
+	 * @param party	the index of the party
+	 * 
+	 * @return the time in ns
+	 */
+	public long getWaitTime(int party){
+		return waitTimes_[party];
+	}
+	
+	/**
+	 * Sets if the {@link SpinParkBarrier} shall be used for barriers created afterwards.
+	 * 
+	 * @param spinBarrierEnabled	<code>true</code> to use the {@link SpinParkBarrier}, <code>false</code> to use the {@link CyclicStepBarrier}
+	 */
+	public static void setSpinBarrierEnabled(boolean spinBarrierEnabled){
+		spinBarrierEnabled_ = spinBarrierEnabled;
+	}
+	
+	/**
+	 * Returns if the {@link SpinParkBarrier} is used.
+	 * 
+	 * @return <code>true</code> if it's used
+	 */
+	public static boolean isSpinBarrierEnabled(){
+		return spinBarrierEnabled_;
+	}
+}
@@ -17,18 +17,25 @@
  */
 package vanetsim.simulation;
 
-import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.concurrent.BrokenBarrierException;
-import java.util.concurrent.CyclicBarrier;
 
 import vanetsim.ErrorLog;
-import vanetsim.gui.Renderer;
 import vanetsim.localization.Messages;
-import vanetsim.map.Node;
 import vanetsim.map.Region;
 import vanetsim.scenario.Vehicle;
 import vanetsim.scenario.RSU;
+import vanetsim.scenario.messages.MessageOutbox;
+import vanetsim.simulation.phases.AdjustSpeedPhase;
+import vanetsim.simulation.phases.IDSPhase;
+import vanetsim.simulation.phases.MovePhase;
+import vanetsim.simulation.phases.RSUBeaconsPhase;
+import vanetsim.simulation.phases.RSUMessagesPhase;
+import vanetsim.simulation.phases.SimulationPhase;
+import vanetsim.simulation.phases.TrafficLightPhase;
+import vanetsim.simulation.phases.VehicleBeaconsPhase;
+import vanetsim.simulation.phases.VehicleMessagesPhase;
 
 
 /**
@@ -43,20 +50,30 @@ public final class WorkerThread extends Thread {
 	/** The available time in milliseconds to render in one step. This also determines how far a car moves in one time tick. */
 	private final int timePerStep_;
 	
-	/** The changed regions that need to be updated before doing the next step. */
-	private final LinkedHashSet<Integer> changedRegions_ = new LinkedHashSet<Integer>(16);
+	/** The vehicles which changed their region in the current step. */
+	private Vehicle[] regionChangeVehicles_ = new Vehicle[16];
 	
-	/** The <code>CyclicBarrier</code> called to schedule start of new work. */
-	private CyclicBarrier barrierStart_;
+	/** The regions the vehicles in <code>regionChangeVehicles_</code> came from. */
+	private Region[] regionChangeSources_ = new Region[16];
+	
+	/** The amount of region changes in the current step. */
+	private int regionChangeCount_ = 0;
+	
+	/** The barrier called to schedule start of new work. */
+	private StepBarrier barrierStart_;
 
-	/** The <code>CyclicBarrier</code> called during the work steps. */
-	private CyclicBarrier barrierDuringWork_;
+	/** The barrier called during the work steps. */
+	private StepBarrier barrierDuringWork_;
 
-	/** The <code>CyclicBarrier</code> called after performing all tasks. */
-	private CyclicBarrier barrierFinish_;
+	/** The barrier called after performing all tasks. */
+	private StepBarrier barrierFinish_;
+	
+	/** The outboxes of all worker threads. Messages sent by this thread are collected in <code>outboxes_[workerIndex_]</code>. */
+	private MessageOutbox[] outboxes_ = null;
+	
+	/** The index of this thread in the <code>outboxes_</code> array. */
+	private int workerIndex_ = -1;
 	
-	/** Select the simuation mode and switches between models and traces. 1 --> model VANETSim; 2 --> model IDS/MOBIL; 3 --> traces SJTU; 4 --> traces San Francisco */
-	private static int simulationMode_ = 1;
 	
 	/**
 	 * The main constructor for the worker thread. Don't use any other constructor inherited from the
@@ -73,71 +90,191 @@ public final class WorkerThread extends Thread {
 	}
 
 	/**
-	 * Set <code>CyclicBarriers</code> for thread synchronization.
+	 * Set barriers for thread synchronization. This worker uses its worker index as party on all barriers.
 	 * 
 	 * @param barrierStart 				the barrier for starting
 	 * @param barrierDuringWork	the barrier after adjusting the speed
 	 * @param barrierFinish				the barrier after completing all tasks
 	 */
-	public void setBarriers(CyclicBarrier barrierStart, CyclicBarrier barrierDuringWork, CyclicBarrier barrierFinish){
+	public void setBarriers(StepBarrier barrierStart, StepBarrier barrierDuringWork, StepBarrier barrierFinish){
 		barrierStart_ = barrierStart;
 		barrierDuringWork_ = barrierDuringWork;
 		barrierFinish_ = barrierFinish;
 	}
 
 	/**
-	 * Adds a region to the list of changed region (so that it gets updated).
+	 * Set the outboxes of all worker threads for batched message delivery. Has to be called before the barriers are set!
+	 * 
+	 * @param outboxes		the outboxes of all workers
+	 * @param workerIndex	the index of this worker in <code>outboxes</code>
+	 */
+	public void setMessageOutboxes(MessageOutbox[] outboxes, int workerIndex){
+		outboxes_ = outboxes;
+		workerIndex_ = workerIndex;
+	}
+	
+	/**
+	 * Gets the index of this worker thread.
 	 * 
-	 * @param i	the number of the region in this thread
+	 * @return the index or <code>-1</code> if no outboxes have been set yet
 	 */
-	public void addChangedRegion(int i){
-		synchronized(changedRegions_){
-			changedRegions_.add(Integer.valueOf(i));
+	public int getWorkerIndex(){
+		return workerIndex_;
+	}
+	
+	/**
+	 * Delivers all messages which were sent to vehicles and RSUs of this worker during the message phase. The messages 
+	 * of each sending worker are delivered in the order they were sent. In deterministic mode, the messages of all workers 
+	 * are delivered ordered by their sender instead. Must only be called after all workers have passed the barrier 
+	 * following the message phase!
+	 */
+	public void deliverMessages(){
+		if(SimulationMaster.isDeterministicMode()){
+			try{
+				MessageOutbox.deliverOrdered(outboxes_, workerIndex_);
+			} catch (Exception e){
+				//e.printStackTrace();
+			}
+			return;
+		}
+		for(int i = 0; i < outboxes_.length; ++i){
+			try{
+				outboxes_[i].deliver(workerIndex_);
+			} catch (Exception e){
+				//e.printStackTrace();
+			}
 		}
 	}
 
 	/**
-	 * The main method. All simulation is initiated from here!
+	 * Notes that a vehicle processed by this worker has changed its region. The regions are updated after the step in 
+	 * {@link #applyRegionChanges()} so that they don't need to be locked during the step. Must only be called by this thread!
+	 * 
+	 * @param vehicle	the vehicle (already knowing its new region)
+	 * @param oldRegion	the region the vehicle came from
 	 */
-	public void run() {
-		int i, j, length;
-		int ourRegionsLength = ourRegions_.length;
-		// An array copy of the vehicles instead of an ArrayList or something else is used because of three reasons:
-		// 1. While iterating through all regions, a ConcurrentModificationExceptions is thrown when a vehicle gets into a new region.
-		// 2. As we need the array anyways because of (1), we can use it cached for the other actions as well!
-		// 3. Converting an ArrayList to an array is quite fast - it's basically a System.arraycopy()-operation which is made
-		//    through a very fast system-memcpy(). The overhead for array construction is by far less than the overhead
-		//    caused by working with iterators (if there are lots of vehicles)!
-		Vehicle[][] vehicles = new Vehicle[ourRegionsLength][];
-		Vehicle[] vehicleSubarray;	// it is better to cache lookups in the double-array.
+	public void addRegionChange(Vehicle vehicle, Region oldRegion){
+		if(regionChangeCount_ == regionChangeVehicles_.length){
+			Vehicle[] newVehicles = new Vehicle[regionChangeCount_ * 2];
+			Region[] newSources = new Region[regionChangeCount_ * 2];
+			System.arraycopy (regionChangeVehicles_,0,newVehicles,0,regionChangeCount_);
+			System.arraycopy (regionChangeSources_,0,newSources,0,regionChangeCount_);
+			regionChangeVehicles_ = newVehicles;
+			regionChangeSources_ = newSources;
+		}
+		regionChangeVehicles_[regionChangeCount_] = vehicle;
+		regionChangeSources_[regionChangeCount_] = oldRegion;
+		++regionChangeCount_;
+	}
+	
+	/**
+	 * Moves all vehicles which changed their region in this step from their old into their new region. Must only be called 
+	 * by the <code>SimulationMaster</code> after all workers have finished the step!
+	 */
+	public void applyRegionChanges(){
+		Vehicle vehicle;
+		for(int i = 0; i < regionChangeCount_; ++i){
+			vehicle = regionChangeVehicles_[i];
+			regionChangeSources_[i].delVehicle(vehicle);
+			vehicle.getRegion().addVehicle(vehicle, true);	// the vehicle might have changed its region twice in this step
+			regionChangeVehicles_[i] = null;	// don't prevent garbage collection
+			regionChangeSources_[i] = null;
+		}
+		regionChangeCount_ = 0;
+	}
+
+	/**
+	 * Moves all vehicles which changed their region in this step from their old into their new region ordered by their 
+	 * steady ID. This way, the order of the vehicles in the regions doesn't depend on the amount of workers, so that the 
+	 * workers can iterate over the regions directly in deterministic mode. Must only be called by the 
+	 * <code>SimulationMaster</code> after all workers have finished the step!
+	 * 
+	 * @param workers	all workers of the simulation
+	 */
+	public static void applyRegionChangesOrdered(WorkerThread[] workers){
+		int i, j, count = 0;
+		for(i = 0; i < workers.length; ++i) count += workers[i].regionChangeCount_;
+		if(count == 0) return;
+		Vehicle[] vehicles = new Vehicle[count];
+		Region[] sources = new Region[count];
+		long[] keys = new long[count];
+		int position = 0;
+		WorkerThread worker;
+		for(i = 0; i < workers.length; ++i){
+			worker = workers[i];
+			for(j = 0; j < worker.regionChangeCount_; ++j){
+				vehicles[position] = worker.regionChangeVehicles_[j];
+				sources[position] = worker.regionChangeSources_[j];
+				// the position in the lower bits keeps the order if a vehicle changed its region twice
+				keys[position] = ((long)vehicles[position].getSteadyID() << 32) | position;
+				worker.regionChangeVehicles_[j] = null;	// don't prevent garbage collection
+				worker.regionChangeSources_[j] = null;
+				++position;
+			}
+			worker.regionChangeCount_ = 0;
+		}
+		Arrays.sort(keys);
 		Vehicle vehicle;
+		for(i = 0; i < count; ++i){
+			position = (int)keys[i];
+			vehicle = vehicles[position];
+			sources[position].delVehicle(vehicle);
+			vehicle.getRegion().addVehicle(vehicle, true);	// the vehicle might have changed its region twice in this step
+		}
+	}
+
+	/**
+	 * Creates the ordered list of phases which are run in every step. Phases which are disabled in this simulation are 
+	 * left out completely.
+	 * 
+	 * @param outbox	the outbox of this worker
+	 * 
+	 * @return the phases
+	 */
+	private SimulationPhase[] createPhases(MessageOutbox outbox){
+		SimulationConfig config = SimulationConfig.getInstance();
+		boolean communicationEnabled = config.isCommunicationEnabled();
+		ArrayList<SimulationPhase> phases = new ArrayList<SimulationPhase>(8);
 		
-		int tmpTimePassed = 999999999;
-		int tmpTimePassedSaved = 99999999;
-		int silentPeriodDuration = Vehicle.getTIME_OF_SILENT_PERIODS();
-		int silentPeriodFrequency = Vehicle.getTIME_BETWEEN_SILENT_PERIODS();
+		// Adjust speed, do message cleanup and create jam messages
+		phases.add(new AdjustSpeedPhase(config.getSimulationMode(), timePerStep_, communicationEnabled, communicationEnabled && config.isBeaconsEnabled()));
+		// Send messages. All vehicles of this worker send before the RSUs.
+		if(communicationEnabled){
+			phases.add(new VehicleMessagesPhase(outbox));
+			phases.add(new RSUMessagesPhase(this, outbox));
+		}
+		// IDS calculations
+		if(config.isIdsActivated()) phases.add(new IDSPhase());
+		// Send beacons. All vehicles of this worker send before the RSUs.
+		if(communicationEnabled && config.isBeaconsEnabled()){
+			phases.add(new VehicleBeaconsPhase(config.isDeterministicMode()));
+			phases.add(new RSUBeaconsPhase());
+		}
+		// Move all vehicles one step further
+		phases.add(new MovePhase(timePerStep_, config.isRecyclingEnabled()));
+		// Check the states of all traffic lights and change if necessary (traffic lights are not used with traces and IDM/MOBIL)
+		if(config.getSimulationMode() == 1) phases.add(new TrafficLightPhase(timePerStep_));
 		
+		return phases.toArray(new SimulationPhase[phases.size()]);
+	}
+
+	/**
+	 * The main method. All simulation is initiated from here!
+	 */
+	public void run() {
+		int i, j;
+		int ourRegionsLength = ourRegions_.length;
+		// The vehicles of the regions are not copied: vehicles which get into a new region are only noted during the step 
+		// and moved by the SimulationMaster after all workers have finished, so the phases can iterate over the regions directly.
 		RSU[][] rsus = new RSU[ourRegionsLength][];
-		RSU[] rsuSubarray;	// it is better to cache lookups in the double-array.
-		RSU rsu;
-		
-		//ArrayList<IDSProcessor> idsReady_ = new ArrayList<IDSProcessor>();
 		
-		Iterator<Integer> changedRegionIterator;
-		int tmp;
 
 		for(i = 0; i < ourRegionsLength; ++i){
-			ourRegions_[i].createBacklink(this, i);
-			ourRegions_[i].calculateJunctions();	//recalculate because user might have edited map after loading
-			vehicles[i] = ourRegions_[i].getVehicleArray();
+			ourRegions_[i].createBacklink(this);
+			ourRegions_[i].calculateJunctionsOnStart();	//recalculate because user might have edited map after loading
 			
 			rsus[i] = ourRegions_[i].getRSUs();
 		}
-
-		boolean communicationEnabled = Vehicle.getCommunicationEnabled();
-		boolean beaconsEnabled = Vehicle.getBeaconsEnabled();
-		boolean recyclingEnabled = Vehicle.getRecyclingEnabled();
-		boolean idsEnabled = Vehicle.isIdsActivated();
 		
 		//sleep if no barriers have been set yet
 		while (barrierStart_ == null || barrierDuringWork_ == null || barrierFinish_ == null){
@@ -145,996 +282,78 @@ public final class WorkerThread extends Thread {
 				sleep(50);
 			} catch (Exception e){}
 		}
+		SimulationPhase[] phases = createPhases(outboxes_[workerIndex_]);
+		int lastPhase = phases.length - 1;
+		SimulationPhase phase;
+		StepBarrier barrier;
 
 		// the try/catch-expressions are done in a way that the least possible amount is needed while still assuring some fail-safety.
 		// To debug problems or new functions, it is recommended to move the "try"s down so that they are just around the "wait()"-calls!
-		// Using redundant code for performance issues when switching between models and traces
-		
-		if(simulationMode_ == 1){
-			while(true){
-				// ================================= 
-				// Step 1: Update changed regions with new vehicle arrays
-				// ================================= 
-				if(changedRegions_.size() > 0){
-					changedRegionIterator = changedRegions_.iterator();
-					while(changedRegionIterator.hasNext()){
-						tmp = changedRegionIterator.next().intValue();
-						vehicles[tmp] = ourRegions_[tmp].getVehicleArray();
-					}
-					changedRegions_.clear();
-				}
-				// ================================= 
-				// Step 2: Wait for SimulationMaster to start
-				// ================================= 		
-				try{
-					barrierStart_.await();
-				} catch (InterruptedException e){	// master wants us to stop!
-					break;
-				} catch (BrokenBarrierException e){	// master wants us to stop!
-					break;
-				} catch (Exception e){
-					//e.printStackTrace();
-				}
-
-				// ================================= 
-				// Step 3: Adjust speed, do message cleanup and create jam messages
-				// ================================= 
-				try{
-					//vehicles: adjustSpeed()
-					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							vehicleSubarray[j].adjustSpeed(timePerStep_);
-						}
-					}
-					
-					//rsus: cleanup old messages
-					for(i = 0; i < ourRegionsLength; ++i){
-						rsuSubarray = rsus[i];
-						length = rsuSubarray.length;
-						for(j = 0; j < length; ++j){
-							rsuSubarray[j].cleanup(timePerStep_);
-						}
-					}
-
-					
-					// Wait for all concurrent threads to synchronize			
-					
-					barrierDuringWork_.await();
-				} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-				} catch (Exception e){
-					//e.printStackTrace();
-					try{
-						barrierDuringWork_.await();
-					}catch (Exception e2){}
-				}
-					
-				// ================================= 
-				// Step 4: Send messages.
-				// ================================= 
-				if(communicationEnabled){
-					try{
-						//vehicles send messages
-					
-						for(i = 0; i < ourRegionsLength; ++i){
-							vehicleSubarray = vehicles[i];
-							length = vehicleSubarray.length;
-							for(j = 0; j < length; ++j){
-								vehicle = vehicleSubarray[j];
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getCommunicationCountdown() < 1){
-									vehicle.sendMessages();
-								}
-							}
-						}
-						
-						//rsus: send messages
-						for(i = 0; i < ourRegionsLength; ++i){
-							rsuSubarray = rsus[i];
-							length = rsuSubarray.length;
-							for(j = 0; j < length; ++j){
-								rsu = rsuSubarray[j];
-								if(rsu.getCommunicationCountdown() < 1 && !rsu.isEncrypted_()){
-									rsuSubarray[j].sendMessages();	
-								}
-							}
-						}
-						
-						// Wait for all concurrent threads to synchronize
-						
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
-						try{
-							barrierDuringWork_.await();
-						}catch (Exception e2){}
-					}
-				}
-				
-				// ================================= 
-				// Step 4b: IDS calculations
-				// ================================= 
-				
-				if(idsEnabled){	
-					try{
-					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							vehicle = vehicleSubarray[j];
-							if(vehicle.isCheckIDSProcessors_()){
-								vehicle.getIdsProcessorList_().fireIDSProcessors();
-							}
-						}
-					}
-						
-						// Wait for all concurrent threads to synchronize
-					
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
-						try{
-							barrierDuringWork_.await();
-						}catch (Exception e2){}
-					}
-				}	
-
-				// ================================= 
-				// Step 5a:  Send beacons. Beacons are sent here so that they are not considered in the current step yet!
-				//          Putting this in the movement step is not possible!
-				// ================================= 
-				if(communicationEnabled && beaconsEnabled){
-					try{
-					//handle silent periods
-					if(Vehicle.isSilentPeriodsOn()){
-						tmpTimePassed = Renderer.getInstance().getTimePassed();
-						if(tmpTimePassed > silentPeriodFrequency && tmpTimePassed%(silentPeriodDuration + silentPeriodFrequency) < 240){
-							tmpTimePassedSaved = tmpTimePassed;
-							Vehicle.setSilent_period(true);
-						}
-						else if(Vehicle.isSilent_period() && tmpTimePassed > (tmpTimePassedSaved + silentPeriodDuration)) Vehicle.setSilent_period(false);
-					}
-
-						//vehicles: send beacons
-						for(i = 0; i < ourRegionsLength; ++i){
-							vehicleSubarray = vehicles[i];
-							length = vehicleSubarray.length;
-							for(j = 0; j < length; ++j){
-								vehicle = vehicleSubarray[j];
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getBeaconCountdown() < 1 && !vehicle.isInMixZone()){
-									vehicle.sendBeacons();
-								}
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getBeaconCountdown() < 1 && vehicle.isInMixZone() && vehicle.getCurMixNode_() != null && vehicle.getCurMixNode_().getEncryptedRSU_() != null){
-									vehicle.sendEncryptedBeacons();
-								}
-							}
-						}
-
-						//rsu: send beacons
-						for(i = 0; i < ourRegionsLength; ++i){
-							rsuSubarray = rsus[i];
-							length = rsuSubarray.length;
-							for(j = 0; j < length; ++j){
-								rsu = rsuSubarray[j];
-								if(rsu.getBeaconCountdown() < 1 && !rsu.isEncrypted_()) rsu.sendBeacons();
-								if(rsu.getBeaconCountdown() < 1 && rsu.isEncrypted_()) rsu.sendEncryptedBeacons();
-							}
-						}
-						
-						// Wait for all concurrent threads to synchronize
-						
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
-						try{
-							barrierDuringWork_.await();
-						}catch (Exception e2){}
-					}
-				}
-
-				// ================================= 
-				// Step 5b: Move attacker
-				// ================================= 
-				
-				/*
-					if(Renderer.getInstance().getAttackerVehicle() != null) Renderer.getInstance().getAttackerVehicle().moveAttacker();
-				*/
-					
-				// ================================= 
-				// Step 6: Move all vehicles one step further
-				// ================================= 
-				try{
-					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							if(vehicleSubarray[j].isActive()) vehicleSubarray[j].move(timePerStep_);
-							else if(recyclingEnabled && vehicleSubarray[j].getMayBeRecycled() && !vehicleSubarray[j].isDoNotRecycle_()) vehicleSubarray[j].reset();
-							
-						}
-					}
-					
-					// Wait for all concurrent threads to synchronize	
-					
-						barrierDuringWork_.await();
-				} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-				} catch (Exception e){
-					//e.printStackTrace();
-					try{
-						barrierDuringWork_.await();	//need to wait again...
-					}catch (Exception e2){}
-				}		
-
-				
-				// ================================= 
-				// Step 7: Check the states of all traffic lights and change if necessary
-				// ================================= 
-				try{
-				Node[] tmpNodes = null;
-				for(i = 0; i < ourRegions_.length; i++){
-					tmpNodes = ourRegions_[i].getNodes();
-					for(j = 0; j < tmpNodes.length; j++){
-						if(tmpNodes[j].isHasTrafficSignal_() && tmpNodes[j].getJunction() != null && tmpNodes[j].getJunction().getNode().getTrafficLight_() != null){	
-							tmpNodes[j].getJunction().getNode().getTrafficLight_().changePhases(timePerStep_);						
-						}
-					}
-				}
-				
-					// Wait for all concurrent threads to synchronize	
-				
-					barrierFinish_.await();
-				} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-				} catch (Exception e){
-					//e.printStackTrace();
-					try{
-						barrierFinish_.await();	//need to wait again...
-					}catch (Exception e2){}
-				}	
-				
-				
-			}
-		}
-		
-		else if(simulationMode_ == 2){
-			while(true){
-				// ================================= 
-				// Step 1: Update changed regions with new vehicle arrays
-				// ================================= 
-				if(changedRegions_.size() > 0){
-					changedRegionIterator = changedRegions_.iterator();
-					while(changedRegionIterator.hasNext()){
-						tmp = changedRegionIterator.next().intValue();
-						vehicles[tmp] = ourRegions_[tmp].getVehicleArray();
-					}
-					changedRegions_.clear();
-				}
-				// ================================= 
-				// Step 2: Wait for SimulationMaster to start
-				// ================================= 		
-				try{
-					barrierStart_.await();
-				} catch (InterruptedException e){	// master wants us to stop!
-					break;
-				} catch (BrokenBarrierException e){	// master wants us to stop!
-					break;
-				} catch (Exception e){
-					//e.printStackTrace();
-				}
-
-				// ================================= 
-				// Step 3: Adjust speed, do message cleanup and create jam messages
-				// ================================= 
-				
-					//vehicles: adjustSpeed()
-					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							vehicleSubarray[j].adjustSpeedWithIDM(timePerStep_);
-						}
-					}
-					
-					//rsus: cleanup old messages
-					for(i = 0; i < ourRegionsLength; ++i){
-						rsuSubarray = rsus[i];
-						length = rsuSubarray.length;
-						for(j = 0; j < length; ++j){
-							rsuSubarray[j].cleanup(timePerStep_);
-						}
-					}
-
-					
-					// Wait for all concurrent threads to synchronize			
-					try{	
-					barrierDuringWork_.await();
-				} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-				} catch (Exception e){
-					//e.printStackTrace();
-					try{
-						barrierDuringWork_.await();
-					}catch (Exception e2){}
-				}
-					
-				// ================================= 
-				// Step 4: Send messages.
-				// ================================= 
-				if(communicationEnabled){
-					
-						//vehicles send messages
-					
-						for(i = 0; i < ourRegionsLength; ++i){
-							vehicleSubarray = vehicles[i];
-							length = vehicleSubarray.length;
-							for(j = 0; j < length; ++j){
-								vehicle = vehicleSubarray[j];
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getCommunicationCountdown() < 1){
-									vehicle.sendMessages();
-								}
-							}
-						}
-						
-						//rsus: send messages
-						for(i = 0; i < ourRegionsLength; ++i){
-							rsuSubarray = rsus[i];
-							length = rsuSubarray.length;
-							for(j = 0; j < length; ++j){
-								rsu = rsuSubarray[j];
-								if(rsu.getCommunicationCountdown() < 1 && !rsu.isEncrypted_()){
-									rsuSubarray[j].sendMessages();	
-								}
-							}
-						}
-						
-						// Wait for all concurrent threads to synchronize
-						try{
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
-						try{
-							barrierDuringWork_.await();
-						}catch (Exception e2){}
-					}
-				}
-				
-				// ================================= 
-				// Step 4b: IDS calculations
-				// ================================= 
-			
-				if(idsEnabled){	
-				
-					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							vehicle = vehicleSubarray[j];
-							if(vehicle.isCheckIDSProcessors_()){
-								vehicle.getIdsProcessorList_().fireIDSProcessors();
-							}
-						}
-					}
-						
-						// Wait for all concurrent threads to synchronize
-					try{
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
-						try{
-							barrierDuringWork_.await();
-						}catch (Exception e2){}
-					}
-				}	
-
-				// ================================= 
-				// Step 5a:  Send beacons. Beacons are sent here so that they are not considered in the current step yet!
-				//          Putting this in the movement step is not possible!
-				// ================================= 
-				if(communicationEnabled && beaconsEnabled){
-				
-					//handle silent periods
-					if(Vehicle.isSilentPeriodsOn()){
-						tmpTimePassed = Renderer.getInstance().getTimePassed();
-						if(tmpTimePassed > silentPeriodFrequency && tmpTimePassed%(silentPeriodDuration + silentPeriodFrequency) < 240){
-							tmpTimePassedSaved = tmpTimePassed;
-							Vehicle.setSilent_period(true);
-						}
-						else if(Vehicle.isSilent_period() && tmpTimePassed > (tmpTimePassedSaved + silentPeriodDuration)) Vehicle.setSilent_period(false);
-					}
-
-						//vehicles: send beacons
-						for(i = 0; i < ourRegionsLength; ++i){
-							vehicleSubarray = vehicles[i];
-							length = vehicleSubarray.length;
-							for(j = 0; j < length; ++j){
-								vehicle = vehicleSubarray[j];
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getBeaconCountdown() < 1 && !vehicle.isInMixZone()){
-									vehicle.sendBeacons();
-								}
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getBeaconCountdown() < 1 && vehicle.isInMixZone() && vehicle.getCurMixNode_() != null && vehicle.getCurMixNode_().getEncryptedRSU_() != null){
-									vehicle.sendEncryptedBeacons();
-								}
-							}
-						}
-
-						//rsu: send beacons
-						for(i = 0; i < ourRegionsLength; ++i){
-							rsuSubarray = rsus[i];
-							length = rsuSubarray.length;
-							for(j = 0; j < length; ++j){
-								rsu = rsuSubarray[j];
-								if(rsu.getBeaconCountdown() < 1 && !rsu.isEncrypted_()) rsu.sendBeacons();
-								if(rsu.getBeaconCountdown() < 1 && rsu.isEncrypted_()) rsu.sendEncryptedBeacons();
-							}
-						}
-						
-						// Wait for all concurrent threads to synchronize
-						try{
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
-						try{
-							barrierDuringWork_.await();
-						}catch (Exception e2){}
-					}
-				}
-
-				// ================================= 
-				// Step 5b: Move attacker
-				// ================================= 
-				
-				/*
-					if(Renderer.getInstance().getAttackerVehicle() != null) Renderer.getInstance().getAttackerVehicle().moveAttacker();
-				*/
-					
-				// ================================= 
-				// Step 6: Move all vehicles one step further
-				// ================================= 
-				
-					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							if(vehicleSubarray[j].isActive()) vehicleSubarray[j].move(timePerStep_);
-							else if(recyclingEnabled && vehicleSubarray[j].getMayBeRecycled() && !vehicleSubarray[j].isDoNotRecycle_()) vehicleSubarray[j].reset();
-							
-						}
-					}
-					
-					// Wait for all concurrent threads to synchronize	
-					try{
-					barrierFinish_.await();
-				} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-				} catch (Exception e){
-					//e.printStackTrace();
-					try{
-						barrierFinish_.await();	//need to wait again...
-					}catch (Exception e2){}
-				}		
-
-				
-				// ================================= 
-				// Step 7: Check the states of all traffic lights and change if necessary
-				// ================================= 
-			/*
-				Node[] tmpNodes = null;
-				for(i = 0; i < ourRegions_.length; i++){
-					tmpNodes = ourRegions_[i].getNodes();
-					for(j = 0; j < tmpNodes.length; j++){
-						if(tmpNodes[j].isHasTrafficSignal_() && tmpNodes[j].getJunction() != null && tmpNodes[j].getJunction().getNode().getTrafficLight_() != null){	
-							tmpNodes[j].getJunction().getNode().getTrafficLight_().changePhases(timePerStep_);						
-						}
-					}
-				}
-
-				*/
-				
+		while(true){
+			// ================================= 
+			// Step 1: Wait for SimulationMaster to start
+			// ================================= 		
+			try{
+				barrierStart_.await(workerIndex_);
+			} catch (InterruptedException e){	// master wants us to stop!
+				break;
+			} catch (BrokenBarrierException e){	// master wants us to stop!
+				break;
+			} catch (Exception e){
+				//e.printStackTrace();
 			}
-		}
-		
-		if(simulationMode_ == 3){
-			while(true){
-				// ================================= 
-				// Step 1: Update changed regions with new vehicle arrays
-				// ================================= 
-				if(changedRegions_.size() > 0){
-					changedRegionIterator = changedRegions_.iterator();
-					while(changedRegionIterator.hasNext()){
-						tmp = changedRegionIterator.next().intValue();
-						vehicles[tmp] = ourRegions_[tmp].getVehicleArray();
-					}
-					changedRegions_.clear();
-				}
-				// ================================= 
-				// Step 2: Wait for SimulationMaster to start
-				// ================================= 		
-				try{
-					barrierStart_.await();
-				} catch (InterruptedException e){	// master wants us to stop!
-					break;
-				} catch (BrokenBarrierException e){	// master wants us to stop!
-					break;
-				} catch (Exception e){
-					//e.printStackTrace();
-				}
-
-				// ================================= 
-				// Step 3: Adjust speed, do message cleanup and create jam messages
-				// ================================= 
-				try{
-					//vehicles: adjustSpeed()
-					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							vehicleSubarray[j].adjustSpeedWithSJTUTraceFiles(timePerStep_);
-						}
-					}
-					
-					//rsus: cleanup old messages
-					for(i = 0; i < ourRegionsLength; ++i){
-						rsuSubarray = rsus[i];
-						length = rsuSubarray.length;
-						for(j = 0; j < length; ++j){
-							rsuSubarray[j].cleanup(timePerStep_);
-						}
-					}
-
-					
-					// Wait for all concurrent threads to synchronize			
-					
-					barrierDuringWork_.await();
-				} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-				} catch (Exception e){
-					//e.printStackTrace();
-					try{
-						barrierDuringWork_.await();
-					}catch (Exception e2){}
-				}
-					
-				// ================================= 
-				// Step 4: Send messages.
-				// ================================= 
-				if(communicationEnabled){
-					try{
-						//vehicles send messages
-					
-						for(i = 0; i < ourRegionsLength; ++i){
-							vehicleSubarray = vehicles[i];
-							length = vehicleSubarray.length;
-							for(j = 0; j < length; ++j){
-								vehicle = vehicleSubarray[j];
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getCommunicationCountdown() < 1){
-									vehicle.sendMessages();
-								}
-							}
-						}
-						
-						//rsus: send messages
-						for(i = 0; i < ourRegionsLength; ++i){
-							rsuSubarray = rsus[i];
-							length = rsuSubarray.length;
-							for(j = 0; j < length; ++j){
-								rsu = rsuSubarray[j];
-								if(rsu.getCommunicationCountdown() < 1 && !rsu.isEncrypted_()){
-									rsuSubarray[j].sendMessages();	
-								}
-							}
-						}
-						
-						// Wait for all concurrent threads to synchronize
-						
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
-						try{
-							barrierDuringWork_.await();
-						}catch (Exception e2){}
-					}
-				}
-				
-				// ================================= 
-				// Step 4b: IDS calculations
-				// ================================= 
-			
-				if(idsEnabled){	
-					try{
-					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							vehicle = vehicleSubarray[j];
-							if(vehicle.isCheckIDSProcessors_()){
-								vehicle.getIdsProcessorList_().fireIDSProcessors();
-							}
-						}
-					}
-						
-						// Wait for all concurrent threads to synchronize
-					
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
-						try{
-							barrierDuringWork_.await();
-						}catch (Exception e2){}
-					}
-				}	
-
-				// ================================= 
-				// Step 5a:  Send beacons. Beacons are sent here so that they are not considered in the current step yet!
-				//          Putting this in the movement step is not possible!
-				// ================================= 
-				if(communicationEnabled && beaconsEnabled){
-					try{
-					//handle silent periods
-					if(Vehicle.isSilentPeriodsOn()){
-						tmpTimePassed = Renderer.getInstance().getTimePassed();
-						if(tmpTimePassed > silentPeriodFrequency && tmpTimePassed%(silentPeriodDuration + silentPeriodFrequency) < 240){
-							tmpTimePassedSaved = tmpTimePassed;
-							Vehicle.setSilent_period(true);
-						}
-						else if(Vehicle.isSilent_period() && tmpTimePassed > (tmpTimePassedSaved + silentPeriodDuration)) Vehicle.setSilent_period(false);
-					}
-
-						//vehicles: send beacons
-						for(i = 0; i < ourRegionsLength; ++i){
-							vehicleSubarray = vehicles[i];
-							length = vehicleSubarray.length;
-							for(j = 0; j < length; ++j){
-								vehicle = vehicleSubarray[j];
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getBeaconCountdown() < 1 && !vehicle.isInMixZone()){
-									vehicle.sendBeacons();
-								}
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getBeaconCountdown() < 1 && vehicle.isInMixZone() && vehicle.getCurMixNode_() != null && vehicle.getCurMixNode_().getEncryptedRSU_() != null){
-									vehicle.sendEncryptedBeacons();
-								}
-							}
-						}
 
-						//rsu: send beacons
-						for(i = 0; i < ourRegionsLength; ++i){
-							rsuSubarray = rsus[i];
-							length = rsuSubarray.length;
-							for(j = 0; j < length; ++j){
-								rsu = rsuSubarray[j];
-								if(rsu.getBeaconCountdown() < 1 && !rsu.isEncrypted_()) rsu.sendBeacons();
-								if(rsu.getBeaconCountdown() < 1 && rsu.isEncrypted_()) rsu.sendEncryptedBeacons();
-							}
-						}
-						
-						// Wait for all concurrent threads to synchronize
-						
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
-						try{
-							barrierDuringWork_.await();
-						}catch (Exception e2){}
-					}
-				}
-
-				// ================================= 
-				// Step 5b: Move attacker
-				// ================================= 
-				
-				/*
-					if(Renderer.getInstance().getAttackerVehicle() != null) Renderer.getInstance().getAttackerVehicle().moveAttacker();
-				*/
-					
-				// ================================= 
-				// Step 6: Move all vehicles one step further
-				// ================================= 
-				try{
-					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							if(vehicleSubarray[j].isActive()) vehicleSubarray[j].move(timePerStep_);
-							else if(recyclingEnabled && vehicleSubarray[j].getMayBeRecycled() && !vehicleSubarray[j].isDoNotRecycle_()) vehicleSubarray[j].reset();
-							
-						}
-					}
-					
-					// Wait for all concurrent threads to synchronize	
-					
-					barrierFinish_.await();
-				} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-				} catch (Exception e){
-					//e.printStackTrace();
-					try{
-						barrierFinish_.await();	//need to wait again...
-					}catch (Exception e2){}
-				}		
-
-				
-				// ================================= 
-				// Step 7: Check the states of all traffic lights and change if necessary
-				// ================================= 
-			/*
-				Node[] tmpNodes = null;
-				for(i = 0; i < ourRegions_.length; i++){
-					tmpNodes = ourRegions_[i].getNodes();
-					for(j = 0; j < tmpNodes.length; j++){
-						if(tmpNodes[j].isHasTrafficSignal_() && tmpNodes[j].getJunction() != null && tmpNodes[j].getJunction().getNode().getTrafficLight_() != null){	
-							tmpNodes[j].getJunction().getNode().getTrafficLight_().changePhases(timePerStep_);						
-						}
-					}
-				}
-
-				*/
-				
+			// ================================= 
+			// Step 2: Update the vehicle sets. This needs to be done after the start as the SimulationMaster moves the vehicles 
+			// which changed their region into their new regions after the last step.
+			// ================================= 
+			for(i = 0; i < ourRegionsLength; ++i){
+				// the phases only iterate over the vehicles they need
+				ourRegions_[i].updateVehicleStates();
 			}
-		}
-		
-		if(simulationMode_ == 4){
-			while(true){
-				// ================================= 
-				// Step 1: Update changed regions with new vehicle arrays
-				// ================================= 
-				if(changedRegions_.size() > 0){
-					changedRegionIterator = changedRegions_.iterator();
-					while(changedRegionIterator.hasNext()){
-						tmp = changedRegionIterator.next().intValue();
-						vehicles[tmp] = ourRegions_[tmp].getVehicleArray();
-					}
-					changedRegions_.clear();
-				}
-				// ================================= 
-				// Step 2: Wait for SimulationMaster to start
-				// ================================= 		
-				try{
-					barrierStart_.await();
-				} catch (InterruptedException e){	// master wants us to stop!
-					break;
-				} catch (BrokenBarrierException e){	// master wants us to stop!
-					break;
-				} catch (Exception e){
-					//e.printStackTrace();
-				}
 
-				// ================================= 
-				// Step 3: Adjust speed, do message cleanup and create jam messages
-				// ================================= 
+			// ================================= 
+			// Step 3: Run all phases. The last one waits for the SimulationMaster to finish the step.
+			// ================================= 
+			for(j = 0; j <= lastPhase; ++j){
+				phase = phases[j];
+				if(j == lastPhase) barrier = barrierFinish_;
+				else if(phase.getBarrierPolicy() == SimulationPhase.BARRIER_DURING_WORK) barrier = barrierDuringWork_;
+				else barrier = null;
 				try{
-					//vehicles: adjustSpeed()
+					phase.beforeRegions();
 					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							vehicleSubarray[j].adjustSpeedWithSanFranciscoTraceFiles(timePerStep_);
-						}
+						phase.processRegion(ourRegions_[i], rsus[i]);
 					}
 					
-					//rsus: cleanup old messages
-					for(i = 0; i < ourRegionsLength; ++i){
-						rsuSubarray = rsus[i];
-						length = rsuSubarray.length;
-						for(j = 0; j < length; ++j){
-							rsuSubarray[j].cleanup(timePerStep_);
-						}
-					}
-
-					
-					// Wait for all concurrent threads to synchronize			
-					
-					barrierDuringWork_.await();
+					// Wait for all concurrent threads to synchronize
+					if(barrier != null) barrier.await(workerIndex_);
 				} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
 				} catch (Exception e){
 					//e.printStackTrace();
-					try{
-						barrierDuringWork_.await();
-					}catch (Exception e2){}
-				}
-					
-				// ================================= 
-				// Step 4: Send messages.
-				// ================================= 
-				if(communicationEnabled){
-					try{
-						//vehicles send messages
-					
-						for(i = 0; i < ourRegionsLength; ++i){
-							vehicleSubarray = vehicles[i];
-							length = vehicleSubarray.length;
-							for(j = 0; j < length; ++j){
-								vehicle = vehicleSubarray[j];
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getCommunicationCountdown() < 1){
-									vehicle.sendMessages();
-								}
-							}
-						}
-						
-						//rsus: send messages
-						for(i = 0; i < ourRegionsLength; ++i){
-							rsuSubarray = rsus[i];
-							length = rsuSubarray.length;
-							for(j = 0; j < length; ++j){
-								rsu = rsuSubarray[j];
-								if(rsu.getCommunicationCountdown() < 1 && !rsu.isEncrypted_()){
-									rsuSubarray[j].sendMessages();	
-								}
-							}
-						}
-						
-						// Wait for all concurrent threads to synchronize
-						
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
-						try{
-							barrierDuringWork_.await();
-						}catch (Exception e2){}
-					}
-				}
-				
-				// ================================= 
-				// Step 4b: IDS calculations
-				// ================================= 
-			
-				if(idsEnabled){	
-					try{
-					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							vehicle = vehicleSubarray[j];
-							if(vehicle.isCheckIDSProcessors_()){
-								vehicle.getIdsProcessorList_().fireIDSProcessors();
-							}
-						}
-					}
-						
-						// Wait for all concurrent threads to synchronize
-					
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
-						try{
-							barrierDuringWork_.await();
-						}catch (Exception e2){}
-					}
-				}	
-
-				// ================================= 
-				// Step 5a:  Send beacons. Beacons are sent here so that they are not considered in the current step yet!
-				//          Putting this in the movement step is not possible!
-				// ================================= 
-				if(communicationEnabled && beaconsEnabled){
-					try{
-					//handle silent periods
-					if(Vehicle.isSilentPeriodsOn()){
-						tmpTimePassed = Renderer.getInstance().getTimePassed();
-						if(tmpTimePassed > silentPeriodFrequency && tmpTimePassed%(silentPeriodDuration + silentPeriodFrequency) < 240){
-							tmpTimePassedSaved = tmpTimePassed;
-							Vehicle.setSilent_period(true);
-						}
-						else if(Vehicle.isSilent_period() && tmpTimePassed > (tmpTimePassedSaved + silentPeriodDuration)) Vehicle.setSilent_period(false);
-					}
-
-						//vehicles: send beacons
-						for(i = 0; i < ourRegionsLength; ++i){
-							vehicleSubarray = vehicles[i];
-							length = vehicleSubarray.length;
-							for(j = 0; j < length; ++j){
-								vehicle = vehicleSubarray[j];
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getBeaconCountdown() < 1 && !vehicle.isInMixZone()){
-									vehicle.sendBeacons();
-								}
-								if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getBeaconCountdown() < 1 && vehicle.isInMixZone() && vehicle.getCurMixNode_() != null && vehicle.getCurMixNode_().getEncryptedRSU_() != null){
-									vehicle.sendEncryptedBeacons();
-								}
-							}
-						}
-
-						//rsu: send beacons
-						for(i = 0; i < ourRegionsLength; ++i){
-							rsuSubarray = rsus[i];
-							length = rsuSubarray.length;
-							for(j = 0; j < length; ++j){
-								rsu = rsuSubarray[j];
-								if(rsu.getBeaconCountdown() < 1 && !rsu.isEncrypted_()) rsu.sendBeacons();
-								if(rsu.getBeaconCountdown() < 1 && rsu.isEncrypted_()) rsu.sendEncryptedBeacons();
-							}
-						}
-						
-						// Wait for all concurrent threads to synchronize
-						
-						barrierDuringWork_.await();
-					} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-					} catch (Exception e){
-						//e.printStackTrace();
+					if(barrier != null){
 						try{
-							barrierDuringWork_.await();
+							barrier.await(workerIndex_);	//need to wait again...
 						}catch (Exception e2){}
 					}
 				}
-
-				// ================================= 
-				// Step 5b: Move attacker
-				// ================================= 
-				
-				/*
-					if(Renderer.getInstance().getAttackerVehicle() != null) Renderer.getInstance().getAttackerVehicle().moveAttacker();
-				*/
-					
-				// ================================= 
-				// Step 6: Move all vehicles one step further
-				// ================================= 
-				try{
-					for(i = 0; i < ourRegionsLength; ++i){
-						vehicleSubarray = vehicles[i];
-						length = vehicleSubarray.length;
-						for(j = 0; j < length; ++j){
-							if(vehicleSubarray[j].isActive()) vehicleSubarray[j].move(timePerStep_);
-							else if(recyclingEnabled && vehicleSubarray[j].getMayBeRecycled() && !vehicleSubarray[j].isDoNotRecycle_()) vehicleSubarray[j].reset();
-							
-						}
-					}
-					
-					// Wait for all concurrent threads to synchronize	
-					
-					barrierFinish_.await();
-				} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-				} catch (Exception e){
-					//e.printStackTrace();
-					try{
-						barrierFinish_.await();	//need to wait again...
-					}catch (Exception e2){}
-				}		
-
-				
-				// ================================= 
-				// Step 7: Check the states of all traffic lights and change if necessary
-				// ================================= 
-				/*
-				try{
-					
-					Node[] tmpNodes = null;
-					for(i = 0; i < ourRegions_.length; i++){
-						tmpNodes = ourRegions_[i].getNodes();
-						for(j = 0; j < tmpNodes.length; j++){
-							if(tmpNodes[j].isHasTrafficSignal_() && tmpNodes[j].getJunction() != null && tmpNodes[j].getJunction().getNode().getTrafficLight_() != null){	
-								tmpNodes[j].getJunction().getNode().getTrafficLight_().changePhases(timePerStep_);						
-						}
-					}
-				}
-
-
-					barrierFinish_.await();
-				} catch (BrokenBarrierException e){	//don't try to "repair" if barrier is broken
-				} catch (Exception e){
-				//e.printStackTrace();
-					try{
-						barrierFinish_.await();	//need to wait again...
-					}catch (Exception e2){}
-				}
-				*/
-				
+				phase.afterBarrier();
 			}
 		}
+		ErrorLog.log(Messages.getString("WorkerThread.barrierWaitTime") + ((barrierStart_.getWaitTime(workerIndex_) + barrierDuringWork_.getWaitTime(workerIndex_) + barrierFinish_.getWaitTime(workerIndex_)) / 1000000) + "ms", 1, this.getName(), "run", null); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		// remove the backlinks from the regions so that garbage collection can really remove everything
 		for(i = 0; i < ourRegionsLength; ++i){
-			ourRegions_[i].createBacklink(null, -1);
+			ourRegions_[i].createBacklink(null);
 		}
 		
 		ErrorLog.log(Messages.getString("WorkerThread.workerExited"), 1, this.getName(), "run", null); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
 	public static int getSimulationMode_() {
-		return simulationMode_;
+		return SimulationConfig.getInstance().getSimulationMode();
 	}
 
 	public static void setSimulationMode_(int simulationMode) {
-		simulationMode_ = simulationMode;
+		SimulationConfig.getInstance().setSimulationMode(simulationMode);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation.phases;
+
+import vanetsim.map.Region;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Vehicle;
+
+/**
+ * Adjusts the speed of all vehicles, cleans up old messages of the RSUs and sorts the vehicles into the cells of their 
+ * regions. The only difference between the simulation modes is the method used to adjust the speed.
+ */
+public final class AdjustSpeedPhase extends SimulationPhase{
+	
+	/** The simulation mode. 1 --> model VANETSim; 2 --> model IDS/MOBIL; 3 --> traces SJTU; 4 --> traces San Francisco */
+	private final int simulationMode_;
+	
+	/** The time in milliseconds for one step. */
+	private final int timePerStep_;
+	
+	/** If the vehicles need to be sorted into cells for communication. */
+	private final boolean communicationEnabled_;
+	
+	/** If the vehicles which need to send a beacon have to be collected. */
+	private final boolean beaconsEnabled_;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param simulationMode		the simulation mode
+	 * @param timePerStep			the time in milliseconds for one step
+	 * @param communicationEnabled	<code>true</code> if communication is enabled
+	 * @param beaconsEnabled		<code>true</code> if communication and beacons are enabled
+	 */
+	public AdjustSpeedPhase(int simulationMode, int timePerStep, boolean communicationEnabled, boolean beaconsEnabled){
+		super(BARRIER_DURING_WORK);
+		simulationMode_ = simulationMode;
+		timePerStep_ = timePerStep;
+		communicationEnabled_ = communicationEnabled;
+		beaconsEnabled_ = beaconsEnabled;
+	}
+	
+	/**
+	 * Adjusts the speed of the vehicles. Finished vehicles are skipped except for the trace files which start all vehicles 
+	 * in every step. Afterwards, the vehicle sets of the region are updated as vehicles might have started or finished.
+	 * 
+	 * @see vanetsim.simulation.phases.SimulationPhase#processRegion(vanetsim.map.Region, vanetsim.scenario.RSU[])
+	 */
+	public void processRegion(Region region, RSU[] rsus){
+		int i, length = region.getVehiclesCount();
+		Vehicle[] vehicles = region.getVehicles();
+		Vehicle[] scheduledVehicles = region.getScheduledVehicles();
+		int scheduledLength = region.getScheduledVehiclesCount();
+		//vehicles: adjustSpeed() (a separate loop for each mode so that every loop only calls one method)
+		switch(simulationMode_){
+			case 2:
+				for(i = 0; i < scheduledLength; ++i) scheduledVehicles[i].adjustSpeedWithIDM(timePerStep_);
+				break;
+			case 3:
+				for(i = 0; i < length; ++i) vehicles[i].adjustSpeedWithSJTUTraceFiles(timePerStep_);
+				break;
+			case 4:
+				for(i = 0; i < length; ++i) vehicles[i].adjustSpeedWithSanFranciscoTraceFiles(timePerStep_);
+				break;
+			default:
+				for(i = 0; i < scheduledLength; ++i) scheduledVehicles[i].adjustSpeed(timePerStep_);
+		}
+		region.updateVehicleStates();
+		
+		//rsus: cleanup old messages
+		length = rsus.length;
+		for(i = 0; i < length; ++i){
+			rsus[i].cleanup(timePerStep_);
+		}
+		
+		//sort vehicles into the cells of their regions so that RSUs only need to check the nearby ones (RSUs only communicate with active WiFi vehicles)
+		if(communicationEnabled_){
+			region.sortVehiclesIntoCells(region.getWiFiVehicles(), region.getWiFiVehiclesCount());
+			if(beaconsEnabled_) region.collectBeaconVehicles();
+		}
+	}
+}
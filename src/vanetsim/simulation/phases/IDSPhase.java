@@ -0,0 +1,52 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation.phases;
+
+import vanetsim.map.Region;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Vehicle;
+
+/**
+ * Runs the IDS calculations of all vehicles which have new IDS processors to check.
+ */
+public final class IDSPhase extends SimulationPhase{
+	
+	/**
+	 * Constructor.
+	 */
+	public IDSPhase(){
+		super(BARRIER_DURING_WORK);
+	}
+	
+	/**
+	 * Fires the IDS processors.
+	 * 
+	 * @see vanetsim.simulation.phases.SimulationPhase#processRegion(vanetsim.map.Region, vanetsim.scenario.RSU[])
+	 */
+	public void processRegion(Region region, RSU[] rsus){
+		Vehicle[] vehicles = region.getVehicles();
+		int length = region.getVehiclesCount();
+		Vehicle vehicle;
+		for(int i = 0; i < length; ++i){
+			vehicle = vehicles[i];
+			if(vehicle.isCheckIDSProcessors_()){
+				vehicle.getIdsProcessorList_().fireIDSProcessors();
+			}
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation.phases;
+
+import vanetsim.map.Region;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Vehicle;
+
+/**
+ * Moves all vehicles one step further. Inactive vehicles are recycled if possible.
+ */
+public final class MovePhase extends SimulationPhase{
+	
+	/** The time in milliseconds for one step. */
+	private final int timePerStep_;
+	
+	/** If recycling of vehicles is enabled. */
+	private final boolean recyclingEnabled_;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param timePerStep		the time in milliseconds for one step
+	 * @param recyclingEnabled	<code>true</code> if vehicles shall be recycled
+	 */
+	public MovePhase(int timePerStep, boolean recyclingEnabled){
+		super(BARRIER_DURING_WORK);
+		timePerStep_ = timePerStep;
+		recyclingEnabled_ = recyclingEnabled;
+	}
+	
+	/**
+	 * Moves the vehicles. Only the active vehicles and the ones which may be recycled are checked.
+	 * 
+	 * @see vanetsim.simulation.phases.SimulationPhase#processRegion(vanetsim.map.Region, vanetsim.scenario.RSU[])
+	 */
+	public void processRegion(Region region, RSU[] rsus){
+		Vehicle[] movingVehicles = region.getMovingVehicles();
+		int length = region.getMovingVehiclesCount();
+		Vehicle vehicle;
+		for(int i = 0; i < length; ++i){
+			vehicle = movingVehicles[i];
+			if(vehicle.isActive()) vehicle.move(timePerStep_);
+			else if(recyclingEnabled_ && vehicle.getMayBeRecycled() && !vehicle.isDoNotRecycle_()) vehicle.reset();
+		}
+	}
+}
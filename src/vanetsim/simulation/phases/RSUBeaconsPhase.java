@@ -0,0 +1,48 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation.phases;
+
+import vanetsim.map.Region;
+import vanetsim.scenario.RSU;
+
+/**
+ * Sends the beacons of all RSUs.
+ */
+public final class RSUBeaconsPhase extends SimulationPhase{
+	
+	/**
+	 * Constructor.
+	 */
+	public RSUBeaconsPhase(){
+		super(BARRIER_DURING_WORK);
+	}
+	
+	/**
+	 * Sends the beacons of the RSUs.
+	 * 
+	 * @see vanetsim.simulation.phases.SimulationPhase#processRegion(vanetsim.map.Region, vanetsim.scenario.RSU[])
+	 */
+	public void processRegion(Region region, RSU[] rsus){
+		RSU rsu;
+		for(int i = 0; i < rsus.length; ++i){
+			rsu = rsus[i];
+			if(rsu.getBeaconCountdown() < 1 && !rsu.isEncrypted_()) rsu.sendBeacons();
+			if(rsu.getBeaconCountdown() < 1 && rsu.isEncrypted_()) rsu.sendEncryptedBeacons();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation.phases;
+
+import vanetsim.map.Region;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.messages.MessageOutbox;
+import vanetsim.simulation.WorkerThread;
+
+/**
+ * Lets all RSUs send their messages into the outbox of the worker. After all workers have finished, each worker 
+ * delivers the messages sent to its own vehicles and RSUs.
+ */
+public final class RSUMessagesPhase extends SimulationPhase{
+	
+	/** The worker this phase belongs to. */
+	private final WorkerThread worker_;
+	
+	/** The outbox of the worker. */
+	private final MessageOutbox outbox_;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param worker	the worker this phase belongs to
+	 * @param outbox	the outbox of the worker
+	 */
+	public RSUMessagesPhase(WorkerThread worker, MessageOutbox outbox){
+		super(BARRIER_DURING_WORK);
+		worker_ = worker;
+		outbox_ = outbox;
+	}
+	
+	/**
+	 * Sends the messages of the RSUs.
+	 * 
+	 * @see vanetsim.simulation.phases.SimulationPhase#processRegion(vanetsim.map.Region, vanetsim.scenario.RSU[])
+	 */
+	public void processRegion(Region region, RSU[] rsus){
+		RSU rsu;
+		for(int i = 0; i < rsus.length; ++i){
+			rsu = rsus[i];
+			if(rsu.getCommunicationCountdown() < 1 && !rsu.isEncrypted_()){
+				outbox_.setSender(-1 - (int)rsu.getRSUID());
+				rsu.sendMessages(outbox_);	
+			}
+		}
+	}
+	
+	/**
+	 * All senders are finished. Deliver the messages to our vehicles and RSUs without locking.
+	 * 
+	 * @see vanetsim.simulation.phases.SimulationPhase#afterBarrier()
+	 */
+	public void afterBarrier(){
+		worker_.deliverMessages();
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation.phases;
+
+import vanetsim.map.Region;
+import vanetsim.scenario.RSU;
+
+/**
+ * An abstract class for the phases of a simulation step. Each worker thread has its own ordered list of phases which 
+ * it runs in every step. A phase is run on all regions of the worker through {@link #processRegion(Region, RSU[])}. 
+ * Afterwards, the worker waits for all other workers if the barrier policy of the phase demands it. Phases which are 
+ * disabled in a simulation are not put into the list at all so that they don't need to be checked in every step.
+ */
+public abstract class SimulationPhase{
+	
+	/** Barrier policy: the worker waits for all other workers after this phase. */
+	public static final int BARRIER_DURING_WORK = 0;
+	
+	/** Barrier policy: the worker directly continues with the next phase as only its own regions were used. */
+	public static final int BARRIER_NONE = 1;
+	
+	/** The barrier policy of this phase. */
+	private final int barrierPolicy_;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param barrierPolicy	the barrier policy (<code>BARRIER_DURING_WORK</code> or <code>BARRIER_NONE</code>)
+	 */
+	protected SimulationPhase(int barrierPolicy){
+		barrierPolicy_ = barrierPolicy;
+	}
+	
+	/**
+	 * Called once per step before the regions are processed. Does nothing by default.
+	 */
+	public void beforeRegions(){
+	}
+	
+	/**
+	 * Runs this phase on one region of the worker.
+	 * 
+	 * @param region	the region
+	 * @param rsus		the Road-Side-Units of the region
+	 */
+	public abstract void processRegion(Region region, RSU[] rsus);
+	
+	/**
+	 * Called once per step after the barrier of this phase (or directly after the regions if there's no barrier). 
+	 * Does nothing by default.
+	 */
+	public void afterBarrier(){
+	}
+	
+	/**
+	 * Gets the barrier policy of this phase. Note that the last phase of a step always waits on the barrier of the 
+	 * simulation master regardless of its policy.
+	 * 
+	 * @return <code>BARRIER_DURING_WORK</code> or <code>BARRIER_NONE</code>
+	 */
+	public int getBarrierPolicy(){
+		return barrierPolicy_;
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation.phases;
+
+import vanetsim.map.Region;
+import vanetsim.scenario.RSU;
+
+/**
+ * Changes the states of the traffic lights whose current phase is over. Each region keeps its traffic lights in a queue 
+ * ordered by their next phase change so that neither all nodes nor all traffic lights need to be checked in every step.
+ */
+public final class TrafficLightPhase extends SimulationPhase{
+	
+	/** The time in milliseconds for one step. */
+	private final int timePerStep_;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param timePerStep	the time in milliseconds for one step
+	 */
+	public TrafficLightPhase(int timePerStep){
+		super(BARRIER_DURING_WORK);
+		timePerStep_ = timePerStep;
+	}
+	
+	/**
+	 * Changes the phases of the traffic lights.
+	 * 
+	 * @see vanetsim.simulation.phases.SimulationPhase#processRegion(vanetsim.map.Region, vanetsim.scenario.RSU[])
+	 */
+	public void processRegion(Region region, RSU[] rsus){
+		region.changeTrafficLightPhases(timePerStep_);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation.phases;
+
+import vanetsim.map.Region;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Vehicle;
+import vanetsim.simulation.SimulationEngine;
+
+/**
+ * Sends the beacons of all vehicles. Beacons are sent after the messages so that they are not considered in 
+ * the current step yet! Putting this in the movement phase is not possible! The RSUs send their beacons in the 
+ * following {@link RSUBeaconsPhase}.
+ */
+public final class VehicleBeaconsPhase extends SimulationPhase{
+	
+	/** The duration of silent periods in ms. */
+	private final int silentPeriodDuration_ = Vehicle.getTIME_OF_SILENT_PERIODS();
+	
+	/** The time between silent periods in ms. */
+	private final int silentPeriodFrequency_ = Vehicle.getTIME_BETWEEN_SILENT_PERIODS();
+	
+	/** The time when the current silent period started. */
+	private int tmpTimePassedSaved_ = 99999999;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param waitForRSUs	<code>true</code> to wait for all workers before the RSUs send their beacons. Needed in deterministic mode 
+	 * 						as RSUs in mix zones forward beacons to the same known vehicles.
+	 */
+	public VehicleBeaconsPhase(boolean waitForRSUs){
+		super(waitForRSUs ? BARRIER_DURING_WORK : BARRIER_NONE);
+	}
+	
+	/**
+	 * Handles silent periods.
+	 * 
+	 * @see vanetsim.simulation.phases.SimulationPhase#beforeRegions()
+	 */
+	public void beforeRegions(){
+		if(Vehicle.isSilentPeriodsOn()){
+			SimulationEngine engine = SimulationEngine.getInstance();
+			int tmpTimePassed = engine.getTimePassed();
+			if(tmpTimePassed > silentPeriodFrequency_ && tmpTimePassed%(silentPeriodDuration_ + silentPeriodFrequency_) < 240){
+				tmpTimePassedSaved_ = tmpTimePassed;
+				engine.setSilentPeriod(true);
+			}
+			else if(engine.isSilentPeriod() && tmpTimePassed > (tmpTimePassedSaved_ + silentPeriodDuration_)) engine.setSilentPeriod(false);
+		}
+	}
+	
+	/**
+	 * Sends the beacons of the vehicles. Only the vehicles collected after adjusting the speed are checked.
+	 * 
+	 * @see vanetsim.simulation.phases.SimulationPhase#processRegion(vanetsim.map.Region, vanetsim.scenario.RSU[])
+	 */
+	public void processRegion(Region region, RSU[] rsus){
+		Vehicle[] beaconVehicles = region.getBeaconVehicles();
+		int length = region.getBeaconVehiclesCount();
+		Vehicle vehicle;
+		for(int i = 0; i < length; ++i){
+			vehicle = beaconVehicles[i];
+			if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getBeaconCountdown() < 1 && !vehicle.isInMixZone()){
+				vehicle.sendBeacons();
+			}
+			if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getBeaconCountdown() < 1 && vehicle.isInMixZone() && vehicle.getCurMixNode_() != null && vehicle.getCurMixNode_().getEncryptedRSU_() != null){
+				vehicle.sendEncryptedBeacons();
+			}
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation.phases;
+
+import vanetsim.map.Region;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Vehicle;
+import vanetsim.scenario.messages.MessageOutbox;
+
+/**
+ * Lets all vehicles send their messages into the outbox of the worker. The RSUs send their messages in the 
+ * following {@link RSUMessagesPhase}.
+ */
+public final class VehicleMessagesPhase extends SimulationPhase{
+	
+	/** The outbox of the worker. */
+	private final MessageOutbox outbox_;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param outbox	the outbox of the worker
+	 */
+	public VehicleMessagesPhase(MessageOutbox outbox){
+		super(BARRIER_NONE);
+		outbox_ = outbox;
+	}
+	
+	/**
+	 * Sends the messages of the vehicles. Only the active vehicles with WiFi enabled are checked.
+	 * 
+	 * @see vanetsim.simulation.phases.SimulationPhase#processRegion(vanetsim.map.Region, vanetsim.scenario.RSU[])
+	 */
+	public void processRegion(Region region, RSU[] rsus){
+		Vehicle[] wiFiVehicles = region.getWiFiVehicles();
+		int length = region.getWiFiVehiclesCount();
+		Vehicle vehicle;
+		for(int i = 0; i < length; ++i){
+			vehicle = wiFiVehicles[i];
+			if(vehicle.isActive() && vehicle.isWiFiEnabled() && vehicle.getCommunicationCountdown() < 1){
+				outbox_.setSender(vehicle.getSteadyID());
+				vehicle.sendMessages(outbox_);
+			}
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * VANETsim open source project - http://www.vanet-simulator.org
+ * Copyright (C) 2008 - 2013  Andreas Tomandl, Florian Scheuer, Bernhard Gruber
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vanetsim.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import org.junit.Test;
+
+import vanetsim.map.Map;
+import vanetsim.map.Node;
+import vanetsim.map.Street;
+import vanetsim.routing.WayPoint;
+import vanetsim.scenario.RSU;
+import vanetsim.scenario.Scenario;
+import vanetsim.scenario.Vehicle;
+
+/**
+ * Runs a small generated grid scenario several times in deterministic mode and checks that all runs end in the same
+ * state. This is a JUnit 4 test; see the README for how to run it.
+ */
+public final class DeterministicModeTest{
+
+	/** The amount of nodes in each direction of the grid. */
+	private static final int GRID_SIZE = 6;
+
+	/** The distance between two nodes of the grid in cm. */
+	private static final int NODE_DISTANCE = 20000;
+
+	/** The amount of vehicles in the scenario. */
+	private static final int VEHICLES = 300;
+
+	/** The simulation time of each run in milliseconds. */
+	private static final int SIMULATION_TIME = 10000;
+
+	/**
+	 * The same scenario with the same amount of threads must give the same result in every run.
+	 */
+	@Test
+	public void sameResultInEveryRun(){
+		assertEquals(run(4), run(4));
+	}
+
+	/**
+	 * The result may not depend on the amount of worker threads.
+	 */
+	@Test
+	public void sameResultWithDifferentThreadCounts(){
+		assertEquals(run(1), run(4));
+		assertEquals(run(4), run(16));
+	}
+
+	/**
+	 * Builds the scenario in a new context and simulates it.
+	 *
+	 * @param threads	the amount of worker threads
+	 *
+	 * @return the hash over all vehicles after the simulation
+	 */
+	private static long run(int threads){
+		new SimulationContext().bind();
+		SimulationMaster.setDeterministicMode(true);
+		SimulationEngine engine = SimulationEngine.getInstance();
+		engine.setConsoleStart(true);
+		Vehicle.setCommunicationEnabled(true);
+		Vehicle.setBeaconsEnabled(true);
+		Vehicle.setSteadyIDCounter(0);
+		SimulationMaster master = new SimulationMaster();
+		master.setDaemon(true);
+		master.setThreadCount(threads);
+		master.setExitAfterJump(false);
+		master.start();
+		buildScenario();
+
+		master.jumpToTime(SIMULATION_TIME);
+		while(master.isSimulationRunning()){
+			try{
+				Thread.sleep(20);
+			} catch (InterruptedException e){}
+		}
+		master.stopAndWait();
+		assertTrue(engine.getTimePassed() >= SIMULATION_TIME);
+		long hash = DeterminismCheck.calculateHash();
+
+		Scenario.getInstance().setReadyState(false);
+		master.stopThread();
+		return hash;
+	}
+
+	/**
+	 * Creates a grid map with some RSUs and vehicles driving between random nodes. The random numbers are drawn from a
+	 * fixed seed so that every call creates the same scenario.
+	 */
+	private static void buildScenario(){
+		Map map = Map.getInstance();
+		int size = GRID_SIZE * NODE_DISTANCE + NODE_DISTANCE;
+		map.initNewMap(size, size, size / 3, size / 3);
+		Node[][] nodes = new Node[GRID_SIZE][GRID_SIZE];
+		int i, j;
+		for(i = 0; i < GRID_SIZE; ++i){
+			for(j = 0; j < GRID_SIZE; ++j){
+				nodes[i][j] = map.addNode(new Node(NODE_DISTANCE / 2 + i * NODE_DISTANCE, NODE_DISTANCE / 2 + j * NODE_DISTANCE));
+			}
+		}
+		for(i = 0; i < GRID_SIZE; ++i){
+			for(j = 0; j < GRID_SIZE; ++j){
+				if(i + 1 < GRID_SIZE) addStreet(map, nodes[i][j], nodes[i+1][j]);
+				if(j + 1 < GRID_SIZE) addStreet(map, nodes[i][j], nodes[i][j+1]);
+			}
+		}
+		for(i = 0; i < GRID_SIZE; i += 2){
+			map.addRSU(new RSU(nodes[i][i].getX() + NODE_DISTANCE / 3, nodes[i][i].getY(), 25000, false));
+		}
+		map.signalMapLoaded();
+
+		Random random = new Random(7);
+		ArrayDeque<WayPoint> destinations;
+		Node node;
+		for(i = 0; i < VEHICLES; ++i){
+			destinations = new ArrayDeque<WayPoint>();
+			try{
+				for(j = 0; j < 4; ++j){
+					node = nodes[random.nextInt(GRID_SIZE)][random.nextInt(GRID_SIZE)];
+					destinations.add(new WayPoint(node.getX(), node.getY(), 0));
+				}
+				map.addVehicle(new Vehicle(destinations, 500, 1500, 10000, true, i % 10 == 0, 300, 200, 100, 50, 0, Color.RED, false, "")); //$NON-NLS-1$
+			} catch (Exception e){}	// no route between the destinations
+		}
+	}
+
+	/**
+	 * Adds a street with two lanes and 50 km/h between two nodes.
+	 *
+	 * @param map		the map
+	 * @param start		the start node
+	 * @param end		the end node
+	 */
+	private static void addStreet(Map map, Node start, Node end){
+		map.addStreet(new Street("grid", start, end, "primary", 0, 2, Color.WHITE, map.getRegionOfPoint(start.getX(), start.getY()), 50 * 100000 / 3600)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}